@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT, 
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.benchmark;
+
+import com.numericalmethod.suanshu.stats.descriptive.Statistic;
+import com.numericalmethod.suanshu.stats.descriptive.StatisticFactory;
+import com.numericalmethod.suanshu.stats.descriptive.moment.Mean;
+import com.numericalmethod.suanshu.stats.sampling.resampling.bootstrap.BootstrapEstimator;
+import com.numericalmethod.suanshu.stats.sampling.resampling.bootstrap.NonParametricBootstrap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of the bootstrap estimate of the mean of a sample of size 1000.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BootstrapBenchmark {
+
+    private static final StatisticFactory MEAN = new StatisticFactory() {
+
+        @Override
+        public Statistic getStatistic() {
+            return new Mean();
+        }
+    };
+    @Param({"1000", "10000"})
+    public int B;
+    @Param({"false", "true"})
+    public boolean parallel;
+    private double[] sample;
+
+    @Setup
+    public void setup() {
+        sample = Problems.uniform(1000);
+    }
+
+    @Benchmark
+    public double estimate() {
+        NonParametricBootstrap bootstrap = new NonParametricBootstrap(sample);
+        bootstrap.seed(Problems.SEED);
+        return new BootstrapEstimator(bootstrap, MEAN, B, parallel).value();
+    }
+}
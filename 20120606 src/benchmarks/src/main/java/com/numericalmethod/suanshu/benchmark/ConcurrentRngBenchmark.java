@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT, 
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.benchmark;
+
+import com.numericalmethod.suanshu.stats.random.RngUtils;
+import com.numericalmethod.suanshu.stats.random.concurrent.ConcurrentCachedGenerator;
+import com.numericalmethod.suanshu.stats.random.concurrent.ConcurrentCachedRNG;
+import com.numericalmethod.suanshu.stats.random.univariate.RandomNumberGenerator;
+import com.numericalmethod.suanshu.stats.random.univariate.uniform.MersenneTwister;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of sharing a random number generator among 32 threads.
+ * In {@code SampleTime} mode, JMH reports the percentiles of the time of a draw, i.e., the tail latency,
+ * as well as the average.
+ * The generic {@link ConcurrentCachedGenerator}, which boxes the numbers and refills on the thread that runs out,
+ * is the baseline.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Threads(32)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ConcurrentRngBenchmark {
+
+    private RandomNumberGenerator synchronizedRng;
+    private ConcurrentCachedGenerator<Double> boxed;
+    private ConcurrentCachedRNG cached;
+
+    @Setup
+    public void setup() {
+        synchronizedRng = RngUtils.synchronizedRNG(new MersenneTwister(Problems.SEED));
+        final MersenneTwister mt = new MersenneTwister(Problems.SEED);
+        boxed = new ConcurrentCachedGenerator<Double>(
+                new ConcurrentCachedGenerator.Generator<Double>() {
+
+                    @Override
+                    public Double next() {
+                        return mt.nextDouble();
+                    }
+                },
+                Runtime.getRuntime().availableProcessors() * 8);
+        cached = new ConcurrentCachedRNG(new MersenneTwister(Problems.SEED));
+    }
+
+    @Benchmark
+    public double synchronizedRng() {
+        return synchronizedRng.nextDouble();
+    }
+
+    @Benchmark
+    public double concurrentCachedGenerator() {
+        return boxed.next();
+    }
+
+    @Benchmark
+    public double concurrentCachedRNG() {
+        return cached.nextDouble();
+    }
+}
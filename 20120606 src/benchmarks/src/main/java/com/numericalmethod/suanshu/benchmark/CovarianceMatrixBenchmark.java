@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT, 
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.benchmark;
+
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.stats.descriptive.CorrelationMatrix;
+import com.numericalmethod.suanshu.stats.descriptive.CovarianceMatrix;
+import com.numericalmethod.suanshu.stats.descriptive.IncrementalCovariance;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of the covariance matrix of 2000 observations of 200 variables,
+ * computed in one blocked pass, with exponential weights, and row by row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CovarianceMatrixBenchmark {
+
+    private static final int N_ROWS = 2000;
+    private static final int N_COLS = 200;
+    private Matrix X;
+    private double[] weights;
+
+    @Setup
+    public void setup() {
+        X = new DenseMatrix(Problems.uniform(N_ROWS * N_COLS), N_ROWS, N_COLS);
+        weights = CovarianceMatrix.exponentialWeights(N_ROWS, 0.97);
+    }
+
+    @Benchmark
+    public Matrix covariance() {
+        return new CovarianceMatrix(X);
+    }
+
+    @Benchmark
+    public Matrix correlation() {
+        return new CorrelationMatrix(new CovarianceMatrix(X));
+    }
+
+    @Benchmark
+    public Matrix weighted() {
+        return new CovarianceMatrix(X, weights);
+    }
+
+    @Benchmark
+    public Matrix incremental() {
+        IncrementalCovariance cov = new IncrementalCovariance(N_COLS);
+        for (int i = 1; i <= N_ROWS; ++i) {
+            cov.addRow(X.getRow(i).toArray());
+        }
+        return cov.covariance();
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT, 
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.benchmark;
+
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.factorization.eigen.Eigen;
+import com.numericalmethod.suanshu.matrix.doubles.factorization.qr.QR;
+import com.numericalmethod.suanshu.matrix.doubles.factorization.svd.GloubKahanSVD;
+import com.numericalmethod.suanshu.matrix.doubles.factorization.triangle.Cholesky;
+import com.numericalmethod.suanshu.matrix.doubles.factorization.triangle.LU;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of the dense matrix factorizations.
+ * LU, QR and SVD factor a random matrix; Cholesky and the (symmetric) eigen decomposition factor an SPD matrix.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FactorizationBenchmark {
+
+    @Param({"32", "128", "512"})
+    public int size;
+    private Matrix A;
+    private Matrix S;
+
+    @Setup
+    public void setup() {
+        A = Problems.randomMatrix(size, size);
+        S = Problems.spdMatrix(size);
+    }
+
+    @Benchmark
+    public LU lu() {
+        return new LU(A);
+    }
+
+    @Benchmark
+    public Cholesky cholesky() {
+        return new Cholesky(S);
+    }
+
+    @Benchmark
+    public Matrix qr() {
+        return new QR(A).R();
+    }
+
+    @Benchmark
+    public GloubKahanSVD svd() {
+        return new GloubKahanSVD(A, true, true, 0);
+    }
+
+    @Benchmark
+    public Eigen eigen() {
+        return new Eigen(S, Eigen.Method.SYMMETRY, 0);
+    }
+}
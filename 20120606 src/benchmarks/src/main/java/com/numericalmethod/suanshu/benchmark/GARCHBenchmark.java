@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT, 
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.benchmark;
+
+import com.numericalmethod.suanshu.stats.random.univariate.normal.Zignor2005;
+import com.numericalmethod.suanshu.stats.timeseries.linear.univariate.stationaryprocess.garch.GARCH;
+import com.numericalmethod.suanshu.stats.timeseries.linear.univariate.stationaryprocess.garch.GARCHModel;
+import com.numericalmethod.suanshu.stats.timeseries.linear.univariate.stationaryprocess.garch.GARCHSim;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of the maximum likelihood fitting of a GARCH(1, 1) model to a simulated series.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class GARCHBenchmark {
+
+    @Param({"500", "2000"})
+    public int T;
+    @Param({"ANALYTICAL", "NUMERICAL"})
+    public GARCH.GRADIENT gradient;
+    private GARCHSim xt;
+
+    @Setup
+    public void setup() {
+        GARCHModel model = new GARCHModel(0.2, new double[]{0.2}, new double[]{0.7});
+        Zignor2005 normal = new Zignor2005();
+        normal.seed(Problems.SEED);
+        double[] innovations = new double[T + model.maxPQ()];
+        for (int i = 0; i < innovations.length; ++i) {
+            innovations[i] = normal.nextDouble();
+        }
+        xt = new GARCHSim(T, model, innovations);
+    }
+
+    @Benchmark
+    public GARCHModel fit() {
+        return new GARCH(xt, 1, 1, 300, gradient).getModel();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT, 
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.benchmark;
+
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.stats.hmm.mixture.HiddenMarkovModel;
+import com.numericalmethod.suanshu.stats.hmm.mixture.HmmBaumWelch;
+import com.numericalmethod.suanshu.stats.hmm.mixture.distribution.NormalDistribution;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of the Baum-Welch training of a 3-state hidden Markov model with Normal observations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class HmmBaumWelchBenchmark {
+
+    @Param({"1000", "10000"})
+    public int T;
+    private HiddenMarkovModel model0;
+    private double[] observations;
+
+    @Setup
+    public void setup() {
+        Vector PI = new DenseVector(new double[]{0., 1., 0.});
+        Matrix A = new DenseMatrix(new double[][]{
+                    {1. / 2., 1. / 2., 0.},
+                    {1. / 3., 1. / 3., 1. / 3.},
+                    {0., 1. / 2., 1. / 2.}
+                });
+        NormalDistribution.Lambda[] lambda = new NormalDistribution.Lambda[]{
+            new NormalDistribution.Lambda(1., .5),
+            new NormalDistribution.Lambda(10., 1.),
+            new NormalDistribution.Lambda(3., .5)
+        };
+        model0 = new HiddenMarkovModel(PI, A, new NormalDistribution(lambda));
+        model0.seed(Problems.SEED);
+
+        observations = new double[T];
+        for (int t = 0; t < T; ++t) {
+            observations[t] = model0.next().getObservation();
+        }
+    }
+
+    @Benchmark
+    public HiddenMarkovModel train() {
+        return new HmmBaumWelch(observations, model0, 1e-5, 20);
+    }
+}
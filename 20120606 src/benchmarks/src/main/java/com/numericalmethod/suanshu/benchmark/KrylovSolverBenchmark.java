@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT, 
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.benchmark;
+
+import com.numericalmethod.suanshu.algorithm.iterative.monitor.IterationMonitor;
+import com.numericalmethod.suanshu.algorithm.iterative.monitor.NullMonitor;
+import com.numericalmethod.suanshu.algorithm.iterative.tolerance.AbsoluteTolerance;
+import com.numericalmethod.suanshu.algorithm.iterative.tolerance.Tolerance;
+import com.numericalmethod.suanshu.matrix.doubles.linearsystem.LSProblem;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.SparseVector;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.ConvergenceFailure;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.IterativeLinearSystemSolver;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.nonstationary.*;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of the Krylov subspace solvers, on the shifted 5-point Laplacian of an <i>n x n</i> grid.
+ * The system is symmetric positive definite, so that every solver converges.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class KrylovSolverBenchmark {
+
+    @Param({"CG", "CGNE", "CGNR", "CGS", "BiCG", "BiCGSTAB", "GCR", "GMRES", "MINRES", "QMR", "SteepestDescent"})
+    public String solver;
+    @Param({"32", "64"})
+    public int grid;
+    private IterativeLinearSystemSolver instance;
+    private LSProblem problem;
+    private Vector x0;
+    private final IterationMonitor<Vector> monitor = new NullMonitor<Vector>();
+
+    @Setup
+    public void setup() {
+        problem = new LSProblem(Problems.laplacian(grid, 0.1), Problems.ones(grid * grid));
+        x0 = new SparseVector(grid * grid);
+
+        final int maxIteration = 100 * grid * grid;
+        final Tolerance tolerance = new AbsoluteTolerance(1e-8);
+        if ("CG".equals(solver)) {
+            instance = new ConjugateGradientSolver(maxIteration, tolerance);
+        } else if ("CGNE".equals(solver)) {
+            instance = new ConjugateGradientNormalErrorSolver(maxIteration, tolerance);
+        } else if ("CGNR".equals(solver)) {
+            instance = new ConjugateGradientNormalResidualSolver(maxIteration, tolerance);
+        } else if ("CGS".equals(solver)) {
+            instance = new ConjugateGradientSquaredSolver(maxIteration, tolerance);
+        } else if ("BiCG".equals(solver)) {
+            instance = new BiconjugateGradientSolver(maxIteration, tolerance);
+        } else if ("BiCGSTAB".equals(solver)) {
+            instance = new BiconjugateGradientStabilizedSolver(maxIteration, tolerance);
+        } else if ("GCR".equals(solver)) {
+            instance = new GeneralizedConjugateResidualSolver(maxIteration, tolerance);
+        } else if ("GMRES".equals(solver)) {
+            instance = new GeneralizedMinimalResidualSolver(maxIteration, tolerance);
+        } else if ("MINRES".equals(solver)) {
+            instance = new MinimalResidualSolver(maxIteration, tolerance);
+        } else if ("QMR".equals(solver)) {
+            instance = new QuasiMinimalResidualSolver(maxIteration, tolerance);
+        } else if ("SteepestDescent".equals(solver)) {
+            instance = new SteepestDescentSolver(maxIteration, tolerance);
+        } else {
+            throw new IllegalArgumentException(String.format("unknown solver %s", solver));
+        }
+    }
+
+    @Benchmark
+    public Vector solve() throws ConvergenceFailure {
+        return instance.solve(problem, monitor).search(x0);
+    }
+}
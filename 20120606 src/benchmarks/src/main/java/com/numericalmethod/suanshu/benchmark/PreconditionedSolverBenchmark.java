@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.benchmark;
+
+import com.numericalmethod.suanshu.algorithm.iterative.monitor.CountMonitor;
+import com.numericalmethod.suanshu.algorithm.iterative.tolerance.AbsoluteTolerance;
+import com.numericalmethod.suanshu.algorithm.iterative.tolerance.Tolerance;
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.linearsystem.LSProblem;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.SparseVector;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.ConvergenceFailure;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.IterativeLinearSystemSolver;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.nonstationary.BiconjugateGradientStabilizedSolver;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.nonstationary.GeneralizedMinimalResidualSolver;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.*;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of the preconditioners with BiCGSTAB and restarted GMRES,
+ * on the unshifted 5-point Laplacian of an <i>n x n</i> grid, whose condition number grows as <i>n<sup>2</sup></i>.
+ * The time includes constructing the preconditioner.
+ * The number of iterations of the last solve is reported as the secondary result {@code iterations}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PreconditionedSolverBenchmark {
+
+    /** the restart parameter of GMRES */
+    private static final int RESTART = 30;
+    @Param({"BiCGSTAB", "GMRES"})
+    public String solver;
+    @Param({"Identity", "Jacobi", "SSOR", "ILU0", "ILUT", "IC0"})
+    public String preconditioner;
+    @Param({"32", "64"})
+    public int grid;
+    private IterativeLinearSystemSolver instance;
+    private LSProblem problem;
+    private Vector x0;
+
+    /**
+     * the number of iterations, reported along with the time
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Iterations {
+
+        public int iterations;
+    }
+
+    @Setup
+    public void setup() {
+        problem = new LSProblem(Problems.laplacian(grid, 0.), Problems.ones(grid * grid));
+        x0 = new SparseVector(grid * grid);
+
+        final PreconditionerFactory factory = factory(preconditioner);
+        final int maxIteration = 100 * grid * grid;
+        final Tolerance tolerance = new AbsoluteTolerance(1e-8);
+        if ("BiCGSTAB".equals(solver)) {
+            instance = new BiconjugateGradientStabilizedSolver(
+                    factory, BiconjugateGradientStabilizedSolver.DEFAULT_RESIDUAL_REFRESH_RATE, maxIteration, tolerance);
+        } else if ("GMRES".equals(solver)) {
+            instance = new GeneralizedMinimalResidualSolver(factory, RESTART, maxIteration, tolerance);
+        } else {
+            throw new IllegalArgumentException(String.format("unknown solver %s", solver));
+        }
+    }
+
+    private static PreconditionerFactory factory(final String name) {
+        return new PreconditionerFactory() {
+
+            @Override
+            public Preconditioner newInstance(Matrix A) {
+                if ("Identity".equals(name)) {
+                    return new IdentityPreconditioner();
+                } else if ("Jacobi".equals(name)) {
+                    return new JacobiPreconditioner(A);
+                } else if ("SSOR".equals(name)) {
+                    return new SSORPreconditioner(A, 1.5);
+                } else if ("ILU0".equals(name)) {
+                    return new ILU0Preconditioner(A);
+                } else if ("ILUT".equals(name)) {
+                    return new ILUTPreconditioner(A, 1e-3, 10);
+                } else if ("IC0".equals(name)) {
+                    return new IC0Preconditioner(A);
+                }
+                throw new IllegalArgumentException(String.format("unknown preconditioner %s", name));
+            }
+        };
+    }
+
+    @Benchmark
+    public Vector solve(Iterations counter) throws ConvergenceFailure {
+        CountMonitor<Vector> monitor = new CountMonitor<Vector>();
+        Vector x = instance.solve(problem, monitor).search(x0);
+        counter.iterations = monitor.getCount();
+        return x;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT, 
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.benchmark;
+
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.CSRSparseMatrix;
+import com.numericalmethod.suanshu.stats.random.univariate.uniform.UniformRng;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+import java.util.Arrays;
+
+/**
+ * These are the inputs shared by the benchmarks.
+ * They are generated from a fixed seed so that the runs of different builds are comparable.
+ */
+final class Problems {
+
+    static final long SEED = 1234567890L;
+
+    private Problems() {
+    }
+
+    static UniformRng uniform() {
+        UniformRng rng = new UniformRng();
+        rng.seed(SEED);
+        return rng;
+    }
+
+    static double[] uniform(int n) {
+        UniformRng rng = uniform();
+        double[] x = new double[n];
+        for (int i = 0; i < n; ++i) {
+            x[i] = rng.nextDouble();
+        }
+        return x;
+    }
+
+    /**
+     * Generate a random matrix with entries in [0, 1).
+     *
+     * @param nRows the number of rows
+     * @param nCols the number of columns
+     * @return a random matrix
+     */
+    static DenseMatrix randomMatrix(int nRows, int nCols) {
+        return new DenseMatrix(uniform(nRows * nCols), nRows, nCols);
+    }
+
+    static DenseVector randomVector(int n) {
+        return new DenseVector(uniform(n));
+    }
+
+    /**
+     * Generate a symmetric positive definite matrix, <i>A' * A + n * I</i>.
+     *
+     * @param n the dimension
+     * @return an SPD matrix
+     */
+    static Matrix spdMatrix(int n) {
+        DenseMatrix A = randomMatrix(n, n);
+        DenseMatrix S = new DenseMatrix(A.t().multiply(A));
+        for (int i = 1; i <= n; ++i) {
+            S.set(i, i, S.get(i, i) + n);
+        }
+        return S;
+    }
+
+    /**
+     * Generate the 5-point discrete Laplacian on an <i>n x n</i> grid, shifted by <i>shift * I</i>.
+     * It is sparse, symmetric and positive definite, and diagonally dominant if {@code shift > 0}.
+     *
+     * @param n     the number of grid points per side
+     * @param shift the shift of the diagonal
+     * @return an <i>n<sup>2</sup> x n<sup>2</sup></i> sparse matrix
+     */
+    static CSRSparseMatrix laplacian(int n, double shift) {
+        final int N = n * n;
+        final int nnz = 5 * N - 4 * n;
+        int[] rows = new int[nnz];
+        int[] cols = new int[nnz];
+        double[] values = new double[nnz];
+        int k = 0;
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < n; ++j) {
+                final int row = i * n + j + 1;
+                rows[k] = row;
+                cols[k] = row;
+                values[k++] = 4 + shift;
+                if (i > 0) {
+                    rows[k] = row;
+                    cols[k] = row - n;
+                    values[k++] = -1;
+                }
+                if (i < n - 1) {
+                    rows[k] = row;
+                    cols[k] = row + n;
+                    values[k++] = -1;
+                }
+                if (j > 0) {
+                    rows[k] = row;
+                    cols[k] = row - 1;
+                    values[k++] = -1;
+                }
+                if (j < n - 1) {
+                    rows[k] = row;
+                    cols[k] = row + 1;
+                    values[k++] = -1;
+                }
+            }
+        }
+        return new CSRSparseMatrix(N, N, rows, cols, values);
+    }
+
+    static Vector ones(int n) {
+        double[] x = new double[n];
+        Arrays.fill(x, 1.);
+        return new DenseVector(x);
+    }
+}
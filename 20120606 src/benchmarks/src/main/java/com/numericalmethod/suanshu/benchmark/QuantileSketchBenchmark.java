@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT, 
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.benchmark;
+
+import com.numericalmethod.suanshu.stats.descriptive.rank.KLLSketch;
+import com.numericalmethod.suanshu.stats.descriptive.rank.P2Quantile;
+import com.numericalmethod.suanshu.stats.descriptive.rank.Quantile;
+import com.numericalmethod.suanshu.stats.descriptive.rank.TDigest;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of the 99% quantile of a stream of 2<sup>20</sup> data points, arriving in blocks of 1000,
+ * computed exactly and by the sketches.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class QuantileSketchBenchmark {
+
+    private static final int BLOCK = 1000;
+    private double[][] blocks;
+
+    @Setup
+    public void setup() {
+        double[] sample = Problems.uniform(1 << 20);
+        blocks = new double[(sample.length + BLOCK - 1) / BLOCK][];
+        for (int i = 0; i < blocks.length; ++i) {
+            blocks[i] = Arrays.copyOfRange(sample, i * BLOCK, Math.min((i + 1) * BLOCK, sample.length));
+        }
+    }
+
+    @Benchmark
+    public double exact() {
+        Quantile quantile = new Quantile(new double[0]);
+        for (double[] block : blocks) {
+            quantile.addData(block);
+        }
+        return quantile.value(0.99);
+    }
+
+    @Benchmark
+    public double tDigest() {
+        Quantile quantile = new Quantile(new TDigest());
+        for (double[] block : blocks) {
+            quantile.addData(block);
+        }
+        return quantile.value(0.99);
+    }
+
+    @Benchmark
+    public double kll() {
+        Quantile quantile = new Quantile(new KLLSketch());
+        for (double[] block : blocks) {
+            quantile.addData(block);
+        }
+        return quantile.value(0.99);
+    }
+
+    @Benchmark
+    public double p2() {
+        P2Quantile quantile = new P2Quantile(0.99);
+        for (double[] block : blocks) {
+            quantile.addData(block);
+        }
+        return quantile.value();
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT, 
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.benchmark;
+
+import com.numericalmethod.suanshu.stats.random.univariate.gamma.MarsagliaTsang2000;
+import com.numericalmethod.suanshu.stats.random.univariate.normal.Ziggurat2000;
+import com.numericalmethod.suanshu.stats.random.univariate.normal.Zignor2005;
+import com.numericalmethod.suanshu.stats.random.univariate.uniform.MersenneTwister;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the random number generators.
+ * A benchmark draws {@value #N} numbers; the score is the time per number.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RandomNumberGeneratorBenchmark {
+
+    private static final int N = 1000;
+    /** the shape of the Gamma distribution; the method is different for {@code k < 1} */
+    @Param({"0.5", "2.0"})
+    public double gammaShape;
+    private MersenneTwister mt;
+    private Ziggurat2000 ziggurat;
+    private Zignor2005 zignor;
+    private MarsagliaTsang2000 gamma;
+    private final double[] doubles = new double[N];
+
+    @Setup
+    public void setup() {
+        mt = new MersenneTwister(Problems.SEED);
+        ziggurat = new Ziggurat2000();
+        ziggurat.seed(Problems.SEED);
+        zignor = new Zignor2005();
+        zignor.seed(Problems.SEED);
+        gamma = new MarsagliaTsang2000(gammaShape, 1.);
+        gamma.seed(Problems.SEED);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void mersenneTwisterLong(Blackhole bh) {
+        for (int i = 0; i < N; ++i) {
+            bh.consume(mt.nextLong());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void mersenneTwisterDouble(Blackhole bh) {
+        for (int i = 0; i < N; ++i) {
+            bh.consume(mt.nextDouble());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public double[] mersenneTwisterDoubles() {
+        mt.nextDoubles(doubles, 0, N);
+        return doubles;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void ziggurat2000(Blackhole bh) {
+        for (int i = 0; i < N; ++i) {
+            bh.consume(ziggurat.nextDouble());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public double[] ziggurat2000Doubles() {
+        ziggurat.nextDoubles(doubles, 0, N);
+        return doubles;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void zignor2005(Blackhole bh) {
+        for (int i = 0; i < N; ++i) {
+            bh.consume(zignor.nextDouble());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public double[] zignor2005Doubles() {
+        zignor.nextDoubles(doubles, 0, N);
+        return doubles;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void marsagliaTsang2000(Blackhole bh) {
+        for (int i = 0; i < N; ++i) {
+            bh.consume(gamma.nextDouble());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.benchmark;
+
+import com.numericalmethod.suanshu.stats.descriptive.CountWindow;
+import com.numericalmethod.suanshu.stats.descriptive.moment.RollingVariance;
+import com.numericalmethod.suanshu.stats.descriptive.moment.Variance;
+import com.numericalmethod.suanshu.stats.descriptive.rank.Max;
+import com.numericalmethod.suanshu.stats.descriptive.rank.Quantile;
+import com.numericalmethod.suanshu.stats.descriptive.rank.RollingMax;
+import com.numericalmethod.suanshu.stats.descriptive.rank.RollingQuantile;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of the rolling variance, maximum and median over a window of 250 observations of 2<sup>18</sup> data points,
+ * updated as the window slides and recomputed from each window.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RollingStatisticBenchmark {
+
+    private static final int WINDOW = 250;
+    private double[] sample;
+
+    @Setup
+    public void setup() {
+        sample = Problems.uniform(1 << 18);
+    }
+
+    @Benchmark
+    public double rolling() {
+        RollingVariance var = new RollingVariance();
+        RollingMax max = new RollingMax();
+        RollingQuantile median = new RollingQuantile(0.5);
+        CountWindow window = new CountWindow(WINDOW, var, max, median);
+
+        double sum = 0;
+        for (double x : sample) {
+            window.push(x);
+            sum += var.value() + max.value() + median.value();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double recomputed() {
+        double sum = 0;
+        for (int i = 0; i < sample.length; ++i) {
+            double[] w = Arrays.copyOfRange(sample, Math.max(0, i - WINDOW + 1), i + 1);
+            sum += new Variance(w).value() + new Max(w).value() + new Quantile(w).value(0.5);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT, 
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.benchmark;
+
+import com.numericalmethod.suanshu.parallel.ParallelExecutor;
+import com.numericalmethod.suanshu.stats.descriptive.Statistic;
+import com.numericalmethod.suanshu.stats.descriptive.StatisticFactory;
+import com.numericalmethod.suanshu.stats.descriptive.StatisticReducer;
+import com.numericalmethod.suanshu.stats.descriptive.moment.Kurtosis;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of the kurtosis of 2<sup>24</sup> data points,
+ * computed serially and by merging per-thread statistics.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class StatisticReducerBenchmark {
+
+    private static final StatisticFactory KURTOSIS = new StatisticFactory() {
+
+        @Override
+        public Statistic getStatistic() {
+            return new Kurtosis();
+        }
+    };
+    private double[] sample;
+    private StatisticReducer reducer;
+
+    @Setup
+    public void setup() {
+        sample = Problems.uniform(1 << 24);
+        reducer = new StatisticReducer(KURTOSIS, new ParallelExecutor());
+    }
+
+    @Benchmark
+    public double serial() {
+        return new Kurtosis(sample).value();
+    }
+
+    @Benchmark
+    public double reducer() {
+        return reducer.reduce(sample).value();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.benchmark;
+
+import com.numericalmethod.suanshu.stats.timeseries.linear.univariate.sample.AutoCovariance;
+import com.numericalmethod.suanshu.stats.timeseries.univariate.GenericTimeTimeSeries;
+import com.numericalmethod.suanshu.stats.timeseries.univariate.realtime.SimpleTimeSeries;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of the time series storage:
+ * the sample auto-covariance of 2<sup>16</sup> observations up to lag 50,
+ * and looking up the values of a time-stamped series of 2<sup>16</sup> observations by time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TimeSeriesBenchmark {
+
+    private static final int N = 1 << 16;
+    private SimpleTimeSeries xt;
+    private GenericTimeTimeSeries<Long> stamped;
+
+    @Setup
+    public void setup() {
+        double[] values = Problems.uniform(N);
+        xt = new SimpleTimeSeries(values);
+
+        Long[] times = new Long[N];
+        for (int i = 0; i < N; ++i) {
+            times[i] = 1000L * i;
+        }
+        stamped = new GenericTimeTimeSeries<Long>(times, values);
+    }
+
+    @Benchmark
+    public double autoCovariance() {
+        AutoCovariance acvf = new AutoCovariance(xt);
+        double sum = 0;
+        for (int k = 0; k <= 50; ++k) {
+            sum += acvf.evaluate(k);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double lookUpByTime() {
+        double sum = 0;
+        for (long t = 0; t < 1000L * N; t += 1000L * 64) {
+            sum += stamped.get(Long.valueOf(t));
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double lagViews() {
+        double sum = 0;
+        for (int k = 1; k <= 50; ++k) {
+            sum += xt.lag(k).get(1);
+        }
+        return sum;
+    }
+}
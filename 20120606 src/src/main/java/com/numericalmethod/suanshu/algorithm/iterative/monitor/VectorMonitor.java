@@ -27,6 +27,7 @@ import com.numericalmethod.suanshu.vector.doubles.Vector;
 
 /**
  * This {@link IterationMonitor} stores all vectors generated during iterations.
+ * Each iterate is copied because an iterative algorithm may update the same vector in place.
  *
  * @author Ken Yiu
  */
@@ -34,6 +35,6 @@ public class VectorMonitor extends IteratesMonitor<Vector> {
 
     @Override
     public void addIterate(Vector x) {
-        super.addIterate(new ImmutableVector(x));
+        super.addIterate(new ImmutableVector(x.deepCopy()));
     }
 }
@@ -32,6 +32,10 @@ import java.util.Arrays;
  * </code></pre>
  * <i>o</i> is the offset, depending on whether only past values or both past and future values centered around lag 0 are used.
  * When a symmetric window is used and the filter length is even, more of the filter is forward in time than backward.
+ * When all the filter coefficients are equal (a simple moving average),
+ * the window sum is slid rather than recomputed, so that filtering takes <i>O(n)</i> rather than <i>O(np)</i> time.
+ * To filter a signal as it arrives, without holding the whole signal in memory,
+ * use a {@link com.numericalmethod.suanshu.stats.descriptive.CountWindow} or a {@link RollingFilter}.
  *
  * <p>
  * The R equivalent function is {@code filter}.
@@ -80,7 +84,7 @@ public class MovingAverage implements Filter {
     }
 
     @Override
-    public double[] transform(double[] x) {//TODO: anyway to construct a 'transformed' signal dynamically (w/o processing the whole data set in memory)?
+    public double[] transform(double[] x) {
         final int nObs = x.length;
         final int q = (filter.length - 1) / 2;//round down b/c when the filter length is even, more of the filter is forward in time than backward
 
@@ -91,6 +95,25 @@ public class MovingAverage implements Filter {
         final int end = side == Side.PAST ? nObs : nObs - (filter.length / 2);
         final int offset = side == Side.PAST ? filter.length - 1 : q;
 
+        if (isSimple()) {
+            final int p = filter.length;
+            double sum = 0.;
+            for (int i = begin; i < end; ++i) {
+                if ((i - begin) % p == 0) {//re-sum once in a while so that the rounding errors do not accumulate
+                    sum = 0.;
+                    for (int j = 0; j < p; ++j) {
+                        sum += x[i - offset + j];
+                    }
+                } else {
+                    sum += x[i - offset + p - 1] - x[i - offset - 1];
+                }
+
+                mtHat[i] = filter[0] * sum;
+            }
+
+            return mtHat;
+        }
+
         for (int i = begin; i < end; ++i) {
             double sum = 0.;
             for (int j = 0; j < filter.length; ++j) {
@@ -102,4 +125,18 @@ public class MovingAverage implements Filter {
 
         return mtHat;
     }
+
+    /**
+     * Check whether all the filter coefficients are equal.
+     *
+     * @return {@code true} if this is a simple moving average
+     */
+    private boolean isSimple() {
+        for (int i = 1; i < filter.length; ++i) {
+            if (filter[i] != filter[0]) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
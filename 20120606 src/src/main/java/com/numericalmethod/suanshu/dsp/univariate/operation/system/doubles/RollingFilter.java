@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.dsp.univariate.operation.system.doubles;
+
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import com.numericalmethod.suanshu.stats.descriptive.CountWindow;
+import com.numericalmethod.suanshu.stats.descriptive.RollingStatistic;
+import com.numericalmethod.suanshu.stats.descriptive.RollingStatisticFactory;
+
+/**
+ * This filter computes a statistic over a window of the past <i>n</i> values (including the current one), e.g.,
+ * a rolling standard deviation, maximum or median.
+ * <pre><code>
+ * y[i] = f(x[i-n+1], …, x[i])
+ * </code></pre>
+ * The first <i>n-1</i> outputs are {@code NaN}, as in {@link MovingAverage.Side#PAST}.
+ * The statistic is a {@link RollingStatistic}, which is updated as the window slides,
+ * so that filtering takes <i>O(N)</i> (or <i>O(N log n)</i> for the order statistics)
+ * rather than <i>O(Nn)</i> time.
+ * <p/>
+ * The R equivalent function is {@code rollapply} in package {@code zoo}, with {@code align = "right"}.
+ */
+public class RollingFilter implements Filter {
+
+    private final RollingStatisticFactory factory;
+    private final int n;
+
+    /**
+     * Construct a rolling filter.
+     *
+     * @param factory construct the statistic to compute over the window
+     * @param n       the window length
+     */
+    public RollingFilter(RollingStatisticFactory factory, int n) {
+        SuanShuUtils.assertArgument(n > 0, "n > 0");
+        this.factory = factory;
+        this.n = n;
+    }
+
+    @Override
+    public double[] transform(double[] x) {
+        RollingStatistic stat = factory.getStatistic();
+        CountWindow window = new CountWindow(n, stat);
+
+        double[] y = new double[x.length];
+        for (int i = 0; i < x.length; ++i) {
+            window.push(x[i]);
+            y[i] = window.isFull() ? stat.value() : Double.NaN;
+        }
+
+        return y;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles;
+
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+
+/**
+ * This interface defines the in-place arithmetic operations of a matrix.
+ * The arithmetic operations in {@link Matrix} always return a new instance.
+ * The operations here overwrite {@code this} or a caller-supplied output instead,
+ * so that a loop that repeats them allocates nothing.
+ * @see com.numericalmethod.suanshu.vector.doubles.MutableVector
+ */
+public interface MutableMatrix extends Matrix {
+
+    /**
+     * \(this = this + that\)
+     *
+     * @param that a matrix
+     */
+    public void addInPlace(Matrix that);
+
+    /**
+     * \(this = c \times this\)
+     *
+     * @param c a scaling constant
+     */
+    public void scaleInPlace(double c);
+
+    /**
+     * Compute \(out = this \times v\), overwriting the content of {@code out}.
+     * {@code out} must not be the same instance as {@code v}.
+     *
+     * @param v   a vector
+     * @param out the output vector of length {@code nRows()}
+     */
+    public void multiplyInto(Vector v, Vector out);
+
+    /**
+     * \(this = this + \alpha \times x \times y'\)
+     *
+     * @param alpha a scaling constant
+     * @param x     a vector of length {@code nRows()}
+     * @param y     a vector of length {@code nCols()}
+     */
+    public void rank1Update(double alpha, Vector x, Vector y);
+
+    /**
+     * \(this = this + \alpha \times (x \times y' + y \times x')\)
+     * The update is exactly symmetric, so a symmetric matrix stays symmetric.
+     *
+     * @param alpha a scaling constant
+     * @param x     a vector of length {@code nRows()}
+     * @param y     a vector of length {@code nRows()}
+     * @throws IllegalArgumentException if this matrix is not square
+     */
+    public void rank2Update(double alpha, Vector x, Vector y);
+}
@@ -23,17 +23,10 @@
 package com.numericalmethod.suanshu.matrix.doubles.factorization.diagonalization;
 
 import com.numericalmethod.suanshu.datastructure.DimensionCheck;
-import com.numericalmethod.suanshu.matrix.doubles.ImmutableMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.Matrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.diagonal.BidiagonalMatrix;
-import com.numericalmethod.suanshu.matrix.doubles.operation.CreateMatrix;
-import com.numericalmethod.suanshu.matrix.doubles.operation.Householder;
-import com.numericalmethod.suanshu.matrix.doubles.operation.Householder.Context;
 import com.numericalmethod.suanshu.misc.SuanShuUtils;
-import com.numericalmethod.suanshu.vector.doubles.Vector;
-import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
-import static com.numericalmethod.suanshu.vector.doubles.dense.operation.CreateVector.*;
 
 /**
  * Given a tall (<i>m x n</i>) matrix <i>A</i>, where <i>m &ge; n</i>,
@@ -80,17 +73,50 @@ import static com.numericalmethod.suanshu.vector.doubles.dense.operation.CreateV
  * <i>(U<sub>1</sub> * ... * U<sub>n</sub>)' * A * (V<sub>1</sub> * ... * V<sub>n</sub>) = B</i> where <i>B</i> is upper bi-diagonal.
  * The upper part of <i>B</i>, an <i>n x n</i> matrix, is a square, bi-diagonal matrix.
  * <p/>
+ * This implementation works on a row-major array.
+ * The update of the trailing submatrix by a pair of reflections, one from the left and one from the right,
+ * is fused with the computation of the next left reflection, so that the trailing submatrix is read only once in each step.
+ * When <i>A</i> is much taller than wide, it is first reduced to a square upper triangular matrix <i>R</i>
+ * by a blocked Householder QR decomposition, and then <i>R</i> is bi-diagonalized.
+ * This halves the work for a tall matrix, and does most of it in matrix-matrix multiplications.
+ * The reflections are kept in factored form.
+ * <i>U</i>, <i>V</i>, or their products with a matrix, are computed by applying blocks of reflections in the compact WY form,
+ * <i>I - W * T * W'</i>, as matrix-matrix multiplications.
+ * <p/>
  * This transformation always succeeds.
  *
  * @author Haksun Li
+ * @see "T. F. Chan, "An improved algorithm for computing the singular value decomposition,"
+ * ACM Transactions on Mathematical Software, vol. 8, no. 1, pp. 72-83, 1982."
  */
 public class BiDiagonalization {
 
-    private Householder[] Us;
-    private Householder[] Vs;
-    private BidiagonalMatrix B;
+    /** the number of reflections in a block */
+    private static final int NB = 32;
+    /** <i>A</i> is first QR decomposed if it has at least this many times as many rows as columns */
+    private static final double QR_RATIO = 5. / 3.;
     private final int nRows;
     private final int nCols;
+    /** the main diagonal of <i>B</i> */
+    private final double[] d;
+    /** the super diagonal of <i>B</i> */
+    private final double[] e;
+    /** the QR decomposition of <i>A</i>; the Householder vectors are stored below the diagonal; {@code null} if not done */
+    private final double[] QR;
+    /** the Householder scalars of the QR decomposition */
+    private final double[] tauQR;
+    /** the number of rows of the matrix that is bi-diagonalized, i.e., {@code nCols} if QR decomposed, or {@code nRows} otherwise */
+    private final int p;
+    /**
+     * the Householder vectors of the bi-diagonalization, in a row-major <i>p x n</i> array;
+     * the <i>i</i>-th left vector is stored in column <i>i</i>, below the diagonal;
+     * the <i>i</i>-th right vector is stored in row <i>i</i>, after the super diagonal
+     */
+    private final double[] W;
+    /** the Householder scalars of the left reflections */
+    private final double[] tauU;
+    /** the Householder scalars of the right reflections */
+    private final double[] tauV;
 
     /**
      * Run the Householder bi-diagonalization for a tall matrix.
@@ -104,100 +130,294 @@ public class BiDiagonalization {
 
         nRows = A.nRows();
         nCols = A.nCols();
+        d = new double[nCols];
+        e = new double[Math.max(nCols - 1, 0)];
+        tauU = new double[nCols];
+        tauV = new double[Math.max(nCols - 2, 0)];
+
+        double[] a = new DenseMatrix(A).view().data();
+        if (nRows >= QR_RATIO * nCols && nCols > 1) {
+            QR = a;
+            tauQR = new double[nCols];
+            qr();
+
+            p = nCols;
+            W = new double[nCols * nCols];
+            for (int i = 0; i < nCols; ++i) {
+                System.arraycopy(QR, i * nCols + i, W, i * nCols + i, nCols - i);
+            }
+        } else {
+            QR = null;
+            tauQR = null;
+            p = nRows;
+            W = a;
+        }
+
+        bidiagonalize();
+    }
+
+    /**
+     * Compute the QR decomposition of {@code QR} in place, by blocks of columns.
+     * A panel of columns is factorized in a column-major copy.
+     * Then, the reflections of the panel are applied to the trailing columns in the compact WY form.
+     */
+    private void qr() {
+        final int m = nRows;
+        final int n = nCols;
+        for (int j = 0; j < n; j += NB) {
+            final int nb = Math.min(NB, n - j);
+            final int len = m - j;
 
-        Matrix M = A.deepCopy();
-        Us = new Householder[nCols + 1];//0-th element is not used
-        Vs = new Householder[nCols - 1];//0-th element is not used; up to (nCols-2)
+            // the panel, column-major, i.e., the k-th column is in row k of Pt
+            double[] Pt = new double[nb * len];
+            for (int r = 0; r < len; ++r) {
+                final int row = (j + r) * n + j;
+                for (int k = 0; k < nb; ++k) {
+                    Pt[k * len + r] = QR[row + k];
+                }
+            }
 
-        //We apply the Householder operator repeatedly on each columns, hence looping over columns.
-        for (int i = 1; i <= nCols; i++) {
-            /*
-             * We will zero out in this column all entries below the (k+1)-th entry.
-             * E.g., for the first column, we want to have this form (a11,a21,0,..)'.
-             */
-            Context defn = Householder.getContext(subVector(M.getColumn(i), i, nRows));
-            Us[i] = new Householder(defn.generator);
+            for (int k = 0; k < nb; ++k) {
+                final int col = k * len;
+                final double beta = reflect(Pt, col + k, col + len, tauQR, j + k);
+                for (int c = k + 1; c < nb && tauQR[j + k] != 0.; ++c) {
+                    final int other = c * len;
+                    double s = Pt[other + k];
+                    for (int r = k + 1; r < len; ++r) {
+                        s += Pt[col + r] * Pt[other + r];
+                    }
+                    s *= tauQR[j + k];
+                    Pt[other + k] -= s;
+                    for (int r = k + 1; r < len; ++r) {
+                        Pt[other + r] -= s * Pt[col + r];
+                    }
+                }
+                Pt[col + k] = beta;
+            }
 
-            //TODO: how to avoid copying the sub-matrices back and forth?
+            for (int r = 0; r < len; ++r) {
+                final int row = (j + r) * n + j;
+                for (int k = 0; k < nb; ++k) {
+                    QR[row + k] = Pt[k * len + r];
+                }
+            }
 
-            //reflect columns
-            Matrix sub1 = CreateMatrix.subMatrix(M, i, nRows, i, nCols);
-            Matrix Uxsub1 = Us[i].reflect(sub1);//TODO: reflect takes DenseMatrix, but not SubMatrixRef
-            CreateMatrix.replace(M, i, nRows, i, nCols, Uxsub1);
+            if (j + nb < n) {// Q' * A = A - V * (T' * (V' * A)) for the trailing columns
+                for (int k = 0; k < nb; ++k) {
+                    for (int r = 0; r < k; ++r) {
+                        Pt[k * len + r] = 0.;
+                    }
+                    Pt[k * len + k] = 1.;
+                }
+                double[] T = CompactWY.T(Pt, nb, len, tauQR, j);
+                CompactWY.apply(true, Pt, T, nb, len, QR, j * n + j + nb, n, n - j - nb);
+            }
+        }
+    }
 
-            //reflect rows
-            if (i <= nCols - 2) {
-                defn = Householder.getContext(subVector(M.getRow(i), i + 1, nCols));
-                Vs[i] = new Householder(defn.generator);
+    /**
+     * Bi-diagonalize {@code W} in place.
+     * In step <i>i</i>, the left reflection zeroes out column <i>i</i> below the diagonal,
+     * and the right reflection zeroes out row <i>i</i> after the super diagonal.
+     * The sweep over the trailing rows applies both reflections, and accumulates <i>x' * A</i>,
+     * where <i>x</i> is column <i>i + 1</i> below the diagonal, for the left reflection of the next step.
+     */
+    private void bidiagonalize() {
+        final int n = nCols;
+        double[] z = new double[n];// x' * A, where x is the current column below the diagonal
+        double[] w = new double[n];
+        double[] next = new double[n];
+
+        for (int r = 1; r < p && n > 1; ++r) {
+            final int row = r * n;
+            final double x = W[row];
+            for (int c = 1; c < n; ++c) {
+                z[c] += x * W[row + c];
+            }
+        }
+
+        for (int i = 0; i < n; ++i) {
+            final int row = i * n;
 
-                Matrix sub2 = CreateMatrix.subMatrix(M, i, nRows, i + 1, nCols);
-                Matrix Hxsub2 = Vs[i].reflectRows(sub2);
-                CreateMatrix.replace(M, i, nRows, i + 1, nCols, Hxsub2);
+            // the left reflection; the vector is stored in column i as u = (1, x[i+1:p] * scale)
+            final double alpha = W[row + i];
+            double xnorm = 0.;
+            if (i + 1 < p) {
+                xnorm = columnNorm(i + 1, i);
             }
+            if (xnorm == 0.) {
+                d[i] = alpha;
+                tauU[i] = 0.;
+                for (int c = i + 1; c < n; ++c) {
+                    w[c] = 0.;
+                }
+            } else {
+                final double beta = -Math.copySign(Math.hypot(alpha, xnorm), alpha);
+                final double scale = 1. / (alpha - beta);
+                for (int r = i + 1; r < p; ++r) {
+                    W[r * n + i] *= scale;
+                }
+                d[i] = beta;
+                tauU[i] = (beta - alpha) / beta;
+
+                // w = tau * A' * u = tau * (A[i, ] + scale * z)
+                for (int c = i + 1; c < n; ++c) {
+                    w[c] = tauU[i] * (W[row + c] + scale * z[c]);
+                }
+            }
+            W[row + i] = d[i];
+
+            if (i == n - 1) {
+                break;
+            }
+
+            // update row i, and compute the right reflection from it
+            for (int c = i + 1; c < n; ++c) {
+                W[row + c] -= w[c];
+            }
+            final boolean hasRight = i < n - 2;
+            if (hasRight) {
+                e[i] = reflect(W, row + i + 1, row + n, tauV, i);
+            } else {
+                e[i] = W[row + i + 1];
+            }
+            final double tv = hasRight ? tauV[i] : 0.;
+
+            // update the trailing rows
+            for (int c = i + 2; c < n; ++c) {
+                next[c] = 0.;
+            }
+            for (int r = i + 1; r < p; ++r) {
+                final int br = r * n;
+                final double u = W[br + i];// u[r]
+
+                // the left reflection, and A[r, ] * v
+                W[br + i + 1] -= u * w[i + 1];
+                double s = W[br + i + 1];
+                for (int c = i + 2; c < n; ++c) {
+                    final double b = W[br + c] - u * w[c];
+                    W[br + c] = b;
+                    s += b * W[row + c];
+                }
+
+                // the right reflection, and x' * A for the next step
+                if (tv != 0.) {
+                    s *= tv;
+                    W[br + i + 1] -= s;
+                    final double xr = r > i + 1 ? W[br + i + 1] : 0.;
+                    for (int c = i + 2; c < n; ++c) {
+                        final double b = W[br + c] - s * W[row + c];
+                        W[br + c] = b;
+                        next[c] += xr * b;
+                    }
+                } else if (r > i + 1) {
+                    final double xr = W[br + i + 1];
+                    for (int c = i + 2; c < n; ++c) {
+                        next[c] += xr * W[br + c];
+                    }
+                }
+            }
+
+            double[] tmp = z;
+            z = next;
+            next = tmp;
+        }
+    }
+
+    /**
+     * Compute the Householder reflection that zeroes out {@code x[from+1:to]}, with the vector stored in place as
+     * <i>(1, x[from+1:to] * scale)</i>, but leaving {@code x[from]} unchanged.
+     *
+     * @return the value <i>beta</i> that {@code x[from]} becomes after the reflection
+     */
+    private static double reflect(double[] x, int from, int to, double[] tau, int i) {
+        final double alpha = x[from];
+        final double xnorm = norm(x, from + 1, to, 1);
+        if (xnorm == 0.) {
+            tau[i] = 0.;
+            return alpha;
+        }
+
+        final double beta = -Math.copySign(Math.hypot(alpha, xnorm), alpha);
+        final double scale = 1. / (alpha - beta);
+        for (int k = from + 1; k < to; ++k) {
+            x[k] *= scale;
+        }
+        tau[i] = (beta - alpha) / beta;
+        return beta;
+    }
+
+    /**
+     * Compute the Euclidean norm of column <i>c</i> of {@code W}, from row <i>r</i>.
+     */
+    private double columnNorm(int r, int c) {
+        return norm(W, r * nCols + c, p * nCols, nCols);
+    }
+
+    /**
+     * Compute the Euclidean norm of every {@code stride}-th entry of a segment of an array, scaling to avoid an overflow.
+     */
+    private static double norm(double[] x, int from, int to, int stride) {
+        double max = 0.;
+        for (int k = from; k < to; k += stride) {
+            max = Math.max(max, Math.abs(x[k]));
+        }
+        if (max == 0.) {
+            return 0.;
         }
 
-        double[] superdiagonal = M.nCols() > 1 ? superDiagonal(M).toArray() : null;//column matrix has no super-diagonal
-        double[] maindiagonal = diagonal(M).toArray();
-        B = new BidiagonalMatrix(new double[][]{superdiagonal, maindiagonal});
+        double sum = 0.;
+        for (int k = from; k < to; k += stride) {
+            final double y = x[k] / max;
+            sum += y * y;
+        }
+        return max * Math.sqrt(sum);
     }
 
     /**
      * Get <i>U</i>, where
      * <i>U<sup>'</sup> = U<sub>k</sub> * ... * U<sub>1</sub></i>, {@code k = A.nCols()}.
      * The dimension of <i>U</i> is <i>m x m</i>.
-     * <p/>
-     * To compute <i>U</i>,
-     * instead of explicitly doing this multiplication, this implementation improves the performance
-     * by applying <i>U<sub>i</sub></i>'s repeatedly on an identity matrix.
-     * We take the transpose afterward.
      *
      * @return the <i>U</i> matrix
      */
     public Matrix U() {
-        //pad the Hs so that they all have the same dimension
-        for (int i = 1; i < Us.length; ++i) {
-            Vector u = Us[i].generator();
-            u = concat(
-                    new DenseVector(i - 1),//essentially ZERO()
-                    u);
-            Us[i] = new Householder(u);
-        }
-
-        Matrix U = Householder.product(Us, Us.length - 1, 1);
+        return new DenseMatrix(multiplyU(identity(nRows), nRows), nRows, nRows);
+    }
 
-        return U.t();
+    /**
+     * Compute <i>U * Z</i>.
+     * For example, the first <i>n</i> columns of <i>U</i> is <i>U * Z</i>,
+     * where <i>Z</i> is the first <i>n</i> columns of the <i>m x m</i> identity matrix.
+     *
+     * @param Z a matrix with as many rows as <i>A</i>
+     * @return <i>U * Z</i>
+     */
+    public Matrix multiplyU(Matrix Z) {
+        SuanShuUtils.assertArgument(Z.nRows() == nRows, "Z must have %d rows", nRows);
+        return new DenseMatrix(multiplyU(new DenseMatrix(Z).view().data(), Z.nCols()), nRows, Z.nCols());
     }
 
     /**
      * Get <i>V</i>, where
      * <i>V<sup>'</sup> = V<sub>k</sub> * ... * V<sub>1</sub></i>, {@code k = A.nCols() - 2}.
      * The dimension of <i>V</i> is <i>n x n</i>.
-     * <p/>
-     * To compute <i>V</i>,
-     * instead of explicitly doing this multiplication, this implementation improves the performance
-     * by applying <i>V<sub>i</sub></i>'s repeatedly on an identity matrix.
-     * We take the transpose afterward.
      *
      * @return the <i>V</i> matrix
      */
     public Matrix V() {
-        //pad the Hs so that they all have the same dimension
-        for (int i = 1; i < Vs.length; ++i) {
-            Vector v = Vs[i].generator();
-            v = concat(
-                    new DenseVector(i),//essentially ZERO()
-                    v);
-            Vs[i] = new Householder(v);
-        }
-
-        Matrix V = null;
-        if (Vs.length > 1) {
-            V = Householder.product(Vs, Vs.length - 1, 1);
-        } else {
-            V = new DenseMatrix(nCols, nCols).ONE();
-        }
+        return new DenseMatrix(multiplyV(identity(nCols), nCols), nCols, nCols);
+    }
 
-        return V.t();
+    /**
+     * Compute <i>V * Z</i>.
+     *
+     * @param Z a matrix with as many rows as the columns of <i>A</i>
+     * @return <i>V * Z</i>
+     */
+    public Matrix multiplyV(Matrix Z) {
+        SuanShuUtils.assertArgument(Z.nRows() == nCols, "Z must have %d rows", nCols);
+        return new DenseMatrix(multiplyV(new DenseMatrix(Z).view().data(), Z.nCols()), nCols, Z.nCols());
     }
 
     /**
@@ -207,6 +427,95 @@ public class BiDiagonalization {
      * @return <i>B</i>
      */
     public BidiagonalMatrix B() {
-        return new BidiagonalMatrix(B);
+        double[] superdiagonal = nCols > 1 ? e.clone() : null;//column matrix has no super-diagonal
+        return new BidiagonalMatrix(new double[][]{superdiagonal, d.clone()});
+    }
+
+    /**
+     * Get the main diagonal of <i>B</i>.
+     *
+     * @return the main diagonal
+     */
+    public double[] diagonal() {
+        return d.clone();
+    }
+
+    /**
+     * Get the super diagonal of <i>B</i>.
+     *
+     * @return the super diagonal
+     */
+    public double[] superDiagonal() {
+        return e.clone();
+    }
+
+    /**
+     * Apply the left reflections in blocks, from the last to the first, to a row-major matrix in place.
+     *
+     * @param Z  a row-major <i>m x nz</i> matrix
+     * @param nz the number of columns
+     * @return {@code Z}
+     */
+    private double[] multiplyU(double[] Z, int nz) {
+        // the reflections of the bi-diagonalization act on the first p rows
+        for (int j = ((nCols - 1) / NB) * NB; j >= 0; j -= NB) {
+            final int nb = Math.min(NB, nCols - j);
+            final int m = p - j;
+            double[] Vt = new double[nb * m];
+            for (int k = 0; k < nb; ++k) {
+                Vt[k * m + k] = 1.;
+                for (int r = k + 1; r < m; ++r) {
+                    Vt[k * m + r] = W[(j + r) * nCols + j + k];
+                }
+            }
+            CompactWY.apply(false, Vt, CompactWY.T(Vt, nb, m, tauU, j), nb, m, Z, j * nz, nz, nz);
+        }
+
+        if (QR != null) {
+            for (int j = ((nCols - 1) / NB) * NB; j >= 0; j -= NB) {
+                final int nb = Math.min(NB, nCols - j);
+                final int m = nRows - j;
+                double[] Vt = new double[nb * m];
+                for (int k = 0; k < nb; ++k) {
+                    Vt[k * m + k] = 1.;
+                    for (int r = k + 1; r < m; ++r) {
+                        Vt[k * m + r] = QR[(j + r) * nCols + j + k];
+                    }
+                }
+                CompactWY.apply(false, Vt, CompactWY.T(Vt, nb, m, tauQR, j), nb, m, Z, j * nz, nz, nz);
+            }
+        }
+
+        return Z;
+    }
+
+    /**
+     * Apply the right reflections in blocks, from the last to the first, to a row-major matrix in place.
+     *
+     * @param Z  a row-major <i>n x nz</i> matrix
+     * @param nz the number of columns
+     * @return {@code Z}
+     */
+    private double[] multiplyV(double[] Z, int nz) {
+        final int nReflections = tauV.length;
+        for (int j = ((nReflections - 1) / NB) * NB; j >= 0 && nReflections > 0; j -= NB) {
+            final int nb = Math.min(NB, nReflections - j);
+            final int m = nCols - j - 1;// the reflections of the block act on rows j + 1 to n - 1
+            double[] Vt = new double[nb * m];
+            for (int k = 0; k < nb; ++k) {
+                Vt[k * m + k] = 1.;
+                System.arraycopy(W, (j + k) * nCols + j + k + 2, Vt, k * m + k + 1, m - k - 1);
+            }
+            CompactWY.apply(false, Vt, CompactWY.T(Vt, nb, m, tauV, j), nb, m, Z, (j + 1) * nz, nz, nz);
+        }
+        return Z;
+    }
+
+    private static double[] identity(int n) {
+        double[] I = new double[n * n];
+        for (int i = 0; i < n; ++i) {
+            I[i * n + i] = 1.;
+        }
+        return I;
     }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.factorization.diagonalization;
+
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.BlockedGEMM;
+
+/**
+ * A product of Householder reflections, <i>H<sub>1</sub> * ... * H<sub>k</sub></i>, where
+ * <i>H<sub>i</sub> = I - tau<sub>i</sub> * v<sub>i</sub> * v<sub>i</sub>'</i>,
+ * can be written in the compact WY form, <i>I - V * T * V'</i>.
+ * <i>V</i> has the vectors as columns and <i>T</i> is upper triangular.
+ * Applying the product to a matrix is then two matrix-matrix multiplications.
+ * <p/>
+ * The arrays are row-major.
+ * The vectors are passed as the rows of <i>V'</i>.
+ * The <i>i</i>-th vector is 0 before the <i>i</i>-th entry and 1 at the <i>i</i>-th entry.
+ * @see "R. Schreiber and C. Van Loan, "A storage-efficient WY representation for products of Householder
+ * transformations," SIAM Journal on Scientific and Statistical Computing, vol. 10, no. 1, pp. 53-57, 1989."
+ */
+final class CompactWY {
+
+    private CompactWY() {
+    }
+
+    /**
+     * Compute the triangular factor <i>T</i>.
+     *
+     * @param Vt     <i>V'</i>, a <i>k x m</i> array
+     * @param k      the number of reflections
+     * @param m      the length of the vectors
+     * @param tau    the Householder scalars
+     * @param offTau the index of <i>tau<sub>1</sub></i> in {@code tau}
+     * @return <i>T</i>, a <i>k x k</i> array
+     */
+    static double[] T(double[] Vt, int k, int m, double[] tau, int offTau) {
+        double[] T = new double[k * k];
+        for (int j = 0; j < k; ++j) {
+            final double t = tau[offTau + j];
+            T[j * k + j] = t;
+            for (int r = 0; r < j; ++r) {// y[r] = V[:, r]' * v_j
+                double y = 0.;
+                for (int c = j; c < m; ++c) {
+                    y += Vt[r * m + c] * Vt[j * m + c];
+                }
+                T[r * k + j] = y;
+            }
+            for (int r = 0; r < j; ++r) {// T[0:j, j] = -tau * T[0:j, 0:j] * y
+                double s = 0.;
+                for (int c = r; c < j; ++c) {
+                    s += T[r * k + c] * T[c * k + j];
+                }
+                T[r * k + j] = -t * s;
+            }
+        }
+        return T;
+    }
+
+    /**
+     * Compute <i>Z = (I - V * T * V') * Z</i>, or <i>Z = (I - V * T' * V') * Z</i> for the transpose, in place.
+     *
+     * @param transpose {@code true} if to apply the transpose of the product
+     * @param Vt        <i>V'</i>, a <i>k x m</i> array
+     * @param T         the triangular factor
+     * @param k         the number of reflections
+     * @param m         the length of the vectors
+     * @param Z         an <i>m x nz</i> matrix, in a row-major array
+     * @param offZ      the index of <i>Z[1, 1]</i> in {@code Z}
+     * @param ldz       the distance between the rows of <i>Z</i> in {@code Z}
+     * @param nz        the number of columns of <i>Z</i>
+     */
+    static void apply(boolean transpose, double[] Vt, double[] T, int k, int m, double[] Z, int offZ, int ldz, int nz) {
+        if (k == 0 || m == 0 || nz == 0) {
+            return;
+        }
+
+        double[] W = new double[k * nz];
+        BlockedGEMM.gemm(false, false, k, nz, m, 1., Vt, 0, m, Z, offZ, ldz, 0., W, 0, nz);
+        double[] TW = new double[k * nz];
+        BlockedGEMM.gemm(transpose, false, k, nz, k, 1., T, 0, k, W, 0, nz, 0., TW, 0, nz);
+        BlockedGEMM.gemm(true, false, m, nz, k, -1., Vt, 0, m, TW, 0, nz, 1., Z, offZ, ldz);
+    }
+}
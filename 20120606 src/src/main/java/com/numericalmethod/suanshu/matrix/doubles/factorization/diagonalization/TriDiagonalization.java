@@ -22,10 +22,14 @@
  */
 package com.numericalmethod.suanshu.matrix.doubles.factorization.diagonalization;
 
+import com.numericalmethod.suanshu.datastructure.DimensionCheck;
 import com.numericalmethod.suanshu.matrix.doubles.IsMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.Matrix;
 import com.numericalmethod.suanshu.matrix.doubles.factorization.eigen.qr.HessenbergDecomposition;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.diagonal.TridiagonalMatrix;
 import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import java.util.Arrays;
 
 /**
  * A tri-diagonal matrix <i>A</i> is a matrix such that
@@ -35,17 +39,36 @@ import com.numericalmethod.suanshu.misc.SuanShuUtils;
  * The procedure is essentially the same as in Hessenberg decomposition, c.f., {@link HessenbergDecomposition},
  * except that here we apply the procedure only to symmetric matrix.
  * The trailing elements in rows are also zeroed out, due to symmetry.
+ * <p/>
+ * This implementation works on the upper triangle of a row-major array.
+ * Each reflection updates the trailing submatrix by a symmetric rank-2 update.
+ * The reflections are kept in factored form.
+ * <i>Q</i>, or its product with a matrix, is computed by applying blocks of reflections in the compact WY form,
+ * <i>I - V * T * V'</i>, as matrix-matrix multiplications.
  *
  * @author Haksun Li
  * @see
  * <ul>
  * <li><a href="http://en.wikipedia.org/wiki/Tridiagonal_matrix">Wikipedia: Tridiagonal matrix</a>
  * <li><a href="http://en.wikipedia.org/wiki/Householder_transformation#TriDiagonalization">Wikipedia: TriDiagonalization</a>
+ * <li>"R. Schreiber and C. Van Loan, "A storage-efficient WY representation for products of Householder
+ * transformations," SIAM Journal on Scientific and Statistical Computing, vol. 10, no. 1, pp. 53-57, 1989."
  * </ul>
  */
 public class TriDiagonalization {
 
-    private final HessenbergDecomposition decomp;
+    /** the number of reflections in a block */
+    private static final int NB = 32;
+    /** the matrix dimension */
+    private final int n;
+    /** the main diagonal of <i>T</i> */
+    private final double[] d;
+    /** the off diagonal of <i>T</i> */
+    private final double[] e;
+    /** the Householder vectors; the <i>i</i>-th vector is stored in row <i>i</i>, after the diagonal */
+    private final double[] V;
+    /** the Householder scalars */
+    private final double[] tau;
 
     /**
      * Run the tri-diagonalization process for a symmetric matrix.
@@ -54,30 +77,271 @@ public class TriDiagonalization {
      * @throws IllegalArgumentException if <i>A</i> is not symmetric
      */
     public TriDiagonalization(Matrix A) {
-        SuanShuUtils.assertArgument(IsMatrix.symmetric(A, 0), "Tridiagonalization applies to only symmetric matrix");
+        this(A, 0);
+    }
+
+    /**
+     * Run the tri-diagonalization process for a symmetric matrix.
+     * Only the upper triangular part of <i>A</i> is read.
+     *
+     * @param A       a symmetric matrix
+     * @param epsilon a precision parameter: when a number |x| ≤ ε, it is considered 0
+     * @throws IllegalArgumentException if <i>A</i> is not symmetric
+     */
+    public TriDiagonalization(Matrix A, double epsilon) {
+        SuanShuUtils.assertArgument(DimensionCheck.isSquare(A) && IsMatrix.symmetric(A, epsilon),
+                                    "Tridiagonalization applies to only symmetric matrix");
+
+        n = A.nRows();
+        V = new DenseMatrix(A).view().data();
+        d = new double[n];
+        e = new double[Math.max(n - 1, 0)];
+        tau = new double[Math.max(n - 1, 0)];
+        run();
+    }
+
+    /**
+     * The update of the trailing submatrix by a reflection is fused with the matrix-vector multiplication for the next
+     * reflection, so that the trailing submatrix is read only once in each step.
+     */
+    private void run() {
+        if (n < 3) {
+            finish();
+            return;
+        }
+
+        // the first reflection
+        d[0] = V[0];
+        reflect(0);
+        double[] p = new double[n];
+        multiply(0, 1, p);
+
+        double[] next = new double[n];
+        for (int i = 0; i < n - 2; ++i) {
+            final int row = i * n;
+            final double t = tau[i];
+
+            // w = p - (tau / 2) * (p' * v) * v
+            double pv = 0.;
+            for (int r = i + 1; r < n; ++r) {
+                pv += p[r] * V[row + r];
+            }
+            final double k = 0.5 * t * pv;
+            for (int r = i + 1; r < n; ++r) {
+                p[r] -= k * V[row + r];
+            }
+
+            // B = B - v * w' - w * v', and the next reflection from the updated row i + 1
+            update(i, i + 1, p);
+            final boolean hasNext = i + 1 < n - 2;
+            if (hasNext) {
+                d[i + 1] = V[(i + 1) * n + i + 1];
+                reflect(i + 1);
+                Arrays.fill(next, i + 2, n, 0.);
+            }
+            for (int r = i + 2; r < n; ++r) {
+                update(i, r, p);
+                if (hasNext) {
+                    multiplyRow(i + 1, r, next);
+                }
+            }
+            if (hasNext) {
+                for (int r = i + 2; r < n; ++r) {
+                    next[r] *= tau[i + 1];
+                }
+            }
+
+            double[] tmp = p;
+            p = next;
+            next = tmp;
+        }
+
+        finish();
+    }
+
+    /**
+     * Compute the Householder reflection that zeroes out <i>A[i, i+2:n]</i>, and store it in row <i>i</i>.
+     */
+    private void reflect(int i) {
+        final int row = i * n;
+        final double alpha = V[row + i + 1];
+        final double xnorm = norm(V, row + i + 2, row + n);
+        if (xnorm == 0.) {
+            e[i] = alpha;
+            tau[i] = 0.;
+            return;
+        }
+
+        final double beta = -Math.copySign(Math.hypot(alpha, xnorm), alpha);
+        final double scale = 1. / (alpha - beta);
+        for (int c = i + 2; c < n; ++c) {
+            V[row + c] *= scale;
+        }
+        V[row + i + 1] = 1.;
+        e[i] = beta;
+        tau[i] = (beta - alpha) / beta;
+    }
+
+    /**
+     * Compute <i>p = tau * B * v</i> for the <i>i</i>-th reflection, where <i>B</i> is the trailing submatrix stored
+     * in the upper triangle.
+     */
+    private void multiply(int i, int from, double[] p) {
+        for (int r = from; r < n; ++r) {
+            multiplyRow(i, r, p);
+        }
+        for (int r = from; r < n; ++r) {
+            p[r] *= tau[i];
+        }
+    }
+
+    /**
+     * Add the contribution of row <i>r</i> of the upper triangle to <i>B * v</i>, for the <i>i</i>-th reflection.
+     */
+    private void multiplyRow(int i, int r, double[] p) {
+        final int row = i * n;
+        final int br = r * n;
+        final double vr = V[row + r];
+        double sum = V[br + r] * vr;
+        for (int c = r + 1; c < n; ++c) {
+            final double b = V[br + c];
+            sum += b * V[row + c];
+            p[c] += b * vr;
+        }
+        p[r] += sum;
+    }
 
-        this.decomp = new HessenbergDecomposition(A);
+    /**
+     * Apply the symmetric rank-2 update of the <i>i</i>-th reflection, <i>B = B - v * w' - w * v'</i>, to row
+     * <i>r</i> of the upper triangle.
+     */
+    private void update(int i, int r, double[] w) {
+        final int row = i * n;
+        final int br = r * n;
+        final double vr = V[row + r];
+        final double wr = w[r];
+        for (int c = r; c < n; ++c) {
+            V[br + c] -= vr * w[c] + wr * V[row + c];
+        }
+    }
+
+    private void finish() {
+        if (n >= 2) {
+            d[n - 2] = V[(n - 2) * n + n - 2];
+            e[n - 2] = V[(n - 2) * n + n - 1];
+        }
+        if (n >= 1) {
+            d[n - 1] = V[n * n - 1];
+        }
+    }
+
+    /**
+     * Compute the Euclidean norm of a segment of an array, scaling to avoid an overflow.
+     */
+    private static double norm(double[] x, int from, int to) {
+        double max = 0.;
+        for (int k = from; k < to; ++k) {
+            max = Math.max(max, Math.abs(x[k]));
+        }
+        if (max == 0.) {
+            return 0.;
+        }
+
+        double sum = 0.;
+        for (int k = from; k < to; ++k) {
+            final double y = x[k] / max;
+            sum += y * y;
+        }
+        return max * Math.sqrt(sum);
     }
 
     /**
-     * Get <i>T</i>, such that <i>T = Q * A * Q</i>.
-     * <i>T</i> is triangular.
+     * Get <i>T</i>, such that <i>T = Q' * A * Q</i>.
+     * <i>T</i> is tri-diagonal.
      * <i>Q</i> is orthogonal.
      *
      * @return the <i>T</i> matrix
      */
-    public Matrix T() {//TODO: return a TridiagonalMatrix
-        return decomp.H();
+    public TridiagonalMatrix T() {
+        if (n == 1) {
+            return new TridiagonalMatrix(new double[][]{null, d.clone(), null});
+        }
+        return new TridiagonalMatrix(new double[][]{e.clone(), d.clone(), e.clone()});
+    }
+
+    /**
+     * Get the main diagonal of <i>T</i>.
+     *
+     * @return the main diagonal
+     */
+    public double[] diagonal() {
+        return d.clone();
+    }
+
+    /**
+     * Get the off diagonal of <i>T</i>.
+     *
+     * @return the off diagonal
+     */
+    public double[] offDiagonal() {
+        return e.clone();
     }
 
     /**
-     * Get <i>Q</i>, such that <i>Q * A * Q = T</i>.
+     * Get <i>Q</i>, such that <i>Q' * A * Q = T</i>.
      * <i>Q</i> is orthogonal.
-     * <i>T</i> is triangular.
+     * <i>T</i> is tri-diagonal.
      *
      * @return the <i>Q</i> matrix
      */
     public Matrix Q() {
-        return decomp.Q();
+        double[] I = new double[n * n];
+        for (int i = 0; i < n; ++i) {
+            I[i * n + i] = 1.;
+        }
+        return new DenseMatrix(multiplyQ(I, n), n, n);
+    }
+
+    /**
+     * Compute <i>Q * Z</i>.
+     * For example, if the columns of <i>Z</i> are the eigenvectors of <i>T</i>, the columns of <i>Q * Z</i> are those
+     * of <i>A</i>.
+     *
+     * @param Z a matrix with as many rows as <i>A</i>
+     * @return <i>Q * Z</i>
+     */
+    public Matrix multiplyQ(Matrix Z) {
+        SuanShuUtils.assertArgument(Z.nRows() == n, "Z must have %d rows", n);
+        return new DenseMatrix(multiplyQ(new DenseMatrix(Z).view().data(), Z.nCols()), n, Z.nCols());
+    }
+
+    /**
+     * Apply the reflections in blocks, from the last to the first, to a row-major matrix in place.
+     * A block <i>H<sub>j</sub> * ... * H<sub>j+nb-1</sub></i> is <i>I - V * T * V'</i>,
+     * where <i>T</i> is upper triangular.
+     *
+     * @param Z     a row-major <i>n x nz</i> matrix
+     * @param nz    the number of columns
+     * @return {@code Z}
+     */
+    private double[] multiplyQ(double[] Z, int nz) {
+        final int nReflections = Math.max(n - 2, 0);
+        for (int j = ((nReflections - 1) / NB) * NB; j >= 0 && nReflections > 0; j -= NB) {
+            final int nb = Math.min(NB, nReflections - j);
+            final int m = n - j - 1;// the reflections of the block act on rows j + 1 to n - 1
+
+            // V' of the block, nb x m, with the implicit zeros and ones
+            double[] Vt = new double[nb * m];
+            for (int k = 0; k < nb; ++k) {
+                Vt[k * m + k] = 1.;
+                System.arraycopy(V, (j + k) * n + j + k + 2, Vt, k * m + k + 1, m - k - 1);
+            }
+
+            final double[] T = CompactWY.T(Vt, nb, m, tau, j);
+
+            // Z = Z - V * (T * (V' * Z))
+            CompactWY.apply(false, Vt, T, nb, m, Z, (j + 1) * nz, nz, nz);
+        }
+        return Z;
     }
 }
@@ -24,6 +24,7 @@ package com.numericalmethod.suanshu.matrix.doubles.factorization.eigen;
 
 import com.numericalmethod.suanshu.datastructure.DimensionCheck;
 import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.factorization.eigen.dc.DivideAndConquer;
 import com.numericalmethod.suanshu.matrix.doubles.factorization.eigen.qr.QRAlgorithm;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
 import static com.numericalmethod.suanshu.misc.SuanShuUtils.assertArgument;
@@ -31,6 +32,7 @@ import static com.numericalmethod.suanshu.misc.SuanShuUtils.autoEpsilon;
 import com.numericalmethod.suanshu.number.DoubleUtils;
 import com.numericalmethod.suanshu.number.NumberUtils;
 import static com.numericalmethod.suanshu.number.NumberUtils.isReal;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
 import java.util.*;
 
 /**
@@ -60,7 +62,8 @@ public class Eigen implements Spectrum {//TODO: refactor this lenghty code
          */
         CHARACTERISTIC_POLYNOMIAL,
         /**
-         * for a symmetric matrix (<em>Not supported yet.</em>)
+         * for a symmetric matrix, c.f., {@link DivideAndConquer};
+         * the eigenvectors are computed together with the eigenvalues, and are orthonormal
          */
         SYMMETRY,
         /**
@@ -107,9 +110,8 @@ public class Eigen implements Spectrum {//TODO: refactor this lenghty code
                 impl = new CharacteristicPolynomial(this.A);
                 break;
             case SYMMETRY:
-                throw new UnsupportedOperationException("Not supported yet.");
-//                impl = null;
-//                break;
+                putSymmetricEigenpairs(new DivideAndConquer(A, epsilon), epsilon);
+                return;
             case QR:
             default:
                 impl = new QRAlgorithm(this.A, Integer.MAX_VALUE, epsilon);
@@ -137,6 +139,39 @@ public class Eigen implements Spectrum {//TODO: refactor this lenghty code
         }
     }
 
+    /**
+     * Group the eigenpairs of a symmetric matrix by the distinct eigenvalues.
+     * An eigenvalue within ε of the previous (bigger) one is considered repeated.
+     * As in the kernel computation, each eigenvector is signed so that its last non-zero entry is positive.
+     *
+     * @param dc      the eigen decomposition of a symmetric matrix
+     * @param epsilon a precision parameter: when a number |x| ≤ ε, it is considered 0
+     */
+    private void putSymmetricEigenpairs(DivideAndConquer dc, double epsilon) {
+        double[] eigenvalues = dc.eigenvalues();// in descending order
+        Matrix Q = dc.Q();
+
+        for (int i = 0; i < eigenvalues.length;) {
+            List<Vector> basis = new ArrayList<Vector>();
+            int j = i;
+            for (; j < eigenvalues.length && DoubleUtils.compare(eigenvalues[i], eigenvalues[j], epsilon) == 0; ++j) {
+                basis.add(signed(Q.getColumn(j + 1), epsilon));
+            }
+            map.put(eigenvalues[i], new EigenProperty(eigenvalues[i], basis));
+            i = j;
+        }
+    }
+
+    private static Vector signed(Vector v, double epsilon) {
+        for (int i = v.size(); i >= 1; --i) {
+            double vi = v.get(i);
+            if (Math.abs(vi) > epsilon) {
+                return vi > 0 ? v : v.scaled(-1);
+            }
+        }
+        return v;
+    }
+
     /**
      * Compute the eigenvalues and eigenvectors for a <em>square</em> matrix.
      *
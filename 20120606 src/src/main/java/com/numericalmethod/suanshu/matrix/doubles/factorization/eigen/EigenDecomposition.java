@@ -23,6 +23,7 @@
 package com.numericalmethod.suanshu.matrix.doubles.factorization.eigen;
 
 import com.numericalmethod.suanshu.datastructure.DimensionCheck;
+import com.numericalmethod.suanshu.matrix.doubles.IsMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.Matrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.diagonal.DiagonalMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.operation.CreateMatrix;
@@ -36,6 +37,7 @@ import java.util.List;
  * Then <i>A</i> can be factorized as <i>Q * D * Q' = A</i>.
  * <i>Q</i> is the square <i>N × N</i> matrix whose <i>i</i>-th column is the eigenvector of <i>A</i>,
  * and <i>D</i> is the diagonal matrix whose diagonal elements are the corresponding eigenvalues.
+ * A symmetric matrix is decomposed by {@link Eigen.Method#SYMMETRY}, so that <i>Q</i> is orthogonal.
  *
  * @author Haksun Li
  * @see <a href="http://en.wikipedia.org/wiki/Eigendecomposition_of_a_matrix#Eigendecomposition_of_a_matrix">Wikipedia: Eigendecomposition of a matrix</a>
@@ -55,7 +57,7 @@ public class EigenDecomposition {
         SuanShuUtils.assertArgument(DimensionCheck.isSquare(A), "eigen decomposition applies only to square matrices");
 
         this.dim = A.nRows();
-        this.eigen = new Eigen(A, Eigen.Method.QR, epsilon);
+        this.eigen = new Eigen(A, IsMatrix.symmetric(A, epsilon) ? Eigen.Method.SYMMETRY : Eigen.Method.QR, epsilon);
     }
 
     /**
@@ -66,6 +66,19 @@ public class EigenProperty {
         }
     }
 
+    /**
+     * Construct the information for a real eigenvalue whose eigenvectors are already known.
+     *
+     * @param eigenvalue an eigenvalue
+     * @param eigenBasis the linearly independent eigenvectors; the algebraic multiplicity is taken to be the number of
+     *                   them, as for a symmetric matrix
+     */
+    EigenProperty(double eigenvalue, List<Vector> eigenBasis) {
+        this.eigenvalue = eigenvalue;
+        this.multiplicity = eigenBasis.size();
+        this.eigenBasis.addAll(eigenBasis);
+    }
+
     //TODO: what is the proper way to numerically compute the eigenvectors?
     private ArrayList<Vector> getEigenVectors(double eigenvalue, int multiplicity, Matrix A, double epsilon) {
         double eps = epsilon != 0 ? epsilon : 1e-15;
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.factorization.eigen.dc;
+
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.factorization.diagonalization.TriDiagonalization;
+import com.numericalmethod.suanshu.matrix.doubles.factorization.eigen.Spectrum;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This is the divide-and-conquer eigen decomposition of a symmetric matrix, <i>A = Q * D * Q'</i>.
+ * <i>A</i> is first reduced to a tri-diagonal matrix <i>T</i> by {@link TriDiagonalization}.
+ * All the eigenvalues and eigenvectors of <i>T</i> are then computed by Cuppen's divide-and-conquer algorithm.
+ * The eigenvectors of <i>A</i> are those of <i>T</i> transformed back by the Householder reflections.
+ * All three steps take <i>O(n<sup>3</sup>)</i> operations with small constants, and the last two are dominated by
+ * matrix-matrix multiplications, which run in parallel for a big matrix.
+ * <p/>
+ * This is much faster than the QR algorithm for a general matrix followed by a kernel computation for each
+ * eigenvalue. The eigenvectors are orthonormal even for repeated eigenvalues.
+ * @see
+ * <ul>
+ * <li><a href="http://en.wikipedia.org/wiki/Divide-and-conquer_eigenvalue_algorithm">Wikipedia: Divide-and-conquer
+ * eigenvalue algorithm</a>
+ * <li>"J. W. Demmel, "Applied Numerical Linear Algebra," SIAM, 1997. Section 5.3.3."
+ * </ul>
+ */
+public class DivideAndConquer implements Spectrum {
+
+    /** the eigenvalues in descending order */
+    private final double[] eigenvalues;
+    /** the eigenvectors as columns, in the order of the eigenvalues */
+    private final Matrix Q;
+
+    /**
+     * Run the divide-and-conquer eigen decomposition on a symmetric matrix.
+     * Only the upper triangular part of <i>A</i> is read.
+     *
+     * @param A       a symmetric matrix
+     * @param epsilon a precision parameter: when a number |x| ≤ ε, it is considered 0
+     * @throws IllegalArgumentException if <i>A</i> is not symmetric
+     */
+    public DivideAndConquer(Matrix A, double epsilon) {
+        TriDiagonalization tri = new TriDiagonalization(A, epsilon);
+        final int n = A.nRows();
+
+        double[] d = tri.diagonal();
+        double[] Z = TridiagonalDivideAndConquer.solve(d, tri.offDiagonal());// ascending
+
+        // reverse to the descending order
+        eigenvalues = new double[n];
+        double[] descending = new double[n * n];
+        for (int j = 0; j < n; ++j) {
+            eigenvalues[j] = d[n - 1 - j];
+            for (int i = 0; i < n; ++i) {
+                descending[i * n + j] = Z[i * n + n - 1 - j];
+            }
+        }
+
+        Q = tri.multiplyQ(new DenseMatrix(descending, n, n));
+    }
+
+    /**
+     * Run the divide-and-conquer eigen decomposition on a symmetric matrix.
+     *
+     * @param A a symmetric matrix
+     * @throws IllegalArgumentException if <i>A</i> is not symmetric
+     */
+    public DivideAndConquer(Matrix A) {
+        this(A, SuanShuUtils.autoEpsilon(A));
+    }
+
+    @Override
+    public List<Number> getEigenvalues() {
+        List<Number> result = new ArrayList<Number>(eigenvalues.length);
+        for (double eigenvalue : eigenvalues) {
+            result.add(eigenvalue);
+        }
+        return result;
+    }
+
+    /**
+     * Get the eigenvalues in descending order.
+     *
+     * @return the eigenvalues
+     */
+    public double[] eigenvalues() {
+        return eigenvalues.clone();
+    }
+
+    /**
+     * Get the orthonormal eigenvectors, such that the <i>j</i>-th column corresponds to the <i>j</i>-th eigenvalue
+     * in descending order.
+     *
+     * @return the eigenvectors as columns
+     */
+    public Matrix Q() {
+        return Q.deepCopy();
+    }
+}
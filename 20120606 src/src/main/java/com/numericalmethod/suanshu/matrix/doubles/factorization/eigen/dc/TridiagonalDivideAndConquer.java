@@ -0,0 +1,520 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.factorization.eigen.dc;
+
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.BlockedGEMM;
+import java.util.Arrays;
+
+/**
+ * Cuppen's divide-and-conquer algorithm computes all the eigenvalues and eigenvectors of a symmetric tri-diagonal
+ * matrix <i>T</i>.
+ * <i>T</i> is torn into two halves by a rank-one modification,
+ * \[
+ * T = \begin{bmatrix}
+ * T_1 & 0\\
+ * 0 & T_2
+ * \end{bmatrix} + \rho u u'
+ * \]
+ * The halves are solved recursively, and their eigen decompositions are merged by solving the eigenproblem of a
+ * diagonal matrix plus a rank-one matrix, <i>D + &rho; z z'</i>.
+ * Its eigenvalues are the roots of the secular equation,
+ * \[
+ * f(\lambda) = 1 + \rho \sum_i \frac{z_i^2}{d_i - \lambda} = 0
+ * \]
+ * Components of <i>z</i> that are negligible, and pairs of nearly equal <i>d<sub>i</sub></i>, are deflated first.
+ * The eigenvectors are computed from a vector <i>z</i> recomputed by the L&ouml;wner theorem, so that they are
+ * numerically orthogonal without any re-orthogonalization.
+ * Small sub-problems are solved by the implicit QL algorithm.
+ * Most of the work is in the matrix-matrix multiplications that update the eigenvectors of the merged halves.
+ * @see
+ * <ul>
+ * <li>"J. J. M. Cuppen, "A divide and conquer method for the symmetric tridiagonal eigenproblem," Numerische
+ * Mathematik, vol. 36, pp. 177-195, 1981."
+ * <li>"M. Gu and S. C. Eisenstat, "A divide-and-conquer algorithm for the symmetric tridiagonal eigenproblem," SIAM
+ * Journal on Matrix Analysis and Applications, vol. 16, no. 1, pp. 172-191, 1995."
+ * </ul>
+ */
+class TridiagonalDivideAndConquer {
+
+    /** the size below which a sub-problem is solved by the QL algorithm */
+    private static final int SMALL = 32;
+    /** the maximum number of iterations for a root of the secular equation */
+    private static final int MAX_SECULAR_ITERATIONS = 100;
+    /** the maximum number of QL iterations for an eigenvalue */
+    private static final int MAX_QL_ITERATIONS = 60;
+    private static final double EPS = Math.ulp(1.);
+    /** the column types: the rows of the first half only, those of the second half only, or both */
+    private static final int TOP = 0, MIXED = 1, BOTTOM = 2;
+
+    private TridiagonalDivideAndConquer() {
+    }
+
+    /**
+     * Compute all the eigenvalues and eigenvectors of a symmetric tri-diagonal matrix.
+     *
+     * @param d the main diagonal; it is overwritten by the eigenvalues in ascending order
+     * @param e the off diagonal; it is destroyed
+     * @return the eigenvectors, as the columns of a row-major matrix, in the order of the eigenvalues
+     */
+    static double[] solve(double[] d, double[] e) {
+        final int n = d.length;
+
+        // scale the matrix so that its largest entry is 1
+        double scale = 0.;
+        for (int i = 0; i < n; ++i) {
+            scale = Math.max(scale, Math.abs(d[i]));
+        }
+        for (int i = 0; i < n - 1; ++i) {
+            scale = Math.max(scale, Math.abs(e[i]));
+        }
+        if (scale == 0.) {
+            return identity(n);
+        }
+        for (int i = 0; i < n; ++i) {
+            d[i] /= scale;
+        }
+        for (int i = 0; i < n - 1; ++i) {
+            e[i] /= scale;
+        }
+
+        double[] Q = divide(d, e, 0, n);
+
+        for (int i = 0; i < n; ++i) {
+            d[i] *= scale;
+        }
+        return Q;
+    }
+
+    private static double[] divide(double[] d, double[] e, int start, int n) {
+        if (n <= SMALL) {
+            return ql(d, e, start, n);
+        }
+
+        final int n1 = n / 2;
+        final int mid = start + n1;
+        final double beta = e[mid - 1];
+        final double rho = Math.abs(beta);
+        d[mid - 1] -= rho;
+        d[mid] -= rho;
+
+        double[] Q1 = divide(d, e, start, n1);
+        double[] Q2 = divide(d, e, mid, n - n1);
+        return merge(d, start, n1, n - n1, rho, beta >= 0. ? 1. : -1., Q1, Q2);
+    }
+
+    /**
+     * Merge the eigen decompositions of the two halves.
+     *
+     * @param d     the eigenvalues of the halves, each in ascending order; overwritten by the merged eigenvalues
+     * @param start the start of the problem in {@code d}
+     * @param n1    the size of the first half
+     * @param n2    the size of the second half
+     * @param rho   the non-negative rank-one weight
+     * @param sign  the sign of the coupling entry
+     * @param Q1    the eigenvectors of the first half
+     * @param Q2    the eigenvectors of the second half
+     * @return the eigenvectors of the merged problem
+     */
+    private static double[] merge(double[] d, int start, int n1, int n2, double rho, double sign, double[] Q1, double[] Q2) {
+        final int n = n1 + n2;
+
+        // z = Q' u / sqrt(2), with the eigenvalues of the halves sorted by a merge
+        double[] D = new double[n];
+        double[] z = new double[n];
+        int[] source = new int[n];// the column of diag(Q1, Q2) for each sorted position
+        for (int i = 0, j = 0, k = 0; k < n; ++k) {
+            if (j >= n2 || (i < n1 && d[start + i] <= d[start + n1 + j])) {
+                D[k] = d[start + i];
+                z[k] = Q1[(n1 - 1) * n1 + i] / Math.sqrt(2.);
+                source[k] = i++;
+            } else {
+                D[k] = d[start + n1 + j];
+                z[k] = sign * Q2[j] / Math.sqrt(2.);
+                source[k] = n1 + j++;
+            }
+        }
+        rho *= 2.;
+
+        // the columns of diag(Q1, Q2) in the sorted order; the deflating rotations mix some of them
+        double[] Q = new double[n * n];
+        int[] type = new int[n];
+        for (int k = 0; k < n; ++k) {
+            final int c = source[k];
+            if (c < n1) {
+                type[k] = TOP;
+                for (int r = 0; r < n1; ++r) {
+                    Q[r * n + k] = Q1[r * n1 + c];
+                }
+            } else {
+                type[k] = BOTTOM;
+                for (int r = 0; r < n2; ++r) {
+                    Q[(n1 + r) * n + k] = Q2[r * n2 + c - n1];
+                }
+            }
+        }
+
+        // deflation
+        double dmax = 0.;
+        for (int k = 0; k < n; ++k) {
+            dmax = Math.max(dmax, Math.abs(D[k]));
+        }
+        final double tol = 8. * EPS * Math.max(dmax, rho);
+        int[] kept = new int[n];
+        int nKept = 0;
+        int[] deflated = new int[n];
+        int nDeflated = 0;
+        int last = -1;
+        for (int k = 0; k < n; ++k) {
+            if (rho * Math.abs(z[k]) <= tol) {
+                deflated[nDeflated++] = k;
+                continue;
+            }
+            if (last >= 0) {
+                final double t = Math.hypot(z[last], z[k]);
+                final double c = z[k] / t;
+                final double s = -z[last] / t;
+                if (Math.abs((D[k] - D[last]) * c * s) <= tol) {// rotate z[last] to 0
+                    z[k] = t;
+                    z[last] = 0.;
+                    final double dl = c * c * D[last] + s * s * D[k];
+                    D[k] = s * s * D[last] + c * c * D[k];
+                    D[last] = dl;
+                    for (int r = 0; r < n; ++r) {
+                        final double ql = Q[r * n + last];
+                        final double qk = Q[r * n + k];
+                        Q[r * n + last] = c * ql + s * qk;
+                        Q[r * n + k] = -s * ql + c * qk;
+                    }
+                    if (type[last] != type[k]) {
+                        type[last] = MIXED;
+                        type[k] = MIXED;
+                    }
+                    deflated[nDeflated++] = last;
+                } else {
+                    kept[nKept++] = last;
+                }
+            }
+            last = k;
+        }
+        if (last >= 0) {
+            kept[nKept++] = last;
+        }
+
+        double[] lambda = new double[n];
+        double[] result = new double[n * n];
+        final int k = nKept;
+        if (k > 0) {
+            double[] Dk = new double[k];
+            double[] zk = new double[k];
+            for (int j = 0; j < k; ++j) {
+                Dk[j] = D[kept[j]];
+                zk[j] = z[kept[j]];
+            }
+
+            // the roots of the secular equation, each as an offset from a pole
+            int[] origin = new int[k];
+            double[] tau = new double[k];
+            for (int j = 0; j < k; ++j) {
+                secular(j, Dk, zk, rho, origin, tau);
+                lambda[j] = Dk[origin[j]] + tau[j];
+            }
+
+            // the eigenvectors of D + rho * z * z', by the Lowner theorem
+            double[] zhat = new double[k];
+            for (int i = 0; i < k; ++i) {
+                double prod = (Dk[origin[i]] - Dk[i] + tau[i]) / rho;// lambda_i - d_i
+                for (int j = 0; j < k; ++j) {
+                    if (j != i) {
+                        prod *= (Dk[origin[j]] - Dk[i] + tau[j]) / (Dk[j] - Dk[i]);
+                    }
+                }
+                zhat[i] = Math.copySign(Math.sqrt(Math.max(prod, 0.)), zk[i]);
+            }
+
+            // the columns of Q are grouped by their types, so that the zero blocks are skipped
+            int[] order = new int[k];
+            int[] count = new int[3];
+            for (int j = 0; j < k; ++j) {
+                ++count[type[kept[j]]];
+            }
+            int[] next = {0, count[TOP], count[TOP] + count[MIXED]};
+            for (int j = 0; j < k; ++j) {
+                order[next[type[kept[j]]]++] = j;
+            }
+
+            double[] U = new double[k * k];// row i is the component of z_hat at order[i]
+            for (int j = 0; j < k; ++j) {
+                double norm = 0.;
+                for (int i = 0; i < k; ++i) {
+                    final int p = order[i];
+                    final double u = zhat[p] / (Dk[p] - Dk[origin[j]] - tau[j]);
+                    U[i * k + j] = u;
+                    norm += u * u;
+                }
+                norm = Math.sqrt(norm);
+                for (int i = 0; i < k; ++i) {
+                    U[i * k + j] /= norm;
+                }
+            }
+
+            final int nTop = count[TOP] + count[MIXED];
+            final int nBottom = count[MIXED] + count[BOTTOM];
+            double[] Qtop = new double[n1 * nTop];
+            for (int r = 0; r < n1; ++r) {
+                for (int c = 0; c < nTop; ++c) {
+                    Qtop[r * nTop + c] = Q[r * n + kept[order[c]]];
+                }
+            }
+            double[] Qbottom = new double[n2 * nBottom];
+            for (int r = 0; r < n2; ++r) {
+                for (int c = 0; c < nBottom; ++c) {
+                    Qbottom[r * nBottom + c] = Q[(n1 + r) * n + kept[order[count[TOP] + c]]];
+                }
+            }
+            BlockedGEMM.gemm(false, false, n1, k, nTop, 1., Qtop, 0, nTop, U, 0, k, 0., result, 0, n);
+            BlockedGEMM.gemm(false, false, n2, k, nBottom, 1., Qbottom, 0, nBottom, U, count[TOP] * k, k, 0., result, n1 * n, n);
+        }
+
+        // the deflated eigenpairs
+        for (int j = 0; j < nDeflated; ++j) {
+            final int c = deflated[j];
+            lambda[k + j] = D[c];
+            for (int r = 0; r < n; ++r) {
+                result[r * n + k + j] = Q[r * n + c];
+            }
+        }
+
+        return sort(lambda, result, d, start);
+    }
+
+    /**
+     * Solve for the <i>j</i>-th root of the secular equation, in (<i>d<sub>j</sub></i>, <i>d<sub>j+1</sub></i>), or
+     * in (<i>d<sub>k</sub></i>, <i>d<sub>k</sub></i> + <i>&rho; z'z</i>) for the last root.
+     * The root is represented as an offset from the nearer pole to keep the differences <i>d<sub>i</sub> - &lambda;</i>
+     * accurate.
+     * Each iteration interpolates the two parts of the secular function, the poles on the left and those on the
+     * right, by a simple rational function with the nearest pole, and solves the resulting quadratic equation.
+     * The iterates are safeguarded by bisection.
+     */
+    private static void secular(int j, double[] D, double[] z, double rho, int[] origin, double[] tau) {
+        final int k = D.length;
+        final boolean isLast = j == k - 1;
+
+        // choose the origin and the bracket for tau
+        int org;
+        double lo, hi;
+        if (isLast) {
+            double zz = 0.;
+            for (int i = 0; i < k; ++i) {
+                zz += z[i] * z[i];
+            }
+            org = j;
+            lo = 0.;
+            hi = rho * zz;
+        } else {
+            final double gap = D[j + 1] - D[j];
+            if (f(gap / 2., j, D, z, rho) >= 0.) {
+                org = j;
+                lo = 0.;
+                hi = gap / 2.;
+            } else {
+                org = j + 1;
+                lo = -gap / 2.;
+                hi = 0.;
+            }
+        }
+
+        double t = (lo + hi) / 2.;
+        for (int iter = 0; iter < MAX_SECULAR_ITERATIONS; ++iter) {
+            double psi = 0., dpsi = 0., phi = 0., dphi = 0.;
+            for (int i = 0; i < k; ++i) {
+                final double delta = (D[i] - D[org]) - t;
+                final double q = z[i] / delta;
+                if (i <= j) {
+                    psi += z[i] * q;
+                    dpsi += q * q;
+                } else {
+                    phi += z[i] * q;
+                    dphi += q * q;
+                }
+            }
+            psi *= rho;
+            dpsi *= rho;
+            phi *= rho;
+            dphi *= rho;
+            final double f = 1. + psi + phi;
+            if (f < 0.) {
+                lo = t;
+            } else {
+                hi = t;
+            }
+            if (Math.abs(f) <= 8. * EPS * k * (1. + Math.abs(psi) + Math.abs(phi))
+                || hi - lo <= 2. * EPS * Math.max(Math.abs(lo), Math.abs(hi))) {
+                break;
+            }
+
+            // the rational interpolation with the poles d_j and d_{j+1}
+            final double dj = (D[j] - D[org]) - t;
+            final double b = dpsi * dj * dj;
+            final double a = psi - dpsi * dj;
+            double next;
+            if (isLast) {
+                next = 1. + a > 0. ? (D[j] - D[org]) + b / (1. + a) : Double.NaN;
+            } else {
+                final double dj1 = (D[j + 1] - D[org]) - t;
+                final double ee = dphi * dj1 * dj1;
+                final double c = phi - dphi * dj1;
+                final double A0 = 1. + a + c;
+                final double g = D[j + 1] - D[j];
+                // A0 * u^2 + (A0 * g + b + ee) * u + b * g = 0, where u = d_j - lambda in (-g, 0)
+                final double B = A0 * g + b + ee;
+                final double C = b * g;
+                final double disc = Math.sqrt(Math.max(B * B - 4. * A0 * C, 0.));
+                double u = B >= 0. ? 2. * C / (-B - disc) : (-B + disc) / (2. * A0);
+                if (!(u > -g && u < 0.)) {
+                    u = B >= 0. ? (-B - disc) / (2. * A0) : 2. * C / (-B + disc);
+                }
+                next = (D[j] - D[org]) - u;
+            }
+            if (!(next > lo && next < hi)) {
+                next = (lo + hi) / 2.;
+            }
+            t = next;
+        }
+
+        origin[j] = org;
+        tau[j] = t;
+    }
+
+    private static double f(double t, int j, double[] D, double[] z, double rho) {
+        double sum = 0.;
+        for (int i = 0; i < D.length; ++i) {
+            sum += z[i] * z[i] / ((D[i] - D[j]) - t);
+        }
+        return 1. + rho * sum;
+    }
+
+    /**
+     * Solve a small problem by the implicit QL algorithm.
+     */
+    private static double[] ql(double[] d0, double[] e0, int start, int n) {
+        double[] d = Arrays.copyOfRange(d0, start, start + n);
+        double[] e = new double[n];// e[i] couples i and i + 1
+        System.arraycopy(e0, start, e, 0, n - 1);
+        double[] z = identity(n);
+
+        for (int l = 0; l < n; ++l) {
+            int iter = 0;
+            int m;
+            do {
+                for (m = l; m < n - 1; ++m) {
+                    final double dd = Math.abs(d[m]) + Math.abs(d[m + 1]);
+                    if (Math.abs(e[m]) <= EPS * dd) {
+                        break;
+                    }
+                }
+                if (m != l) {
+                    if (++iter > MAX_QL_ITERATIONS) {
+                        throw new RuntimeException("the QL algorithm does not converge");
+                    }
+                    double g = (d[l + 1] - d[l]) / (2. * e[l]);
+                    double r = Math.hypot(g, 1.);
+                    g = d[m] - d[l] + e[l] / (g + Math.copySign(r, g));
+                    double s = 1., c = 1., p = 0.;
+                    int i;
+                    for (i = m - 1; i >= l; --i) {
+                        double f = s * e[i];
+                        final double b = c * e[i];
+                        e[i + 1] = (r = Math.hypot(f, g));
+                        if (r == 0.) {
+                            d[i + 1] -= p;
+                            e[m] = 0.;
+                            break;
+                        }
+                        s = f / r;
+                        c = g / r;
+                        g = d[i + 1] - p;
+                        r = (d[i] - g) * s + 2. * c * b;
+                        d[i + 1] = g + (p = s * r);
+                        g = c * r - b;
+                        for (int q = 0; q < n; ++q) {
+                            f = z[q * n + i + 1];
+                            z[q * n + i + 1] = s * z[q * n + i] + c * f;
+                            z[q * n + i] = c * z[q * n + i] - s * f;
+                        }
+                    }
+                    if (r == 0. && i >= l) {
+                        continue;
+                    }
+                    d[l] -= p;
+                    e[l] = g;
+                    e[m] = 0.;
+                }
+            } while (m != l);
+        }
+
+        return sort(d, z, d0, start);
+    }
+
+    /**
+     * Sort the eigenvalues in ascending order, together with the eigenvectors.
+     *
+     * @param lambda the eigenvalues
+     * @param Q      the eigenvectors as columns
+     * @param d      the output eigenvalues
+     * @param start  the start of the output in {@code d}
+     * @return the sorted eigenvectors
+     */
+    private static double[] sort(final double[] lambda, double[] Q, double[] d, int start) {
+        final int n = lambda.length;
+        Integer[] index = new Integer[n];
+        for (int i = 0; i < n; ++i) {
+            index[i] = i;
+        }
+        Arrays.sort(index, new java.util.Comparator<Integer>() {
+
+            @Override
+            public int compare(Integer i, Integer j) {
+                return Double.compare(lambda[i], lambda[j]);
+            }
+        });
+
+        double[] sorted = new double[n * n];
+        for (int c = 0; c < n; ++c) {
+            final int from = index[c];
+            d[start + c] = lambda[from];
+            for (int r = 0; r < n; ++r) {
+                sorted[r * n + c] = Q[r * n + from];
+            }
+        }
+        return sorted;
+    }
+
+    private static double[] identity(int n) {
+        double[] I = new double[n * n];
+        for (int i = 0; i < n; ++i) {
+            I[i * n + i] = 1.;
+        }
+        return I;
+    }
+}
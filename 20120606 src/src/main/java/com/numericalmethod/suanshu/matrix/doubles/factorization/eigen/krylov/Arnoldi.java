@@ -0,0 +1,539 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.factorization.eigen.krylov;
+
+import com.numericalmethod.suanshu.datastructure.DimensionCheck;
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.factorization.eigen.Spectrum;
+import com.numericalmethod.suanshu.matrix.doubles.factorization.eigen.qr.QRAlgorithm;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import static com.numericalmethod.suanshu.misc.SuanShuUtils.assertArgument;
+import com.numericalmethod.suanshu.number.complex.Complex;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The implicitly restarted Arnoldi method computes a few eigenvalues and eigenvectors of a big general (non-symmetric)
+ * matrix.
+ * The matrix is accessed only through matrix-vector multiplications, so it can be of any type, e.g., a
+ * {@link com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.CSRSparseMatrix}.
+ * <p/>
+ * An Arnoldi factorization <i>AV = VH + fe'</i> of length <i>m</i> (a few times <i>k</i>) is computed, where <i>H</i>
+ * is upper Hessenberg.
+ * The unwanted eigenvalues of <i>H</i> are applied as shifts of implicit QR steps, which filter their directions out
+ * of the starting vector and compress the factorization to length <i>k</i>.
+ * A complex conjugate pair of shifts is applied in real arithmetic by a Francis double-shift step.
+ * The factorization is then extended to length <i>m</i> again, until the residuals of the <i>k</i> wanted Ritz pairs
+ * are small.
+ * The basis is fully re-orthogonalized.
+ * <p/>
+ * The eigenvalues of a real matrix may be complex; they are returned as {@link Complex}.
+ * Eigenvectors are available for the real eigenvalues.
+ * @see
+ * <ul>
+ * <li>"D. C. Sorensen, "Implicit application of polynomial filters in a k-step Arnoldi method," SIAM Journal on Matrix
+ * Analysis and Applications, 13(1):357-385, 1992."
+ * <li>"R. B. Lehoucq, D. C. Sorensen, C. Yang, "ARPACK Users' Guide," SIAM, 1998."
+ * <li><a href="http://en.wikipedia.org/wiki/Arnoldi_iteration">Wikipedia: Arnoldi iteration</a>
+ * </ul>
+ */
+public class Arnoldi implements Spectrum {
+
+    /**
+     * the eigenvalues to compute
+     */
+    public static enum Target {
+
+        /**
+         * the eigenvalues of the largest moduli
+         */
+        LARGEST_MAGNITUDE,
+        /**
+         * the eigenvalues of the largest real parts
+         */
+        LARGEST_REAL,
+        /**
+         * the eigenvalues of the smallest real parts
+         */
+        SMALLEST_REAL
+    }
+    /** the default convergence threshold of the relative residuals */
+    public static final double DEFAULT_TOLERANCE = 1e-12;
+    /** the default maximum number of restarts */
+    public static final int DEFAULT_MAX_RESTARTS = 1000;
+    /** the relative size of a residual below which an invariant subspace is declared */
+    private static final double EPSILON = 1e-14;
+    /** the wanted eigenvalues, in the order of the target */
+    private final List<Number> eigenvalues;
+    /** the eigenvectors of the real eigenvalues; {@code null} for the complex ones */
+    private final Vector[] eigenvectors;
+    private final int nRestarts;
+
+    /**
+     * Compute <i>k</i> eigenpairs of a square matrix.
+     *
+     * @param A           a square matrix
+     * @param k           the number of eigenpairs
+     * @param target      which eigenvalues to compute
+     * @param m           the length of the Arnoldi factorization, {@code k < m ≤ n}; a bigger <i>m</i> takes more memory
+     *                    but fewer restarts
+     * @param tolerance   the computation stops when the residual <i>|Ax - θx|</i> of every wanted Ritz pair is at most
+     *                    {@code tolerance} times the biggest Ritz value in modulus
+     * @param maxRestarts the maximum number of restarts
+     * @throws RuntimeException if the eigenpairs do not converge after {@code maxRestarts} restarts
+     */
+    public Arnoldi(Matrix A, int k, Target target, int m, double tolerance, int maxRestarts) {
+        assertArgument(DimensionCheck.isSquare(A), "A must be square");
+        final int n = A.nRows();
+        assertArgument(1 <= k && k <= n, "k must be in [1, %d]", n);
+        assertArgument(k < m && m <= n || k == n && m == n, "m must be in (k, n]");
+
+        KrylovBasis basis = new KrylovBasis(A, m + 1);
+        double[][] H = new double[m][m];
+        double[] w = new double[n];
+        double[] h = new double[m];
+
+        basis.random(0);
+        for (int restart = 0, j0 = 0;; ++restart) {
+            // extend the factorization to length m
+            double beta = 0;
+            for (int j = j0; j < m; ++j) {
+                basis.multiply(j, w);
+                double norm0 = KrylovBasis.norm(w);
+                Arrays.fill(h, 0.);
+                beta = basis.orthogonalize(w, j + 1, h);
+                for (int i = 0; i <= j; ++i) {
+                    H[i][j] = h[i];
+                }
+
+                if (beta > EPSILON * norm0) {
+                    basis.set(j + 1, w, beta);
+                } else {//an invariant subspace
+                    beta = 0;
+                    if (j + 1 < m) {
+                        basis.random(j + 1);
+                    }
+                }
+                if (j + 1 < m) {
+                    H[j + 1][j] = beta;
+                }
+            }
+
+            // the Ritz values, sorted so that a complex conjugate pair is adjacent, the positive imaginary part first
+            List<Number> theta = new QRAlgorithm(new DenseMatrix(H)).getEigenvalues();
+            Collections.sort(theta, comparator(target));
+
+            double max = 0;
+            for (Number t : theta) {
+                max = Math.max(max, modulus(t));
+            }
+            double[][] y = new double[k][];
+            int nConverged = 0;
+            for (int i = 0; i < k; ++i) {
+                y[i] = ritzVector(H, theta.get(i));
+                double ym = Math.hypot(y[i][m - 1], y[i][2 * m - 1]);
+                if (beta * ym <= tolerance * max) {
+                    ++nConverged;
+                }
+            }
+            final boolean isConverged = nConverged == k;
+
+            if (isConverged || restart == maxRestarts) {
+                if (!isConverged) {
+                    throw new RuntimeException(String.format("Arnoldi does not converge after %d restarts", maxRestarts));
+                }
+
+                this.nRestarts = restart;
+                this.eigenvalues = new ArrayList<Number>(theta.subList(0, k));
+                this.eigenvectors = new Vector[k];
+                for (int i = 0; i < k; ++i) {
+                    if (imaginary(theta.get(i)) == 0) {
+                        double[] x = basis.combine(y[i], m);
+                        double norm = KrylovBasis.norm(x);
+                        for (int l = 0; l < n; ++l) {
+                            x[l] /= norm;
+                        }
+                        eigenvectors[i] = new DenseVector(x);
+                    }
+                }
+                break;
+            }
+
+            // keep more Ritz values as more have converged, to avoid stagnation; do not split a complex conjugate pair
+            int kk = k + Math.min(nConverged, (m - k) / 2);
+            if (kk < m && isConjugate(theta.get(kk - 1), theta.get(kk))) {
+                ++kk;
+            }
+
+            // apply the unwanted Ritz values as shifts
+            double[][] Q = new double[m][m];
+            for (int i = 0; i < m; ++i) {
+                Q[i][i] = 1;
+            }
+            for (int i = kk; i < m; ++i) {
+                Number mu = theta.get(i);
+                final double re = real(mu), im = imaginary(mu);
+                if (im == 0) {
+                    singleShift(H, Q, re);
+                } else if (im > 0) {
+                    doubleShift(H, Q, 2 * re, re * re + im * im);
+                }
+            }
+
+            // compress the factorization to length kk
+            double[] Qkk = new double[m * (kk + 1)];
+            for (int l = 0; l < m; ++l) {
+                for (int i = 0; i <= kk; ++i) {
+                    Qkk[l * (kk + 1) + i] = Q[l][i];
+                }
+            }
+            double[] vm = Arrays.copyOfRange(basis.V, m * n, (m + 1) * n);
+            basis.rotate(Qkk, kk + 1, m, kk + 1);
+            final double b = H[kk][kk - 1];
+            final double sigma = beta * Q[m - 1][kk - 1];
+            for (int l = 0, kl = kk * n; l < n; ++l, ++kl) {
+                w[l] = b * basis.V[kl] + sigma * vm[l];
+            }
+
+            for (int i = 0; i < m; ++i) {
+                for (int j = 0; j < m; ++j) {
+                    if (i >= kk || j >= kk || i > j + 1) {
+                        H[i][j] = 0;
+                    }
+                }
+            }
+            // the new residual is orthogonal to the kept basis only up to the round-off of b and sigma
+            double norm0 = KrylovBasis.norm(w);
+            Arrays.fill(h, 0.);
+            beta = basis.orthogonalize(w, kk, h);
+            for (int i = 0; i < kk; ++i) {
+                H[i][kk - 1] += h[i];
+            }
+            if (beta > EPSILON * norm0) {
+                basis.set(kk, w, beta);
+            } else {//an invariant subspace
+                beta = 0;
+                basis.random(kk);
+            }
+            H[kk][kk - 1] = beta;
+            j0 = kk;
+        }
+    }
+
+    /**
+     * Compute <i>k</i> eigenpairs of a square matrix.
+     *
+     * @param A      a square matrix
+     * @param k      the number of eigenpairs
+     * @param target which eigenvalues to compute
+     * @throws RuntimeException if the eigenpairs do not converge
+     */
+    public Arnoldi(Matrix A, int k, Target target) {
+        this(A, k, target, Lanczos.defaultLength(A.nRows(), k), DEFAULT_TOLERANCE, DEFAULT_MAX_RESTARTS);
+    }
+
+    /**
+     * Compute the <i>k</i> eigenpairs of the largest moduli of a square matrix.
+     *
+     * @param A a square matrix
+     * @param k the number of eigenpairs
+     * @throws RuntimeException if the eigenpairs do not converge
+     */
+    public Arnoldi(Matrix A, int k) {
+        this(A, k, Target.LARGEST_MAGNITUDE);
+    }
+
+    /**
+     * Get the wanted eigenvalues, in the order of the target.
+     * A complex eigenvalue is a {@link Complex}, followed by its conjugate if it is also wanted.
+     *
+     * @return the eigenvalues
+     */
+    @Override
+    public List<Number> getEigenvalues() {
+        return new ArrayList<Number>(eigenvalues);
+    }
+
+    /**
+     * Get the unit eigenvector of the <i>i</i>-th eigenvalue, which must be real.
+     *
+     * @param i an index, counting from 1
+     * @return the eigenvector
+     * @throws IllegalArgumentException if the eigenvalue is complex
+     */
+    public Vector eigenVector(int i) {
+        assertArgument(eigenvectors[i - 1] != null, "the %d-th eigenvalue is complex", i);
+        return eigenvectors[i - 1].deepCopy();
+    }
+
+    /**
+     * Get the number of restarts taken.
+     *
+     * @return the number of restarts
+     */
+    public int nRestarts() {
+        return nRestarts;
+    }
+
+    private static double modulus(Number x) {
+        return x instanceof Complex ? ((Complex) x).modulus() : Math.abs(x.doubleValue());
+    }
+
+    private static double real(Number x) {
+        return x instanceof Complex ? ((Complex) x).real() : x.doubleValue();
+    }
+
+    private static double imaginary(Number x) {
+        return x instanceof Complex ? ((Complex) x).imaginary() : 0;
+    }
+
+    private static boolean isConjugate(Number x, Number y) {
+        return imaginary(x) != 0 && real(x) == real(y) && imaginary(x) == -imaginary(y);
+    }
+
+    private static Comparator<Number> comparator(final Target target) {
+        return new Comparator<Number>() {
+
+            @Override
+            public int compare(Number x, Number y) {
+                int result;
+                switch (target) {
+                    case LARGEST_REAL:
+                        result = Double.compare(real(y), real(x));
+                        break;
+                    case SMALLEST_REAL:
+                        result = Double.compare(real(x), real(y));
+                        break;
+                    case LARGEST_MAGNITUDE:
+                    default:
+                        result = Double.compare(modulus(y), modulus(x));
+                        if (result == 0) {
+                            result = Double.compare(real(y), real(x));
+                        }
+                        break;
+                }
+                return result != 0 ? result : Double.compare(imaginary(y), imaginary(x));
+            }
+        };
+    }
+
+    /**
+     * Compute a unit eigenvector <i>y</i> of the Hessenberg matrix <i>H</i> for the eigenvalue <i>θ</i> by two
+     * steps of inverse iteration in complex arithmetic.
+     *
+     * @return <i>y</i>; the real parts followed by the imaginary parts
+     */
+    private static double[] ritzVector(double[][] H, Number theta) {
+        final int m = H.length;
+        final double tr = real(theta);
+        final double ti = imaginary(theta);
+
+        double hNorm = 0;
+        for (double[] row : H) {
+            for (double x : row) {
+                hNorm = Math.max(hNorm, Math.abs(x));
+            }
+        }
+        final double tiny = Math.max(hNorm, Double.MIN_NORMAL) * 1e-15;
+
+        double[] yr = new double[m];
+        double[] yi = new double[m];
+        Arrays.fill(yr, 1.);
+        for (int iter = 0; iter < 2; ++iter) {
+            double[][] ar = new double[m][];
+            double[][] ai = new double[m][m];
+            for (int i = 0; i < m; ++i) {
+                ar[i] = H[i].clone();
+                ar[i][i] -= tr;
+                ai[i][i] = -ti;
+            }
+
+            // Gaussian elimination with partial pivoting; only the sub-diagonal is eliminated
+            for (int j = 0; j < m - 1; ++j) {
+                if (Math.hypot(ar[j + 1][j], ai[j + 1][j]) > Math.hypot(ar[j][j], ai[j][j])) {
+                    swap(ar, j, j + 1);
+                    swap(ai, j, j + 1);
+                    swap(yr, j, j + 1);
+                    swap(yi, j, j + 1);
+                }
+                protect(ar[j], ai[j], j, tiny);
+                final double dr = ar[j][j], di = ai[j][j], d2 = dr * dr + di * di;
+                final double fr = (ar[j + 1][j] * dr + ai[j + 1][j] * di) / d2;
+                final double fi = (ai[j + 1][j] * dr - ar[j + 1][j] * di) / d2;
+                for (int l = j + 1; l < m; ++l) {
+                    ar[j + 1][l] -= fr * ar[j][l] - fi * ai[j][l];
+                    ai[j + 1][l] -= fr * ai[j][l] + fi * ar[j][l];
+                }
+                yr[j + 1] -= fr * yr[j] - fi * yi[j];
+                yi[j + 1] -= fr * yi[j] + fi * yr[j];
+            }
+            protect(ar[m - 1], ai[m - 1], m - 1, tiny);
+
+            // back substitution
+            for (int i = m - 1; i >= 0; --i) {
+                double sr = yr[i], si = yi[i];
+                for (int l = i + 1; l < m; ++l) {
+                    sr -= ar[i][l] * yr[l] - ai[i][l] * yi[l];
+                    si -= ar[i][l] * yi[l] + ai[i][l] * yr[l];
+                }
+                final double dr = ar[i][i], di = ai[i][i], d2 = dr * dr + di * di;
+                yr[i] = (sr * dr + si * di) / d2;
+                yi[i] = (si * dr - sr * di) / d2;
+            }
+
+            double norm = Math.hypot(KrylovBasis.norm(yr), KrylovBasis.norm(yi));
+            for (int i = 0; i < m; ++i) {
+                yr[i] /= norm;
+                yi[i] /= norm;
+            }
+        }
+
+        double[] y = new double[2 * m];
+        System.arraycopy(yr, 0, y, 0, m);
+        System.arraycopy(yi, 0, y, m, m);
+        return y;
+    }
+
+    private static void protect(double[] ar, double[] ai, int j, double tiny) {
+        if (Math.hypot(ar[j], ai[j]) < tiny) {
+            ar[j] = tiny;
+            ai[j] = 0;
+        }
+    }
+
+    private static void swap(double[][] a, int i, int j) {
+        double[] tmp = a[i];
+        a[i] = a[j];
+        a[j] = tmp;
+    }
+
+    private static void swap(double[] a, int i, int j) {
+        double tmp = a[i];
+        a[i] = a[j];
+        a[j] = tmp;
+    }
+
+    /**
+     * Apply a QR step with a real shift <i>μ</i> to the Hessenberg matrix <i>H</i>: <i>H = Q'HQ</i>, where
+     * <i>H - μI = QR</i>; <i>Q</i> is accumulated into {@code Z}.
+     */
+    private static void singleShift(double[][] H, double[][] Z, double mu) {
+        final int m = H.length;
+        double[] c = new double[m - 1];
+        double[] s = new double[m - 1];
+
+        for (int i = 0; i < m; ++i) {
+            H[i][i] -= mu;
+        }
+        for (int j = 0; j < m - 1; ++j) {
+            final double r = Math.hypot(H[j][j], H[j + 1][j]);
+            c[j] = r == 0 ? 1 : H[j][j] / r;
+            s[j] = r == 0 ? 0 : H[j + 1][j] / r;
+            rotateRows(H, j, c[j], s[j], j);
+        }
+        for (int j = 0; j < m - 1; ++j) {
+            rotateColumns(H, j, c[j], s[j], Math.min(j + 2, m));
+            rotateColumns(Z, j, c[j], s[j], m);
+        }
+        for (int i = 0; i < m; ++i) {
+            H[i][i] += mu;
+        }
+    }
+
+    /**
+     * Apply a Francis double-shift QR step to the Hessenberg matrix <i>H</i> for the shifts that are the roots of
+     * <i>x<sup>2</sup> - sx + t</i>; the orthogonal transformation is accumulated into {@code Z}.
+     *
+     * @see "G. H. Golub, C. F. van Loan, "Algorithm 7.5.1," Matrix Computations, 3rd edition."
+     */
+    private static void doubleShift(double[][] H, double[][] Z, double s, double t) {
+        final int m = H.length;
+        double x = H[0][0] * H[0][0] + H[0][1] * H[1][0] - s * H[0][0] + t;
+        double y = H[1][0] * (H[0][0] + H[1][1] - s);
+        double z = H[1][0] * H[2][1];
+
+        for (int k = 0; k < m - 2; ++k) {
+            final double scale = Math.abs(x) + Math.abs(y) + Math.abs(z);//avoid underflow
+            if (scale > 0) {
+                x /= scale;
+                y /= scale;
+                z /= scale;
+                double norm = Math.sqrt(x * x + y * y + z * z);
+                double[] v = {x + (x >= 0 ? norm : -norm), y, z};
+                double vv = v[0] * v[0] + v[1] * v[1] + v[2] * v[2];
+
+                for (int j = Math.max(0, k - 1); j < m; ++j) {//P * H
+                    double f = 2 * (v[0] * H[k][j] + v[1] * H[k + 1][j] + v[2] * H[k + 2][j]) / vv;
+                    H[k][j] -= f * v[0];
+                    H[k + 1][j] -= f * v[1];
+                    H[k + 2][j] -= f * v[2];
+                }
+                reflectColumns(H, k, v, vv, Math.min(k + 4, m));//H * P
+                reflectColumns(Z, k, v, vv, m);
+            }
+
+            x = H[k + 1][k];
+            y = H[k + 2][k];
+            if (k < m - 3) {
+                z = H[k + 3][k];
+            }
+        }
+
+        final double r = Math.hypot(x, y);
+        if (r > 0) {
+            rotateRows(H, m - 2, x / r, y / r, m - 3);
+            rotateColumns(H, m - 2, x / r, y / r, m);
+            rotateColumns(Z, m - 2, x / r, y / r, m);
+        }
+    }
+
+    private static void rotateRows(double[][] H, int j, double c, double s, int from) {
+        for (int l = from; l < H.length; ++l) {
+            double t1 = H[j][l], t2 = H[j + 1][l];
+            H[j][l] = c * t1 + s * t2;
+            H[j + 1][l] = -s * t1 + c * t2;
+        }
+    }
+
+    private static void rotateColumns(double[][] H, int j, double c, double s, int nRows) {
+        for (int l = 0; l < nRows; ++l) {
+            double t1 = H[l][j], t2 = H[l][j + 1];
+            H[l][j] = c * t1 + s * t2;
+            H[l][j + 1] = -s * t1 + c * t2;
+        }
+    }
+
+    private static void reflectColumns(double[][] H, int k, double[] v, double vv, int nRows) {
+        for (int l = 0; l < nRows; ++l) {
+            double f = 2 * (H[l][k] * v[0] + H[l][k + 1] * v[1] + H[l][k + 2] * v[2]) / vv;
+            H[l][k] -= f * v[0];
+            H[l][k + 1] -= f * v[1];
+            H[l][k + 2] -= f * v[2];
+        }
+    }
+}
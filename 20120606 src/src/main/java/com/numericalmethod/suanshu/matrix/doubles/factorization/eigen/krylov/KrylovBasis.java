@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.factorization.eigen.krylov;
+
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.BlockedGEMM;
+import com.numericalmethod.suanshu.matrix.doubles.operation.MatrixUtils;
+import com.numericalmethod.suanshu.stats.random.univariate.uniform.UniformRng;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+
+/**
+ * This is an orthonormal basis <i>v<sub>0</sub>, v<sub>1</sub>, ...</i> of a Krylov subspace of a matrix <i>A</i>.
+ * The basis vectors are stored as the rows of a row-major {@code double[]}, so that a change of basis is a single
+ * matrix-matrix multiplication.
+ * <i>A</i> is accessed only through matrix-vector multiplications.
+ * A new vector is orthogonalized against the basis by the classical Gram-Schmidt process, done twice (CGS2), which
+ * keeps the basis orthogonal to the working precision.
+ */
+class KrylovBasis {
+
+    /** the seed of the starting vectors; fixed for reproducibility */
+    private static final long SEED = 1234567890L;
+    /** the dimension of the vectors */
+    final int n;
+    /** the basis vectors as rows */
+    final double[] V;
+    private final Matrix A;
+    private final DenseVector in;
+    private final DenseVector out;
+    private final UniformRng rng = new UniformRng();
+
+    /**
+     * Allocate space for a Krylov basis.
+     *
+     * @param A        a square matrix
+     * @param capacity the maximum number of basis vectors
+     */
+    KrylovBasis(Matrix A, int capacity) {
+        this.A = A;
+        this.n = A.nRows();
+        this.V = new double[capacity * n];
+        this.in = new DenseVector(n);
+        this.out = new DenseVector(n);
+        rng.seed(SEED);
+    }
+
+    /**
+     * Compute <i>w = A * v<sub>j</sub></i>.
+     *
+     * @param j the index of a basis vector, counting from 0
+     * @param w the output
+     */
+    void multiply(int j, double[] w) {
+        System.arraycopy(V, j * n, in.asArray(), 0, n);
+        MatrixUtils.multiplyInto(A, in, out);
+        System.arraycopy(out.asArray(), 0, w, 0, n);
+    }
+
+    /**
+     * Orthogonalize <i>w</i> against <i>v<sub>0</sub>, ..., v<sub>j-1</sub></i>.
+     * The projection coefficients are added to <i>h</i>.
+     *
+     * @param w a vector, overwritten by the orthogonalized vector
+     * @param j the number of basis vectors to orthogonalize against
+     * @param h the projection coefficients
+     * @return the norm of the orthogonalized <i>w</i>
+     */
+    double orthogonalize(double[] w, int j, double[] h) {
+        double[] c = new double[j];
+        for (int pass = 0; pass < 2; ++pass) {
+            for (int i = 0; i < j; ++i) {
+                double sum = 0;
+                for (int l = 0, il = i * n; l < n; ++l, ++il) {
+                    sum += V[il] * w[l];
+                }
+                c[i] = sum;
+            }
+            for (int i = 0; i < j; ++i) {
+                final double ci = c[i];
+                for (int l = 0, il = i * n; l < n; ++l, ++il) {
+                    w[l] -= ci * V[il];
+                }
+                h[i] += ci;
+            }
+        }
+        return norm(w);
+    }
+
+    /**
+     * Set <i>v<sub>j</sub> = w / norm</i>.
+     *
+     * @param j    the index of a basis vector, counting from 0
+     * @param w    a vector
+     * @param norm the norm of <i>w</i>
+     */
+    void set(int j, double[] w, double norm) {
+        for (int l = 0, jl = j * n; l < n; ++l, ++jl) {
+            V[jl] = w[l] / norm;
+        }
+    }
+
+    /**
+     * Set <i>v<sub>j</sub></i> to a random unit vector orthogonal to <i>v<sub>0</sub>, ..., v<sub>j-1</sub></i>.
+     * This starts the basis, or continues it after an invariant subspace is found.
+     *
+     * @param j the index of a basis vector, counting from 0
+     */
+    void random(int j) {
+        double[] w = new double[n];
+        double[] h = new double[j];
+        for (int attempt = 0; attempt < 3; ++attempt) {
+            for (int l = 0; l < n; ++l) {
+                w[l] = rng.nextDouble() - 0.5;
+            }
+            double norm0 = norm(w);
+            double norm = orthogonalize(w, j, h);
+            if (norm > 1e-8 * norm0) {
+                set(j, w, norm);
+                return;
+            }
+        }
+        throw new IllegalStateException("the Krylov basis already spans the whole space");
+    }
+
+    /**
+     * Change the basis: <i>v<sub>i</sub> = sum<sub>l</sub> S[l][i] * v<sub>l</sub></i>, for <i>i = 0, ..., nOut - 1</i>
+     * and <i>l = 0, ..., m - 1</i>.
+     *
+     * @param S    an <i>m x nOut</i> matrix, row-major, with leading dimension {@code ldS}
+     * @param ldS  the leading dimension of <i>S</i>
+     * @param m    the number of old basis vectors
+     * @param nOut the number of new basis vectors
+     */
+    void rotate(double[] S, int ldS, int m, int nOut) {
+        double[] rotated = new double[nOut * n];
+        BlockedGEMM.gemm(true, false, nOut, n, m, 1., S, 0, ldS, V, 0, n, 0., rotated, 0, n);
+        System.arraycopy(rotated, 0, V, 0, rotated.length);
+    }
+
+    /**
+     * Compute <i>x = sum<sub>l</sub> y[l] * v<sub>l</sub></i>, for <i>l = 0, ..., m - 1</i>.
+     *
+     * @param y the coefficients
+     * @param m the number of basis vectors
+     * @return <i>x</i>
+     */
+    double[] combine(double[] y, int m) {
+        double[] x = new double[n];
+        for (int l = 0; l < m; ++l) {
+            final double yl = y[l];
+            for (int i = 0, li = l * n; i < n; ++i, ++li) {
+                x[i] += yl * V[li];
+            }
+        }
+        return x;
+    }
+
+    static double norm(double[] w) {
+        double scale = 0;
+        for (double wi : w) {
+            scale = Math.max(scale, Math.abs(wi));
+        }
+        if (scale == 0) {
+            return 0;
+        }
+
+        double sum = 0;
+        for (double wi : w) {
+            double x = wi / scale;
+            sum += x * x;
+        }
+        return scale * Math.sqrt(sum);
+    }
+}
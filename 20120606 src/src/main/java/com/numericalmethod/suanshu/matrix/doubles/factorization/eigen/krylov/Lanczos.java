@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.factorization.eigen.krylov;
+
+import com.numericalmethod.suanshu.datastructure.DimensionCheck;
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.factorization.eigen.Spectrum;
+import com.numericalmethod.suanshu.matrix.doubles.factorization.eigen.dc.DivideAndConquer;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import static com.numericalmethod.suanshu.misc.SuanShuUtils.assertArgument;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The implicitly restarted Lanczos method computes a few eigenvalues and eigenvectors of a big symmetric matrix.
+ * The matrix is accessed only through matrix-vector multiplications, so it can be of any type, e.g., a
+ * {@link com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.CSRSparseMatrix}.
+ * <p/>
+ * A Lanczos factorization of length <i>m</i> (a few times <i>k</i>) builds an orthonormal basis <i>V</i> of a Krylov
+ * subspace; the eigenpairs of the projection <i>V'AV</i> are the Ritz pairs.
+ * The factorization is then restarted with the wanted Ritz vectors only.
+ * This "thick restart" is mathematically equivalent to the implicit restart by exact shifts,
+ * but it is simpler and numerically more robust.
+ * The basis is fully re-orthogonalized, so there are no spurious copies of the eigenvalues.
+ * The memory used is <i>O(n * m)</i>; each restart costs <i>m - k</i> matrix-vector multiplications and
+ * <i>O(n * m<sup>2</sup>)</i> other operations.
+ * @see
+ * <ul>
+ * <li>"R. B. Lehoucq, D. C. Sorensen, C. Yang, "ARPACK Users' Guide," SIAM, 1998."
+ * <li>"K. Wu, H. Simon, "Thick-restart Lanczos method for large symmetric eigenvalue problems," SIAM Journal on Matrix
+ * Analysis and Applications, 22(2):602-616, 2000."
+ * <li><a href="http://en.wikipedia.org/wiki/Lanczos_algorithm">Wikipedia: Lanczos algorithm</a>
+ * </ul>
+ */
+public class Lanczos implements Spectrum {
+
+    /**
+     * the eigenvalues to compute
+     */
+    public static enum Target {
+
+        /**
+         * the algebraically largest eigenvalues
+         */
+        LARGEST,
+        /**
+         * the algebraically smallest eigenvalues
+         */
+        SMALLEST,
+        /**
+         * the eigenvalues of the largest magnitudes
+         */
+        LARGEST_MAGNITUDE
+    }
+    /** the default convergence threshold of the relative residuals */
+    public static final double DEFAULT_TOLERANCE = 1e-12;
+    /** the default maximum number of restarts */
+    public static final int DEFAULT_MAX_RESTARTS = 1000;
+    /** the wanted eigenvalues, in the order of the target */
+    private final double[] eigenvalues;
+    /** the eigenvectors as columns */
+    private final Matrix Q;
+    private final int nRestarts;
+
+    /**
+     * Compute <i>k</i> eigenpairs of a symmetric matrix.
+     *
+     * @param A           a symmetric matrix
+     * @param k           the number of eigenpairs
+     * @param target      which eigenvalues to compute
+     * @param m           the length of the Lanczos factorization, {@code k < m ≤ n}; a bigger <i>m</i> takes more memory
+     *                    but fewer restarts
+     * @param tolerance   the computation stops when the residual <i>|Ax - θx|</i> of every wanted Ritz pair is at most
+     *                    {@code tolerance} times the biggest Ritz value
+     * @param maxRestarts the maximum number of restarts
+     * @throws RuntimeException if the eigenpairs do not converge after {@code maxRestarts} restarts
+     */
+    public Lanczos(Matrix A, int k, Target target, int m, double tolerance, int maxRestarts) {
+        assertArgument(DimensionCheck.isSquare(A), "A must be square");
+        final int n = A.nRows();
+        assertArgument(1 <= k && k <= n, "k must be in [1, %d]", n);
+        assertArgument(k < m && m <= n || k == n && m == n, "m must be in (k, n]");
+
+        KrylovBasis basis = new KrylovBasis(A, m + 1);
+        double[] H = new double[m * m];//the projection V'AV
+        double[] w = new double[n];
+        double[] h = new double[m];
+
+        basis.random(0);
+        for (int restart = 0, j0 = 0;; ++restart) {
+            // extend the factorization to length m
+            double beta = 0;
+            for (int j = j0; j < m; ++j) {
+                basis.multiply(j, w);
+                double norm0 = KrylovBasis.norm(w);
+                Arrays.fill(h, 0.);
+                beta = basis.orthogonalize(w, j + 1, h);
+                for (int i = 0; i < j; ++i) {
+                    H[i * m + j] = H[j * m + i] = h[i];
+                }
+                H[j * m + j] = h[j];
+
+                if (beta > EPSILON * norm0) {
+                    basis.set(j + 1, w, beta);
+                } else {//an invariant subspace
+                    beta = 0;
+                    if (j + 1 < m) {
+                        basis.random(j + 1);
+                    }
+                }
+            }
+
+            // the Ritz pairs
+            DivideAndConquer eigen = new DivideAndConquer(new DenseMatrix(H.clone(), m, m), 0);
+            final double[] theta = eigen.eigenvalues();//descending
+            final Matrix S = eigen.Q();
+            final Integer[] order = order(theta, target);
+
+            double max = 0;
+            for (double t : theta) {
+                max = Math.max(max, Math.abs(t));
+            }
+            boolean isConverged = true;
+            for (int i = 0; i < k; ++i) {
+                if (Math.abs(beta * S.get(m, order[i] + 1)) > tolerance * max) {
+                    isConverged = false;
+                    break;
+                }
+            }
+
+            if (isConverged || restart == maxRestarts) {
+                if (!isConverged) {
+                    throw new RuntimeException(String.format("Lanczos does not converge after %d restarts", maxRestarts));
+                }
+
+                this.nRestarts = restart;
+                this.eigenvalues = new double[k];
+                for (int i = 0; i < k; ++i) {
+                    eigenvalues[i] = theta[order[i]];
+                }
+                basis.rotate(columns(S, order, k), k, m, k);
+                this.Q = new DenseMatrix(basis.n, k);
+                for (int i = 0; i < k; ++i) {
+                    for (int l = 0; l < basis.n; ++l) {
+                        Q.set(l + 1, i + 1, basis.V[i * basis.n + l]);
+                    }
+                }
+                break;
+            }
+
+            // thick restart: keep the wanted Ritz vectors and the residual direction
+            final int nKeep = Math.min(m - 1, k + (m - k) / 2);
+            basis.rotate(columns(S, order, nKeep), nKeep, m, nKeep);
+            System.arraycopy(basis.V, m * n, basis.V, nKeep * n, n);
+
+            Arrays.fill(H, 0.);
+            for (int i = 0; i < nKeep; ++i) {
+                H[i * m + i] = theta[order[i]];
+            }
+            j0 = nKeep;
+        }
+    }
+
+    /**
+     * Compute <i>k</i> eigenpairs of a symmetric matrix.
+     *
+     * @param A      a symmetric matrix
+     * @param k      the number of eigenpairs
+     * @param target which eigenvalues to compute
+     * @throws RuntimeException if the eigenpairs do not converge
+     */
+    public Lanczos(Matrix A, int k, Target target) {
+        this(A, k, target, defaultLength(A.nRows(), k), DEFAULT_TOLERANCE, DEFAULT_MAX_RESTARTS);
+    }
+
+    /**
+     * Compute the <i>k</i> algebraically largest eigenpairs of a symmetric matrix.
+     *
+     * @param A a symmetric matrix
+     * @param k the number of eigenpairs
+     * @throws RuntimeException if the eigenpairs do not converge
+     */
+    public Lanczos(Matrix A, int k) {
+        this(A, k, Target.LARGEST);
+    }
+
+    /**
+     * Get the wanted eigenvalues, in the order of the target, e.g., descending for {@link Target#LARGEST}.
+     *
+     * @return the eigenvalues
+     */
+    @Override
+    public List<Number> getEigenvalues() {
+        List<Number> result = new ArrayList<Number>(eigenvalues.length);
+        for (double eigenvalue : eigenvalues) {
+            result.add(eigenvalue);
+        }
+        return result;
+    }
+
+    /**
+     * Get the wanted eigenvalues, in the order of the target, e.g., descending for {@link Target#LARGEST}.
+     *
+     * @return the eigenvalues
+     */
+    public double[] eigenvalues() {
+        return eigenvalues.clone();
+    }
+
+    /**
+     * Get the orthonormal eigenvectors, such that the <i>j</i>-th column corresponds to the <i>j</i>-th eigenvalue.
+     *
+     * @return the eigenvectors as columns, an <i>n x k</i> matrix
+     */
+    public Matrix Q() {
+        return Q.deepCopy();
+    }
+
+    /**
+     * Get the number of restarts taken.
+     *
+     * @return the number of restarts
+     */
+    public int nRestarts() {
+        return nRestarts;
+    }
+
+    /** the relative size of a residual below which an invariant subspace is declared */
+    private static final double EPSILON = 1e-14;
+
+    static int defaultLength(int n, int k) {
+        return Math.min(n, Math.max(2 * k + 1, k + 20));
+    }
+
+    private static Integer[] order(final double[] theta, final Target target) {
+        Integer[] order = new Integer[theta.length];
+        for (int i = 0; i < order.length; ++i) {
+            order[i] = i;
+        }
+
+        switch (target) {
+            case SMALLEST:
+                for (int i = 0; i < order.length; ++i) {
+                    order[i] = order.length - 1 - i;
+                }
+                break;
+            case LARGEST_MAGNITUDE:
+                Arrays.sort(order, new Comparator<Integer>() {
+
+                    @Override
+                    public int compare(Integer i1, Integer i2) {
+                        return Double.compare(Math.abs(theta[i2]), Math.abs(theta[i1]));
+                    }
+                });
+                break;
+            case LARGEST:
+            default:
+                break;
+        }
+
+        return order;
+    }
+
+    /**
+     * Copy the selected columns of <i>S</i> into a row-major array.
+     */
+    private static double[] columns(Matrix S, Integer[] order, int nCols) {
+        final int m = S.nRows();
+        double[] result = new double[m * nCols];
+        for (int l = 0; l < m; ++l) {
+            for (int i = 0; i < nCols; ++i) {
+                result[l * nCols + i] = S.get(l + 1, order[i] + 1);
+            }
+        }
+        return result;
+    }
+}
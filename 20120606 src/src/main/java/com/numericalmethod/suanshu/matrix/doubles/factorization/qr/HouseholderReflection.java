@@ -25,6 +25,7 @@ package com.numericalmethod.suanshu.matrix.doubles.factorization.qr;
 import com.numericalmethod.suanshu.matrix.doubles.Matrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.PermutationMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.StridedMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.triangle.UpperTriangularMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.SparseVector;
 import com.numericalmethod.suanshu.matrix.doubles.operation.CreateMatrix;
@@ -36,7 +37,6 @@ import static com.numericalmethod.suanshu.number.DoubleUtils.isZero;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
 import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
 import static com.numericalmethod.suanshu.vector.doubles.dense.operation.CreateVector.concat;
-import static com.numericalmethod.suanshu.vector.doubles.dense.operation.CreateVector.subVector;
 
 /**
  * Successive Householder reflections gradually transform a matrix <i>A</i> to the upper triangular form.
@@ -63,7 +63,6 @@ import static com.numericalmethod.suanshu.vector.doubles.dense.operation.CreateV
 public class HouseholderReflection implements QRDecomposition {
 
     private UpperTriangularMatrix R;//nCols x nCols
-    private Vector[] cols;
     private Householder[] Hs;
     private final int nRows;//the number of rows
     private final int nCols;//the number of columns
@@ -86,13 +85,10 @@ public class HouseholderReflection implements QRDecomposition {
 
         R = new UpperTriangularMatrix(nCols);
         R.set(1, 1, 0);//allocate space
-        cols = new Vector[nCols + 1];//the 0-th element is not used
         Hs = new Householder[nCols + 1];//the 0-th element is not used
 
-        //make a copy of A by columns
-        for (int i = 1; i <= nCols; ++i) {
-            cols[i] = A.getColumn(i);
-        }
+        //make a copy of A by columns, which the Householder reflections transform in place
+        StridedMatrix W = new StridedMatrix(A, StridedMatrix.Order.COLUMN_MAJOR);
 
         //We apply the Householder operator repeatedly on each columns, hence looping over columns.
         for (int i = 1; i <= Math.min(nCols, nRows - 1); i++) {//if square, i <= nRows-1; else i <= nCols (b/c nRows > nCols by assumption)
@@ -103,7 +99,7 @@ public class HouseholderReflection implements QRDecomposition {
              * We work on a sub-matrix., namely,
              * A[i:nRows, i:nCols]
              */
-            Context defn = Householder.getContext(subVector(cols[i], i, nRows));
+            Context defn = Householder.getContext(W.subMatrix(i, nRows, i, i).getColumn(1));
             Vector u = defn.generator;
             /*
              * Treat the (sub-)column as 0, if the norm is too small.
@@ -115,26 +111,24 @@ public class HouseholderReflection implements QRDecomposition {
                 Hs[i] = new Householder(u);
                 R.set(i, i, 0);//record R's diagonal
             } else {//to reduce computation, we perform Householder reflection only for linearly independent columns
-                u = concat(
+                Hs[i] = new Householder(concat(
                         new SparseVector(i - 1),//ZERO vector
-                        u);
-                Hs[i] = new Householder(u);
+                        u));
 
                 /*
                  * Apply the householder transformation to the rest of the columns, but only partially (sub-matrix).
-                 * That is, we set only a sub-matrix.
-                 *
-                 * TODO: how to improve performance by doing inner-product (reflect) only on non-zero entries?
+                 * That is, we reflect in place only the panel A[i:nRows, i+1:nCols],
+                 * where the generator is non-zero.
                  */
-                for (int j = i + 1; j <= nCols; ++j) {
-                    cols[j] = Hs[i].reflect(cols[j]);
+                if (i < nCols) {
+                    new Householder(u).reflectInPlace(W.subMatrix(i, nRows, i + 1, nCols));
                 }
 
                 R.set(i, i, defn.lambda);//record R's diagonal
             }
         }
 
-        computeR();
+        computeR(W);
     }
 
     /**
@@ -148,22 +142,24 @@ public class HouseholderReflection implements QRDecomposition {
 
     /**
      * Compute <i>R</i>.
+     *
+     * @param W <i>A</i> transformed by the Householder reflections
      */
-    private void computeR() {
+    private void computeR(StridedMatrix W) {
         /*
          * R's diagonal is already correct by the constructor.
-         * Just copy the upper triangle entries from the Cols,
+         * Just copy the upper triangle entries from W,
          * which are A modified by a sequence of Householder transformations.
          */
         for (int i = 2; i <= nCols; ++i) {//loop over columns
             for (int j = 1; j < i; ++j) {//loop over rows
-                R.set(j, i, cols[i].get(j));
+                R.set(j, i, W.get(j, i));
             }
         }
 
         //for square matrix, last column was not worked on to generate diagonal element
         if (nRows == nCols) {
-            R.set(nCols, nCols, cols[nCols].get(nCols));
+            R.set(nCols, nCols, W.get(nCols, nCols));
         }
     }
 
@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.factorization.qr;
+
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.triangle.UpperTriangularMatrix;
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import static com.numericalmethod.suanshu.number.DoubleUtils.compare;
+import com.numericalmethod.suanshu.parallel.LoopBody;
+import com.numericalmethod.suanshu.parallel.MultipleExecutionException;
+import com.numericalmethod.suanshu.parallel.ParallelExecutor;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Tall-skinny QR (TSQR) computes the <i>R</i> of the QR decomposition of a very tall matrix <i>A</i>
+ * without ever holding <i>A</i> in memory.
+ * <i>A</i> is given as a sequence of row blocks, <i>A = (A<sub>1</sub>', A<sub>2</sub>', ...)'</i>.
+ * Each block is factored independently, <i>A<sub>i</sub> = Q<sub>i</sub> * R<sub>i</sub></i>,
+ * and the <i>R</i> factors are merged pairwise in a reduction tree by factoring the stacked triangles
+ * <i>(R<sub>i</sub>', R<sub>j</sub>')'</i>.
+ * The blocks read from an iterator are factored in parallel, a batch at a time, so that the memory needed is
+ * only a few blocks and an <i>n x n</i> triangle.
+ * <p/>
+ * <i>Q</i> is never formed.
+ * To solve a least squares problem, append the right hand side <i>b</i> to <i>A</i> as the last column.
+ * The last column of <i>R</i> is then <i>Q' * b</i>, and its last entry is the norm of the residuals.
+ * <p/>
+ * This implementation works on row-major arrays.
+ * A reflection is applied to a block by a sweep over its rows, so a block is read row by row.
+ * A big block is factored by cache-sized pieces of rows.
+ * @see
+ * <ul>
+ * <li>"J. Demmel, L. Grigori, M. Hoemmen, J. Langou, "Communication-optimal parallel and sequential QR and LU factorizations," SIAM Journal on Scientific Computing, vol. 34, no. 1, pp. A206-A239, 2012."
+ * <li>{@link HouseholderReflection}
+ * </ul>
+ */
+public class TSQR {
+
+    private static class ParallelExecutorInstanceHolder { // thread-safe lazy initialization idiom
+
+        private static final ParallelExecutor instance = new ParallelExecutor();
+    }
+    /** the number of rows of a block that are factored at a time, small enough to stay in cache */
+    private static final int NR = 256;
+    /** the number of blocks read from an iterator and factored in parallel */
+    private static final int BATCH = Runtime.getRuntime().availableProcessors();
+    private final int nCols;
+    private final double epsilon;
+    /** the <i>R</i> of the rows added so far, <i>n x n</i>, row-major */
+    private final double[] R;
+    private long nRows = 0;
+
+    /**
+     * Construct an empty TSQR to which rows are added incrementally.
+     *
+     * @param nCols   the number of columns of <i>A</i>
+     * @param epsilon a precision parameter: when a number |x| ≤ ε, it is considered 0
+     */
+    public TSQR(int nCols, double epsilon) {
+        SuanShuUtils.assertArgument(nCols > 0, "the number of columns must be positive");
+
+        this.nCols = nCols;
+        this.epsilon = epsilon;
+        this.R = new double[nCols * nCols];
+    }
+
+    /**
+     * Run TSQR on all the row blocks of a matrix.
+     *
+     * @param nCols   the number of columns of <i>A</i>
+     * @param blocks  the row blocks of <i>A</i>
+     * @param epsilon a precision parameter: when a number |x| ≤ ε, it is considered 0
+     */
+    public TSQR(int nCols, Iterator<? extends Matrix> blocks, double epsilon) {
+        this(nCols, epsilon);
+        addAll(blocks);
+    }
+
+    /**
+     * Add a block of rows to <i>A</i>, and update <i>R</i>.
+     *
+     * @param block a block of rows
+     * @throws IllegalArgumentException if the number of columns does not match
+     */
+    public void add(Matrix block) {
+        checkBlock(block);
+
+        double[] B = new DenseMatrix(block).view().data();
+        update(R, B, block.nRows(), nCols, false);
+        nRows += block.nRows();
+    }
+
+    /**
+     * Add all the blocks from an iterator to <i>A</i>, and update <i>R</i>.
+     * The blocks are read in batches.
+     * The blocks of a batch are factored in parallel, and their <i>R</i> factors are merged in a binary tree.
+     *
+     * @param blocks the row blocks
+     * @throws IllegalArgumentException if the number of columns of a block does not match
+     */
+    public void addAll(Iterator<? extends Matrix> blocks) {
+        List<Matrix> batch = new ArrayList<Matrix>(BATCH);
+        while (blocks.hasNext()) {
+            batch.clear();
+            while (batch.size() < BATCH && blocks.hasNext()) {
+                Matrix block = blocks.next();
+                checkBlock(block);
+                batch.add(block);
+                nRows += block.nRows();
+            }
+
+            double[][] Rs = factor(batch);
+            reduce(Rs);
+            update(R, Rs[0], nCols, nCols, true);
+        }
+    }
+
+    /**
+     * Factor the blocks of a batch in parallel.
+     *
+     * @param batch the blocks
+     * @return the <i>R</i> factors of the blocks
+     */
+    private double[][] factor(final List<Matrix> batch) {
+        final int n = nCols;
+        final double[][] Rs = new double[batch.size()][];
+        try {
+            ParallelExecutorInstanceHolder.instance.conditionalForLoop(
+                    batch.size() > 1,
+                    0, batch.size(),
+                    new LoopBody() {
+
+                        @Override
+                        public void run(int i) throws Exception {
+                            Matrix block = batch.get(i);
+                            Rs[i] = new double[n * n];
+                            update(Rs[i], new DenseMatrix(block).view().data(), block.nRows(), n, false);
+                        }
+                    });
+        } catch (MultipleExecutionException ex) {
+            throw new RuntimeException(ex);
+        }
+        return Rs;
+    }
+
+    /**
+     * Merge the <i>R</i> factors pairwise, level by level, until one is left in {@code Rs[0]}.
+     * The merges in a level are independent, so they are done in parallel.
+     *
+     * @param Rs the <i>R</i> factors
+     */
+    private void reduce(final double[][] Rs) {
+        final int n = nCols;
+        for (int stride = 1; stride < Rs.length; stride *= 2) {
+            final int step = stride;
+            final int nPairs = (Rs.length - step + 2 * step - 1) / (2 * step);// merge Rs[i] and Rs[i + step] for i = 0, 2 * step, ...
+            try {
+                ParallelExecutorInstanceHolder.instance.conditionalForLoop(
+                        nPairs > 1,
+                        0, nPairs,
+                        new LoopBody() {
+
+                            @Override
+                            public void run(int pair) throws Exception {
+                                final int i = pair * 2 * step;
+                                update(Rs[i], Rs[i + step], n, n, true);
+                            }
+                        });
+            } catch (MultipleExecutionException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+    }
+
+    /**
+     * Compute the <i>R</i> of the stacked matrix <i>(R', B')'</i>, where <i>R</i> is upper triangular,
+     * and store it in <i>R</i>.
+     * In step <i>k</i>, a Householder reflection combines row <i>k</i> of <i>R</i> with all the rows of <i>B</i>
+     * to zero out column <i>k</i> of <i>B</i>.
+     * <i>B</i> is overwritten.
+     *
+     * @param R          an <i>n x n</i> upper triangular matrix, row-major
+     * @param B          an <i>m x n</i> matrix, row-major
+     * @param m          the number of rows of <i>B</i>
+     * @param n          the number of columns
+     * @param triangular {@code true} if <i>B</i> is also upper triangular, so only its first <i>k + 1</i> rows are non-zero in column <i>k</i>
+     */
+    private static void update(double[] R, double[] B, int m, int n, boolean triangular) {
+        double[] w = new double[n];
+        for (int from = 0; from < m; from += NR) {
+            final int to = Math.min(from + NR, m);
+            for (int k = 0; k < n; ++k) {
+                final int end = triangular ? Math.min(to, k + 1) : to;
+
+                // the Householder vector is (1, B[from:end, k] * scale)
+                final double alpha = R[k * n + k];
+                double max = 0.;
+                for (int r = from; r < end; ++r) {
+                    max = Math.max(max, Math.abs(B[r * n + k]));
+                }
+                if (max == 0.) {
+                    continue;
+                }
+                double sum = 0.;
+                for (int r = from; r < end; ++r) {
+                    final double y = B[r * n + k] / max;
+                    sum += y * y;
+                }
+                final double xnorm = max * Math.sqrt(sum);
+
+                final double beta = -Math.copySign(Math.hypot(alpha, xnorm), alpha);
+                final double tau = (beta - alpha) / beta;
+                final double scale = 1. / (alpha - beta);
+
+                // w = tau * (R[k, ] + v' * B)
+                for (int c = k + 1; c < n; ++c) {
+                    w[c] = R[k * n + c];
+                }
+                for (int r = from; r < end; ++r) {
+                    final int row = r * n;
+                    final double v = B[row + k] * scale;
+                    B[row + k] = v;
+                    for (int c = k + 1; c < n; ++c) {
+                        w[c] += v * B[row + c];
+                    }
+                }
+                for (int c = k + 1; c < n; ++c) {
+                    w[c] *= tau;
+                    R[k * n + c] -= w[c];
+                }
+                for (int r = from; r < end; ++r) {
+                    final int row = r * n;
+                    final double v = B[row + k];
+                    for (int c = k + 1; c < n; ++c) {
+                        B[row + c] -= v * w[c];
+                    }
+                    B[row + k] = 0.;
+                }
+                R[k * n + k] = beta;
+            }
+        }
+    }
+
+    private void checkBlock(Matrix block) {
+        SuanShuUtils.assertArgument(block.nCols() == nCols, "a block must have %d columns", nCols);
+    }
+
+    /**
+     * Get the number of rows added so far.
+     *
+     * @return the number of rows of <i>A</i>
+     */
+    public long nRows() {
+        return nRows;
+    }
+
+    /**
+     * Get the number of columns.
+     *
+     * @return the number of columns of <i>A</i>
+     */
+    public int nCols() {
+        return nCols;
+    }
+
+    /**
+     * Get <i>R</i>, the <i>n x n</i> upper triangular matrix such that <i>A = Q * R</i>,
+     * for all the rows added so far.
+     *
+     * @return <i>R</i>
+     */
+    public UpperTriangularMatrix R() {
+        return new UpperTriangularMatrix(new DenseMatrix(R.clone(), nCols, nCols));
+    }
+
+    /**
+     * This implementation computes the rank by counting the number of non-zero diagonal entries in <i>R</i>.
+     *
+     * @return the rank
+     */
+    public int rank() {
+        int result = 0;
+        for (int i = 0; i < nCols; ++i) {
+            if (compare(R[i * nCols + i], 0, epsilon) != 0) {
+                ++result;
+            }
+        }
+        return result;
+    }
+}
@@ -22,22 +22,16 @@
  */
 package com.numericalmethod.suanshu.matrix.doubles.factorization.svd;
 
+import static com.numericalmethod.suanshu.Constant.MACH_EPS;
 import com.numericalmethod.suanshu.datastructure.DimensionCheck;
 import com.numericalmethod.suanshu.matrix.doubles.Matrix;
 import com.numericalmethod.suanshu.matrix.doubles.factorization.diagonalization.BiDiagonalization;
-import com.numericalmethod.suanshu.matrix.doubles.matrixtype.GivensMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
-import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.diagonal.BidiagonalMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.diagonal.DiagonalMatrix;
-import com.numericalmethod.suanshu.matrix.doubles.operation.CreateMatrix;
-import com.numericalmethod.suanshu.matrix.doubles.operation.SubMatrixRef;
 import com.numericalmethod.suanshu.misc.SuanShuUtils;
-import static com.numericalmethod.suanshu.number.DoubleUtils.compare;
-import static com.numericalmethod.suanshu.number.DoubleUtils.hasZero;
-import com.numericalmethod.suanshu.vector.doubles.Vector;
-import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
-import static com.numericalmethod.suanshu.vector.doubles.dense.operation.CreateVector.diagonal;
-import static com.numericalmethod.suanshu.vector.doubles.dense.operation.CreateVector.superDiagonal;
+import com.numericalmethod.suanshu.parallel.LoopBody;
+import com.numericalmethod.suanshu.parallel.MultipleExecutionException;
+import com.numericalmethod.suanshu.parallel.ParallelExecutor;
 import java.util.Arrays;
 import java.util.Comparator;
 
@@ -47,22 +41,41 @@ import java.util.Comparator;
  * <li>First, it reduces the matrix to a bidiagonal matrix using a sequence of Householder transformations.
  * <li>Second, it reduces the super-diagonal of the bidiagonal matrix to 0s, using a sequence of Givens transformations.
  * </ol>
+ * The second stage works on the diagonal and the super-diagonal only.
+ * The rotations of an implicit QR sweep are accumulated into two <i>n x n</i> matrices after the sweep,
+ * in parallel by blocks of columns.
+ * <i>U</i> and <i>V</i> are formed only at the end, by applying the Householder transformations to the accumulated rotations.
+ * None of this is done if only the singular values are wanted.
  *
  * @author Haksun Li
  * @see "G. H. Golub, C. F. van Loan, "Algorithm 8.6.2," Matrix Computations, 3rd edition."
  */
 public class GloubKahanSVD implements SVDDecomposition {
 
+    private static class ParallelExecutorInstanceHolder { // thread-safe lazy initialization idiom
+
+        private static final ParallelExecutor instance = new ParallelExecutor();
+    }
+    /** the number of columns of the accumulated rotations that a task updates */
+    private static final int NB = 64;
+    /** the minimum amount of work in applying a sweep of rotations to parallelize */
+    private static final long PARALLEL_THRESHOLD = 64L * 64 * 64;
     private DiagonalMatrix D;
-    private Matrix Ut;
+    private Matrix U;
     private Matrix V;
-    private final Matrix A;//TODO: remove the reference of A
     private final int nrows;
     private final int ncols;
     private final boolean doUV;
     private final boolean normalize;
     public final double epsilon;
-    private final int maxIterations = 100;//TODO: how to set the max iteration?
+    /** the main diagonal of the bidiagonal matrix */
+    private final double[] d;
+    /** the super diagonal of the bidiagonal matrix */
+    private final double[] e;
+    /** the product of the left rotations, <i>n x n</i>, row-major; {@code null} if not wanted */
+    private final double[] Pt;
+    /** the transpose of the product of the right rotations, <i>n x n</i>, row-major; {@code null} if not wanted */
+    private final double[] Qt;
 
     /**
      * Run the Gloub-Kahan SVD decomposition on a <em>tall</em> matrix.
@@ -76,215 +89,340 @@ public class GloubKahanSVD implements SVDDecomposition {
     public GloubKahanSVD(Matrix A, boolean doUV, boolean normalize, double epsilon) {
         SuanShuUtils.assertArgument(DimensionCheck.isTall(A), "A must be tall");
 
-        this.A = A;
         this.nrows = A.nRows();
         this.ncols = A.nCols();
         this.doUV = doUV;
         this.normalize = normalize;
         this.epsilon = epsilon;
 
+        BiDiagonalization bidiagonalization = new BiDiagonalization(A);
+        d = bidiagonalization.diagonal();
+        e = bidiagonalization.superDiagonal();
+        Pt = doUV ? identity(ncols) : null;
+        Qt = doUV ? identity(ncols) : null;
+
         doGloubKahanSVD();
+
+        if (normalize) {
+            normalize();
+        }
+
+        D = new DiagonalMatrix(d.clone());
+
+        if (doUV) {
+            double[] Z = new double[nrows * ncols];// (Pt' 0)'
+            for (int i = 0; i < ncols; ++i) {
+                for (int j = 0; j < ncols; ++j) {
+                    Z[i * ncols + j] = Pt[j * ncols + i];
+                }
+            }
+            U = bidiagonalization.multiplyU(new DenseMatrix(Z, nrows, ncols));
+            V = bidiagonalization.multiplyV(new DenseMatrix(Qt, ncols, ncols).t());
+        }
     }
 
     private void doGloubKahanSVD() {//the implementation
-        //Bi-diagonalize A
-        BiDiagonalization bidiagonalization = new BiDiagonalization(A);
-        Matrix Ua = bidiagonalization.U();
-        Matrix Va = bidiagonalization.V();
-        Matrix B = bidiagonalization.B();//square
-        int Bdim = B.nRows();
-
-        Matrix Ubt = null;
-        Matrix Vb = null;
-
-        int lr = 0, ul = 0;//lower right, upper left hand corners of B22
-        for (int k = 0; k < maxIterations; ++k) {
-            //find the max diagonal matrix B33
-            lr = Bdim;
-            for (; lr > 1; --lr) {
-                if (compare(B.get(lr - 1, lr), 0, epsilon) != 0) {//super-diagonal entry B[lr-1, lr] != 0
+        final int n = ncols;
+        final long maxIterations = 6L * n * n;//c.f., LAPACK dbdsqr
+        double[] cu = new double[n];
+        double[] su = new double[n];
+        double[] cv = new double[n];
+        double[] sv = new double[n];
+
+        for (long iteration = 0;; ++iteration) {
+            //set the negligible super-diagonal entries to 0
+            for (int i = 0; i < n - 1; ++i) {
+                final double f = Math.abs(e[i]);
+                if (f <= epsilon || f <= MACH_EPS * (Math.abs(d[i]) + Math.abs(d[i + 1]))) {
+                    e[i] = 0.;
+                }
+            }
+
+            //find the max unreduced bidiagonal matrix B22 = B[ul:lr, ul:lr] in the lower right corner
+            int lr = n - 1;//lower right, upper left hand corners of B22
+            for (; lr > 0; --lr) {
+                if (e[lr - 1] != 0.) {
                     break;
                 }
             }
 
-            if (lr <= 1) {
+            if (lr == 0) {
                 break;//B is now a diagonal matrix
             }
 
-            //find the max unreduced bidiagonal matrix B22
-            ul = lr - 1;
-            for (; ul >= 2; --ul) {
-                if (compare(B.get(ul - 1, ul), 0, epsilon) == 0) {//super-diagonal entry B[ul-1, ul] == 0
+            int ul = lr - 1;
+            for (; ul > 0; --ul) {
+                if (e[ul - 1] == 0.) {
                     break;
                 }
             }
 
-            SubMatrixRef B22ref = new SubMatrixRef(B, ul, lr, ul, lr);//square matrix
-            Matrix Mut = new DenseMatrix(Bdim, Bdim).ONE();
-            Matrix Mv = new DenseMatrix(Bdim, Bdim).ONE();
+            if (iteration >= maxIterations) {
+                throw new RuntimeException("Gloub-Kahan SVD does not converge");
+            }
 
-            if (compare(B22ref.get(B22ref.nRows(), B22ref.nCols()), 0, epsilon) == 0) {
+            if (Math.abs(d[lr]) <= epsilon) {
                 //zero out the last column when the last diagonal entry in B22 is 0
-                Matrix GsV = zeroOutLastB22Column(B22ref);
-                CreateMatrix.replace(Mv, ul, lr, ul, lr, GsV);
-            } else if (hasZero(diagonal(B22ref).toArray(), epsilon)) {
-                //zero out the row where a diagonal entry in B22 is zero
-                Matrix GsU = zeroOutB22Rows(B22ref);
-                CreateMatrix.replace(Mut, ul, lr, ul, lr, GsU);
+                zeroOutLastB22Column(ul, lr);
             } else {
-                //apply the Gloub-Kahan step on B22
-                BidiagonalMatrix B22 = new BidiagonalMatrix(
-                        new double[][]{
-                            superDiagonal(B22ref).toArray(),
-                            diagonal(B22ref).toArray()});
-                GloubKahanSVDStep gkStep = new GloubKahanSVDStep(B22);
-                CreateMatrix.replace(Mut, ul, lr, ul, lr, gkStep.U().t());
-                CreateMatrix.replace(Mv, ul, lr, ul, lr, gkStep.V());
-            }
-
-            B = Mut.multiply(B).multiply(Mv);
+                int i = ul;
+                for (; i < lr; ++i) {
+                    if (Math.abs(d[i]) <= epsilon) {
+                        break;
+                    }
+                }
 
-            if (doUV) {
-                Ubt = Ubt == null ? Mut : Mut.multiply(Ubt);
-                Vb = Vb == null ? Mv : Vb.multiply(Mv);
+                if (i < lr) {
+                    //zero out the row where a diagonal entry in B22 is zero
+                    zeroOutB22Row(i, lr);
+                } else {
+                    //apply the Gloub-Kahan step on B22
+                    gkStep(ul, lr, cu, su, cv, sv);
+                    if (doUV) {
+                        rotate(Pt, ul, lr, cu, su);
+                        rotate(Qt, ul, lr, cv, sv);
+                    }
+                }
             }
         }
+    }
 
-        D = new DiagonalMatrix(diagonal(B).toArray());
-
-        if (doUV) {
-            if (Ubt == null) {
-                Ut = CreateMatrix.subMatrix(Ua.t(), 1, Bdim, 1, Ua.nRows());
-            } else {
-                Matrix zeroPaddedUbt = Ubt;
-                if (this.nrows > Bdim) {
-                    zeroPaddedUbt = CreateMatrix.cbind(new Matrix[]{Ubt, new DenseMatrix(Bdim, this.nrows - Bdim).ZERO()});
-                }
-                Ut = zeroPaddedUbt.multiply(Ua.t());
-            }
-            V = Vb == null ? Va : Va.multiply(Vb);
+    /**
+     * Do an implicit QR sweep with the Wilkinson shift on <i>B[ul:lr, ul:lr]</i>.
+     * The <i>k</i>-th left (right) rotation combines the rows (columns) <i>k</i> and <i>k + 1</i>.
+     *
+     * @see "G. H. Golub, C. F. van Loan, "Algorithm 8.6.1," Matrix Computations, 3rd edition."
+     */
+    private void gkStep(int ul, int lr, double[] cu, double[] su, double[] cv, double[] sv) {
+        //mu is the eigenvalue of the trailing 2x2 matrix of B22' * B22 closer to T[n,n]
+        final double t11 = d[lr - 1] * d[lr - 1] + (lr - 1 > ul ? e[lr - 2] * e[lr - 2] : 0.);
+        final double t12 = d[lr - 1] * e[lr - 1];
+        final double t22 = d[lr] * d[lr] + e[lr - 1] * e[lr - 1];
+        final double delta = 0.5 * (t11 - t22);
+        final double mu = t12 == 0. ? t22 : t22 - t12 * t12 / (delta + Math.copySign(Math.hypot(delta, t12), delta));
+
+        if (mu <= MACH_EPS * d[ul] * d[ul]) {//the shift is negligible
+            zeroShiftStep(ul, lr, cu, su, cv, sv);
+            return;
         }
 
-        if (normalize && doUV) {
-            normalize();
+        double y = d[ul] * d[ul] - mu;
+        double z = d[ul] * e[ul];
+        for (int k = ul; k < lr; ++k) {
+            //B = B * G, zeroing out z
+            double r = Math.hypot(y, z);
+            double c = r == 0. ? 1. : y / r;
+            double s = r == 0. ? 0. : z / r;
+            cv[k] = c;
+            sv[k] = s;
+            if (k > ul) {
+                e[k - 1] = r;
+            }
+            final double dk = d[k];
+            final double ek = e[k];
+            d[k] = c * dk + s * ek;
+            e[k] = -s * dk + c * ek;
+            final double bulge = s * d[k + 1];
+            d[k + 1] *= c;
+
+            //B = G' * B, zeroing out the bulge below the diagonal
+            r = Math.hypot(d[k], bulge);
+            c = r == 0. ? 1. : d[k] / r;
+            s = r == 0. ? 0. : bulge / r;
+            cu[k] = c;
+            su[k] = s;
+            d[k] = r;
+            final double ek1 = e[k];
+            final double dk1 = d[k + 1];
+            e[k] = c * ek1 + s * dk1;
+            d[k + 1] = -s * ek1 + c * dk1;
+            if (k < lr - 1) {
+                y = e[k];
+                z = s * e[k + 1];
+                e[k + 1] *= c;
+            }
         }
     }
 
     /**
-     * When <i>B[i,i]</i> is 0, we zero out the i-th row by a sequence of column rotations.
-     * <i>i != n</i>.
+     * Do an implicit QR sweep with the zero shift on <i>B[ul:lr, ul:lr]</i>.
+     * It computes the small singular values to high relative accuracy.
      *
-     * @param B a square matrix
-     * @return the product of the Givens matrices
+     * @see "J. Demmel, W. Kahan, "Accurate singular values of bidiagonal matrices,"
+     * SIAM Journal on Scientific and Statistical Computing, vol. 11, no. 5, pp. 873-912, 1990."
      */
-    private Matrix zeroOutB22Rows(SubMatrixRef B) {//B must be square
-        int dim = B.nCols();
-
-        //find the i-th row where B[i, i] is 0
-        int i = 1;
-        for (; i <= dim; ++i) {
-            if (compare(B.get(i, i), 0, epsilon) == 0 && compare(B.get(i, i + 1), 0, epsilon) != 0) {
-                break;
+    private void zeroShiftStep(int ul, int lr, double[] cu, double[] su, double[] cv, double[] sv) {
+        double c = 1., s = 0., oldc = 1., olds = 0.;
+        for (int k = ul; k < lr; ++k) {
+            final double f = d[k] * c;
+            final double g = e[k];
+            double r = Math.hypot(f, g);
+            c = r == 0. ? 1. : f / r;
+            s = r == 0. ? 0. : g / r;
+            cv[k] = c;
+            sv[k] = s;
+            if (k > ul) {
+                e[k - 1] = olds * r;
             }
-        }
 
-        if (i >= dim) {
-            throw new RuntimeException("no zero diagonal entry");//no zero diagonal entry
+            final double f2 = oldc * r;
+            final double g2 = d[k + 1] * s;
+            r = Math.hypot(f2, g2);
+            oldc = r == 0. ? 1. : f2 / r;
+            olds = r == 0. ? 0. : g2 / r;
+            cu[k] = oldc;
+            su[k] = olds;
+            d[k] = r;
         }
+        final double h = d[lr] * c;
+        d[lr] = h * oldc;
+        e[lr - 1] = h * olds;
+    }
 
-        Matrix BB = B;
-        Matrix Gs = new DenseMatrix(dim, dim).ONE();
-        for (int j = i + 1; j <= dim; ++j) {
-            GivensMatrix G = GivensMatrix.CtorToRotateRows(dim, j, i, BB.get(j, j), BB.get(i, j));//zero out the i-th row
-            BB = G.multiply(BB);
-            Gs = G.multiply(Gs);
+    /**
+     * When <i>B[i,i]</i> is 0, we zero out the <i>i</i>-th row by a sequence of row rotations.
+     * <i>i != lr</i>.
+     */
+    private void zeroOutB22Row(int i, int lr) {
+        d[i] = 0.;
+        double f = e[i];
+        e[i] = 0.;
+        for (int j = i + 1; j <= lr && f != 0.; ++j) {
+            //rotate the rows j and i to zero out B[i, j]
+            final double r = Math.hypot(d[j], f);
+            final double c = d[j] / r;
+            final double s = f / r;
+            d[j] = r;
+            if (j < lr) {
+                f = -s * e[j];
+                e[j] *= c;
+            }
+            if (doUV) {
+                rotate(Pt, j, i, c, s);
+            }
         }
+    }
 
-        return Gs;
+    /**
+     * When <i>B[lr,lr]</i> is 0, we zero out the last column by a sequence of column rotations.
+     */
+    private void zeroOutLastB22Column(int ul, int lr) {
+        d[lr] = 0.;
+        double f = e[lr - 1];
+        e[lr - 1] = 0.;
+        for (int k = lr - 1; k >= ul && f != 0.; --k) {
+            //rotate the columns k and lr to zero out B[k, lr]
+            final double r = Math.hypot(d[k], f);
+            final double c = d[k] / r;
+            final double s = f / r;
+            d[k] = r;
+            if (k > ul) {
+                f = -s * e[k - 1];
+                e[k - 1] *= c;
+            }
+            if (doUV) {
+                rotate(Qt, k, lr, c, s);
+            }
+        }
     }
 
     /**
-     * When <i>B[n,n]</i> is 0, we zero out the last column by a sequence of column rotations.
-     *
-     * @param B a square matrix
-     * @return the product of the Givens matrices
+     * Apply a rotation to the rows <i>i</i> and <i>j</i> of an <i>n x n</i> matrix:
+     * <i>x<sub>i</sub> = c * x<sub>i</sub> + s * x<sub>j</sub></i>, <i>x<sub>j</sub> = -s * x<sub>i</sub> + c * x<sub>j</sub></i>.
      */
-    private Matrix zeroOutLastB22Column(SubMatrixRef B) {//B must be square
-        int dim = B.nRows();
-        Matrix BB = B;
-        Matrix Gs = new DenseMatrix(dim, dim).ONE();
-        for (int i = dim - 1; i >= 1; --i) {
-            GivensMatrix G = GivensMatrix.CtorToRotateColumns(dim, i, dim, BB.get(i, i), BB.get(i, dim));
-            BB = BB.multiply(G);
-            Gs = Gs.multiply(G);
+    private void rotate(double[] X, int i, int j, double c, double s) {
+        rotate(X, ncols, i * ncols, j * ncols, 0, ncols, c, s);
+    }
+
+    private static void rotate(double[] X, int n, int ri, int rj, int from, int to, double c, double s) {
+        for (int col = from; col < to; ++col) {
+            final double x = X[ri + col];
+            final double y = X[rj + col];
+            X[ri + col] = c * x + s * y;
+            X[rj + col] = -s * x + c * y;
         }
+    }
 
-        return Gs;
+    /**
+     * Apply the rotations of a sweep, in order, to the rows <i>ul</i> to <i>lr</i> of an <i>n x n</i> matrix.
+     * The columns are independent, so they are updated by blocks in parallel.
+     */
+    private void rotate(final double[] X, final int ul, final int lr, final double[] c, final double[] s) {
+        final int n = ncols;
+        try {
+            ParallelExecutorInstanceHolder.instance.conditionalForLoop(
+                    (long) (lr - ul) * n * 6 >= PARALLEL_THRESHOLD,
+                    0, (n + NB - 1) / NB,
+                    new LoopBody() {
+
+                        @Override
+                        public void run(int block) throws Exception {
+                            final int from = block * NB;
+                            final int to = Math.min(from + NB, n);
+                            for (int k = ul; k < lr; ++k) {
+                                rotate(X, n, k * n, (k + 1) * n, from, to, c[k], s[k]);
+                            }
+                        }
+                    });
+        } catch (MultipleExecutionException ex) {
+            throw new RuntimeException(ex);
+        }
     }
 
     /**
      * Normalize <i>U</i>, <i>D</i>, <i>V</i> such that diagonal entries in <i>D</i> are in descending order, and all positive.
+     * <i>A = U %*% D %*% V.t() = sum {column u<sub>i</sub> * d<sub>i</sub> * row vt<sub>i</sub>}</i>,
+     * so we flip the signs of and permute the rows of the accumulated rotations.
      */
     private void normalize() {
-        /**
-         * Parse <i>U</i>, <i>D</i>, <i>V</i>.
-         * <i>
-         * A = U %*% D %*% V.t()
-         * = sum {u<sub>i</sub> * d<sub>i</sub> * vt<sub>i</sub>}
-         * = sum {column u<sub>i</sub> * d<sub>i</sub> * row vt<sub>i</sub>}
-         * </i>
-         */
-        class UDVt {
-
-            Double sv;
-            Vector u;
-            Vector vt;
-
-            UDVt(Double sv, Vector u, Vector vt) {
-                this.sv = sv;
-                this.u = u;
-                this.vt = vt;
+        final int n = ncols;
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; ++i) {
+            order[i] = i;
+            if (d[i] < 0) {//make singular values positive
+                d[i] = -d[i];
+                if (doUV) {
+                    for (int j = i * n; j < (i + 1) * n; ++j) {
+                        Pt[j] = -Pt[j];
+                    }
+                }
             }
         }
 
-        /**
-         * To sort UtDV in descending order
-         */
-        class UtDVComparator implements Comparator<UDVt> {
+        Arrays.sort(order, new Comparator<Integer>() {
 
             @Override
-            public int compare(UDVt sv1, UDVt sv2) {
-                return -1 * Double.compare(sv1.sv, sv2.sv);
+            public int compare(Integer i1, Integer i2) {
+                return -1 * Double.compare(d[i1], d[i2]);
             }
-        }
+        });
 
-        int nSV = D.nRows();
-        UDVt[] svd = new UDVt[nSV];
-        for (int i = 1; i <= nSV; ++i) {
-            double d = D.get(i, i);
-            svd[i - 1] = new UDVt(
-                    d < 0 ? -d : d,//make singular values positive
-                    d < 0 ? Ut.getRow(i).scaled(-1) : Ut.getRow(i),
-                    V.getColumn(i));
+        double[] sorted = new double[n];
+        for (int i = 0; i < n; ++i) {
+            sorted[i] = d[order[i]];
         }
+        System.arraycopy(sorted, 0, d, 0, n);
 
-        Arrays.sort(svd, new UtDVComparator());
-
-        Vector[] UCols = new Vector[Ut.nRows()];
-        Vector[] VtRows = new Vector[V.nCols()];
-
-        for (int i = 0; i < nSV; ++i) {
-            UCols[i] = svd[i].u;
-            D.set(i + 1, i + 1, svd[i].sv);
-            VtRows[i] = svd[i].vt;
+        if (doUV) {
+            permuteRows(Pt, order);
+            permuteRows(Qt, order);
         }
+    }
 
-        for (int i = nSV; i < Ut.nRows(); ++i) {
-            UCols[i] = new DenseVector(Ut.nCols());
+    private void permuteRows(double[] X, Integer[] order) {
+        final int n = ncols;
+        double[] copy = X.clone();
+        for (int i = 0; i < n; ++i) {
+            System.arraycopy(copy, order[i] * n, X, i * n, n);
         }
+    }
 
-        Ut = CreateMatrix.rbind(UCols);
-        V = CreateMatrix.cbind(VtRows);
+    private static double[] identity(int n) {
+        double[] I = new double[n * n];
+        for (int i = 0; i < n; ++i) {
+            I[i * n + i] = 1.;
+        }
+        return I;
     }
 
     @Override
@@ -309,7 +447,7 @@ public class GloubKahanSVD implements SVDDecomposition {
         SuanShuUtils.assertOrThrow(doUV ? null
                                    : new RuntimeException("only singular values were computed; U not available"));
 
-        return Ut.t();
+        return U.deepCopy();
     }
 
     @Override
@@ -317,7 +455,7 @@ public class GloubKahanSVD implements SVDDecomposition {
         SuanShuUtils.assertOrThrow(doUV ? null
                                    : new RuntimeException("only singular values were computed; U not available"));
 
-        return Ut.deepCopy();
+        return U.t();
     }
 
     @Override
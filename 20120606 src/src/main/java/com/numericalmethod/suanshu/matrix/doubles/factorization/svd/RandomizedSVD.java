@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.factorization.svd;
+
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.diagonal.DiagonalMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.operation.CreateMatrix;
+import static com.numericalmethod.suanshu.misc.SuanShuUtils.assertArgument;
+import com.numericalmethod.suanshu.stats.random.univariate.normal.StandardNormalRng;
+import java.util.Arrays;
+
+/**
+ * The randomized range finder computes the <i>k</i> largest singular values and vectors of a big matrix
+ * <i>A</i> (<i>m x n</i>), in time and memory proportional to <i>k</i>.
+ * <ol>
+ * <li>Multiply <i>A</i> by a Gaussian random matrix <i>Ω</i> (<i>n x l</i>, <i>l = k + oversampling</i>);
+ * <i>Y = AΩ</i> samples the range of <i>A</i>.
+ * <li>Sharpen the spectrum by power iterations, <i>Y = (AA')<sup>q</sup>AΩ</i>, re-orthonormalizing after every
+ * multiplication.
+ * <li>Orthonormalize <i>Y = QR</i> and compute the (exact) SVD of the small matrix <i>B = Q'A</i> (<i>l x n</i>).
+ * </ol>
+ * The result is an approximation: the error <i>|A - UDV'|</i> is close to the (<i>k+1</i>)-th singular value,
+ * and the power iterations make it closer when the singular values decay slowly.
+ * <i>A</i> is accessed only through multiplications by tall matrices, so it can be of any type, e.g., a
+ * {@link com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.CSRSparseMatrix}.
+ * @see "N. Halko, P. G. Martinsson, J. A. Tropp, "Finding structure with randomness: Probabilistic algorithms for
+ * constructing approximate matrix decompositions," SIAM Review, 53(2):217-288, 2011."
+ */
+public class RandomizedSVD implements SVDDecomposition {
+
+    /** the default number of extra random samples */
+    public static final int DEFAULT_OVERSAMPLING = 10;
+    /** the default number of power iterations */
+    public static final int DEFAULT_POWER_ITERATIONS = 2;
+    private final double[] singularValues;
+    private final Matrix U;
+    private final Matrix V;
+
+    /**
+     * Compute the <i>k</i> largest singular values and vectors of a matrix.
+     *
+     * @param A                a matrix
+     * @param k                the number of singular values
+     * @param oversampling     the number of extra random samples; 5 to 10 is usually enough
+     * @param nPowerIterations the number of power iterations; 1 to 3 is usually enough
+     * @param seed             the seed of the random matrix
+     */
+    public RandomizedSVD(Matrix A, int k, int oversampling, int nPowerIterations, long seed) {
+        final int m = A.nRows();
+        final int n = A.nCols();
+        assertArgument(1 <= k && k <= Math.min(m, n), "k must be in [1, %d]", Math.min(m, n));
+        assertArgument(oversampling >= 0, "oversampling must be non-negative");
+        assertArgument(nPowerIterations >= 0, "nPowerIterations must be non-negative");
+
+        final int l = Math.min(k + oversampling, Math.min(m, n));
+        StandardNormalRng rng = new StandardNormalRng();
+        rng.seed(seed);
+        double[] omega = new double[n * l];
+        for (int i = 0; i < omega.length; ++i) {
+            omega[i] = rng.nextDouble();
+        }
+
+        Matrix At = A.t();
+        Matrix Q = orthonormalize(A.multiply(new DenseMatrix(omega, n, l)));
+        for (int q = 0; q < nPowerIterations; ++q) {
+            Q = orthonormalize(A.multiply(orthonormalize(At.multiply(Q))));
+        }
+
+        // A ~ QB, where B' = A'Q = Ub * D * Vb', so A ~ (Q * Vb) * D * Ub'
+        SVD svd = new SVD(At.multiply(Q), true);
+        this.singularValues = Arrays.copyOf(svd.getSingularValues(), k);
+        this.U = CreateMatrix.subMatrix(Q.multiply(svd.V()), 1, m, 1, k);
+        this.V = CreateMatrix.subMatrix(svd.U(), 1, n, 1, k);
+    }
+
+    /**
+     * Compute the <i>k</i> largest singular values and vectors of a matrix, with the default oversampling and power
+     * iterations, and a fixed seed.
+     *
+     * @param A a matrix
+     * @param k the number of singular values
+     */
+    public RandomizedSVD(Matrix A, int k) {
+        this(A, k, DEFAULT_OVERSAMPLING, DEFAULT_POWER_ITERATIONS, 1234567890L);
+    }
+
+    @Override
+    public double[] getSingularValues() {
+        return singularValues.clone();
+    }
+
+    @Override
+    public DiagonalMatrix D() {
+        return new DiagonalMatrix(singularValues.clone());
+    }
+
+    /**
+     * Get the <i>k</i> left singular vectors.
+     *
+     * @return <i>U</i>, an <i>m x k</i> matrix
+     */
+    @Override
+    public Matrix U() {
+        return U.deepCopy();
+    }
+
+    @Override
+    public Matrix Ut() {
+        return U.t();
+    }
+
+    /**
+     * Get the <i>k</i> right singular vectors.
+     *
+     * @return <i>V</i>, an <i>n x k</i> matrix
+     */
+    @Override
+    public Matrix V() {
+        return V.deepCopy();
+    }
+
+    /**
+     * Orthonormalize the columns of <i>Y</i> by the classical Gram-Schmidt process, done twice.
+     * A column that is (numerically) in the span of the previous ones is set to 0.
+     *
+     * @param Y a tall matrix
+     * @return an orthonormal basis of the column space of <i>Y</i>
+     */
+    private static Matrix orthonormalize(Matrix Y) {
+        final int m = Y.nRows();
+        final int l = Y.nCols();
+        double[][] q = new double[l][m];//columns
+        for (int i = 1; i <= m; ++i) {
+            for (int j = 1; j <= l; ++j) {
+                q[j - 1][i - 1] = Y.get(i, j);
+            }
+        }
+
+        for (int j = 0; j < l; ++j) {
+            final double norm0 = norm(q[j]);
+            for (int pass = 0; pass < 2; ++pass) {
+                for (int p = 0; p < j; ++p) {
+                    double dot = 0;
+                    for (int i = 0; i < m; ++i) {
+                        dot += q[p][i] * q[j][i];
+                    }
+                    for (int i = 0; i < m; ++i) {
+                        q[j][i] -= dot * q[p][i];
+                    }
+                }
+            }
+
+            final double norm = norm(q[j]);
+            final double scale = norm > 1e-14 * norm0 ? 1. / norm : 0;
+            for (int i = 0; i < m; ++i) {
+                q[j][i] *= scale;
+            }
+        }
+
+        double[] data = new double[m * l];
+        for (int i = 0; i < m; ++i) {
+            for (int j = 0; j < l; ++j) {
+                data[i * l + j] = q[j][i];
+            }
+        }
+        return new DenseMatrix(data, m, l);
+    }
+
+    private static double norm(double[] x) {
+        double sum = 0;
+        for (double xi : x) {
+            sum += xi * xi;
+        }
+        return Math.sqrt(sum);
+    }
+}
@@ -56,7 +56,7 @@ public class SVD implements SVDDecomposition {
      */
     public SVD(Matrix A, boolean doUV, double epsilon) {
         this.A = A;
-        this.fat = DimensionCheck.isFat(A);
+        this.fat = !DimensionCheck.isTall(A);
         this.doUV = doUV;
         this.impl = new GloubKahanSVD(fat ? this.A.t() : this.A, this.doUV, true, epsilon);//change the implementaiton here, if needed
         this.epsilon = epsilon;
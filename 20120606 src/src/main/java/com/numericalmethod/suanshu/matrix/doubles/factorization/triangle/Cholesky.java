@@ -25,9 +25,14 @@ package com.numericalmethod.suanshu.matrix.doubles.factorization.triangle;
 import com.numericalmethod.suanshu.matrix.MatrixSingularityException;
 import com.numericalmethod.suanshu.matrix.doubles.IsMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.BlockedGEMM;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.StridedMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.triangle.LowerTriangularMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.triangle.UpperTriangularMatrix;
 import com.numericalmethod.suanshu.number.DoubleUtils;
+import com.numericalmethod.suanshu.parallel.LoopBody;
+import com.numericalmethod.suanshu.parallel.MultipleExecutionException;
+import com.numericalmethod.suanshu.parallel.ParallelExecutor;
 
 /**
  * Cholesky decomposition decomposes a real, symmetric (hence square), and positive definite matrix <i>A</i> into
@@ -35,12 +40,22 @@ import com.numericalmethod.suanshu.number.DoubleUtils;
  * For any real, symmetric, positive definite matrix, there is a unique Cholesky decomposition, such that <i>L</i>'s diagonal entries are all positive.
  * This implementation uses the Cholesky-Crout algorithm,
  * which starts from the upper left corner of the matrix <i>L</i> and proceeds to calculate the matrix row by row.
+ * The rows and columns are processed in blocks so that most of the computation is done in matrix-matrix multiplications.
  *
  * @author Haksun Li
  * @see <a href="http://en.wikipedia.org/wiki/Cholesky_decomposition">Wikipedia: Cholesky decomposition</a>
  */
 public class Cholesky {
 
+    private static class ParallelExecutorInstanceHolder { // thread-safe lazy initialization idiom
+
+        private static final ParallelExecutor instance = new ParallelExecutor();
+    }
+    /** the block size */
+    private static final int NB = 64;
+    /** the minimum amount of work in a panel solve to parallelize */
+    private static final long PARALLEL_THRESHOLD = 64L * 64 * 64;
+
     /** the resultant lower triangular matrix */
     private LowerTriangularMatrix L;
 
@@ -91,38 +106,111 @@ public class Cholesky {
     }
 
     /**
-     * An implementation of Cholesky-Banachiewicz algorithm.
+     * A blocked, right-looking implementation of Cholesky-Banachiewicz algorithm.
      *
      * @param A a <em>square</em> matrix
      * @throws MatrixSingularityException if the matrix is singular
      * @see <a href="http://en.wikipedia.org/wiki/Cholesky_decomposition#The_Cholesky-Banachiewicz_and_Cholesky-Crout_algorithms">Wikipedia: The Cholesky-Banachiewicz and Cholesky-Crout algorithms</a>
      */
     private void run(Matrix A) {
-        final int dim = A.nRows();
-        L = new LowerTriangularMatrix(dim);
+        final int n = A.nRows();
+
+        /*
+         * Overwrite the lower triangle of a row-major copy of A by L.
+         * The upper triangle is never read.
+         */
+        final StridedMatrix W = new StridedMatrix(A, StridedMatrix.Order.ROW_MAJOR);
+        final double[] l = W.data();
+
+        for (int J = 0; J < n; J += NB) {
+            final int jb = Math.min(NB, n - J);
+            final int J2 = J + jb;//the first row/column of the trailing sub-matrix
+
+            factorizeDiagonalBlock(l, n, J, jb);
 
-        for (int i = 1; i <= dim; ++i) {
+            if (J2 < n) {
+                //L21 = A21 * inv(L11')
+                solvePanel(l, n, J, jb);
+
+                //A22 = A22 - L21 * L21', only the blocks on or below the diagonal
+                for (int I = J2; I < n; I += NB) {
+                    final int ib = Math.min(NB, n - I);
+                    BlockedGEMM.gemm(
+                            false, true, ib, I + ib - J2, jb,
+                            -1., l, I * n + J, n,
+                            l, J2 * n + J, n,
+                            1., l, I * n + J2, n);
+                }
+            }
+        }
+
+        L = new LowerTriangularMatrix(W);
+    }
+
+    /**
+     * Run the unblocked Cholesky-Banachiewicz algorithm on a diagonal block,
+     * which the previous steps have already updated.
+     *
+     * @param l  the row-major working buffer
+     * @param n  the dimension of the matrix
+     * @param J  the first row/column of the block, counting from 0
+     * @param jb the size of the block
+     */
+    private static void factorizeDiagonalBlock(double[] l, int n, int J, int jb) {
+        for (int i = J, ri = J * n; i < J + jb; ++i, ri += n) {
             //for L[i,j], where j < i
-            for (int j = 1; j < i; ++j) {
-                double value = A.get(i, j);
-                for (int k = 1; k <= j - 1; ++k) {
-                    value -= L.get(i, k) * L.get(j, k);//TODO: improve efficiency by using sub-rows/columns
+            for (int j = J, rj = J * n; j < i; ++j, rj += n) {
+                double value = l[ri + j];
+                for (int k = J; k < j; ++k) {
+                    value -= l[ri + k] * l[rj + k];
                 }
-                value /= L.get(j, j);
-                L.set(i, j, value);
+                value /= l[rj + j];
+                l[ri + j] = value;
             }
 
             //for L[i,i]
-            double value = A.get(i, i);
-            for (int k = 1; k <= i - 1; ++k) {
-                value -= L.get(i, k) * L.get(i, k);
+            double value = l[ri + i];
+            for (int k = J; k < i; ++k) {
+                value -= l[ri + k] * l[ri + k];
             }
 
             if (DoubleUtils.compare(value, 0, 0) <= 0) {
                 throw new RuntimeException("A is not positive definite");
             }
-            value = Math.sqrt(value);
-            L.set(i, i, value);
+            l[ri + i] = Math.sqrt(value);
+        }
+    }
+
+    /**
+     * Compute the block column below a factorized diagonal block, i.e., <i>L21 = A21 * inv(L11')</i>.
+     * The rows are independent and are computed in parallel for a big matrix.
+     *
+     * @param l  the row-major working buffer
+     * @param n  the dimension of the matrix
+     * @param J  the first row/column of the diagonal block, counting from 0
+     * @param jb the size of the block
+     */
+    private static void solvePanel(final double[] l, final int n, final int J, final int jb) {
+        try {
+            ParallelExecutorInstanceHolder.instance.conditionalForLoop(
+                    (long) (n - J - jb) * jb * jb >= PARALLEL_THRESHOLD,
+                    J + jb, n,
+                    new LoopBody() {
+
+                        @Override
+                        public void run(int i) throws Exception {
+                            final int ri = i * n;
+                            for (int j = J, rj = J * n; j < J + jb; ++j, rj += n) {
+                                double value = l[ri + j];
+                                for (int k = J; k < j; ++k) {
+                                    value -= l[ri + k] * l[rj + k];
+                                }
+                                l[ri + j] = value / l[rj + j];
+                            }
+                        }
+                    });
+        } catch (MultipleExecutionException ex) {
+            throw new RuntimeException(ex);
         }
     }
 }
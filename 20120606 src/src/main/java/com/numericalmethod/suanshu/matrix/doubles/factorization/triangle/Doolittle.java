@@ -26,18 +26,19 @@ import com.numericalmethod.suanshu.datastructure.DimensionCheck;
 import com.numericalmethod.suanshu.matrix.MatrixSingularityException;
 import com.numericalmethod.suanshu.matrix.doubles.Matrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.PermutationMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.BlockedGEMM;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.StridedMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.triangle.LowerTriangularMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.triangle.UpperTriangularMatrix;
-import com.numericalmethod.suanshu.matrix.doubles.operation.MatrixUtils;
 import com.numericalmethod.suanshu.misc.SuanShuUtils;
 import static com.numericalmethod.suanshu.number.DoubleUtils.compare;
-import com.numericalmethod.suanshu.vector.doubles.Vector;
 
 /**
  * Doolittle algorithm is an LU decomposition of a <em>square</em> matrix.
  * This implementation uses column/partial pivoting.
  * It iteratively fills the first row, then first column, then second row, second column, etc.
  * Before each iteration, it swaps the rows so that the biggest entry in the column is on the main diagonal.
+ * The columns are processed in blocks so that most of the computation is done in matrix-matrix multiplications.
  * If this biggest entry is 0, the Doolittle construction fails and throws a runtime exception.
  * On success, we have <i>P * A = L * U</i>, where
  * <i>A</i> is an <i>n x n</i> matrix;
@@ -64,7 +65,9 @@ public class Doolittle implements LUDecomposition {
     private LowerTriangularMatrix L;
     private UpperTriangularMatrix U;
     private PermutationMatrix P;
-    private double[][] data;//make a copy of the 2D matrix from the input matrix
+    /** the block size */
+    private static final int NB = 64;
+    private double[] a;//make a row-major copy of the input matrix, which is overwritten by L and U
     private final int dim;// the dimension of A
     private final boolean usePivoting;
     private final double epsilon;
@@ -94,11 +97,11 @@ public class Doolittle implements LUDecomposition {
             L.set(i, i, 1);//doolittle assumption
         }
 
-        data = MatrixUtils.to2DArray(A);
+        a = new StridedMatrix(A, StridedMatrix.Order.ROW_MAJOR).data();
 
         run();
 
-        data = null;//release the data to save memory
+        a = null;//release the data to save memory
     }
 
     /**
@@ -127,48 +130,101 @@ public class Doolittle implements LUDecomposition {
     }
 
     /**
-     * an implementation of Doolittle algorithm
+     * a blocked, right-looking implementation of Doolittle algorithm
+     * <p/>
+     * For each panel of {@link #NB} columns, we factorize the panel,
+     * compute the block row of <i>U</i> by forward substitution,
+     * and then update the trailing sub-matrix by a matrix multiplication.
+     * Most of the work is in the last step, which {@link BlockedGEMM} parallelizes.
+     * The working buffer {@code a} is row-major and is overwritten by <i>L</i> (below the diagonal) and <i>U</i>.
      *
      * @throws MatrixSingularityException if the matrix is singular
+     * @see "Gene H. Golub, Charles F. Van Loan, "Section 3.2.11, Block LU," Matrix Computations, 3rd edition."
      */
     private void run() {
-        for (int k = 1; k <= dim; ++k) {
-            if (usePivoting) {
-                pivoting(k);
+        final int n = dim;
+
+        for (int J = 0; J < n; J += NB) {
+            final int jb = Math.min(NB, n - J);
+            final int J2 = J + jb;//the first column of the trailing sub-matrix
+
+            factorizePanel(J, jb);
+
+            if (J2 < n) {
+                //U12 = inv(L11) * A12
+                for (int k = J; k < J2; ++k) {
+                    final int rk = k * n;
+                    for (int i = k + 1; i < J2; ++i) {
+                        final int ri = i * n;
+                        final double l = a[ri + k];
+                        for (int j = J2; j < n; ++j) {
+                            a[ri + j] -= l * a[rk + j];
+                        }
+                    }
+                }
+
+                //A22 = A22 - L21 * U12
+                BlockedGEMM.gemm(
+                        false, false, n - J2, n - J2, jb,
+                        -1., a, J2 * n + J, n,
+                        a, J * n + J2, n,
+                        1., a, J2 * n + J2, n);
             }
+        }
 
-            Vector Lrow;
-            Vector Ucol;
+        for (int i = 1, ri = 0; i <= n; ++i, ri += n) {
+            for (int j = 1; j < i; ++j) {
+                L.set(i, j, a[ri + j - 1]);
+            }
+            for (int j = i; j <= n; ++j) {
+                U.set(i, j, a[ri + j - 1]);
+            }
+        }
+    }
+
+    /**
+     * Factorize the columns {@code J} to {@code J + jb - 1} of the (partially updated) matrix by the unblocked Doolittle algorithm.
+     * The previous panels have already been applied to these columns, so the inner products start from column {@code J}.
+     * The row swaps are applied to the whole rows.
+     *
+     * @param J  the first column of the panel, counting from 0
+     * @param jb the number of columns in the panel
+     * @throws MatrixSingularityException if the matrix is singular
+     */
+    private void factorizePanel(int J, int jb) {
+        final int n = dim;
+        final int J2 = J + jb;
+
+        for (int k = J; k < J2; ++k) {
+            if (usePivoting) {
+                pivoting(J, k);
+            }
 
             /*
-             * filling U's iter-th row
-             * U[k, col] = A[k, col] - Sum{L[k, i] * U[i, k]; 1 <= i < iter}
+             * filling U's k-th row in the panel
+             * U[k, col] = A[k, col] - Sum{L[k, i] * U[i, col]; J <= i < k}
              */
-            Lrow = L.getRow(k);//Lrow is irrelevant when filling the first row
-            for (int i = k; i <= dim; ++i) {//filling the row by columns
-                Ucol = U.getColumn(i);
-                double value = 0;//dot product: Lcol * Urow
-                for (int j = 1; j < k; ++j) {
-                    value += Lrow.get(j) * Ucol.get(j);
+            final int rk = k * n;
+            for (int i = k; i < J2; ++i) {//filling the row by columns
+                double value = 0;//dot product: Lrow * Ucol
+                for (int j = J, rj = J * n; j < k; ++j, rj += n) {
+                    value += a[rk + j] * a[rj + i];
                 }
-                value = data[k - 1][i - 1] - value;
-                U.set(k, i, value);
+                a[rk + i] -= value;
             }
 
             /*
-             * filling L's iter-th column
-             * L[i, k] = A[i, k] - Sum{L[i, i] * U[i, k]; 1 <= i < k}
+             * filling L's k-th column
+             * L[i, k] = A[i, k] - Sum{L[i, j] * U[j, k]; J <= j < k}
              */
-            Ucol = U.getColumn(k);
-            for (int i = k + 1; i <= dim; ++i) {//filling the column by rows
-                Lrow = L.getRow(i);
+            final double uDiag = a[rk + k];
+            for (int i = k + 1; i < n; ++i) {//filling the column by rows
+                final int ri = i * n;
                 double value = 0;//dot product: row of L * col of U
-                for (int j = 1; j < k; ++j) {
-                    value += Lrow.get(j) * Ucol.get(j);
+                for (int j = J, rj = J * n; j < k; ++j, rj += n) {
+                    value += a[ri + j] * a[rj + k];
                 }
-                value = data[i - 1][k - 1] - value;
-
-                double uDiag = U.get(k, k);
+                value = a[ri + k] - value;
 
                 /*
                  * We cannot do uDiag == 0 because
@@ -185,7 +241,7 @@ public class Doolittle implements LUDecomposition {
                     value /= uDiag;
                 }
 
-                L.set(i, k, value);
+                a[ri + k] = value;
             }
         }
     }
@@ -193,59 +249,52 @@ public class Doolittle implements LUDecomposition {
     /**
      * partial pivoting:
      * swap rows so that the biggest element in absolute value
-     * in the i-th column moves to the diagonal
+     * in the k-th column moves to the diagonal
+     *
+     * @param J the first column of the panel, counting from 0
+     * @param k the column, counting from 0
      */
-    private void pivoting(int i) {//row counts from 1
-        final int i1 = i - 1;//_row counts from 0
+    private void pivoting(int J, int k) {
+        final int n = dim;
 
-        int pivotRow = i;
+        int pivotRow = k;
         double maxPivot = Double.NEGATIVE_INFINITY;
-        for (int j = i; j <= dim; ++j) {//rows
+        for (int i = k; i < n; ++i) {//rows
             //compute and compare the potential pivots
-            double pivot4row = pivot(j, i);
+            double pivot4row = pivot(J, i, k);
             if (pivot4row > maxPivot) {
-                pivotRow = j;
+                pivotRow = i;
                 maxPivot = pivot4row;
             }
         }
 
-        if (pivotRow > i) {
-            /*
-             * swap the two rows in data, but no need the full row
-             * chop the beginning
-             */
-            for (int j = i1; j < dim; ++j) {//columns
-                double tmp = data[i1][j];
-                data[i1][j] = data[pivotRow - 1][j];
-                data[pivotRow - 1][j] = tmp;
-            }
-
-            /*
-             * swap the two rows in L, but no need the full row
-             * chop the ending 0s
-             */
-            for (int j = 1; j < i; ++j) {//columns
-                double tmp = L.get(i, j);
-                L.set(i, j, L.get(pivotRow, j));
-                L.set(pivotRow, j, tmp);
+        if (pivotRow > k) {
+            //swap the two whole rows, which include the filled part of L
+            for (int j = 0, r1 = k * n, r2 = pivotRow * n; j < n; ++j) {
+                double tmp = a[r1 + j];
+                a[r1 + j] = a[r2 + j];
+                a[r2 + j] = tmp;
             }
 
             //record the swaps
-            P.swapRow(pivotRow, i);
+            P.swapRow(pivotRow + 1, k + 1);
         }
     }
 
     /**
      * Compute the pivot for a row.
-     * This assumes that L and U are partially filled.
+     * This assumes that L and U are filled up to column {@code k - 1}.
      *
-     * @param i
-     * @return
+     * @param J the first column of the panel, counting from 0
+     * @param i the row, counting from 0
+     * @param k the column, counting from 0
+     * @return the absolute value of the candidate pivot
      */
-    private double pivot(int i, int j) {
-        double result = data[i - 1][j - 1];
-        for (int k = 1; k < i; ++k) {
-            result -= L.get(i, k) * U.get(k, j);
+    private double pivot(int J, int i, int k) {
+        final int ri = i * dim;
+        double result = a[ri + k];
+        for (int j = J, rj = J * dim; j < k; ++j, rj += dim) {
+            result -= a[ri + j] * a[rj + k];
         }
 
         return Math.abs(result);
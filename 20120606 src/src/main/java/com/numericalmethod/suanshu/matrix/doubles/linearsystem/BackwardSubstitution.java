@@ -22,6 +22,9 @@
  */
 package com.numericalmethod.suanshu.matrix.doubles.linearsystem;
 
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.StridedMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.triangle.UpperTriangularMatrix;
 import com.numericalmethod.suanshu.misc.SuanShuUtils;
 import static com.numericalmethod.suanshu.number.DoubleUtils.isZero;
@@ -87,4 +90,24 @@ public class BackwardSubstitution {
 
         return x;
     }
+
+    /**
+     * Solve <i>UX = B</i>, i.e., <i>Ux = b</i> for each column <i>b</i> of <i>B</i>.
+     * This is faster than solving the columns one by one:
+     * the columns are processed in blocks on contiguous memory and, for a big system, in parallel.
+     *
+     * @param U a upper triangular matrix, representing the system of linear equations (the homogeneous part)
+     * @param B a matrix of right-hand sides
+     * @return a solution <i>X</i> such that <i>UX = B</i>
+     * @throws LinearSystemSolver.NoSolution if there is no solution to the system
+     */
+    public Matrix solve(UpperTriangularMatrix U, Matrix B) {
+        SuanShuUtils.assertArgument(U.nRows() == B.nRows(), "B must have the same number of rows as U's dimension");
+
+        final double[] T = new StridedMatrix(U, StridedMatrix.Order.ROW_MAJOR).data();
+        final DenseMatrix X = new DenseMatrix(B);
+        TriangularSolver.solve(T, X.view().data(), B.nRows(), B.nCols(), false);
+
+        return X;
+    }
 }
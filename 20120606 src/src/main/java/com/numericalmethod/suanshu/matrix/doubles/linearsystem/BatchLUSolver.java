@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.linearsystem;
+
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import static com.numericalmethod.suanshu.number.DoubleUtils.isZero;
+import com.numericalmethod.suanshu.parallel.LoopBody;
+import com.numericalmethod.suanshu.parallel.MultipleExecutionException;
+import com.numericalmethod.suanshu.parallel.ParallelExecutor;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * This solver solves a batch of many small, independent systems of linear equations of the same size,
+ * <i>A<sub>k</sub>x<sub>k</sub> = b<sub>k</sub></i>, in one call.
+ * A typical use is to run one small regression per timestamp.
+ * <p/>
+ * Constructing an {@link LUSolver} problem per system allocates the <i>L</i>, <i>U</i> and <i>P</i> matrices and the intermediate vectors for every system.
+ * Instead, this implementation runs Gaussian elimination with partial pivoting in place in a workspace,
+ * which is allocated once per chunk of systems and reused.
+ * The chunks are solved in parallel for a big batch.
+ */
+public class BatchLUSolver {
+
+    private static class ParallelExecutorInstanceHolder { // thread-safe lazy initialization idiom
+
+        private static final ParallelExecutor instance = new ParallelExecutor();
+    }
+    /** the number of systems solved by a task with the same workspace */
+    private static final int CHUNK_SIZE = 256;
+    /** the minimum amount of work, <i>batch size * dim<sup>3</sup></i>, to parallelize */
+    private static final long PARALLEL_THRESHOLD = 100L * 100 * 100;
+    private final int dim;
+    private final double epsilon;
+
+    /**
+     * Construct a solver for a batch of systems of dimension {@code dim}.
+     *
+     * @param dim     the number of equations (and unknowns) in each system
+     * @param epsilon a precision parameter: when a number |x| ≤ ε, it is considered 0
+     */
+    public BatchLUSolver(int dim, double epsilon) {
+        SuanShuUtils.assertArgument(dim > 0, "dim must be positive");
+        this.dim = dim;
+        this.epsilon = epsilon;
+    }
+
+    /**
+     * Construct a solver for a batch of systems of dimension {@code dim}.
+     *
+     * @param dim the number of equations (and unknowns) in each system
+     */
+    public BatchLUSolver(int dim) {
+        this(dim, 0);
+    }
+
+    /**
+     * Solve <i>A<sub>k</sub>x<sub>k</sub> = b<sub>k</sub></i> for all <i>k</i>.
+     *
+     * @param A the square matrices, each of dimension {@code dim x dim}
+     * @param b the right-hand sides, each of length {@code dim}
+     * @return the solutions, such that {@code A[k].multiply(x[k]) == b[k]}
+     * @throws LinearSystemSolver.NoSolution if any of the matrices is singular
+     */
+    public Vector[] solve(final Matrix[] A, final Vector[] b) {
+        SuanShuUtils.assertArgument(A.length == b.length, "A and b must have the same number of systems");
+        for (int k = 0; k < A.length; ++k) {
+            SuanShuUtils.assertArgument(A[k].nRows() == dim && A[k].nCols() == dim, "A[%d] must be %d x %d", k, dim, dim);
+            SuanShuUtils.assertArgument(b[k].size() == dim, "b[%d] must have length %d", k, dim);
+        }
+
+        final Vector[] x = new Vector[A.length];
+        final int nChunks = (A.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+        try {
+            ParallelExecutorInstanceHolder.instance.conditionalForLoop(
+                    nChunks > 1 && (long) A.length * dim * dim * dim >= PARALLEL_THRESHOLD,
+                    0, nChunks,
+                    new LoopBody() {
+
+                        @Override
+                        public void run(int chunk) throws Exception {
+                            //the workspace reused by all systems in this chunk
+                            final double[] a = new double[dim * dim];
+                            final int from = chunk * CHUNK_SIZE;
+                            final int to = Math.min(A.length, from + CHUNK_SIZE);
+                            for (int k = from; k < to; ++k) {
+                                x[k] = solve(A[k], b[k], a, k);
+                            }
+                        }
+                    });
+        } catch (MultipleExecutionException ex) {
+            for (ExecutionException e : ex.getExceptions()) {
+                if (e.getCause() instanceof LinearSystemSolver.NoSolution) {
+                    throw (LinearSystemSolver.NoSolution) e.getCause();
+                }
+            }
+            throw new RuntimeException(ex);
+        }
+
+        return x;
+    }
+
+    /**
+     * Solve one system by Gaussian elimination with partial pivoting.
+     *
+     * @param A the matrix
+     * @param b the right-hand side
+     * @param a the workspace of length <i>dim * dim</i>; it is overwritten
+     * @param k the index of the system in the batch, for error reporting
+     * @return the solution
+     */
+    private DenseVector solve(Matrix A, Vector b, double[] a, int k) {
+        final int n = dim;
+
+        //copy A into the workspace
+        if (A instanceof DenseMatrix) {
+            System.arraycopy(((DenseMatrix) A).view().data(), 0, a, 0, n * n);
+        } else {
+            for (int i = 1, p = 0; i <= n; ++i) {
+                for (int j = 1; j <= n; ++j) {
+                    a[p++] = A.get(i, j);
+                }
+            }
+        }
+        final double[] x = b.toArray();
+
+        //forward elimination, applying the same row operations to x
+        for (int j = 0; j < n; ++j) {
+            int pivotRow = j;
+            double maxPivot = Math.abs(a[j * n + j]);
+            for (int i = j + 1; i < n; ++i) {
+                double pivot = Math.abs(a[i * n + j]);
+                if (pivot > maxPivot) {
+                    pivotRow = i;
+                    maxPivot = pivot;
+                }
+            }
+
+            if (isZero(maxPivot, epsilon)) {
+                throw new LinearSystemSolver.NoSolution(String.format("A[%d] is singular", k));
+            }
+
+            if (pivotRow != j) {
+                for (int c = j, r1 = j * n, r2 = pivotRow * n; c < n; ++c) {
+                    double tmp = a[r1 + c];
+                    a[r1 + c] = a[r2 + c];
+                    a[r2 + c] = tmp;
+                }
+                double tmp = x[j];
+                x[j] = x[pivotRow];
+                x[pivotRow] = tmp;
+            }
+
+            final int rj = j * n;
+            final double ajj = a[rj + j];
+            for (int i = j + 1; i < n; ++i) {
+                final int ri = i * n;
+                final double l = a[ri + j] / ajj;
+                for (int c = j + 1; c < n; ++c) {
+                    a[ri + c] -= l * a[rj + c];
+                }
+                x[i] -= l * x[j];
+            }
+        }
+
+        //backward substitution
+        for (int i = n - 1; i >= 0; --i) {
+            final int ri = i * n;
+            double value = x[i];
+            for (int j = i + 1; j < n; ++j) {
+                value -= a[ri + j] * x[j];
+            }
+            x[i] = value / a[ri + i];
+        }
+
+        return new DenseVector(x);
+    }
+}
@@ -22,6 +22,9 @@
  */
 package com.numericalmethod.suanshu.matrix.doubles.linearsystem;
 
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.StridedMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.triangle.LowerTriangularMatrix;
 import com.numericalmethod.suanshu.misc.SuanShuUtils;
 import static com.numericalmethod.suanshu.number.DoubleUtils.isZero;
@@ -87,4 +90,24 @@ public class ForwardSubstitution {
 
         return x;
     }
+
+    /**
+     * Solve <i>LX = B</i>, i.e., <i>Lx = b</i> for each column <i>b</i> of <i>B</i>.
+     * This is faster than solving the columns one by one:
+     * the columns are processed in blocks on contiguous memory and, for a big system, in parallel.
+     *
+     * @param L a lower triangular matrix, representing the system of linear equations (the homogeneous part)
+     * @param B a matrix of right-hand sides
+     * @return a solution <i>X</i> such that <i>LX = B</i>
+     * @throws LinearSystemSolver.NoSolution if there is no solution to the system
+     */
+    public Matrix solve(LowerTriangularMatrix L, Matrix B) {
+        SuanShuUtils.assertArgument(L.nRows() == B.nRows(), "B must have the same number of rows as L's dimension");
+
+        final double[] T = new StridedMatrix(L, StridedMatrix.Order.ROW_MAJOR).data();
+        final DenseMatrix X = new DenseMatrix(B);
+        TriangularSolver.solve(T, X.view().data(), B.nRows(), B.nCols(), true);
+
+        return X;
+    }
 }
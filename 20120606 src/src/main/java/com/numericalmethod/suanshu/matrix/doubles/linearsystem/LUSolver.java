@@ -25,6 +25,9 @@ package com.numericalmethod.suanshu.matrix.doubles.linearsystem;
 import com.numericalmethod.suanshu.datastructure.DimensionCheck;
 import com.numericalmethod.suanshu.matrix.MatrixSingularityException;
 import com.numericalmethod.suanshu.matrix.doubles.ImmutableMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.factorization.triangle.LU;
+import com.numericalmethod.suanshu.matrix.doubles.factorization.triangle.LUDecomposition;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.PermutationMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.triangle.LowerTriangularMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.triangle.UpperTriangularMatrix;
@@ -66,23 +69,77 @@ public class LUSolver {
         SuanShuUtils.assertArgument(DimensionCheck.isSquare(A), "A must be a square matrix");
 
         try {
-            com.numericalmethod.suanshu.matrix.doubles.factorization.triangle.LU luDecomp =
-                    new com.numericalmethod.suanshu.matrix.doubles.factorization.triangle.LU(A,
-                                                                                             0);
-            LowerTriangularMatrix L = luDecomp.L();
-            UpperTriangularMatrix U = luDecomp.U();
-            PermutationMatrix P = luDecomp.P();
+            LU luDecomp = new LU(A, 0);
+            return solve(luDecomp, b);
+        } catch (MatrixSingularityException ex) {
+            throw new LinearSystemSolver.NoSolution("no solution to this system of linear equations");
+        }
+    }
+
+    /**
+     * Solve <i>Ax = b</i>, reusing an LU decomposition of <i>A</i>.
+     * To solve for many right-hand sides against the same <i>A</i>,
+     * decompose <i>A</i> only once and call this method for each <i>b</i>,
+     * or use {@link #solve(LUDecomposition, Matrix)}.
+     *
+     * @param lu an LU decomposition of <i>A</i>
+     * @param b  a vector
+     * @return x a solution such that <i>Ax = b</i>
+     * @throws LinearSystemSolver.NoSolution if there is no solution to the system
+     */
+    public Vector solve(LUDecomposition lu, Vector b) {
+        final UpperTriangularMatrix U = lu.U();
+        checkSingularity(U);
+        return solve(lu.L(), U, lu.P(), b);
+    }
+
+    /**
+     * Solve <i>AX = B</i>, reusing an LU decomposition of <i>A</i>.
+     * Each column of <i>X</i> solves the system for the corresponding column of <i>B</i>.
+     *
+     * @param lu an LU decomposition of <i>A</i>
+     * @param B  a matrix of right-hand sides
+     * @return X a solution such that <i>AX = B</i>
+     * @throws LinearSystemSolver.NoSolution if there is no solution to the system
+     */
+    public Matrix solve(LUDecomposition lu, Matrix B) {
+        final LowerTriangularMatrix L = lu.L();
+        final UpperTriangularMatrix U = lu.U();
+        final PermutationMatrix P = lu.P();
+        SuanShuUtils.assertArgument(B.nRows() == L.nRows(), "B must have the same number of rows as A");
+        checkSingularity(U);
 
-            Vector bb = P.multiply(b);
-            ForwardSubstitution forward = new ForwardSubstitution();
-            Vector y = forward.solve(L, bb);
+        //solve for all columns at once
+        Matrix BB = P.multiply(B);
+        Matrix Y = new ForwardSubstitution().solve(L, BB);
+        Matrix X = new BackwardSubstitution().solve(U, Y);
 
-            BackwardSubstitution backward = new BackwardSubstitution();
-            Vector x = backward.solve(U, y);
+        return X;
+    }
 
-            return x;
-        } catch (MatrixSingularityException ex) {
-            throw new LinearSystemSolver.NoSolution("no solution to this system of linear equations");
+    /**
+     * Check that no pivot, i.e., no diagonal entry of <i>U</i>, is 0,
+     * as the decomposition in {@link #solve(LSProblem)} does with ε = 0.
+     *
+     * @param U the upper triangular factor
+     * @throws LinearSystemSolver.NoSolution if <i>A</i> is singular
+     */
+    private static void checkSingularity(UpperTriangularMatrix U) {
+        for (int i = 1; i <= U.nRows(); ++i) {
+            if (U.get(i, i) == 0) {
+                throw new LinearSystemSolver.NoSolution("no solution to this system of linear equations");
+            }
         }
     }
+
+    private Vector solve(LowerTriangularMatrix L, UpperTriangularMatrix U, PermutationMatrix P, Vector b) {
+        Vector bb = P.multiply(b);
+        ForwardSubstitution forward = new ForwardSubstitution();
+        Vector y = forward.solve(L, bb);
+
+        BackwardSubstitution backward = new BackwardSubstitution();
+        Vector x = backward.solve(U, y);
+
+        return x;
+    }
 }
@@ -22,16 +22,18 @@
  */
 package com.numericalmethod.suanshu.matrix.doubles.linearsystem;
 
+import com.numericalmethod.suanshu.matrix.MatrixSingularityException;
 import com.numericalmethod.suanshu.matrix.doubles.IsMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.Matrix;
 import com.numericalmethod.suanshu.matrix.doubles.factorization.svd.SVD;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.SparseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.direct.SparseLU;
 import com.numericalmethod.suanshu.misc.R;
 import com.numericalmethod.suanshu.misc.SuanShuUtils;
 import static com.numericalmethod.suanshu.number.DoubleUtils.compare;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
 import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
 import com.numericalmethod.suanshu.vector.doubles.dense.operation.CreateVector;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -64,8 +66,11 @@ import java.util.List;
  * solutions.
  * <li>Then, solve <i>Ax = b</i> for a particular solution.
  * </ol>
+ * The rank of <i>A</i> is always decided by the kernel computed from the QR
+ * decomposition, whatever the storage of <i>A</i> is.
  * If <i>A</i> has full rank, this implementation solves the system by LU
- * decomposition.
+ * decomposition. A square {@link SparseMatrix} is solved by the sparse LU
+ * decomposition instead.
  * Otherwise, a particular solution is found by <i>x = T * b</i>.
  * The final solution is:
  * <blockquote><i>x_particular + {x_null_space_of_A}</i></blockquote>
@@ -165,6 +170,7 @@ public class LinearSystemSolver {
             List<Vector> basis = nullspace.basis();//solution for the homogeneous part, Ax = 0
             Matrix T = nullspace.T();
             Matrix U = nullspace.U();
+            SparseLU sparseLU = isFullRank ? factorizeIfSparse(A) : null;//non-null iff A is a full rank square sparse matrix
 
             @Override
             public Vector getParticularSolution(final Vector b) {
@@ -176,7 +182,9 @@ public class LinearSystemSolver {
                 SuanShuUtils.assertArgument(A.nRows() == v.size(), "A's dimension must equal to b's length (after row reduction)");
 
                 Vector x;
-                if (isFullRank) {
+                if (sparseLU != null) {
+                    x = sparseLU.solve(v);
+                } else if (isFullRank) {
                     LUSolver impl = new LUSolver();
                     x = impl.solve(new LSProblem(A, v));
                 } else if (IsMatrix.zero(v, epsilon)) {//always consistent
@@ -221,4 +229,24 @@ public class LinearSystemSolver {
             }
         };
     }
+
+    /**
+     * Factorize a square sparse matrix of full rank by the sparse LU decomposition to compute the particular solutions.
+     * The rank is decided by {@link Kernel} before this is called.
+     *
+     * @param A a matrix of full rank
+     * @return the sparse LU decomposition, or {@code null} if <i>A</i> is not a square sparse matrix
+     * or if no pivot |x| &gt; ε is found
+     */
+    private SparseLU factorizeIfSparse(Matrix A) {
+        if (!(A instanceof SparseMatrix) || A.nRows() != A.nCols()) {
+            return null;
+        }
+
+        try {
+            return new SparseLU(null, A, SparseLU.DEFAULT_PIVOT_THRESHOLD, epsilon);
+        } catch (MatrixSingularityException ex) {// the dense LU decomposition is used instead
+            return null;
+        }
+    }
 }
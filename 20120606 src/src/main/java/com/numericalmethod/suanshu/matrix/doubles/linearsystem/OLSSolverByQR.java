@@ -25,10 +25,15 @@ package com.numericalmethod.suanshu.matrix.doubles.linearsystem;
 import com.numericalmethod.suanshu.matrix.doubles.ImmutableMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.Matrix;
 import com.numericalmethod.suanshu.matrix.doubles.factorization.qr.HouseholderReflection;
+import com.numericalmethod.suanshu.matrix.doubles.factorization.qr.TSQR;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.triangle.UpperTriangularMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.operation.CreateMatrix;
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
 import com.numericalmethod.suanshu.vector.doubles.ImmutableVector;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
 import com.numericalmethod.suanshu.vector.doubles.dense.operation.CreateVector;
+import java.util.Iterator;
 
 /**
  * This class solves an over-determined system of linear equations in the
@@ -103,4 +108,58 @@ public class OLSSolverByQR {//TODO: finish up this class; add javadoc, etc.
 
         return x;
     }
+
+    /**
+     * In the ordinary least square sense, solve
+     * <blockquote><i>Ax = y</i></blockquote>
+     * where the equations are given in blocks of rows.
+     * <i>y</i> is appended to <i>A</i> as the last column, and the blocks are factored by {@link TSQR},
+     * so that <i>A</i> is never held in memory as a whole.
+     * This is for a very tall <i>A</i>, e.g., in a regression on millions of observations.
+     *
+     * @param blocks the blocks of rows of a system of linear equations, e.g., read from a file
+     * @return a solution <i>x^</i> that minimizes
+     * <blockquote><i>|Ax - y|<sub>2</sub></i></blockquote>
+     * @throws IllegalArgumentException if there is no block, or if the blocks do not have the same number of columns
+     */
+    public Vector solve(final Iterator<? extends LSProblem> blocks) {
+        SuanShuUtils.assertArgument(blocks.hasNext(), "there must be at least one block");
+
+        LSProblem first = blocks.next();
+        final int n = first.A().nCols();
+        TSQR tsqr = new TSQR(n + 1, epsilon);
+        tsqr.add(augment(first));
+        tsqr.addAll(new Iterator<Matrix>() {
+
+            @Override
+            public boolean hasNext() {
+                return blocks.hasNext();
+            }
+
+            @Override
+            public Matrix next() {
+                return augment(blocks.next());
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        });
+
+        UpperTriangularMatrix Rb = tsqr.R();//(R Q'b)
+        UpperTriangularMatrix R = new UpperTriangularMatrix(CreateMatrix.subMatrix(Rb, 1, n, 1, n));
+        Vector b1 = CreateVector.subVector(Rb.getColumn(n + 1), 1, n);
+        BackwardSubstitution solver = new BackwardSubstitution();
+        Vector x = solver.solve(R, b1);
+
+        return x;
+    }
+
+    /**
+     * Append <i>b</i> to <i>A</i> as the last column.
+     */
+    private static Matrix augment(LSProblem problem) {
+        return CreateMatrix.cbind(problem.A(), new DenseMatrix(problem.b()));
+    }
 }
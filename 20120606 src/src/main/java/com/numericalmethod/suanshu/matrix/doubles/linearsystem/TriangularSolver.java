@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.linearsystem;
+
+import static com.numericalmethod.suanshu.number.DoubleUtils.isZero;
+import com.numericalmethod.suanshu.parallel.LoopBody;
+import com.numericalmethod.suanshu.parallel.MultipleExecutionException;
+import com.numericalmethod.suanshu.parallel.ParallelExecutor;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * This is the kernel for solving a triangular system with multiple right-hand sides, <i>TX = B</i>,
+ * shared by {@link ForwardSubstitution} and {@link BackwardSubstitution}.
+ * The columns of <i>B</i> are split into blocks, which are solved independently and in parallel for a big system.
+ * Within a block, each row of <i>X</i> is updated by a sequence of row operations on contiguous memory.
+ * The arithmetic on each column is exactly the same as that of the single-vector substitution.
+ */
+class TriangularSolver {
+
+    private static class ParallelExecutorInstanceHolder { // thread-safe lazy initialization idiom
+
+        private static final ParallelExecutor instance = new ParallelExecutor();
+    }
+    /** the number of columns in a block */
+    private static final int NB = 64;
+    /** the minimum amount of work, <i>n * n * m</i>, to parallelize */
+    private static final long PARALLEL_THRESHOLD = 128L * 128 * 128;
+
+    private TriangularSolver() {
+        // private constructor for utility class
+    }
+
+    /**
+     * Solve <i>TX = B</i> in place.
+     *
+     * @param T     the triangular matrix, row-major, <i>n x n</i>
+     * @param X     the right-hand sides, row-major, <i>n x m</i>; it is overwritten by the solution
+     * @param n     the dimension of <i>T</i>
+     * @param m     the number of right-hand sides
+     * @param lower {@code true} if <i>T</i> is lower triangular; {@code false} if upper triangular
+     * @throws LinearSystemSolver.NoSolution if there is no solution to the system
+     */
+    static void solve(final double[] T, final double[] X, final int n, final int m, final boolean lower) {
+        final int nBlocks = (m + NB - 1) / NB;
+
+        try {
+            ParallelExecutorInstanceHolder.instance.conditionalForLoop(
+                    nBlocks > 1 && (long) n * n * m >= PARALLEL_THRESHOLD,
+                    0, nBlocks,
+                    new LoopBody() {
+
+                        @Override
+                        public void run(int b) throws Exception {
+                            final int c0 = b * NB;
+                            final int c1 = Math.min(m, c0 + NB);
+                            if (lower) {
+                                forward(T, X, n, m, c0, c1);
+                            } else {
+                                backward(T, X, n, m, c0, c1);
+                            }
+                        }
+                    });
+        } catch (MultipleExecutionException ex) {
+            for (ExecutionException e : ex.getExceptions()) {
+                if (e.getCause() instanceof LinearSystemSolver.NoSolution) {
+                    throw (LinearSystemSolver.NoSolution) e.getCause();
+                }
+            }
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private static void forward(double[] L, double[] X, int n, int m, int c0, int c1) {
+        for (int i = 0; i < n; ++i) {
+            final int li = i * n;
+            final int xi = i * m;
+            for (int j = 0; j < i; ++j) {
+                final double lij = L[li + j];
+                final int xj = j * m;
+                for (int c = c0; c < c1; ++c) {
+                    X[xi + c] -= lij * X[xj + c]; //x[i] -= L[i,j] * x[j];
+                }
+            }
+
+            divide(L[li + i], X, xi, c0, c1);
+        }
+    }
+
+    private static void backward(double[] U, double[] X, int n, int m, int c0, int c1) {
+        for (int i = n - 1; i >= 0; --i) {
+            final int ui = i * n;
+            final int xi = i * m;
+            for (int j = i + 1; j < n; ++j) {
+                final double uij = U[ui + j];
+                final int xj = j * m;
+                for (int c = c0; c < c1; ++c) {
+                    X[xi + c] -= uij * X[xj + c]; //x[i] -= U[i,j] * x[j];
+                }
+            }
+
+            divide(U[ui + i], X, xi, c0, c1);
+        }
+    }
+
+    /**
+     * Divide a row of <i>X</i> by a diagonal entry.
+     * A 0 diagonal entry is allowed only if the system is consistent, i.e., the row is also 0.
+     */
+    private static void divide(double diagonal, double[] X, int xi, int c0, int c1) {
+        if (!isZero(diagonal, 0)) {
+            for (int c = c0; c < c1; ++c) {
+                X[xi + c] /= diagonal;
+            }
+        } else {
+            for (int c = c0; c < c1; ++c) {
+                if (!isZero(X[xi + c], 0)) {
+                    throw new LinearSystemSolver.NoSolution("no solution to this system of linear equations");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,508 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense;
+
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import com.numericalmethod.suanshu.parallel.LoopBody;
+import com.numericalmethod.suanshu.parallel.MultipleExecutionException;
+import com.numericalmethod.suanshu.parallel.ParallelCostModel;
+import com.numericalmethod.suanshu.parallel.ParallelExecutor;
+
+/**
+ * This is a cache-blocked, register-tiled implementation of the level-3 BLAS routine {@code dgemm}.
+ * It computes
+ * <blockquote><i>
+ * C = alpha * op(A) * op(B) + beta * C
+ * </i></blockquote>
+ * where <i>op(X)</i> is either <i>X</i> or <i>X'</i>.
+ * All matrices are stored in row-major {@code double[]} arrays, addressed by an offset and a leading dimension (the distance between two consecutive rows).
+ * <p/>
+ * The algorithm follows the GotoBLAS layering.
+ * The <i>k</i>-dimension is cut into panels of {@value #KC} so that a packed sliver of <i>op(B)</i> stays in the L1 cache;
+ * a {@value #MC} by {@value #KC} block of <i>op(A)</i> is packed to stay in the L2 cache.
+ * The packed blocks are multiplied by a {@value #MR} by {@value #NR} micro-kernel that keeps the partial sums in registers.
+ * Packing also takes care of the transposition so no transposed copy of an operand is ever allocated.
+ * <p/>
+ * For big problems, <i>C</i> is cut into {@value #MC} by {@value #NC} tiles which are computed in parallel.
+ * Each tile is written by exactly one thread, hence no synchronization is needed.
+ * @see
+ * <ul>
+ * <li>"Kazushige Goto, Robert A. van de Geijn, "Anatomy of high-performance matrix multiplication," ACM Transactions on Mathematical Software, 34(3), 2008."
+ * <li><a href="http://www.netlib.org/blas/dgemm.f">Netlib: dgemm</a>
+ * </ul>
+ */
+public class BlockedGEMM {
+
+    private static class ParallelExecutorInstanceHolder { // thread-safe lazy initialization idiom
+
+        private static final ParallelExecutor instance = new ParallelExecutor();
+    }
+
+    /** the number of rows in the register tile */
+    static final int MR = 4;
+    /** the number of columns in the register tile */
+    static final int NR = 4;
+    /** the number of rows in a packed block of <i>op(A)</i> */
+    static final int MC = 64;
+    /** the depth of a packed panel */
+    static final int KC = 256;
+    /** the number of columns in a packed panel of <i>op(B)</i> */
+    static final int NC = 128;
+    /** below this number of multiplications, we do not pay for packing */
+    private static final long PACKING_THRESHOLD = 24L * 24L * 24L;
+    /** per-thread packing buffers and the edge-tile accumulator, reused across calls */
+    private static final ThreadLocal<double[][]> buffers = new ThreadLocal<double[][]>() {
+
+        @Override
+        protected double[][] initialValue() {
+            return new double[][]{new double[MC * KC], new double[KC * NC], new double[MR * NR]};
+        }
+    };
+
+    private BlockedGEMM() {
+        // utility class has no constructor
+    }
+
+    /**
+     * Compute <i>C = A * B</i>, where all three matrices are dense row-major arrays.
+     *
+     * @param m the number of rows of <i>A</i> and <i>C</i>
+     * @param n the number of columns of <i>B</i> and <i>C</i>
+     * @param k the number of columns of <i>A</i> and rows of <i>B</i>
+     * @param A <i>A</i>, of length <i>m * k</i>
+     * @param B <i>B</i>, of length <i>k * n</i>
+     * @param C the output <i>C</i>, of length <i>m * n</i>
+     */
+    public static void multiply(int m, int n, int k, double[] A, double[] B, double[] C) {
+        gemm(false, false, m, n, k, 1., A, 0, k, B, 0, n, 0., C, 0, n);
+    }
+
+    /**
+     * Compute <i>C += alpha * A * B</i>, where all three matrices are dense row-major arrays.
+     *
+     * @param m     the number of rows of <i>A</i> and <i>C</i>
+     * @param n     the number of columns of <i>B</i> and <i>C</i>
+     * @param k     the number of columns of <i>A</i> and rows of <i>B</i>
+     * @param alpha the scaling constant of the product
+     * @param A     <i>A</i>, of length <i>m * k</i>
+     * @param B     <i>B</i>, of length <i>k * n</i>
+     * @param C     the accumulator <i>C</i>, of length <i>m * n</i>
+     */
+    public static void multiplyAndAdd(int m, int n, int k, double alpha, double[] A, double[] B, double[] C) {
+        gemm(false, false, m, n, k, alpha, A, 0, k, B, 0, n, 1., C, 0, n);
+    }
+
+    /**
+     * Compute <i>C = alpha * op(A) * op(B) + beta * C</i>.
+     * <i>op(A)</i> is <i>m x k</i>; <i>op(B)</i> is <i>k x n</i>; <i>C</i> is <i>m x n</i>.
+     * When {@code beta} is 0, the input content of <i>C</i> is ignored, even if it contains {@code NaN}.
+     *
+     * @param transA {@code true} if <i>op(A) = A'</i>, i.e., <i>A</i> is stored as a <i>k x m</i> matrix
+     * @param transB {@code true} if <i>op(B) = B'</i>, i.e., <i>B</i> is stored as an <i>n x k</i> matrix
+     * @param m      the number of rows of <i>op(A)</i> and <i>C</i>
+     * @param n      the number of columns of <i>op(B)</i> and <i>C</i>
+     * @param k      the number of columns of <i>op(A)</i> and rows of <i>op(B)</i>
+     * @param alpha  the scaling constant of the product
+     * @param A      the array storing <i>A</i>
+     * @param offA   the index of <i>A[1,1]</i> in {@code A}
+     * @param lda    the leading dimension of <i>A</i>, i.e., the distance between two consecutive stored rows
+     * @param B      the array storing <i>B</i>
+     * @param offB   the index of <i>B[1,1]</i> in {@code B}
+     * @param ldb    the leading dimension of <i>B</i>
+     * @param beta   the scaling constant of the input <i>C</i>
+     * @param C      the array storing <i>C</i>; it is overwritten by the result
+     * @param offC   the index of <i>C[1,1]</i> in {@code C}
+     * @param ldc    the leading dimension of <i>C</i>
+     */
+    public static void gemm(
+            final boolean transA, final boolean transB,
+            final int m, final int n, final int k,
+            final double alpha,
+            final double[] A, final int offA, final int lda,
+            final double[] B, final int offB, final int ldb,
+            double beta,
+            final double[] C, final int offC, final int ldc) {
+        SuanShuUtils.assertArgument(m >= 0 && n >= 0 && k >= 0, "the dimensions must be non-negative");
+        SuanShuUtils.assertArgument(ldc >= n, "ldc must be at least n");
+        SuanShuUtils.assertArgument(lda >= (transA ? m : k), "lda is too small");
+        SuanShuUtils.assertArgument(ldb >= (transB ? k : n), "ldb is too small");
+
+        if (m == 0 || n == 0) {
+            return;
+        }
+
+        scale(m, n, beta, C, offC, ldc);
+
+        if (k == 0 || alpha == 0.) {
+            return;
+        }
+
+        final long work = (long) m * n * k;
+        if (work < PACKING_THRESHOLD) {
+            naive(transA, transB, m, n, k, alpha, A, offA, lda, B, offB, ldb, C, offC, ldc);
+            return;
+        }
+
+        final int mTiles = (m + MC - 1) / MC;
+        final int nTiles = (n + NC - 1) / NC;
+        try {
+            ParallelExecutorInstanceHolder.instance.conditionalForLoop(
+                    mTiles * nTiles > 1 && ParallelCostModel.parallelize(ParallelCostModel.Operation.GEMM, work),
+                    0, mTiles * nTiles,
+                    new LoopBody() {
+
+                        @Override
+                        public void run(int tile) throws Exception {
+                            final int ic = (tile / nTiles) * MC;
+                            final int jc = (tile % nTiles) * NC;
+                            tile(transA, transB,
+                                 ic, Math.min(MC, m - ic),
+                                 jc, Math.min(NC, n - jc),
+                                 k, alpha,
+                                 A, offA, lda,
+                                 B, offB, ldb,
+                                 C, offC, ldc);
+                        }
+                    });
+        } catch (MultipleExecutionException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Compute the symmetric rank-<i>k</i> update (the level-3 BLAS routine {@code dsyrk})
+     * <blockquote><i>
+     * C = alpha * op(A) * op(A)' + beta * C
+     * </i></blockquote>
+     * where <i>op(A)</i> is <i>n x k</i>, and <i>C</i> is <i>n x n</i> and symmetric.
+     * Only the tiles that intersect the upper triangle of <i>C</i> are computed, which saves about half of the multiplications;
+     * the strictly lower triangle is then overwritten by the transpose of the upper triangle.
+     * For example, with {@code trans = true}, this computes the Gram matrix <i>A'A</i> of the columns of <i>A</i>.
+     *
+     * @param trans {@code true} if <i>op(A) = A'</i>, i.e., <i>A</i> is stored as a <i>k x n</i> matrix
+     * @param n     the number of rows and columns of <i>C</i>
+     * @param k     the number of columns of <i>op(A)</i>
+     * @param alpha the scaling constant of the product
+     * @param A     the array storing <i>A</i>
+     * @param offA  the index of <i>A[1,1]</i> in {@code A}
+     * @param lda   the leading dimension of <i>A</i>
+     * @param beta  the scaling constant of the input <i>C</i>; only its upper triangle is read
+     * @param C     the array storing <i>C</i>; it is overwritten by the result
+     * @param offC  the index of <i>C[1,1]</i> in {@code C}
+     * @param ldc   the leading dimension of <i>C</i>
+     */
+    public static void syrk(
+            final boolean trans,
+            final int n, final int k,
+            final double alpha,
+            final double[] A, final int offA, final int lda,
+            double beta,
+            final double[] C, final int offC, final int ldc) {
+        SuanShuUtils.assertArgument(n >= 0 && k >= 0, "the dimensions must be non-negative");
+        SuanShuUtils.assertArgument(ldc >= n, "ldc must be at least n");
+        SuanShuUtils.assertArgument(lda >= (trans ? n : k), "lda is too small");
+
+        if (n == 0) {
+            return;
+        }
+
+        scale(n, n, beta, C, offC, ldc);
+
+        if (k > 0 && alpha != 0.) {
+            final long work = (long) n * (n + 1) / 2 * k;
+            if (work < PACKING_THRESHOLD) {
+                naive(trans, !trans, n, n, k, alpha, A, offA, lda, A, offA, lda, C, offC, ldc);
+            } else {
+                //the tiles on or above the diagonal, i.e., those with a column beyond their first row
+                final int mTiles = (n + MC - 1) / MC;
+                final int nTiles = (n + NC - 1) / NC;
+                final int[] tiles = new int[mTiles * nTiles];
+                int nUpper = 0;
+                for (int tile = 0; tile < tiles.length; ++tile) {
+                    final int ic = (tile / nTiles) * MC;
+                    final int jc = (tile % nTiles) * NC;
+                    if (jc + NC > ic) {
+                        tiles[nUpper++] = tile;
+                    }
+                }
+
+                try {
+                    ParallelExecutorInstanceHolder.instance.conditionalForLoop(
+                            nUpper > 1 && ParallelCostModel.parallelize(ParallelCostModel.Operation.GEMM, work),
+                            0, nUpper,
+                            new LoopBody() {
+
+                                @Override
+                                public void run(int t) throws Exception {
+                                    final int ic = (tiles[t] / nTiles) * MC;
+                                    final int jc = (tiles[t] % nTiles) * NC;
+                                    tile(trans, !trans,
+                                         ic, Math.min(MC, n - ic),
+                                         jc, Math.min(NC, n - jc),
+                                         k, alpha,
+                                         A, offA, lda,
+                                         A, offA, lda,
+                                         C, offC, ldc);
+                                }
+                            });
+                } catch (MultipleExecutionException ex) {
+                    throw new RuntimeException(ex);
+                }
+            }
+        }
+
+        //mirror the upper triangle
+        for (int i = 1; i < n; ++i) {
+            for (int j = 0; j < i; ++j) {
+                C[offC + i * ldc + j] = C[offC + j * ldc + i];
+            }
+        }
+    }
+
+    /**
+     * Compute the <i>mc x nc</i> tile of <i>C</i> starting at <i>(ic, jc)</i> (0-based), looping over all the panels in the <i>k</i>-dimension.
+     */
+    private static void tile(
+            boolean transA, boolean transB,
+            int ic, int mc, int jc, int nc, int k, double alpha,
+            double[] A, int offA, int lda,
+            double[] B, int offB, int ldb,
+            double[] C, int offC, int ldc) {
+        double[][] buffer = buffers.get();
+        double[] packedA = buffer[0];
+        double[] packedB = buffer[1];
+        double[] edge = buffer[2];
+
+        for (int pc = 0; pc < k; pc += KC) {
+            final int kc = Math.min(KC, k - pc);
+
+            packB(transB, B, offB, ldb, pc, kc, jc, nc, packedB);
+            packA(transA, A, offA, lda, ic, mc, pc, kc, packedA);
+
+            for (int jr = 0; jr < nc; jr += NR) {
+                final int nr = Math.min(NR, nc - jr);
+                final int bIndex = jr * kc;
+                for (int ir = 0; ir < mc; ir += MR) {
+                    final int mr = Math.min(MR, mc - ir);
+                    kernel(kc, alpha,
+                           packedA, ir * kc,
+                           packedB, bIndex,
+                           C, offC + (ic + ir) * ldc + jc + jr, ldc,
+                           mr, nr, edge);
+                }
+            }
+        }
+    }
+
+    /**
+     * Pack the <i>mc x kc</i> block of <i>op(A)</i> starting at <i>(ic, pc)</i> into slivers of {@value #MR} rows.
+     * Within a sliver, the entries are stored column by column so that the micro-kernel reads them contiguously.
+     * The last sliver is padded with 0s.
+     */
+    private static void packA(boolean transA, double[] A, int offA, int lda, int ic, int mc, int pc, int kc, double[] packed) {
+        int index = 0;
+        for (int ir = 0; ir < mc; ir += MR) {
+            final int mr = Math.min(MR, mc - ir);
+            for (int p = 0; p < kc; ++p) {
+                int r = 0;
+                if (transA) {// op(A)[i, p] = A[p, i]
+                    final int base = offA + (pc + p) * lda + ic + ir;
+                    for (; r < mr; ++r) {
+                        packed[index++] = A[base + r];
+                    }
+                } else {// op(A)[i, p] = A[i, p]
+                    final int base = offA + (ic + ir) * lda + pc + p;
+                    for (; r < mr; ++r) {
+                        packed[index++] = A[base + r * lda];
+                    }
+                }
+                for (; r < MR; ++r) {
+                    packed[index++] = 0.;
+                }
+            }
+        }
+    }
+
+    /**
+     * Pack the <i>kc x nc</i> panel of <i>op(B)</i> starting at <i>(pc, jc)</i> into slivers of {@value #NR} columns.
+     * Within a sliver, the entries are stored row by row so that the micro-kernel reads them contiguously.
+     * The last sliver is padded with 0s.
+     */
+    private static void packB(boolean transB, double[] B, int offB, int ldb, int pc, int kc, int jc, int nc, double[] packed) {
+        int index = 0;
+        for (int jr = 0; jr < nc; jr += NR) {
+            final int nr = Math.min(NR, nc - jr);
+            for (int p = 0; p < kc; ++p) {
+                int c = 0;
+                if (transB) {// op(B)[p, j] = B[j, p]
+                    final int base = offB + (jc + jr) * ldb + pc + p;
+                    for (; c < nr; ++c) {
+                        packed[index++] = B[base + c * ldb];
+                    }
+                } else {// op(B)[p, j] = B[p, j]
+                    final int base = offB + (pc + p) * ldb + jc + jr;
+                    for (; c < nr; ++c) {
+                        packed[index++] = B[base + c];
+                    }
+                }
+                for (; c < NR; ++c) {
+                    packed[index++] = 0.;
+                }
+            }
+        }
+    }
+
+    /**
+     * The {@value #MR} by {@value #NR} micro-kernel.
+     * It accumulates a rank-<i>kc</i> update in 16 local variables, which the JIT keeps in registers,
+     * and adds the scaled result to the top-left <i>mr x nr</i> corner of the tile in <i>C</i>.
+     * An edge tile is copied through {@code edge}, an {@value #MR} by {@value #NR} scratch array.
+     */
+    private static void kernel(
+            int kc, double alpha,
+            double[] a, int aIndex,
+            double[] b, int bIndex,
+            double[] C, int cIndex, int ldc,
+            int mr, int nr, double[] edge) {
+        double c00 = 0., c01 = 0., c02 = 0., c03 = 0.;
+        double c10 = 0., c11 = 0., c12 = 0., c13 = 0.;
+        double c20 = 0., c21 = 0., c22 = 0., c23 = 0.;
+        double c30 = 0., c31 = 0., c32 = 0., c33 = 0.;
+
+        for (int p = 0; p < kc; ++p, aIndex += MR, bIndex += NR) {
+            final double a0 = a[aIndex];
+            final double a1 = a[aIndex + 1];
+            final double a2 = a[aIndex + 2];
+            final double a3 = a[aIndex + 3];
+            final double b0 = b[bIndex];
+            final double b1 = b[bIndex + 1];
+            final double b2 = b[bIndex + 2];
+            final double b3 = b[bIndex + 3];
+
+            c00 += a0 * b0;
+            c01 += a0 * b1;
+            c02 += a0 * b2;
+            c03 += a0 * b3;
+            c10 += a1 * b0;
+            c11 += a1 * b1;
+            c12 += a1 * b2;
+            c13 += a1 * b3;
+            c20 += a2 * b0;
+            c21 += a2 * b1;
+            c22 += a2 * b2;
+            c23 += a2 * b3;
+            c30 += a3 * b0;
+            c31 += a3 * b1;
+            c32 += a3 * b2;
+            c33 += a3 * b3;
+        }
+
+        if (mr == MR && nr == NR) {
+            C[cIndex] += alpha * c00;
+            C[cIndex + 1] += alpha * c01;
+            C[cIndex + 2] += alpha * c02;
+            C[cIndex + 3] += alpha * c03;
+            cIndex += ldc;
+            C[cIndex] += alpha * c10;
+            C[cIndex + 1] += alpha * c11;
+            C[cIndex + 2] += alpha * c12;
+            C[cIndex + 3] += alpha * c13;
+            cIndex += ldc;
+            C[cIndex] += alpha * c20;
+            C[cIndex + 1] += alpha * c21;
+            C[cIndex + 2] += alpha * c22;
+            C[cIndex + 3] += alpha * c23;
+            cIndex += ldc;
+            C[cIndex] += alpha * c30;
+            C[cIndex + 1] += alpha * c31;
+            C[cIndex + 2] += alpha * c32;
+            C[cIndex + 3] += alpha * c33;
+            return;
+        }
+
+        //an edge tile
+        edge[0] = c00;
+        edge[1] = c01;
+        edge[2] = c02;
+        edge[3] = c03;
+        edge[4] = c10;
+        edge[5] = c11;
+        edge[6] = c12;
+        edge[7] = c13;
+        edge[8] = c20;
+        edge[9] = c21;
+        edge[10] = c22;
+        edge[11] = c23;
+        edge[12] = c30;
+        edge[13] = c31;
+        edge[14] = c32;
+        edge[15] = c33;
+        for (int i = 0; i < mr; ++i, cIndex += ldc) {
+            for (int j = 0; j < nr; ++j) {
+                C[cIndex + j] += alpha * edge[i * NR + j];
+            }
+        }
+    }
+
+    /**
+     * The straightforward <i>i-j-k</i> loop for small matrices, for which packing costs more than it saves.
+     * Each entry of <i>C</i> is accumulated as a dot product over the inner loop in <i>k</i>.
+     */
+    private static void naive(
+            boolean transA, boolean transB,
+            int m, int n, int k, double alpha,
+            double[] A, int offA, int lda,
+            double[] B, int offB, int ldb,
+            double[] C, int offC, int ldc) {
+        final int aRowStride = transA ? 1 : lda;
+        final int aColStride = transA ? lda : 1;
+        final int bRowStride = transB ? 1 : ldb;
+        final int bColStride = transB ? ldb : 1;
+
+        for (int i = 0; i < m; ++i) {
+            final int cRow = offC + i * ldc;
+            for (int j = 0; j < n; ++j) {
+                double sum = 0.;
+                for (int p = 0, a = offA + i * aRowStride, b = offB + j * bColStride; p < k; ++p, a += aColStride, b += bRowStride) {
+                    sum += A[a] * B[b];
+                }
+                C[cRow + j] += alpha * sum;
+            }
+        }
+    }
+
+    /**
+     * Compute <i>C = beta * C</i>. When {@code beta} is 0, <i>C</i> is set to 0 regardless of its content.
+     */
+    private static void scale(int m, int n, double beta, double[] C, int offC, int ldc) {
+        if (beta == 1.) {
+            return;
+        }
+
+        for (int i = 0, row = offC; i < m; ++i, row += ldc) {
+            for (int j = row; j < row + n; ++j) {
+                C[j] = beta == 0. ? 0. : beta * C[j];
+            }
+        }
+    }
+}
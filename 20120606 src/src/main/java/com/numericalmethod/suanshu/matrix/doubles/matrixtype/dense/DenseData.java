@@ -25,10 +25,8 @@ package com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense;
 import com.numericalmethod.suanshu.DeepCopyable;
 import com.numericalmethod.suanshu.matrix.doubles.MatrixAccess;
 import com.numericalmethod.suanshu.number.DoubleUtils;
-import com.numericalmethod.suanshu.number.doublearray.CompositeDoubleArrayOperation;
+import com.numericalmethod.suanshu.number.doublearray.AdaptiveDoubleArrayOperation;
 import com.numericalmethod.suanshu.number.doublearray.DoubleArrayOperation;
-import com.numericalmethod.suanshu.number.doublearray.ParallelDoubleArrayOperation;
-import com.numericalmethod.suanshu.number.doublearray.SimpleDoubleArrayOperation;
 
 /**
  * This implementation of the storage of a dense matrix stores the data of a 2D matrix as an 1D array.
@@ -40,12 +38,7 @@ import com.numericalmethod.suanshu.number.doublearray.SimpleDoubleArrayOperation
 //In Java, an initialized data array (1D or 2D) seems to have all entries 0. We use this "assumption" to save an Arrays.fill.
 public abstract class DenseData implements MatrixAccess, DeepCopyable {
 
-    private static final int SIZE_THRESHOLD = 100 * 100;
-    private static final DoubleArrayOperation DEFAULT_OPERATION =
-            new CompositeDoubleArrayOperation(
-            SIZE_THRESHOLD,
-            new SimpleDoubleArrayOperation(),
-            new ParallelDoubleArrayOperation());
+    private static final DoubleArrayOperation DEFAULT_OPERATION = new AdaptiveDoubleArrayOperation();
     /** stores the values of matrix entries */
     private double[] data = null; //caller throws NullPointerException if data is not initialized
     private final DoubleArrayOperation doubleArrayOperation;
@@ -25,12 +25,14 @@ package com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense;
 import static com.numericalmethod.suanshu.datastructure.DimensionCheck.*;
 import com.numericalmethod.suanshu.matrix.MatrixAccessException;
 import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.MutableMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.mathoperation.MatrixMathOperation;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.mathoperation.SimpleMatrixMathOperation;
 import com.numericalmethod.suanshu.matrix.doubles.operation.MatrixUtils;
 import com.numericalmethod.suanshu.misc.SuanShuUtils;
 import com.numericalmethod.suanshu.parallel.LoopBody;
 import com.numericalmethod.suanshu.parallel.MultipleExecutionException;
+import com.numericalmethod.suanshu.parallel.ParallelCostModel;
 import com.numericalmethod.suanshu.parallel.ParallelExecutor;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
 import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
@@ -46,7 +48,7 @@ import java.util.Arrays;
  *
  * @author Haksun Li
  */
-public class DenseMatrix implements Matrix, Densifiable {
+public class DenseMatrix implements MutableMatrix, Densifiable {
 
     private static class ParallelExecutorInstanceHolder { // thread-safe lazy initialization idiom
 
@@ -112,8 +114,6 @@ public class DenseMatrix implements Matrix, Densifiable {
     //</editor-fold>
     private MyDenseDataImpl storage;
     private final MatrixMathOperation math = new SimpleMatrixMathOperation();
-    /** for parallel algorithm execution */
-    private static final int LENGTH_THRESHOLD = 100 * 100;
 
     //<editor-fold defaultstate="collapsed" desc="Ctors">
     /**
@@ -230,6 +230,17 @@ public class DenseMatrix implements Matrix, Densifiable {
         return new DenseMatrix(this);
     }
 
+    /**
+     * Get a view of this matrix that shares the same storage.
+     * Sub-blocks, rows, columns and the transpose of the view are computed without copying.
+     * Changing an entry of the view changes this matrix.
+     *
+     * @return a row-major view of this matrix
+     */
+    public StridedMatrix view() {
+        return new StridedMatrix(storage.asArray(), 0, nRows(), nCols(), nCols(), StridedMatrix.Order.ROW_MAJOR);
+    }
+
     @Override
     public int nRows() {
         return storage.nRows();
@@ -373,58 +384,19 @@ public class DenseMatrix implements Matrix, Densifiable {
     public Matrix multiply(Matrix that) {
         throwIfIncompatible4Multiplication(this, that);
 
+        if (that instanceof StridedMatrix) {
+            return view().multiply(that);
+        }
+
         if (!(that instanceof DenseMatrix)) {
             return math.multiply(this, that);
         }
 
-        final DenseMatrix other_t = ((DenseMatrix) that).t();//we transpose the multiplicand for easy indexing
-
         final double[] thisData = storage.asArray(); //for performance: avoid indirect access of the data array in the object
-        final double[] thatData = other_t.storage.asArray(); //for performance: avoid indirect access of the data array in the object
+        final double[] thatData = ((DenseMatrix) that).storage.asArray();
         final double[] resultData = new double[this.nRows() * that.nCols()];
 
-        final int nCols = nCols();
-        final int nThatCols = that.nCols();
-        /* original single-threaded algorithm */
-//        int m = 0;
-//        for (int i = 0; i < thisData.length; i += nCols) {//loop over rows of 'this'
-//            for (int j = 0; j < thatData.length; j += nCols) {//loop over cols of 'that'
-//                    /*
-//                 * dot product
-//                 * result[p][q] = Sum{this.row(p) * other.column(q)}
-//                 */
-//                double sum = 0.;
-//                for (int p = i, q = j; p < i + nCols; ++p, ++q) { //for performance: make p, q loop variables
-////                    sum += this.denseData.data[p] * other_t.denseData.data[q]; //slow
-//                    sum += thisData[p] * thatData[q];//TODO: to be parallelized
-//                }
-//
-//                resultData[m++] = sum;
-//            }
-//        }
-        try {
-            ParallelExecutorInstanceHolder.instance.conditionalForLoop(
-                    thisData.length >= LENGTH_THRESHOLD,
-                    0, thisData.length, nCols,
-                    new LoopBody() { //loop over rows of 'this'
-
-                        @Override
-                        public void run(int i) throws Exception {
-                            int resultIndex = i / nCols * nThatCols;
-                            final int rowLastIndex = i + nCols;
-                            for (int j = 0; j < thatData.length; j += nCols) {//loop over cols of 'that'
-                                double sum = 0.;
-                                for (int p = i, q = j; p < rowLastIndex; ++p, ++q) { //for performance: make p, q loop variables
-                                    sum += thisData[p] * thatData[q];
-                                }
-
-                                resultData[resultIndex++] = sum;
-                            }
-                        }
-                    });
-        } catch (MultipleExecutionException ex) {
-            throw new RuntimeException(ex);
-        }
+        BlockedGEMM.multiply(nRows(), that.nCols(), nCols(), thisData, thatData, resultData);
 
         DenseMatrix result = new DenseMatrix(resultData, nRows(), that.nCols());
         return result;
@@ -467,7 +439,7 @@ public class DenseMatrix implements Matrix, Densifiable {
 
         try {
             ParallelExecutorInstanceHolder.instance.conditionalForLoop(
-                    thisData.length >= LENGTH_THRESHOLD,
+                    ParallelCostModel.parallelize(ParallelCostModel.Operation.TRANSPOSE, thisData.length),
                     0, nRows, new LoopBody() {
 
                 @Override
@@ -508,7 +480,7 @@ public class DenseMatrix implements Matrix, Densifiable {
 //        }
         try {
             ParallelExecutorInstanceHolder.instance.conditionalForLoop(
-                    resultData.length >= LENGTH_THRESHOLD,
+                    ParallelCostModel.parallelize(ParallelCostModel.Operation.GEMV, thisData.length),
                     0, resultData.length, 1,
                     new LoopBody() {
 
@@ -539,6 +511,102 @@ public class DenseMatrix implements Matrix, Densifiable {
     public Matrix opposite() {
         return scaled(-1);
     }
+
+    @Override
+    public void addInPlace(Matrix that) {
+        throwIfDifferentDimension(this, that);
+
+        final double[] thisData = storage.asArray();
+        if (that instanceof DenseMatrix) {
+            final double[] thatData = ((DenseMatrix) that).storage.asArray();
+            for (int k = 0; k < thisData.length; ++k) {
+                thisData[k] += thatData[k];
+            }
+            return;
+        }
+
+        final int nRows = nRows();
+        final int nCols = nCols();
+        for (int i = 1, k = 0; i <= nRows; ++i) {
+            for (int j = 1; j <= nCols; ++j) {
+                thisData[k++] += that.get(i, j);
+            }
+        }
+    }
+
+    @Override
+    public void scaleInPlace(double c) {
+        final double[] thisData = storage.asArray();
+        for (int k = 0; k < thisData.length; ++k) {
+            thisData[k] *= c;
+        }
+    }
+
+    @Override
+    public void multiplyInto(Vector v, Vector out) {
+        throwIfIncompatible4Multiplication(this, v);
+        SuanShuUtils.assertArgument(out.size() == nRows(), "out must have length %d", nRows());
+        SuanShuUtils.assertArgument(out != v, "out must not be the same instance as v");
+
+        final int nRows = nRows();
+        final int nCols = nCols();
+        final double[] thisData = storage.asArray();
+        final double[] vData = v instanceof DenseVector ? ((DenseVector) v).asArray() : v.toArray();
+
+        if (out instanceof DenseVector) {
+            final double[] outData = ((DenseVector) out).asArray();
+            for (int i = 0, k = 0; i < nRows; ++i) {
+                double sum = 0.;
+                for (int j = 0; j < nCols; ++j) {
+                    sum += thisData[k++] * vData[j];
+                }
+                outData[i] = sum;
+            }
+            return;
+        }
+
+        for (int i = 0, k = 0; i < nRows; ++i) {
+            double sum = 0.;
+            for (int j = 0; j < nCols; ++j) {
+                sum += thisData[k++] * vData[j];
+            }
+            out.set(i + 1, sum);
+        }
+    }
+
+    @Override
+    public void rank1Update(double alpha, Vector x, Vector y) {
+        final int nRows = nRows();
+        final int nCols = nCols();
+        SuanShuUtils.assertArgument(x.size() == nRows, "x must have length %d", nRows);
+        SuanShuUtils.assertArgument(y.size() == nCols, "y must have length %d", nCols);
+
+        final double[] thisData = storage.asArray();
+        final double[] xData = x instanceof DenseVector ? ((DenseVector) x).asArray() : x.toArray();
+        final double[] yData = y instanceof DenseVector ? ((DenseVector) y).asArray() : y.toArray();
+        for (int i = 0, k = 0; i < nRows; ++i) {
+            for (int j = 0; j < nCols; ++j) {
+                thisData[k++] += xData[i] * yData[j] * alpha;
+            }
+        }
+    }
+
+    @Override
+    public void rank2Update(double alpha, Vector x, Vector y) {
+        final int n = nRows();
+        SuanShuUtils.assertArgument(n == nCols(), "the matrix must be square");
+        SuanShuUtils.assertArgument(x.size() == n, "x must have length %d", n);
+        SuanShuUtils.assertArgument(y.size() == n, "y must have length %d", n);
+
+        final double[] thisData = storage.asArray();
+        final double[] xData = x instanceof DenseVector ? ((DenseVector) x).asArray() : x.toArray();
+        final double[] yData = y instanceof DenseVector ? ((DenseVector) y).asArray() : y.toArray();
+        for (int i = 0, k = 0; i < n; ++i) {
+            for (int j = 0; j < n; ++j) {
+                thisData[k++] += (xData[i] * yData[j] + yData[i] * xData[j]) * alpha;
+            }
+        }
+    }
     //</editor-fold>
 
     @Override
@@ -0,0 +1,564 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense;
+
+import static com.numericalmethod.suanshu.datastructure.DimensionCheck.*;
+import com.numericalmethod.suanshu.matrix.MatrixAccessException;
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.MutableMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.operation.MatrixUtils;
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+
+/**
+ * This is a dense matrix that is a view of a {@code double[]} buffer, described by an offset and the strides between rows and columns.
+ * The entry <i>A[i,j]</i> is stored at
+ * <blockquote><code>
+ * data[offset + (i - 1) * rowStride + (j - 1) * colStride]
+ * </code></blockquote>
+ * A row-major matrix with leading dimension <i>ld</i> has {@code rowStride = ld, colStride = 1};
+ * a column-major matrix has {@code rowStride = 1, colStride = ld}.
+ * This is the same convention as the BLAS/LAPACK {@code lda}.
+ * <p/>
+ * The transpose, a row, a column, and a sub-block are all views of the same buffer.
+ * They are computed in <i>O(1)</i> without copying.
+ * Changing an entry of a view changes the underlying buffer, hence all other views of it, e.g., the {@link DenseMatrix} it is created from.
+ * Algorithms that work on panels of a matrix in place, e.g., Householder reflections, should use these views instead of copying out rows and columns.
+ * To get an independent copy, use {@link #deepCopy()} or {@link #toDense()}.
+ * @see DenseMatrix#view()
+ */
+public class StridedMatrix implements MutableMatrix, Densifiable {
+
+    /**
+     * the storage order of a newly allocated matrix
+     */
+    public static enum Order {
+
+        /**
+         * the entries in a row are contiguous, as in C and {@link DenseMatrix}
+         */
+        ROW_MAJOR,
+        /**
+         * the entries in a column are contiguous, as in FORTRAN and LAPACK
+         */
+        COLUMN_MAJOR
+    }
+    /** the buffer */
+    private final double[] data;
+    /** the index of <i>A[1,1]</i> in {@link #data} */
+    private final int offset;
+    private final int nRows;
+    private final int nCols;
+    /** the distance between <i>A[i,j]</i> and <i>A[i+1,j]</i> in {@link #data} */
+    private final int rowStride;
+    /** the distance between <i>A[i,j]</i> and <i>A[i,j+1]</i> in {@link #data} */
+    private final int colStride;
+
+    /**
+     * Construct a view of a buffer.
+     *
+     * @param data      the buffer; it is not copied
+     * @param offset    the index of <i>A[1,1]</i> in {@code data}
+     * @param nRows     the number of rows
+     * @param nCols     the number of columns
+     * @param rowStride the distance between two consecutive rows in {@code data}
+     * @param colStride the distance between two consecutive columns in {@code data}
+     * @throws IllegalArgumentException if the view extends beyond the buffer
+     */
+    public StridedMatrix(double[] data, int offset, int nRows, int nCols, int rowStride, int colStride) {
+        SuanShuUtils.assertArgument(nRows >= 0 && nCols >= 0, "the dimension must be non-negative");
+        SuanShuUtils.assertArgument(rowStride >= 0 && colStride >= 0, "the strides must be non-negative");
+        SuanShuUtils.assertArgument(
+                offset >= 0 && (nRows == 0 || nCols == 0 || offset + (nRows - 1) * rowStride + (nCols - 1) * colStride < data.length),
+                "the view exceeds the buffer length");
+
+        this.data = data;
+        this.offset = offset;
+        this.nRows = nRows;
+        this.nCols = nCols;
+        this.rowStride = rowStride;
+        this.colStride = colStride;
+    }
+
+    /**
+     * Construct a view of a buffer using a leading dimension, as in BLAS.
+     *
+     * @param data   the buffer; it is not copied
+     * @param offset the index of <i>A[1,1]</i> in {@code data}
+     * @param nRows  the number of rows
+     * @param nCols  the number of columns
+     * @param ld     the leading dimension, i.e., the distance between two consecutive rows (row-major) or columns (column-major)
+     * @param order  the storage order
+     */
+    public StridedMatrix(double[] data, int offset, int nRows, int nCols, int ld, Order order) {
+        this(data, offset, nRows, nCols,
+             order == Order.ROW_MAJOR ? ld : 1,
+             order == Order.ROW_MAJOR ? 1 : ld);
+    }
+
+    /**
+     * Construct a 0 matrix with freshly allocated, contiguous storage.
+     *
+     * @param nRows the number of rows
+     * @param nCols the number of columns
+     * @param order the storage order
+     */
+    public StridedMatrix(int nRows, int nCols, Order order) {
+        this(new double[nRows * nCols], 0, nRows, nCols, order == Order.ROW_MAJOR ? nCols : nRows, order);
+    }
+
+    /**
+     * Copy a matrix into freshly allocated, contiguous storage.
+     *
+     * @param A     a matrix
+     * @param order the storage order
+     */
+    public StridedMatrix(Matrix A, Order order) {
+        this(A.nRows(), A.nCols(), order);
+
+        if (A instanceof StridedMatrix) {
+            copy((StridedMatrix) A, this);
+        } else if (A instanceof DenseMatrix) {
+            copy(((DenseMatrix) A).view(), this);
+        } else {
+            for (int i = 1; i <= nRows; ++i) {
+                for (int j = 1; j <= nCols; ++j) {
+                    data[index(i, j)] = A.get(i, j);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy the entries of {@code from} into {@code to}, which have the same dimension.
+     *
+     * @param from the source
+     * @param to   the destination
+     */
+    private static void copy(StridedMatrix from, StridedMatrix to) {
+        for (int i = 0; i < to.nRows; ++i) {
+            int p = from.offset + i * from.rowStride;
+            int q = to.offset + i * to.rowStride;
+            for (int j = 0; j < to.nCols; ++j, p += from.colStride, q += to.colStride) {
+                to.data[q] = from.data[p];
+            }
+        }
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="the storage description">
+    /**
+     * Get the underlying buffer.
+     * Modifying the returned value modifies this matrix.
+     *
+     * @return the buffer
+     */
+    public double[] data() {
+        return data;
+    }
+
+    /**
+     * Get the index of <i>A[1,1]</i> in {@link #data()}.
+     *
+     * @return the offset
+     */
+    public int offset() {
+        return offset;
+    }
+
+    /**
+     * Get the distance between two consecutive rows in {@link #data()}.
+     *
+     * @return the row stride
+     */
+    public int rowStride() {
+        return rowStride;
+    }
+
+    /**
+     * Get the distance between two consecutive columns in {@link #data()}.
+     *
+     * @return the column stride
+     */
+    public int colStride() {
+        return colStride;
+    }
+
+    /**
+     * Check whether the entries of each row are contiguous in {@link #data()}.
+     *
+     * @return {@code true} if {@code colStride == 1}
+     */
+    public boolean isRowMajor() {
+        return colStride == 1 || nCols <= 1;
+    }
+
+    /**
+     * Check whether the entries of each column are contiguous in {@link #data()}.
+     *
+     * @return {@code true} if {@code rowStride == 1}
+     */
+    public boolean isColumnMajor() {
+        return rowStride == 1 || nRows <= 1;
+    }
+
+    /**
+     * Get the index of <i>A[i,j]</i> in {@link #data()}.
+     *
+     * @param i the row index, counting from 1
+     * @param j the column index, counting from 1
+     * @return the index of <i>A[i,j]</i> in the buffer
+     */
+    public int index(int i, int j) {
+        return offset + (i - 1) * rowStride + (j - 1) * colStride;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="the O(1) views">
+    /**
+     * Get a view of a sub-block, <i>A[rowFrom:rowTo, colFrom:colTo]</i>, inclusively.
+     *
+     * @param rowFrom the beginning row index
+     * @param rowTo   the ending row index
+     * @param colFrom the beginning column index
+     * @param colTo   the ending column index
+     * @return a view of the sub-block
+     * @throws MatrixAccessException if the indices are out of range
+     */
+    public StridedMatrix subMatrix(int rowFrom, int rowTo, int colFrom, int colTo) {
+        if (rowFrom < 1 || rowTo > nRows || colFrom < 1 || colTo > nCols
+                || rowFrom > rowTo + 1 || colFrom > colTo + 1) {
+            throw new MatrixAccessException(String.format(
+                    "invalid sub-matrix [%d:%d, %d:%d] of a %d x %d matrix",
+                    rowFrom, rowTo, colFrom, colTo, nRows, nCols));
+        }
+
+        return new StridedMatrix(data, index(rowFrom, colFrom),
+                                 rowTo - rowFrom + 1, colTo - colFrom + 1,
+                                 rowStride, colStride);
+    }
+
+    /**
+     * Get a view of the <i>i</i>-th row as a <i>1 x n</i> matrix.
+     *
+     * @param i the row index
+     * @return a view of the row
+     */
+    public StridedMatrix row(int i) {
+        return subMatrix(i, i, 1, nCols);
+    }
+
+    /**
+     * Get a view of the <i>j</i>-th column as an <i>n x 1</i> matrix.
+     *
+     * @param j the column index
+     * @return a view of the column
+     */
+    public StridedMatrix column(int j) {
+        return subMatrix(1, nRows, j, j);
+    }
+
+    /**
+     * Get the transpose as a view of the same buffer.
+     * No entry is copied.
+     *
+     * @return a view of <i>A'</i>
+     */
+    @Override
+    public StridedMatrix t() {
+        return new StridedMatrix(data, offset, nCols, nRows, colStride, rowStride);
+    }
+    //</editor-fold>
+
+    @Override
+    public int nRows() {
+        return nRows;
+    }
+
+    @Override
+    public int nCols() {
+        return nCols;
+    }
+
+    @Override
+    public void set(int i, int j, double value) throws MatrixAccessException {
+        throwIfInvalidIndex(i, j);
+        data[index(i, j)] = value;
+    }
+
+    @Override
+    public double get(int i, int j) throws MatrixAccessException {
+        throwIfInvalidIndex(i, j);
+        return data[index(i, j)];
+    }
+
+    private void throwIfInvalidIndex(int i, int j) {
+        if (i < 1 || i > nRows || j < 1 || j > nCols) {
+            throw new MatrixAccessException(String.format("invalid index [%d, %d] of a %d x %d matrix", i, j, nRows, nCols));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return a copy of the <i>i</i>-th row
+     */
+    @Override
+    public DenseVector getRow(int i) throws MatrixAccessException {
+        throwIfInvalidIndex(i, 1);
+        double[] result = new double[nCols];
+        for (int j = 0, p = index(i, 1); j < nCols; ++j, p += colStride) {
+            result[j] = data[p];
+        }
+        return new DenseVector(result);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return a copy of the <i>j</i>-th column
+     */
+    @Override
+    public DenseVector getColumn(int j) throws MatrixAccessException {
+        return t().getRow(j);
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="the math operations">
+    @Override
+    public Matrix add(Matrix that) {
+        StridedMatrix result = deepCopy();
+        result.addInPlace(that);
+        return result;
+    }
+
+    @Override
+    public Matrix minus(Matrix that) {
+        throwIfDifferentDimension(this, that);
+
+        StridedMatrix result = deepCopy();
+        for (int i = 1; i <= nRows; ++i) {
+            for (int j = 1; j <= nCols; ++j) {
+                result.data[result.index(i, j)] -= that.get(i, j);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * If {@code that} is a {@code StridedMatrix} or a {@link DenseMatrix},
+     * the product is computed by {@link BlockedGEMM} directly on the two buffers, whatever their storage orders are.
+     */
+    @Override
+    public Matrix multiply(Matrix that) {
+        throwIfIncompatible4Multiplication(this, that);
+
+        StridedMatrix B = null;
+        if (that instanceof StridedMatrix) {
+            B = (StridedMatrix) that;
+        } else if (that instanceof DenseMatrix) {
+            B = ((DenseMatrix) that).view();
+        }
+
+        final int m = nRows;
+        final int n = that.nCols();
+        final int k = nCols;
+
+        DenseMatrix result = new DenseMatrix(m, n);
+        if (B == null || !isBlasCompatible() || !B.isBlasCompatible()) {
+            for (int i = 1; i <= m; ++i) {
+                for (int j = 1; j <= n; ++j) {
+                    double sum = 0;
+                    for (int p = 1; p <= k; ++p) {
+                        sum += get(i, p) * that.get(p, j);
+                    }
+                    result.set(i, j, sum);
+                }
+            }
+            return result;
+        }
+
+        BlockedGEMM.gemm(
+                !isRowMajor(), !B.isRowMajor(), m, n, k,
+                1., data, offset, leadingDimension(),
+                B.data, B.offset, B.leadingDimension(),
+                0., result.view().data, 0, n);
+        return result;
+    }
+
+    /**
+     * Check whether this view can be passed to a BLAS-style kernel,
+     * i.e., whether either the rows or the columns are contiguous and do not overlap.
+     *
+     * @return {@code true} if this view has a valid leading dimension
+     */
+    private boolean isBlasCompatible() {
+        if (isRowMajor()) {
+            return leadingDimension() >= nCols;
+        }
+        return isColumnMajor() && leadingDimension() >= nRows;
+    }
+
+    /**
+     * Get the leading dimension for a BLAS-style kernel.
+     * This is valid only if {@link #isBlasCompatible()}.
+     *
+     * @return the leading dimension
+     */
+    private int leadingDimension() {
+        if (isRowMajor()) {
+            return nRows > 1 ? rowStride : nCols;
+        }
+        return nCols > 1 ? colStride : nRows;
+    }
+
+    @Override
+    public Vector multiply(Vector v) {
+        throwIfIncompatible4Multiplication(this, v);
+
+        DenseVector result = new DenseVector(nRows);
+        multiplyInto(v, result);
+        return result;
+    }
+
+    @Override
+    public StridedMatrix scaled(double c) {
+        StridedMatrix result = deepCopy();
+        result.scaleInPlace(c);
+        return result;
+    }
+
+    @Override
+    public Matrix opposite() {
+        return scaled(-1);
+    }
+
+    @Override
+    public StridedMatrix ZERO() {
+        return new StridedMatrix(nRows, nCols, isColumnMajor() && !isRowMajor() ? Order.COLUMN_MAJOR : Order.ROW_MAJOR);
+    }
+
+    @Override
+    public StridedMatrix ONE() {
+        StridedMatrix result = ZERO();
+        for (int i = 1; i <= Math.min(nRows, nCols); ++i) {
+            result.set(i, i, 1);
+        }
+        return result;
+    }
+
+    @Override
+    public void addInPlace(Matrix that) {
+        throwIfDifferentDimension(this, that);
+
+        for (int i = 1; i <= nRows; ++i) {
+            int p = index(i, 1);
+            for (int j = 1; j <= nCols; ++j, p += colStride) {
+                data[p] += that.get(i, j);
+            }
+        }
+    }
+
+    @Override
+    public void scaleInPlace(double c) {
+        for (int i = 0; i < nRows; ++i) {
+            int p = offset + i * rowStride;
+            for (int j = 0; j < nCols; ++j, p += colStride) {
+                data[p] *= c;
+            }
+        }
+    }
+
+    @Override
+    public void multiplyInto(Vector v, Vector out) {
+        throwIfIncompatible4Multiplication(this, v);
+        SuanShuUtils.assertArgument(out.size() == nRows, "out must have length %d", nRows);
+        SuanShuUtils.assertArgument(out != v, "out must not be the same instance as v");
+
+        final double[] x = v instanceof DenseVector ? ((DenseVector) v).asArray() : v.toArray();
+        for (int i = 0; i < nRows; ++i) {
+            double sum = 0.;
+            int p = offset + i * rowStride;
+            for (int j = 0; j < nCols; ++j, p += colStride) {
+                sum += data[p] * x[j];
+            }
+            out.set(i + 1, sum);
+        }
+    }
+
+    @Override
+    public void rank1Update(double alpha, Vector x, Vector y) {
+        SuanShuUtils.assertArgument(x.size() == nRows, "x must have length %d", nRows);
+        SuanShuUtils.assertArgument(y.size() == nCols, "y must have length %d", nCols);
+
+        final double[] xData = x instanceof DenseVector ? ((DenseVector) x).asArray() : x.toArray();
+        final double[] yData = y instanceof DenseVector ? ((DenseVector) y).asArray() : y.toArray();
+        for (int i = 0; i < nRows; ++i) {
+            int p = offset + i * rowStride;
+            for (int j = 0; j < nCols; ++j, p += colStride) {
+                data[p] += xData[i] * yData[j] * alpha;
+            }
+        }
+    }
+
+    @Override
+    public void rank2Update(double alpha, Vector x, Vector y) {
+        SuanShuUtils.assertArgument(nRows == nCols, "the matrix must be square");
+        SuanShuUtils.assertArgument(x.size() == nRows, "x must have length %d", nRows);
+        SuanShuUtils.assertArgument(y.size() == nRows, "y must have length %d", nRows);
+
+        final double[] xData = x instanceof DenseVector ? ((DenseVector) x).asArray() : x.toArray();
+        final double[] yData = y instanceof DenseVector ? ((DenseVector) y).asArray() : y.toArray();
+        for (int i = 0; i < nRows; ++i) {
+            int p = offset + i * rowStride;
+            for (int j = 0; j < nCols; ++j, p += colStride) {
+                data[p] += (xData[i] * yData[j] + yData[i] * xData[j]) * alpha;
+            }
+        }
+    }
+    //</editor-fold>
+
+    /**
+     * Copy the entries into freshly allocated, contiguous storage of the same storage order.
+     *
+     * @return an independent copy
+     */
+    @Override
+    public StridedMatrix deepCopy() {
+        StridedMatrix result = ZERO();
+        copy(this, result);
+        return result;
+    }
+
+    @Override
+    public DenseMatrix toDense() {
+        DenseMatrix result = new DenseMatrix(nRows, nCols);
+        copy(this, result.view());
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return MatrixUtils.toString(this);
+    }
+}
@@ -25,16 +25,20 @@ package com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse;
 import static com.numericalmethod.suanshu.datastructure.DimensionCheck.*;
 import com.numericalmethod.suanshu.matrix.MatrixAccessException;
 import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.MutableMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.mathoperation.MatrixMathOperation;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.mathoperation.SimpleMatrixMathOperation;
 import com.numericalmethod.suanshu.misc.R;
 import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import com.numericalmethod.suanshu.parallel.LoopBody;
+import com.numericalmethod.suanshu.parallel.MultipleExecutionException;
+import com.numericalmethod.suanshu.parallel.ParallelCostModel;
+import com.numericalmethod.suanshu.parallel.ParallelExecutor;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
 import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 
 /**
@@ -63,13 +67,17 @@ import java.util.List;
  * <p/>
  * This format is very inefficient for incremental construction or changes using {@link #set(int, int, double)},
  * but efficient for matrix computation.
+ * Matrix-vector products are computed directly on the raw arrays, and the rows are partitioned by their numbers of
+ * non-zeros among the available processors when the matrix is big enough.
+ * The transpose (equivalently, the Compressed Sparse Column (CSC) format of this matrix) is computed on demand for column
+ * access and cached until this matrix is modified.
  *
  * @author Ken Yiu
  * @see <a
  * href="http://en.wikipedia.org/wiki/Sparse_matrix#Compressed_sparse_row_.28CSR_or_CRS.29">
  * Wikipedia: Compressed sparse row (CSR or CRS)</a>
  */
-public class CSRSparseMatrix implements SparseMatrix {
+public class CSRSparseMatrix implements SparseMatrix, MutableMatrix {
 
     /** number of non-zeros */
     private int nnz = 0;
@@ -80,6 +88,15 @@ public class CSRSparseMatrix implements SparseMatrix {
     private final int nRows;
     private final int nCols;
     private final MatrixMathOperation math = new SimpleMatrixMathOperation();
+    /** the cached transpose, i.e., the CSC format of this matrix; {@code null} if not yet computed or out-dated */
+    private volatile CSRSparseMatrix transposeCache = null;
+
+    private static class ParallelExecutorInstanceHolder { // thread-safe lazy initialization idiom
+
+        private static final ParallelExecutor instance = new ParallelExecutor();
+    }
+    /** the number of row partitions per processor in a parallel matrix-vector product */
+    private static final int PARTITIONS_PER_PROCESSOR = 4;
 
     /**
      * Construct a sparse matrix in CSR format.
@@ -134,33 +151,42 @@ public class CSRSparseMatrix implements SparseMatrix {
 
     /**
      * Construct a sparse matrix in CSR format by a list of non-zero entries.
+     * The values of duplicated entries are summed up.
      *
      * @param nRows   the number of rows
      * @param nCols   the number of columns
      * @param entries the list of entries
+     * @see CSRSparseMatrixBuilder
      */
     public CSRSparseMatrix(int nRows, int nCols, List<SparseEntry> entries) {
-        this(nRows, nCols);
-        Collections.sort(entries, SparseEntry.TopLeftFirstComparator.INSTANCE);
+        this(toCSR(nRows, nCols, entries));
+    }
 
-        this.nnz = entries.size();
-        this.value = new double[nnz];
-        this.col_ind = new int[nnz];
+    /**
+     * Construct a sparse matrix in CSR format directly from its arrays without copying.
+     *
+     * @param nRows   the number of rows
+     * @param nCols   the number of columns
+     * @param nnz     the number of non-zeros
+     * @param row_ptr the row pointers
+     * @param col_ind the column indices, sorted within each row
+     * @param value   the non-zero values
+     */
+    CSRSparseMatrix(int nRows, int nCols, int nnz, int[] row_ptr, int[] col_ind, double[] value) {
+        this.nRows = nRows;
+        this.nCols = nCols;
+        this.nnz = nnz;
+        this.row_ptr = row_ptr;
+        this.col_ind = col_ind;
+        this.value = value;
+    }
 
-        int[] rowCounts = new int[nRows + 1];
-        int valueIndex = 0;
+    private static CSRSparseMatrix toCSR(int nRows, int nCols, List<SparseEntry> entries) {
+        CSRSparseMatrixBuilder builder = new CSRSparseMatrixBuilder(nRows, nCols, entries.size());
         for (SparseEntry entry : entries) {
-            Coordinates coord = entry.coordinates;
-            if (coord.i < 1 || coord.i > nRows || coord.j < 1 || coord.j > nCols) {
-                throw new IllegalArgumentException("out-of-range element coordinates");
-            }
-            this.value[valueIndex] = entry.value;
-            this.col_ind[valueIndex] = entry.coordinates.j;
-            valueIndex++;
-            rowCounts[entry.coordinates.i]++; // count elements at row i
+            builder.add(entry.coordinates.i, entry.coordinates.j, entry.value);
         }
-
-        this.row_ptr = R.cumsum(rowCounts);
+        return builder.build();
     }
 
     /**
@@ -204,15 +230,10 @@ public class CSRSparseMatrix implements SparseMatrix {
         throwIfInvalidRow(this, row);
         throwIfInvalidColumn(this, col);
 
-        int rowPointerBegin = row_ptr[row - 1]; // row index starts from 1
-        int rowPointerEnd = row_ptr[row];
-        int j = 0;
-        for (j = rowPointerBegin; j < rowPointerEnd; ++j) {
-            if (col_ind[j] >= col) {
-                break;
-            }
-        }
-        if (j != rowPointerEnd && col_ind[j] == col) { // the non-zero entry exists at index j
+        transposeCache = null;
+
+        int j = Arrays.binarySearch(col_ind, row_ptr[row - 1], row_ptr[row], col); // row index starts from 1
+        if (j >= 0) { // the non-zero entry exists at index j
             if (value != 0) {
                 this.value[j] = value;
             } else {
@@ -234,6 +255,7 @@ public class CSRSparseMatrix implements SparseMatrix {
                 nnz--;
             }
         } else { // no such non-zero entry
+            j = -(j + 1); // the insertion point
             // insert the new value at index j
             double[] oldValues = this.value;
             this.value = new double[oldValues.length + 1];
@@ -260,15 +282,8 @@ public class CSRSparseMatrix implements SparseMatrix {
         throwIfInvalidRow(this, i);
         throwIfInvalidColumn(this, j);
 
-        int rowPointerBegin = row_ptr[i - 1];
-        int rowPointerEnd = row_ptr[i];
-        int k = 0;
-        for (k = rowPointerBegin; k < rowPointerEnd; ++k) {
-            if (col_ind[k] == j) {
-                break;
-            }
-        }
-        return k == rowPointerEnd ? 0 : value[k];
+        int k = Arrays.binarySearch(col_ind, row_ptr[i - 1], row_ptr[i], j); // the column indices in a row are sorted
+        return k < 0 ? 0 : value[k];
     }
 
     @Override
@@ -287,16 +302,7 @@ public class CSRSparseMatrix implements SparseMatrix {
     public SparseVector getColumn(int j) throws MatrixAccessException {
         throwIfInvalidColumn(this, j);
 
-        SparseVector col = new SparseVector(nRows);
-        for (int p = 1; p <= nRows; ++p) {
-            for (int q = row_ptr[p - 1]; q < row_ptr[p]; ++q) {
-                if (col_ind[q] == j) {
-                    col.set(p, value[q]);
-                }
-            }
-        }
-
-        return col;
+        return transpose().getRow(j);
     }
 
     @Override
@@ -352,7 +358,10 @@ public class CSRSparseMatrix implements SparseMatrix {
     }
 
     private void sortColumnIndices() {
-        this.t().t();
+        CSRSparseMatrix sorted = this.t().t(); // transposing twice sorts the column indices in each row
+        this.row_ptr = sorted.row_ptr;
+        this.col_ind = sorted.col_ind;
+        this.value = sorted.value;
     }
 
     @Override
@@ -420,14 +429,16 @@ public class CSRSparseMatrix implements SparseMatrix {
     public Vector multiply(Vector v) {
         throwIfIncompatible4Multiplication(this, v);
 
-        Vector Av = (v instanceof SparseVector)
-                    ? new SparseVector(nRows)
-                    : new DenseVector(nRows);
-
-        for (int i = 1; i <= nRows; ++i) {
-            Av.set(i, this.getRow(i).innerProduct(v));
+        if (v instanceof SparseVector) {
+            Vector Av = new SparseVector(nRows);
+            for (int i = 1; i <= nRows; ++i) {
+                Av.set(i, this.getRow(i).innerProduct(v));
+            }
+            return Av;
         }
 
+        DenseVector Av = new DenseVector(nRows);
+        multiplyInto(v, Av);
         return Av;
     }
 
@@ -444,6 +455,195 @@ public class CSRSparseMatrix implements SparseMatrix {
         return cA;
     }
 
+    /**
+     * {@inheritDoc}
+     * If {@code that} is a {@code CSRSparseMatrix} with the same sparsity pattern, the non-zero values are added directly.
+     * Otherwise, the sum is computed as in {@link #add(Matrix)} and its storage replaces that of {@code this}.
+     */
+    @Override
+    public void addInPlace(Matrix that) {
+        throwIfDifferentDimension(this, that);
+        transposeCache = null;
+
+        if (that instanceof CSRSparseMatrix) {
+            CSRSparseMatrix other = (CSRSparseMatrix) that;
+            if (Arrays.equals(this.row_ptr, other.row_ptr) && Arrays.equals(this.col_ind, other.col_ind)) {
+                for (int k = 0; k < nnz; ++k) {
+                    this.value[k] += other.value[k];
+                }
+                return;
+            }
+
+            CSRSparseMatrix sum = add(other, +1);
+            this.nnz = sum.nnz;
+            this.row_ptr = sum.row_ptr;
+            this.col_ind = sum.col_ind;
+            this.value = sum.value;
+            return;
+        }
+
+        for (int i = 1; i <= nRows; ++i) {
+            for (int j = 1; j <= nCols; ++j) {
+                double x = that.get(i, j);
+                if (Double.compare(0., x) != 0) {
+                    set(i, j, get(i, j) + x);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void scaleInPlace(double c) {
+        transposeCache = null;
+
+        if (Double.compare(0., c) == 0) {
+            this.nnz = 0;
+            this.value = new double[0];
+            this.col_ind = new int[0];
+            this.row_ptr = new int[nRows + 1];
+            return;
+        }
+
+        for (int k = 0; k < nnz; ++k) {
+            value[k] *= c;
+        }
+    }
+
+    @Override
+    public void multiplyInto(Vector v, Vector out) {
+        throwIfIncompatible4Multiplication(this, v);
+        SuanShuUtils.assertArgument(out.size() == nRows, "out must have length %d", nRows);
+        SuanShuUtils.assertArgument(out != v, "out must not be the same instance as v");
+
+        final double[] x = v instanceof DenseVector ? ((DenseVector) v).asArray() : v.toArray();
+        final double[] y = out instanceof DenseVector ? ((DenseVector) out).asArray() : new double[nRows];
+        if (!ParallelCostModel.parallelize(ParallelCostModel.Operation.SPMV, nnz)) {
+            multiplyRows(x, y, 0, nRows);
+        } else {
+            final int[] from = SparseMatrixUtils.partition(
+                    row_ptr, nRows, PARTITIONS_PER_PROCESSOR * Runtime.getRuntime().availableProcessors());
+            try {
+                ParallelExecutorInstanceHolder.instance.forLoop(
+                        0, from.length - 1,
+                        new LoopBody() {
+
+                            @Override
+                            public void run(int p) throws Exception {
+                                multiplyRows(x, y, from[p], from[p + 1]);
+                            }
+                        });
+            } catch (MultipleExecutionException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+
+        if (!(out instanceof DenseVector)) {
+            for (int i = 0; i < nRows; ++i) {
+                out.set(i + 1, y[i]);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Only the entries where both {@code x[i]} and {@code y[j]} are non-zero are touched;
+     * an entry outside the current sparsity pattern is inserted.
+     */
+    @Override
+    public void rank1Update(double alpha, Vector x, Vector y) {
+        SuanShuUtils.assertArgument(x.size() == nRows, "x must have length %d", nRows);
+        SuanShuUtils.assertArgument(y.size() == nCols, "y must have length %d", nCols);
+        transposeCache = null;
+
+        if (Double.compare(0., alpha) == 0) {
+            return;
+        }
+
+        final double[] xData = x instanceof DenseVector ? ((DenseVector) x).asArray() : x.toArray();
+        final double[] yData = y instanceof DenseVector ? ((DenseVector) y).asArray() : y.toArray();
+        for (int i = 1; i <= nRows; ++i) {
+            if (xData[i - 1] == 0.) {
+                continue;
+            }
+            for (int j = 1; j <= nCols; ++j) {
+                if (yData[j - 1] != 0.) {
+                    set(i, j, get(i, j) + xData[i - 1] * yData[j - 1] * alpha);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Only the entries where the update is non-zero are touched;
+     * an entry outside the current sparsity pattern is inserted.
+     */
+    @Override
+    public void rank2Update(double alpha, Vector x, Vector y) {
+        SuanShuUtils.assertArgument(nRows == nCols, "the matrix must be square");
+        SuanShuUtils.assertArgument(x.size() == nRows, "x must have length %d", nRows);
+        SuanShuUtils.assertArgument(y.size() == nRows, "y must have length %d", nRows);
+        transposeCache = null;
+
+        if (Double.compare(0., alpha) == 0) {
+            return;
+        }
+
+        final double[] xData = x instanceof DenseVector ? ((DenseVector) x).asArray() : x.toArray();
+        final double[] yData = y instanceof DenseVector ? ((DenseVector) y).asArray() : y.toArray();
+        for (int i = 1; i <= nRows; ++i) {
+            for (int j = 1; j <= nCols; ++j) {
+                double update = (xData[i - 1] * yData[j - 1] + yData[i - 1] * xData[j - 1]) * alpha;
+                if (update != 0.) {//also skips -0.0, which set() would insert
+                    set(i, j, get(i, j) + update);
+                }
+            }
+        }
+    }
+
+        /**
+     * Compute <i>t(A) * v</i> and store the result in {@code out}, without allocating any new vector.
+     * The transpose of this matrix is computed once and cached until this matrix is modified.
+     *
+     * @param v   a vector
+     * @param out the output vector of length {@link #nCols()}; must not be {@code v}
+     */
+    public void transposeMultiplyInto(Vector v, Vector out) {
+        transpose().multiplyInto(v, out);
+    }
+
+    /**
+     * Compute the rows {@code [begin, end)} (0-based) of <i>A * x</i>.
+     *
+     * @param x     the vector
+     * @param y     the product
+     * @param begin the first row
+     * @param end   the row after the last row
+     */
+    private void multiplyRows(double[] x, double[] y, int begin, int end) {
+        for (int i = begin; i < end; ++i) {
+            double sum = 0.;
+            for (int k = row_ptr[i]; k < row_ptr[i + 1]; ++k) {
+                sum += value[k] * x[col_ind[k] - 1];
+            }
+            y[i] = sum;
+        }
+    }
+
+    /**
+     * Get the cached transpose, computing it if necessary.
+     *
+     * @return the transpose of this matrix; must not be modified
+     */
+    private CSRSparseMatrix transpose() {
+        CSRSparseMatrix At = transposeCache;
+        if (At == null) {
+            At = t();
+            transposeCache = At;
+        }
+        return At;
+    }
+
     @Override
     public CSRSparseMatrix opposite() {
         return scaled(-1);
@@ -474,6 +674,7 @@ public class CSRSparseMatrix implements SparseMatrix {
             }
         }
 
+        result.nnz = nnz;
         result.value = resultValues;
         result.col_ind = resultColumns;
         return result;
@@ -665,6 +866,8 @@ public class CSRSparseMatrix implements SparseMatrix {
     }
 
     private void keepEntries(CheckForKeptValue check) {
+        transposeCache = null;
+
         int nz = 0;
         for (int i = 0; i < nRows; ++i) {
             int p = row_ptr[i];
@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse;
+
+import com.numericalmethod.suanshu.parallel.LoopBody;
+import com.numericalmethod.suanshu.parallel.MultipleExecutionException;
+import com.numericalmethod.suanshu.parallel.ParallelExecutor;
+import java.util.Arrays;
+
+/**
+ * This builder assembles a {@link CSRSparseMatrix} from a coordinate list (COO), also known as triplets
+ * {@code (row, column, value)}.
+ * The triplets are appended to primitive arrays in any order, so adding an entry takes amortized constant time.
+ * Duplicated entries are summed up, as is required in, e.g., finite element assembly.
+ * {@link #build()} converts the triplets to the CSR format in <i>O(nnz)</i> time, except for sorting the
+ * column indices within each row, by a counting sort on the row indices.
+ * The rows are then sorted and compressed in parallel when there are many entries.
+ * Entries that sum up to zero are not stored.
+ * For example,
+ * <blockquote><pre><code>
+ * CSRSparseMatrixBuilder builder = new CSRSparseMatrixBuilder(3, 3);
+ * builder.add(1, 1, 1.).add(2, 3, 2.).add(1, 1, 3.); // A(1, 1) = 4
+ * CSRSparseMatrix A = builder.build();
+ * </code></pre></blockquote>
+ * @see <a href="http://en.wikipedia.org/wiki/Sparse_matrix#Coordinate_list_.28COO.29">Wikipedia: Coordinate list (COO)</a>
+ */
+public class CSRSparseMatrixBuilder {
+
+    private static class ParallelExecutorInstanceHolder { // thread-safe lazy initialization idiom
+
+        private static final ParallelExecutor instance = new ParallelExecutor();
+    }
+    /** the minimum number of entries to sort the rows in parallel */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    /** the number of row partitions per processor */
+    private static final int PARTITIONS_PER_PROCESSOR = 4;
+    /** the maximum length of a row to be sorted by insertion sort */
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+    private final int nRows;
+    private final int nCols;
+    /** the number of entries added */
+    private int size = 0;
+    private int[] rowIndices;
+    private int[] columnIndices;
+    private double[] values;
+
+    /**
+     * Construct a builder for an {@code nRows x nCols} sparse matrix.
+     *
+     * @param nRows           the number of rows
+     * @param nCols           the number of columns
+     * @param initialCapacity the expected number of entries
+     */
+    public CSRSparseMatrixBuilder(int nRows, int nCols, int initialCapacity) {
+        this.nRows = nRows;
+        this.nCols = nCols;
+        this.rowIndices = new int[initialCapacity];
+        this.columnIndices = new int[initialCapacity];
+        this.values = new double[initialCapacity];
+    }
+
+    /**
+     * Construct a builder for an {@code nRows x nCols} sparse matrix.
+     *
+     * @param nRows the number of rows
+     * @param nCols the number of columns
+     */
+    public CSRSparseMatrixBuilder(int nRows, int nCols) {
+        this(nRows, nCols, 16);
+    }
+
+    /**
+     * Add {@code value} to the entry at {@code (row, col)}.
+     *
+     * @param row   the row index, counting from 1
+     * @param col   the column index, counting from 1
+     * @param value the value to add
+     * @return this builder
+     */
+    public CSRSparseMatrixBuilder add(int row, int col, double value) {
+        if (row < 1 || row > nRows || col < 1 || col > nCols) {
+            throw new IllegalArgumentException(String.format("out-of-range element coordinates (%d, %d)", row, col));
+        }
+
+        if (size == values.length) {
+            ensureCapacity(size + 1);
+        }
+        rowIndices[size] = row;
+        columnIndices[size] = col;
+        values[size] = value;
+        ++size;
+        return this;
+    }
+
+    /**
+     * Add {@code value[k]} to the entry at {@code (rowIndices[k], columnIndices[k])} for all <i>k</i>.
+     *
+     * @param rowIndices    the row indices, counting from 1
+     * @param columnIndices the column indices, counting from 1
+     * @param value         the values to add
+     * @return this builder
+     */
+    public CSRSparseMatrixBuilder add(int[] rowIndices, int[] columnIndices, double[] value) {
+        if (rowIndices.length != value.length || columnIndices.length != value.length) {
+            throw new IllegalArgumentException("input arrays size mismatch");
+        }
+
+        ensureCapacity(size + value.length);
+        for (int k = 0; k < value.length; ++k) {
+            add(rowIndices[k], columnIndices[k], value[k]);
+        }
+        return this;
+    }
+
+    /**
+     * Get the number of entries added, including the duplicated ones.
+     *
+     * @return the number of entries added
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Construct a {@link CSRSparseMatrix} from the entries added so far.
+     * This builder is left unchanged, so more entries can be added to build another matrix.
+     *
+     * @return the sparse matrix
+     */
+    public CSRSparseMatrix build() {
+        /* counting sort the entries by row; the relative order of the entries in a row is kept */
+        final int[] from = new int[nRows + 1];
+        for (int k = 0; k < size; ++k) {
+            from[rowIndices[k]]++;
+        }
+        for (int i = 1; i <= nRows; ++i) {
+            from[i] += from[i - 1];
+        }
+
+        final int[] col_ind = new int[size];
+        final double[] value = new double[size];
+        int[] next = Arrays.copyOf(from, nRows);
+        for (int k = 0; k < size; ++k) {
+            int q = next[rowIndices[k] - 1]++;
+            col_ind[q] = columnIndices[k];
+            value[q] = values[k];
+        }
+        next = null;
+
+        /* sort, sum up and drop zeros in each row */
+        final int[] rowSizes = new int[nRows];
+        if (size < PARALLEL_THRESHOLD) {
+            compressRows(col_ind, value, from, rowSizes, 0, nRows);
+        } else {
+            final int[] partition = SparseMatrixUtils.partition(
+                    from, nRows, PARTITIONS_PER_PROCESSOR * Runtime.getRuntime().availableProcessors());
+            try {
+                ParallelExecutorInstanceHolder.instance.forLoop(
+                        0, partition.length - 1,
+                        new LoopBody() {
+
+                            @Override
+                            public void run(int p) throws Exception {
+                                compressRows(col_ind, value, from, rowSizes, partition[p], partition[p + 1]);
+                            }
+                        });
+            } catch (MultipleExecutionException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+
+        /* pack the compressed rows */
+        int[] row_ptr = new int[nRows + 1];
+        for (int i = 0; i < nRows; ++i) {
+            row_ptr[i + 1] = row_ptr[i] + rowSizes[i];
+        }
+
+        int nnz = row_ptr[nRows];
+        if (nnz == size) {
+            return new CSRSparseMatrix(nRows, nCols, nnz, row_ptr, col_ind, value);
+        }
+
+        int[] packedColumns = new int[nnz];
+        double[] packedValues = new double[nnz];
+        for (int i = 0; i < nRows; ++i) {
+            System.arraycopy(col_ind, from[i], packedColumns, row_ptr[i], rowSizes[i]);
+            System.arraycopy(value, from[i], packedValues, row_ptr[i], rowSizes[i]);
+        }
+        return new CSRSparseMatrix(nRows, nCols, nnz, row_ptr, packedColumns, packedValues);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            int newCapacity = Math.max(capacity, 2 * values.length);
+            rowIndices = Arrays.copyOf(rowIndices, newCapacity);
+            columnIndices = Arrays.copyOf(columnIndices, newCapacity);
+            values = Arrays.copyOf(values, newCapacity);
+        }
+    }
+
+    /**
+     * Sort and compress the rows {@code [begin, end)} (0-based) in place.
+     *
+     * @param col_ind  the column indices, grouped by rows
+     * @param value    the values, grouped by rows
+     * @param from     the start of each row in {@code col_ind} and {@code value}
+     * @param rowSizes the numbers of non-zeros in the compressed rows
+     * @param begin    the first row
+     * @param end      the row after the last row
+     */
+    private static void compressRows(int[] col_ind, double[] value, int[] from, int[] rowSizes, int begin, int end) {
+        for (int i = begin; i < end; ++i) {
+            sortRow(col_ind, value, from[i], from[i + 1]);
+
+            /* sum up the duplicates, which are adjacent after sorting */
+            int last = from[i] - 1;
+            for (int k = from[i]; k < from[i + 1]; ++k) {
+                if (last >= from[i] && col_ind[last] == col_ind[k]) {
+                    value[last] += value[k];
+                } else {
+                    ++last;
+                    col_ind[last] = col_ind[k];
+                    value[last] = value[k];
+                }
+            }
+
+            /* drop the zeros */
+            int nz = from[i];
+            for (int k = from[i]; k <= last; ++k) {
+                if (Double.compare(0., value[k]) != 0) {
+                    col_ind[nz] = col_ind[k];
+                    value[nz] = value[k];
+                    ++nz;
+                }
+            }
+
+            rowSizes[i] = nz - from[i];
+        }
+    }
+
+    /**
+     * Stably sort the entries in {@code [begin, end)} by column indices,
+     * so that the duplicates are always summed up in the same order.
+     *
+     * @param col_ind the column indices
+     * @param value   the values
+     * @param begin   the first entry
+     * @param end     the entry after the last entry
+     */
+    private static void sortRow(int[] col_ind, double[] value, int begin, int end) {
+        final int length = end - begin;
+        if (length <= INSERTION_SORT_THRESHOLD) {
+            for (int k = begin + 1; k < end; ++k) {
+                int c = col_ind[k];
+                double v = value[k];
+                int q = k - 1;
+                for (; q >= begin && col_ind[q] > c; --q) {
+                    col_ind[q + 1] = col_ind[q];
+                    value[q + 1] = value[q];
+                }
+                col_ind[q + 1] = c;
+                value[q + 1] = v;
+            }
+            return;
+        }
+
+        long[] keys = new long[length]; // (column index, position) pairs; unique, hence a stable order
+        for (int k = 0; k < length; ++k) {
+            keys[k] = ((long) col_ind[begin + k] << 32) | k;
+        }
+        Arrays.sort(keys);
+
+        double[] sorted = new double[length];
+        for (int k = 0; k < length; ++k) {
+            col_ind[begin + k] = (int) (keys[k] >>> 32);
+            sorted[k] = value[begin + (int) keys[k]];
+        }
+        System.arraycopy(sorted, 0, value, begin, length);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse;
+
+import com.numericalmethod.suanshu.datastructure.DimensionCheck;
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+import java.util.Arrays;
+
+/**
+ * The non-zeros of a square matrix in 0-based compressed sparse row arrays, with the column indices sorted within each
+ * row. This is the working storage of the sparse direct factorizations and the incomplete factorization
+ * preconditioners, which read and overwrite the arrays directly.
+ */
+public class CompressedRows {
+
+    /** the matrix dimension */
+    public final int n;
+    /** the start of each row, followed by the number of non-zeros */
+    public final int[] row_ptr;
+    /** the 0-based column indices */
+    public final int[] col_ind;
+    /** the non-zero values */
+    public final double[] value;
+
+    /**
+     * Extract the non-zeros of a square matrix.
+     * A sparse matrix is read row by row, so it takes <i>O(nnz)</i> time; a dense matrix takes <i>O(n<sup>2</sup>)</i>.
+     *
+     * @param A a square matrix
+     */
+    public CompressedRows(Matrix A) {
+        SuanShuUtils.assertArgument(DimensionCheck.isSquare(A), "A must be a square matrix");
+
+        n = A.nRows();
+        row_ptr = new int[n + 1];
+        int capacity = A instanceof SparseStructure ? ((SparseStructure) A).nNonZeros() : n;
+        int[] columns = new int[capacity];
+        double[] values = new double[capacity];
+
+        int nnz = 0;
+        for (int i = 1; i <= n; ++i) {
+            Vector row = A.getRow(i);
+            if (row instanceof SparseVector) {
+                for (SparseVector.Entry entry : (SparseVector) row) { // sorted by index
+                    if (Double.compare(0., entry.value()) != 0) {
+                        if (nnz == columns.length) {
+                            columns = Arrays.copyOf(columns, 2 * nnz + 1);
+                            values = Arrays.copyOf(values, 2 * nnz + 1);
+                        }
+                        columns[nnz] = entry.index() - 1;
+                        values[nnz] = entry.value();
+                        ++nnz;
+                    }
+                }
+            } else {
+                for (int j = 1; j <= n; ++j) {
+                    double x = row.get(j);
+                    if (Double.compare(0., x) != 0) {
+                        if (nnz == columns.length) {
+                            columns = Arrays.copyOf(columns, 2 * nnz + 1);
+                            values = Arrays.copyOf(values, 2 * nnz + 1);
+                        }
+                        columns[nnz] = j - 1;
+                        values[nnz] = x;
+                        ++nnz;
+                    }
+                }
+            }
+            row_ptr[i] = nnz;
+        }
+        col_ind = Arrays.copyOf(columns, nnz);
+        value = Arrays.copyOf(values, nnz);
+    }
+
+    /**
+     * Find the position of the diagonal entry of a row.
+     *
+     * @param i a 0-based row index
+     * @return the position of the diagonal entry in {@link #col_ind} and {@link #value}, or a negative number if it
+     *         is zero
+     */
+    public int diagonal(int i) {
+        return Arrays.binarySearch(col_ind, row_ptr[i], row_ptr[i + 1], i);
+    }
+
+    /**
+     * Compute the adjacency structure of the undirected graph of this matrix, i.e., the pattern of <i>A + A'</i>
+     * without the diagonal.
+     *
+     * @param lowerOnly {@code true} to read only the lower triangular part of <i>A</i>, as for a symmetric matrix
+     * @return the start of each adjacency list, followed by the number of edges; and the adjacency lists, sorted
+     */
+    public int[][] adjacency(boolean lowerOnly) {
+        int[] ptr = new int[n + 1];
+        for (int i = 0; i < n; ++i) {
+            for (int k = row_ptr[i]; k < row_ptr[i + 1]; ++k) {
+                int j = col_ind[k];
+                if (j < i || (!lowerOnly && j > i)) {
+                    ++ptr[i + 1];
+                    ++ptr[j + 1];
+                }
+            }
+        }
+        for (int i = 0; i < n; ++i) {
+            ptr[i + 1] += ptr[i];
+        }
+
+        int[] next = Arrays.copyOf(ptr, n);
+        int[] ind = new int[ptr[n]];
+        for (int i = 0; i < n; ++i) {
+            for (int k = row_ptr[i]; k < row_ptr[i + 1]; ++k) {
+                int j = col_ind[k];
+                if (j < i || (!lowerOnly && j > i)) {
+                    ind[next[i]++] = j;
+                    ind[next[j]++] = i;
+                }
+            }
+        }
+
+        // sort and remove the duplicates that come from a symmetric pair of entries
+        int[] compact = new int[n + 1];
+        int size = 0;
+        for (int i = 0; i < n; ++i) {
+            Arrays.sort(ind, ptr[i], ptr[i + 1]);
+            for (int k = ptr[i]; k < ptr[i + 1]; ++k) {
+                if (k == ptr[i] || ind[k] != ind[k - 1]) {
+                    ind[size++] = ind[k];
+                }
+            }
+            compact[i + 1] = size;
+        }
+
+        return new int[][]{compact, Arrays.copyOf(ind, size)};
+    }
+}
@@ -133,6 +133,20 @@ public class DOKSparseMatrix implements SparseMatrix {
         return entries;
     }
 
+    /**
+     * Convert this matrix to the CSR format in <i>O(nnz)</i> time (plus sorting the column indices within each row)
+     * by {@link CSRSparseMatrixBuilder}.
+     *
+     * @return this matrix in the CSR format
+     */
+    public CSRSparseMatrix toCSR() {
+        CSRSparseMatrixBuilder builder = new CSRSparseMatrixBuilder(nRows, nCols, dictionary.size());
+        for (Map.Entry<Coordinates, Double> entry : dictionary.entrySet()) {
+            builder.add(entry.getKey().i, entry.getKey().j, entry.getValue());
+        }
+        return builder.build();
+    }
+
     @Override
     public void set(int row, int col, double value) {
         throwIfInvalidRow(this, row);
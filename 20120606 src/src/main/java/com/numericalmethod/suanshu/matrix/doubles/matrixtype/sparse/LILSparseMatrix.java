@@ -145,6 +145,33 @@ public class LILSparseMatrix implements SparseMatrix {
         return entries;
     }
 
+    /**
+     * Convert this matrix to the CSR format in <i>O(nnz)</i> time.
+     * The rows are already sorted by column indices so no sorting is needed.
+     *
+     * @return this matrix in the CSR format
+     */
+    public CSRSparseMatrix toCSR() {
+        int[] row_ptr = new int[nRows + 1];
+        for (int i = 0; i < nRows; ++i) {
+            row_ptr[i + 1] = row_ptr[i] + rows[i].nNonZeros();
+        }
+
+        int nnz = row_ptr[nRows];
+        int[] col_ind = new int[nnz];
+        double[] value = new double[nnz];
+        int k = 0;
+        for (SparseVector row : rows) {
+            for (SparseVector.Entry entry : row) {
+                col_ind[k] = entry.index();
+                value[k] = entry.value();
+                ++k;
+            }
+        }
+
+        return new CSRSparseMatrix(nRows, nCols, nnz, row_ptr, col_ind, value);
+    }
+
     @Override
     public double get(int row, int col) {
         throwIfInvalidRow(this, row);
@@ -53,6 +53,8 @@ public interface SparseMatrix extends
      * // convert to CSR matrix for efficient matrix operations
      * CSRSparseMatrix csr = new CSRSparseMatrix(5, 5, dok.getEntrytList());
      * </code></pre></blockquote>
+     * {@link DOKSparseMatrix#toCSR()} and {@link LILSparseMatrix#toCSR()} do the same conversion without creating the
+     * intermediate list.
      *
      * @return the sparse entries
      */
@@ -33,6 +33,34 @@ import java.util.List;
  */
 class SparseMatrixUtils {
 
+    /**
+     * Split the rows of a compressed row structure into contiguous partitions of (approximately) the same number of
+     * entries, e.g., for processing the partitions in parallel.
+     *
+     * @param row_ptr     the start of each row (0-based), followed by the total number of entries
+     * @param nRows       the number of rows
+     * @param nPartitions the number of partitions
+     * @return the 0-based first row of each partition, followed by {@code nRows}
+     */
+    static int[] partition(int[] row_ptr, int nRows, int nPartitions) {
+        int[] from = new int[nPartitions + 1];
+        from[nPartitions] = nRows;
+        for (int p = 1; p < nPartitions; ++p) {
+            long target = row_ptr[0] + (long) (row_ptr[nRows] - row_ptr[0]) * p / nPartitions;
+            int lo = from[p - 1], hi = nRows; // find the first row i such that row_ptr[i] >= target
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (row_ptr[mid] < target) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            from[p] = lo;
+        }
+        return from;
+    }
+
     /**
      * Convert a {@link SparseEntry} to a {@link String}.
      *
@@ -27,6 +27,7 @@ import com.numericalmethod.suanshu.misc.SuanShuUtils;
 import static com.numericalmethod.suanshu.number.doublearray.DoubleArrayMath.*;
 import com.numericalmethod.suanshu.number.Real;
 import com.numericalmethod.suanshu.vector.doubles.IsVector;
+import com.numericalmethod.suanshu.vector.doubles.MutableVector;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
 import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
 import java.util.Arrays;
@@ -40,7 +41,7 @@ import java.util.ListIterator;
  * @author Ken Yiu
  */
 public class SparseVector implements
-        Vector,
+        MutableVector,
         SparseStructure,
         Iterable<SparseVector.Entry> {
 
@@ -294,6 +295,83 @@ public class SparseVector implements
         return result;
     }
 
+    @Override
+    public void addInPlace(Vector that) {
+        axpy(1., that);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The non-zero entries of {@code x} are merged into this vector in a single pass.
+     * An entry that becomes 0 is removed.
+     */
+    @Override
+    public void axpy(double alpha, Vector x) {
+        IsVector.throwIfNotEqualSize(this, x);
+
+        if (Double.compare(0., alpha) == 0) {
+            return;
+        }
+
+        if (x == this) {
+            scaleInPlace(1. + alpha);
+            return;
+        }
+
+        ListIterator<Entry> it = entries.listIterator();
+        if (x instanceof SparseVector) {
+            for (Entry entry : ((SparseVector) x).entries) {
+                addAt(it, entry.index, alpha * entry.value);
+            }
+        } else {
+            for (int i = 1; i <= size; ++i) {
+                double value = x.get(i);
+                if (Double.compare(0., value) != 0) {
+                    addAt(it, i, alpha * value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Add a value to the entry at an index, advancing the iterator.
+     * The indices must be visited in increasing order.
+     */
+    private static void addAt(ListIterator<Entry> it, int index, double delta) {
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.index == index) {
+                double sum = entry.value + delta;
+                if (Double.compare(0., sum) != 0) {
+                    entry.value = sum;
+                } else {
+                    it.remove();
+                }
+                return;
+            }
+            if (entry.index > index) {
+                it.previous(); // insert before this element
+                break;
+            }
+        }
+
+        if (Double.compare(0., delta) != 0) {
+            it.add(new Entry(index, delta));
+        }
+    }
+
+    @Override
+    public void scaleInPlace(double c) {
+        if (Double.compare(0., c) == 0) {
+            entries.clear();
+            return;
+        }
+
+        for (Entry entry : entries) {
+            entry.value *= c;
+        }
+    }
+
     @Override
     public SparseVector multiply(Vector v) {
         if (v instanceof SparseVector) {
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.direct;
+
+import java.util.Arrays;
+
+/**
+ * The approximate minimum degree (AMD) ordering reduces the fill-in of a sparse factorization by eliminating, at each
+ * step, a node of (approximately) minimum degree in the elimination graph.
+ * The elimination graph is represented implicitly by a quotient graph, in which the eliminated nodes become
+ * <em>elements</em> that stand for the cliques they create.
+ * Hence, the storage never exceeds that of the original graph.
+ * The external degree of a node is bounded from above by the approximate degree of Amestoy, Davis and Duff;
+ * elements whose variables are all covered by the newly created element are absorbed aggressively.
+ * This implementation does not detect indistinguishable nodes (supervariables), so it is simpler but slower than the
+ * original algorithm on matrices with many identical rows.
+ * @see "P. R. Amestoy, T. A. Davis, and I. S. Duff, "An approximate minimum degree ordering algorithm," SIAM Journal on
+ * Matrix Analysis and Applications, vol. 17, no. 4, pp. 886-905, 1996."
+ */
+class ApproximateMinimumDegree {
+
+    private static final byte VARIABLE = 0;
+    private static final byte ELEMENT = 1;
+    private static final byte ABSORBED = 2;
+
+    private ApproximateMinimumDegree() {
+    }
+
+    /**
+     * Compute a fill-reducing ordering of a symmetric sparsity pattern.
+     *
+     * @param n   the number of nodes
+     * @param ptr the start of each adjacency list, followed by the number of edges
+     * @param ind the 0-based adjacency lists, without the diagonal and without duplicates
+     * @return the permutation <i>p</i>, such that node <i>p[k]</i> is eliminated in the <i>k</i>-th step
+     */
+    static int[] order(int n, int[] ptr, int[] ind) {
+        int[][] variables = new int[n][];// the adjacent variables of a variable
+        int[] nVariables = new int[n];
+        int[][] elements = new int[n][];// the adjacent elements of a variable
+        int[] nElements = new int[n];
+        int[][] members = new int[n][];// the variables of an element
+        byte[] status = new byte[n];
+        int[] degree = new int[n];
+
+        // the nodes are kept in doubly linked lists, one for each degree
+        int[] head = new int[n];
+        int[] next = new int[n];
+        int[] prev = new int[n];
+        Arrays.fill(head, -1);
+
+        for (int i = 0; i < n; ++i) {
+            variables[i] = Arrays.copyOfRange(ind, ptr[i], ptr[i + 1]);
+            nVariables[i] = variables[i].length;
+            elements[i] = new int[4];
+            degree[i] = nVariables[i];
+            insert(i, degree[i], head, next, prev);
+        }
+
+        int[] mark = new int[n];// mark[i] == stamp iff variable i is in the current pivot element
+        int stamp = 0;
+        int[] external = new int[n];// |L_e \ L_p| for the elements adjacent to the current pivot element
+        int[] externalStamp = new int[n];
+
+        int[] order = new int[n];
+        int[] pivotElement = new int[n];
+        int minDegree = 0;
+        for (int k = 0; k < n; ++k) {
+            while (head[minDegree] < 0) {
+                ++minDegree;
+            }
+            final int p = head[minDegree];
+            remove(p, degree[p], head, next, prev);
+            order[k] = p;
+            status[p] = ELEMENT;
+
+            // the new element is the union of the adjacent variables and the variables of the adjacent elements
+            ++stamp;
+            mark[p] = stamp;
+            int size = 0;
+            for (int t = 0; t < nVariables[p]; ++t) {
+                int i = variables[p][t];
+                if (status[i] == VARIABLE && mark[i] != stamp) {
+                    mark[i] = stamp;
+                    pivotElement[size++] = i;
+                }
+            }
+            for (int t = 0; t < nElements[p]; ++t) {
+                int e = elements[p][t];
+                if (status[e] == ELEMENT) {
+                    for (int i : members[e]) {
+                        if (status[i] == VARIABLE && mark[i] != stamp) {
+                            mark[i] = stamp;
+                            pivotElement[size++] = i;
+                        }
+                    }
+                    status[e] = ABSORBED;
+                    members[e] = null;
+                }
+            }
+            members[p] = Arrays.copyOf(pivotElement, size);
+            variables[p] = null;
+            elements[p] = null;
+
+            // compute |L_e \ L_p| for every element e adjacent to a variable in L_p
+            for (int t = 0; t < size; ++t) {
+                int i = pivotElement[t];
+                for (int s = 0; s < nElements[i]; ++s) {
+                    int e = elements[i][s];
+                    if (status[e] == ELEMENT) {
+                        if (externalStamp[e] != stamp) {
+                            externalStamp[e] = stamp;
+                            external[e] = members[e].length;
+                        }
+                        --external[e];
+                    }
+                }
+            }
+
+            // prune the quotient graph and update the approximate degrees of the variables in L_p
+            for (int t = 0; t < size; ++t) {
+                int i = pivotElement[t];
+                remove(i, degree[i], head, next, prev);
+
+                int count = 0;
+                int elementDegree = 0;
+                for (int s = 0; s < nElements[i]; ++s) {
+                    int e = elements[i][s];
+                    if (status[e] != ELEMENT) {
+                        continue;
+                    }
+                    if (external[e] == 0) {// aggressive absorption: L_e is a subset of L_p
+                        status[e] = ABSORBED;
+                        members[e] = null;
+                        continue;
+                    }
+                    elementDegree += external[e];
+                    elements[i][count++] = e;
+                }
+                if (count == elements[i].length) {
+                    elements[i] = Arrays.copyOf(elements[i], 2 * count);
+                }
+                elements[i][count++] = p;
+                nElements[i] = count;
+
+                count = 0;
+                for (int s = 0; s < nVariables[i]; ++s) {
+                    int j = variables[i][s];
+                    if (status[j] == VARIABLE && mark[j] != stamp) {// the others are covered by L_p
+                        variables[i][count++] = j;
+                    }
+                }
+                nVariables[i] = count;
+
+                int d = count + (size - 1) + elementDegree;
+                d = Math.min(d, degree[i] + size - 1);
+                d = Math.min(d, n - k - 2);
+                degree[i] = d;
+                insert(i, d, head, next, prev);
+                minDegree = Math.min(minDegree, d);
+            }
+        }
+
+        return order;
+    }
+
+    private static void insert(int i, int d, int[] head, int[] next, int[] prev) {
+        next[i] = head[d];
+        prev[i] = -1;
+        if (head[d] >= 0) {
+            prev[head[d]] = i;
+        }
+        head[d] = i;
+    }
+
+    private static void remove(int i, int d, int[] head, int[] next, int[] prev) {
+        if (prev[i] >= 0) {
+            next[prev[i]] = next[i];
+        } else {
+            head[d] = next[i];
+        }
+        if (next[i] >= 0) {
+            prev[next[i]] = prev[i];
+        }
+    }
+}
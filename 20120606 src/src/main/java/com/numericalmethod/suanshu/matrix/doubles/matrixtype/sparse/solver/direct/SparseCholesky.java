@@ -0,0 +1,554 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.direct;
+
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.BlockedGEMM;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.CompressedRows;
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+import java.util.Arrays;
+
+/**
+ * This is a supernodal sparse Cholesky decomposition, <i>P * A * P' = L * L'</i>, of a symmetric positive definite
+ * sparse matrix.
+ * The permutation <i>P</i> is computed by the approximate minimum degree ordering to reduce the fill-in of <i>L</i>,
+ * and then post-ordered by the elimination tree so that the columns of <i>L</i> with the same structure are
+ * contiguous.
+ * These columns are grouped into supernodes, each stored as a dense column-major panel, so that the numerical
+ * factorization is done mostly by dense matrix-matrix multiplications.
+ * <p/>
+ * The ordering and the structure of <i>L</i> depend only on the sparsity pattern of <i>A</i>.
+ * They are computed once in a {@link Symbolic} analysis, which can be reused to factorize other matrices with the same
+ * pattern, e.g., in a time-stepping or Newton iteration.
+ * Only the lower triangular part of <i>A</i> is read.
+ * @see
+ * <ul>
+ * <li>"T. A. Davis, "Direct Methods for Sparse Linear Systems," SIAM, 2006."
+ * <li>"E. G. Ng and B. W. Peyton, "Block sparse Cholesky algorithms on advanced uniprocessor computers," SIAM Journal
+ * on Scientific Computing, vol. 14, no. 5, pp. 1034-1056, 1993."
+ * </ul>
+ */
+public class SparseCholesky {
+
+    /**
+     * This is the symbolic analysis of a sparse Cholesky decomposition.
+     * It contains the fill-reducing permutation and the supernodal structure of <i>L</i>.
+     */
+    public static class Symbolic {
+
+        /** the matrix dimension */
+        private final int n;
+        /** column {@code perm[k]} of <i>A</i> is column <i>k</i> of <i>P * A * P'</i> */
+        private final int[] perm;
+        /** the number of supernodes */
+        private final int nSupernodes;
+        /** the first column of each supernode, followed by <i>n</i> */
+        private final int[] first;
+        /** the supernode of each column */
+        private final int[] supernode;
+        /** the start of the row indices of each supernode, followed by their total number */
+        private final int[] rowPtr;
+        /** the sorted row indices of the supernodes, beginning with the supernode columns */
+        private final int[] rows;
+        /** the start of the panel of each supernode in the value array, followed by its total length */
+        private final int[] panelPtr;
+        /** the lower triangular pattern of <i>A</i>, row by row */
+        private final int[] patternPtr;
+        private final int[] patternInd;
+        /** the position in the panels of each non-zero in the lower triangular pattern of <i>A</i> */
+        private final int[] valueMap;
+
+        /**
+         * Analyze the sparsity pattern of a symmetric matrix.
+         *
+         * @param A a symmetric matrix; only the lower triangular part is read
+         */
+        public Symbolic(Matrix A) {
+            this(new CompressedRows(A));
+        }
+
+        private Symbolic(CompressedRows A) {
+            n = A.n;
+            int[][] graph = A.adjacency(true);
+            final int[] adjPtr = graph[0];
+            final int[] adjInd = graph[1];
+
+            // the fill-reducing ordering and its elimination tree
+            int[] order = ApproximateMinimumDegree.order(n, adjPtr, adjInd);
+            int[] pinv = inverse(order);
+            int[] parent = new int[n];
+            int[] ancestor = new int[n];
+            for (int k = 0; k < n; ++k) {
+                parent[k] = -1;
+                ancestor[k] = -1;
+                for (int p = adjPtr[order[k]]; p < adjPtr[order[k] + 1]; ++p) {
+                    for (int i = pinv[adjInd[p]]; i != -1 && i < k;) {
+                        int next = ancestor[i];
+                        ancestor[i] = k;// path compression
+                        if (next == -1) {
+                            parent[i] = k;
+                        }
+                        i = next;
+                    }
+                }
+            }
+
+            // post-order the elimination tree; this is an equivalent ordering with the same fill-in
+            int[] post = postorder(parent);
+            perm = new int[n];
+            int[] relabel = new int[n];
+            for (int k = 0; k < n; ++k) {
+                perm[k] = order[post[k]];
+                relabel[post[k]] = k;
+            }
+            int[] etree = new int[n];
+            for (int k = 0; k < n; ++k) {
+                int p = parent[post[k]];
+                etree[k] = p == -1 ? -1 : relabel[p];
+            }
+            pinv = inverse(perm);
+
+            // the column counts of L, by traversing the row subtrees
+            int[] colCount = new int[n];
+            int[] mark = new int[n];
+            Arrays.fill(mark, -1);
+            for (int k = 0; k < n; ++k) {
+                colCount[k] += 1;// the diagonal
+                mark[k] = k;
+                for (int p = adjPtr[perm[k]]; p < adjPtr[perm[k] + 1]; ++p) {
+                    for (int i = pinv[adjInd[p]]; i < k && mark[i] != k; i = etree[i]) {
+                        mark[i] = k;
+                        ++colCount[i];
+                    }
+                }
+            }
+
+            // the fundamental supernodes
+            int[] nChildren = new int[n];
+            for (int k = 0; k < n; ++k) {
+                if (etree[k] != -1) {
+                    ++nChildren[etree[k]];
+                }
+            }
+            supernode = new int[n];
+            int[] firsts = new int[n + 1];
+            int count = 0;
+            for (int k = 0; k < n; ++k) {
+                if (k == 0 || etree[k - 1] != k || colCount[k - 1] != colCount[k] + 1 || nChildren[k] != 1) {
+                    firsts[count++] = k;
+                }
+                supernode[k] = count - 1;
+            }
+            nSupernodes = count;
+            firsts[count] = n;
+            first = Arrays.copyOf(firsts, count + 1);
+
+            rowPtr = new int[nSupernodes + 1];
+            panelPtr = new int[nSupernodes + 1];
+            for (int s = 0; s < nSupernodes; ++s) {
+                int height = colCount[first[s]];
+                rowPtr[s + 1] = rowPtr[s] + height;
+                long end = (long) panelPtr[s] + (long) height * (first[s + 1] - first[s]);
+                SuanShuUtils.assertArgument(end <= Integer.MAX_VALUE, "the Cholesky factor is too big");
+                panelPtr[s + 1] = (int) end;
+            }
+
+            // the row indices of the supernodes, by traversing the row subtrees again
+            rows = new int[rowPtr[nSupernodes]];
+            int[] next = Arrays.copyOf(rowPtr, nSupernodes);
+            Arrays.fill(mark, -1);
+            for (int k = 0; k < n; ++k) {
+                mark[k] = k;
+                if (first[supernode[k]] == k) {
+                    rows[next[supernode[k]]++] = k;
+                }
+                for (int p = adjPtr[perm[k]]; p < adjPtr[perm[k] + 1]; ++p) {
+                    for (int i = pinv[adjInd[p]]; i < k && mark[i] != k; i = etree[i]) {
+                        mark[i] = k;
+                        if (first[supernode[i]] == i) {
+                            rows[next[supernode[i]]++] = k;// k increases, so the rows are sorted
+                        }
+                    }
+                }
+            }
+
+            // where each non-zero of A goes in the panels
+            patternPtr = A.row_ptr.clone();
+            patternInd = new int[A.row_ptr[n]];
+            valueMap = new int[A.row_ptr[n]];
+            int nnz = 0;
+            for (int i = 0; i < n; ++i) {
+                for (int p = A.row_ptr[i]; p < A.row_ptr[i + 1]; ++p) {
+                    int j = A.col_ind[p];
+                    if (j <= i) {
+                        int r = Math.max(pinv[i], pinv[j]);
+                        int c = Math.min(pinv[i], pinv[j]);
+                        int s = supernode[c];
+                        int position = Arrays.binarySearch(rows, rowPtr[s], rowPtr[s + 1], r) - rowPtr[s];
+                        patternInd[nnz] = j;
+                        valueMap[nnz] = panelPtr[s] + (c - first[s]) * (rowPtr[s + 1] - rowPtr[s]) + position;
+                        ++nnz;
+                    }
+                }
+                patternPtr[i + 1] = nnz;
+            }
+        }
+
+        /**
+         * Get the number of non-zeros in <i>L</i>.
+         *
+         * @return the number of non-zeros in <i>L</i>
+         */
+        public long nNonZeros() {
+            long nnz = 0;
+            for (int s = 0; s < nSupernodes; ++s) {
+                long width = first[s + 1] - first[s];
+                long height = rowPtr[s + 1] - rowPtr[s];
+                nnz += width * height - width * (width - 1) / 2;
+            }
+            return nnz;
+        }
+
+        /**
+         * Get the number of supernodes.
+         *
+         * @return the number of supernodes
+         */
+        public int nSupernodes() {
+            return nSupernodes;
+        }
+
+        /**
+         * Get the fill-reducing permutation.
+         *
+         * @return the permutation <i>p</i>, such that row and column <i>p[k]</i> of <i>A</i> are the <i>k</i>-th
+         *         row and column of <i>P * A * P'</i>; the indices count from 1
+         */
+        public int[] permutation() {
+            int[] result = new int[n];
+            for (int k = 0; k < n; ++k) {
+                result[k] = perm[k] + 1;
+            }
+            return result;
+        }
+
+        /**
+         * Copy the lower triangular values of a matrix into the supernodal panels.
+         *
+         * @param A a matrix with the analyzed pattern
+         * @return the panels
+         */
+        private double[] assemble(CompressedRows A) {
+            SuanShuUtils.assertArgument(A.n == n, "A must be a %d x %d matrix", n, n);
+
+            double[] L = new double[panelPtr[nSupernodes]];
+            for (int i = 0; i < n; ++i) {
+                int nnz = patternPtr[i];
+                for (int p = A.row_ptr[i]; p < A.row_ptr[i + 1]; ++p) {
+                    int j = A.col_ind[p];
+                    if (j <= i) {
+                        while (nnz < patternPtr[i + 1] && patternInd[nnz] < j) {// a missing entry is a zero of the pattern
+                            ++nnz;
+                        }
+                        SuanShuUtils.assertArgument(nnz < patternPtr[i + 1] && patternInd[nnz] == j,
+                                                    "A has a different sparsity pattern from the analyzed one");
+                        L[valueMap[nnz]] = A.value[p];
+                    }
+                }
+            }
+            return L;
+        }
+    }
+    /** the symbolic analysis */
+    private final Symbolic symbolic;
+    /** the supernodal panels of <i>L</i> */
+    private final double[] L;
+
+    /**
+     * Run the sparse Cholesky decomposition on a symmetric positive definite matrix.
+     *
+     * @param A a symmetric positive definite matrix; only the lower triangular part is read
+     * @throws RuntimeException if <i>A</i> is not positive definite
+     */
+    public SparseCholesky(Matrix A) {
+        this(null, new CompressedRows(A));
+    }
+
+    /**
+     * Run the sparse Cholesky decomposition on a symmetric positive definite matrix, reusing the symbolic analysis of
+     * a matrix with the same sparsity pattern.
+     *
+     * @param symbolic the symbolic analysis of the sparsity pattern of <i>A</i>
+     * @param A        a symmetric positive definite matrix; only the lower triangular part is read
+     * @throws IllegalArgumentException if <i>A</i> has a different sparsity pattern
+     * @throws RuntimeException         if <i>A</i> is not positive definite
+     */
+    public SparseCholesky(Symbolic symbolic, Matrix A) {
+        this(symbolic, new CompressedRows(A));
+    }
+
+    private SparseCholesky(Symbolic symbolic, CompressedRows A) {
+        this.symbolic = symbolic != null ? symbolic : new Symbolic(A);
+        this.L = this.symbolic.assemble(A);
+        factorize();
+    }
+
+    /**
+     * Get the symbolic analysis, which can be reused to factorize other matrices with the same sparsity pattern.
+     *
+     * @return the symbolic analysis
+     */
+    public Symbolic symbolic() {
+        return symbolic;
+    }
+
+    /**
+     * The left-looking supernodal factorization.
+     * Each supernode <i>d</i> is linked to the next supernode it updates, so that when the factorization reaches a
+     * supernode, all its updating descendants are in its list.
+     */
+    private void factorize() {
+        final int n = symbolic.n;
+        final int ns = symbolic.nSupernodes;
+        final int[] first = symbolic.first;
+        final int[] rowPtr = symbolic.rowPtr;
+        final int[] rows = symbolic.rows;
+        final int[] panelPtr = symbolic.panelPtr;
+
+        int[] link = new int[ns];// the first supernode waiting to update a supernode
+        int[] nextLink = new int[ns];
+        int[] cursor = new int[ns];// the first row of a supernode yet to be used for updates
+        Arrays.fill(link, -1);
+        int[] position = new int[n];
+        double[] C = new double[0];
+
+        for (int s = 0; s < ns; ++s) {
+            final int f = first[s];
+            final int width = first[s + 1] - f;
+            final int height = rowPtr[s + 1] - rowPtr[s];
+            final int base = panelPtr[s];
+            for (int t = 0; t < height; ++t) {
+                position[rows[rowPtr[s] + t]] = t;
+            }
+
+            // apply the updates from the descendants
+            for (int d = link[s]; d != -1;) {
+                final int dNext = nextLink[d];
+                final int dWidth = first[d + 1] - first[d];
+                final int dHeight = rowPtr[d + 1] - rowPtr[d];
+                final int dRows = rowPtr[d];
+                final int p0 = cursor[d];
+                int p1 = p0;
+                while (p1 < dHeight && rows[dRows + p1] < f + width) {
+                    ++p1;
+                }
+                final int m = dHeight - p0;// the rows to update
+                final int m1 = p1 - p0;// the columns of s to update
+
+                // C' = Ld[p0:p1, :] * Ld[p0:, :]', stored as an m1 x m row-major matrix
+                if (C.length < m1 * m) {
+                    C = new double[m1 * m];
+                }
+                BlockedGEMM.gemm(true, false, m1, m, dWidth, 1.,
+                                 L, panelPtr[d] + p0, dHeight,
+                                 L, panelPtr[d] + p0, dHeight,
+                                 0., C, 0, m);
+
+                for (int c = 0; c < m1; ++c) {
+                    final int column = base + (rows[dRows + p0 + c] - f) * height;
+                    for (int r = c; r < m; ++r) {
+                        L[column + position[rows[dRows + p0 + r]]] -= C[c * m + r];
+                    }
+                }
+
+                cursor[d] = p1;
+                if (p1 < dHeight) {
+                    int target = symbolic.supernode[rows[dRows + p1]];
+                    nextLink[d] = link[target];
+                    link[target] = d;
+                }
+                d = dNext;
+            }
+
+            // the dense Cholesky decomposition of the panel
+            for (int j = 0; j < width; ++j) {
+                final int column = base + j * height;
+                double pivot = L[column + j];
+                if (!(pivot > 0.)) {
+                    throw new RuntimeException("A is not positive definite");
+                }
+                pivot = Math.sqrt(pivot);
+                L[column + j] = pivot;
+                for (int r = j + 1; r < height; ++r) {
+                    L[column + r] /= pivot;
+                }
+                for (int c = j + 1; c < width; ++c) {
+                    final double x = L[column + c];
+                    if (x != 0.) {
+                        final int target = base + c * height;
+                        for (int r = c; r < height; ++r) {
+                            L[target + r] -= L[column + r] * x;
+                        }
+                    }
+                }
+            }
+
+            if (width < height) {
+                cursor[s] = width;
+                int target = symbolic.supernode[rows[rowPtr[s] + width]];
+                nextLink[s] = link[target];
+                link[target] = s;
+            }
+        }
+    }
+
+    /**
+     * Solve <i>Ax = b</i>.
+     *
+     * @param b a vector
+     * @return <i>x</i>
+     */
+    public DenseVector solve(Vector b) {
+        SuanShuUtils.assertArgument(b.size() == symbolic.n, "b must have length %d", symbolic.n);
+        return new DenseVector(solve(b.toArray()));
+    }
+
+    /**
+     * Solve <i>AX = B</i>, one column at a time.
+     *
+     * @param B a matrix of the right hand sides
+     * @return <i>X</i>
+     */
+    public DenseMatrix solve(Matrix B) {
+        SuanShuUtils.assertArgument(B.nRows() == symbolic.n, "B must have %d rows", symbolic.n);
+
+        double[][] X = new double[B.nRows()][B.nCols()];
+        for (int j = 1; j <= B.nCols(); ++j) {
+            double[] x = solve(B.getColumn(j).toArray());
+            for (int i = 0; i < x.length; ++i) {
+                X[i][j - 1] = x[i];
+            }
+        }
+        return new DenseMatrix(X);
+    }
+
+    private double[] solve(double[] b) {
+        final int n = symbolic.n;
+        final int[] perm = symbolic.perm;
+        final int[] first = symbolic.first;
+        final int[] rowPtr = symbolic.rowPtr;
+        final int[] rows = symbolic.rows;
+        final int[] panelPtr = symbolic.panelPtr;
+
+        double[] y = new double[n];
+        for (int k = 0; k < n; ++k) {
+            y[k] = b[perm[k]];
+        }
+
+        // L y = P b
+        for (int s = 0; s < symbolic.nSupernodes; ++s) {
+            final int height = rowPtr[s + 1] - rowPtr[s];
+            for (int j = 0; j < first[s + 1] - first[s]; ++j) {
+                final int column = panelPtr[s] + j * height;
+                final double x = y[first[s] + j] /= L[column + j];
+                if (x != 0.) {
+                    for (int r = j + 1; r < height; ++r) {
+                        y[rows[rowPtr[s] + r]] -= L[column + r] * x;
+                    }
+                }
+            }
+        }
+
+        // L' z = y
+        for (int s = symbolic.nSupernodes - 1; s >= 0; --s) {
+            final int height = rowPtr[s + 1] - rowPtr[s];
+            for (int j = first[s + 1] - first[s] - 1; j >= 0; --j) {
+                final int column = panelPtr[s] + j * height;
+                double sum = y[first[s] + j];
+                for (int r = j + 1; r < height; ++r) {
+                    sum -= L[column + r] * y[rows[rowPtr[s] + r]];
+                }
+                y[first[s] + j] = sum / L[column + j];
+            }
+        }
+
+        double[] x = new double[n];
+        for (int k = 0; k < n; ++k) {
+            x[perm[k]] = y[k];
+        }
+        return x;
+    }
+
+    static int[] inverse(int[] p) {
+        int[] pinv = new int[p.length];
+        for (int k = 0; k < p.length; ++k) {
+            pinv[p[k]] = k;
+        }
+        return pinv;
+    }
+
+    /**
+     * Post-order a forest.
+     *
+     * @param parent the parent of each node, or -1 for a root
+     * @return the nodes in post-order
+     */
+    private static int[] postorder(int[] parent) {
+        final int n = parent.length;
+        int[] head = new int[n];
+        int[] next = new int[n];
+        Arrays.fill(head, -1);
+        for (int j = n - 1; j >= 0; --j) {// so that the children are visited in increasing order
+            if (parent[j] != -1) {
+                next[j] = head[parent[j]];
+                head[parent[j]] = j;
+            }
+        }
+
+        int[] post = new int[n];
+        int[] stack = new int[n];
+        int k = 0;
+        for (int root = 0; root < n; ++root) {
+            if (parent[root] != -1) {
+                continue;
+            }
+            int top = 0;
+            stack[0] = root;
+            while (top >= 0) {
+                int p = stack[top];
+                int child = head[p];
+                if (child == -1) {
+                    --top;
+                    post[k++] = p;
+                } else {
+                    head[p] = next[child];
+                    stack[++top] = child;
+                }
+            }
+        }
+        return post;
+    }
+}
@@ -0,0 +1,390 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.direct;
+
+import com.numericalmethod.suanshu.matrix.MatrixSingularityException;
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.CompressedRows;
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+import java.util.Arrays;
+
+/**
+ * This is a sparse LU decomposition, <i>P * A * Q = L * U</i>, of a square sparse matrix.
+ * The column permutation <i>Q</i> is the approximate minimum degree ordering of the pattern of <i>A + A'</i>.
+ * The row permutation <i>P</i> is determined by threshold partial pivoting during the numerical factorization,
+ * which prefers the diagonal entry of <i>A * Q</i> to keep the fill-reducing ordering.
+ * The columns are computed one at a time by the left-looking algorithm of Gilbert and Peierls, which solves a sparse
+ * triangular system whose pattern is found by a depth-first search, in time proportional to the arithmetic operations.
+ * <p/>
+ * The column ordering depends only on the sparsity pattern of <i>A</i>.
+ * It is computed once in a {@link Symbolic} analysis, which can be reused to factorize other matrices with the same
+ * pattern.
+ * @see
+ * <ul>
+ * <li>"J. R. Gilbert and T. Peierls, "Sparse partial pivoting in time proportional to arithmetic operations," SIAM
+ * Journal on Scientific and Statistical Computing, vol. 9, no. 5, pp. 862-874, 1988."
+ * <li>"T. A. Davis, "Direct Methods for Sparse Linear Systems," SIAM, 2006."
+ * </ul>
+ */
+public class SparseLU {
+
+    /**
+     * This is the symbolic analysis of a sparse LU decomposition, i.e., the fill-reducing column ordering.
+     */
+    public static class Symbolic {
+
+        /** the matrix dimension */
+        private final int n;
+        /** column {@code q[k]} of <i>A</i> is column <i>k</i> of <i>A * Q</i> */
+        private final int[] q;
+
+        /**
+         * Analyze the sparsity pattern of a square matrix.
+         *
+         * @param A a square matrix
+         */
+        public Symbolic(Matrix A) {
+            this(new CompressedRows(A));
+        }
+
+        private Symbolic(CompressedRows A) {
+            n = A.n;
+            int[][] graph = A.adjacency(false);
+            q = ApproximateMinimumDegree.order(n, graph[0], graph[1]);
+        }
+
+        /**
+         * Get the fill-reducing column permutation.
+         *
+         * @return the permutation <i>q</i>, such that column <i>q[k]</i> of <i>A</i> is the <i>k</i>-th column of
+         *         <i>A * Q</i>; the indices count from 1
+         */
+        public int[] permutation() {
+            int[] result = new int[n];
+            for (int k = 0; k < n; ++k) {
+                result[k] = q[k] + 1;
+            }
+            return result;
+        }
+    }
+    /**
+     * the default pivoting threshold: the diagonal is chosen as the pivot if it is not smaller than this fraction of
+     * the largest candidate in magnitude
+     */
+    public static final double DEFAULT_PIVOT_THRESHOLD = 0.1;
+    /** the symbolic analysis */
+    private final Symbolic symbolic;
+    /** the row permutation: row <i>i</i> of <i>A</i> is row {@code pinv[i]} of <i>P * A</i> */
+    private final int[] pinv;
+    /** the unit lower triangular factor, column by column, with the unit diagonal first */
+    private int[] Lp;
+    private int[] Li;
+    private double[] Lx;
+    /** the upper triangular factor, column by column, with the diagonal last */
+    private int[] Up;
+    private int[] Ui;
+    private double[] Ux;
+
+    /**
+     * Run the sparse LU decomposition on a square matrix.
+     *
+     * @param A a square matrix
+     * @throws MatrixSingularityException if <i>A</i> is singular
+     */
+    public SparseLU(Matrix A) {
+        this(null, A, DEFAULT_PIVOT_THRESHOLD, 0.);
+    }
+
+    /**
+     * Run the sparse LU decomposition on a square matrix, reusing the symbolic analysis of a matrix with the same
+     * sparsity pattern.
+     *
+     * @param symbolic the symbolic analysis of the sparsity pattern of <i>A</i>; {@code null} to analyze <i>A</i>
+     * @param A        a square matrix
+     * @param tol      the pivoting threshold in [0, 1]; 1 for partial pivoting and 0 for diagonal pivoting whenever
+     *                 the diagonal is non-zero
+     * @param epsilon  a precision parameter: when a pivot |x| ≤ ε, it is considered 0
+     * @throws MatrixSingularityException if <i>A</i> is (numerically) singular
+     */
+    public SparseLU(Symbolic symbolic, Matrix A, double tol, double epsilon) {
+        SuanShuUtils.assertArgument(0. <= tol && tol <= 1., "the pivoting threshold must be in [0, 1]");
+
+        CompressedRows rows = new CompressedRows(A);
+        this.symbolic = symbolic != null ? symbolic : new Symbolic(rows);
+        SuanShuUtils.assertArgument(rows.n == this.symbolic.n, "A must be a %d x %d matrix", this.symbolic.n, this.symbolic.n);
+        this.pinv = new int[rows.n];
+        factorize(rows, tol, epsilon);
+    }
+
+    /**
+     * Get the symbolic analysis, which can be reused to factorize other matrices with the same sparsity pattern.
+     *
+     * @return the symbolic analysis
+     */
+    public Symbolic symbolic() {
+        return symbolic;
+    }
+
+    /**
+     * Get the number of non-zeros in <i>L</i> and <i>U</i>, including the unit diagonal of <i>L</i>.
+     *
+     * @return the number of non-zeros in the factors
+     */
+    public long nNonZeros() {
+        return (long) Lp[symbolic.n] + Up[symbolic.n];
+    }
+
+    private void factorize(CompressedRows A, double tol, double epsilon) {
+        final int n = A.n;
+        final int[] q = symbolic.q;
+
+        // the columns of A
+        int[] Ap = new int[n + 1];
+        for (int p = 0; p < A.row_ptr[n]; ++p) {
+            ++Ap[A.col_ind[p] + 1];
+        }
+        for (int j = 0; j < n; ++j) {
+            Ap[j + 1] += Ap[j];
+        }
+        int[] next = Arrays.copyOf(Ap, n);
+        int[] Ai = new int[A.row_ptr[n]];
+        double[] Ax = new double[A.row_ptr[n]];
+        for (int i = 0; i < n; ++i) {
+            for (int p = A.row_ptr[i]; p < A.row_ptr[i + 1]; ++p) {
+                int k = next[A.col_ind[p]]++;
+                Ai[k] = i;
+                Ax[k] = A.value[p];
+            }
+        }
+
+        int capacity = 4 * A.row_ptr[n] + n;
+        Lp = new int[n + 1];
+        Li = new int[capacity];
+        Lx = new double[capacity];
+        Up = new int[n + 1];
+        Ui = new int[capacity];
+        Ux = new double[capacity];
+        int lnz = 0;
+        int unz = 0;
+
+        Arrays.fill(pinv, -1);
+        double[] x = new double[n];
+        int[] pattern = new int[n];
+        int[] stack = new int[n];
+        int[] pstack = new int[n];
+        int[] mark = new int[n];
+        Arrays.fill(mark, -1);
+
+        for (int k = 0; k < n; ++k) {
+            Lp[k] = lnz;
+            Up[k] = unz;
+            if (lnz + n > Li.length) {
+                Li = Arrays.copyOf(Li, 2 * Li.length + n);
+                Lx = Arrays.copyOf(Lx, 2 * Lx.length + n);
+            }
+            if (unz + n > Ui.length) {
+                Ui = Arrays.copyOf(Ui, 2 * Ui.length + n);
+                Ux = Arrays.copyOf(Ux, 2 * Ux.length + n);
+            }
+
+            // x = L \ A(:, q[k]), where the pattern of x is the set of nodes reachable from the pattern of A(:, q[k])
+            final int col = q[k];
+            int top = n;
+            for (int p = Ap[col]; p < Ap[col + 1]; ++p) {
+                if (mark[Ai[p]] != k) {
+                    top = reach(Ai[p], k, top, pattern, stack, pstack, mark);
+                }
+            }
+            for (int p = top; p < n; ++p) {
+                x[pattern[p]] = 0.;
+            }
+            for (int p = Ap[col]; p < Ap[col + 1]; ++p) {
+                x[Ai[p]] = Ax[p];
+            }
+            for (int p = top; p < n; ++p) {// in topological order
+                int J = pinv[pattern[p]];
+                if (J >= 0) {
+                    final double xj = x[pattern[p]];
+                    for (int t = Lp[J] + 1; t < Lp[J + 1]; ++t) {
+                        x[Li[t]] -= Lx[t] * xj;
+                    }
+                }
+            }
+
+            // choose the pivot among the rows not yet pivotal
+            int ipiv = -1;
+            double max = -1.;
+            for (int p = top; p < n; ++p) {
+                int i = pattern[p];
+                if (pinv[i] < 0) {
+                    if (Math.abs(x[i]) > max) {
+                        max = Math.abs(x[i]);
+                        ipiv = i;
+                    }
+                } else {
+                    Ui[unz] = pinv[i];
+                    Ux[unz] = x[i];
+                    ++unz;
+                }
+            }
+            if (ipiv == -1 || max <= epsilon) {
+                throw new MatrixSingularityException("singularity detected during the sparse LU decomposition");
+            }
+            if (pinv[col] < 0 && mark[col] == k && Math.abs(x[col]) >= tol * max && Math.abs(x[col]) > epsilon) {
+                ipiv = col;
+            }
+
+            final double pivot = x[ipiv];
+            Ui[unz] = k;
+            Ux[unz] = pivot;
+            ++unz;
+            pinv[ipiv] = k;
+            Li[lnz] = ipiv;
+            Lx[lnz] = 1.;
+            ++lnz;
+            for (int p = top; p < n; ++p) {
+                int i = pattern[p];
+                if (pinv[i] < 0) {
+                    Li[lnz] = i;
+                    Lx[lnz] = x[i] / pivot;
+                    ++lnz;
+                }
+                x[i] = 0.;
+            }
+        }
+        Lp[n] = lnz;
+        Up[n] = unz;
+
+        // the row indices of L in the pivoting order
+        for (int p = 0; p < lnz; ++p) {
+            Li[p] = pinv[Li[p]];
+        }
+        Li = Arrays.copyOf(Li, lnz);
+        Lx = Arrays.copyOf(Lx, lnz);
+        Ui = Arrays.copyOf(Ui, unz);
+        Ux = Arrays.copyOf(Ux, unz);
+    }
+
+    /**
+     * A non-recursive depth-first search in the graph of the computed columns of <i>L</i>.
+     * A row <i>i</i> already pivotal in column <i>J</i> leads to the rows of column <i>J</i> of <i>L</i>.
+     *
+     * @return the new top of the reach, which is stored in {@code pattern[top:n]} in topological order
+     */
+    private int reach(int root, int k, int top, int[] pattern, int[] stack, int[] pstack, int[] mark) {
+        int head = 0;
+        stack[0] = root;
+        while (head >= 0) {
+            final int j = stack[head];
+            final int J = pinv[j];
+            if (mark[j] != k) {
+                mark[j] = k;
+                pstack[head] = J < 0 ? 0 : Lp[J] + 1;
+            }
+            boolean done = true;
+            final int end = J < 0 ? 0 : Lp[J + 1];
+            for (int p = pstack[head]; p < end; ++p) {
+                final int i = Li[p];
+                if (mark[i] != k) {
+                    pstack[head] = p + 1;
+                    stack[++head] = i;
+                    done = false;
+                    break;
+                }
+            }
+            if (done) {
+                --head;
+                pattern[--top] = j;
+            }
+        }
+        return top;
+    }
+
+    /**
+     * Solve <i>Ax = b</i>.
+     *
+     * @param b a vector
+     * @return <i>x</i>
+     */
+    public DenseVector solve(Vector b) {
+        SuanShuUtils.assertArgument(b.size() == symbolic.n, "b must have length %d", symbolic.n);
+        return new DenseVector(solve(b.toArray()));
+    }
+
+    /**
+     * Solve <i>AX = B</i>, one column at a time.
+     *
+     * @param B a matrix of the right hand sides
+     * @return <i>X</i>
+     */
+    public DenseMatrix solve(Matrix B) {
+        SuanShuUtils.assertArgument(B.nRows() == symbolic.n, "B must have %d rows", symbolic.n);
+
+        double[][] X = new double[B.nRows()][B.nCols()];
+        for (int j = 1; j <= B.nCols(); ++j) {
+            double[] x = solve(B.getColumn(j).toArray());
+            for (int i = 0; i < x.length; ++i) {
+                X[i][j - 1] = x[i];
+            }
+        }
+        return new DenseMatrix(X);
+    }
+
+    private double[] solve(double[] b) {
+        final int n = symbolic.n;
+
+        double[] y = new double[n];
+        for (int i = 0; i < n; ++i) {
+            y[pinv[i]] = b[i];
+        }
+
+        // L z = P b
+        for (int j = 0; j < n; ++j) {
+            final double yj = y[j];
+            if (yj != 0.) {
+                for (int p = Lp[j] + 1; p < Lp[j + 1]; ++p) {
+                    y[Li[p]] -= Lx[p] * yj;
+                }
+            }
+        }
+
+        // U y = z
+        for (int j = n - 1; j >= 0; --j) {
+            final double yj = y[j] /= Ux[Up[j + 1] - 1];
+            if (yj != 0.) {
+                for (int p = Up[j]; p < Up[j + 1] - 1; ++p) {
+                    y[Ui[p]] -= Ux[p] * yj;
+                }
+            }
+        }
+
+        double[] x = new double[n];
+        for (int k = 0; k < n; ++k) {
+            x[symbolic.q[k]] = y[k];
+        }
+        return x;
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.multigrid;
+
+import com.numericalmethod.suanshu.datastructure.DimensionCheck;
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.factorization.triangle.LU;
+import com.numericalmethod.suanshu.matrix.doubles.linearsystem.LUSolver;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.CSRSparseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.CSRSparseMatrixBuilder;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.SparseVector;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.stationary.SORSweep;
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This is a smoothed aggregation algebraic multigrid (AMG) hierarchy for a sparse, symmetric and positive definite
+ * matrix, such as one from discretizing an elliptic partial differential equation.
+ * The hierarchy is built from the matrix alone, without any geometric information.
+ * On each level,
+ * <ol>
+ * <li>the unknowns are grouped into aggregates of strongly connected neighbors, where <i>j</i> is strongly connected
+ * to <i>i</i> if <i>|a<sub>ij</sub>| &ge; &theta; &radic;|a<sub>ii</sub>a<sub>jj</sub>|</i>;</li>
+ * <li>the tentative prolongator <i>P<sub>0</sub></i> interpolates a constant in each aggregate;</li>
+ * <li>the prolongator is smoothed by a damped Jacobi step,
+ * <i>P = (I - &omega;D<sup>-1</sup>A)P<sub>0</sub></i>, where <i>&omega; = 4 / (3&rho;(D<sup>-1</sup>A))</i>;</li>
+ * <li>the coarse matrix is the Galerkin product <i>A<sub>c</sub> = P<sup>t</sup>AP</i>.</li>
+ * </ol>
+ * The coarsening stops when a level is small enough to be solved by LU decomposition.
+ * <p/>
+ * A {@linkplain #vCycle(Vector, Vector) V-cycle} smooths the error by forward Gauss-Seidel sweeps before
+ * the coarse grid correction, and by backward sweeps after, using {@link SORSweep}.
+ * Hence, the V-cycle is a symmetric operator, and can be used as a preconditioner for
+ * {@linkplain com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.nonstationary.ConjugateGradientSolver CG}.
+ * The convergence rate of a V-cycle is typically independent of the mesh size.
+ * @see "P. Vanek, J. Mandel, M. Brezina, "Algebraic multigrid by smoothed aggregation for second and fourth order elliptic problems," Computing, 56(3), p. 179-196, 1996."
+ * @see <a href="http://en.wikipedia.org/wiki/Multigrid_method">Wikipedia: Multigrid method</a>
+ */
+public class AlgebraicMultigrid {
+
+    /**
+     * The operators on a level.
+     */
+    private static class Level {
+
+        private final CSRSparseMatrix A;
+        private final SORSweep smoother;
+        /** the prolongator from the next coarser level; {@code null} on the coarsest level */
+        private CSRSparseMatrix P;
+        /** the restrictor to the next coarser level, i.e., the transpose of {@code P} */
+        private CSRSparseMatrix R;
+
+        private Level(CSRSparseMatrix A) {
+            this.A = A;
+            this.smoother = new SORSweep(A, 1.); // Gauss-Seidel
+        }
+    }
+    /** the default strength of connection threshold */
+    public static final double DEFAULT_THETA = 0.08;
+    /** the default maximum size of the coarsest level */
+    public static final int DEFAULT_MAX_COARSE_SIZE = 100;
+    /** the maximum number of levels */
+    private static final int MAX_LEVELS = 25;
+    private final List<Level> levels = new ArrayList<Level>();
+    private final double theta;
+    private final int nSweeps;
+    /** the LU decomposition of the coarsest matrix; {@code null} if it is too big and is smoothed instead */
+    private final LU coarsest;
+
+    /**
+     * Construct a smoothed aggregation AMG hierarchy.
+     *
+     * @param A             a sparse, symmetric and positive definite matrix, preferably a {@code CSRSparseMatrix}
+     * @param theta         the strength of connection threshold, usually in [0, 0.25]
+     * @param maxCoarseSize the coarsening stops when the number of unknowns is at most this number
+     * @param nSweeps       the number of pre- and post-smoothing sweeps
+     */
+    public AlgebraicMultigrid(Matrix A, double theta, int maxCoarseSize, int nSweeps) {
+        SuanShuUtils.assertArgument(DimensionCheck.isSquare(A), "A must be a square matrix");
+        SuanShuUtils.assertArgument(maxCoarseSize >= 1, "maxCoarseSize must be positive");
+        SuanShuUtils.assertArgument(nSweeps >= 1, "nSweeps must be positive");
+
+        this.theta = theta;
+        this.nSweeps = nSweeps;
+
+        Level level = new Level(toCSR(A));
+        levels.add(level);
+        while (level.A.nRows() > maxCoarseSize && levels.size() < MAX_LEVELS) {
+            CSRSparseMatrix P = prolongator(level.A);
+            if (P.nCols() == 0 || P.nCols() >= level.A.nRows()) { // the coarsening stalls
+                break;
+            }
+
+            level.P = P;
+            level.R = P.t();
+            CSRSparseMatrix Ac = (CSRSparseMatrix) level.R.multiply(level.A.multiply(P));
+            level = new Level(Ac);
+            levels.add(level);
+        }
+
+        coarsest = level.A.nRows() <= maxCoarseSize ? new LU(level.A.toDense()) : null;
+    }
+
+    /**
+     * Construct a smoothed aggregation AMG hierarchy with the default parameters.
+     *
+     * @param A a sparse, symmetric and positive definite matrix, preferably a {@code CSRSparseMatrix}
+     */
+    public AlgebraicMultigrid(Matrix A) {
+        this(A, DEFAULT_THETA, DEFAULT_MAX_COARSE_SIZE, 1);
+    }
+
+    /**
+     * Get the number of levels in the hierarchy, including the original (finest) level.
+     *
+     * @return the number of levels
+     */
+    public int nLevels() {
+        return levels.size();
+    }
+
+    /**
+     * Get the matrix on a level.
+     *
+     * @param level the level, counting from 1 (the finest)
+     * @return the matrix on the level
+     */
+    public CSRSparseMatrix getMatrix(int level) {
+        return levels.get(level - 1).A;
+    }
+
+    /**
+     * Perform a V-cycle for <i>Ax = b</i>.
+     *
+     * @param b the right-hand side
+     * @param x the initial guess
+     * @return the improved solution
+     */
+    public Vector vCycle(Vector b, Vector x) {
+        return vCycle(0, b, x);
+    }
+
+    private Vector vCycle(int l, Vector b, Vector x) {
+        Level level = levels.get(l);
+        if (l == levels.size() - 1) {
+            if (coarsest != null) {
+                return new LUSolver().solve(coarsest, b);
+            }
+            for (int s = 0; s < nSweeps; ++s) { // the coarsening stalled; smooth only
+                x = level.smoother.backward(b, level.smoother.forward(b, x));
+            }
+            return x;
+        }
+
+        for (int s = 0; s < nSweeps; ++s) {
+            x = level.smoother.forward(b, x);
+        }
+
+        Vector r = b.minus(level.A.multiply(x));
+        Vector rc = level.R.multiply(r);
+        Vector ec = vCycle(l + 1, rc, new DenseVector(rc.size()));
+        x = x.add(level.P.multiply(ec));
+
+        for (int s = 0; s < nSweeps; ++s) {
+            x = level.smoother.backward(b, x);
+        }
+
+        return x;
+    }
+
+    /**
+     * Compute the smoothed prolongator of a level.
+     *
+     * @param A the matrix on the level
+     * @return the prolongator
+     */
+    private CSRSparseMatrix prolongator(CSRSparseMatrix A) {
+        final int n = A.nRows();
+
+        /* the diagonal, the strong connections, and the Gershgorin bound of the spectral radius of inv(D) * A */
+        double[] diagonal = new double[n];
+        for (int i = 0; i < n; ++i) {
+            diagonal[i] = A.get(i + 1, i + 1);
+            SuanShuUtils.assertArgument(Double.compare(diagonal[i], 0.) != 0, "A[%d, %d] must not be zero", i + 1, i + 1);
+        }
+
+        int[] strong_ptr = new int[n + 1];
+        int[] strong = new int[A.nNonZeros()];
+        double rho = 0.;
+        for (int i = 0; i < n; ++i) {
+            double sum = 0.;
+            int nStrong = strong_ptr[i];
+            for (SparseVector.Entry entry : A.getRow(i + 1)) {
+                int j = entry.index() - 1;
+                double aij = entry.value();
+                sum += Math.abs(aij);
+                if (j != i && Math.abs(aij) >= theta * Math.sqrt(Math.abs(diagonal[i] * diagonal[j]))) {
+                    strong[nStrong++] = j;
+                }
+            }
+            strong_ptr[i + 1] = nStrong;
+            rho = Math.max(rho, sum / Math.abs(diagonal[i]));
+        }
+
+        /* aggregate the unknowns; an isolated unknown is left alone to the smoother */
+        int[] aggregate = new int[n];
+        Arrays.fill(aggregate, -1);
+        int nAggregates = 0;
+        for (int i = 0; i < n; ++i) { // phase 1: an unknown and all its neighbors, if none of them is aggregated
+            if (aggregate[i] >= 0 || strong_ptr[i] == strong_ptr[i + 1]) {
+                continue;
+            }
+            boolean isFree = true;
+            for (int k = strong_ptr[i]; k < strong_ptr[i + 1] && isFree; ++k) {
+                isFree = aggregate[strong[k]] < 0;
+            }
+            if (isFree) {
+                aggregate[i] = nAggregates;
+                for (int k = strong_ptr[i]; k < strong_ptr[i + 1]; ++k) {
+                    aggregate[strong[k]] = nAggregates;
+                }
+                ++nAggregates;
+            }
+        }
+
+        int[] phase1 = aggregate.clone();
+        for (int i = 0; i < n; ++i) { // phase 2: join a neighboring aggregate from phase 1
+            if (aggregate[i] < 0) {
+                for (int k = strong_ptr[i]; k < strong_ptr[i + 1]; ++k) {
+                    if (phase1[strong[k]] >= 0) {
+                        aggregate[i] = phase1[strong[k]];
+                        break;
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < n; ++i) { // phase 3: the remaining unknowns and their free neighbors
+            if (aggregate[i] < 0 && strong_ptr[i] < strong_ptr[i + 1]) {
+                aggregate[i] = nAggregates;
+                for (int k = strong_ptr[i]; k < strong_ptr[i + 1]; ++k) {
+                    if (aggregate[strong[k]] < 0) {
+                        aggregate[strong[k]] = nAggregates;
+                    }
+                }
+                ++nAggregates;
+            }
+        }
+
+        /* the tentative prolongator, with orthonormal columns */
+        int[] size = new int[nAggregates];
+        for (int i = 0; i < n; ++i) {
+            if (aggregate[i] >= 0) {
+                size[aggregate[i]]++;
+            }
+        }
+        CSRSparseMatrixBuilder P0 = new CSRSparseMatrixBuilder(n, nAggregates, n);
+        for (int i = 0; i < n; ++i) {
+            if (aggregate[i] >= 0) {
+                P0.add(i + 1, aggregate[i] + 1, 1. / Math.sqrt(size[aggregate[i]]));
+            }
+        }
+        CSRSparseMatrix P = P0.build();
+
+        /* smooth the prolongator: P = P0 - omega * inv(D) * A * P0 */
+        double omega = 4. / 3. / rho;
+        CSRSparseMatrixBuilder scale = new CSRSparseMatrixBuilder(n, n, n);
+        for (int i = 0; i < n; ++i) {
+            scale.add(i + 1, i + 1, omega / diagonal[i]);
+        }
+        CSRSparseMatrix AP = (CSRSparseMatrix) scale.build().multiply(A.multiply(P));
+        return (CSRSparseMatrix) P.minus(AP);
+    }
+
+    private static CSRSparseMatrix toCSR(Matrix A) {
+        if (A instanceof CSRSparseMatrix) {
+            return (CSRSparseMatrix) A;
+        }
+
+        CSRSparseMatrixBuilder builder = new CSRSparseMatrixBuilder(A.nRows(), A.nCols());
+        for (int i = 1; i <= A.nRows(); ++i) {
+            Vector row = A.getRow(i);
+            if (row instanceof SparseVector) {
+                for (SparseVector.Entry entry : (SparseVector) row) {
+                    builder.add(i, entry.index(), entry.value());
+                }
+            } else {
+                for (int j = 1; j <= A.nCols(); ++j) {
+                    double aij = row.get(j);
+                    if (Double.compare(aij, 0.) != 0) {
+                        builder.add(i, j, aij);
+                    }
+                }
+            }
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.multigrid;
+
+import com.numericalmethod.suanshu.algorithm.iterative.monitor.IterationMonitor;
+import com.numericalmethod.suanshu.algorithm.iterative.monitor.NullMonitor;
+import com.numericalmethod.suanshu.algorithm.iterative.tolerance.Tolerance;
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.linearsystem.LSProblem;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.ConvergenceFailure;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.ConvergenceFailure.Reason;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.IterativeLinearSystemSolver;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+
+/**
+ * The algebraic multigrid (AMG) method solves a large, sparse, symmetric and positive definite system by
+ * repeating {@linkplain AlgebraicMultigrid#vCycle(Vector, Vector) V-cycles} of a smoothed aggregation hierarchy.
+ * Each V-cycle reduces the error by a factor that is typically independent of the problem size,
+ * so that the number of iterations does not grow as the mesh is refined.
+ * It is often more robust to use AMG as a preconditioner for
+ * {@linkplain com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.nonstationary.ConjugateGradientSolver CG};
+ * see {@link com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.AlgebraicMultigridPreconditioner}.
+ * @see AlgebraicMultigrid
+ */
+public class AlgebraicMultigridSolver implements IterativeLinearSystemSolver {
+
+    private final double theta;
+    private final int maxCoarseSize;
+    private final int maxIteration;
+    private final Tolerance tolerance;
+
+    /**
+     * Construct an AMG solver.
+     *
+     * @param theta         the strength of connection threshold, usually in [0, 0.25]
+     * @param maxCoarseSize the coarsening stops when the number of unknowns is at most this number
+     * @param maxIteration  the maximum number of V-cycles
+     * @param tolerance     the convergence threshold
+     */
+    public AlgebraicMultigridSolver(double theta, int maxCoarseSize, int maxIteration, Tolerance tolerance) {
+        this.theta = theta;
+        this.maxCoarseSize = maxCoarseSize;
+        this.maxIteration = maxIteration;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Construct an AMG solver with the default hierarchy parameters.
+     *
+     * @param maxIteration the maximum number of V-cycles
+     * @param tolerance    the convergence threshold
+     */
+    public AlgebraicMultigridSolver(int maxIteration, Tolerance tolerance) {
+        this(AlgebraicMultigrid.DEFAULT_THETA, AlgebraicMultigrid.DEFAULT_MAX_COARSE_SIZE, maxIteration, tolerance);
+    }
+
+    public IterativeLinearSystemSolver.Solution solve(LSProblem problem) throws ConvergenceFailure {
+        return solve(problem, new NullMonitor<Vector>());
+    }
+
+    @Override
+    public IterativeLinearSystemSolver.Solution solve(final LSProblem problem, final IterationMonitor<Vector> monitor) throws ConvergenceFailure {
+        return new IterativeLinearSystemSolver.Solution() {
+
+            private final Matrix A = problem.A();
+            private final Vector b = problem.b();
+            private final AlgebraicMultigrid amg = new AlgebraicMultigrid(A, theta, maxCoarseSize, 1);
+            private Vector x; // initial guess
+            private Vector r; // residual
+            private boolean isConverged;
+            private int count = 0;
+
+            @Override
+            public void setInitials(Vector... initials) {
+                x = initials[0];
+                r = b.minus(A.multiply(x));
+                isConverged = tolerance.isResidualSmall(r.norm());
+            }
+
+            @Override
+            public IterationMonitor<Vector> step() throws ConvergenceFailure {
+                monitor.addIterate(x);
+
+                x = amg.vCycle(b, x);
+                r = b.minus(A.multiply(x));
+
+                return monitor;
+            }
+
+            @Override
+            public Vector search(Vector... initials) throws ConvergenceFailure {
+                setInitials(initials);
+
+                for (; count < maxIteration && !isConverged;
+                        ++count, isConverged |= tolerance.isResidualSmall(r.norm())) {
+                    step();
+                }
+
+                monitor.addIterate(x);
+
+                if (!isConverged) {
+                    throw new ConvergenceFailure(Reason.MAX_ITERATIONS_EXCEEDED, maxIteration + " exceeded");
+                }
+
+                return x;
+            }
+        };
+    }
+}
@@ -33,7 +33,9 @@ import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.itera
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.IdentityPreconditioner;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.Preconditioner;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.PreconditionerFactory;
+import static com.numericalmethod.suanshu.matrix.doubles.operation.MatrixUtils.multiplyInto;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
 
 /**
  * The Biconjugate Gradient method (BiCG) is useful for solving non-symmetric
@@ -110,21 +112,26 @@ public class BiconjugateGradientSolver implements IterativeLinearSystemSolver {
             private final Matrix At = A.t();
             private final Preconditioner M = leftPreconditionerFactory.newInstance(A);
             private double rho0 = 1.;
-            private Vector x;
-            private Vector r; // residual
-            private Vector rc; // residual conjugate
-            private Vector p;
-            private Vector pc;
+            private DenseVector x;
+            private DenseVector r; // residual
+            private DenseVector rc; // residual conjugate
+            private DenseVector p;
+            private DenseVector pc;
+            private DenseVector q; // A * p
+            private DenseVector qc; // t(A) * pc
             private boolean isConverged;
             private int count = 0;
 
             @Override
             public void setInitials(Vector... initials) {
-                x = initials[0];// initial guess
-                r = b.minus(A.multiply(x)); // residual
+                x = new DenseVector(initials[0]);// initial guess
+                r = new DenseVector(A.nRows());
+                updateResidual(); // residual
                 rc = r.deepCopy(); // residual conjugate
-                p = x.ZERO();
-                pc = x.ZERO();
+                p = new DenseVector(A.nCols());
+                pc = new DenseVector(A.nCols());
+                q = new DenseVector(A.nRows());
+                qc = new DenseVector(A.nCols());
                 isConverged = tolerance.isResidualSmall(r.norm());
             }
 
@@ -141,11 +148,13 @@ public class BiconjugateGradientSolver implements IterativeLinearSystemSolver {
                 }
 
                 double beta = rho1 / rho0;
-                p = z.add(p.scaled(beta));
-                pc = zc.add(pc.scaled(beta));
+                p.scaleInPlace(beta);
+                p.addInPlace(z);
+                pc.scaleInPlace(beta);
+                pc.addInPlace(zc);
 
-                Vector q = A.multiply(p);
-                Vector qc = At.multiply(pc);
+                multiplyInto(A, p, q);
+                multiplyInto(At, pc, qc);
 
                 double qtpc = q.innerProduct(pc);
 
@@ -155,14 +164,16 @@ public class BiconjugateGradientSolver implements IterativeLinearSystemSolver {
 
                 double alpha = rho1 / qtpc;
 
-                x = x.add(p.scaled(alpha));
+                x.axpy(alpha, p);
 
                 if ((count + 1) % residualRefreshRate != 0) {
-                    r = r.minus(q.scaled(alpha));
-                    rc = rc.minus(qc.scaled(alpha));
+                    r.axpy(-alpha, q);
+                    rc.axpy(-alpha, qc);
                 } else {
-                    r = b.minus(A.multiply(x));
-                    rc = b.minus(At.multiply(x)); // TODO: r* = b* - t(A)x*
+                    updateResidual();
+                    multiplyInto(At, x, rc); // TODO: r* = b* - t(A)x*
+                    rc.scaleInPlace(-1.);
+                    rc.addInPlace(b);
                 }
 
                 rho0 = rho1;
@@ -170,6 +181,15 @@ public class BiconjugateGradientSolver implements IterativeLinearSystemSolver {
                 return monitor;
             }
 
+            /**
+             * r = b - Ax
+             */
+            private void updateResidual() {
+                multiplyInto(A, x, r);
+                r.scaleInPlace(-1.);
+                r.addInPlace(b);
+            }
+
             @Override
             public Vector search(Vector... initials) throws ConvergenceFailure {
                 setInitials(initials);
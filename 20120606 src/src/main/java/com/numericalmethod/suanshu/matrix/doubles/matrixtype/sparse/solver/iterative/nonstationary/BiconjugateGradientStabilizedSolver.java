@@ -33,7 +33,9 @@ import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.itera
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.IdentityPreconditioner;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.Preconditioner;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.PreconditionerFactory;
+import static com.numericalmethod.suanshu.matrix.doubles.operation.MatrixUtils.multiplyInto;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
 
 /**
  * The Biconjugate Gradient Stabilized (BiCGSTAB) method is useful for solving
@@ -105,11 +107,12 @@ public class BiconjugateGradientStabilizedSolver implements IterativeLinearSyste
             private final Vector b = problem.b();
             private final int maxIteration = Math.min(maxIteration0, A.nCols()); // guaranteed to converge in n iterations
             private final Preconditioner M = leftPreconditionerFactory.newInstance(A);
-            private Vector x;
-            private Vector r; // residual
-            private Vector ri;
-            private Vector p;
-            private Vector v;
+            private DenseVector x;
+            private DenseVector r; // residual
+            private DenseVector ri;
+            private DenseVector p;
+            private DenseVector v;
+            private DenseVector t;
             private double rho0 = 1.;
             private double alpha = 1.;
             private double omega = 1.;
@@ -118,13 +121,15 @@ public class BiconjugateGradientStabilizedSolver implements IterativeLinearSyste
 
             @Override
             public void setInitials(Vector... initials) {
-                x = initials[0];
+                x = new DenseVector(initials[0]);
 
-                r = b.minus(A.multiply(x)); // residual
+                r = new DenseVector(A.nRows());
+                updateResidual(); // residual
                 ri = r.deepCopy();
 
-                p = x.ZERO();
-                v = x.ZERO();
+                p = new DenseVector(A.nCols());
+                v = new DenseVector(A.nRows());
+                t = new DenseVector(A.nRows());
 
                 isConverged = tolerance.isResidualSmall(r.norm());
             }
@@ -144,10 +149,12 @@ public class BiconjugateGradientStabilizedSolver implements IterativeLinearSyste
                 }
 
                 double beta = (rho / rho0) * (alpha / omega);
-                p = r.add(p.minus(v.scaled(omega)).scaled(beta));
+                p.axpy(-omega, v);
+                p.scaleInPlace(beta);
+                p.addInPlace(r);
 
                 Vector pHat = M.solve(p); // preconditioning
-                v = A.multiply(pHat);
+                multiplyInto(A, pHat, v);
 
                 double sigma = ri.innerProduct(v);
                 if (Double.compare(sigma, 0.) == 0) {
@@ -155,26 +162,28 @@ public class BiconjugateGradientStabilizedSolver implements IterativeLinearSyste
                 }
 
                 alpha = rho / sigma;
-                Vector s = r.minus(v.scaled(alpha));
+                DenseVector s = r; // s = r - alpha * v overwrites r, which is not needed anymore
+                s.axpy(-alpha, v);
                 // check norm of s for convergence
                 isConverged = tolerance.isResidualSmall(s.norm());
                 if (isConverged) {
                     // update x and stop
-                    x = x.add(pHat.scaled(alpha));
+                    x.axpy(alpha, pHat);
                     return monitor;
                 }
 
                 Vector sHat = M.solve(s); // preconditioning
-                Vector t = A.multiply(sHat);
+                multiplyInto(A, sHat, t);
 
                 omega = t.innerProduct(s) / t.innerProduct(t);
 
-                x = x.add(pHat.scaled(alpha)).add(sHat.scaled(omega));
+                x.axpy(alpha, pHat);
+                x.axpy(omega, sHat);
 
                 if ((count + 1) % residualRefreshRate != 0) {
-                    r = s.minus(t.scaled(omega));
+                    r.axpy(-omega, t); // r = s - omega * t
                 } else {
-                    r = b.minus(A.multiply(x));
+                    updateResidual();
                 }
 
                 rho0 = rho;
@@ -182,6 +191,15 @@ public class BiconjugateGradientStabilizedSolver implements IterativeLinearSyste
                 return monitor;
             }
 
+            /**
+             * r = b - Ax
+             */
+            private void updateResidual() {
+                multiplyInto(A, x, r);
+                r.scaleInPlace(-1.);
+                r.addInPlace(b);
+            }
+
             @Override
             public Vector search(Vector... initials) throws ConvergenceFailure {
                 setInitials(initials);
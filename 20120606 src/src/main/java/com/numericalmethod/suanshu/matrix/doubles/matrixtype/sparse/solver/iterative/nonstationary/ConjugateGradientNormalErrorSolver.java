@@ -33,7 +33,9 @@ import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.itera
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.IdentityPreconditioner;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.Preconditioner;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.PreconditionerFactory;
+import static com.numericalmethod.suanshu.matrix.doubles.operation.MatrixUtils.multiplyInto;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
 
 /**
  * For an under-determined system of linear equations, <i>Ax = b</i>, or
@@ -136,18 +138,23 @@ public class ConjugateGradientNormalErrorSolver implements IterativeLinearSystem
             private final Vector b = problem.b();
             private final int maxIteration = Math.min(maxIteration0, A.nCols()); // guaranteed to converge in n iterations
             private final Preconditioner M = leftPreconditionerFactory.newInstance(A);
-            private Vector x; // initial guess
-            private Vector r; // residual
-            private Vector p;
+            private DenseVector x; // initial guess
+            private DenseVector r; // residual
+            private DenseVector p;
+            private DenseVector Atz; // t(A) * z
+            private DenseVector w; // A * p
             private double ztr0 = 1.;
             private boolean isConverged;
             private int count = 0;
 
             @Override
             public void setInitials(Vector... initials) {
-                x = initials[0];
-                r = b.minus(A.multiply(x)); // residual
-                p = x.ZERO();
+                x = new DenseVector(initials[0]);
+                r = new DenseVector(A.nRows());
+                updateResidual(); // residual
+                p = new DenseVector(A.nCols());
+                Atz = new DenseVector(A.nCols());
+                w = new DenseVector(A.nRows());
                 isConverged = tolerance.isResidualSmall(r.norm());
             }
 
@@ -163,9 +170,11 @@ public class ConjugateGradientNormalErrorSolver implements IterativeLinearSystem
                 }
 
                 double beta = ztr1 / ztr0;
-                p = At.multiply(z).add(p.scaled(beta));
+                multiplyInto(At, z, Atz);
+                p.scaleInPlace(beta);
+                p.addInPlace(Atz);
 
-                Vector w = A.multiply(p);
+                multiplyInto(A, p, w);
 
                 double ptp = p.innerProduct(p);
                 if (Double.compare(ptp, 0.) == 0) {
@@ -173,11 +182,11 @@ public class ConjugateGradientNormalErrorSolver implements IterativeLinearSystem
                 }
                 double alpha = ztr1 / ptp;
 
-                x = x.add(p.scaled(alpha));
+                x.axpy(alpha, p);
                 if ((count + 1) % residualRefreshRate != 0) {
-                    r = r.minus(w.scaled(alpha));
+                    r.axpy(-alpha, w);
                 } else {
-                    r = b.minus(A.multiply(x));
+                    updateResidual();
                 }
 
                 ztr0 = ztr1;
@@ -185,6 +194,15 @@ public class ConjugateGradientNormalErrorSolver implements IterativeLinearSystem
                 return monitor;
             }
 
+            /**
+             * r = b - Ax
+             */
+            private void updateResidual() {
+                multiplyInto(A, x, r);
+                r.scaleInPlace(-1.);
+                r.addInPlace(b);
+            }
+
             @Override
             public Vector search(Vector... initials) throws ConvergenceFailure {
                 setInitials(initials);
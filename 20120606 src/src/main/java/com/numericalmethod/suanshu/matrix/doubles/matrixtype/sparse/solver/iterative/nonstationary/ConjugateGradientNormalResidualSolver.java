@@ -33,7 +33,9 @@ import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.itera
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.IdentityPreconditioner;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.Preconditioner;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.PreconditionerFactory;
+import static com.numericalmethod.suanshu.matrix.doubles.operation.MatrixUtils.multiplyInto;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
 
 /**
  * For an under-determined system of linear equations, <i>Ax = b</i>, or
@@ -127,18 +129,23 @@ public class ConjugateGradientNormalResidualSolver implements IterativeLinearSys
             private final Vector b = problem.b();
             private final int maxIteration = Math.min(maxIteration0, A.nCols()); // guaranteed to converge in n iterations
             private final Preconditioner M = leftPreconditionerFactory.newInstance(A);
-            private Vector x; // initial guess
-            private Vector r; // residual
-            private Vector p;
+            private DenseVector x; // initial guess
+            private DenseVector r; // residual
+            private DenseVector p;
+            private DenseVector rTilde; // t(A) * r
+            private DenseVector w; // A * p
             private double ztrTilde0 = 1.;
             private boolean isConverged;
             private int count = 0;
 
             @Override
             public void setInitials(Vector... initials) {
-                x = initials[0];
-                r = b.minus(A.multiply(x)); // residual
-                p = x.ZERO();
+                x = new DenseVector(initials[0]);
+                r = new DenseVector(A.nRows());
+                updateResidual(); // residual
+                p = new DenseVector(A.nCols());
+                rTilde = new DenseVector(A.nCols());
+                w = new DenseVector(A.nRows());
                 isConverged = tolerance.isResidualSmall(r.norm());
             }
 
@@ -146,7 +153,7 @@ public class ConjugateGradientNormalResidualSolver implements IterativeLinearSys
             public IterationMonitor<Vector> step() throws ConvergenceFailure {
                 monitor.addIterate(x);
 
-                Vector rTilde = At.multiply(r);
+                multiplyInto(At, r, rTilde);
                 Vector z = M.solve(rTilde); // preconditioning
 
                 double ztrTilde1 = z.innerProduct(rTilde);
@@ -154,21 +161,22 @@ public class ConjugateGradientNormalResidualSolver implements IterativeLinearSys
                     throw new ConvergenceFailure(Reason.BREAKDOWN, "<z, rTilde> = 0");
                 }
                 double beta = ztrTilde1 / ztrTilde0;
-                p = z.add(p.scaled(beta));
+                p.scaleInPlace(beta);
+                p.addInPlace(z);
 
-                Vector w = A.multiply(p);
+                multiplyInto(A, p, w);
 
                 double wtw = w.innerProduct(w);
                 if (Double.compare(wtw, 0.) == 0) {
                     throw new ConvergenceFailure(Reason.BREAKDOWN, "<w, w> = 0");
                 }
                 double alpha = ztrTilde1 / wtw;
-                x = x.add(p.scaled(alpha));
+                x.axpy(alpha, p);
 
                 if ((count + 1) % residualRefreshRate != 0) {
-                    r = r.minus(w.scaled(alpha));
+                    r.axpy(-alpha, w);
                 } else {
-                    r = b.minus(A.multiply(x));
+                    updateResidual();
                 }
 
                 ztrTilde0 = ztrTilde1;
@@ -176,6 +184,15 @@ public class ConjugateGradientNormalResidualSolver implements IterativeLinearSys
                 return monitor;
             }
 
+            /**
+             * r = b - Ax
+             */
+            private void updateResidual() {
+                multiplyInto(A, x, r);
+                r.scaleInPlace(-1.);
+                r.addInPlace(b);
+            }
+
             @Override
             public Vector search(Vector... initials) throws ConvergenceFailure {
                 setInitials(initials);
@@ -33,7 +33,9 @@ import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.itera
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.IdentityPreconditioner;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.Preconditioner;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.PreconditionerFactory;
+import static com.numericalmethod.suanshu.matrix.doubles.operation.MatrixUtils.multiplyInto;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
 
 /**
  * The Conjugate Gradient method (CG) is useful for solving a symmetric n-by-n
@@ -118,18 +120,21 @@ public class ConjugateGradientSolver implements IterativeLinearSystemSolver {
             private final Vector b = problem.b();
             private final int maxIteration = Math.min(maxIteration0, A.nCols()); // guaranteed to converge in n iterations
             private final Preconditioner M = leftPreconditionerFactory.newInstance(A);
-            private Vector x; // initial guess
-            private Vector r; // residual
-            private Vector p; // search direction
+            private DenseVector x; // initial guess
+            private DenseVector r; // residual
+            private DenseVector p; // search direction
+            private DenseVector q; // A * p
             private double rtz0 = 1.;
             private boolean isConverged;
             private int count = 0;
 
             @Override
             public void setInitials(Vector... initials) {
-                x = initials[0];
-                r = b.minus(A.multiply(x));
-                p = x.ZERO();
+                x = new DenseVector(initials[0]);
+                r = new DenseVector(A.nRows());
+                updateResidual();
+                p = new DenseVector(A.nCols());
+                q = new DenseVector(A.nRows());
                 isConverged = tolerance.isResidualSmall(r.norm());
 
             }
@@ -145,9 +150,10 @@ public class ConjugateGradientSolver implements IterativeLinearSystemSolver {
                 }
 
                 double beta = rtz1 / rtz0;
-                p = z.add(p.scaled(beta));
+                p.scaleInPlace(beta);
+                p.addInPlace(z);
 
-                Vector q = A.multiply(p);
+                multiplyInto(A, p, q);
 
                 double ptq = p.innerProduct(q);
                 if (Double.compare(ptq, 0.) == 0) {
@@ -155,12 +161,12 @@ public class ConjugateGradientSolver implements IterativeLinearSystemSolver {
                 }
                 double alpha = rtz1 / ptq;
 
-                x = x.add(p.scaled(alpha));
+                x.axpy(alpha, p);
 
                 if ((count + 1) % residualRefreshRate != 0) {
-                    r = r.minus(q.scaled(alpha));
+                    r.axpy(-alpha, q);
                 } else {
-                    r = b.minus(A.multiply(x));
+                    updateResidual();
                 }
 
                 rtz0 = rtz1;
@@ -168,6 +174,15 @@ public class ConjugateGradientSolver implements IterativeLinearSystemSolver {
                 return monitor;
             }
 
+            /**
+             * r = b - Ax
+             */
+            private void updateResidual() {
+                multiplyInto(A, x, r);
+                r.scaleInPlace(-1.);
+                r.addInPlace(b);
+            }
+
             @Override
             public Vector search(Vector... initials) throws ConvergenceFailure {
                 setInitials(initials);
@@ -33,7 +33,9 @@ import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.itera
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.IdentityPreconditioner;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.Preconditioner;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.PreconditionerFactory;
+import static com.numericalmethod.suanshu.matrix.doubles.operation.MatrixUtils.multiplyInto;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
 
 /**
  * The Conjugate Gradient Squared method (CGS) is useful for solving
@@ -115,22 +117,27 @@ public class ConjugateGradientSquaredSolver implements IterativeLinearSystemSolv
             private final Vector b = problem.b();
             private final int maxIteration = Math.min(maxIteration0, A.nCols()); // guaranteed to converge in n iterations
             private final Preconditioner M = leftPreconditionerFactory.newInstance(A);
-            private Vector x; // initial guess
-            private Vector r; // residual
-            private Vector rTilde;
-            private Vector p;
-            private Vector q;
+            private DenseVector x; // initial guess
+            private DenseVector r; // residual
+            private DenseVector rTilde;
+            private DenseVector p;
+            private DenseVector q;
+            private DenseVector u;
+            private DenseVector v; // A * pHat, and then A * uHat
             private double rtrTilde0;
             private boolean isConverged;
             private int count = 0;
 
             @Override
             public void setInitials(Vector... initials) {
-                x = initials[0];
-                r = b.minus(A.multiply(x));
+                x = new DenseVector(initials[0]);
+                r = new DenseVector(A.nRows());
+                updateResidual();
                 rTilde = r.deepCopy();
-                p = x.ZERO();
-                q = x.ZERO();
+                p = new DenseVector(A.nCols());
+                q = new DenseVector(A.nCols());
+                u = new DenseVector(A.nCols());
+                v = new DenseVector(A.nRows());
                 rtrTilde0 = r.innerProduct(rTilde);
                 isConverged = tolerance.isResidualSmall(r.norm());
             }
@@ -145,30 +152,35 @@ public class ConjugateGradientSquaredSolver implements IterativeLinearSystemSolv
                 }
                 double beta = rtrTilde1 / rtrTilde0;
 
-                Vector u = r.add(q.scaled(beta));
-                p = u.add(q.add(p.scaled(beta)).scaled(beta));
+                u.set(1, r);
+                u.axpy(beta, q); // u = r + beta * q
+                p.scaleInPlace(beta);
+                p.addInPlace(q);
+                p.scaleInPlace(beta);
+                p.addInPlace(u); // p = u + beta * (q + beta * p)
 
                 Vector pHat = M.solve(p); // preconditioning
-                Vector vHat = A.multiply(pHat);
+                multiplyInto(A, pHat, v); // vHat
 
-                double rtv = vHat.innerProduct(rTilde);
+                double rtv = v.innerProduct(rTilde);
                 if (Double.compare(rtv, 0.) == 0) {
                     throw new ConvergenceFailure(Reason.BREAKDOWN, "<vHat, rTilde> = 0");
                 }
                 double alpha = rtrTilde1 / rtv;
-                q = u.minus(vHat.scaled(alpha));
+                q.set(1, u);
+                q.axpy(-alpha, v); // q = u - alpha * vHat
 
-                Vector uq = u.add(q);
-                Vector uHat = M.solve(uq); // preconditioning
+                u.addInPlace(q); // u + q; u is not needed anymore
+                Vector uHat = M.solve(u); // preconditioning
 
-                x = x.add(uHat.scaled(alpha));
+                x.axpy(alpha, uHat);
 
-                Vector qHat = A.multiply(uHat);
+                multiplyInto(A, uHat, v); // qHat
 
                 if ((count + 1) % residualRefreshRate != 0) {
-                    r = r.minus(qHat.scaled(alpha));
+                    r.axpy(-alpha, v);
                 } else {
-                    r = b.minus(A.multiply(x));
+                    updateResidual();
                 }
 
                 rtrTilde0 = rtrTilde1;
@@ -176,10 +188,22 @@ public class ConjugateGradientSquaredSolver implements IterativeLinearSystemSolv
                 return monitor;
             }
 
+            /**
+             * r = b - Ax
+             */
+            private void updateResidual() {
+                multiplyInto(A, x, r);
+                r.scaleInPlace(-1.);
+                r.addInPlace(b);
+            }
+
             @Override
             public Vector search(Vector... initials) throws ConvergenceFailure {
+                setInitials(initials);
+
                 for (; count < maxIteration && !isConverged;
-                        ++count, isConverged = tolerance.isResidualSmall(r.norm())) {
+                        ++count, isConverged |= tolerance.isResidualSmall(r.norm())) {
+                    step();
                 }
 
                 monitor.addIterate(x);
@@ -33,7 +33,9 @@ import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.itera
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.IdentityPreconditioner;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.Preconditioner;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.PreconditionerFactory;
+import static com.numericalmethod.suanshu.matrix.doubles.operation.MatrixUtils.multiplyInto;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
 
 /**
  * The Generalized Conjugate Residual method (GCR) is useful for solving
@@ -114,26 +116,31 @@ public class GeneralizedConjugateResidualSolver implements IterativeLinearSystem
                                              : maxIteration0; // restarted
             private final Preconditioner M = leftPreconditionerFactory.newInstance(A);
             private final int m = Math.min(m0, A.nCols()); // use restart or full version
-            private Vector x; // initial guess
-            private Vector r; // residual
+            private final DenseVector[] p = new DenseVector[m + 1]; // basis from Krylov subspace {v, A*v, A^2*v, ..., A^m*v}
+            private final DenseVector[] w = new DenseVector[m];
+            private final double[] delta = new double[m]; // dot products: (Api, Api)
+            private DenseVector x; // initial guess
+            private DenseVector r; // residual
+            private DenseVector u; // A * p[i - 1]
+            private DenseVector Ar;
             private boolean isConverged;
             private int count = 0;
 
             @Override
             public void setInitials(Vector... initials) {
-                x = initials[0];
-                r = b.minus(A.multiply(x));
+                x = new DenseVector(initials[0]);
+                r = new DenseVector(A.nRows());
+                updateResidual();
+                u = new DenseVector(A.nRows());
+                Ar = new DenseVector(A.nRows());
                 isConverged = tolerance.isResidualSmall(r.norm());
             }
 
             @Override
             public IterationMonitor<Vector> step() throws ConvergenceFailure {
-                Vector z = M.solve(r); // preconditioning
-                Vector[] p = new Vector[m + 1]; // basis from Krylov subspace {v, A*v, A^2*v, ..., A^m*v}
-                Vector[] w = new Vector[m];
-
-                double[] delta = new double[m]; // dot products: (Api, Api)
-                p[0] = z.scaled(1. / z.norm()); // normalize residual
+                DenseVector p0 = buffer(p, 0, A.nCols());
+                p0.set(M.solve(r)); // preconditioning
+                p0.scaleInPlace(1. / p0.norm()); // normalize residual
 
                 int i = 1;
                 for (; i <= m && count < maxIteration && !isConverged;
@@ -141,36 +148,62 @@ public class GeneralizedConjugateResidualSolver implements IterativeLinearSystem
 
                     monitor.addIterate(x);
 
-                    Vector u = A.multiply(p[i - 1]);
-                    w[i - 1] = M.solve(u); // preconditioning
+                    multiplyInto(A, p[i - 1], u);
+                    DenseVector wi = buffer(w, i - 1, A.nRows());
+                    wi.set(M.solve(u)); // preconditioning
 
-                    delta[i - 1] = w[i - 1].innerProduct(w[i - 1]);
+                    delta[i - 1] = wi.innerProduct(wi);
                     if (Double.compare(delta[i - 1], 0.) == 0) {
                         throw new ConvergenceFailure(Reason.BREAKDOWN, "<w, w> = 0");
                     }
 
-                    double alpha = r.innerProduct(w[i - 1]) / delta[i - 1]; // TODO: complex r should conjugated before dot product
+                    double alpha = r.innerProduct(wi) / delta[i - 1]; // TODO: complex r should conjugated before dot product
 
-                    x = x.add(p[i - 1].scaled(alpha));
-                    r = r.minus(w[i - 1].scaled(alpha));
+                    x.axpy(alpha, p[i - 1]);
+                    r.axpy(-alpha, wi);
 
-                    Vector Ar = A.multiply(r);
+                    multiplyInto(A, r, Ar);
                     Vector q = M.solve(Ar); // preconditioning
 
                     // compute p[i]
-                    p[i] = r;
+                    DenseVector pi = buffer(p, i, A.nCols());
+                    pi.set(r);
                     for (int j = 0; j < i; ++j) {
                         double beta = -q.innerProduct(w[j]) / delta[j];
-                        p[i] = p[i].add(p[j].scaled(beta));
+                        pi.axpy(beta, p[j]);
                     }
                 }
 
                 // compute residual
-                r = b.minus(A.multiply(x));
+                updateResidual();
 
                 return monitor;
             }
 
+            /**
+             * r = b - Ax
+             */
+            private void updateResidual() {
+                multiplyInto(A, x, r);
+                r.scaleInPlace(-1.);
+                r.addInPlace(b);
+            }
+
+            /**
+             * Get the i-th vector in a basis, allocating it on first use so that a restart reuses it.
+             *
+             * @param vectors the basis
+             * @param i       an index
+             * @param size    the size of a vector
+             * @return {@code vectors[i]}
+             */
+            private DenseVector buffer(DenseVector[] vectors, int i, int size) {
+                if (vectors[i] == null) {
+                    vectors[i] = new DenseVector(size);
+                }
+                return vectors[i];
+            }
+
             @Override
             public Vector search(Vector... initials) throws ConvergenceFailure {
                 setInitials(initials);
@@ -41,6 +41,7 @@ import com.numericalmethod.suanshu.matrix.doubles.operation.CreateMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.operation.SubMatrixRef;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
 import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+import static com.numericalmethod.suanshu.matrix.doubles.operation.MatrixUtils.multiplyInto;
 import static com.numericalmethod.suanshu.vector.doubles.dense.operation.CreateVector.subVector;
 import java.util.Arrays;
 
@@ -142,6 +143,7 @@ public class GeneralizedMinimalResidualSolver implements IterativeLinearSystemSo
             private Vector[] V = new Vector[m + 1]; // basis from Krylov subspace {v, A*v, A^2*v, ..., A^m*v}
             private Matrix H = new DenseMatrix(m + 1, m).ZERO(); // upper Hessenberg matrix
             private GivensMatrix[] Gs = new GivensMatrix[m]; // for Givens rotations
+            private final Vector Av = new DenseVector(A.nRows()); // workspace for A * v
             private Vector x; // initial guess
             private Vector r; // residual
             private double rNorm; // residual norm
@@ -169,8 +171,8 @@ public class GeneralizedMinimalResidualSolver implements IterativeLinearSystemSo
 
                     monitor.addIterate(x); // Note: GMRES does not compute intermediate iterates
 
-                    Vector w = A.multiply(V[i - 1]);
-                    w = M.solve(w); // preconditioning
+                    multiplyInto(A, V[i - 1], Av);
+                    Vector w = M.solve(Av); // preconditioning
 
                     Vector Hi = new DenseVector(m + 1, 0.); // construct the i-th column of H
                     for (int k = 1; k <= i; ++k) { // Arnoldi's iteration
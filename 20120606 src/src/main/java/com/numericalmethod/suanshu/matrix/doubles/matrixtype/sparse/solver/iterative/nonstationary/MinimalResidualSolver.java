@@ -34,6 +34,7 @@ import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.itera
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.IdentityPreconditioner;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.Preconditioner;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.PreconditionerFactory;
+import static com.numericalmethod.suanshu.matrix.doubles.operation.MatrixUtils.multiplyInto;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
 import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
 
@@ -102,18 +103,19 @@ public class MinimalResidualSolver implements IterativeLinearSystemSolver {
             private final Vector b = problem.b();
             private final int maxIteration = Math.min(maxIteration0, A.nCols()); // guaranteed to converge in n iterations
             private final Preconditioner M = leftPreconditionerFactory.newInstance(A);
-            private Vector x; // initial guess
-            private Vector r; // residual
-            private Vector v1;
+            private DenseVector x; // initial guess
+            private DenseVector r; // residual
+            private DenseVector v1;
             private Vector z1; // preconditioning
             private double beta0;
             private double beta;
             private double ibeta;
-            private Vector q1;
-            private Vector q0;
-            private Vector w1;
-            private Vector pkm3;
-            private Vector pkm2;
+            private DenseVector q1;
+            private DenseVector q0;
+            private DenseVector w1;
+            private DenseVector w2;
+            private DenseVector pkm3;
+            private DenseVector pkm2;
             private double T01 = 0.;
             private GivensMatrix G1 = GivensMatrix.Ctor2x2(1., 0.);
             private GivensMatrix G0 = GivensMatrix.Ctor2x2(1., 0.);
@@ -123,9 +125,10 @@ public class MinimalResidualSolver implements IterativeLinearSystemSolver {
 
             @Override
             public void setInitials(Vector... initials) {
-                x = initials[0];
-                r = b.minus(A.multiply(x)); // residual
-                v1 = r.deepCopy();
+                x = new DenseVector(initials[0]);
+                r = new DenseVector(A.nRows());
+                updateResidual(); // residual
+                v1 = new DenseVector(A.nRows());
                 z1 = M.solve(r); // preconditioning
                 beta0 = Math.sqrt(r.innerProduct(z1));
                 beta = beta0;
@@ -137,11 +140,14 @@ public class MinimalResidualSolver implements IterativeLinearSystemSolver {
 //                    return x; // initial guess converges
                 }
                 ibeta = 1. / beta0;
-                q1 = r.scaled(ibeta);
-                q0 = q1.ZERO();
-                w1 = z1.scaled(ibeta);
-                pkm3 = w1.ZERO();
-                pkm2 = w1.ZERO();
+                q1 = new DenseVector(r);
+                q1.scaleInPlace(ibeta);
+                q0 = new DenseVector(A.nRows());
+                w1 = new DenseVector(z1);
+                w1.scaleInPlace(ibeta);
+                w2 = new DenseVector(A.nRows());
+                pkm3 = new DenseVector(A.nRows());
+                pkm2 = new DenseVector(A.nRows());
                 isConverged = tolerance.isResidualSmall(r.norm());
             }
 
@@ -150,9 +156,10 @@ public class MinimalResidualSolver implements IterativeLinearSystemSolver {
                 monitor.addIterate(x);
 
                 // preconditioned Lanczos algorithm
-                v1 = A.multiply(w1).minus(q0.scaled(beta0));
+                multiplyInto(A, w1, v1);
+                v1.axpy(-beta0, q0);
                 double alpha1 = v1.innerProduct(w1);
-                v1 = v1.minus(q1.scaled(alpha1));
+                v1.axpy(-alpha1, q1);
                 Vector z2 = M.solve(v1); // preconditioning
 
                 double beta1 = Math.sqrt(v1.innerProduct(z2));
@@ -161,8 +168,11 @@ public class MinimalResidualSolver implements IterativeLinearSystemSolver {
                 }
 
                 ibeta = 1. / beta1;
-                Vector q2 = v1.scaled(ibeta);
-                Vector w2 = z2.scaled(ibeta);
+                DenseVector q2 = q0; // q0 is not needed anymore
+                q2.set(v1);
+                q2.scaleInPlace(ibeta);
+                w2.set(z2);
+                w2.scaleInPlace(ibeta);
 
                 double T11 = alpha1; // T(k, k)
                 double T21 = beta1; // T(k + 1, k)
@@ -186,16 +196,20 @@ public class MinimalResidualSolver implements IterativeLinearSystemSolver {
                 Vector t2 = new DenseVector(new double[]{t1.get(2), T21});
                 t2 = G2.multiply(t2); // [T(k, k) T(k + 1, k)]
 
-                Vector pkm1 = w1.minus(pkm2.scaled(t1.get(1))).
-                        minus(pkm3.scaled(t0.get(1))).
-                        scaled(1. / t2.get(1));
+                DenseVector pkm1 = pkm3; // pkm3 is not needed after this update
+                pkm1.scaleInPlace(-t0.get(1));
+                pkm1.axpy(-t1.get(1), pkm2);
+                pkm1.addInPlace(w1);
+                pkm1.scaleInPlace(1. / t2.get(1));
 
                 double a = beta * s.get(1);
-                x = x.add(pkm1.scaled(a));
-                r = b.minus(A.multiply(x)); // residual
+                x.axpy(a, pkm1);
+                updateResidual(); // residual
 
                 // shift variables
+                DenseVector w0 = w1;
                 w1 = w2;
+                w2 = w0;
 
                 T01 = T12;
 
@@ -215,6 +229,15 @@ public class MinimalResidualSolver implements IterativeLinearSystemSolver {
                 return monitor;
             }
 
+            /**
+             * r = b - Ax
+             */
+            private void updateResidual() {
+                multiplyInto(A, x, r);
+                r.scaleInPlace(-1.);
+                r.addInPlace(b);
+            }
+
             @Override
             public Vector search(Vector... initials) throws ConvergenceFailure {
                 setInitials(initials);
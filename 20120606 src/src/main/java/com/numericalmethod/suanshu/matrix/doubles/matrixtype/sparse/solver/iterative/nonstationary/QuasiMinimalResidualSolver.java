@@ -34,6 +34,7 @@ import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.itera
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.IdentityPreconditioner;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.Preconditioner;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.PreconditionerFactory;
+import static com.numericalmethod.suanshu.matrix.doubles.operation.MatrixUtils.multiplyInto;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
 import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
 import static java.lang.Math.abs;
@@ -282,18 +283,21 @@ public class QuasiMinimalResidualSolver implements IterativeLinearSystemSolver {
         private final Preconditioner M1;
         private final Preconditioner M2;
         private final int maxIteration;
-        private Vector x; // initial guess
-        private Vector r; // residual
-        private Vector vTilde;
-        private Vector y;
+        private DenseVector x; // initial guess
+        private DenseVector r; // residual
+        private DenseVector vTilde;
+        private DenseVector y;
         private double rho;
-        private Vector wTilde;
-        private Vector z;
+        private DenseVector wTilde;
+        private DenseVector z;
         private double xi;
-        private Vector p;
-        private Vector q;
-        private Vector d;
-        private Vector s;
+        private DenseVector p;
+        private DenseVector q;
+        private DenseVector d;
+        private DenseVector s;
+        private DenseVector v;
+        private DenseVector w;
+        private DenseVector pTilde;
         private double gamma = 1.;
         private double eta = -1.;
         private double epsilon = 1.;
@@ -313,18 +317,22 @@ public class QuasiMinimalResidualSolver implements IterativeLinearSystemSolver {
 
         @Override
         public void setInitials(Vector... initials) {
-            x = initials[0];
-            r = b.minus(A.multiply(x));
-            vTilde = r.deepCopy();
-            y = M1.solve(vTilde);
+            x = new DenseVector(initials[0]);
+            r = new DenseVector(A.nRows());
+            updateResidual();
+            vTilde = new DenseVector(r);
+            y = new DenseVector(M1.solve(vTilde));
             rho = y.norm();
-            wTilde = r.deepCopy();
-            z = M2.transposeSolve(wTilde);
+            wTilde = new DenseVector(r);
+            z = new DenseVector(M2.transposeSolve(wTilde));
             xi = z.norm();
-            p = r.ZERO();
-            q = r.ZERO();
-            d = x.ZERO();
-            s = r.ZERO();
+            p = new DenseVector(A.nCols());
+            q = new DenseVector(A.nRows());
+            d = new DenseVector(A.nCols());
+            s = new DenseVector(A.nRows());
+            v = new DenseVector(A.nRows());
+            w = new DenseVector(A.nRows());
+            pTilde = new DenseVector(A.nRows());
             isConverged = tolerance.isResidualSmall(r.norm());
         }
 
@@ -339,10 +347,12 @@ public class QuasiMinimalResidualSolver implements IterativeLinearSystemSolver {
             if (Double.compare(xi, 0.) == 0) {
                 throw new ConvergenceFailure(Reason.BREAKDOWN, "xi = 0");
             }
-            Vector v = vTilde.scaled(1. / rho);
-            y = y.scaled(1. / rho);
-            Vector w = wTilde.scaled(1. / xi);
-            z = z.scaled(1. / xi);
+            v.set(vTilde);
+            v.scaleInPlace(1. / rho);
+            y.scaleInPlace(1. / rho);
+            w.set(wTilde);
+            w.scaleInPlace(1. / xi);
+            z.scaleInPlace(1. / xi);
 
             double delta = z.innerProduct(y);
             if (Double.compare(delta, 0.) == 0) {
@@ -352,10 +362,12 @@ public class QuasiMinimalResidualSolver implements IterativeLinearSystemSolver {
             Vector yTilde = M2.solve(y);
             Vector zTilde = M1.transposeSolve(z);
 
-            p = yTilde.minus(p.scaled(xi * delta / epsilon));
-            q = zTilde.minus(q.scaled(rho * delta / epsilon));
+            p.scaleInPlace(-xi * delta / epsilon);
+            p.addInPlace(yTilde);
+            q.scaleInPlace(-rho * delta / epsilon);
+            q.addInPlace(zTilde);
 
-            Vector pTilde = A.multiply(p);
+            multiplyInto(A, p, pTilde);
             epsilon = q.innerProduct(pTilde);
             if (Double.compare(epsilon, 0.) == 0) {
                 throw new ConvergenceFailure(Reason.BREAKDOWN, "epsilon = 0");
@@ -366,12 +378,14 @@ public class QuasiMinimalResidualSolver implements IterativeLinearSystemSolver {
                 throw new ConvergenceFailure(Reason.BREAKDOWN, "beta = 0");
             }
 
-            vTilde = pTilde.minus(v.scaled(beta));
-            y = M1.solve(vTilde);
+            vTilde.set(pTilde);
+            vTilde.axpy(-beta, v);
+            y.set(M1.solve(vTilde));
             double rho1 = y.norm();
 
-            wTilde = At.multiply(q).minus(w.scaled(beta));
-            z = M2.transposeSolve(wTilde);
+            multiplyInto(At, q, wTilde);
+            wTilde.axpy(-beta, w);
+            z.set(M2.transposeSolve(wTilde));
             xi = z.norm();
 
             // compute Givens rotation to zero out T(k + 1, k)
@@ -385,15 +399,17 @@ public class QuasiMinimalResidualSolver implements IterativeLinearSystemSolver {
 
             double thetagammasquared = theta * gamma1;
             thetagammasquared *= thetagammasquared;
-            d = p.scaled(eta).add(d.scaled(thetagammasquared));
-            s = pTilde.scaled(eta).add(s.scaled(thetagammasquared));
+            d.scaleInPlace(thetagammasquared);
+            d.axpy(eta, p);
+            s.scaleInPlace(thetagammasquared);
+            s.axpy(eta, pTilde);
 
             // compute x and r
-            x = x.add(d);
+            x.addInPlace(d);
             if ((count + 1) % residualRefreshRate != 0) {
-                r = r.minus(s);
+                r.axpy(-1., s);
             } else {
-                r = b.minus(A.multiply(x));
+                updateResidual();
             }
 
             // shift variables
@@ -404,6 +420,15 @@ public class QuasiMinimalResidualSolver implements IterativeLinearSystemSolver {
             return monitor;
         }
 
+        /**
+         * r = b - Ax
+         */
+        private void updateResidual() {
+            multiplyInto(A, x, r);
+            r.scaleInPlace(-1.);
+            r.addInPlace(b);
+        }
+
         @Override
         public Vector search(Vector... initials) throws ConvergenceFailure {
             setInitials(initials);
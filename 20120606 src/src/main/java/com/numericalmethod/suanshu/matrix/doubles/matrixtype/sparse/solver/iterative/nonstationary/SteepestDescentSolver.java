@@ -33,7 +33,9 @@ import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.itera
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.IdentityPreconditioner;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.Preconditioner;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.PreconditionerFactory;
+import static com.numericalmethod.suanshu.matrix.doubles.operation.MatrixUtils.multiplyInto;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
 
 /**
  * The Steepest Descent method (SDM) solves a symmetric n-by-n linear system.
@@ -101,15 +103,18 @@ public class SteepestDescentSolver implements IterativeLinearSystemSolver {
             private final Matrix A = problem.A();
             private final Vector b = problem.b();
             private final Preconditioner M = leftPreconditionerFactory.newInstance(A);
-            private Vector x; // initial guess
-            private Vector r; // residual
+            private DenseVector x; // initial guess
+            private DenseVector r; // residual
+            private DenseVector q; // A * z
             private boolean isConverged;
             private int count = 0;
 
             @Override
             public void setInitials(Vector... initials) {
-                x = initials[0];
-                r = b.minus(A.multiply(x));
+                x = new DenseVector(initials[0]);
+                r = new DenseVector(A.nRows());
+                updateResidual();
+                q = new DenseVector(A.nRows());
                 isConverged = tolerance.isResidualSmall(r.norm());
             }
 
@@ -118,19 +123,28 @@ public class SteepestDescentSolver implements IterativeLinearSystemSolver {
                 monitor.addIterate(x);
 
                 Vector z = M.solve(r); // preconditioning
-                Vector q = A.multiply(z);
+                multiplyInto(A, z, q);
                 double alpha = r.innerProduct(z) / q.innerProduct(z);
 
-                x = x.add(z.scaled(alpha));
+                x.axpy(alpha, z);
                 if ((count + 1) % residualRefreshRate != 0) {
-                    r = r.minus(q.scaled(alpha));
+                    r.axpy(-alpha, q);
                 } else {
-                    r = b.minus(A.multiply(x));
+                    updateResidual();
                 }
 
                 return monitor;
             }
 
+            /**
+             * r = b - Ax
+             */
+            private void updateResidual() {
+                multiplyInto(A, x, r);
+                r.scaleInPlace(-1.);
+                r.addInPlace(b);
+            }
+
             @Override
             public Vector search(Vector... initials) throws ConvergenceFailure {
                 setInitials(initials);
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner;
+
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.multigrid.AlgebraicMultigrid;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+
+/**
+ * This preconditioner applies one V-cycle of a smoothed aggregation {@link AlgebraicMultigrid} hierarchy,
+ * starting from zero, to approximate <i>A<sup>-1</sup>x</i>.
+ * The V-cycle is symmetric and positive definite for a symmetric and positive definite <i>A</i>,
+ * so this is suitable for
+ * {@linkplain com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.nonstationary.ConjugateGradientSolver CG}.
+ * The number of preconditioned CG iterations is then (almost) independent of the mesh size.
+ */
+public class AlgebraicMultigridPreconditioner implements Preconditioner {
+
+    /**
+     * This factory constructs a new instance of {@link AlgebraicMultigridPreconditioner} for each coefficient
+     * matrix.
+     */
+    public static class Factory implements PreconditionerFactory {
+
+        @Override
+        public AlgebraicMultigridPreconditioner newInstance(Matrix A) {
+            return new AlgebraicMultigridPreconditioner(A);
+        }
+    }
+    private final AlgebraicMultigrid amg;
+
+    /**
+     * Construct an AMG preconditioner with the default hierarchy parameters.
+     *
+     * @param A a sparse, symmetric and positive definite matrix, preferably a {@code CSRSparseMatrix}
+     */
+    public AlgebraicMultigridPreconditioner(Matrix A) {
+        this(new AlgebraicMultigrid(A));
+    }
+
+    /**
+     * Construct an AMG preconditioner from an AMG hierarchy.
+     *
+     * @param amg an AMG hierarchy
+     */
+    public AlgebraicMultigridPreconditioner(AlgebraicMultigrid amg) {
+        this.amg = amg;
+    }
+
+    /**
+     * Apply a V-cycle to <i>Av = x</i> with zero initial guess.
+     *
+     * @param x a vector
+     * @return an approximation of <i>A<sup>-1</sup>x</i>
+     */
+    @Override
+    public Vector solve(Vector x) {
+        return amg.vCycle(x, new DenseVector(x.size()));
+    }
+
+    /**
+     * <i>M<sup>t</sup> = M</i> as the V-cycle is symmetric.
+     *
+     * @param x a vector
+     * @return {@code solve(x)}
+     */
+    @Override
+    public Vector transposeSolve(Vector x) {
+        return solve(x);
+    }
+}
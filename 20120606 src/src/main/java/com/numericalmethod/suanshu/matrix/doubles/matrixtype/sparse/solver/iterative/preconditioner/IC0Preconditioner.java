@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner;
+
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.CompressedRows;
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+
+/**
+ * The incomplete Cholesky factorization with zero fill-in, IC(0), computes
+ * a lower triangular matrix <i>L</i> such that
+ * <blockquote><i>
+ * M = LL<sup>t</sup> &asymp; A
+ * </i></blockquote>
+ * where <i>L</i> has the same sparsity pattern as the lower triangular part of <i>A</i>.
+ * This is the symmetric counterpart of {@link ILU0Preconditioner}, and is suitable for
+ * {@linkplain com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.nonstationary.ConjugateGradientSolver CG}
+ * because <i>M</i> is symmetric and positive definite.
+ * Only the lower triangular part of <i>A</i> is read.
+ * <p/>
+ * The factorization exists for an M-matrix but may break down for a general symmetric positive definite matrix.
+ * @see "Yousef Saad, "Incomplete Cholesky," in <i>Iterative Methods for Sparse Linear Systems</i>, 2nd ed. 2000, ch. 10, sec. 10.3.2."
+ */
+public class IC0Preconditioner implements Preconditioner {
+
+    /**
+     * This factory constructs a new instance of {@link IC0Preconditioner} for each coefficient matrix.
+     */
+    public static class Factory implements PreconditionerFactory {
+
+        @Override
+        public IC0Preconditioner newInstance(Matrix A) {
+            return new IC0Preconditioner(A);
+        }
+    }
+    private final LevelScheduledTriangularSolver L;
+
+    /**
+     * Construct an IC(0) preconditioner.
+     *
+     * @param A a symmetric and positive definite coefficient matrix, preferably a {@code CSRSparseMatrix}
+     * @throws IllegalArgumentException if the factorization breaks down
+     */
+    public IC0Preconditioner(Matrix A) {
+        CompressedRows rows = new CompressedRows(A);
+        final int n = rows.n;
+        final int[] col_ind = rows.col_ind;
+        final double[] a = rows.value; // only the lower triangular part is factorized in place
+
+        int[] begin = rows.row_ptr;
+        int[] diag = new int[n];
+        double[] d = new double[n];
+        for (int i = 0; i < n; ++i) {
+            diag[i] = rows.diagonal(i);
+            SuanShuUtils.assertArgument(diag[i] >= 0, "A[%d, %d] must not be zero", i + 1, i + 1);
+
+            for (int k = begin[i]; k <= diag[i]; ++k) { // L[i, j] for j <= i, from left to right
+                int j = col_ind[k];
+
+                /* sum = A[i, j] - L[i, ] . L[j, ] over the columns before j */
+                double sum = a[k];
+                int p = begin[i];
+                int q = begin[j];
+                while (p < k && q < diag[j]) {
+                    if (col_ind[p] < col_ind[q]) {
+                        ++p;
+                    } else if (col_ind[p] > col_ind[q]) {
+                        ++q;
+                    } else {
+                        sum -= a[p++] * a[q++];
+                    }
+                }
+
+                if (j < i) {
+                    a[k] = sum / d[j];
+                } else {
+                    SuanShuUtils.assertArgument(sum > 0., "the factorization breaks down at row %d", i + 1);
+                    d[i] = Math.sqrt(sum);
+                    a[k] = d[i];
+                }
+            }
+        }
+
+        L = LevelScheduledTriangularSolver.triangle(rows, true, d);
+    }
+
+    /**
+     * Solve <i>LL<sup>t</sup>v = x</i>.
+     *
+     * @param x a vector
+     * @return <i>L<sup>-t</sup>L<sup>-1</sup>x</i>
+     */
+    @Override
+    public Vector solve(Vector x) {
+        double[] v = x.toArray();
+        L.solve(v);
+        L.t().solve(v);
+        return new DenseVector(v);
+    }
+
+    /**
+     * <i>M<sup>t</sup> = M</i> as <i>M</i> is symmetric.
+     *
+     * @param x a vector
+     * @return {@code solve(x)}
+     */
+    @Override
+    public Vector transposeSolve(Vector x) {
+        return solve(x);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner;
+
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.CompressedRows;
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+import java.util.Arrays;
+
+/**
+ * The incomplete LU factorization with zero fill-in, ILU(0), computes
+ * a unit lower triangular matrix <i>L</i> and an upper triangular matrix <i>U</i>
+ * such that
+ * <blockquote><i>
+ * M = LU &asymp; A
+ * </i></blockquote>
+ * where <i>L + U</i> has the same sparsity pattern as <i>A</i>.
+ * That is, the fill-ins in Gaussian elimination are discarded.
+ * The triangular solves in applying the preconditioner are level-scheduled so that
+ * the independent rows are solved in parallel.
+ * <p/>
+ * The factorization breaks down if a pivot is zero, e.g., when <i>A</i> has a zero diagonal entry.
+ * It is guaranteed to exist for an M-matrix, and is often good enough for diagonally dominant matrices.
+ * @see "Yousef Saad, "Zero fill-in ILU (ILU(0))," in <i>Iterative Methods for Sparse Linear Systems</i>, 2nd ed. 2000, ch. 10, sec. 10.3.2, p. 293-297."
+ */
+public class ILU0Preconditioner implements Preconditioner {
+
+    /**
+     * This factory constructs a new instance of {@link ILU0Preconditioner} for each coefficient matrix.
+     */
+    public static class Factory implements PreconditionerFactory {
+
+        @Override
+        public ILU0Preconditioner newInstance(Matrix A) {
+            return new ILU0Preconditioner(A);
+        }
+    }
+    private final LevelScheduledTriangularSolver L;
+    private final LevelScheduledTriangularSolver U;
+
+    /**
+     * Construct an ILU(0) preconditioner.
+     *
+     * @param A a square coefficient matrix, preferably a {@code CSRSparseMatrix}
+     * @throws IllegalArgumentException if a pivot is zero
+     */
+    public ILU0Preconditioner(Matrix A) {
+        CompressedRows LU = new CompressedRows(A); // factorized in place
+        final int n = LU.n;
+        final int[] row_ptr = LU.row_ptr;
+        final int[] col_ind = LU.col_ind;
+        final double[] a = LU.value;
+
+        int[] diag = new int[n];
+        int[] position = new int[n]; // the position of a column in the current row; -1 if not in the pattern
+        Arrays.fill(position, -1);
+        for (int i = 0; i < n; ++i) {
+            diag[i] = LU.diagonal(i);
+            SuanShuUtils.assertArgument(diag[i] >= 0, "A[%d, %d] must not be zero", i + 1, i + 1);
+
+            for (int k = row_ptr[i]; k < row_ptr[i + 1]; ++k) {
+                position[col_ind[k]] = k;
+            }
+
+            for (int k = row_ptr[i]; k < diag[i]; ++k) { // the strictly lower part, from left to right
+                int j = col_ind[k];
+                a[k] /= a[diag[j]]; // L[i, j]
+                for (int q = diag[j] + 1; q < row_ptr[j + 1]; ++q) { // subtract L[i, j] * U[j, ] within the pattern
+                    int p = position[col_ind[q]];
+                    if (p >= 0) {
+                        a[p] -= a[k] * a[q];
+                    }
+                }
+            }
+
+            for (int k = row_ptr[i]; k < row_ptr[i + 1]; ++k) {
+                position[col_ind[k]] = -1;
+            }
+
+            SuanShuUtils.assertArgument(Double.compare(a[diag[i]], 0.) != 0, "zero pivot at row %d", i + 1);
+        }
+
+        double[] d = new double[n];
+        for (int i = 0; i < n; ++i) {
+            d[i] = a[diag[i]];
+        }
+
+        L = LevelScheduledTriangularSolver.triangle(LU, true, null);
+        U = LevelScheduledTriangularSolver.triangle(LU, false, d);
+    }
+
+    /**
+     * Solve <i>LUv = x</i>.
+     *
+     * @param x a vector
+     * @return <i>U<sup>-1</sup>L<sup>-1</sup>x</i>
+     */
+    @Override
+    public Vector solve(Vector x) {
+        double[] v = x.toArray();
+        L.solve(v);
+        U.solve(v);
+        return new DenseVector(v);
+    }
+
+    /**
+     * Solve <i>(LU)<sup>t</sup>v = U<sup>t</sup>L<sup>t</sup>v = x</i>.
+     *
+     * @param x a vector
+     * @return <i>L<sup>-t</sup>U<sup>-t</sup>x</i>
+     */
+    @Override
+    public Vector transposeSolve(Vector x) {
+        double[] v = x.toArray();
+        U.t().solve(v);
+        L.t().solve(v);
+        return new DenseVector(v);
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner;
+
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.CompressedRows;
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+import java.util.Arrays;
+
+/**
+ * The incomplete LU factorization with threshold, ILUT(&tau;, p), computes
+ * a unit lower triangular matrix <i>L</i> and an upper triangular matrix <i>U</i>
+ * such that <i>M = LU &asymp; A</i>.
+ * Unlike {@link ILU0Preconditioner}, the sparsity pattern is determined dynamically by two dropping rules
+ * when row <i>i</i> is eliminated.
+ * <ol>
+ * <li>An entry is dropped if its magnitude is smaller than <i>&tau;</i> times the 2-norm of row <i>i</i> of
+ * <i>A</i>.</li>
+ * <li>Only the <i>p</i> largest entries (in magnitude) in each row of <i>L</i> and of <i>U</i>, besides the diagonal,
+ * are kept.</li>
+ * </ol>
+ * A smaller <i>&tau;</i> and a bigger <i>p</i> give a more accurate, but more expensive, preconditioner.
+ * A zero pivot is replaced by <i>&tau;</i> times the row norm (or {@value #ZERO_PIVOT_SHIFT} if <i>&tau;</i> = 0)
+ * so that the factorization always completes.
+ * @see "Yousef Saad, "Threshold strategies and ILUT," in <i>Iterative Methods for Sparse Linear Systems</i>, 2nd ed. 2000, ch. 10, sec. 10.4, p. 305-310."
+ */
+public class ILUTPreconditioner implements Preconditioner {
+
+    /**
+     * This factory constructs a new instance of {@link ILUTPreconditioner} for each coefficient matrix.
+     */
+    public static class Factory implements PreconditionerFactory {
+
+        private final double tau;
+        private final int p;
+
+        /**
+         * Construct a factory of ILUT preconditioners.
+         *
+         * @param tau the relative drop tolerance
+         * @param p   the maximum number of off-diagonal non-zeros in each row of <i>L</i> and of <i>U</i>
+         */
+        public Factory(double tau, int p) {
+            this.tau = tau;
+            this.p = p;
+        }
+
+        @Override
+        public ILUTPreconditioner newInstance(Matrix A) {
+            return new ILUTPreconditioner(A, tau, p);
+        }
+    }
+    /** the relative size of a replacement for a zero pivot when {@code tau = 0} */
+    private static final double ZERO_PIVOT_SHIFT = 1e-4;
+    private final LevelScheduledTriangularSolver L;
+    private final LevelScheduledTriangularSolver U;
+
+    /**
+     * Construct an ILUT preconditioner.
+     *
+     * @param A   a square coefficient matrix, preferably a {@code CSRSparseMatrix}
+     * @param tau the relative drop tolerance
+     * @param p   the maximum number of off-diagonal non-zeros in each row of <i>L</i> and of <i>U</i>
+     * @throws IllegalArgumentException if a row of <i>A</i> is zero
+     */
+    public ILUTPreconditioner(Matrix A, double tau, int p) {
+        SuanShuUtils.assertArgument(tau >= 0., "tau must be non-negative");
+        SuanShuUtils.assertArgument(p >= 0, "p must be non-negative");
+
+        CompressedRows rows = new CompressedRows(A);
+        final int n = rows.n;
+
+        Rows l = new Rows(n, rows.row_ptr[n] / 2 + n);
+        Rows u = new Rows(n, rows.row_ptr[n] / 2 + n);
+        double[] d = new double[n];
+
+        double[] w = new double[n]; // the working row
+        int[] position = new int[n]; // the position of a column in jw; -1 if w is zero there
+        Arrays.fill(position, -1);
+        int[] jw = new int[n]; // the non-zero columns of w
+        int[] keptColumns = new int[n];
+        double[] keptValues = new double[n];
+
+        for (int i = 0; i < n; ++i) {
+            int len = 0;
+            double norm = 0.;
+            for (int k = rows.row_ptr[i]; k < rows.row_ptr[i + 1]; ++k) {
+                int j = rows.col_ind[k];
+                w[j] = rows.value[k];
+                position[j] = len;
+                jw[len++] = j;
+                norm += w[j] * w[j];
+            }
+            norm = Math.sqrt(norm);
+            SuanShuUtils.assertArgument(norm > 0., "row %d of A is zero", i + 1);
+            final double tol = tau * norm;
+
+            /* eliminate the strictly lower part from left to right; the fill-ins are always to the right */
+            for (int k = -1;;) {
+                int next = i;
+                for (int t = 0; t < len; ++t) {
+                    if (jw[t] > k && jw[t] < next) {
+                        next = jw[t];
+                    }
+                }
+                if (next == i) {
+                    break;
+                }
+                k = next;
+
+                double lik = w[k] / d[k];
+                if (Math.abs(lik) <= tol) {
+                    w[k] = 0.; // dropped
+                    continue;
+                }
+                w[k] = lik;
+
+                for (int q = u.row_ptr[k]; q < u.row_ptr[k + 1]; ++q) {
+                    int j = u.col_ind[q];
+                    if (position[j] < 0) { // fill-in
+                        position[j] = len;
+                        jw[len++] = j;
+                    }
+                    w[j] -= lik * u.value[q];
+                }
+            }
+
+            /* apply the dropping rules to the L and U parts */
+            int nL = 0;
+            for (int t = 0; t < len; ++t) {
+                int j = jw[t];
+                if (j < i && Math.abs(w[j]) > tol) {
+                    keptColumns[nL] = j;
+                    keptValues[nL] = w[j];
+                    ++nL;
+                }
+            }
+            l.addRow(i, keptColumns, keptValues, nL, p);
+
+            d[i] = position[i] >= 0 ? w[i] : 0.;
+            if (Double.compare(d[i], 0.) == 0) {
+                d[i] = (tau > 0. ? tau : ZERO_PIVOT_SHIFT) * norm;
+            }
+
+            int nU = 0;
+            for (int t = 0; t < len; ++t) {
+                int j = jw[t];
+                if (j > i && Math.abs(w[j]) > tol) {
+                    keptColumns[nU] = j;
+                    keptValues[nU] = w[j];
+                    ++nU;
+                }
+            }
+            u.addRow(i, keptColumns, keptValues, nU, p);
+
+            for (int t = 0; t < len; ++t) { // reset the working row
+                w[jw[t]] = 0.;
+                position[jw[t]] = -1;
+            }
+        }
+
+        L = new LevelScheduledTriangularSolver(n, l.row_ptr, l.col_ind, l.value, null, true);
+        U = new LevelScheduledTriangularSolver(n, u.row_ptr, u.col_ind, u.value, d, false);
+    }
+
+    /**
+     * Solve <i>LUv = x</i>.
+     *
+     * @param x a vector
+     * @return <i>U<sup>-1</sup>L<sup>-1</sup>x</i>
+     */
+    @Override
+    public Vector solve(Vector x) {
+        double[] v = x.toArray();
+        L.solve(v);
+        U.solve(v);
+        return new DenseVector(v);
+    }
+
+    /**
+     * Solve <i>(LU)<sup>t</sup>v = U<sup>t</sup>L<sup>t</sup>v = x</i>.
+     *
+     * @param x a vector
+     * @return <i>L<sup>-t</sup>U<sup>-t</sup>x</i>
+     */
+    @Override
+    public Vector transposeSolve(Vector x) {
+        double[] v = x.toArray();
+        U.t().solve(v);
+        L.t().solve(v);
+        return new DenseVector(v);
+    }
+
+    /**
+     * The strictly triangular rows of a factor, appended one by one.
+     */
+    private static class Rows {
+
+        private final int[] row_ptr;
+        private int[] col_ind;
+        private double[] value;
+
+        private Rows(int n, int capacity) {
+            row_ptr = new int[n + 1];
+            col_ind = new int[capacity];
+            value = new double[capacity];
+        }
+
+        /**
+         * Append row {@code i}, keeping the {@code p} largest entries sorted by column.
+         * The arrays {@code columns} and {@code values} are reordered.
+         */
+        private void addRow(int i, int[] columns, double[] values, int size, int p) {
+            int kept = Math.min(size, p);
+            if (kept < size) {
+                for (int s = 0; s < kept; ++s) { // move the s-th largest to position s
+                    int max = s;
+                    for (int t = s + 1; t < size; ++t) {
+                        if (Math.abs(values[t]) > Math.abs(values[max])) {
+                            max = t;
+                        }
+                    }
+                    swap(columns, values, s, max);
+                }
+            }
+
+            long[] keys = new long[kept]; // sort by column; the columns are unique
+            for (int s = 0; s < kept; ++s) {
+                keys[s] = ((long) columns[s] << 32) | s;
+            }
+            Arrays.sort(keys);
+
+            int begin = row_ptr[i];
+            if (begin + kept > col_ind.length) {
+                int capacity = Math.max(begin + kept, 2 * col_ind.length);
+                col_ind = Arrays.copyOf(col_ind, capacity);
+                value = Arrays.copyOf(value, capacity);
+            }
+            for (int s = 0; s < kept; ++s) {
+                col_ind[begin + s] = (int) (keys[s] >>> 32);
+                value[begin + s] = values[(int) keys[s]];
+            }
+            row_ptr[i + 1] = begin + kept;
+        }
+
+        private static void swap(int[] columns, double[] values, int a, int b) {
+            int c = columns[a];
+            columns[a] = columns[b];
+            columns[b] = c;
+            double v = values[a];
+            values[a] = values[b];
+            values[b] = v;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner;
+
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.CompressedRows;
+import com.numericalmethod.suanshu.parallel.LoopBody;
+import com.numericalmethod.suanshu.parallel.MultipleExecutionException;
+import com.numericalmethod.suanshu.parallel.ParallelExecutor;
+import java.util.Arrays;
+
+/**
+ * This solves a sparse triangular system <i>Tx = b</i> by level scheduling.
+ * Row <i>i</i> depends on row <i>j</i> if <i>T<sub>ij</sub> &ne; 0</i>.
+ * The level of a row is one plus the maximum level of the rows it depends on,
+ * so the rows in the same level are independent of each other.
+ * The levels are solved one after another, and the rows in a big level are solved in parallel.
+ * <p/>
+ * The strictly triangular part is stored in 0-based compressed sparse row arrays, and the diagonal separately.
+ * @see "Yousef Saad, "Level scheduling," in <i>Iterative Methods for Sparse Linear Systems</i>, 2nd ed. 2000, ch. 11, sec. 11.6.2."
+ */
+class LevelScheduledTriangularSolver {
+
+    private static class ParallelExecutorInstanceHolder { // thread-safe lazy initialization idiom
+
+        private static final ParallelExecutor instance = new ParallelExecutor();
+    }
+    /** the number of rows solved by a task */
+    private static final int CHUNK = 256;
+    /** the minimum number of rows in a level to solve them in parallel */
+    private static final int PARALLEL_THRESHOLD = 4 * CHUNK;
+    private final int n;
+    private final boolean isLower;
+    private final int[] row_ptr;
+    private final int[] col_ind;
+    private final double[] value;
+    /** the diagonal; {@code null} for a unit triangular matrix */
+    private final double[] diagonal;
+    /** the start of each level in {@link #rows}, followed by <i>n</i> */
+    private final int[] level_ptr;
+    /** the rows sorted by level */
+    private final int[] rows;
+    private volatile LevelScheduledTriangularSolver transpose = null;
+
+    /**
+     * Construct a solver for a sparse triangular matrix.
+     *
+     * @param n        the matrix dimension
+     * @param row_ptr  the start of each row of the strictly triangular part, followed by its number of non-zeros
+     * @param col_ind  the 0-based column indices of the strictly triangular part
+     * @param value    the values of the strictly triangular part
+     * @param diagonal the diagonal; {@code null} for a unit triangular matrix
+     * @param isLower  {@code true} if the matrix is lower triangular
+     */
+    LevelScheduledTriangularSolver(int n, int[] row_ptr, int[] col_ind, double[] value, double[] diagonal, boolean isLower) {
+        this.n = n;
+        this.row_ptr = row_ptr;
+        this.col_ind = col_ind;
+        this.value = value;
+        this.diagonal = diagonal;
+        this.isLower = isLower;
+
+        /* compute the level of each row */
+        int[] level = new int[n];
+        int nLevels = 0;
+        for (int r = 0; r < n; ++r) {
+            int i = isLower ? r : n - 1 - r; // the rows that row i depends on come first
+            int l = 0;
+            for (int k = row_ptr[i]; k < row_ptr[i + 1]; ++k) {
+                l = Math.max(l, level[col_ind[k]] + 1);
+            }
+            level[i] = l;
+            nLevels = Math.max(nLevels, l + 1);
+        }
+
+        /* counting sort the rows by level */
+        level_ptr = new int[nLevels + 1];
+        for (int i = 0; i < n; ++i) {
+            level_ptr[level[i] + 1]++;
+        }
+        for (int l = 0; l < nLevels; ++l) {
+            level_ptr[l + 1] += level_ptr[l];
+        }
+        rows = new int[n];
+        int[] next = level_ptr.clone();
+        for (int r = 0; r < n; ++r) {
+            int i = isLower ? r : n - 1 - r;
+            rows[next[level[i]]++] = i;
+        }
+    }
+
+    /**
+     * Get the number of levels, i.e., the number of sequential steps in a solve.
+     *
+     * @return the number of levels
+     */
+    int nLevels() {
+        return level_ptr.length - 1;
+    }
+
+    /**
+     * Solve <i>Tx = b</i> in place.
+     *
+     * @param x <i>b</i> on input; <i>x</i> on output
+     */
+    void solve(final double[] x) {
+        for (int l = 0; l < nLevels(); ++l) {
+            final int begin = level_ptr[l];
+            final int end = level_ptr[l + 1];
+            if (end - begin < PARALLEL_THRESHOLD) {
+                solveRows(x, begin, end);
+                continue;
+            }
+
+            try {
+                ParallelExecutorInstanceHolder.instance.forLoop(
+                        0, (end - begin + CHUNK - 1) / CHUNK,
+                        new LoopBody() {
+
+                            @Override
+                            public void run(int c) throws Exception {
+                                solveRows(x, begin + c * CHUNK, Math.min(end, begin + (c + 1) * CHUNK));
+                            }
+                        });
+            } catch (MultipleExecutionException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+    }
+
+    /**
+     * Get a solver for the transpose of this triangular matrix. It is computed once and cached.
+     *
+     * @return a solver for <i>T<sup>t</sup></i>
+     */
+    LevelScheduledTriangularSolver t() {
+        LevelScheduledTriangularSolver result = transpose;
+        if (result == null) {
+            int nnz = row_ptr[n];
+            int[] t_row_ptr = new int[n + 1];
+            for (int k = 0; k < nnz; ++k) {
+                t_row_ptr[col_ind[k] + 1]++;
+            }
+            for (int i = 0; i < n; ++i) {
+                t_row_ptr[i + 1] += t_row_ptr[i];
+            }
+
+            int[] t_col_ind = new int[nnz];
+            double[] t_value = new double[nnz];
+            int[] next = t_row_ptr.clone();
+            for (int i = 0; i < n; ++i) {
+                for (int k = row_ptr[i]; k < row_ptr[i + 1]; ++k) {
+                    int q = next[col_ind[k]]++;
+                    t_col_ind[q] = i;
+                    t_value[q] = value[k];
+                }
+            }
+
+            result = new LevelScheduledTriangularSolver(n, t_row_ptr, t_col_ind, t_value, diagonal, !isLower);
+            transpose = result;
+        }
+        return result;
+    }
+
+    private void solveRows(double[] x, int begin, int end) {
+        for (int r = begin; r < end; ++r) {
+            int i = rows[r];
+            double sum = x[i];
+            for (int k = row_ptr[i]; k < row_ptr[i + 1]; ++k) {
+                sum -= value[k] * x[col_ind[k]];
+            }
+            x[i] = diagonal != null ? sum / diagonal[i] : sum;
+        }
+    }
+
+    /**
+     * Construct a solver for the strictly lower or upper triangular part of a matrix plus a diagonal.
+     *
+     * @param A        a matrix in compressed rows
+     * @param isLower  {@code true} for the lower triangular part
+     * @param diagonal the diagonal; {@code null} for a unit diagonal
+     * @return a triangular solver
+     */
+    static LevelScheduledTriangularSolver triangle(CompressedRows A, boolean isLower, double[] diagonal) {
+        final int n = A.n;
+        final int[] row_ptr = A.row_ptr;
+        final int[] col_ind = A.col_ind;
+        final double[] value = A.value;
+
+        int[] t_row_ptr = new int[n + 1];
+        int[] t_col_ind = new int[row_ptr[n]];
+        double[] t_value = new double[row_ptr[n]];
+        int nnz = 0;
+        for (int i = 0; i < n; ++i) {
+            for (int k = row_ptr[i]; k < row_ptr[i + 1]; ++k) {
+                if (isLower ? col_ind[k] < i : col_ind[k] > i) {
+                    t_col_ind[nnz] = col_ind[k];
+                    t_value[nnz] = value[k];
+                    ++nnz;
+                }
+            }
+            t_row_ptr[i + 1] = nnz;
+        }
+
+        return new LevelScheduledTriangularSolver(n, t_row_ptr, Arrays.copyOf(t_col_ind, nnz), Arrays.copyOf(t_value, nnz), diagonal, isLower);
+    }
+}
@@ -53,8 +53,7 @@ import com.numericalmethod.suanshu.vector.doubles.Vector;
  */
 public class SSORPreconditioner implements Preconditioner {
 
-    private final Matrix A;
-    private final double omega;
+    private final SORSweep sweep;
 
     /**
      * Construct an SSOR preconditioner with a symmetric coefficient matrix.
@@ -63,8 +62,7 @@ public class SSORPreconditioner implements Preconditioner {
      * @param omega an extrapolation factor
      */
     public SSORPreconditioner(Matrix A, double omega) {
-        this.A = A.deepCopy();
-        this.omega = omega;
+        this.sweep = new SORSweep(A, omega);
     }
 
     /**
@@ -75,9 +73,8 @@ public class SSORPreconditioner implements Preconditioner {
      */
     @Override
     public Vector solve(Vector x) {
-        SORSweep sweep = new SORSweep(A, x, omega);
-        Vector f = sweep.forward(x.ZERO());
-        Vector b = sweep.backward(f);
+        Vector f = sweep.forward(x, x.ZERO());
+        Vector b = sweep.backward(x, f);
         return b;
     }
 
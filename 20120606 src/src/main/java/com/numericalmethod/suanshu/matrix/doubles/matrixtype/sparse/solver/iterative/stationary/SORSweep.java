@@ -24,9 +24,11 @@ package com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iter
 
 import com.numericalmethod.suanshu.datastructure.DimensionCheck;
 import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.SparseVector;
 import com.numericalmethod.suanshu.misc.SuanShuUtils;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
 import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+import java.util.Arrays;
 
 /**
  * This is a building block for
@@ -35,15 +37,23 @@ import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
  * to perform the forward or backward sweep. That is, solving the <i>n</i> equations in
  * <i>Ax = b</i> sequentially (forward or backward), while using the updated
  * components of <i>x</i> as soon as they are available.
+ * <p/>
+ * The non-zeros of <i>A</i> are copied once on construction, so that a sweep takes <i>O(nnz)</i> time.
+ * A sparse matrix is read row by row.
  *
  * @author Ken Yiu
  */
 public class SORSweep {
 
-    private final Matrix A;
     private final Vector b;
     private final int n;
     private final double omega;
+    /** the start of each row of the off-diagonal non-zeros, followed by their number */
+    private final int[] row_ptr;
+    /** the 0-based column indices of the off-diagonal non-zeros, sorted within each row */
+    private final int[] col_ind;
+    private final double[] value;
+    private final double[] diagonal;
 
     /**
      * Construct an instance to perform forward or backward sweep for a linear
@@ -55,12 +65,66 @@ public class SORSweep {
      */
     public SORSweep(Matrix A, Vector b, double omega) {
         SuanShuUtils.assertArgument(DimensionCheck.isSquare(A), "A must be a square matrix");
-        checkMatrix(A);
 
-        this.A = A;
         this.b = b;
         this.n = A.nCols();
         this.omega = omega;
+
+        this.row_ptr = new int[n + 1];
+        this.diagonal = new double[n];
+        int[] columns = new int[n];
+        double[] values = new double[n];
+        int nnz = 0;
+        for (int i = 1; i <= n; ++i) {
+            Vector row = A.getRow(i);
+            if (row instanceof SparseVector) {
+                for (SparseVector.Entry entry : (SparseVector) row) { // sorted by index
+                    if (nnz == columns.length) {
+                        columns = Arrays.copyOf(columns, 2 * nnz);
+                        values = Arrays.copyOf(values, 2 * nnz);
+                    }
+                    if (entry.index() == i) {
+                        diagonal[i - 1] = entry.value();
+                    } else if (Double.compare(entry.value(), 0.) != 0) {
+                        columns[nnz] = entry.index() - 1;
+                        values[nnz++] = entry.value();
+                    }
+                }
+            } else {
+                for (int j = 1; j <= n; ++j) {
+                    double aij = row.get(j);
+                    if (nnz == columns.length) {
+                        columns = Arrays.copyOf(columns, 2 * nnz);
+                        values = Arrays.copyOf(values, 2 * nnz);
+                    }
+                    if (j == i) {
+                        diagonal[i - 1] = aij;
+                    } else if (Double.compare(aij, 0.) != 0) {
+                        columns[nnz] = j - 1;
+                        values[nnz++] = aij;
+                    }
+                }
+            }
+            row_ptr[i] = nnz;
+
+            if (Double.compare(diagonal[i - 1], 0.) == 0) {
+                throw new IllegalArgumentException("diagonal entries must be non-zero");
+            }
+        }
+        this.col_ind = Arrays.copyOf(columns, nnz);
+        this.value = Arrays.copyOf(values, nnz);
+    }
+
+    /**
+     * Construct an instance to perform forward or backward sweep for linear
+     * systems <i>Ax = b</i> with different right-hand sides,
+     * using {@link #forward(Vector, Vector)} and {@link #backward(Vector, Vector)}.
+     *
+     * @param A     the coefficient matrix
+     * @param omega the extrapolation factor
+     */
+    public SORSweep(Matrix A, double omega) {
+        this(A, null, omega);
     }
 
     /**
@@ -70,24 +134,26 @@ public class SORSweep {
      * @return the next iterate
      */
     public Vector forward(Vector x) {
-        Vector xNext = new DenseVector(n).ZERO();
+        return forward(b, x);
+    }
 
-        // solve each equation independently
-        for (int i = 1; i <= n; ++i) {
-            double xi = 0.;
-            for (int j = 1; j < i; ++j) {
-                xi += A.get(i, j) * xNext.get(j); // from the new iterate
-            }
-            for (int j = i + 1; j <= n; ++j) {
-                xi += A.get(i, j) * x.get(j); // from the old iterate
-            }
+    /**
+     * Perform a forward sweep for <i>Ax = b</i>.
+     *
+     * @param b a vector
+     * @param x the original iterate
+     * @return the next iterate
+     */
+    public Vector forward(Vector b, Vector x) {
+        double[] xNext = x.toArray(); // updated in place: the new iterate before i; the old iterate after i
+        double[] rhs = b.toArray();
 
-            xi = (b.get(i) - xi) / A.get(i, i);
-            xi = x.get(i) + omega * (xi - x.get(i)); // weighted average
-            xNext.set(i, xi);
+        // solve each equation independently
+        for (int i = 0; i < n; ++i) {
+            xNext[i] = solve(i, xNext, rhs);
         }
 
-        return xNext;
+        return new DenseVector(xNext);
     }
 
     /**
@@ -97,31 +163,36 @@ public class SORSweep {
      * @return the next iterate
      */
     public Vector backward(Vector x) {
-        Vector xNext = new DenseVector(n).ZERO();
+        return backward(b, x);
+    }
 
-        // solve each equation independently
-        for (int i = n; i >= 1; --i) {
-            double xi = 0.;
-            for (int j = 1; j < i; ++j) {
-                xi += A.get(i, j) * x.get(j); // from the old iterate
-            }
-            for (int j = i + 1; j <= n; ++j) {
-                xi += A.get(i, j) * xNext.get(j); // from the new iterate
-            }
+    /**
+     * Perform a backward sweep for <i>Ax = b</i>.
+     *
+     * @param b a vector
+     * @param x the original iterate
+     * @return the next iterate
+     */
+    public Vector backward(Vector b, Vector x) {
+        double[] xNext = x.toArray(); // updated in place: the old iterate before i; the new iterate after i
+        double[] rhs = b.toArray();
 
-            xi = (b.get(i) - xi) / A.get(i, i);
-            xi = x.get(i) + omega * (xi - x.get(i)); // weighted average
-            xNext.set(i, xi);
+        // solve each equation independently
+        for (int i = n - 1; i >= 0; --i) {
+            xNext[i] = solve(i, xNext, rhs);
         }
 
-        return xNext;
+        return new DenseVector(xNext);
     }
 
-    private static void checkMatrix(Matrix A) {
-        for (int i = 1; i <= A.nCols(); ++i) {
-            if (Double.compare(A.get(i, i), 0.) == 0) {
-                throw new IllegalArgumentException("diagonal entries must be non-zero");
-            }
+    private double solve(int i, double[] x, double[] b) {
+        double xi = 0.;
+        for (int k = row_ptr[i]; k < row_ptr[i + 1]; ++k) {
+            xi += value[k] * x[col_ind[k]];
         }
+
+        xi = (b[i] - xi) / diagonal[i];
+        xi = x[i] + omega * (xi - x[i]); // weighted average
+        return xi;
     }
 }
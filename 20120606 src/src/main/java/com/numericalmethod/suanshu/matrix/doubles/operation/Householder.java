@@ -24,14 +24,14 @@ package com.numericalmethod.suanshu.matrix.doubles.operation;
 
 import com.numericalmethod.suanshu.matrix.doubles.Matrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.StridedMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.SparseVector;
 import com.numericalmethod.suanshu.misc.R;
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
 import static com.numericalmethod.suanshu.number.DoubleUtils.isZero;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
 import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
 import com.numericalmethod.suanshu.vector.doubles.dense.operation.Basis;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * A Householder transformation in the 3-dimensional space is the reflection of a vector in the plane.
@@ -119,13 +119,56 @@ public class Householder {
      * @return <i>H * A</i>
      */
     public Matrix reflect(Matrix A) {
-        List<Vector> vectors = new ArrayList<Vector>(A.nCols());
-        for (int i = 1; i <= A.nCols(); ++i) {
-            Vector v = A.getColumn(i);
-            vectors.add(this.reflect(v));
+        DenseMatrix result = new DenseMatrix(A);
+        reflectInPlace(result.view());
+        return result;
+    }
+
+    /**
+     * Apply the Householder matrix, <i>H</i>, to a matrix (a set of column vectors), <i>A</i>, overwriting <i>A</i>.
+     * <blockquote><pre><i>
+     * A = H * A = A - 2 * v * (v' * A)
+     * </i></pre></blockquote>
+     * No row or column of <i>A</i> is copied.
+     * To reflect the rows of <i>A</i> in place, i.e., <i>A = A * H</i>, pass the transpose view {@code A.t()}.
+     *
+     * @param A a matrix view, e.g., a panel of a larger matrix
+     */
+    public void reflectInPlace(StridedMatrix A) {
+        SuanShuUtils.assertArgument(A.nRows() == v4H.size(), "A must have %d rows", v4H.size());
+
+        final double[] v = v4H.toArray();
+        final double[] data = A.data();
+        final int nRows = A.nRows();
+        final int nCols = A.nCols();
+        final int rowStride = A.rowStride();
+        final int colStride = A.colStride();
+
+        //s = 2 * v' * A; accumulate row by row so that the scan is contiguous for a row-major A
+        final double[] s = new double[nCols];
+        for (int i = 0; i < nRows; ++i) {
+            final double vi = v[i];
+            if (vi == 0.) {//e.g., the leading zeros of a generator padded for a sub-matrix
+                continue;
+            }
+            for (int j = 0, p = A.offset() + i * rowStride; j < nCols; ++j, p += colStride) {
+                s[j] += data[p] * vi;
+            }
+        }
+        for (int j = 0; j < nCols; ++j) {
+            s[j] *= 2;
         }
 
-        return CreateMatrix.cbind(vectors);
+        //A = A - v * s
+        for (int i = 0; i < nRows; ++i) {
+            final double vi = v[i];
+            if (vi == 0.) {
+                continue;
+            }
+            for (int j = 0, p = A.offset() + i * rowStride; j < nCols; ++j, p += colStride) {
+                data[p] -= vi * s[j];
+            }
+        }
     }
 
     /**
@@ -144,13 +187,9 @@ public class Householder {
      * @return <i>A * H</i>
      */
     public Matrix reflectRows(Matrix A) {
-        List<Vector> vectors = new ArrayList<Vector>(A.nRows());
-        for (int i = 1; i <= A.nRows(); ++i) {
-            Vector v = A.getRow(i);
-            vectors.add(this.reflect(v));
-        }
-
-        return CreateMatrix.rbind(vectors);
+        DenseMatrix result = new DenseMatrix(A);
+        reflectInPlace(result.view().t());
+        return result;
     }
 
     /**
@@ -195,22 +234,22 @@ public class Householder {
 
         /*
          * Faster implementation
-         * by skipping copying and passing the whole matrices
-         * at each reflection
+         * by reflecting the columns of Q in place
+         * instead of copying and passing the whole matrices at each reflection
          */
-        List<Vector> cols4Q = Basis.getBasis(nRows, nCols);
-        int[] indices = R.seq(to, from);//from 'to' to 'from', i.e., backward
+        DenseMatrix Q = new DenseMatrix(nRows, nCols);
+        for (int i = 1; i <= Math.min(nRows, nCols); ++i) {
+            Q.set(i, i, 1.);
+        }
 
+        StridedMatrix view = Q.view();
+        int[] indices = R.seq(to, from);//from 'to' to 'from', i.e., backward
         for (int i : indices) { //  for (int i = to; i >= from; --i) {
-            int j = i;
-            if (Hs[j] != null) {
-                for (int k = 0; k < nCols; ++k) {
-                    cols4Q.set(k, Hs[j].reflect(cols4Q.get(k)));//TODO: to be parallelized
-                }
+            if (Hs[i] != null) {
+                Hs[i].reflectInPlace(view);
             }
         }
 
-        Matrix Q = CreateMatrix.cbind(cols4Q);
         return Q;
     }
 
@@ -25,6 +25,9 @@ package com.numericalmethod.suanshu.matrix.doubles.operation;
 import com.numericalmethod.suanshu.datastructure.DimensionCheck;
 import com.numericalmethod.suanshu.matrix.doubles.Matrix;
 import com.numericalmethod.suanshu.matrix.doubles.factorization.triangle.LU;
+import com.numericalmethod.suanshu.matrix.doubles.factorization.triangle.LUDecomposition;
+import com.numericalmethod.suanshu.matrix.doubles.linearsystem.BackwardSubstitution;
+import com.numericalmethod.suanshu.matrix.doubles.linearsystem.ForwardSubstitution;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.PermutationMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.triangle.LowerTriangularMatrix;
@@ -62,12 +65,28 @@ public class Inverse extends DenseMatrix {
         this.dim = A.nRows();
     }
 
+    /**
+     * Construct the inverse of a matrix from its LU decomposition.
+     * This avoids decomposing the matrix again when the decomposition is already available,
+     * e.g., from solving a linear system.
+     *
+     * @param lu      an LU decomposition of a matrix
+     * @param epsilon a precision parameter: when a number |x| ≤ ε, it is considered 0
+     */
+    public Inverse(LUDecomposition lu, double epsilon) {
+        super(inv(lu, epsilon));
+        this.dim = nRows();
+    }
+
     private static Matrix inv(Matrix A, double epsilon) {
         if (!DimensionCheck.isSquare(A)) {
             throw new IllegalArgumentException("Inverse applies to square matrix only");
         }
 
-        LU lu = new LU(A, epsilon);
+        return inv(new LU(A, epsilon), epsilon);
+    }
+
+    private static Matrix inv(LUDecomposition lu, double epsilon) {
         DenseMatrix Linv = new Inverse(lu.L(), epsilon);//TODO: taking up too much space
         DenseMatrix Uinv = new Inverse(lu.U(), epsilon);//TODO: taking up too much space
         PermutationMatrix P = lu.P();
@@ -93,23 +112,17 @@ public class Inverse extends DenseMatrix {
      * @see "G. W. Stewart, "Algorithm 1.10, Basic Decompositions," Matrix Algorithms, Vol 1."
      */
     public Inverse(UpperTriangularMatrix U, double epsilon) {
-        super(U.nRows(), U.nRows());
+        super(inv(U, epsilon));
         this.dim = U.nRows();
+    }
 
-        for (int i = 1; i <= dim; ++i) {//col
+    private static Matrix inv(UpperTriangularMatrix U, double epsilon) {
+        for (int i = 1; i <= U.nRows(); ++i) {
             assertArgument(!equal(0, U.get(i, i), epsilon), "U is not invertible");
-
-            set(i, i, 1d / U.get(i, i));
-            for (int j = i - 1; j >= 1; --j) {//row
-
-                double value = 0;
-                for (int k = j + 1; k <= dim; ++k) {
-                    value -= U.get(j, k) * this.get(k, i);//TODO: improve efficiency by using sub-rows/columns
-                }
-
-                set(j, i, value / U.get(j, j));
-            }
         }
+
+        //solve U * X = I for all columns at once
+        return new BackwardSubstitution().solve(U, new DenseMatrix(U.nRows(), U.nRows()).ONE());
     }
 
     /**
@@ -120,22 +133,16 @@ public class Inverse extends DenseMatrix {
      * @see "G. W. Stewart, "Algorithm 2.3, Basic Decompositions," Matrix Algorithms, Vol 1."
      */
     public Inverse(LowerTriangularMatrix L, double epsilon) {
-        super(L.nRows(), L.nRows());
+        super(inv(L, epsilon));
         this.dim = L.nRows();
+    }
 
-        for (int i = 1; i <= dim; ++i) {//col
+    private static Matrix inv(LowerTriangularMatrix L, double epsilon) {
+        for (int i = 1; i <= L.nRows(); ++i) {
             assertArgument(!equal(0, L.get(i, i), epsilon), "L is not invertible");
-
-            set(i, i, 1d / L.get(i, i));
-            for (int j = i + 1; j <= dim; ++j) {//row
-
-                double value = 0;
-                for (int k = i; k <= j - 1; ++k) {
-                    value -= L.get(j, k) * this.get(k, i);//TODO: improve efficiency by using sub-rows/columns
-                }
-
-                set(j, i, value / L.get(j, j));
-            }
         }
+
+        //solve L * X = I for all columns at once
+        return new ForwardSubstitution().solve(L, new DenseMatrix(L.nRows(), L.nRows()).ONE());
     }
 }
@@ -22,7 +22,10 @@
  */
 package com.numericalmethod.suanshu.matrix.doubles.operation;
 
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
 import com.numericalmethod.suanshu.matrix.doubles.MatrixTable;
+import com.numericalmethod.suanshu.matrix.doubles.MutableMatrix;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
 
 /**
  * These are the utility functions to apply to matrices.
@@ -67,6 +70,26 @@ public class MatrixUtils {
         return colSums;
     }
 
+    /**
+     * Compute \(out = Av\), overwriting the content of {@code out}.
+     * If {@code A} is a {@link MutableMatrix}, no new vector is allocated.
+     *
+     * @param A   a matrix
+     * @param v   a vector
+     * @param out the output vector of length {@code A.nRows()}
+     */
+    public static void multiplyInto(Matrix A, Vector v, Vector out) {
+        if (A instanceof MutableMatrix) {
+            ((MutableMatrix) A).multiplyInto(v, out);
+            return;
+        }
+
+        Vector Av = A.multiply(v);
+        for (int i = 1; i <= Av.size(); ++i) {
+            out.set(i, Av.get(i));
+        }
+    }
+
     /**
      * Get all matrix entries in the form of an 1D {@code double[]}.
      *
@@ -110,6 +110,10 @@ public class SubMatrixRef implements Matrix {
 
     @Override
     public Vector getRow(int i) {
+        if (ref instanceof DenseMatrix) {
+            return ((DenseMatrix) ref).getRow(i + rowFrom - 1, colFrom, colTo);
+        }
+
         Vector v = ref.getRow(i + rowFrom - 1);
         Vector u = CreateVector.subVector(v, colFrom, colTo);
         return u;
@@ -117,6 +121,10 @@ public class SubMatrixRef implements Matrix {
 
     @Override
     public Vector getColumn(int j) {
+        if (ref instanceof DenseMatrix) {
+            return ((DenseMatrix) ref).getColumn(j + colFrom - 1, rowFrom, rowTo);
+        }
+
         Vector v = ref.getColumn(j + colFrom - 1);
         Vector u = CreateVector.subVector(v, rowFrom, rowTo);
         return u;
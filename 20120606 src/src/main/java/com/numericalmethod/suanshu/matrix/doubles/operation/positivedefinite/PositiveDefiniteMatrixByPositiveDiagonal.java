@@ -65,7 +65,8 @@ public class PositiveDefiniteMatrixByPositiveDiagonal extends DenseMatrix {
         }
 
         if (isModified) {// to perserve numerical exactness of A, if no need to increase D
-            Aplus = new DenseMatrix(Q.multiply(D).multiply(Qt));//semi positive definite            
+            Aplus = Q.multiply(D).multiply(Qt);//semi positive definite
+            Aplus = new DenseMatrix(Aplus.add(Aplus.t()).scaled(0.5));//remove the round-off asymmetry
         }
 
         return Aplus;
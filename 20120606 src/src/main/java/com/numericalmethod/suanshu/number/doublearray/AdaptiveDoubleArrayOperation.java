@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT, 
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.number.doublearray;
+
+import com.numericalmethod.suanshu.parallel.ParallelCostModel;
+import static com.numericalmethod.suanshu.parallel.ParallelCostModel.Operation.*;
+
+/**
+ * This implementation asks the {@link ParallelCostModel}, per call and per operation,
+ * whether to use the serial or the parallel implementation.
+ * @see ParallelCostModel.Operation#ADD
+ * @see ParallelCostModel.Operation#SCALE
+ */
+public class AdaptiveDoubleArrayOperation implements DoubleArrayOperation {
+
+    private final DoubleArrayOperation serial;
+    private final DoubleArrayOperation parallel;
+
+    /**
+     * Construct an {@code AdaptiveDoubleArrayOperation} that chooses between a serial and a parallel implementation.
+     *
+     * @param serial   the serial implementation
+     * @param parallel the parallel implementation
+     */
+    public AdaptiveDoubleArrayOperation(DoubleArrayOperation serial, DoubleArrayOperation parallel) {
+        this.serial = serial;
+        this.parallel = parallel;
+    }
+
+    /**
+     * Construct an {@code AdaptiveDoubleArrayOperation} that chooses between
+     * {@link SimpleDoubleArrayOperation} and {@link ParallelDoubleArrayOperation}.
+     */
+    public AdaptiveDoubleArrayOperation() {
+        this(new SimpleDoubleArrayOperation(), new ParallelDoubleArrayOperation());
+    }
+
+    @Override
+    public double[] add(double[] arr1, double[] arr2) {
+        return (ParallelCostModel.parallelize(ADD, arr1.length) ? parallel : serial).add(arr1, arr2);
+    }
+
+    @Override
+    public double[] minus(double[] arr1, double[] arr2) {
+        return (ParallelCostModel.parallelize(ADD, arr1.length) ? parallel : serial).minus(arr1, arr2);
+    }
+
+    @Override
+    public double[] scaled(double[] arr, double c) {
+        return (ParallelCostModel.parallelize(SCALE, arr.length) ? parallel : serial).scaled(arr, c);
+    }
+}
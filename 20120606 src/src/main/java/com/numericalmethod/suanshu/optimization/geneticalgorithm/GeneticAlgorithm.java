@@ -24,8 +24,8 @@ package com.numericalmethod.suanshu.optimization.geneticalgorithm;
 
 import com.numericalmethod.suanshu.parallel.LoopBody;
 import com.numericalmethod.suanshu.parallel.ParallelExecutor;
-import com.numericalmethod.suanshu.stats.random.RngUtils;
 import com.numericalmethod.suanshu.stats.random.univariate.RandomLongGenerator;
+import com.numericalmethod.suanshu.stats.random.univariate.uniform.Philox;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -46,6 +46,11 @@ import java.util.List;
  * This implementation is the meta evolutionary algorithm in the reference.
  * It provides a framework for implementing multiple classes of evolutionary algorithms, e.g., Genetic Algorithm, Differential Evolution.
  * All methods are {@code protected} so any can be overridden to allow customization.
+ * <p/>
+ * In parallel, the <i>i</i>-th child of a generation draws from {@link #uniform} the numbers of the <i>i</i>-th
+ * substream of a {@link Philox}, keyed once per generation by the given generator.
+ * The children therefore do not wait for one another for random numbers,
+ * and the search is the same whatever the number of threads is.
  *
  * @author Haksun Li
  * @see
@@ -77,6 +82,10 @@ public abstract class GeneticAlgorithm {
      * This is a uniform random number generator.
      */
     protected final RandomLongGenerator uniform;
+    /**
+     * the uniform random number generator of the child being produced by the current thread; {@code null} outside the parallel loop
+     */
+    private final ThreadLocal<RandomLongGenerator> child = new ThreadLocal<RandomLongGenerator>();
     /**
      * This is the (current) population pool.
      * <p/>
@@ -92,7 +101,39 @@ public abstract class GeneticAlgorithm {
      */
     public GeneticAlgorithm(boolean parallel, RandomLongGenerator uniform) {
         this.parallel = parallel ? new ParallelExecutor() : null;
-        this.uniform = parallel ? RngUtils.synchronizedRLG(uniform) : uniform;
+        this.uniform = parallel ? new ChildRLG(uniform) : uniform;
+    }
+
+    /**
+     * This generator draws from the generator of the current child, if any, and otherwise from the given generator.
+     */
+    private class ChildRLG implements RandomLongGenerator {
+
+        private final RandomLongGenerator uniform;
+
+        private ChildRLG(RandomLongGenerator uniform) {
+            this.uniform = uniform;
+        }
+
+        private RandomLongGenerator current() {
+            RandomLongGenerator rng = child.get();
+            return rng != null ? rng : uniform;
+        }
+
+        @Override
+        public void seed(long... seeds) {
+            uniform.seed(seeds);
+        }
+
+        @Override
+        public long nextLong() {
+            return current().nextLong();
+        }
+
+        @Override
+        public double nextDouble() {
+            return current().nextDouble();
+        }
     }
 
     /**
@@ -117,15 +158,22 @@ public abstract class GeneticAlgorithm {
 
         if (parallel != null) {
             //multiple threads
+            final Philox streams = new Philox(uniform.nextLong() << 32 ^ uniform.nextLong());
             try {
                 parallel.forLoop(0, children.size(),
                                  new LoopBody() {
 
                     @Override
                     public void run(int i) throws Exception {
-                        Chromosome child = getChild(i);
-                        child.fitness();//force objective function evaluation in the parallel loop
-                        children.set(i, child);
+                        RandomLongGenerator previous = child.get();//in case a stolen task runs nested in this one
+                        child.set(streams.substream(i));
+                        try {
+                            Chromosome cell = getChild(i);
+                            cell.fitness();//force objective function evaluation in the parallel loop
+                            children.set(i, cell);
+                        } finally {
+                            child.set(previous);
+                        }
                     }
                 });
             } catch (Exception ex) {
@@ -126,21 +126,37 @@ public class BFGS extends QuasiNewton {
         }
 
         @Override
-        void updateSk(Vector dg) {//TODO: is there a way to make these matrix/vector manipulation easier?
+        void updateSk(Vector gamma, Vector delta, Vector Sg) {
+            if (isFletcherSwitch) {//Section 7.8.1; both the BFGS and the DFP updates of Sk are needed
+                updateSkWithFletcherSwitch(gamma, delta);
+                return;
+            }
+
+            /*
+             * Update Sk in place by a rank one and a symmetric rank two update, without forming the matrices in eq. 7.57:
+             * S<sub>k+1</sub> = S<sub>k</sub> + (1 + γ'Sγ/γ'δ)/γ'δ * δδ' -(δγ'S + Sγδ') / γ'δ
+             * Sk is symmetric so γ'S = (Sγ)'.
+             */
+            double gtd = gamma.innerProduct(delta);//γ'δ
+            double gtSg = gamma.innerProduct(Sg);//γ'Sγ
+            double coeff1 = (1 + gtSg / gtd) / gtd;//(1 + γ'Sγ/γ'δ)/γ'δ
+            double coeff2 = -1.0 / gtd;
+
+            rank1UpdateSk(coeff1, delta, delta);
+            rank2UpdateSk(coeff2, delta, Sg);//Sk stays exactly symmetric
+        }
+
+        private void updateSkWithFletcherSwitch(Vector dg, Vector delta) {
             Matrix gamma = new DenseMatrix(dg);
-            Matrix deltak = new DenseMatrix(dk.scaled(ak));//δk = ak * dk in matrix form
+            Matrix deltak = new DenseMatrix(delta);//δk = ak * dk in matrix form
             Matrix gtd = gamma.t().multiply(deltak);//γ'δ = γ' %*% δ
             double gtdvalue = gtd.get(1, 1);//γ'δ is a 1x1 matrix
 
             Matrix Sk1 = updateHessianInverse1(Sk, gamma, deltak);
-
-            if (isFletcherSwitch) {//Section 7.8.1
-                Matrix ltSk1l = new CongruentMatrix(gamma, Sk1);//γ' %*% S<sub>k+1</sub> %*% γ;
-                double ltSk1lValue = ltSk1l.get(1, 1);//γ' %*% S<sub>k+1</sub> %*% γ is a 1x1 matrix
-
-                if (gtdvalue - ltSk1lValue > 0) {//use DFP, eq. 7.29
-                    Sk1 = DFP.updateHessianInverse(Sk, gamma, deltak);
-                }
+            Matrix ltSk1l = new CongruentMatrix(gamma, Sk1);//γ' %*% S<sub>k+1</sub> %*% γ;
+            double ltSk1lValue = ltSk1l.get(1, 1);//γ' %*% S<sub>k+1</sub> %*% γ is a 1x1 matrix
+            if (gtdvalue - ltSk1lValue > 0) {//use DFP, eq. 7.29
+                Sk1 = DFP.updateHessianInverse(Sk, gamma, deltak);
             }
 
             //update Sk
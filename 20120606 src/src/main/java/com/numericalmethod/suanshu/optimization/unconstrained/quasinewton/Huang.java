@@ -22,11 +22,11 @@
  */
 package com.numericalmethod.suanshu.optimization.unconstrained.quasinewton;
 
-import com.numericalmethod.suanshu.matrix.doubles.Matrix;
-import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
 import com.numericalmethod.suanshu.optimization.problem.C2OptimProblem;
 import com.numericalmethod.suanshu.optimization.problem.IterativeMinimizer;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+import java.util.Arrays;
 
 /**
  * Huang's updating formula is a family of formulas which encompasses
@@ -47,40 +47,51 @@ public class Huang extends QuasiNewton {
      */
     protected class HuangImpl extends QuasiNewtonImpl {
 
+        private final DenseVector StG;//S'γ
+        private final DenseVector u;//θδ + φS'γ
+        private final DenseVector w;//ψδ + ωS'γ
+
         public HuangImpl(C2OptimProblem problem) throws Exception {
             super(problem);
+            int n = problem.f().dimensionOfDomain();
+            StG = new DenseVector(n);
+            u = new DenseVector(n);
+            w = new DenseVector(n);
         }
 
+        /**
+         * {@inheritDoc}
+         * <p/>
+         * S<sub>k+1</sub> = S<sub>k</sub> + δ(θδ + φS'γ)' / (θδ + φS'γ)'γ - Sγ(ψδ + ωS'γ)' / (ψδ + ωS'γ)'γ
+         *
+         * c.f.,
+         * <pre>
+         * Section 7.9
+         * Practical Optimization: Algorithms and Engineering Applications
+         * by
+         * Andreas Antoniou, Wu-Sheng Lu
+         * </pre>
+         * <p/>
+         * The two rank one updates are applied to {@code Sk} in place.
+         */
         @Override
-        void updateSk(Vector dg) {//TODO: is there a way to make these matrix/vector manipulation easier?
-            Matrix gamma = new DenseMatrix(dg);
-            Matrix deltak = new DenseMatrix(dk.scaled(ak));//δk = ak * dk in matrix form
-            Matrix StGamma = Sk.t().multiply(gamma);//S'γ = S' %*% γ
+        void updateSk(Vector gamma, Vector delta, Vector Sg) {
+            multiplySkT(gamma, StG);//S'γ
 
-            Matrix term1 = deltak.scaled(theta).add(StGamma.scaled(phi)).t();//(θδ + φS'γ)'
-            Matrix term2 = deltak.multiply(term1);//δ(θδ + φS'γ)'
-            Matrix term3 = term1.multiply(gamma);//(θδ + φS'γ)'γ
-            double term3value = term3.get(1, 1);//(θδ + φS'γ)'γ is 1x1
+            //u = θδ + φS'γ
+            Arrays.fill(u.asArray(), 0.);
+            u.axpy(theta, delta);
+            u.axpy(phi, StG);
+            //w = ψδ + ωS'γ
+            Arrays.fill(w.asArray(), 0.);
+            w.axpy(psi, delta);
+            w.axpy(omega, StG);
 
-            Matrix term4 = deltak.scaled(psi).add(StGamma.scaled(omega)).t();//(ψδ + ωS'γ)'
-            Matrix term5 = Sk.multiply(gamma).multiply(term4);//Sγ(ψδ + ωS'γ)'
-            Matrix term6 = term4.multiply(gamma);//(ψδ + ωS'γ)'γ
-            double term6value = term6.get(1, 1);//(ψδ + ωS'γ)'γ is 1x1
+            double utg = u.innerProduct(gamma);//(θδ + φS'γ)'γ
+            double wtg = w.innerProduct(gamma);//(ψδ + ωS'γ)'γ
 
-            /*
-             * S<sub>k+1</sub> = S<sub>k</sub> + δ(θδ + φS'γ)' / (θδ + φS'γ)'γ - Sγ(ψδ + ωS'γ)' / (ψδ + ωS'γ)'γ
-             *
-             * c.f.,
-             * <pre>
-             * Section 7.9
-             * Practical Optimization: Algorithms and Engineering Applications
-             * by
-             * Andreas Antoniou, Wu-Sheng Lu
-             * </pre>
-             */
-            Matrix Sk1 = Sk.add(term2.scaled(1.0 / term3value)).minus(term5.scaled(1.0 / term6value));
-            //update Sk
-            Sk = Sk1;
+            rank1UpdateSk(1.0 / utg, delta, u);
+            rank1UpdateSk(-1.0 / wtg, Sg, w);
         }
     }
 
@@ -24,10 +24,12 @@ package com.numericalmethod.suanshu.optimization.unconstrained.quasinewton;
 
 import com.numericalmethod.suanshu.matrix.doubles.Matrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.StridedMatrix;
 import com.numericalmethod.suanshu.optimization.problem.C2OptimProblem;
 import com.numericalmethod.suanshu.optimization.unconstrained.linesearch.Fletcher;
 import com.numericalmethod.suanshu.optimization.unconstrained.steepestdescent.SteepestDescent;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
 
 /**
  * The Quasi-Newton methods in optimization are for finding local maxima and minima of functions.
@@ -50,12 +52,16 @@ public abstract class QuasiNewton extends SteepestDescent {
     /**
      * This is an implementation of the Quasi-Newton algorithm.
      * A sub-class supplies the Hessian updating rule.
+     * <p/>
+     * The vectors γ, δ, Sγ and the search direction are kept in buffers allocated once per problem,
+     * and {@code Sk} is updated in place by rank one updates,
+     * so that an iteration allocates no O(n) or O(n<sup>2</sup>) storage for the Hessian update.
      */
     protected abstract class QuasiNewtonImpl extends SteepestDescentImpl {
 
         /**
          * This is the approximate inverse of the Hessian matrix.
-         * An implementation of {@link #updateSk(com.numericalmethod.suanshu.vector.doubles.Vector)}
+         * An implementation of {@link #updateSk(com.numericalmethod.suanshu.vector.doubles.Vector, com.numericalmethod.suanshu.vector.doubles.Vector, com.numericalmethod.suanshu.vector.doubles.Vector)}
          * modifies this incrementally.
          */
         protected Matrix Sk;
@@ -72,11 +78,21 @@ public abstract class QuasiNewton extends SteepestDescent {
          */
         protected double ak;
         private double dgNorm = Double.POSITIVE_INFINITY;
+        private final DenseVector gamma;//γ = g<sub>k+1</sub> - g<sub>k</sub>
+        private final DenseVector delta;//δ = a<sub>k</sub> * d<sub>k</sub>
+        private final DenseVector Sg;//Sγ
+        private final DenseVector direction;//the buffer of dk
+        private DenseMatrix denseSk = null;//Sk when it is a DenseMatrix
+        private StridedMatrix SkT = null;//a view of the transpose of denseSk
 
         QuasiNewtonImpl(C2OptimProblem problem) throws Exception {
             super(problem);
             int n = problem.f().dimensionOfDomain();//number of variables
             Sk = new DenseMatrix(n, n).ONE();
+            gamma = new DenseVector(n);
+            delta = new DenseVector(n);
+            Sg = new DenseVector(n);
+            direction = new DenseVector(n);
         }
 
         @Override
@@ -86,16 +102,23 @@ public abstract class QuasiNewton extends SteepestDescent {
 
             //update the quasi Hessian inverse
             if (dk != null) {
-                Vector dg = gk.minus(g0);//TODO: what if gamma = 0
-                dgNorm = dg.norm();
+                gamma.set(gk);
+                gamma.axpy(-1., g0);//TODO: what if gamma = 0
+                dgNorm = gamma.norm();
                 if (dgNorm <= epsilon) {
                     return dk;//no change
                 }
 
-                updateSk(dg);
+                delta.set(dk);
+                delta.scaleInPlace(ak);
+                multiplySk(gamma, Sg);
+
+                updateSk(gamma, delta, Sg);
             }
 
-            dk = Sk.multiply(gk).scaled(-1);
+            multiplySk(gk, direction);
+            direction.scaleInPlace(-1);
+            dk = direction;
 
             return dk;
         }
@@ -113,10 +136,74 @@ public abstract class QuasiNewton extends SteepestDescent {
         /**
          * The Hessian inverse is updated incrementally to improve approximation.
          * The internal member {@code Sk} is modified by this method.
+         * The arguments are buffers reused in the next iteration; they must not be kept.
+         *
+         * @param gamma γ, the difference between the new and the last gradient
+         * @param delta δ, the difference between the new and the last solution
+         * @param Sg    Sγ
+         */
+        abstract void updateSk(Vector gamma, Vector delta, Vector Sg);
+
+        /**
+         * Compute \(out = S_k \times v\) without allocation.
+         *
+         * @param v   a vector
+         * @param out the product
+         */
+        void multiplySk(Vector v, DenseVector out) {
+            denseSk().multiplyInto(v, out);
+        }
+
+        /**
+         * Compute \(out = S_k' \times v\) without allocation.
+         *
+         * @param v   a vector
+         * @param out the product
+         */
+        void multiplySkT(Vector v, DenseVector out) {
+            DenseMatrix S = denseSk();
+            if (SkT == null) {
+                SkT = S.view().t();
+            }
+            SkT.multiplyInto(v, out);
+        }
+
+        /**
+         * \(S_k = S_k + \alpha \times x \times y'\), in place
+         *
+         * @param alpha a scaling constant
+         * @param x     a vector
+         * @param y     a vector
+         */
+        void rank1UpdateSk(double alpha, Vector x, Vector y) {
+            denseSk().rank1Update(alpha, x, y);
+        }
+
+        /**
+         * \(S_k = S_k + \alpha \times (x \times y' + y \times x')\), in place
          *
-         * @param dg difference between the new and the last gradient
+         * @param alpha a scaling constant
+         * @param x     a vector
+         * @param y     a vector
          */
-        abstract void updateSk(Vector dg);
+        void rank2UpdateSk(double alpha, Vector x, Vector y) {
+            denseSk().rank2Update(alpha, x, y);
+        }
+
+        /**
+         * Get {@code Sk} as a {@link DenseMatrix}.
+         * If a sub-class has replaced {@code Sk} by another instance, the new instance is copied once into a {@code DenseMatrix}.
+         *
+         * @return {@code Sk}
+         */
+        private DenseMatrix denseSk() {
+            if (denseSk != Sk) {
+                denseSk = Sk instanceof DenseMatrix ? (DenseMatrix) Sk : new DenseMatrix(Sk);
+                Sk = denseSk;
+                SkT = null;
+            }
+            return denseSk;
+        }
     }
 
     /**
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT, 
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.parallel;
+
+/**
+ * The implementation of this interface contains the code inside a for-loop
+ * construct that computes a value in each iteration, to be reduced, e.g., summed,
+ * by {@link ParallelExecutor#parallelReduce(int, int, double, DoubleLoopBody, DoubleReduction) parallelReduce}.
+ */
+public interface DoubleLoopBody {
+
+    /**
+     * This method contains the code inside the for-loop, as in a native
+     * for-loop like this:
+     * <pre><code>
+     * double result = identity;
+     * for (int i = start; i &lt; end; ++i) {
+     *     result = reduction.combine(result, body.run(i));
+     * }
+     * </code></pre>
+     *
+     * @param i the current loop count
+     * @return the value of the <i>i</i>-th iteration
+     * @throws Exception any exception thrown during execution
+     */
+    public double run(int i) throws Exception;
+}
@@ -0,0 +1,438 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT, 
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.parallel;
+
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This cost model decides, per call, whether an operation is worth running in parallel.
+ * An operation of <i>w</i> units of work costs <i>c * w</i> nanoseconds serially,
+ * and <i>h + c * w / p</i> in parallel on <i>p</i> threads, where <i>h</i> is the overhead of handing the pieces to the pool.
+ * Parallelism pays when <i>c * w * (1 - 1/p) > h</i>, i.e., when <i>w</i> is above a threshold for the operation.
+ * The unit of work depends on the operation, e.g., the number of entries for an addition,
+ * the number of multiply-adds for a multiplication, and the number of non-zeros for a sparse matrix-vector product.
+ * A matrix-vector product reads a matrix entry per multiply-add, while a matrix-matrix product reuses the entries
+ * from the cache, so the two have different costs per unit of work and hence different thresholds.
+ * <p/>
+ * The thresholds are, in order of precedence,
+ * <ol>
+ * <li>loaded from the properties file named by the system property {@value #FILE_PROPERTY},
+ * whose keys are the names of {@link Operation}s, e.g., {@code ADD=32768};
+ * if the file cannot be read or has an invalid entry, a warning is logged and the defaults are used;</li>
+ * <li>calibrated by a short microbenchmark if the system property {@value #CALIBRATE_PROPERTY} is {@code true};</li>
+ * <li>the defaults.</li>
+ * </ol>
+ * They can be changed at any time by {@link #setThreshold(Operation, long)}, {@link #load(Properties)} or {@link #calibrate()}.
+ * A calibration can be saved by {@link #toProperties()} for the next start.
+ * <p/>
+ * Every decision is counted, and is reported to the {@link Listener}, if any,
+ * so that the decisions can be verified in production.
+ */
+public class ParallelCostModel {
+
+    /**
+     * the operations whose parallelism is decided by this cost model
+     */
+    public enum Operation {
+
+        /**
+         * element-wise addition and subtraction of arrays; the work is the number of entries
+         */
+        ADD(1L << 15),
+        /**
+         * scaling of an array; the work is the number of entries
+         */
+        SCALE(1L << 15),
+        /**
+         * dense matrix-vector multiplication; the work is the number of multiply-adds
+         */
+        GEMV(1L << 16),
+        /**
+         * dense matrix-matrix multiplication, including the symmetric rank-k update; the work is the number of multiply-adds
+         */
+        GEMM(1L << 18),
+        /**
+         * dense matrix transpose; the work is the number of entries
+         */
+        TRANSPOSE(1L << 14),
+        /**
+         * sparse matrix-vector multiplication; the work is the number of non-zeros
+         */
+        SPMV(1L << 16);
+        /**
+         * the default threshold
+         */
+        private final long threshold;
+
+        private Operation(long threshold) {
+            this.threshold = threshold;
+        }
+    }
+
+    /**
+     * A listener is notified of every decision made by the cost model.
+     * It is called on the hot path, so it should be cheap and thread-safe.
+     */
+    public interface Listener {
+
+        /**
+         * Called when the cost model decides whether to parallelize an operation.
+         *
+         * @param op       the operation
+         * @param work     the amount of work of the operation
+         * @param parallel {@code true} if the operation is run in parallel
+         */
+        public void decided(Operation op, long work, boolean parallel);
+    }
+    /**
+     * the system property for the name of a properties file of thresholds
+     */
+    public static final String FILE_PROPERTY = "suanshu.parallel.costmodel";
+    /**
+     * the system property to calibrate the thresholds at start up
+     */
+    public static final String CALIBRATE_PROPERTY = "suanshu.parallel.calibrate";
+    /**
+     * a parallel run must be this many times cheaper in the model to be chosen, to absorb the noise in the calibration
+     */
+    private static final double SAFETY = 2;
+    private static final Operation[] operations = Operation.values();
+    private static final AtomicLongArray thresholds = new AtomicLongArray(operations.length);
+    private static final LongAdder[] nSerial = new LongAdder[operations.length];
+    private static final LongAdder[] nParallel = new LongAdder[operations.length];
+    private static volatile Listener listener = null;
+    private static final Logger logger = Logger.getLogger(ParallelCostModel.class.getName());
+
+    static {
+        for (Operation op : operations) {
+            nSerial[op.ordinal()] = new LongAdder();
+            nParallel[op.ordinal()] = new LongAdder();
+        }
+        reset();
+
+        String file = System.getProperty(FILE_PROPERTY);
+        if (file != null) {
+            load(file);
+        } else if (Boolean.getBoolean(CALIBRATE_PROPERTY)) {
+            calibrate();
+        }
+    }
+
+    private ParallelCostModel() {
+        // no instance
+    }
+
+    /**
+     * Decide whether an operation is to be run in parallel.
+     * The decision is counted and reported to the listener.
+     *
+     * @param op   the operation
+     * @param work the amount of work of this call
+     * @return {@code true} if the operation should run in parallel
+     */
+    public static boolean parallelize(Operation op, long work) {
+        final boolean parallel = work >= thresholds.get(op.ordinal());
+        (parallel ? nParallel : nSerial)[op.ordinal()].increment();
+
+        Listener l = listener;
+        if (l != null) {
+            l.decided(op, work, parallel);
+        }
+
+        return parallel;
+    }
+
+    /**
+     * Get the minimum amount of work for an operation to run in parallel.
+     *
+     * @param op the operation
+     * @return the threshold
+     */
+    public static long threshold(Operation op) {
+        return thresholds.get(op.ordinal());
+    }
+
+    /**
+     * Set the minimum amount of work for an operation to run in parallel.
+     * {@link Long#MAX_VALUE} means never.
+     *
+     * @param op        the operation
+     * @param threshold the threshold
+     */
+    public static void setThreshold(Operation op, long threshold) {
+        SuanShuUtils.assertArgument(threshold >= 0, "the threshold must be non-negative");
+        thresholds.set(op.ordinal(), threshold);
+    }
+
+    /**
+     * Restore the default thresholds.
+     */
+    public static void reset() {
+        for (Operation op : operations) {
+            thresholds.set(op.ordinal(), op.threshold);
+        }
+    }
+
+    /**
+     * Set the thresholds of the operations named in a properties set.
+     * The operations not named are unchanged.
+     *
+     * @param properties the thresholds, keyed by the operation names
+     * @throws IllegalArgumentException if a key is not an operation, or a value is not a non-negative number
+     */
+    public static void load(Properties properties) {
+        for (String key : properties.stringPropertyNames()) {
+            final Operation op;
+            final long threshold;
+            try {
+                op = Operation.valueOf(key.trim());
+                threshold = Long.parseLong(properties.getProperty(key).trim());
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException(String.format("invalid threshold %s=%s", key, properties.getProperty(key)), ex);
+            }
+            setThreshold(op, threshold);
+        }
+    }
+
+    /**
+     * Set the thresholds from a properties file.
+     * If the file cannot be read or has an invalid entry, a warning is logged and the defaults are restored,
+     * so that a bad file never stops the library from loading.
+     *
+     * @param file the name of a properties file, keyed by the operation names
+     * @return {@code true} if the thresholds are loaded from the file
+     */
+    static boolean load(String file) {
+        try {
+            InputStream in = new FileInputStream(file);
+            try {
+                Properties properties = new Properties();
+                properties.load(in);
+                load(properties);
+                return true;
+            } finally {
+                in.close();
+            }
+        } catch (IOException ex) {
+            logger.log(Level.WARNING, String.format("cannot read the cost model %s; the default thresholds are used", file), ex);
+        } catch (IllegalArgumentException ex) {
+            logger.log(Level.WARNING, String.format("invalid cost model %s; the default thresholds are used", file), ex);
+        }
+        reset();
+        return false;
+    }
+
+    /**
+     * Get the current thresholds, e.g., to save a calibration.
+     *
+     * @return the thresholds, keyed by the operation names
+     */
+    public static Properties toProperties() {
+        Properties properties = new Properties();
+        for (Operation op : operations) {
+            properties.setProperty(op.name(), Long.toString(threshold(op)));
+        }
+        return properties;
+    }
+
+    /**
+     * Set the listener to be notified of every decision.
+     *
+     * @param listener a listener; {@code null} to remove the listener
+     */
+    public static void setListener(Listener listener) {
+        ParallelCostModel.listener = listener;
+    }
+
+    /**
+     * Get the number of decisions made for an operation since the start or the last {@link #resetCounts()}.
+     *
+     * @param op       the operation
+     * @param parallel {@code true} to count the parallel runs; {@code false} to count the serial runs
+     * @return the number of decisions
+     */
+    public static long count(Operation op, boolean parallel) {
+        return (parallel ? nParallel : nSerial)[op.ordinal()].sum();
+    }
+
+    /**
+     * Reset the decision counts to 0.
+     */
+    public static void resetCounts() {
+        for (Operation op : operations) {
+            nSerial[op.ordinal()].reset();
+            nParallel[op.ordinal()].reset();
+        }
+    }
+
+    /**
+     * Calibrate the thresholds by timing, on this machine, the overhead of a parallel loop
+     * and the cost per unit of work of each operation.
+     * It takes a fraction of a second.
+     * With only one thread, no operation is parallelized.
+     */
+    public static void calibrate() {
+        final int p = ParallelExecutor.getDefaultConcurrency();
+        if (p <= 1) {
+            for (Operation op : operations) {
+                setThreshold(op, Long.MAX_VALUE);
+            }
+            return;
+        }
+
+        final double overhead = Benchmark.overhead();
+        for (Operation op : operations) {
+            final double cost = Benchmark.cost(op);
+            final double threshold = SAFETY * overhead / (cost * (1. - 1. / p));
+            setThreshold(op, (long) Math.min(threshold, Long.MAX_VALUE));
+        }
+    }
+
+    /**
+     * the microbenchmarks for the calibration
+     */
+    private static class Benchmark {
+
+        private static final int N = 1 << 14;
+        private static final int REPEAT = 20;
+        private static final int WARM_UP = 10;
+        /** the result of a kernel, kept so that the kernel is not eliminated */
+        private static volatile double sink;
+
+        /**
+         * Time a parallel for-loop over the threads with an empty body.
+         *
+         * @return the overhead of a parallel run in nanoseconds
+         */
+        private static double overhead() {
+            final ParallelExecutor executor = new ParallelExecutor();
+            final int p = executor.concurrency();
+            final LoopBody empty = new LoopBody() {
+
+                @Override
+                public void run(int i) {
+                }
+            };
+
+            double best = Double.MAX_VALUE;
+            for (int r = 0; r < WARM_UP + REPEAT; ++r) {
+                final long start = System.nanoTime();
+                try {
+                    executor.forLoop(0, p, empty);
+                } catch (MultipleExecutionException ex) {
+                    throw new RuntimeException(ex);
+                }
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            return Math.max(best, 1);
+        }
+
+        /**
+         * Time the serial kernel of an operation.
+         *
+         * @param op an operation
+         * @return the cost per unit of work in nanoseconds
+         */
+        private static double cost(Operation op) {
+            final double[] a = new double[N];
+            final double[] b = new double[N];
+            final double[] c = new double[N];
+            final int[] index = new int[N];
+            for (int i = 0; i < N; ++i) {
+                a[i] = i;
+                b[i] = N - i;
+                index[i] = (int) ((i * 2654435761L) % N);// a scattered access pattern
+            }
+
+            double best = Double.MAX_VALUE;
+            for (int r = 0; r < WARM_UP + REPEAT; ++r) {
+                final long start = System.nanoTime();
+                run(op, a, b, c, index);
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            sink = c[N / 2];
+            return Math.max(best, 1) / N;
+        }
+
+        private static void run(Operation op, double[] a, double[] b, double[] c, int[] index) {
+            switch (op) {
+                case ADD:
+                    for (int i = 0; i < N; ++i) {
+                        c[i] = a[i] + b[i];
+                    }
+                    break;
+                case SCALE:
+                    for (int i = 0; i < N; ++i) {
+                        c[i] = 1.5 * a[i];
+                    }
+                    break;
+                case GEMV: {// a dot product streams the matrix entries
+                    double sum = 0;
+                    for (int i = 0; i < N; ++i) {
+                        sum += a[i] * b[i];
+                    }
+                    c[N / 2] = sum;
+                    break;
+                }
+                case GEMM: {// a 32 x 32 times 32 x 16 product, N multiply-adds on operands in the cache
+                    for (int i = 0; i < 32; ++i) {
+                        for (int k = 0; k < 32; ++k) {
+                            final double aik = a[i * 32 + k];
+                            for (int j = 0; j < 16; ++j) {
+                                c[i * 16 + j] += aik * b[k * 16 + j];
+                            }
+                        }
+                    }
+                    break;
+                }
+                case TRANSPOSE: {
+                    final int n = 128;// N = n * n
+                    for (int i = 0; i < n; ++i) {
+                        for (int j = 0; j < n; ++j) {
+                            c[j * n + i] = a[i * n + j];
+                        }
+                    }
+                    break;
+                }
+                case SPMV: {
+                    double sum = 0;
+                    for (int i = 0; i < N; ++i) {
+                        sum += a[i] * b[index[i]];
+                    }
+                    c[N / 2] = sum;
+                    break;
+                }
+                default:
+                    throw new IllegalArgumentException(String.format("unknown operation %s", op));
+            }
+        }
+    }
+}
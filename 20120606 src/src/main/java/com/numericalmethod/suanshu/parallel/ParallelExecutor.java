@@ -22,81 +22,199 @@
  */
 package com.numericalmethod.suanshu.parallel;
 
-import com.numericalmethod.suanshu.parallel.SynchronizedIterator.Element;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * This class provides a framework for executing an algorithm in parallel. A
- * thread pool is created when executing a list of tasks.
+ * This class provides a framework for executing an algorithm in parallel.
+ * The tasks run in a work-stealing {@link ForkJoinPool}.
  *
  * <p>
- * Caution: Avoid using another executor within parallelized calls, this would
- * create numerous threads, leading to much memory consumption and huge overhead
- * for thread switching. It is recommended to parallelize the outermost-scoped
- * tasks.
+ * A for-loop is split recursively into halves, down to a grain size adapted to the
+ * number of iterations and the concurrency, so that there are several pieces per thread.
+ * An idle thread steals the pending pieces of a busy one.
+ * Loops with uneven iterations, e.g., a triangular loop, keep all threads busy.
+ *
+ * <p>
+ * All instances created by {@link #ParallelExecutor()} share one pool,
+ * whose concurrency is set by {@link #setDefaultConcurrency(int)},
+ * or by the system property {@value #CONCURRENCY_PROPERTY}.
+ * A parallel call made from within a task of the same pool, e.g., a parallel matrix multiplication
+ * inside a parallel bootstrap, does not block a thread.
+ * Its pieces are pushed to the calling thread's queue, where they are run by the calling thread
+ * or stolen by others.
+ * Hence, nested parallel calls neither create threads nor starve the pool.
+ *
+ * <p>
+ * The worker threads are daemon threads, so an idle pool does not keep the JVM alive,
+ * and they terminate after being idle for a while.
+ * (Before the pools were {@link ForkJoinPool}s, the threads were forced to be non-daemon.)
+ * A pool created by {@link #ParallelExecutor(int)} can be released earlier by {@link #shutdown()}.
  *
  * @author Ken Yiu
  */
 public class ParallelExecutor {
 
+    /**
+     * the system property for the default concurrency
+     */
+    public static final String CONCURRENCY_PROPERTY = "suanshu.parallel.concurrency";
+    /**
+     * the number of pieces per thread that a for-loop is split into
+     */
+    private static final int PIECES_PER_THREAD = 8;
     private static final AtomicLong executorCount = new AtomicLong(0);
-    private final int concurrency;
-    private final ThreadPoolExecutor executor;
-    private final AtomicLong threadCount = new AtomicLong(0);
-    private final long executorId = executorCount.incrementAndGet();
-    private final String namePrefix = String.format("parallel-executor-%d-thread-", executorId);
+    private static final Object sharedLock = new Object();
+    private static ForkJoinPool shared = null;// guarded by sharedLock
+    /**
+     * the pool of this instance; {@code null} if using the shared pool
+     */
+    private final ForkJoinPool pool;
 
     /**
-     * Creates an instance using default concurrency number, which is the
-     * number of available processors returned by
+     * Creates an instance that uses the shared pool.
+     * The concurrency is the default concurrency, which is,
+     * unless {@link #setDefaultConcurrency(int)} is called or {@value #CONCURRENCY_PROPERTY} is set,
+     * the number of available processors returned by
      * <pre><code>
      * Runtime.getRuntime().availableProcessors()
      * </code></pre>
      */
     public ParallelExecutor() {
-        this(Runtime.getRuntime().availableProcessors());
+        this.pool = null;
     }
 
     /**
-     * Creates an instance with a specified concurrency number.
+     * Creates an instance with its own pool of a specified concurrency number.
      *
      * @param concurrency the maximum number of threads can be used when executing a list of tasks
      */
     public ParallelExecutor(int concurrency) {
-        this.concurrency = concurrency;
-        this.executor = new ThreadPoolExecutor(
-                concurrency,
-                concurrency,
-                500, // keep threads in the pool alive for a short time period
-                TimeUnit.MILLISECONDS,
-                new LinkedBlockingQueue<Runnable>(),
-                new ThreadFactory() {
-
-                    @Override
-                    public Thread newThread(Runnable r) {
-                        String threadLabel = namePrefix + threadCount.incrementAndGet();
-                        Thread t = new Thread(r, threadLabel);
-                        if (t.isDaemon()) {
-                            t.setDaemon(false);
-                        }
-                        if (t.getPriority() != Thread.NORM_PRIORITY) {
-                            t.setPriority(Thread.NORM_PRIORITY);
-                        }
-                        return t;
-                    }
-                });
-        /*
-         * Note: core threads have to be allowed to timeout in order to let the
-         * ThreadPoolExecutor shutdown itself automatically when there is no
-         * more reference to the instance.
-         *
-         * Ref.: see javadoc for ThreadPoolExecutor
-         */
-        this.executor.allowCoreThreadTimeOut(true);
+        this.pool = newPool(concurrency, false);
+    }
+
+    /**
+     * Set the concurrency of the shared pool, used by all instances created by {@link #ParallelExecutor()}.
+     * The new calls go to a new pool.
+     * The old pool is not shut down: the calls that have started, including the parallel calls nested in them,
+     * run to completion in the old pool, whose threads then terminate when idle.
+     *
+     * @param concurrency the maximum number of threads
+     */
+    public static void setDefaultConcurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be positive");
+        }
+
+        synchronized (sharedLock) {
+            shared = newPool(concurrency, true);
+        }
+    }
+
+    /**
+     * Get the concurrency of the shared pool.
+     *
+     * @return the maximum number of threads used by the instances created by {@link #ParallelExecutor()}
+     */
+    public static int getDefaultConcurrency() {
+        return sharedPool().getParallelism();
+    }
+
+    /**
+     * Get the concurrency of this executor.
+     *
+     * @return the maximum number of threads used by this executor
+     */
+    public int concurrency() {
+        return pool().getParallelism();
+    }
+
+    private static ForkJoinPool sharedPool() {
+        synchronized (sharedLock) {
+            if (shared == null) {
+                int concurrency = Runtime.getRuntime().availableProcessors();
+                String property = System.getProperty(CONCURRENCY_PROPERTY);
+                if (property != null) {
+                    concurrency = Integer.parseInt(property.trim());
+                }
+                shared = newPool(concurrency, true);
+            }
+            return shared;
+        }
+    }
+
+    private static ForkJoinPool newPool(int concurrency, boolean isShared) {
+        return new ForkJoinPool(concurrency, new WorkerThreadFactory(isShared), null, false);
+    }
+
+    /**
+     * Check whether a pool is the shared pool, or one that it replaced.
+     *
+     * @param pool a pool; {@code null} if the calling thread is not a pool thread
+     * @return {@code true} if {@code pool} is created as a shared pool
+     */
+    private static boolean isShared(ForkJoinPool pool) {
+        return pool != null
+               && pool.getFactory() instanceof WorkerThreadFactory
+               && ((WorkerThreadFactory) pool.getFactory()).isShared;
+    }
+
+    /**
+     * Name the worker threads of a pool, and remember whether the pool is shared.
+     */
+    private static class WorkerThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+
+        private final boolean isShared;
+        private final String namePrefix = String.format("parallel-executor-%d-thread-", executorCount.incrementAndGet());
+        private final AtomicLong threadCount = new AtomicLong(0);
+
+        private WorkerThreadFactory(boolean isShared) {
+            this.isShared = isShared;
+        }
+
+        @Override
+        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            t.setName(namePrefix + threadCount.incrementAndGet());
+            return t;
+        }
+    }
+
+    /**
+     * Shut down the pool of this executor, if it has its own pool, i.e., it is created by {@link #ParallelExecutor(int)}.
+     * The calls that have started run to completion; new calls are rejected.
+     * This has no effect on an instance that uses the shared pool.
+     */
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private ForkJoinPool pool() {
+        return pool != null ? pool : sharedPool();
+    }
+
+    /**
+     * Run a task in the pool, and wait for it to complete.
+     * If the calling thread is a thread of the pool, the task is run directly,
+     * so that the subtasks it forks are run or stolen within the pool.
+     * For an instance using the shared pool, this is also the case for a thread of a shared pool
+     * that {@link #setDefaultConcurrency(int)} has replaced, so that a call nested in a running call
+     * does not block its thread to wait for the new pool.
+     */
+    private void invoke(ForkJoinTask<?> task) {
+        ForkJoinPool current = ForkJoinTask.getPool();
+        ForkJoinPool p = pool();
+        if (current == p || (pool == null && isShared(current))) {
+            task.invoke();
+        } else {
+            p.invoke(task);
+        }
     }
 
     /**
@@ -110,27 +228,31 @@ public class ParallelExecutor {
      */
     public <T> List<T> executeAll(List<? extends Callable<T>> tasks)
             throws MultipleExecutionException {
-        List<T> results = new ArrayList<T>(tasks.size());
-        try {
-            List<Future<T>> futures = executor.invokeAll(tasks);
-
-            List<ExecutionException> exceptions = new ArrayList<ExecutionException>(futures.size());
-            boolean exceptionCaught = false;
-            for (Future<T> future : futures) {
-                try {
-                    results.add(future.get());
-                    exceptions.add(null);
-                } catch (ExecutionException ex) {
-                    results.add(null);
-                    exceptions.add(ex);
-                    exceptionCaught = true;
-                }
-            }
-            if (exceptionCaught) {
-                throw new MultipleExecutionException(results, exceptions);
+        final List<CallableTask<T>> fjTasks = new ArrayList<CallableTask<T>>(tasks.size());
+        for (Callable<T> task : tasks) {
+            fjTasks.add(new CallableTask<T>(task));
+        }
+
+        invoke(new RecursiveAction() {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void compute() {
+                invokeAll(fjTasks);
             }
-        } catch (InterruptedException ex) {
-            throw new RuntimeException(ex);
+        });
+
+        List<T> results = new ArrayList<T>(tasks.size());
+        List<ExecutionException> exceptions = new ArrayList<ExecutionException>(tasks.size());
+        boolean exceptionCaught = false;
+        for (CallableTask<T> task : fjTasks) {
+            results.add(task.result);
+            exceptions.add(task.exception);
+            exceptionCaught |= task.exception != null;
+        }
+        if (exceptionCaught) {
+            throw new MultipleExecutionException(results, exceptions);
         }
 
         return results;
@@ -165,7 +287,7 @@ public class ParallelExecutor {
     public <T> T executeAny(List<? extends Callable<T>> tasks) throws ExecutionException {
         T result = null;
         try {
-            result = executor.invokeAny(tasks);
+            result = pool().invokeAny(tasks);
         } catch (InterruptedException ex) {
             throw new RuntimeException(ex);
         }
@@ -190,8 +312,8 @@ public class ParallelExecutor {
     }
 
     /**
-     * Runs a for-loop in parallel. A huge for-loop is partitioned into roughly
-     * equal size, and each partition is then run by a thread. This is similar
+     * Runs a for-loop in parallel. The for-loop is split recursively into
+     * pieces, which are run by the threads in the pool. This is similar
      * to running a normal for-loop construct:
      * <pre><code>
      * for (int i = start; i &lt; end; i += increment) {
@@ -205,33 +327,15 @@ public class ParallelExecutor {
      * @param body      the loop body
      * @throws MultipleExecutionException if one or more partitioned for-loop throws an exception
      */
-    public void forLoop(int start, int end, final int increment, final LoopBody body) throws MultipleExecutionException {
-        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(concurrency);
-
-        // divide the loop into equal portions among threads
-        int blockSize = (int) Math.ceil((end - start) / increment / (double) concurrency) * increment;
-        blockSize = Math.max(1, blockSize); // block size must be at least 1
-
-        for (int i = 0; i < concurrency; ++i) {
-            final int THREAD_START_INDEX = start + i * blockSize;
-            if (THREAD_START_INDEX >= end) {
-                break; // do not need so many threads
-            }
-            final int THREAD_END_INDEX = Math.min(THREAD_START_INDEX + blockSize, end);
-            tasks.add(
-                    new Callable<Void>() {
-
-                        @Override
-                        public Void call() throws Exception {
-                            for (int j = THREAD_START_INDEX; j < THREAD_END_INDEX; j += increment) {
-                                body.run(j);
-                            }
-                            return null;
-                        }
-                    });
+    public void forLoop(int start, int end, int increment, LoopBody body) throws MultipleExecutionException {
+        if (end <= start) {
+            return;
         }
 
-        executeAll(tasks);
+        final int n = (int) (((long) end - start + increment - 1) / increment);// the number of iterations
+        ConcurrentLinkedQueue<Piece> pieces = new ConcurrentLinkedQueue<Piece>();
+        invoke(new LoopTask(start, increment, body, 0, n, grain(n), pieces));
+        check(pieces);
     }
 
     /**
@@ -289,6 +393,88 @@ public class ParallelExecutor {
         conditionalForLoop(conditionToParallelize, start, end, 1, body);
     }
 
+    /**
+     * Runs a for-loop in parallel, and reduces the values of the iterations by an associative operation.
+     * This is similar to running a normal for-loop construct:
+     * <pre><code>
+     * double result = identity;
+     * for (int i = start; i &lt; end; ++i) {
+     *     result = reduction.combine(result, body.run(i));
+     * }
+     * </code></pre>
+     * The iterations are combined in the order of a binary tree, which depends only on the number of iterations
+     * and the concurrency, but not on the scheduling.
+     * Hence, the result is reproducible for the same concurrency.
+     *
+     * @param start     the first loop index (inclusive)
+     * @param end       the last loop index (exclusive)
+     * @param identity  the identity of the reduction, e.g., 0 for addition
+     * @param body      the value of an iteration
+     * @param reduction an associative operation
+     * @return the reduced value; {@code identity} if there is no iteration
+     * @throws MultipleExecutionException if one or more iterations throws an exception
+     */
+    public double parallelReduce(int start, int end, double identity, DoubleLoopBody body, DoubleReduction reduction) throws MultipleExecutionException {
+        if (end <= start) {
+            return identity;
+        }
+
+        ConcurrentLinkedQueue<Piece> pieces = new ConcurrentLinkedQueue<Piece>();
+        ReduceTask task = new ReduceTask(start, end, grain(end - start), identity, body, reduction, pieces);
+        invoke(task);
+        check(pieces);
+        return task.result;
+    }
+
+    /**
+     * Runs a for-loop in parallel, and sums up the values of the iterations.
+     * This is similar to running a normal for-loop construct:
+     * <pre><code>
+     * double sum = 0;
+     * for (int i = start; i &lt; end; ++i) {
+     *     sum += body.run(i);
+     * }
+     * </code></pre>
+     *
+     * @param start the first loop index (inclusive)
+     * @param end   the last loop index (exclusive)
+     * @param body  the value of an iteration
+     * @return the sum
+     * @throws MultipleExecutionException if one or more iterations throws an exception
+     * @see #parallelReduce(int, int, double, DoubleLoopBody, DoubleReduction)
+     */
+    public double parallelSum(int start, int end, DoubleLoopBody body) throws MultipleExecutionException {
+        return parallelReduce(start, end, 0., body, SUM);
+    }
+
+    /**
+     * Sums up an array in parallel.
+     *
+     * @param values an array
+     * @return the sum
+     */
+    public double parallelSum(final double[] values) {
+        try {
+            return parallelSum(0, values.length, new DoubleLoopBody() {
+
+                @Override
+                public double run(int i) {
+                    return values[i];
+                }
+            });
+        } catch (MultipleExecutionException ex) {
+            throw new RuntimeException(ex);// not reachable
+        }
+    }
+
+    private static final DoubleReduction SUM = new DoubleReduction() {
+
+        @Override
+        public double combine(double x, double y) {
+            return x + y;
+        }
+    };
+
     /**
      * Runs a "foreach" loop in parallel. Multiple threads take elements from
      * the iterable collection and run the loop body in parallel. Threads are
@@ -307,6 +493,7 @@ public class ParallelExecutor {
      * @throws MultipleExecutionException if one or more threads throws an exception
      */
     public <T> void forEach(Iterable<T> iterable, final IterationBody<T> body) throws MultipleExecutionException {
+        final int concurrency = concurrency();
         List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(concurrency);
 
         final SynchronizedIterator<T> iterator = new SynchronizedIterator<T>(iterable.iterator());
@@ -317,7 +504,7 @@ public class ParallelExecutor {
 
                         @Override
                         public Void call() throws Exception {
-                            for (Element<T> element; (element = iterator.next()).exists();) {
+                            for (SynchronizedIterator.Element<T> element; (element = iterator.next()).exists();) {
                                 body.run(element.get());
                             }
                             return null;
@@ -348,4 +535,182 @@ public class ParallelExecutor {
             }
         }
     }
+
+    /**
+     * Get the number of iterations below which a for-loop is not split further.
+     *
+     * @param n the number of iterations
+     * @return the grain size
+     */
+    private int grain(int n) {
+        return Math.max(1, n / (concurrency() * PIECES_PER_THREAD));
+    }
+
+    /**
+     * Throw a {@link MultipleExecutionException} if any piece of a for-loop throws an exception.
+     * As for {@link #executeAll(java.util.List) executeAll}, the exception has one entry per piece,
+     * in the loop order, which is {@code null} for a piece that completes.
+     *
+     * @param pieces the pieces of a for-loop
+     * @throws MultipleExecutionException if one or more pieces throws an exception
+     */
+    private static void check(ConcurrentLinkedQueue<Piece> pieces) throws MultipleExecutionException {
+        boolean exceptionCaught = false;
+        for (Piece piece : pieces) {
+            exceptionCaught |= piece.exception != null;
+        }
+        if (!exceptionCaught) {
+            return;
+        }
+
+        Piece[] sorted = pieces.toArray(new Piece[0]);
+        Arrays.sort(sorted);
+        List<ExecutionException> exceptions = new ArrayList<ExecutionException>(sorted.length);
+        for (Piece piece : sorted) {
+            exceptions.add(piece.exception);
+        }
+        throw new MultipleExecutionException(Collections.nCopies(sorted.length, null), exceptions);
+    }
+
+    /**
+     * The outcome of a piece of a for-loop, which starts at the iteration {@code from}.
+     */
+    private static class Piece implements Comparable<Piece> {
+
+        private final int from;
+        /** the exception thrown by the piece; {@code null} if it completes */
+        private final ExecutionException exception;
+
+        private Piece(int from, ExecutionException exception) {
+            this.from = from;
+            this.exception = exception;
+        }
+
+        @Override
+        public int compareTo(Piece that) {
+            return from < that.from ? -1 : (from == that.from ? 0 : 1);
+        }
+    }
+
+    /**
+     * Run a {@link Callable}, and keep its result or exception.
+     */
+    private static class CallableTask<T> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private final Callable<T> callable;
+        private T result = null;
+        private ExecutionException exception = null;
+
+        private CallableTask(Callable<T> callable) {
+            this.callable = callable;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                result = callable.call();
+            } catch (Exception ex) {
+                exception = new ExecutionException(ex);
+            }
+        }
+    }
+
+    /**
+     * Run the iterations <i>[from, to)</i> of a for-loop, where iteration <i>k</i> has the loop index <i>start + k * increment</i>.
+     * The range is split into halves until it is no bigger than the grain size.
+     * A piece stops at the first exception, while the others go on.
+     */
+    private static class LoopTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private final int start;
+        private final int increment;
+        private final LoopBody body;
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final ConcurrentLinkedQueue<Piece> pieces;
+
+        private LoopTask(int start, int increment, LoopBody body, int from, int to, int grain, ConcurrentLinkedQueue<Piece> pieces) {
+            this.start = start;
+            this.increment = increment;
+            this.body = body;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.pieces = pieces;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > grain) {
+                final int mid = (from + to) >>> 1;
+                invokeAll(new LoopTask(start, increment, body, from, mid, grain, pieces),
+                          new LoopTask(start, increment, body, mid, to, grain, pieces));
+                return;
+            }
+
+            ExecutionException exception = null;
+            try {
+                for (int k = from; k < to; ++k) {
+                    body.run(start + k * increment);
+                }
+            } catch (Exception ex) {
+                exception = new ExecutionException(ex);
+            }
+            pieces.add(new Piece(from, exception));
+        }
+    }
+
+    /**
+     * Reduce the values of the iterations <i>[from, to)</i> of a for-loop.
+     * The range is split into halves until it is no bigger than the grain size;
+     * the values of a piece are combined from left to right.
+     */
+    private static class ReduceTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final double identity;
+        private final DoubleLoopBody body;
+        private final DoubleReduction reduction;
+        private final ConcurrentLinkedQueue<Piece> pieces;
+        private double result;
+
+        private ReduceTask(int from, int to, int grain, double identity, DoubleLoopBody body, DoubleReduction reduction, ConcurrentLinkedQueue<Piece> pieces) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.identity = identity;
+            this.body = body;
+            this.reduction = reduction;
+            this.pieces = pieces;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > grain) {
+                final int mid = (from + to) >>> 1;
+                ReduceTask left = new ReduceTask(from, mid, grain, identity, body, reduction, pieces);
+                ReduceTask right = new ReduceTask(mid, to, grain, identity, body, reduction, pieces);
+                invokeAll(left, right);
+                result = reduction.combine(left.result, right.result);
+                return;
+            }
+
+            result = identity;
+            ExecutionException exception = null;
+            try {
+                for (int i = from; i < to; ++i) {
+                    result = reduction.combine(result, body.run(i));
+                }
+            } catch (Exception ex) {
+                exception = new ExecutionException(ex);
+            }
+            pieces.add(new Piece(from, exception));
+        }
+    }
 }
@@ -26,8 +26,6 @@ import com.numericalmethod.suanshu.matrix.doubles.IsMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.Matrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
 import com.numericalmethod.suanshu.misc.SuanShuUtils;
-import com.numericalmethod.suanshu.vector.doubles.Vector;
-import static com.numericalmethod.suanshu.vector.doubles.dense.operation.CreateVector.diagonal;
 import static java.lang.Math.sqrt;
 
 /**
@@ -45,21 +43,20 @@ public class CorrelationMatrix extends DenseMatrix {
      * @param cov a covariance matrix
      */
     public CorrelationMatrix(Matrix cov) {
-        super(cor(cov));
+        super(cor(cov), cov.nRows(), cov.nCols());
     }
 
-    private static DenseMatrix cor(Matrix cov) {
+    private static double[] cor(Matrix cov) {
         SuanShuUtils.assertArgument(IsMatrix.symmetric(cov, 0), "the covariance matrix must be symmetric");
 
-        final int nRows = cov.nRows();
-        final int nCols = cov.nCols();
-        final Vector diag = diagonal(cov);
+        final int n = cov.nRows();
+        final double[] C = CovarianceMatrix.rows(cov);
 
-        DenseMatrix cor = new DenseMatrix(nRows, nCols);
-        for (int i = 1; i <= cov.nCols(); ++i) {
-            for (int j = i; j <= cov.nRows(); ++j) {
-                cor.set(i, j, cov.get(i, j) / sqrt(diag.get(i)) / sqrt(diag.get(j)));
-                cor.set(j, i, cov.get(i, j) / sqrt(diag.get(i)) / sqrt(diag.get(j)));
+        double[] cor = new double[n * n];
+        for (int i = 0; i < n; ++i) {
+            for (int j = i; j < n; ++j) {
+                cor[i * n + j] = C[i * n + j] / sqrt(C[i * n + i]) / sqrt(C[j * n + j]);
+                cor[j * n + i] = cor[i * n + j];
             }
         }
 
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.descriptive;
+
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+
+/**
+ * This window keeps the <i>n</i> most recent observations.
+ * When the window is full, pushing a new observation pops the oldest one.
+ * <p/>
+ * For example, a 20-period moving average and standard deviation are
+ * <blockquote><code>
+ * RollingMean mean = new RollingMean();
+ * RollingVariance var = new RollingVariance();
+ * CountWindow window = new CountWindow(20, mean, var);
+ * for (double x : prices) {
+ *     window.push(x);
+ *     ... mean.value() ... var.standardDeviation() ...
+ * }
+ * </code></blockquote>
+ */
+public class CountWindow extends RollingWindow {
+
+    private final int n;
+    private long count = 0;
+
+    /**
+     * Construct a window of {@code n} observations.
+     *
+     * @param n     the number of observations in a full window
+     * @param stats the statistics to update
+     */
+    public CountWindow(int n, RollingStatistic... stats) {
+        super(n, stats);
+        SuanShuUtils.assertArgument(n > 0, "n > 0");
+        this.n = n;
+    }
+
+    /**
+     * Add an observation to the window, popping the oldest one if the window is full.
+     * The time of an observation is its index in the time series, counting from 1.
+     *
+     * @param x the newest observation
+     */
+    public void push(double x) {
+        if (size() == n) {
+            pop();
+        }
+
+        add(++count, x);
+    }
+
+    /**
+     * Check whether the window has {@code n} observations.
+     *
+     * @return {@code true} if the window is full
+     */
+    public boolean isFull() {
+        return size() == n;
+    }
+}
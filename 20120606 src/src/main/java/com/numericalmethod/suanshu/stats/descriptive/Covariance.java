@@ -33,7 +33,8 @@ import com.numericalmethod.suanshu.stats.descriptive.moment.Variance;
  * Cov(X, Y) = E[(X - E(X)) * (Y - E(Y))]
  * </i></blockquote>
  * Note that this implementation uses <i>N - 1</i> as the denominator to give an unbiased estimator of the covariance for i.i.d. observations.
- * This implementation uses Pébay's update formula to incrementally compute the new statistic.
+ * This implementation uses Pébay's update formula to incrementally compute the new statistic,
+ * and to merge partial statistics computed on disjoint pairs of samples.
  *
  * @author Haksun Li
  * @see
@@ -42,7 +43,7 @@ import com.numericalmethod.suanshu.stats.descriptive.moment.Variance;
  * <li><a href="http://en.wikipedia.org/wiki/Correlation">Wikipedia: Correlation</a>
  * </ul>
  */
-public class Covariance implements Statistic {
+public class Covariance implements MergeableStatistic {
 
     private long N = 0;
     private Mean mean1 = new Mean();
@@ -74,10 +75,10 @@ public class Covariance implements Statistic {
      */
     public Covariance(Covariance that) {
         this.N = that.N;
-        this.mean1 = that.mean1;
-        this.var1 = that.var1;
-        this.mean2 = that.mean2;
-        this.var2 = that.var2;
+        this.mean1 = new Mean(that.mean1);
+        this.var1 = new Variance(that.var1);
+        this.mean2 = new Mean(that.mean2);
+        this.var2 = new Variance(that.var2);
         this.sum = that.sum;
     }
 
@@ -139,6 +140,10 @@ public class Covariance implements Statistic {
         SuanShuUtils.assertArgument(data.length == 2, "there must be a pair of data");
         SuanShuUtils.assertArgument(data[0].length == data[1].length, "there must be a pair of data of the same length");
 
+        if (data[0].length == 0) {
+            return;
+        }
+
         //base case
         if (N == 0) {
             N = data[0].length;
@@ -157,8 +162,34 @@ public class Covariance implements Statistic {
             return;
         }
 
+        merge(new Covariance(data));
+    }
+
+    /**
+     * Merge the statistic of another pair of samples into this statistic.
+     *
+     * @param stat a {@code Covariance} instance
+     * @see "Pébay, Philippe, "Formulas for Robust, One-Pass Parallel Computation of Covariances and Arbitrary-Order Statistical Moments," Technical Report SAND2008-6212, Sandia National Laboratories, 2008."
+     */
+    @Override
+    public void merge(Statistic stat) {
+        SuanShuUtils.assertArgument(stat instanceof Covariance, "can only merge a Covariance");
+        Covariance that = (Covariance) stat;
+        if (that.N == 0) {
+            return;
+        }
+
+        if (this.N == 0) {
+            this.N = that.N;
+            this.mean1 = new Mean(that.mean1);
+            this.var1 = new Variance(that.var1);
+            this.mean2 = new Mean(that.mean2);
+            this.var2 = new Variance(that.var2);
+            this.sum = that.sum;
+            return;
+        }
+
         //Pébay's update formula.
-        Covariance that = new Covariance(data);
         long Nboth = this.N + that.N;
         double dMean1 = that.mean1.value() - this.mean1.value();
         double dMean2 = that.mean2.value() - this.mean2.value();
@@ -166,8 +197,10 @@ public class Covariance implements Statistic {
         correction *= dMean1 * dMean2;
         this.sum += that.sum + correction;
 
-        mean1.addData(data[0]);
-        mean2.addData(data[1]);
+        mean1.merge(that.mean1);
+        var1.merge(that.var1);
+        mean2.merge(that.mean2);
+        var2.merge(that.var2);
         this.N = Nboth;
     }
 
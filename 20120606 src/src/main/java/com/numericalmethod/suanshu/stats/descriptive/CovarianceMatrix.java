@@ -23,13 +23,22 @@
 package com.numericalmethod.suanshu.stats.descriptive;
 
 import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.BlockedGEMM;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.operation.MatrixUtils;
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import java.util.Arrays;
 
 /**
  * This class computes the Covariance matrix of a matrix,
  * where the <i>(i, j)</i> entry is the covariance of the <i>i</i>-th column and <i>j</i>-th column of the matrix.
+ * The columns are centered once; the matrix is then computed as a single symmetric product <i>X'X / (N - 1)</i>
+ * by {@link BlockedGEMM#syrk}, which computes only the upper triangle, without explicitly transposing the centered data.
  * <p/>
- * The R equivalent function is {@code cov}.
+ * The rows can also be weighted, e.g., by {@link #exponentialWeights(int, double)} to give more weight to the recent observations.
+ * To update the covariance matrix as rows arrive or leave, use {@link IncrementalCovariance}.
+ * <p/>
+ * The R equivalent functions are {@code cov} and {@code cov.wt}.
  *
  * @author Haksun Li
  */
@@ -41,24 +50,137 @@ public class CovarianceMatrix extends DenseMatrix {
      * @param A a matrix
      */
     public CovarianceMatrix(Matrix A) {
-        super(A.nCols(), A.nCols());
-
-        for (int i = 1; i <= A.nCols(); ++i) {
-            for (int j = i; j <= A.nCols(); ++j) {
-                double[] data1 = new double[A.nRows()];
-                for (int k = 1; k <= A.nRows(); ++k) {
-                    data1[k - 1] = A.get(k, i);
-                }
-
-                double[] data2 = new double[A.nRows()];
-                for (int k = 1; k <= A.nRows(); ++k) {
-                    data2[k - 1] = A.get(k, j);
-                }
-
-                Covariance cov = new Covariance(new double[][]{data1, data2});
-                super.set(i, j, cov.value());
-                super.set(j, i, cov.value());
+        super(cov(A), A.nCols(), A.nCols());
+    }
+
+    /**
+     * Construct the weighted covariance matrix of a matrix.
+     * The weights are normalized to sum to 1, and the unbiased estimator of {@code cov.wt} is used. That is,
+     * <blockquote><i>
+     * Σ w<sub>i</sub> (x<sub>i</sub> - μ<sub>w</sub>)(x<sub>i</sub> - μ<sub>w</sub>)' / (1 - Σ w<sub>i</sub><sup>2</sup>)
+     * </i></blockquote>
+     * With equal weights, this is the same as {@link #CovarianceMatrix(Matrix)}.
+     *
+     * @param A       a matrix
+     * @param weights the non-negative weights of the rows
+     */
+    public CovarianceMatrix(Matrix A, double[] weights) {
+        super(cov(A, weights), A.nCols(), A.nCols());
+    }
+
+    /**
+     * Construct a covariance matrix from its entries.
+     *
+     * @param data the row-major entries of a symmetric matrix
+     * @param n    the dimension
+     */
+    CovarianceMatrix(double[] data, int n) {
+        super(data, n, n);
+    }
+
+    /**
+     * Get the exponentially decaying weights of <i>n</i> rows,
+     * in which the last (most recent) row has weight 1 and each row before has {@code lambda} times the weight of the next.
+     * These weights give the exponentially weighted moving average (EWMA) covariance matrix.
+     *
+     * @param n      the number of rows
+     * @param lambda the decay factor, 0 &lt; λ &le; 1, e.g., 0.94 as in RiskMetrics
+     * @return the weights
+     */
+    public static double[] exponentialWeights(int n, double lambda) {
+        SuanShuUtils.assertArgument(lambda > 0 && lambda <= 1, "0 < lambda <= 1");
+
+        double[] weights = new double[n];
+        double w = 1;
+        for (int i = n - 1; i >= 0; --i) {
+            weights[i] = w;
+            w *= lambda;
+        }
+        return weights;
+    }
+
+    private static double[] cov(Matrix A) {
+        final int nRows = A.nRows();
+        final int nCols = A.nCols();
+
+        double[] X = rows(A);
+        double[] result = new double[nCols * nCols];
+        if (nRows < 2) {
+            Arrays.fill(result, Double.NaN);
+            return result;
+        }
+
+        //center the columns
+        double[] mean = new double[nCols];
+        for (int i = 0, k = 0; i < nRows; ++i) {
+            for (int j = 0; j < nCols; ++j) {
+                mean[j] += X[k++];
             }
         }
+        for (int j = 0; j < nCols; ++j) {
+            mean[j] /= nRows;
+        }
+        for (int i = 0, k = 0; i < nRows; ++i) {
+            for (int j = 0; j < nCols; ++j) {
+                X[k++] -= mean[j];
+            }
+        }
+
+        BlockedGEMM.syrk(true, nCols, nRows, 1. / (nRows - 1), X, 0, nCols, 0., result, 0, nCols);
+        return result;
+    }
+
+    private static double[] cov(Matrix A, double[] weights) {
+        final int nRows = A.nRows();
+        final int nCols = A.nCols();
+        SuanShuUtils.assertArgument(weights.length == nRows, "there must be one weight per row");
+
+        double sum = 0;
+        for (double w : weights) {
+            SuanShuUtils.assertArgument(w >= 0, "the weights must be non-negative");
+            sum += w;
+        }
+        SuanShuUtils.assertArgument(sum > 0, "the weights must not be all 0");
+
+        double sum2 = 0;//the sum of the squared normalized weights
+        for (double w : weights) {
+            sum2 += (w / sum) * (w / sum);
+        }
+
+        double[] X = rows(A);
+        double[] result = new double[nCols * nCols];
+        if (sum2 >= 1) {//only one row has weight
+            Arrays.fill(result, Double.NaN);
+            return result;
+        }
+
+        //center the columns by the weighted means, and scale the rows by the square roots of the weights
+        double[] mean = new double[nCols];
+        for (int i = 0, k = 0; i < nRows; ++i) {
+            final double w = weights[i] / sum;
+            for (int j = 0; j < nCols; ++j) {
+                mean[j] += w * X[k++];
+            }
+        }
+        for (int i = 0, k = 0; i < nRows; ++i) {
+            final double sw = Math.sqrt(weights[i] / sum);
+            for (int j = 0; j < nCols; ++j, ++k) {
+                X[k] = sw * (X[k] - mean[j]);
+            }
+        }
+
+        BlockedGEMM.syrk(true, nCols, nRows, 1. / (1 - sum2), X, 0, nCols, 0., result, 0, nCols);
+        return result;
+    }
+
+    /**
+     * Copy the entries of a matrix in row-major order, reading a dense matrix directly from its storage.
+     */
+    static double[] rows(Matrix A) {
+        if (A instanceof DenseMatrix) {
+            double[] data = ((DenseMatrix) A).view().data();
+            return Arrays.copyOf(data, A.nRows() * A.nCols());
+        }
+        return MatrixUtils.to1DArray(A);
     }
 }
@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.descriptive;
+
+import com.numericalmethod.suanshu.Constant;
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.BlockedGEMM;
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+import java.util.Arrays;
+
+/**
+ * This class maintains the covariance matrix of a stream of multivariate observations (rows).
+ * A row is added (or removed) in <i>O(p<sup>2</sup>)</i> time by a rank-1 update of the mean and of the co-moment matrix,
+ * <blockquote><i>
+ * C = Σ w<sub>i</sub> (x<sub>i</sub> - μ)(x<sub>i</sub> - μ)'
+ * </i></blockquote>
+ * of which only the upper triangle is kept up to date.
+ * Adding and removing rows supports rolling windows;
+ * a decay factor λ &lt; 1 gives the exponentially weighted moving average (EWMA) covariance matrix,
+ * in which every new row multiplies the weights of all previous rows by λ.
+ * A block of rows is centered once and added by {@link BlockedGEMM#syrk}.
+ * Accumulators of disjoint sets of rows, e.g., one per thread, can be merged.
+ * <p/>
+ * The covariance matrix uses the unbiased estimator of {@code cov.wt} for the (normalized) weights,
+ * which reduces to the usual <i>N - 1</i> denominator for equal weights.
+ * Hence, it equals the {@link CovarianceMatrix} of the same rows and weights.
+ * @see
+ * <ul>
+ * <li>"D. H. D. West, "Updating Mean and Variance Estimates: An Improved Method," Communications of the ACM, 22(9), 532–535, 1979."
+ * <li>"Philippe Pébay, "Formulas for Robust, One-Pass Parallel Computation of Covariances and Arbitrary-Order Statistical Moments," Technical Report SAND2008-6212, Sandia National Laboratories, 2008."
+ * </ul>
+ */
+public class IncrementalCovariance {
+
+    /** the number of variables (columns) */
+    private final int p;
+    /** the decay factor */
+    private final double lambda;
+    private long N = 0;
+    /** the sum of the weights */
+    private double W = 0;
+    /** the sum of the squared weights */
+    private double W2 = 0;
+    private final double[] mean;
+    /** the co-moment matrix, row-major; only the upper triangle is up to date */
+    private final double[] C;
+    /** a work array */
+    private final double[] delta;
+
+    /**
+     * Construct an empty covariance accumulator.
+     *
+     * @param p the number of variables, i.e., the length of a row
+     */
+    public IncrementalCovariance(int p) {
+        this(p, 1);
+    }
+
+    /**
+     * Construct an empty exponentially weighted covariance accumulator.
+     *
+     * @param p      the number of variables, i.e., the length of a row
+     * @param lambda the decay factor, 0 &lt; λ &le; 1, e.g., 0.94 as in RiskMetrics; 1 means no decay
+     */
+    public IncrementalCovariance(int p, double lambda) {
+        SuanShuUtils.assertArgument(p > 0, "there must be at least one variable");
+        SuanShuUtils.assertArgument(lambda > 0 && lambda <= 1, "0 < lambda <= 1");
+
+        this.p = p;
+        this.lambda = lambda;
+        this.mean = new double[p];
+        this.C = new double[p * p];
+        this.delta = new double[p];
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param that a covariance accumulator
+     */
+    public IncrementalCovariance(IncrementalCovariance that) {
+        this(that.p, that.lambda);
+        this.N = that.N;
+        this.W = that.W;
+        this.W2 = that.W2;
+        System.arraycopy(that.mean, 0, this.mean, 0, p);
+        System.arraycopy(that.C, 0, this.C, 0, p * p);
+    }
+
+    /**
+     * Add a row with weight 1.
+     *
+     * @param x a row
+     */
+    public void addRow(double... x) {
+        addRow(x, 1);
+    }
+
+    /**
+     * Add a weighted row.
+     * With decay, the weights of all the previous rows are first multiplied by λ.
+     *
+     * @param x      a row
+     * @param weight the non-negative weight of the row
+     */
+    public void addRow(double[] x, double weight) {
+        SuanShuUtils.assertArgument(x.length == p, "the row must have %d entries", p);
+        SuanShuUtils.assertArgument(weight >= 0, "the weight must be non-negative");
+
+        if (lambda != 1 && N > 0) {
+            W *= lambda;
+            W2 *= lambda * lambda;
+            for (int i = 0; i < p; ++i) {
+                for (int j = i, k = i * p + i; j < p; ++j, ++k) {
+                    C[k] *= lambda;
+                }
+            }
+        }
+
+        ++N;
+        W += weight;
+        W2 += weight * weight;
+        if (weight == 0) {
+            return;
+        }
+
+        //C += w * (x - oldMean)(x - newMean)' = w * (1 - w / W) * delta * delta'
+        final double r = weight / W;
+        for (int j = 0; j < p; ++j) {
+            delta[j] = x[j] - mean[j];
+            mean[j] += r * delta[j];
+        }
+        rank1(weight * (1 - r));
+    }
+
+    /**
+     * Add a block of rows with weight 1.
+     * Without decay, the block is centered once and its co-moment matrix is computed by {@link BlockedGEMM#syrk},
+     * and then merged.
+     *
+     * @param A the rows
+     */
+    public void addRows(Matrix A) {
+        SuanShuUtils.assertArgument(A.nCols() == p, "the rows must have %d entries", p);
+
+        final int n = A.nRows();
+        if (lambda != 1 || n < 2) {
+            for (int i = 1; i <= n; ++i) {
+                addRow(A.getRow(i).toArray());
+            }
+            return;
+        }
+
+        IncrementalCovariance block = new IncrementalCovariance(p);
+        double[] X = CovarianceMatrix.rows(A);
+        for (int i = 0, k = 0; i < n; ++i) {
+            for (int j = 0; j < p; ++j) {
+                block.mean[j] += X[k++];
+            }
+        }
+        for (int j = 0; j < p; ++j) {
+            block.mean[j] /= n;
+        }
+        for (int i = 0, k = 0; i < n; ++i) {
+            for (int j = 0; j < p; ++j) {
+                X[k++] -= block.mean[j];
+            }
+        }
+        BlockedGEMM.syrk(true, p, n, 1., X, 0, p, 0., block.C, 0, p);
+        block.N = n;
+        block.W = n;
+        block.W2 = n;
+
+        merge(block);
+    }
+
+    /**
+     * Remove a row with weight 1 that has been added, e.g., the oldest row in a rolling window.
+     *
+     * @param x a row
+     * @throws UnsupportedOperationException if there is decay
+     */
+    public void removeRow(double... x) {
+        removeRow(x, 1);
+    }
+
+    /**
+     * Remove a weighted row that has been added.
+     * If the remaining rows have no weight, the mean and the co-moments are reset,
+     * as if only rows of weight 0 have been added.
+     *
+     * @param x      a row
+     * @param weight the weight with which the row has been added
+     * @throws UnsupportedOperationException if there is decay
+     */
+    public void removeRow(double[] x, double weight) {
+        if (lambda != 1) {
+            throw new UnsupportedOperationException("cannot remove a row from an exponentially weighted covariance");
+        }
+        SuanShuUtils.assertArgument(x.length == p, "the row must have %d entries", p);
+        SuanShuUtils.assertArgument(N > 0, "there is no row to remove");
+        SuanShuUtils.assertArgument(weight >= 0, "the weight must be non-negative");
+        SuanShuUtils.assertArgument(weight <= W * (1 + Constant.EPSILON), "the weight exceeds the total weight of the rows");
+
+        --N;
+        if (N == 0) {
+            clear();
+            return;
+        }
+
+        final double Wold = W;
+        W -= weight;
+        W2 -= weight * weight;
+        if (weight == 0) {
+            return;
+        }
+        if (W <= Wold * Constant.EPSILON) {//only rows of weight 0 remain, up to rounding
+            clear();
+            return;
+        }
+
+        //reverse the update in addRow: C -= w * (x - newMean)(x - oldMean)' = w * (W_old / W_new) * delta * delta'
+        for (int j = 0; j < p; ++j) {
+            delta[j] = x[j] - mean[j];
+            mean[j] -= weight * delta[j] / W;
+        }
+        rank1(-weight * Wold / W);
+    }
+
+    /**
+     * Merge the rows accumulated by another accumulator into this one.
+     *
+     * @param that a covariance accumulator of the same number of variables
+     * @throws UnsupportedOperationException if there is decay
+     */
+    public void merge(IncrementalCovariance that) {
+        if (this.lambda != 1 || that.lambda != 1) {
+            throw new UnsupportedOperationException("cannot merge exponentially weighted covariances");
+        }
+        SuanShuUtils.assertArgument(that.p == p, "the number of variables must be %d", p);
+
+        if (that.W == 0) {
+            N += that.N;
+            return;
+        }
+
+        //Chan's and Pébay's pairwise update: C = Ca + Cb + Wa * Wb / W * delta * delta'
+        final double Wboth = this.W + that.W;
+        final double r = that.W / Wboth;
+        final double c = this.W * r;
+        for (int j = 0; j < p; ++j) {
+            delta[j] = that.mean[j] - this.mean[j];
+            mean[j] += r * delta[j];
+        }
+        for (int i = 0; i < p; ++i) {
+            final double di = c * delta[i];
+            for (int j = i, k = i * p + i; j < p; ++j, ++k) {
+                C[k] += that.C[k] + di * delta[j];
+            }
+        }
+
+        N += that.N;
+        W = Wboth;
+        W2 += that.W2;
+    }
+
+    /**
+     * C += c * delta * delta', on the upper triangle.
+     */
+    private void rank1(double c) {
+        for (int i = 0; i < p; ++i) {
+            final double di = c * delta[i];
+            if (di == 0) {
+                continue;
+            }
+            for (int j = i, k = i * p + i; j < p; ++j, ++k) {
+                C[k] += di * delta[j];
+            }
+        }
+    }
+
+    private void clear() {
+        W = 0;
+        W2 = 0;
+        Arrays.fill(mean, 0);
+        Arrays.fill(C, 0);
+    }
+
+    /**
+     * Get the number of rows.
+     *
+     * @return the number of rows
+     */
+    public long N() {
+        return N;
+    }
+
+    /**
+     * Get the (weighted) mean of the rows.
+     *
+     * @return the mean
+     */
+    public Vector mean() {
+        return new DenseVector(Arrays.copyOf(mean, p));
+    }
+
+    /**
+     * Get the covariance matrix of the rows.
+     * It is {@code NaN} if fewer than two rows have weight.
+     *
+     * @return the covariance matrix
+     */
+    public CovarianceMatrix covariance() {
+        double[] result = new double[p * p];
+        final double denominator = W - W2 / W;
+        if (!(denominator > 0)) {
+            Arrays.fill(result, Double.NaN);
+            return new CovarianceMatrix(result, p);
+        }
+
+        for (int i = 0; i < p; ++i) {
+            for (int j = i, k = i * p + i; j < p; ++j, ++k) {
+                result[k] = C[k] / denominator;
+                result[j * p + i] = result[k];
+            }
+        }
+        return new CovarianceMatrix(result, p);
+    }
+
+    /**
+     * Get the correlation matrix of the rows.
+     *
+     * @return the correlation matrix
+     */
+    public CorrelationMatrix correlation() {
+        return new CorrelationMatrix(covariance());
+    }
+}
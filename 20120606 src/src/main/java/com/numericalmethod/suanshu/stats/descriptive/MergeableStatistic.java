@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.descriptive;
+
+/**
+ * A mergeable statistic can absorb another partial accumulator of the same kind,
+ * so that the statistic of a sample can be computed from the statistics of the disjoint pieces of the sample.
+ * That is, for samples <i>A</i> and <i>B</i>,
+ * <blockquote><code>
+ * stat(A).merge(stat(B))
+ * </code></blockquote>
+ * gives (up to rounding) the same statistic as {@code stat(A ∪ B)}.
+ * This allows the pieces to be accumulated independently, e.g., one per thread without locking,
+ * and then combined.
+ * @see StatisticReducer
+ * @see "Tony F. Chan, Gene H. Golub, Randall J. LeVeque, "Updating Formulae and a Pairwise Algorithm for Computing Sample Variances," Technical Report STAN-CS-79-773, Department of Computer Science, Stanford University, 1979."
+ */
+public interface MergeableStatistic extends Statistic {
+
+    /**
+     * Merge the data summarized by another statistic of the same kind into this statistic.
+     * {@code that} is not modified.
+     *
+     * @param that a statistic of the same kind
+     * @throws IllegalArgumentException if {@code that} is not of the same kind
+     */
+    public void merge(Statistic that);
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.descriptive;
+
+/**
+ * The covariance of two time series over a sliding window, updated in constant time as the window slides.
+ * The pairs of observations leave the window in the same order as they enter.
+ * <p/>
+ * For the covariance matrix of more than two time series over a sliding window,
+ * use {@link IncrementalCovariance#addRow(double...)} and {@link IncrementalCovariance#removeRow(double...)}.
+ * @see Covariance
+ */
+public class RollingCovariance {
+
+    private long N = 0;
+    private double mean1 = 0;
+    private double mean2 = 0;
+    private double m11 = 0;//the sum of squares of differences from mean1
+    private double m22 = 0;
+    private double m12 = 0;//the sum of cross products of differences from the means
+
+    /**
+     * Construct a {@code RollingCovariance} with an empty window.
+     */
+    public RollingCovariance() {
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param that a {@code RollingCovariance}
+     */
+    public RollingCovariance(RollingCovariance that) {
+        this.N = that.N;
+        this.mean1 = that.mean1;
+        this.mean2 = that.mean2;
+        this.m11 = that.m11;
+        this.m22 = that.m22;
+        this.m12 = that.m12;
+    }
+
+    /**
+     * Add a pair of observations to the window.
+     *
+     * @param x the newest observation of the first time series
+     * @param y the newest observation of the second time series
+     */
+    public void push(double x, double y) {
+        ++N;
+        double delta1 = x - mean1;
+        double delta2 = y - mean2;
+        mean1 += delta1 / N;
+        mean2 += delta2 / N;
+        m11 += delta1 * (x - mean1);
+        m22 += delta2 * (y - mean2);
+        m12 += delta1 * (y - mean2);
+    }
+
+    /**
+     * Remove the oldest pair of observations from the window.
+     *
+     * @param x the oldest observation of the first time series
+     * @param y the oldest observation of the second time series
+     */
+    public void pop(double x, double y) {
+        if (--N == 0) {
+            mean1 = mean2 = 0;
+            m11 = m22 = m12 = 0;
+            return;
+        }
+
+        double delta1 = x - mean1;
+        double delta2 = y - mean2;
+        mean1 -= delta1 / N;
+        mean2 -= delta2 / N;
+        m11 -= delta1 * (x - mean1);
+        m22 -= delta2 * (y - mean2);
+        m12 -= delta1 * (y - mean2);
+        m11 = m11 > 0 ? m11 : 0;//guard against rounding
+        m22 = m22 > 0 ? m22 : 0;
+    }
+
+    /**
+     * Get the covariance of the window.
+     *
+     * @return the covariance
+     */
+    public double value() {
+        return N > 1 ? m12 / (double) (N - 1) : Double.NaN;
+    }
+
+    /**
+     * Get the correlation of the window.
+     *
+     * @return the correlation
+     */
+    public double correlation() {
+        return m12 / Math.sqrt(m11 * m22);
+    }
+
+    /**
+     * Get the number of pairs in the window.
+     *
+     * @return the window size
+     */
+    public long N() {
+        return N;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("rolling covariance: %f; correlation: %f, N: %d",
+                             value(),
+                             correlation(),
+                             N);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.descriptive;
+
+/**
+ * A rolling statistic is computed over a sliding window of the most recent observations.
+ * An observation enters the window by {@link #push(double)} and leaves it by {@link #pop(double)}.
+ * The observations leave in the same order as they enter (first-in-first-out),
+ * so that the statistic is updated in constant amortized time
+ * (logarithmic time for the order statistics),
+ * instead of being recomputed from the whole window each time the window slides.
+ * <p/>
+ * A {@link RollingWindow} keeps the observations in the window and pops them when they expire.
+ * {@link #addData(double...)} pushes the data in order.
+ * @see <a href="http://en.wikipedia.org/wiki/Moving_average">Wikipedia: Moving average</a>
+ */
+public interface RollingStatistic extends Statistic {
+
+    /**
+     * Add an observation to the window.
+     *
+     * @param x the newest observation
+     */
+    public void push(double x);
+
+    /**
+     * Remove the oldest observation from the window.
+     *
+     * @param x the oldest observation, i.e., the earliest one pushed and not yet popped
+     */
+    public void pop(double x);
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.descriptive;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A rolling window keeps the most recent observations of a time series in a circular buffer of primitives.
+ * It pushes each new observation to the {@link RollingStatistic}s attached to it,
+ * and pops the observations from them as they expire from the window.
+ * A window is either bounded by the number of observations, {@link CountWindow},
+ * or by the time span of the observations, {@link TimeWindow}.
+ */
+public abstract class RollingWindow {
+
+    private final RollingStatistic[] stats;
+    private double[] times;
+    private double[] values;
+    private int head = 0;//the index of the oldest observation
+    private int size = 0;
+
+    /**
+     * Construct an empty window.
+     *
+     * @param capacity the initial capacity of the buffer
+     * @param stats    the statistics to update
+     */
+    protected RollingWindow(int capacity, RollingStatistic... stats) {
+        this.stats = stats.clone();
+        this.times = new double[Math.max(capacity, 1)];
+        this.values = new double[times.length];
+    }
+
+    /**
+     * Add an observation to the window and push it to the statistics.
+     * The subclasses decide which observations expire before calling this.
+     *
+     * @param t the time of the observation
+     * @param x the observation
+     */
+    protected void add(double t, double x) {
+        if (size == values.length) {
+            grow();
+        }
+
+        int tail = (head + size) % values.length;
+        times[tail] = t;
+        values[tail] = x;
+        ++size;
+
+        for (RollingStatistic stat : stats) {
+            stat.push(x);
+        }
+    }
+
+    /**
+     * Remove the oldest observation from the window and pop it from the statistics.
+     *
+     * @return the oldest observation
+     * @throws NoSuchElementException if the window is empty
+     */
+    public double pop() {
+        if (size == 0) {
+            throw new NoSuchElementException("the window is empty");
+        }
+
+        double x = values[head];
+        head = (head + 1) % values.length;
+        --size;
+
+        for (RollingStatistic stat : stats) {
+            stat.pop(x);
+        }
+
+        return x;
+    }
+
+    /**
+     * Get the number of observations in the window.
+     *
+     * @return the number of observations in the window
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the time of the oldest observation in the window.
+     *
+     * @return the time of the oldest observation
+     * @throws NoSuchElementException if the window is empty
+     */
+    public double oldestTime() {
+        if (size == 0) {
+            throw new NoSuchElementException("the window is empty");
+        }
+
+        return times[head];
+    }
+
+    /**
+     * Get the time of the newest observation in the window.
+     *
+     * @return the time of the newest observation
+     * @throws NoSuchElementException if the window is empty
+     */
+    public double newestTime() {
+        if (size == 0) {
+            throw new NoSuchElementException("the window is empty");
+        }
+
+        return times[(head + size - 1) % times.length];
+    }
+
+    /**
+     * Get a copy of the observations in the window, from the oldest to the newest.
+     *
+     * @return the observations in the window
+     */
+    public double[] values() {
+        double[] result = new double[size];
+        for (int i = 0; i < size; ++i) {
+            result[i] = values[(head + i) % values.length];
+        }
+        return result;
+    }
+
+    private void grow() {
+        double[] newTimes = new double[2 * times.length];
+        double[] newValues = new double[2 * values.length];
+        for (int i = 0; i < size; ++i) {
+            newTimes[i] = times[(head + i) % times.length];
+            newValues[i] = values[(head + i) % values.length];
+        }
+
+        times = newTimes;
+        values = newValues;
+        head = 0;
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.descriptive;
+
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import com.numericalmethod.suanshu.parallel.MultipleExecutionException;
+import com.numericalmethod.suanshu.parallel.ParallelExecutor;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * This reducer computes a {@link MergeableStatistic} of a large sample in parallel.
+ * The sample is split across the threads of a {@link ParallelExecutor};
+ * each thread accumulates its share into its own statistic, constructed by a {@link StatisticFactory},
+ * without any locking.
+ * The partial statistics are then combined by {@link MergeableStatistic#merge(Statistic)}.
+ * <p/>
+ * In contrast, a {@link SynchronizedStatistic} shared by many threads serializes them all on one lock.
+ * <p/>
+ * For an array, the partial statistics are merged in the order of the pieces,
+ * so the result is reproducible for the same concurrency.
+ * The result may differ from the serial computation by rounding.
+ * @see "Tony F. Chan, Gene H. Golub, Randall J. LeVeque, "Updating Formulae and a Pairwise Algorithm for Computing Sample Variances," Technical Report STAN-CS-79-773, Department of Computer Science, Stanford University, 1979."
+ */
+public class StatisticReducer {
+
+    /** the number of data points a thread feeds to its statistic at a time */
+    private static final int BLOCK_SIZE = 1 << 12;
+    /** the minimum number of data points worth giving to a thread */
+    private static final int MIN_SHARE = 1 << 15;
+    private final StatisticFactory factory;
+    private final ParallelExecutor executor;
+
+    /**
+     * Construct a reducer that uses the shared pool of {@link ParallelExecutor}.
+     *
+     * @param factory constructs an empty {@link MergeableStatistic} for each thread
+     */
+    public StatisticReducer(StatisticFactory factory) {
+        this(factory, new ParallelExecutor());
+    }
+
+    /**
+     * Construct a reducer.
+     *
+     * @param factory  constructs an empty {@link MergeableStatistic} for each thread
+     * @param executor the executor to run the threads
+     */
+    public StatisticReducer(StatisticFactory factory, ParallelExecutor executor) {
+        this.factory = factory;
+        this.executor = executor;
+    }
+
+    /**
+     * Compute the statistic of a sample.
+     *
+     * @param data a sample
+     * @return the statistic of the sample
+     */
+    public MergeableStatistic reduce(final double[] data) {
+        return reduce(data.length, new Share() {
+
+            @Override
+            public void addData(MergeableStatistic stat, int from, int to) {
+                double[] block = new double[Math.min(BLOCK_SIZE, to - from)];
+                for (int i = from; i < to; i += block.length) {
+                    int n = Math.min(block.length, to - i);
+                    if (n < block.length) {
+                        block = new double[n];
+                    }
+                    System.arraycopy(data, i, block, 0, n);
+                    stat.addData(block);
+                }
+            }
+        });
+    }
+
+    /**
+     * Compute the statistic of a pair of samples, e.g., {@link Covariance}.
+     * The statistic is given the pairs in blocks,
+     * each of which concatenates a piece of {@code x} and the corresponding piece of {@code y},
+     * as in {@link Covariance#addData(double[])}.
+     *
+     * @param x the first sample
+     * @param y the second sample
+     * @return the statistic of the pair of samples
+     */
+    public MergeableStatistic reduce(final double[] x, final double[] y) {
+        SuanShuUtils.assertArgument(x.length == y.length, "there must be a pair of data of the same length");
+
+        return reduce(x.length, new Share() {
+
+            @Override
+            public void addData(MergeableStatistic stat, int from, int to) {
+                double[] block = new double[2 * Math.min(BLOCK_SIZE, to - from)];
+                for (int i = from; i < to; i += block.length / 2) {
+                    int n = Math.min(block.length / 2, to - i);
+                    if (n < block.length / 2) {
+                        block = new double[2 * n];
+                    }
+                    System.arraycopy(x, i, block, 0, n);
+                    System.arraycopy(y, i, block, n, n);
+                    stat.addData(block);
+                }
+            }
+        });
+    }
+
+    /**
+     * Compute the statistic of a stream of data blocks, e.g., as read from a file.
+     * Each thread takes the next available block and adds it to its own statistic,
+     * so the blocks should be large enough to outweigh taking one, e.g., thousands of data points.
+     * Which thread gets which block depends on the scheduling,
+     * so the result is reproducible only up to rounding.
+     *
+     * @param blocks the data blocks; each block is given to {@link Statistic#addData(double[])} as is
+     * @return the statistic of all blocks
+     */
+    public MergeableStatistic reduce(final Iterator<double[]> blocks) {
+        final int nThreads = executor.concurrency();
+        List<Callable<MergeableStatistic>> tasks = new ArrayList<Callable<MergeableStatistic>>(nThreads);
+        for (int t = 0; t < nThreads; ++t) {
+            tasks.add(new Callable<MergeableStatistic>() {
+
+                @Override
+                public MergeableStatistic call() {
+                    MergeableStatistic stat = newStatistic();
+                    for (;;) {
+                        double[] block;
+                        synchronized (blocks) {
+                            if (!blocks.hasNext()) {
+                                return stat;
+                            }
+                            block = blocks.next();
+                        }
+                        stat.addData(block);
+                    }
+                }
+            });
+        }
+
+        return merge(execute(tasks));
+    }
+
+    /**
+     * Add the share {@code [from, to)} of the data to a statistic.
+     */
+    private interface Share {
+
+        void addData(MergeableStatistic stat, int from, int to);
+    }
+
+    private MergeableStatistic reduce(int n, final Share share) {
+        final int nThreads = Math.max(1, Math.min(executor.concurrency(), n / MIN_SHARE));
+        if (nThreads == 1) {//not worth the hand-off
+            MergeableStatistic stat = newStatistic();
+            share.addData(stat, 0, n);
+            return stat;
+        }
+
+        List<Callable<MergeableStatistic>> tasks = new ArrayList<Callable<MergeableStatistic>>(nThreads);
+        for (int t = 0; t < nThreads; ++t) {
+            final int from = (int) ((long) n * t / nThreads);
+            final int to = (int) ((long) n * (t + 1) / nThreads);
+            tasks.add(new Callable<MergeableStatistic>() {
+
+                @Override
+                public MergeableStatistic call() {
+                    MergeableStatistic stat = newStatistic();
+                    share.addData(stat, from, to);
+                    return stat;
+                }
+            });
+        }
+
+        return merge(execute(tasks));
+    }
+
+    private MergeableStatistic newStatistic() {
+        Statistic stat = factory.getStatistic();
+        SuanShuUtils.assertArgument(stat instanceof MergeableStatistic, "the factory must construct a MergeableStatistic");
+        return (MergeableStatistic) stat;
+    }
+
+    private List<MergeableStatistic> execute(List<Callable<MergeableStatistic>> tasks) {
+        try {
+            return executor.executeAll(tasks);
+        } catch (MultipleExecutionException ex) {
+            throw new RuntimeException("failed to compute the statistic in parallel", ex);
+        }
+    }
+
+    private static MergeableStatistic merge(List<MergeableStatistic> stats) {
+        MergeableStatistic result = stats.get(0);
+        for (int i = 1; i < stats.size(); ++i) {
+            result.merge(stats.get(i));
+        }
+        return result;
+    }
+}
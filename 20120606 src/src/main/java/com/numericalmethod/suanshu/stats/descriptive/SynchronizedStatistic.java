@@ -26,6 +26,8 @@ package com.numericalmethod.suanshu.stats.descriptive;
  * This is a thread-safe wrapper of {@link Statistic} by synchronizing all public methods
  * so that only one thread at a time can access the instance.
  * This is essentially the same principle used by Java's synchronized collection class.
+ * To compute a statistic of a large sample by many threads,
+ * {@link StatisticReducer} avoids the contention by merging per-thread statistics.
  *
  * @author Haksun Li
  * @see "Brian Goetz, Tim Peierls, Joshua Bloch and Joseph Bowbeer, "Chapter 5," Java Concurrency in Practice."
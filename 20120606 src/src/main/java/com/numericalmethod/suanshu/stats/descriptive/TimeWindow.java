@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.descriptive;
+
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+
+/**
+ * This window keeps the observations whose times are in <i>(t - length, t]</i>,
+ * where <i>t</i> is the current time, i.e., the time of the newest observation,
+ * or the time the window is {@link #advance(double) advanced} to.
+ * The observations need not be equally spaced, but they must arrive in time order.
+ */
+public class TimeWindow extends RollingWindow {
+
+    private final double length;
+    private double now = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Construct a window spanning a period of time.
+     *
+     * @param length the time span of the window
+     * @param stats  the statistics to update
+     */
+    public TimeWindow(double length, RollingStatistic... stats) {
+        super(16, stats);
+        SuanShuUtils.assertArgument(length > 0, "length > 0");
+        this.length = length;
+    }
+
+    /**
+     * Add an observation to the window, popping the observations that expire at time {@code t}.
+     *
+     * @param t the time of the observation
+     * @param x the newest observation
+     */
+    public void push(double t, double x) {
+        advance(t);
+        add(t, x);
+    }
+
+    /**
+     * Move the current time forward, popping the observations that expire, without adding any.
+     *
+     * @param t the current time
+     */
+    public void advance(double t) {
+        SuanShuUtils.assertArgument(t >= now, "time must not decrease; %f < %f", t, now);
+        now = t;
+
+        final double begin = t - length;
+        while (size() > 0 && oldestTime() <= begin) {
+            pop();
+        }
+    }
+}
@@ -22,6 +22,8 @@
  */
 package com.numericalmethod.suanshu.stats.descriptive.moment;
 
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import com.numericalmethod.suanshu.stats.descriptive.MergeableStatistic;
 import com.numericalmethod.suanshu.stats.descriptive.Statistic;
 
 /**
@@ -31,7 +33,8 @@ import com.numericalmethod.suanshu.stats.descriptive.Statistic;
  * <blockquote><i>
  * γ = E[((X - E(X)) / σ)<sup>4</sup>]
  * </i></blockquote>
- * This implementation uses Chan's update formula to incrementally compute the new statistic.
+ * This implementation uses Chan's update formula to incrementally compute the new statistic,
+ * and to merge partial statistics computed on disjoint samples.
  * <p/>
  * The R equivalent function is {@code kurtosis}.
  *
@@ -43,7 +46,7 @@ import com.numericalmethod.suanshu.stats.descriptive.Statistic;
  * <li>"Tony F, Chan, Gene H, Golub, Randall J, LeVeque, "Updating Formulae and a Pairwise Algorithm for Computing Sample Variances," Technical Report STAN-CS-79-773, Department of Computer Science, Stanford University, 1979."
  * </ul>
  */
-public class Kurtosis implements Statistic {
+public class Kurtosis implements MergeableStatistic {
 
     private Moments moment = new Moments(4);
 
@@ -88,6 +91,12 @@ public class Kurtosis implements Statistic {
         moment.addData(data);
     }
 
+    @Override
+    public void merge(Statistic stat) {
+        SuanShuUtils.assertArgument(stat instanceof Kurtosis, "can only merge a Kurtosis");
+        moment.merge(((Kurtosis) stat).moment);
+    }
+
     @Override
     public double value() {
         double var = moment.centralMoment(2) * ((double) N() / (N() - 1));
@@ -22,6 +22,8 @@
  */
 package com.numericalmethod.suanshu.stats.descriptive.moment;
 
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import com.numericalmethod.suanshu.stats.descriptive.MergeableStatistic;
 import com.numericalmethod.suanshu.stats.descriptive.Statistic;
 
 /**
@@ -30,7 +32,8 @@ import com.numericalmethod.suanshu.stats.descriptive.Statistic;
  * <blockquote><i>
  * E(X) = Σ (xi) / N
  * </i></blockquote>
- * This implementation supports incremental update of the statistic.
+ * This implementation supports incremental update of the statistic,
+ * and merging of partial statistics computed on disjoint samples.
  * <p/>
  * The R equivalent function is {@code mean}.
  *
@@ -40,7 +43,7 @@ import com.numericalmethod.suanshu.stats.descriptive.Statistic;
  * <li><a href="http://en.wikipedia.org/wiki/Algorithms_for_calculating_variance">Wikipedia: Algorithms for calculating variance</a>
  * </ul>
  */
-public class Mean implements Statistic {
+public class Mean implements MergeableStatistic {
 
     private long N = 0;
     private double mean = 0;
@@ -73,6 +76,10 @@ public class Mean implements Statistic {
 
     @Override
     public void addData(double... data) {
+        if (data.length == 0) {
+            return;
+        }
+
         double sum = mean * N;//previous sum
         for (double d : data) {
             sum += d;
@@ -82,6 +89,19 @@ public class Mean implements Statistic {
         mean = sum / N;
     }
 
+    @Override
+    public void merge(Statistic stat) {
+        SuanShuUtils.assertArgument(stat instanceof Mean, "can only merge a Mean");
+        Mean that = (Mean) stat;
+        if (that.N == 0) {
+            return;
+        }
+
+        long Nboth = this.N + that.N;
+        mean += (that.mean - this.mean) * ((double) that.N / Nboth);//weighted by the relative size of that
+        N = Nboth;
+    }
+
     @Override
     public double value() {
         return N >= 1 ? mean : Double.NaN;
@@ -24,6 +24,7 @@ package com.numericalmethod.suanshu.stats.descriptive.moment;
 
 import static com.numericalmethod.suanshu.analysis.function.FunctionOps.combination;
 import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import com.numericalmethod.suanshu.stats.descriptive.MergeableStatistic;
 import com.numericalmethod.suanshu.stats.descriptive.Statistic;
 import static java.lang.Math.pow;
 import java.util.Arrays;
@@ -35,7 +36,8 @@ import java.util.Arrays;
  * <blockquote><i>
  * μ<sub>k</sub> = E[(X - E(X))<sup>k</sup>]
  * </i></blockquote>
- * This implementation uses Pébay's update formula to incrementally compute the new statistic.
+ * This implementation uses Pébay's update formula to incrementally compute the new statistic,
+ * and to merge partial statistics computed on disjoint samples.
  *
  * @author Haksun Li
  * @see
@@ -44,7 +46,7 @@ import java.util.Arrays;
  * <li><a href="http://en.wikipedia.org/wiki/Moment_%28mathematics%29">Wikipedia: Moment (mathematics)</a>
  * </ul>
  */
-public class Moments implements Statistic {
+public class Moments implements MergeableStatistic {
 
     /** the highest moment to compute */
     private final int order;
@@ -103,6 +105,10 @@ public class Moments implements Statistic {
 
     @Override
     public void addData(double... data) {
+        if (data.length == 0) {
+            return;
+        }
+
         //base case
         if (N == 0) {
             N = data.length;
@@ -114,6 +120,32 @@ public class Moments implements Statistic {
             return;
         }
 
+        merge(new Moments(order, data));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The two calculators must compute the moments up to the same order.
+     */
+    @Override
+    public void merge(Statistic stat) {
+        SuanShuUtils.assertArgument(stat instanceof Moments, "can only merge a Moments");
+        Moments B = (Moments) stat;
+        SuanShuUtils.assertArgument(B.order == order, "can only merge moments up to the same order %d", order);
+        if (B.N == 0) {
+            return;
+        }
+
+        if (B == this) {
+            B = new Moments(this);
+        }
+
+        if (N == 0) {
+            N = B.N;
+            System.arraycopy(B.m, 0, m, 0, order);
+            return;
+        }
+
         /*
          * Pébay's update formula.
          * <pre>
@@ -122,14 +154,14 @@ public class Moments implements Statistic {
          * Technical Report SAND2008-6212,
          * Sandia National Laboratories.
          * </pre>
+         * The p-th moment depends only on the lower moments before the update,
+         * so updating from the highest moment down needs no copy of this calculator.
          */
-        Moments A = new Moments(this);
-        Moments B = new Moments(order, data);
+        final Moments A = this;
         long Nboth = A.N + B.N;
         double delta = B.m[0] / B.N - A.m[0] / A.N;//B.mean - A.mean
-        this.m[0] = A.m[0] + B.m[0];//update for p == 1
 
-        for (int p = 2; p <= order; ++p) {//for the p-th moment
+        for (int p = order; p >= 2; --p) {//for the p-th moment
             double sum = 0;
             for (int k = 1; k <= p - 2; ++k) {
                 int i = p - k;//i-th moment
@@ -149,6 +181,7 @@ public class Moments implements Statistic {
             this.m[p - 1] = A.m[p - 1] + B.m[p - 1] + sum + term2;
         }
 
+        this.m[0] = A.m[0] + B.m[0];//update for p == 1
         N = Nboth;
     }
 
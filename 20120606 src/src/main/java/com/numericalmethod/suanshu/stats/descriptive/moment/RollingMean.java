@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.descriptive.moment;
+
+import com.numericalmethod.suanshu.stats.descriptive.RollingStatistic;
+
+/**
+ * The mean of the observations in a sliding window, updated in constant time as the window slides.
+ * @see <a href="http://en.wikipedia.org/wiki/Moving_average#Simple_moving_average">Wikipedia: Simple moving average</a>
+ */
+public class RollingMean implements RollingStatistic {
+
+    private long N = 0;
+    private double mean = 0;
+
+    /**
+     * Construct a {@code RollingMean} with an empty window.
+     */
+    public RollingMean() {
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param that a {@code RollingMean}
+     */
+    public RollingMean(RollingMean that) {
+        this.N = that.N;
+        this.mean = that.mean;
+    }
+
+    @Override
+    public void push(double x) {
+        ++N;
+        mean += (x - mean) / N;
+    }
+
+    @Override
+    public void pop(double x) {
+        if (--N == 0) {
+            mean = 0;
+            return;
+        }
+
+        mean -= (x - mean) / N;
+    }
+
+    @Override
+    public void addData(double... data) {
+        for (double x : data) {
+            push(x);
+        }
+    }
+
+    @Override
+    public double value() {
+        return N >= 1 ? mean : Double.NaN;
+    }
+
+    @Override
+    public long N() {
+        return N;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("rolling mean: %f; N: %d", value(), N);
+    }
+}
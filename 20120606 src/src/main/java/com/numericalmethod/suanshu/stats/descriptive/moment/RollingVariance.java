@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.descriptive.moment;
+
+import com.numericalmethod.suanshu.stats.descriptive.RollingStatistic;
+
+/**
+ * The variance of the observations in a sliding window, updated in constant time as the window slides.
+ * Welford's update adds an observation; its inverse removes one.
+ * Unlike the textbook formula <i>E(X<sup>2</sup>) - E(X)<sup>2</sup></i> on running sums,
+ * this does not lose the precision when the mean is large relative to the standard deviation.
+ * @see <a href="http://en.wikipedia.org/wiki/Algorithms_for_calculating_variance">Wikipedia: Algorithms for calculating variance</a>
+ */
+public class RollingVariance implements RollingStatistic {
+
+    /** indicate whether the variance calculation is unbiased or not; {@code true} if unbiased */
+    private final boolean unbiased;
+    private long N = 0;
+    private double mean = 0;
+    private double m2 = 0;//the sum of squares of differences from the mean
+
+    /**
+     * Construct an unbiased {@code RollingVariance} with an empty window.
+     */
+    public RollingVariance() {
+        this(true);
+    }
+
+    /**
+     * Construct a {@code RollingVariance} with an empty window.
+     *
+     * @param unbiased {@code true} if the variance calculation uses the unbiased formula
+     */
+    public RollingVariance(boolean unbiased) {
+        this.unbiased = unbiased;
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param that a {@code RollingVariance}
+     */
+    public RollingVariance(RollingVariance that) {
+        this.unbiased = that.unbiased;
+        this.N = that.N;
+        this.mean = that.mean;
+        this.m2 = that.m2;
+    }
+
+    @Override
+    public void push(double x) {
+        ++N;
+        double delta = x - mean;
+        mean += delta / N;
+        m2 += delta * (x - mean);
+    }
+
+    @Override
+    public void pop(double x) {
+        if (--N == 0) {
+            mean = 0;
+            m2 = 0;
+            return;
+        }
+
+        double delta = x - mean;
+        mean -= delta / N;
+        m2 -= delta * (x - mean);
+        m2 = m2 > 0 ? m2 : 0;//guard against rounding
+    }
+
+    @Override
+    public void addData(double... data) {
+        for (double x : data) {
+            push(x);
+        }
+    }
+
+    /**
+     * Get the mean of the window.
+     *
+     * @return the mean
+     */
+    public double mean() {
+        return N >= 1 ? mean : Double.NaN;
+    }
+
+    /**
+     * Get the standard deviation of the window,
+     * which is the square root of the variance.
+     *
+     * @return the standard deviation
+     */
+    public double standardDeviation() {
+        return Math.sqrt(value());
+    }
+
+    @Override
+    public double value() {
+        return N >= 2 ? m2 / (unbiased ? N - 1 : N) : 0;
+    }
+
+    @Override
+    public long N() {
+        return N;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("rolling var: %f, stdev: %f, N: %d",
+                             value(),
+                             standardDeviation(),
+                             N);
+    }
+}
@@ -22,6 +22,8 @@
  */
 package com.numericalmethod.suanshu.stats.descriptive.moment;
 
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import com.numericalmethod.suanshu.stats.descriptive.MergeableStatistic;
 import com.numericalmethod.suanshu.stats.descriptive.Statistic;
 import static java.lang.Math.pow;
 
@@ -36,7 +38,8 @@ import static java.lang.Math.pow;
  * <blockquote><i>
  * γ = E[((X - E(X)) / σ)<sup>3</sup>]
  * </i></blockquote>
- * This implementation uses Chan's update formula to incrementally compute the new statistic.
+ * This implementation uses Chan's update formula to incrementally compute the new statistic,
+ * and to merge partial statistics computed on disjoint samples.
  * <p/>
  * The R equivalent function is {@code skewness}.
  *
@@ -48,7 +51,7 @@ import static java.lang.Math.pow;
  * <li>"Chan, Tony F.; Golub, Gene H.; LeVeque, Randall J. (1979), "Updating Formulae and a Pairwise Algorithm for Computing Sample Variances," Technical Report STAN-CS-79-773, Department of Computer Science, Stanford University."
  * </ul>
  */
-public class Skewness implements Statistic {
+public class Skewness implements MergeableStatistic {
 
     private long N = 0;
     private Moments moment = new Moments(2);
@@ -103,6 +106,10 @@ public class Skewness implements Statistic {
 
     @Override
     public void addData(double... data) {
+        if (data.length == 0) {
+            return;
+        }
+
         //base case
         if (N == 0) {//store the datum as the mean of 'var'
             N = data.length;
@@ -111,6 +118,24 @@ public class Skewness implements Statistic {
             return;
         }
 
+        merge(new Skewness(data));
+    }
+
+    @Override
+    public void merge(Statistic stat) {
+        SuanShuUtils.assertArgument(stat instanceof Skewness, "can only merge a Skewness");
+        Skewness that = (Skewness) stat;
+        if (that.N == 0) {
+            return;
+        }
+
+        if (this.N == 0) {
+            this.N = that.N;
+            this.moment = new Moments(that.moment);
+            this.m3 = that.m3;
+            return;
+        }
+
         /*
          * Chan's update formula.
          * Chan, Tony F.; Golub, Gene H.; LeVeque, Randall J. (1979),
@@ -118,7 +143,6 @@ public class Skewness implements Statistic {
          * Technical Report STAN-CS-79-773,
          * Department of Computer Science, Stanford University.
          */
-        Skewness that = new Skewness(data);
         double delta = that.mean() - this.mean();//mean difference
         double M2this = this.M2();//this sum of squares of differences
         double M2that = that.M2();//that sum of squares of differences
@@ -135,7 +159,7 @@ public class Skewness implements Statistic {
         m3 += that.m3 + term1 + term2;
 
         //update states
-        moment.addData(data);
+        moment.merge(that.moment);
         N = Nboth;
     }
 
@@ -22,6 +22,8 @@
  */
 package com.numericalmethod.suanshu.stats.descriptive.moment;
 
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import com.numericalmethod.suanshu.stats.descriptive.MergeableStatistic;
 import com.numericalmethod.suanshu.stats.descriptive.Statistic;
 
 /**
@@ -30,7 +32,8 @@ import com.numericalmethod.suanshu.stats.descriptive.Statistic;
  * <blockquote><i>
  * Var(X, Y) = E[(X - E(X))<sup>2</sup>]
  * </i></blockquote>
- * This implementation uses Chan's update formula to incrementally compute the new statistic.
+ * This implementation uses Chan's update formula to incrementally compute the new statistic,
+ * and to merge partial statistics computed on disjoint samples.
  * <p/>
  * The R equivalent function is {@code var}.
  *
@@ -42,7 +45,7 @@ import com.numericalmethod.suanshu.stats.descriptive.Statistic;
  * <li>"Tony F. Chan, Gene H. Golub, Randall J. LeVeque, "Updating Formulae and a Pairwise Algorithm for Computing Sample Variances," Technical Report STAN-CS-79-773, Department of Computer Science, Stanford University, 1979."
  * </ul>
  */
-public class Variance implements Statistic {
+public class Variance implements MergeableStatistic {
 
     /** indicate whether the variance calculation is unbiased or not; {@code true} if unbiased */
     private final boolean unbiased;
@@ -103,6 +106,10 @@ public class Variance implements Statistic {
 
     @Override
     public void addData(double... data) {
+        if (data.length == 0) {
+            return;
+        }
+
         //base case
         if (N == 0) {
             N = data.length;
@@ -111,6 +118,28 @@ public class Variance implements Statistic {
             return;
         }
 
+        merge(new Variance(data, unbiased));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The unbiasedness of this calculator is retained.
+     */
+    @Override
+    public void merge(Statistic stat) {
+        SuanShuUtils.assertArgument(stat instanceof Variance, "can only merge a Variance");
+        Variance that = (Variance) stat;
+        if (that.N == 0) {
+            return;
+        }
+
+        if (this.N == 0) {
+            this.N = that.N;
+            this.m2 = that.m2;
+            this.mean = new Mean(that.mean);
+            return;
+        }
+
         /*
          * Chan's update formula.
          * <pre>
@@ -120,13 +149,12 @@ public class Variance implements Statistic {
          * Department of Computer Science, Stanford University.
          * </pre>
          */
-        Variance that = new Variance(data, unbiased);
         double delta = that.mean.value() - this.mean.value();//mean difference
         long Nboth = this.N + that.N;
         m2 += that.m2 + delta * delta * ((double) this.N / Nboth) * that.N;
 
         //update states
-        mean.addData(data);
+        mean.merge(that.mean);
         N = Nboth;
     }
 
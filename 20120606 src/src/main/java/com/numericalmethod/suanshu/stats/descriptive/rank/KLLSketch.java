@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.descriptive.rank;
+
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import static com.numericalmethod.suanshu.number.DoubleUtils.shellsort;
+import com.numericalmethod.suanshu.stats.descriptive.Statistic;
+import java.util.Arrays;
+
+/**
+ * The KLL sketch keeps a hierarchy of compactors.
+ * An item at level <i>h</i> stands for 2<sup>h</sup> data points.
+ * When a level is full, it is sorted and every other item, starting at a random offset,
+ * is promoted to the next level; the rest are discarded.
+ * The capacities decrease geometrically by a factor of 2/3 from the top level down,
+ * so the sketch keeps <i>O(k)</i> items however many data points it has seen.
+ * <p/>
+ * The error is in rank, and is uniform across the quantiles:
+ * the rank of the returned value is within about <i>εN</i> of <i>qN</i>, where <i>ε</i> is <i>O(1/k)</i>;
+ * <i>k = 200</i> gives <i>ε</i> of about 1-2%.
+ * The randomness comes from a generator seeded at construction,
+ * so the sketch of a given sequence of data is reproducible.
+ * @see "Zohar Karnin, Kevin Lang, Edo Liberty, "Optimal Quantile Approximation in Streams," IEEE 57th Annual Symposium on Foundations of Computer Science, 2016."
+ */
+public class KLLSketch implements QuantileSketch {
+
+    private static final long serialVersionUID = 1L;
+    /** the ratio of the capacities of two adjacent levels */
+    private static final double C = 2. / 3.;
+    /** the capacity of the top level */
+    private final int k;
+    /** the items at each level; the items at level h have weight 2<sup>h</sup> */
+    private double[][] levels;
+    private int[] sizes;
+    /** the total number of items at all levels */
+    private int size = 0;
+    /** the total capacity of all levels */
+    private int maxSize;
+    private long N = 0;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    /** the state of a xorshift generator that decides the offsets of the compactions */
+    private long state;
+
+    /**
+     * Construct an empty KLL sketch.
+     *
+     * @param k    the capacity of the top level, which determines the accuracy, e.g., 200
+     * @param seed a seed for the random compactions
+     */
+    public KLLSketch(int k, long seed) {
+        SuanShuUtils.assertArgument(k >= 8, "k must be at least 8");
+
+        this.k = k;
+        this.levels = new double[][]{new double[k]};
+        this.sizes = new int[1];
+        this.maxSize = capacity(0);
+        this.state = seed != 0 ? seed : 1;//xorshift never leaves 0
+    }
+
+    /**
+     * Construct an empty KLL sketch.
+     *
+     * @param k the capacity of the top level, which determines the accuracy, e.g., 200
+     */
+    public KLLSketch(int k) {
+        this(k, 1234567890L);
+    }
+
+    /**
+     * Construct an empty KLL sketch with {@code k = 200}.
+     */
+    public KLLSketch() {
+        this(200);
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param that a KLL sketch
+     */
+    public KLLSketch(KLLSketch that) {
+        this.k = that.k;
+        this.levels = new double[that.levels.length][];
+        for (int h = 0; h < levels.length; ++h) {
+            this.levels[h] = Arrays.copyOf(that.levels[h], that.levels[h].length);
+        }
+        this.sizes = Arrays.copyOf(that.sizes, that.sizes.length);
+        this.size = that.size;
+        this.maxSize = that.maxSize;
+        this.N = that.N;
+        this.min = that.min;
+        this.max = that.max;
+        this.state = that.state;
+    }
+
+    @Override
+    public void addData(double... data) {
+        for (double d : data) {
+            append(0, d);
+            ++N;
+
+            if (d < min) {
+                min = d;
+            }
+            if (d > max) {
+                max = d;
+            }
+
+            if (size >= maxSize) {
+                compress();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The two sketches must have the same {@code k}.
+     */
+    @Override
+    public void merge(Statistic stat) {
+        SuanShuUtils.assertArgument(stat instanceof KLLSketch, "can only merge a KLLSketch");
+        KLLSketch that = stat == this ? new KLLSketch(this) : (KLLSketch) stat;
+        SuanShuUtils.assertArgument(that.k == k, "can only merge a KLLSketch with the same k = %d", k);
+
+        while (levels.length < that.levels.length) {
+            addLevel();
+        }
+        for (int h = 0; h < that.levels.length; ++h) {
+            for (int i = 0; i < that.sizes[h]; ++i) {
+                append(h, that.levels[h][i]);
+            }
+        }
+
+        N += that.N;
+        min = Math.min(min, that.min);
+        max = Math.max(max, that.max);
+
+        while (size >= maxSize) {
+            compress();
+        }
+    }
+
+    /**
+     * Compact the lowest level that is full.
+     */
+    private void compress() {
+        for (int h = 0; h < levels.length; ++h) {
+            if (sizes[h] >= capacity(h)) {
+                if (h + 1 == levels.length) {
+                    addLevel();
+                }
+                compact(h);
+                return;
+            }
+        }
+    }
+
+    private void compact(int h) {
+        double[] items = levels[h];
+        int n = sizes[h];
+        Arrays.sort(items, 0, n);
+
+        size -= n;
+        int pairs = n - n % 2;
+        for (int i = coin(); i < pairs; i += 2) {
+            append(h + 1, items[i]);
+        }
+
+        if (n % 2 == 1) {//keep the odd one out at this level
+            items[0] = items[n - 1];
+            sizes[h] = 1;
+            ++size;
+        } else {
+            sizes[h] = 0;
+        }
+    }
+
+    private void append(int h, double x) {
+        if (sizes[h] == levels[h].length) {
+            levels[h] = Arrays.copyOf(levels[h], 2 * levels[h].length);
+        }
+        levels[h][sizes[h]++] = x;
+        ++size;
+    }
+
+    private void addLevel() {
+        int H = levels.length;
+        levels = Arrays.copyOf(levels, H + 1);
+        levels[H] = new double[k];
+        sizes = Arrays.copyOf(sizes, H + 1);
+
+        maxSize = 0;
+        for (int h = 0; h <= H; ++h) {
+            maxSize += capacity(h);
+        }
+    }
+
+    private int capacity(int h) {
+        int depth = levels.length - 1 - h;
+        return Math.max(2, (int) Math.ceil(k * Math.pow(C, depth)));
+    }
+
+    private int coin() {
+        state ^= state << 13;
+        state ^= state >>> 7;
+        state ^= state << 17;
+        return (int) (state >>> 63);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The value is the smallest retained item whose weighted rank is at least <i>qN</i>.
+     */
+    @Override
+    public double value(double q) {
+        SuanShuUtils.assertArgument(q >= 0 && q <= 1, "0 <= q <= 1; input = %f", q);
+
+        if (N == 0) {
+            return Double.NaN;
+        }
+        if (q == 0) {
+            return min;
+        }
+        if (q == 1) {
+            return max;
+        }
+
+        double[] items = new double[size];
+        long[] weights = new long[items.length];
+        for (int h = 0, j = 0; h < levels.length; ++h) {
+            for (int i = 0; i < sizes[h]; ++i, ++j) {
+                items[j] = levels[h][i];
+                weights[j] = 1L << h;
+            }
+        }
+
+        int[] order = shellsort(items);//items is sorted in place; order is 1-based
+        double rank = q * N;
+        long cumulative = 0;
+        for (int i = 0; i < items.length; ++i) {
+            cumulative += weights[order[i] - 1];
+            if (cumulative >= rank) {
+                return items[i];
+            }
+        }
+
+        return max;
+    }
+
+    @Override
+    public double value() {
+        throw new UnsupportedOperationException("you must supply a quantile value q");
+    }
+
+    @Override
+    public long N() {
+        return N;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("KLL sketch: k: %d; levels: %d; N: %d",
+                             k,
+                             levels.length,
+                             N);
+    }
+}
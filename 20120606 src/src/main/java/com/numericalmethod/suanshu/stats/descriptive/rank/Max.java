@@ -22,6 +22,8 @@
  */
 package com.numericalmethod.suanshu.stats.descriptive.rank;
 
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import com.numericalmethod.suanshu.stats.descriptive.MergeableStatistic;
 import com.numericalmethod.suanshu.stats.descriptive.Statistic;
 
 /**
@@ -32,7 +34,7 @@ import com.numericalmethod.suanshu.stats.descriptive.Statistic;
  * @author Haksun Li
  * @see <a href="http://en.wikipedia.org/wiki/Maximum">Wikipedia: Maximum</a>
  */
-public class Max implements Statistic {
+public class Max implements MergeableStatistic {
 
     private long N = 0;
     private double max = Double.NEGATIVE_INFINITY;
@@ -74,6 +76,17 @@ public class Max implements Statistic {
         N += data.length;
     }
 
+    @Override
+    public void merge(Statistic stat) {
+        SuanShuUtils.assertArgument(stat instanceof Max, "can only merge a Max");
+        Max that = (Max) stat;
+        if (that.max > max) {
+            max = that.max;
+        }
+
+        N += that.N;
+    }
+
     @Override
     public double value() {
         return N > 0 ? max : Double.NaN;
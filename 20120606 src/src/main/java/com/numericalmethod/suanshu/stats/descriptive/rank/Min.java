@@ -22,6 +22,8 @@
  */
 package com.numericalmethod.suanshu.stats.descriptive.rank;
 
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import com.numericalmethod.suanshu.stats.descriptive.MergeableStatistic;
 import com.numericalmethod.suanshu.stats.descriptive.Statistic;
 
 /**
@@ -32,7 +34,7 @@ import com.numericalmethod.suanshu.stats.descriptive.Statistic;
  * @author Haksun Li
  * @see <a href="http://en.wikipedia.org/wiki/Minimum">Wikipedia: Minimum</a>
  */
-public class Min implements Statistic {
+public class Min implements MergeableStatistic {
 
     private long N = 0;
     private double min = Double.POSITIVE_INFINITY;
@@ -74,6 +76,17 @@ public class Min implements Statistic {
         N += data.length;
     }
 
+    @Override
+    public void merge(Statistic stat) {
+        SuanShuUtils.assertArgument(stat instanceof Min, "can only merge a Min");
+        Min that = (Min) stat;
+        if (that.min < min) {
+            min = that.min;
+        }
+
+        N += that.N;
+    }
+
     @Override
     public double value() {
         return N > 0 ? min : Double.NaN;
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.descriptive.rank;
+
+/**
+ * A monotonic deque keeps, of the observations in a sliding window, only those that can still become the extremum:
+ * an observation is dropped as soon as a newer one is at least as extreme,
+ * because the newer one stays in the window longer.
+ * The kept observations are therefore monotonic from the head to the tail, and the head is the extremum.
+ * Each observation is added and dropped at most once, hence constant amortized time per update.
+ * The deque is a circular buffer of primitives.
+ * @see <a href="http://en.wikipedia.org/wiki/Double-ended_queue">Wikipedia: Double-ended queue</a>
+ */
+class MonotonicDeque {
+
+    private final boolean max;
+    private double[] values = new double[16];
+    private long[] ids = new long[16];//the sequence numbers of the kept observations
+    private int head = 0;
+    private int size = 0;
+    private long nPushed = 0;
+    private long nPopped = 0;
+
+    /**
+     * Construct an empty deque.
+     *
+     * @param max {@code true} to keep the maximum; {@code false} to keep the minimum
+     */
+    MonotonicDeque(boolean max) {
+        this.max = max;
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param that a {@code MonotonicDeque}
+     */
+    MonotonicDeque(MonotonicDeque that) {
+        this.max = that.max;
+        this.values = that.values.clone();
+        this.ids = that.ids.clone();
+        this.head = that.head;
+        this.size = that.size;
+        this.nPushed = that.nPushed;
+        this.nPopped = that.nPopped;
+    }
+
+    void push(double x) {
+        final int mask = values.length - 1;
+        while (size > 0) {//drop the older observations that can no longer be the extremum
+            double last = values[(head + size - 1) & mask];
+            if (max ? last <= x : last >= x) {
+                --size;
+            } else {
+                break;
+            }
+        }
+
+        if (size == values.length) {
+            grow();
+        }
+
+        int tail = (head + size) & (values.length - 1);
+        values[tail] = x;
+        ids[tail] = nPushed++;
+        ++size;
+    }
+
+    /**
+     * Remove the oldest observation in the window.
+     * It is in the deque only if no newer observation is as extreme.
+     */
+    void pop() {
+        if (size > 0 && ids[head] == nPopped) {
+            head = (head + 1) & (values.length - 1);
+            --size;
+        }
+        ++nPopped;
+    }
+
+    double value() {
+        return size > 0 ? values[head] : Double.NaN;
+    }
+
+    long N() {
+        return nPushed - nPopped;
+    }
+
+    private void grow() {//the capacity is a power of 2
+        double[] newValues = new double[2 * values.length];
+        long[] newIds = new long[2 * ids.length];
+        for (int i = 0; i < size; ++i) {
+            newValues[i] = values[(head + i) & (values.length - 1)];
+            newIds[i] = ids[(head + i) & (ids.length - 1)];
+        }
+
+        values = newValues;
+        ids = newIds;
+        head = 0;
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.descriptive.rank;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * An order statistic tree is a binary search tree augmented with the sizes of the subtrees,
+ * so that an insertion, a deletion, and the selection of the <i>k</i>-th smallest value all take <i>O(log n)</i> time.
+ * This implementation is a treap (balanced by random heap priorities),
+ * with repeated values counted in one node.
+ * The nodes are stored in arrays of primitives and recycled, so that sliding a window allocates no object.
+ * @see
+ * <ul>
+ * <li><a href="http://en.wikipedia.org/wiki/Order_statistic_tree">Wikipedia: Order statistic tree</a>
+ * <li><a href="http://en.wikipedia.org/wiki/Treap">Wikipedia: Treap</a>
+ * </ul>
+ */
+class OrderStatisticTree implements Quantile.OrderStatistics {
+
+    private static final int NIL = 0;//the sentinel node, with size 0
+    private double[] key = new double[16];
+    private int[] count = new int[16];//the multiplicity of the key
+    private int[] size = new int[16];//the number of values in the subtree
+    private int[] priority = new int[16];
+    private int[] left = new int[16];
+    private int[] right = new int[16];
+    private int root = NIL;
+    private int nNodes = 1;//the next unused node
+    private int free = NIL;//the list of recycled nodes, linked by right
+    private int seed = 0x9E3779B9;
+
+    OrderStatisticTree() {
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param that an {@code OrderStatisticTree}
+     */
+    OrderStatisticTree(OrderStatisticTree that) {
+        this.key = that.key.clone();
+        this.count = that.count.clone();
+        this.size = that.size.clone();
+        this.priority = that.priority.clone();
+        this.left = that.left.clone();
+        this.right = that.right.clone();
+        this.root = that.root;
+        this.nNodes = that.nNodes;
+        this.free = that.free;
+        this.seed = that.seed;
+    }
+
+    void add(double x) {
+        root = add(root, x);
+    }
+
+    /**
+     * Remove one occurrence of a value.
+     *
+     * @param x a value in the tree
+     * @throws NoSuchElementException if {@code x} is not in the tree
+     */
+    void remove(double x) {
+        root = remove(root, x);
+    }
+
+    @Override
+    public int size() {
+        return size[root];
+    }
+
+    @Override
+    public double get(int i) {
+        int t = root;
+        while (t != NIL) {
+            int nLeft = size[left[t]];
+            if (i < nLeft) {
+                t = left[t];
+            } else if (i < nLeft + count[t]) {
+                return key[t];
+            } else {
+                i -= nLeft + count[t];
+                t = right[t];
+            }
+        }
+        throw new IndexOutOfBoundsException(String.format("rank %d", i));
+    }
+
+    private int add(int t, double x) {
+        if (t == NIL) {
+            return newNode(x);
+        }
+
+        int cmp = Double.compare(x, key[t]);
+        if (cmp == 0) {
+            ++count[t];
+            ++size[t];
+            return t;
+        }
+
+        if (cmp < 0) {
+            int child = add(left[t], x);//may grow the arrays, so assign after the call
+            left[t] = child;
+            update(t);
+            return priority[left[t]] > priority[t] ? rotateRight(t) : t;
+        } else {
+            int child = add(right[t], x);
+            right[t] = child;
+            update(t);
+            return priority[right[t]] > priority[t] ? rotateLeft(t) : t;
+        }
+    }
+
+    private int remove(int t, double x) {
+        if (t == NIL) {
+            throw new NoSuchElementException(String.format("%f is not in the tree", x));
+        }
+
+        int cmp = Double.compare(x, key[t]);
+        if (cmp < 0) {
+            left[t] = remove(left[t], x);
+        } else if (cmp > 0) {
+            right[t] = remove(right[t], x);
+        } else if (count[t] > 1) {
+            --count[t];
+        } else if (left[t] == NIL || right[t] == NIL) {//splice out the node
+            int child = left[t] == NIL ? right[t] : left[t];
+            right[t] = free;
+            free = t;
+            return child;
+        } else if (priority[left[t]] > priority[right[t]]) {//rotate the node down till it can be spliced out
+            t = rotateRight(t);
+            right[t] = remove(right[t], x);
+        } else {
+            t = rotateLeft(t);
+            left[t] = remove(left[t], x);
+        }
+
+        update(t);
+        return t;
+    }
+
+    private int rotateRight(int t) {
+        int l = left[t];
+        left[t] = right[l];
+        right[l] = t;
+        update(t);
+        update(l);
+        return l;
+    }
+
+    private int rotateLeft(int t) {
+        int r = right[t];
+        right[t] = left[r];
+        left[r] = t;
+        update(t);
+        update(r);
+        return r;
+    }
+
+    private void update(int t) {
+        size[t] = size[left[t]] + count[t] + size[right[t]];
+    }
+
+    private int newNode(double x) {
+        int t;
+        if (free != NIL) {
+            t = free;
+            free = right[t];
+        } else {
+            if (nNodes == key.length) {
+                grow();
+            }
+            t = nNodes++;
+        }
+
+        seed ^= seed << 13;//xorshift
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+
+        key[t] = x;
+        count[t] = 1;
+        size[t] = 1;
+        priority[t] = seed;
+        left[t] = NIL;
+        right[t] = NIL;
+        return t;
+    }
+
+    private void grow() {
+        int capacity = 2 * key.length;
+        key = Arrays.copyOf(key, capacity);
+        count = Arrays.copyOf(count, capacity);
+        size = Arrays.copyOf(size, capacity);
+        priority = Arrays.copyOf(priority, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+    }
+}
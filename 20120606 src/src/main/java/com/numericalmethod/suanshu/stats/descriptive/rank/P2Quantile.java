@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.descriptive.rank;
+
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import com.numericalmethod.suanshu.stats.descriptive.Statistic;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * The P<sup>2</sup> algorithm estimates a single quantile of a stream in constant memory, without storing the data.
+ * It keeps five markers: the minimum, the <i>p/2</i>, <i>p</i>, <i>(1+p)/2</i> quantiles, and the maximum.
+ * Each new datum shifts the positions of the markers,
+ * and a marker whose position drifts from its desired position is moved by a piecewise-parabolic prediction of its height.
+ * <p/>
+ * This is the cheapest way to track a fixed percentile, e.g., the median latency.
+ * Unlike the sketches, the estimator has no error guarantee, and cannot be merged.
+ * For more than one quantile, or for merging, use a {@link QuantileSketch}.
+ * @see "Raj Jain, Imrich Chlamtac, "The P2 Algorithm for Dynamic Calculation of Quantiles and Histograms Without Storing Observations," Communications of the ACM, 28(10), 1076–1085, 1985."
+ */
+public class P2Quantile implements Statistic, Serializable {
+
+    private static final long serialVersionUID = 1L;
+    /** the quantile to estimate */
+    private final double p;
+    /** the marker heights */
+    private final double[] q = new double[5];
+    /** the marker positions, 1-based */
+    private final long[] n = new long[5];
+    /** the desired marker positions */
+    private final double[] np = new double[5];
+    /** the increments of the desired marker positions */
+    private final double[] dn;
+    private long N = 0;
+
+    /**
+     * Construct an estimator of a quantile.
+     *
+     * @param p the quantile to estimate, 0 &lt; p &lt; 1
+     */
+    public P2Quantile(double p) {
+        SuanShuUtils.assertArgument(p > 0 && p < 1, "0 < p < 1; input = %f", p);
+
+        this.p = p;
+        this.dn = new double[]{0, p / 2, p, (1 + p) / 2, 1};
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param that a P<sup>2</sup> estimator
+     */
+    public P2Quantile(P2Quantile that) {
+        this(that.p);
+        System.arraycopy(that.q, 0, this.q, 0, 5);
+        System.arraycopy(that.n, 0, this.n, 0, 5);
+        System.arraycopy(that.np, 0, this.np, 0, 5);
+        this.N = that.N;
+    }
+
+    @Override
+    public void addData(double... data) {
+        for (double x : data) {
+            add(x);
+        }
+    }
+
+    private void add(double x) {
+        //initialization: collect the first five observations
+        if (N < 5) {
+            q[(int) N++] = x;
+            if (N == 5) {
+                Arrays.sort(q);
+                for (int i = 0; i < 5; ++i) {
+                    n[i] = i + 1;
+                }
+                np[0] = 1;
+                np[1] = 1 + 2 * p;
+                np[2] = 1 + 4 * p;
+                np[3] = 3 + 2 * p;
+                np[4] = 5;
+            }
+            return;
+        }
+
+        //find the cell k such that q[k] <= x < q[k + 1], adjusting the extremes
+        int k;
+        if (x < q[0]) {
+            q[0] = x;
+            k = 0;
+        } else if (x >= q[4]) {
+            q[4] = x;
+            k = 3;
+        } else {
+            k = 0;
+            while (x >= q[k + 1]) {
+                ++k;
+            }
+        }
+
+        for (int i = k + 1; i < 5; ++i) {
+            ++n[i];
+        }
+        for (int i = 0; i < 5; ++i) {
+            np[i] += dn[i];
+        }
+
+        //adjust the heights of the middle markers
+        for (int i = 1; i <= 3; ++i) {
+            double d = np[i] - n[i];
+            if ((d >= 1 && n[i + 1] - n[i] > 1) || (d <= -1 && n[i - 1] - n[i] < -1)) {
+                int s = d > 0 ? 1 : -1;
+                double h = parabolic(i, s);
+                q[i] = q[i - 1] < h && h < q[i + 1] ? h : linear(i, s);
+                n[i] += s;
+            }
+        }
+
+        ++N;
+    }
+
+    private double parabolic(int i, int d) {
+        double term1 = (n[i] - n[i - 1] + d) * (q[i + 1] - q[i]) / (n[i + 1] - n[i]);
+        double term2 = (n[i + 1] - n[i] - d) * (q[i] - q[i - 1]) / (n[i] - n[i - 1]);
+        return q[i] + (double) d / (n[i + 1] - n[i - 1]) * (term1 + term2);
+    }
+
+    private double linear(int i, int d) {
+        return q[i] + d * (q[i + d] - q[i]) / (n[i + d] - n[i]);
+    }
+
+    /**
+     * Get the estimate of the quantile.
+     * With fewer than five observations, the exact sample quantile is returned.
+     *
+     * @return the estimate of the {@code p} quantile; {@code NaN} if there is no data
+     */
+    @Override
+    public double value() {
+        if (N == 0) {
+            return Double.NaN;
+        }
+        if (N < 5) {
+            return new Quantile(Arrays.copyOf(q, (int) N)).value(p);
+        }
+        return q[2];
+    }
+
+    @Override
+    public long N() {
+        return N;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("P2 %f quantile: %f; N: %d",
+                             p,
+                             value(),
+                             N);
+    }
+}
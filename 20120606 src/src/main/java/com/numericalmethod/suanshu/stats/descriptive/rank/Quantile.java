@@ -24,6 +24,7 @@ package com.numericalmethod.suanshu.stats.descriptive.rank;
 
 import com.numericalmethod.suanshu.misc.SuanShuUtils;
 import static com.numericalmethod.suanshu.number.DoubleUtils.isZero;
+import com.numericalmethod.suanshu.stats.descriptive.MergeableStatistic;
 import com.numericalmethod.suanshu.stats.descriptive.Statistic;
 import java.util.Arrays;
 
@@ -38,6 +39,10 @@ import java.util.Arrays;
  * The smallest observation corresponds to probability 0 and the largest probability 1.
  * This class implements the 9 different quantile definitions in Hyndman 1996.
  * <p/>
+ * The exact quantiles need all the data.
+ * For a large stream of data, a {@code Quantile} can instead be backed by a {@link QuantileSketch},
+ * which approximates the quantiles in bounded memory.
+ * <p/>
  * The R equivalent function is {@code quantile}.
  *
  * @author Haksun Li
@@ -47,7 +52,7 @@ import java.util.Arrays;
  * <li><a href="http://en.wikipedia.org/wiki/Quantile">Wikipedia: Quantile</a>
  * </ul>
  */
-public class Quantile implements Statistic {
+public class Quantile implements MergeableStatistic {
 
     /**
      * the quantile definitions available
@@ -99,7 +104,9 @@ public class Quantile implements Statistic {
 
     /** the quantile definition */
     private final QuantileType type;
-    private double[] sortedData;
+    /** the sketch that approximates the quantiles; {@code null} if exact */
+    private final QuantileSketch sketch;
+    private double[] sortedData = new double[0];
 
     /**
      * Construct a {@code Quantile} calculator.
@@ -109,6 +116,7 @@ public class Quantile implements Statistic {
      */
     public Quantile(double[] data, QuantileType type) {
         this.type = type;
+        this.sketch = null;
         addData(data);
     }
 
@@ -122,6 +130,18 @@ public class Quantile implements Statistic {
         this(data, QuantileType.APPROXIMATELY_MEDIAN_UNBIASED);//this.q is not used
     }
 
+    /**
+     * Construct a {@code Quantile} calculator that approximates the quantiles by a sketch,
+     * e.g., {@link TDigest} or {@link KLLSketch}.
+     * The data are not kept, and the quantile definition is that of the sketch.
+     *
+     * @param sketch a quantile sketch
+     */
+    public Quantile(QuantileSketch sketch) {
+        this.type = null;
+        this.sketch = sketch;
+    }
+
     /**
      * Compute the sample value corresponding to a quantile.
      *
@@ -131,106 +151,183 @@ public class Quantile implements Statistic {
     public double value(double q) {
         SuanShuUtils.assertArgument(q >= 0 && q <= 1, "0 <= q <= 1; input = %f", q);
 
+        if (sketch != null) {
+            return sketch.value(q);
+        }
+
+        return value(type, q, new OrderStatistics() {
+
+            @Override
+            public int size() {
+                return sortedData.length;
+            }
+
+            @Override
+            public double get(int i) {
+                return sortedData[i];
+            }
+        });
+    }
+
+    /**
+     * The order statistics of a sample, i.e., the sample values in ascending order.
+     */
+    static interface OrderStatistics {
+
+        /**
+         * Get the size of the sample.
+         *
+         * @return the sample size
+         */
+        public int size();
+
+        /**
+         * Get the <i>i</i>-th smallest value, counting from 0.
+         *
+         * @param i a rank
+         * @return the <i>i</i>-th smallest value
+         */
+        public double get(int i);
+    }
+
+    /**
+     * Compute the sample value corresponding to a quantile from the order statistics of a sample.
+     *
+     * @param type the quantile definition
+     * @param q    a quantile
+     * @param x    the order statistics
+     * @return the value for the {@code q} quantile
+     */
+    static double value(QuantileType type, double q, OrderStatistics x) {
+        final int N = x.size();
         int j = 0;
         double m = 0, g = 0, gamma = 0, Q = 0;
         switch (type) {
             case INVERSE_OF_EMPIRICAL_CDF:
                 m = 0;
-                j = j(q, m);
-                g = g(q, m, j);
+                j = j(q, m, N);
+                g = g(q, m, j, N);
                 gamma = isZero(g, 0) ? 0 : 1;
                 break;
             case INVERSE_OF_EMPIRICAL_CDF_WITH_AVERAGING_AT_DISCONTINUITIES:
                 m = 0;
-                j = j(q, m);
-                g = g(q, m, j);
+                j = j(q, m, N);
+                g = g(q, m, j, N);
                 gamma = isZero(g, 0) ? 0.5 : 1;
                 break;
             case NEAREST_EVEN_ORDER_STATISTICS:
                 m = -0.5;
-                j = j(q, m);
-                g = g(q, m, j);
+                j = j(q, m, N);
+                g = g(q, m, j, N);
                 gamma = isZero(g, 0) ? j % 2 == 0 ? 0 : 1 : 1;//check whether j is even
                 break;
             case LINEAR_INTERPOLATION_OF_EMPIRICAL_CDF:
                 m = 0;//m(q, 0, 1);
-                j = j(q, m);
-                g = g(q, m, j);
+                j = j(q, m, N);
+                g = g(q, m, j, N);
                 gamma = g;
                 break;
             case MIDWAY_THROUGH_STEPS_OF_EMPIRICAL_CDF:
                 m = 0.5;//m(q, 0.5, 0.5);
-                j = j(q, m);
-                g = g(q, m, j);
+                j = j(q, m, N);
+                g = g(q, m, j, N);
                 gamma = g;
                 break;
             case MINITAB_SPSS:
                 m = q;//m(q, 0, 0);
-                j = j(q, m);
-                g = g(q, m, j);
+                j = j(q, m, N);
+                g = g(q, m, j, N);
                 gamma = g;
                 break;
             case S:
                 m = 1 - q;//m(q, 1, 1);
-                j = j(q, m);
-                g = g(q, m, j);
+                j = j(q, m, N);
+                g = g(q, m, j, N);
                 gamma = g;
                 break;
             case APPROXIMATELY_UNBIASED_IF_DATA_IS_NORMAL:
                 m = m(q, 3 / 8d, 3 / 8d);
-                j = j(q, m);
-                g = g(q, m, j);
+                j = j(q, m, N);
+                g = g(q, m, j, N);
                 gamma = g;
                 break;
             case APPROXIMATELY_MEDIAN_UNBIASED:
             default:
                 m = m(q, 1 / 3d, 1 / 3d);
-                j = j(q, m);
-                g = g(q, m, j);
+                j = j(q, m, N);
+                g = g(q, m, j, N);
                 gamma = g;
                 break;
         }
 
-        Q = Q(gamma, j);
+        Q = Q(gamma, j, x);
         return Q;
     }
 
-    private double m(double q, double a, double b) {
+    private static double m(double q, double a, double b) {
         double m = a + q * (1 - a - b);
         return m;
     }
 
-    private int j(double q, double m) {
-        int N = sortedData.length;
+    private static int j(double q, double m, int N) {
         int j = (int) Math.floor(q * N + m);//the integral part
         j = j > 0 ? j : 0;
         j = j <= N ? j : N;
         return j;
     }
 
-    private double g(double q, double m, double j) {
-        int N = sortedData.length;
+    private static double g(double q, double m, double j, int N) {
         double g = q * N + m - j;//the fractional part
         return g;
     }
 
-    private double Q(double gamma, int j) {
-        double stat = (1 - gamma) * sortedData[j > 0 ? j - 1 : 0];
-        stat += gamma * sortedData[j < sortedData.length ? j : sortedData.length - 1];
+    private static double Q(double gamma, int j, OrderStatistics x) {
+        double stat = (1 - gamma) * x.get(j > 0 ? j - 1 : 0);
+        stat += gamma * x.get(j < x.size() ? j : x.size() - 1);
         return stat;
     }
 
     @Override
     public void addData(double... data) {
-        int oldLenght = sortedData == null ? 0 : sortedData.length;
-        sortedData = sortedData == null ? new double[data.length]
-                     : Arrays.copyOf(sortedData, sortedData.length + data.length);
+        if (sketch != null) {
+            sketch.addData(data);
+            return;
+        }
+
+        double[] sorted = Arrays.copyOf(data, data.length);
+        Arrays.sort(sorted);
+        sortedData = merge(sortedData, sorted);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Both calculators must be exact, or both be backed by the same kind of sketch.
+     */
+    @Override
+    public void merge(Statistic stat) {
+        SuanShuUtils.assertArgument(stat instanceof Quantile, "can only merge a Quantile");
+        Quantile that = (Quantile) stat;
+        SuanShuUtils.assertArgument((this.sketch == null) == (that.sketch == null), "cannot merge an exact Quantile with a sketch");
 
-        for (int i = 0; i < data.length; ++i) {
-            sortedData[oldLenght + i] = data[i];
+        if (sketch != null) {
+            sketch.merge(that.sketch);
+        } else {
+            sortedData = merge(sortedData, that.sortedData);
         }
+    }
 
-        Arrays.sort(sortedData);
+    /**
+     * Merge two sorted arrays in linear time.
+     */
+    private static double[] merge(double[] a, double[] b) {
+        double[] result = new double[a.length + b.length];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            result[k++] = a[i] <= b[j] ? a[i++] : b[j++];
+        }
+        System.arraycopy(a, i, result, k, a.length - i);
+        System.arraycopy(b, j, result, k + a.length - i, b.length - j);
+        return result;
     }
 
     @Override
@@ -240,6 +337,6 @@ public class Quantile implements Statistic {
 
     @Override
     public long N() {
-        return sortedData.length;
+        return sketch != null ? sketch.N() : sortedData.length;
     }
 }
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.descriptive.rank;
+
+import com.numericalmethod.suanshu.stats.descriptive.MergeableStatistic;
+import java.io.Serializable;
+
+/**
+ * A quantile sketch summarizes a (possibly unbounded) stream of data in bounded memory,
+ * from which the quantiles can be approximated.
+ * Unlike the exact {@link Quantile}, which keeps a sorted copy of all data,
+ * the size of a sketch depends only on its accuracy parameter but not on the number of data points.
+ * Sketches of the pieces of a sample, e.g., one per thread, can be merged,
+ * and a sketch can be serialized, e.g., to combine the sketches computed on different machines.
+ * <p/>
+ * A sketch can be used behind the {@link Quantile} API by {@link Quantile#Quantile(QuantileSketch)}.
+ */
+public interface QuantileSketch extends MergeableStatistic, Serializable {
+
+    /**
+     * Get the approximate value of a quantile.
+     *
+     * @param q a quantile, 0 &le; q &le; 1
+     * @return the approximate value for the {@code q} quantile; {@code NaN} if there is no data
+     */
+    public double value(double q);
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.descriptive.rank;
+
+import com.numericalmethod.suanshu.stats.descriptive.RollingStatistic;
+
+/**
+ * The minimum of the observations in a sliding window,
+ * updated in constant amortized time by a monotonic deque.
+ * @see <a href="http://en.wikipedia.org/wiki/Sliding_window_protocol">Wikipedia: Sliding window</a>
+ */
+public class RollingMin implements RollingStatistic {
+
+    private final MonotonicDeque deque;
+
+    /**
+     * Construct a {@code RollingMin} with an empty window.
+     */
+    public RollingMin() {
+        this.deque = new MonotonicDeque(false);
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param that a {@code RollingMin}
+     */
+    public RollingMin(RollingMin that) {
+        this.deque = new MonotonicDeque(that.deque);
+    }
+
+    @Override
+    public void push(double x) {
+        deque.push(x);
+    }
+
+    @Override
+    public void pop(double x) {
+        deque.pop();
+    }
+
+    @Override
+    public void addData(double... data) {
+        for (double x : data) {
+            push(x);
+        }
+    }
+
+    @Override
+    public double value() {
+        return deque.value();
+    }
+
+    @Override
+    public long N() {
+        return deque.N();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("rolling min: %f; N: %d", value(), N());
+    }
+}
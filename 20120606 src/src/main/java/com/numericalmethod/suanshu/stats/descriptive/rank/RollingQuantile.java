@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.descriptive.rank;
+
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import com.numericalmethod.suanshu.stats.descriptive.RollingStatistic;
+import com.numericalmethod.suanshu.stats.descriptive.rank.Quantile.QuantileType;
+
+/**
+ * The quantile of the observations in a sliding window, e.g., the rolling median.
+ * The window is kept sorted in an order statistic tree,
+ * so that an update and a query both take <i>O(log w)</i> time for a window of <i>w</i> observations,
+ * instead of <i>O(w log w)</i> for sorting the window each time.
+ * The quantile definitions are the same as those of {@link Quantile}.
+ * @see <a href="http://en.wikipedia.org/wiki/Order_statistic_tree">Wikipedia: Order statistic tree</a>
+ */
+public class RollingQuantile implements RollingStatistic {
+
+    private final double q;
+    private final QuantileType type;
+    private final OrderStatisticTree tree;
+
+    /**
+     * Construct a {@code RollingQuantile} with an empty window.
+     *
+     * @param q    the quantile to compute by {@link #value()}
+     * @param type the quantile definition
+     */
+    public RollingQuantile(double q, QuantileType type) {
+        SuanShuUtils.assertArgument(q >= 0 && q <= 1, "0 <= q <= 1; input = %f", q);
+        this.q = q;
+        this.type = type;
+        this.tree = new OrderStatisticTree();
+    }
+
+    /**
+     * Construct a {@code RollingQuantile} with an empty window, using the quantile definition
+     * {@link QuantileType#APPROXIMATELY_MEDIAN_UNBIASED}.
+     *
+     * @param q the quantile to compute by {@link #value()}
+     */
+    public RollingQuantile(double q) {
+        this(q, QuantileType.APPROXIMATELY_MEDIAN_UNBIASED);
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param that a {@code RollingQuantile}
+     */
+    public RollingQuantile(RollingQuantile that) {
+        this.q = that.q;
+        this.type = that.type;
+        this.tree = new OrderStatisticTree(that.tree);
+    }
+
+    @Override
+    public void push(double x) {
+        tree.add(x);
+    }
+
+    @Override
+    public void pop(double x) {
+        tree.remove(x);
+    }
+
+    @Override
+    public void addData(double... data) {
+        for (double x : data) {
+            push(x);
+        }
+    }
+
+    /**
+     * Compute the value of any quantile of the window.
+     *
+     * @param q a quantile
+     * @return the value for the {@code q} quantile
+     */
+    public double value(double q) {
+        SuanShuUtils.assertArgument(q >= 0 && q <= 1, "0 <= q <= 1; input = %f", q);
+        return tree.size() > 0 ? Quantile.value(type, q, tree) : Double.NaN;
+    }
+
+    @Override
+    public double value() {
+        return value(q);
+    }
+
+    @Override
+    public long N() {
+        return tree.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("rolling %f-quantile: %f; N: %d", q, value(), N());
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.descriptive.rank;
+
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import static com.numericalmethod.suanshu.number.DoubleUtils.shellsort;
+import com.numericalmethod.suanshu.stats.descriptive.Statistic;
+import static java.lang.Math.*;
+import java.util.Arrays;
+
+/**
+ * A t-digest summarizes the data by a sorted list of weighted centroids.
+ * The centroids near the tails are kept small and those near the median are allowed to grow,
+ * so that the extreme quantiles, e.g., the 99.9% latency, are estimated with a small relative error.
+ * The size of a centroid is limited by the scale function
+ * <blockquote><i>
+ * k(q) = δ / (2π) * asin(2q - 1)
+ * </i></blockquote>
+ * so that a centroid spans at most 1 in <i>k</i>, where <i>δ</i> is the compression.
+ * Hence, there are at most about <i>δ</i> centroids.
+ * A larger compression gives a more accurate but bigger digest;
+ * with the default compression 100, the quantile error is typically well below 1% in rank,
+ * and much smaller near the tails.
+ * <p/>
+ * This is the merging variant:
+ * new data are buffered and merged into the centroids in a single sorted pass.
+ * Two digests are merged the same way.
+ * @see "Ted Dunning, Otmar Ertl, "Computing Extremely Accurate Quantiles Using t-Digests," arXiv:1902.04023, 2019."
+ */
+public class TDigest implements QuantileSketch {
+
+    private static final long serialVersionUID = 1L;
+    /** the compression δ */
+    private final double compression;
+    private final double[] mean;
+    private final double[] weight;
+    private int nCentroids = 0;
+    /** the data not yet merged into the centroids */
+    private final double[] bufferMean;
+    private final double[] bufferWeight;
+    private int nBuffer = 0;
+    /** {@code true} if all the data in the buffer have unit weight */
+    private boolean unitBuffer = true;
+    /** the total weight of the centroids and the buffer */
+    private double totalWeight = 0;
+    private long N = 0;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Construct an empty t-digest.
+     *
+     * @param compression the compression δ, e.g., 100; the number of centroids is at most about δ
+     */
+    public TDigest(double compression) {
+        SuanShuUtils.assertArgument(compression >= 10, "the compression must be at least 10");
+
+        this.compression = compression;
+        int capacity = 2 * (int) ceil(compression) + 10;
+        this.mean = new double[capacity];
+        this.weight = new double[capacity];
+        this.bufferMean = new double[5 * (int) ceil(compression)];
+        this.bufferWeight = new double[bufferMean.length];
+    }
+
+    /**
+     * Construct an empty t-digest with the compression 100.
+     */
+    public TDigest() {
+        this(100);
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param that a t-digest
+     */
+    public TDigest(TDigest that) {
+        this(that.compression);
+        System.arraycopy(that.mean, 0, this.mean, 0, that.nCentroids);
+        System.arraycopy(that.weight, 0, this.weight, 0, that.nCentroids);
+        this.nCentroids = that.nCentroids;
+        System.arraycopy(that.bufferMean, 0, this.bufferMean, 0, that.nBuffer);
+        System.arraycopy(that.bufferWeight, 0, this.bufferWeight, 0, that.nBuffer);
+        this.nBuffer = that.nBuffer;
+        this.unitBuffer = that.unitBuffer;
+        this.totalWeight = that.totalWeight;
+        this.N = that.N;
+        this.min = that.min;
+        this.max = that.max;
+    }
+
+    @Override
+    public void addData(double... data) {
+        for (double d : data) {
+            add(d, 1);
+        }
+
+        N += data.length;
+    }
+
+    @Override
+    public void merge(Statistic stat) {
+        SuanShuUtils.assertArgument(stat instanceof TDigest, "can only merge a TDigest");
+        TDigest that = stat == this ? new TDigest(this) : (TDigest) stat;
+
+        for (int i = 0; i < that.nCentroids; ++i) {
+            add(that.mean[i], that.weight[i]);
+        }
+        for (int i = 0; i < that.nBuffer; ++i) {
+            add(that.bufferMean[i], that.bufferWeight[i]);
+        }
+
+        min = Math.min(min, that.min);
+        max = Math.max(max, that.max);
+        N += that.N;
+    }
+
+    private void add(double x, double w) {
+        if (nBuffer == bufferMean.length) {
+            compress();
+        }
+
+        bufferMean[nBuffer] = x;
+        bufferWeight[nBuffer] = w;
+        ++nBuffer;
+        unitBuffer &= w == 1;
+        totalWeight += w;
+
+        if (x < min) {
+            min = x;
+        }
+        if (x > max) {
+            max = x;
+        }
+    }
+
+    /**
+     * Merge the buffer into the centroids.
+     */
+    private void compress() {
+        if (nBuffer == 0) {
+            return;
+        }
+
+        //sort the buffer
+        if (unitBuffer) {
+            Arrays.sort(bufferMean, 0, nBuffer);
+        } else {
+            double[] sorted = Arrays.copyOf(bufferMean, nBuffer);
+            int[] order = shellsort(sorted);//1-based
+            double[] w = Arrays.copyOf(bufferWeight, nBuffer);
+            for (int i = 0; i < nBuffer; ++i) {
+                bufferMean[i] = sorted[i];
+                bufferWeight[i] = w[order[i] - 1];
+            }
+        }
+
+        //merge the sorted centroids and the sorted buffer
+        final int n = nCentroids + nBuffer;
+        double[] m = new double[n];
+        double[] w = new double[n];
+        for (int i = 0, j = 0, k = 0; k < n; ++k) {
+            if (j == nBuffer || (i < nCentroids && mean[i] <= bufferMean[j])) {
+                m[k] = mean[i];
+                w[k] = weight[i++];
+            } else {
+                m[k] = bufferMean[j];
+                w[k] = bufferWeight[j++];
+            }
+        }
+
+        nCentroids = 0;
+        nBuffer = 0;
+        unitBuffer = true;
+        double weightSoFar = 0;
+        double limit = limit(0);
+        double centroidMean = m[0];
+        double centroidWeight = w[0];
+        for (int i = 1; i < n; ++i) {
+            double wi = w[i];
+            if (weightSoFar + centroidWeight + wi <= limit) {
+                centroidWeight += wi;
+                centroidMean += (m[i] - centroidMean) * wi / centroidWeight;
+            } else {
+                mean[nCentroids] = centroidMean;
+                weight[nCentroids] = centroidWeight;
+                ++nCentroids;
+
+                weightSoFar += centroidWeight;
+                limit = limit(weightSoFar / totalWeight);
+                centroidMean = m[i];
+                centroidWeight = wi;
+            }
+        }
+
+        mean[nCentroids] = centroidMean;
+        weight[nCentroids] = centroidWeight;
+        ++nCentroids;
+    }
+
+    /**
+     * Get the maximum cumulative weight at the right end of a centroid starting at quantile {@code q},
+     * i.e., <i>q(k(q) + 1)</i>, scaled by the total weight.
+     */
+    private double limit(double q) {
+        double k = compression / (2 * PI) * asin(Math.min(1, 2 * q - 1)) + 1;
+        if (k >= compression / 4) {
+            return totalWeight;
+        }
+        return totalWeight * (sin(2 * PI * k / compression) + 1) / 2;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The value is interpolated linearly between the centroids,
+     * and between the outermost centroids and the exact minimum and maximum.
+     */
+    @Override
+    public double value(double q) {
+        SuanShuUtils.assertArgument(q >= 0 && q <= 1, "0 <= q <= 1; input = %f", q);
+
+        if (N == 0) {
+            return Double.NaN;
+        }
+
+        compress();
+
+        double index = q * totalWeight;
+        if (index < 1) {
+            return min;
+        }
+        if (index > totalWeight - 1) {
+            return max;
+        }
+
+        double first = weight[0] / 2;
+        if (index < first) {//between the minimum and the first centroid
+            return min + (index - 1) / (first - 1) * (mean[0] - min);
+        }
+
+        double last = weight[nCentroids - 1] / 2;
+        if (index > totalWeight - last) {//between the last centroid and the maximum
+            return max - (totalWeight - index - 1) / (last - 1) * (max - mean[nCentroids - 1]);
+        }
+
+        double weightSoFar = first;
+        for (int i = 0; i < nCentroids - 1; ++i) {
+            double dw = (weight[i] + weight[i + 1]) / 2;
+            if (weightSoFar + dw >= index) {
+                return mean[i] + (index - weightSoFar) / dw * (mean[i + 1] - mean[i]);
+            }
+            weightSoFar += dw;
+        }
+
+        return mean[nCentroids - 1];
+    }
+
+    @Override
+    public double value() {
+        throw new UnsupportedOperationException("you must supply a quantile value q");
+    }
+
+    @Override
+    public long N() {
+        return N;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("t-digest: compression: %f; N: %d",
+                             compression,
+                             N);
+    }
+}
@@ -25,7 +25,8 @@ package com.numericalmethod.suanshu.stats.dlm.multivariate;
 import com.numericalmethod.suanshu.matrix.doubles.ImmutableMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.Matrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
-import com.numericalmethod.suanshu.matrix.doubles.operation.Inverse;
+import com.numericalmethod.suanshu.matrix.doubles.factorization.triangle.LU;
+import com.numericalmethod.suanshu.matrix.doubles.linearsystem.LUSolver;
 import com.numericalmethod.suanshu.stats.timeseries.multivariate.realtime.MultiVariateTimeSeries;
 import com.numericalmethod.suanshu.stats.timeseries.multivariate.realtime.SimpleMultiVariateTimeSeries;
 import com.numericalmethod.suanshu.vector.doubles.ImmutableVector;
@@ -147,7 +148,9 @@ public class LinearKalmanFilter {
 
             //K_t = R_{t | t - 1} * F_t' * (Q_{t | t - 1} ^ (-1))
             Matrix F = observation.F(t);
-            KalmanGain[t - 1] = new DenseMatrix(R_t_tlag.multiply(F.t()).multiply(new Inverse(Q_t_tlag)));//TODO: generalize this computation?
+            //K_t solves K_t * Q_{t | t - 1} = R_{t | t - 1} * F_t', i.e., Q_{t | t - 1}' * K_t' = (R_{t | t - 1} * F_t')', without inverting Q
+            Matrix RFt = R_t_tlag.multiply(F.t());
+            KalmanGain[t - 1] = new DenseMatrix(new LUSolver().solve(new LU(Q_t_tlag.t()), RFt.t()).t());
 
             //e_t = y_t - f_t (observation residual)
             Vector e_t = Y.getRow(t).minus(y_t_tlag);
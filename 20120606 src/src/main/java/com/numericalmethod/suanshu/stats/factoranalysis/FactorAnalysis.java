@@ -279,7 +279,7 @@ public class FactorAnalysis {
 
         Matrix S_STAR = PSI_INV_SQRT.multiply(S).multiply(PSI_INV_SQRT); //(4.11) on p. 28 of Lawley and Maxwell (1971)
 
-        Eigen eigen = new Eigen(S_STAR); //find the eigenvalues of S_STAR (theta_1, ..., theta_p)
+        Eigen eigen = new Eigen(S_STAR, Eigen.Method.SYMMETRY, SuanShuUtils.autoEpsilon(S_STAR)); //find the eigenvalues of S_STAR (theta_1, ..., theta_p)
         double[] theta = Arrays.copyOfRange(eigen.getRealEigenvalues(), 0, k); //list the k largest eigenvalues (theta_1, ..., theta_k) in descending order
 
         Matrix DELTA_SQRT = new DiagonalMatrix(foreach(
@@ -217,7 +217,7 @@ class FactorAnalysisMLE {
                     })); //forms the diagonal matrix Psi^{-1/2} used in (4.11) of Lawley and Maxwell (1971)
             Matrix S_STAR = PSI_INV_SQRT.multiply(S).multiply(PSI_INV_SQRT); //(4.11) on p. 28 of Lawley and Maxwell (1971)
 
-            Eigen eigen = new Eigen(S_STAR);
+            Eigen eigen = new Eigen(S_STAR, Eigen.Method.SYMMETRY, SuanShuUtils.autoEpsilon(S_STAR));
             double[] theta = Arrays.copyOfRange(eigen.getRealEigenvalues(), k, p);//There are always p real eigenvalues for a properly defined p by p (sample) covariance/correlation matrix.
 
             //1st stage in the minimization:
@@ -25,9 +25,11 @@ package com.numericalmethod.suanshu.stats.pca;
 import com.numericalmethod.suanshu.matrix.doubles.ImmutableMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.Matrix;
 import com.numericalmethod.suanshu.matrix.doubles.factorization.eigen.Eigen;
+import com.numericalmethod.suanshu.matrix.doubles.factorization.eigen.krylov.Lanczos;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.operation.MatrixMeasure;
 import com.numericalmethod.suanshu.misc.R;
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
 import static com.numericalmethod.suanshu.misc.SuanShuUtils.assertArgument;
 import com.numericalmethod.suanshu.number.doublearray.DoubleArrayMath;
 import com.numericalmethod.suanshu.stats.descriptive.CorrelationMatrix;
@@ -67,25 +69,45 @@ public class PCAbyEigen extends PCAImpl {
 
     private final boolean correlation;
     private final ImmutableMatrix V;//make sure this does change anywhere in and out of this class
+    private final int nComponents;
 
     /**
      * Perform a principal component analysis, using the eigen method,
-     * on a given data matrix with an optional correlation (or covariance) matrix provided.
+     * on a given data matrix with an optional correlation (or covariance) matrix provided,
+     * computing only the first few principal components.
+     * If {@code nComponents} is less than the number of variables,
+     * only the largest eigenvalues and their eigenvectors are computed, by the {@link Lanczos} method.
      *
      * @param data        an nObs*nFactors numeric matrix which provides the original data for the principal component analysis
      * @param correlation a logical value indicating whether the correlation matrix (preferred) or the covariance matrix should be used (N.B. the correlation matrix can only be used if there is no constant variable)
      * @param V           an optional correlation (or covariance) matrix; if supplied, this is used rather than the correlation (or covariance) matrix of the centered (and possibly scaled) data
+     * @param nComponents the number of principal components to compute
      */
-    public PCAbyEigen(Matrix data, boolean correlation, Matrix V) {
+    public PCAbyEigen(Matrix data, boolean correlation, Matrix V, int nComponents) {
         super(data);
 
         if (V != null) {
             assertArgument((V.nCols() == nFactors()) && (V.nRows() == nFactors()),
                     "V is a p*p square matrix, where p is the number of columns of data");
         }
+        assertArgument(1 <= nComponents && nComponents <= nFactors(),
+                "nComponents must be in [1, %d]", nFactors());
 
         this.correlation = correlation;
         this.V = V != null ? new ImmutableMatrix(V) : null;
+        this.nComponents = nComponents;
+    }
+
+    /**
+     * Perform a principal component analysis, using the eigen method,
+     * on a given data matrix with an optional correlation (or covariance) matrix provided.
+     *
+     * @param data        an nObs*nFactors numeric matrix which provides the original data for the principal component analysis
+     * @param correlation a logical value indicating whether the correlation matrix (preferred) or the covariance matrix should be used (N.B. the correlation matrix can only be used if there is no constant variable)
+     * @param V           an optional correlation (or covariance) matrix; if supplied, this is used rather than the correlation (or covariance) matrix of the centered (and possibly scaled) data
+     */
+    public PCAbyEigen(Matrix data, boolean correlation, Matrix V) {
+        this(data, correlation, V, data.nCols());
     }
 
     /**
@@ -130,8 +152,10 @@ public class PCAbyEigen extends PCAImpl {
      * @return the correlation (or covariance) matrix
      */
     public Matrix V() {
-        DenseMatrix cov = correlation ? new CorrelationMatrix(new CovarianceMatrix(X())) : new CovarianceMatrix(X());
-        return V != null ? V : cov;
+        if (V != null) {
+            return V;
+        }
+        return correlation ? new CorrelationMatrix(new CovarianceMatrix(X())) : new CovarianceMatrix(X());
     }
 
     /**
@@ -140,7 +164,18 @@ public class PCAbyEigen extends PCAImpl {
      * @return the eigenvalue decomposition of the correlation (or covariance) matrix
      */
     public Eigen eigen() {
-        return new Eigen(V());
+        Matrix V = V();
+        return new Eigen(V, Eigen.Method.SYMMETRY, SuanShuUtils.autoEpsilon(V));
+    }
+
+    /**
+     * Get the decomposition of the correlation (or covariance) matrix for the {@code nComponents} largest eigenvalues,
+     * computed by the Lanczos method.
+     *
+     * @return the partial eigenvalue decomposition of the correlation (or covariance) matrix
+     */
+    public Lanczos lanczos() {
+        return new Lanczos(V(), nComponents);
     }
 
     /**
@@ -150,8 +185,7 @@ public class PCAbyEigen extends PCAImpl {
      */
     @Override
     public Vector sdPrincipalComponent() {
-        Eigen eigen = this.eigen();
-        double[] eigen_values = eigen.getRealEigenvalues();
+        double[] eigen_values = isPartial() ? lanczos().eigenvalues() : eigen().getRealEigenvalues();
         double[] stdev = DoubleArrayMath.sqrt(eigen_values);
 
         return new DenseVector(stdev);
@@ -164,6 +198,10 @@ public class PCAbyEigen extends PCAImpl {
      */
     @Override
     public Matrix loadings() {
+        if (isPartial()) {
+            return lanczos().Q();
+        }
+
         Eigen eigen = this.eigen();
         double[] eigen_values = eigen.getRealEigenvalues();
         int length = eigen_values.length;
@@ -196,4 +234,8 @@ public class PCAbyEigen extends PCAImpl {
 
         return new DenseVector(var).scaled(1. / total_var);
     }
+
+    private boolean isPartial() {
+        return nComponents < nFactors();
+    }
 }
@@ -22,8 +22,12 @@
  */
 package com.numericalmethod.suanshu.stats.pca;
 
+import com.numericalmethod.suanshu.matrix.doubles.factorization.svd.RandomizedSVD;
 import com.numericalmethod.suanshu.matrix.doubles.factorization.svd.SVD;
+import com.numericalmethod.suanshu.matrix.doubles.factorization.svd.SVDDecomposition;
+import com.numericalmethod.suanshu.matrix.doubles.operation.MatrixMeasure;
 import com.numericalmethod.suanshu.misc.R;
+import static com.numericalmethod.suanshu.misc.SuanShuUtils.assertArgument;
 import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
 import com.numericalmethod.suanshu.matrix.doubles.Matrix;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
@@ -51,10 +55,14 @@ public class PCAbySVD extends PCAImpl {
     private final boolean scaled;
     private final ImmutableVector mean;//make sure this does change anywhere in and out of this class
     private final ImmutableVector scale;//make sure this does change anywhere in and out of this class
+    private final int nComponents;
 
     /**
      * Perform a Principal Component Analysis, using the preferred SVD method,
-     * on a given data matrix with (optional) mean vector and scaling vector provided.
+     * on a given data matrix with (optional) mean vector and scaling vector provided,
+     * computing only the first few principal components.
+     * If {@code nComponents} is less than the number of variables,
+     * only the largest singular values and their singular vectors are computed, approximately, by {@link RandomizedSVD}.
      *
      * @param data a matrix which provides the original data for the principal component analysis
      * @param centered a logical value indicating whether the variables should be shifted to be zero centered
@@ -62,14 +70,34 @@ public class PCAbySVD extends PCAImpl {
      * (N.B. in general scaling is advisable; however, it should only be used if there is no constant variable)
      * @param mean an optional mean vector (of length equal to nFactors) to be subtracted regardless of the flag 'centered'
      * @param scale an optional scaling vector (of length equal to nFactors) to be divided regardless of the flag 'scaled'
+     * @param nComponents the number of principal components to compute
      */
-    public PCAbySVD(Matrix data, boolean centered, boolean scaled, Vector mean, Vector scale) {
+    public PCAbySVD(Matrix data, boolean centered, boolean scaled, Vector mean, Vector scale, int nComponents) {
         super(data);
 
+        assertArgument(1 <= nComponents && nComponents <= nFactors(),
+                "nComponents must be in [1, %d]", nFactors());
+
         this.centered = centered;
         this.scaled = scaled;
         this.mean = mean != null ? new ImmutableVector(mean) : null;
         this.scale = scale != null ? new ImmutableVector(scale) : null;
+        this.nComponents = nComponents;
+    }
+
+    /**
+     * Perform a Principal Component Analysis, using the preferred SVD method,
+     * on a given data matrix with (optional) mean vector and scaling vector provided.
+     *
+     * @param data a matrix which provides the original data for the principal component analysis
+     * @param centered a logical value indicating whether the variables should be shifted to be zero centered
+     * @param scaled a logical value indicating whether the variables should be scaled to have unit variance before the analysis takes place
+     * (N.B. in general scaling is advisable; however, it should only be used if there is no constant variable)
+     * @param mean an optional mean vector (of length equal to nFactors) to be subtracted regardless of the flag 'centered'
+     * @param scale an optional scaling vector (of length equal to nFactors) to be divided regardless of the flag 'scaled'
+     */
+    public PCAbySVD(Matrix data, boolean centered, boolean scaled, Vector mean, Vector scale) {
+        this(data, centered, scaled, mean, scale, data.nCols());
     }
 
     /**
@@ -148,7 +176,7 @@ public class PCAbySVD extends PCAImpl {
      * @return the standard deviations of the principal components
      */
     public DenseVector sdPrincipalComponent() {
-        SVD svd = svd();
+        SVDDecomposition svd = decomposition();
         double[] singular_values = svd.getSingularValues();
         int length = singular_values.length;
 
@@ -167,7 +195,34 @@ public class PCAbySVD extends PCAImpl {
      * @return the matrix of variable loadings
      */
     public Matrix loadings() {
-        SVD svd = svd();
+        SVDDecomposition svd = decomposition();
         return svd.V();
     }
+
+    /**
+     * Get the proportion of overall variance explained by each of the principal components.
+     * The overall variance is the sum of the variances of the (possibly centered and/or scaled) variables,
+     * so that it is available even when only the first few principal components are computed.
+     *
+     * @return the proportion of overall variance explained by each of the principal components
+     */
+    @Override
+    public Vector proportionVar() {
+        Vector sd = sdPrincipalComponent();
+
+        final double norm = MatrixMeasure.Frobenius(X());
+        final double total_var = norm * norm / Math.max(1, this.nObs() - 1);
+        int length = sd.size();
+
+        double[] var = new double[length];
+        for (int i = 0; i < length; ++i) {
+            var[i] = Math.pow(sd.get(i + 1), 2);
+        }
+
+        return new DenseVector(var).scaled(1. / total_var);
+    }
+
+    private SVDDecomposition decomposition() {
+        return nComponents < nFactors() ? new RandomizedSVD(X(), nComponents) : svd();
+    }
 }
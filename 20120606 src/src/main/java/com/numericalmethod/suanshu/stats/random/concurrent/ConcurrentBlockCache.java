@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT, 
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.random.concurrent;
+
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A lock-free cache of blocks of primitive random numbers, shared by many consumer threads.
+ * <p/>
+ * Each consumer thread takes a whole block at a time and uses it up on its own, with no synchronization.
+ * The threads therefore meet only once per block, on a lock-free queue, instead of once per number on a shared counter.
+ * <p/>
+ * The blocks are filled ahead of time by a producer task in the background,
+ * so that a few blocks are always ready while the current ones are used.
+ * The producers run on their own daemon threads, not in a pool that the consumers may be running in,
+ * so a consumer waiting for a block never keeps the producer from running.
+ * The underlying generator is never used by two threads at the same time:
+ * only whoever holds {@link #producing} fills a block.
+ * If no block is ready when a thread needs one, the thread fills one itself,
+ * unless another thread is filling one, in which case it waits for that block.
+ * The generator is held for one block at a time, so the wait is short.
+ * No thread ever blocks on a lock.
+ * <p/>
+ * Used up blocks are recycled, so there is no allocation once the cache is warmed up.
+ *
+ * @param <B> the type of a block, e.g., {@code double[]}
+ */
+abstract class ConcurrentBlockCache<B> {
+
+    private static class ProducersHolder { // thread-safe lazy initialization idiom
+
+        private static final ExecutorService instance = Executors.newCachedThreadPool(new ThreadFactory() {
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "suanshu-rng-producer");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+
+    /**
+     * the current block of a thread and the index of the next number in it
+     *
+     * @param <B> the type of a block
+     */
+    static class Cursor<B> {
+
+        B block;
+        int next;
+    }
+    private final int blockSize;
+    /** the number of blocks to keep ready */
+    private final int depth;
+    private final ConcurrentLinkedQueue<B> ready = new ConcurrentLinkedQueue<B>();
+    private final ConcurrentLinkedQueue<B> free = new ConcurrentLinkedQueue<B>();
+    private final AtomicInteger nReady = new AtomicInteger(0);
+    /** {@code true} when a thread is using the underlying generator */
+    private final AtomicBoolean producing = new AtomicBoolean(false);
+    private final ThreadLocal<Cursor<B>> cursors = new ThreadLocal<Cursor<B>>() {
+
+        @Override
+        protected Cursor<B> initialValue() {
+            Cursor<B> cursor = new Cursor<B>();
+            cursor.next = blockSize;
+            return cursor;
+        }
+    };
+    /** {@code true} when a producer task is scheduled or running */
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private final Runnable producer = new Runnable() {
+
+        @Override
+        public void run() {
+            try {
+                while (nReady.get() < depth) {
+                    if (!tryProduce()) {
+                        break;//a consumer is filling a block
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+            }
+        }
+    };
+
+    /**
+     * Construct a cache of blocks of random numbers, which keeps a block ready for each core.
+     *
+     * @param blockSize the number of random numbers in a block
+     */
+    ConcurrentBlockCache(int blockSize) {
+        SuanShuUtils.assertArgument(blockSize > 0, "the block size must be positive");
+
+        this.blockSize = blockSize;
+        this.depth = Math.max(2, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Allocate a block.
+     *
+     * @param size the number of random numbers in a block
+     * @return an empty block
+     */
+    abstract B newBlock(int size);
+
+    /**
+     * Fill a block from the underlying generator.
+     * This is never called by two threads at the same time.
+     *
+     * @param block a block
+     */
+    abstract void fill(B block);
+
+    /**
+     * Get the current block of the calling thread, with at least one number left.
+     * The caller takes the number at {@code cursor.next} and increments it.
+     *
+     * @return the cursor of the calling thread
+     */
+    final Cursor<B> cursor() {
+        Cursor<B> cursor = cursors.get();
+        if (cursor.next == blockSize) {
+            if (cursor.block != null) {
+                free.offer(cursor.block);
+            }
+            cursor.block = take();
+            cursor.next = 0;
+        }
+        return cursor;
+    }
+
+    /**
+     * Seed the underlying generator, and discard the blocks that are ready.
+     * The blocks being used by the other threads are not discarded.
+     *
+     * @param seeder seeds the underlying generator
+     */
+    final void reseed(Runnable seeder) {
+        while (!producing.compareAndSet(false, true)) {
+            Thread.yield();
+        }
+        try {
+            seeder.run();
+            for (B block; (block = ready.poll()) != null;) {
+                nReady.decrementAndGet();
+                free.offer(block);
+            }
+            Cursor<B> cursor = cursors.get();
+            cursor.next = blockSize;
+        } finally {
+            producing.set(false);
+        }
+    }
+
+    private B take() {
+        for (;;) {
+            B block = ready.poll();
+            if (block != null) {
+                if (nReady.decrementAndGet() < depth) {
+                    produceInBackground();
+                }
+                return block;
+            }
+
+            tryProduce();//no block is ready; fill one unless someone else is doing it
+        }
+    }
+
+    /**
+     * Fill a block and make it ready, unless another thread is using the underlying generator.
+     *
+     * @return {@code true} if a block is made ready
+     */
+    private boolean tryProduce() {
+        if (!producing.compareAndSet(false, true)) {
+            Thread.yield();
+            return false;
+        }
+        try {
+            ready.offer(fill());
+            nReady.incrementAndGet();
+            return true;
+        } finally {
+            producing.set(false);
+        }
+    }
+
+    private void produceInBackground() {
+        if (scheduled.compareAndSet(false, true)) {
+            ProducersHolder.instance.execute(producer);
+        }
+    }
+
+    /**
+     * Fill a recycled or new block.
+     * The caller holds {@link #producing}.
+     */
+    private B fill() {
+        B block = free.poll();
+        if (block == null) {
+            block = newBlock(blockSize);
+        }
+        fill(block);
+        return block;
+    }
+}
@@ -22,72 +22,102 @@
  */
 package com.numericalmethod.suanshu.stats.random.concurrent;
 
-import com.numericalmethod.suanshu.stats.random.concurrent.ConcurrentCachedGenerator.Generator;
+import com.numericalmethod.suanshu.stats.random.concurrent.ConcurrentBlockCache.Cursor;
 import com.numericalmethod.suanshu.stats.random.univariate.RandomLongGenerator;
-import com.numericalmethod.suanshu.stats.random.univariate.RandomNumberGenerator;
 
 /**
- * This is a fast thread-safe wrapper for random long generators. This class
- * is backed by {@link ConcurrentCachedGenerator}.
+ * This is a fast thread-safe wrapper for random long generators.
+ * Each thread takes the numbers a block at a time, and uses up its block without synchronization.
+ * The blocks are filled from the underlying generator in the background, ahead of time.
+ * This class is backed by {@link ConcurrentBlockCache}.
  *
  * @author Johannes Lehmann
  */
 public class ConcurrentCachedRLG implements RandomLongGenerator {
 
-    private final ConcurrentCachedGenerator<Long> concurrentGenerator;
-    private final RandomNumberGenerator rlg;
+    /** the default number of random numbers a thread takes at a time */
+    private static final int CACHE_SIZE = 1024;
+    private final ConcurrentBlockCache<long[]> cache;
+    private final RandomLongGenerator rlg;
 
     /**
-     * Constructs a new instance which wraps the given random long generator and
-     * uses a cache of the specified size. A larger cache will make the
-     * simulation slightly faster at the expense of increased memory usage, but
-     * can lead to unnecessary computation of values at the tail.
+     * Constructs a new instance which wraps the given random long generator.
+     * A thread takes {@code cacheSize} numbers at a time.
+     * A larger cache will make the simulation slightly faster at the expense of increased memory usage,
+     * but can lead to the computation of unnecessary values at the tail.
      *
      * @param rlg       the underlying generator
-     * @param cacheSize the cache size
-     * @see ConcurrentCachedGenerator#ConcurrentCachedGenerator(com.numericalmethod.suanshu.stats.random.concurrent.ConcurrentCachedGenerator.Generator, int)
+     * @param cacheSize the number of random numbers a thread takes at a time
      */
     public ConcurrentCachedRLG(final RandomLongGenerator rlg, int cacheSize) {
         this.rlg = rlg;
-        this.concurrentGenerator = new ConcurrentCachedGenerator<Long>(
-                new Generator<Long>() {
+        this.cache = new ConcurrentBlockCache<long[]>(cacheSize) {
 
-                    @Override
-                    public Long next() {
-                        return rlg.nextLong();
-                    }
-                },
-                cacheSize);
+            @Override
+            long[] newBlock(int size) {
+                return new long[size];
+            }
+
+            @Override
+            void fill(long[] block) {
+                rlg.nextLongs(block, 0, block.length);
+            }
+        };
     }
 
     /**
-     * Construct a new instance which wraps the given random long generator and
-     * uses a cache which has 8 entries per available core.
+     * Construct a new instance which wraps the given random long generator.
+     * A thread takes {@value #CACHE_SIZE} numbers at a time.
      *
      * @param rlg the underlying generator
      */
     public ConcurrentCachedRLG(RandomLongGenerator rlg) {
-        this(rlg, Runtime.getRuntime().availableProcessors() * 8);
+        this(rlg, CACHE_SIZE);
     }
 
     @Override
     public long nextLong() {
-        return concurrentGenerator.next();
+        Cursor<long[]> cursor = cache.cursor();
+        return cursor.block[cursor.next++];
     }
 
     /**
-     * Delegate to the underlying random long generator.
-     * Note: <em>this method is NOT thread-safe.</em>
+     * {@inheritDoc}
      *
-     * @param seeds the seeds
+     * This implementation copies the numbers from the blocks.
      */
     @Override
-    public void seed(long... seeds) {
-        rlg.seed(seeds);
+    public void nextLongs(long[] out, int off, int len) {
+        while (len > 0) {
+            Cursor<long[]> cursor = cache.cursor();
+            final int n = Math.min(len, cursor.block.length - cursor.next);
+            System.arraycopy(cursor.block, cursor.next, out, off, n);
+            cursor.next += n;
+            off += n;
+            len -= n;
+        }
     }
 
     @Override
     public double nextDouble() {
-        return (double) concurrentGenerator.next();
+        return (double) nextLong();
+    }
+
+    /**
+     * Delegate to the underlying random long generator, and discard the numbers that are ready but not yet taken.
+     * Note: <em>this method is NOT thread-safe.</em>
+     * The numbers already taken by the other threads are not discarded.
+     *
+     * @param seeds the seeds
+     */
+    @Override
+    public void seed(final long... seeds) {
+        cache.reseed(new Runnable() {
+
+            @Override
+            public void run() {
+                rlg.seed(seeds);
+            }
+        });
     }
 }
@@ -22,66 +22,97 @@
  */
 package com.numericalmethod.suanshu.stats.random.concurrent;
 
-import com.numericalmethod.suanshu.stats.random.concurrent.ConcurrentCachedGenerator.Generator;
+import com.numericalmethod.suanshu.stats.random.concurrent.ConcurrentBlockCache.Cursor;
 import com.numericalmethod.suanshu.stats.random.univariate.RandomNumberGenerator;
 
 /**
- * This is a fast thread-safe wrapper for random number generators. This class
- * is backed by {@link ConcurrentCachedGenerator}.
+ * This is a fast thread-safe wrapper for random number generators.
+ * Each thread takes the numbers a block at a time, and uses up its block without synchronization.
+ * The blocks are filled from the underlying generator in the background, ahead of time.
+ * This class is backed by {@link ConcurrentBlockCache}.
  *
  * @author Johannes Lehmann
  */
 public class ConcurrentCachedRNG implements RandomNumberGenerator {
 
-    private final ConcurrentCachedGenerator<Double> concurrentGenerator;
+    /** the default number of random numbers a thread takes at a time */
+    private static final int CACHE_SIZE = 1024;
+    private final ConcurrentBlockCache<double[]> cache;
     private final RandomNumberGenerator rng;
 
     /**
-     * Constructs a new instance which wraps the given random number generator
-     * and uses a cache of the specified size. A larger cache will make the
-     * simulation slightly faster at the expense of increased memory usage, but
-     * can lead to the computation of unnecessary values at the tail.
+     * Constructs a new instance which wraps the given random number generator.
+     * A thread takes {@code cacheSize} numbers at a time.
+     * A larger cache will make the simulation slightly faster at the expense of increased memory usage,
+     * but can lead to the computation of unnecessary values at the tail.
      *
      * @param rng       the underlying generator
-     * @param cacheSize the cache size
-     * @see ConcurrentCachedGenerator#ConcurrentCachedGenerator(com.numericalmethod.suanshu.stats.random.concurrent.ConcurrentCachedGenerator.Generator, int)
+     * @param cacheSize the number of random numbers a thread takes at a time
      */
     public ConcurrentCachedRNG(final RandomNumberGenerator rng, int cacheSize) {
         this.rng = rng;
-        this.concurrentGenerator = new ConcurrentCachedGenerator<Double>(
-                new Generator<Double>() {
+        this.cache = new ConcurrentBlockCache<double[]>(cacheSize) {
 
-                    @Override
-                    public Double next() {
-                        return rng.nextDouble();
-                    }
-                },
-                cacheSize);
+            @Override
+            double[] newBlock(int size) {
+                return new double[size];
+            }
+
+            @Override
+            void fill(double[] block) {
+                rng.nextDoubles(block, 0, block.length);
+            }
+        };
     }
 
     /**
-     * Construct a new instance which wraps the given random number generator and
-     * uses a cache which has 8 entries per available core.
+     * Construct a new instance which wraps the given random number generator.
+     * A thread takes {@value #CACHE_SIZE} numbers at a time.
      *
      * @param rng the underlying generator
      */
     public ConcurrentCachedRNG(RandomNumberGenerator rng) {
-        this(rng, Runtime.getRuntime().availableProcessors() * 8);
+        this(rng, CACHE_SIZE);
     }
 
     @Override
     public double nextDouble() {
-        return concurrentGenerator.next();
+        Cursor<double[]> cursor = cache.cursor();
+        return cursor.block[cursor.next++];
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * This implementation copies the numbers from the blocks.
+     */
+    @Override
+    public void nextDoubles(double[] out, int off, int len) {
+        while (len > 0) {
+            Cursor<double[]> cursor = cache.cursor();
+            final int n = Math.min(len, cursor.block.length - cursor.next);
+            System.arraycopy(cursor.block, cursor.next, out, off, n);
+            cursor.next += n;
+            off += n;
+            len -= n;
+        }
     }
 
     /**
-     * Delegate to the underlying random number generator.
+     * Delegate to the underlying random number generator, and discard the numbers that are ready but not yet taken.
      * Note: <em>this method is NOT thread-safe.</em>
+     * The numbers already taken by the other threads are not discarded.
      *
      * @param seeds the seeds
      */
     @Override
-    public void seed(long... seeds) {
-        rng.seed(seeds);
+    public void seed(final long... seeds) {
+        cache.reseed(new Runnable() {
+
+            @Override
+            public void run() {
+                rng.seed(seeds);
+            }
+        });
     }
 }
@@ -32,6 +32,8 @@ package com.numericalmethod.suanshu.stats.random.univariate;
  * <blockquote><code>
  * RandomLongGenerator rng = RandomNumberGenerators.synchronizedRLG(new MersenneTwister());
  * </code></blockquote>
+ * A synchronized generator serializes the draws, and the numbers each thread gets depend on the scheduling.
+ * To draw in parallel and reproducibly, give each task its own substream of a {@link SplittableRandomLongGenerator}.
  *
  * @author Haksun Li
  */
@@ -43,4 +45,21 @@ public interface RandomLongGenerator extends RandomNumberGenerator {
      * @return the next random {@code long}
      */
     public long nextLong();
+
+    /**
+     * Fill an array with the next random {@code long}s.
+     * The numbers are the same as those returned by {@code len} calls to {@link #nextLong()},
+     * and the generator is left in the same state.
+     * This default implementation does exactly that.
+     * A generator overrides it to produce a block of numbers in a tight loop over its state.
+     *
+     * @param out the array to fill
+     * @param off the index of the first number in {@code out}
+     * @param len the number of random numbers to generate
+     */
+    public default void nextLongs(long[] out, int off, int len) {
+        for (int i = off, end = off + len; i < end; ++i) {
+            out[i] = nextLong();
+        }
+    }
 }
@@ -58,4 +58,34 @@ public interface RandomNumberGenerator {
      * @return the next random number
      */
     public double nextDouble();
+
+    /**
+     * Fill an array with the next random {@code double}s.
+     * The numbers are the same as those returned by {@code len} calls to {@link #nextDouble()},
+     * and the generator is left in the same state.
+     * This default implementation does exactly that.
+     * A generator overrides it to produce a block of numbers in a tight loop over its state.
+     *
+     * @param out the array to fill
+     * @param off the index of the first number in {@code out}
+     * @param len the number of random numbers to generate
+     */
+    public default void nextDoubles(double[] out, int off, int len) {
+        for (int i = off, end = off + len; i < end; ++i) {
+            out[i] = nextDouble();
+        }
+    }
+
+    /**
+     * Get the next {@code n} random {@code double}s.
+     *
+     * @param n the number of random numbers to generate
+     * @return the next {@code n} random numbers
+     * @see #nextDoubles(double[], int, int)
+     */
+    public default double[] nextDoubles(int n) {
+        double[] result = new double[n];
+        nextDoubles(result, 0, n);
+        return result;
+    }
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT, 
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.random.univariate;
+
+/**
+ * A splittable random number generator hands out independent substreams of random numbers, indexed by a {@code long}.
+ * The <i>i</i>-th substream depends only on the seed of this generator and on <i>i</i>;
+ * it does not depend on how many numbers this generator has already generated,
+ * nor on which thread asks for it, nor in what order the substreams are asked for.
+ * <p/>
+ * In a parallel computation, each task takes the substream of its own index.
+ * The tasks then draw their random numbers without any locking,
+ * and the result is the same, bit for bit, whatever the number of threads is.
+ * <blockquote><code>
+ * final SplittableRandomLongGenerator rng = new Philox(1234567890L);
+ * new ParallelExecutor().forLoop(0, n, new LoopBody() {
+ *     public void run(int i) {
+ *         RandomLongGenerator uniform = rng.substream(i);
+ *         ...
+ *     }
+ * });
+ * </code></blockquote>
+ */
+public interface SplittableRandomLongGenerator extends RandomLongGenerator {
+
+    /**
+     * Get the {@code index}-th substream.
+     * The substreams of different indices do not overlap for as many random numbers as a task can reasonably draw.
+     * A substream is a new generator; it is not shared with this generator or with the other substreams.
+     *
+     * @param index a non-negative index of the substream
+     * @return a generator of the {@code index}-th substream
+     */
+    public SplittableRandomLongGenerator substream(long index);
+}
@@ -41,6 +41,8 @@ import static java.lang.Math.*;
  */
 public class BoxMuller implements RandomStandardNormalNumberGenerator {
 
+    /** the number of random numbers generated at a time in {@link #nextDoubles(double[], int, int)} */
+    private static final int BLOCK = 256;
     private double z1 = Double.NaN;
     private double z2 = Double.NaN;//save the second random number
     private boolean next;//is the next sample available
@@ -79,6 +81,30 @@ public class BoxMuller implements RandomStandardNormalNumberGenerator {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * This implementation draws the uniform random numbers by blocks, and transforms them in a loop.
+     * As in {@link #nextDouble()}, each sample takes two uniform random numbers.
+     */
+    @Override
+    public void nextDoubles(double[] out, int off, int len) {
+        double[] u = new double[2 * Math.min(len, BLOCK)];
+        for (int k = 0; k < len;) {
+            final int n = Math.min(len - k, BLOCK);
+            uniform.nextDoubles(u, 0, 2 * n);
+            for (int i = 0; i < n; ++i, ++k) {
+                out[off + k] = sqrt(-2d * log(u[2 * i])) * cos(2d * Math.PI * u[2 * i + 1]);
+            }
+            if (k == len) {//keep the state as if by nextDouble()
+                final double r = -2d * log(u[2 * n - 2]);
+                final double v = 2d * Math.PI * u[2 * n - 1];
+                this.z1 = sqrt(r) * cos(v);
+                this.z2 = sqrt(r) * sin(v);
+            }
+        }
+    }
+
     private void generate() {
         double u1 = uniform.nextDouble();
         double u2 = uniform.nextDouble();
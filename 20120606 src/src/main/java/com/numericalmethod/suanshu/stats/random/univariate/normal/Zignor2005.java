@@ -49,7 +49,7 @@ public class Zignor2005 implements RandomStandardNormalNumberGenerator {
     private static double[] s_adZigX = new double[ZIGNOR_C + 1];
     private static double[] s_adZigR = new double[ZIGNOR_C];
 
-    {
+    static {
         zigNorInit(ZIGNOR_C, ZIGNOR_R, ZIGNOR_V);
     }
 
@@ -89,6 +89,48 @@ public class MWC8222 implements RandomLongGenerator {
         return RANDBL_32new(t);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * This implementation keeps the state index and the carry in local variables during the loop.
+     */
+    @Override
+    public void nextLongs(long[] out, int off, int len) {
+        final long[] state = s_auiStateMWC;
+        int index = s_uiStateMWC;
+        int carry = s_uiCarryMWC;
+        for (int k = off, end = off + len; k < end; ++k) {
+            index = (index + 1) & (MWC_R - 1);
+            final long t = MWC_A * state[index] + carry;
+            carry = (int) (t >> 32);
+            state[index] = (int) t;
+            out[k] = (int) t;
+        }
+        s_uiStateMWC = index;
+        s_uiCarryMWC = carry;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * This implementation keeps the state index and the carry in local variables during the loop.
+     */
+    @Override
+    public void nextDoubles(double[] out, int off, int len) {
+        final long[] state = s_auiStateMWC;
+        int index = s_uiStateMWC;
+        int carry = s_uiCarryMWC;
+        for (int k = off, end = off + len; k < end; ++k) {
+            index = (index + 1) & (MWC_R - 1);
+            final long t = MWC_A * state[index] + carry;
+            carry = (int) (t >> 32);
+            state[index] = (int) t;
+            out[k] = RANDBL_32new(t);
+        }
+        s_uiStateMWC = index;
+        s_uiCarryMWC = carry;
+    }
+
     private static double RANDBL_32new(long iRan1) {
         return (((int) (iRan1)) * M_RAN_INVM32 + (0.5 + M_RAN_INVM32 / 2));
     }
@@ -22,7 +22,9 @@
  */
 package com.numericalmethod.suanshu.stats.random.univariate.uniform;
 
-import com.numericalmethod.suanshu.stats.random.univariate.RandomLongGenerator;
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import com.numericalmethod.suanshu.stats.random.univariate.SplittableRandomLongGenerator;
+import java.math.BigInteger;
 
 /**
  * Mersenne Twister is one of the best pseudo random number generators available.
@@ -80,23 +82,30 @@ import com.numericalmethod.suanshu.stats.random.univariate.RandomLongGenerator;
  * <ul>
  * <li><a href="http://www.math.sci.hiroshima-u.ac.jp/~m-mat/MT/MT2002/CODES/mt19937ar.c">The original C code</a>
  * <li><a href="http://en.wikipedia.org/wiki/Mersenne_twister">Wikipedia: Mersenne twister</a>
+ * <li>{@link MersenneTwisterJump}
  * </ul>
  */
-public class MersenneTwister implements RandomLongGenerator {
+public class MersenneTwister implements SplittableRandomLongGenerator {
 
     //Magic constants for Mersenne Twister
     private static final int LENGTH = 624;
     private static final int OFFSET = 397;
     private static final int MATRIX_A = 0x9908b0df;
-    private static final int[] MAG01 = {0x0, MATRIX_A};
     /** most significant w-r bits */
     private static final int UPPER_MASK = 0x80000000;
     /** least significant r bits */
     private static final int LOWER_MASK = 0x7fffffff;
+    /** the number of random numbers in a substream */
+    private static final BigInteger STRIDE = BigInteger.ONE.shiftLeft(64);
+    /** a jump shorter than this is done by generating the numbers */
+    private static final int JUMP_BY_GENERATION = 1 << 24;
     /** the array for the state vector */
     private int[] mt = new int[LENGTH];
     /** current index in mt[]; mti==LENGTH+1 means mt is not initialized */
     private int mti = LENGTH + 1;
+    /** the state when seeded, from which the substreams start */
+    private int[] originMt;
+    private int originMti;
 
     /**
      * Construct a random number generator to sample uniformly from [0, 1].
@@ -114,6 +123,12 @@ public class MersenneTwister implements RandomLongGenerator {
         seed(seeds);
     }
 
+    private MersenneTwister(int[] mt, int mti) {
+        this.mt = mt;
+        this.mti = mti;
+        mark();
+    }
+
     @Override
     public void seed(long... seeds) {
         if (seeds.length == 1) {
@@ -121,13 +136,79 @@ public class MersenneTwister implements RandomLongGenerator {
         } else {
             seedByArray(seeds);
         }
+        mark();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The {@code index}-th substream starts 2<sup>64</sup> * {@code index} numbers after the seed
+     * (or after the start of this substream).
+     * In particular, {@code substream(0)} repeats the numbers of this generator since the seed.
+     * This implementation jumps ahead by polynomial arithmetic over GF(2), which takes about a tenth of a second.
+     * It is meant for handing out a substream per task, not per random number.
+     * For many small tasks, {@link Philox} is much cheaper.
+     */
+    @Override
+    public MersenneTwister substream(long index) {
+        SuanShuUtils.assertArgument(index >= 0, "the index must be non-negative");
+
+        MersenneTwister result = new MersenneTwister(originMt.clone(), originMti);
+        result.jump(STRIDE.multiply(BigInteger.valueOf(index)));
+        result.mark();
+        return result;
+    }
+
+    /**
+     * Skip the next {@code n} numbers, as if {@link #nextLong()} is called {@code n} times.
+     * A long jump is done by polynomial arithmetic over GF(2) in time independent of {@code n}.
+     *
+     * @param n the number of random numbers to skip
+     */
+    public void jump(long n) {
+        SuanShuUtils.assertArgument(n >= 0, "n must be non-negative");
+        jump(BigInteger.valueOf(n));
+    }
+
+    private void jump(BigInteger n) {
+        if (n.compareTo(BigInteger.valueOf(JUMP_BY_GENERATION)) < 0) {
+            for (int k = n.intValue(); k > 0;) {
+                if (mti >= LENGTH) {
+                    generate();
+                }
+                final int s = Math.min(LENGTH - mti, k);
+                mti += s;
+                k -= s;
+            }
+        } else {//mt[] is the window of the sequence before the next number by min(mti, LENGTH)
+            mt = MersenneTwisterJump.jump(mt, n.add(BigInteger.valueOf(Math.min(mti, LENGTH))));
+            mti = 0;
+        }
+    }
+
+    /**
+     * Mark the current state as the start of the substreams.
+     */
+    private void mark() {
+        originMt = mt.clone();
+        originMti = mti;
+    }
+
+    /**
+     * Get a copy of the state vector.
+     *
+     * @return the state vector
+     */
+    int[] state() {
+        return mt.clone();
     }
 
     @Override
     public long nextLong() {
-        int rand = next(32);
-        long randL = unsignedLong(rand);
-        return randL;
+        if (mti >= LENGTH) {
+            generate();
+        }
+        return temper(mt[mti++]) & 0xffffffffL;
     }
 
     @Override
@@ -135,6 +216,46 @@ public class MersenneTwister implements RandomLongGenerator {
         return nextLong() / 4294967295.0;//divided by 2^32-1
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * This implementation tempers the words of the state vector in a loop, and regenerates the whole vector when it is used up.
+     */
+    @Override
+    public void nextLongs(long[] out, int off, int len) {
+        for (int i = off, end = off + len; i < end;) {
+            if (mti >= LENGTH) {
+                generate();
+            }
+            final int n = Math.min(LENGTH - mti, end - i);
+            for (int k = 0; k < n; ++k) {
+                out[i + k] = temper(mt[mti + k]) & 0xffffffffL;
+            }
+            mti += n;
+            i += n;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * This implementation tempers the words of the state vector in a loop, and regenerates the whole vector when it is used up.
+     */
+    @Override
+    public void nextDoubles(double[] out, int off, int len) {
+        for (int i = off, end = off + len; i < end;) {
+            if (mti >= LENGTH) {
+                generate();
+            }
+            final int n = Math.min(LENGTH - mti, end - i);
+            for (int k = 0; k < n; ++k) {
+                out[i + k] = (temper(mt[mti + k]) & 0xffffffffL) / 4294967295.0;
+            }
+            mti += n;
+            i += n;
+        }
+    }
+
     private void seedByValue(long seed) {
         mt[0] = (int) seed;
 
@@ -183,37 +304,35 @@ public class MersenneTwister implements RandomLongGenerator {
         mti = LENGTH + 1;
     }
 
-    private int next(int bits) {
-        int y;
-
-        if (mti >= LENGTH) {//generate all words at one time
-            int k;
-
-            for (k = 0; k < LENGTH - OFFSET; ++k) {
-                y = (mt[k] & UPPER_MASK) | (mt[k + 1] & LOWER_MASK);
-                mt[k] = mt[k + OFFSET] ^ (y >>> 1) ^ MAG01[y & 0x1];
-            }
-
-            for (k = (LENGTH - OFFSET); k < LENGTH - 1; ++k) {
-                y = (mt[k] & UPPER_MASK) | (mt[k + 1] & LOWER_MASK);
-                mt[k] = mt[k + (OFFSET - LENGTH)] ^ (y >>> 1) ^ MAG01[y & 0x1];
-            }
+    /**
+     * Generate all the {@value #LENGTH} words of the state vector at one time.
+     */
+    private void generate() {
+        final int[] mt = this.mt;
+        int y, k;
 
-            y = (mt[LENGTH - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
-            mt[LENGTH - 1] = mt[OFFSET - 1] ^ (y >>> 1) ^ MAG01[y & 0x1];
+        for (k = 0; k < LENGTH - OFFSET; ++k) {
+            y = (mt[k] & UPPER_MASK) | (mt[k + 1] & LOWER_MASK);
+            mt[k] = mt[k + OFFSET] ^ (y >>> 1) ^ (-(y & 0x1) & MATRIX_A);
+        }
 
-            mti = 0;
+        for (; k < LENGTH - 1; ++k) {
+            y = (mt[k] & UPPER_MASK) | (mt[k + 1] & LOWER_MASK);
+            mt[k] = mt[k + (OFFSET - LENGTH)] ^ (y >>> 1) ^ (-(y & 0x1) & MATRIX_A);
         }
 
-        y = mt[mti++];
+        y = (mt[LENGTH - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
+        mt[LENGTH - 1] = mt[OFFSET - 1] ^ (y >>> 1) ^ (-(y & 0x1) & MATRIX_A);
 
-        //tempering
+        mti = 0;
+    }
+
+    private static int temper(int y) {
         y ^= (y >>> 11);
-        y ^= (y << 7) & 0x9d2c5680L;
-        y ^= (y << 15) & 0xefc60000L;
+        y ^= (y << 7) & 0x9d2c5680;
+        y ^= (y << 15) & 0xefc60000;
         y ^= (y >>> 18);
-
-        return y >>> (32 - bits);
+        return y;
     }
 
     private long unsignedLong(int v) {//TODO: move this to some Util?
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT, 
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.random.univariate.uniform;
+
+import java.math.BigInteger;
+
+/**
+ * This is the jump-ahead of {@link MersenneTwister}.
+ * The state transition <i>T</i> of Mersenne Twister is linear over GF(2).
+ * To jump <i>n</i> steps ahead, we compute the polynomial <i>g(x) = x<sup>n</sup> mod φ(x)</i>,
+ * where <i>φ</i> is the characteristic polynomial of <i>T</i>, which has degree 19937.
+ * Then <i>T<sup>n</sup> s = g(T) s</i>, which is a sum of 19937 consecutive states.
+ * <p/>
+ * The state here is a window of 624 consecutive words of the sequence generated by the recurrence,
+ * <i>w<sub>k+624</sub> = w<sub>k+397</sub> ⊕ twist(w<sub>k</sub>, w<sub>k+1</sub>)</i>.
+ * The lower 31 bits of the first word are not used by the recurrence, so <i>φ(T) s = 0</i> only for a window that is
+ * generated by the recurrence, i.e., not the seeded one.
+ * We therefore always take one step before the jump.
+ * <p/>
+ * <i>φ</i> is computed once, by the Berlekamp-Massey algorithm on a bit of the sequence.
+ * @see "H. Haramoto, M. Matsumoto, T. Nishimura, F. Panneton, and P. L'Ecuyer, "Efficient jump ahead for F2-linear random number generators," INFORMS Journal on Computing 20(3):385-390, 2008."
+ */
+final class MersenneTwisterJump {
+
+    private static final int LENGTH = 624;
+    private static final int OFFSET = 397;
+    private static final int MATRIX_A = 0x9908b0df;
+    private static final int UPPER_MASK = 0x80000000;
+    private static final int LOWER_MASK = 0x7fffffff;
+    /** the degree of the characteristic polynomial */
+    private static final int DEGREE = 19937;
+    /** the number of words of a polynomial of degree < {@link #DEGREE} */
+    private static final int WORDS = (DEGREE + 63) / 64;
+
+    private static class CharacteristicPolynomialHolder { // thread-safe lazy initialization idiom
+
+        private static final long[] phi = characteristicPolynomial();
+    }
+
+    private MersenneTwisterJump() {
+        // no constructor for utility
+    }
+
+    /**
+     * Jump a window of the sequence ahead.
+     *
+     * @param window the 624 words <i>w<sub>k</sub>, ..., w<sub>k+623</sub></i>; unchanged
+     * @param n      the number of steps to jump, ≥ 1
+     * @return the 624 words <i>w<sub>k+n</sub>, ..., w<sub>k+n+623</sub></i>
+     */
+    static int[] jump(int[] window, BigInteger n) {
+        final int[] s = window.clone();
+        int head = step(s, 0);//now in the image of T, where φ(T) = 0
+        final long[] g = xPowMod(n.subtract(BigInteger.ONE), CharacteristicPolynomialHolder.phi);
+
+        final int[] result = new int[LENGTH];
+        for (int i = 0; i < DEGREE; ++i) {
+            if ((g[i >>> 6] >>> (i & 63) & 1L) != 0) {
+                for (int j = 0, k = head; j < LENGTH; ++j, k = k + 1 == LENGTH ? 0 : k + 1) {
+                    result[j] ^= s[k];
+                }
+            }
+            head = step(s, head);
+        }
+        return result;
+    }
+
+    /**
+     * Generate the next word of the sequence in a circular window.
+     *
+     * @param s    a circular window of 624 words
+     * @param head the index of the first word of the window
+     * @return the index of the first word of the next window
+     */
+    private static int step(int[] s, int head) {
+        final int next = head + 1 == LENGTH ? 0 : head + 1;
+        final int y = (s[head] & UPPER_MASK) | (s[next] & LOWER_MASK);
+        s[head] = s[(head + OFFSET) % LENGTH] ^ (y >>> 1) ^ (-(y & 0x1) & MATRIX_A);
+        return next;
+    }
+
+    /**
+     * Compute <i>x<sup>n</sup> mod φ(x)</i> by squaring and multiplying by <i>x</i>.
+     *
+     * @param n   the exponent
+     * @param phi the characteristic polynomial
+     * @return <i>x<sup>n</sup> mod φ(x)</i>, of degree < {@value #DEGREE}
+     */
+    private static long[] xPowMod(BigInteger n, long[] phi) {
+        long[] result = new long[2 * WORDS + 1];
+        result[0] = 1L;
+        for (int b = n.bitLength() - 1; b >= 0; --b) {
+            result = square(result);
+            mod(result, phi);
+            if (n.testBit(b)) {
+                shiftLeft1(result);
+                mod(result, phi);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Square a polynomial of degree < {@value #DEGREE} over GF(2), which just spreads out its bits.
+     */
+    private static long[] square(long[] a) {
+        final long[] result = new long[2 * WORDS + 1];
+        for (int w = 0; w < WORDS; ++w) {
+            final long x = a[w];
+            result[2 * w] = spread((int) x);
+            result[2 * w + 1] = spread((int) (x >>> 32));
+        }
+        return result;
+    }
+
+    /**
+     * Interleave the bits of a 32-bit word with zeros.
+     */
+    private static long spread(int x) {
+        long y = x & 0xffffffffL;
+        y = (y | (y << 16)) & 0x0000ffff0000ffffL;
+        y = (y | (y << 8)) & 0x00ff00ff00ff00ffL;
+        y = (y | (y << 4)) & 0x0f0f0f0f0f0f0f0fL;
+        y = (y | (y << 2)) & 0x3333333333333333L;
+        y = (y | (y << 1)) & 0x5555555555555555L;
+        return y;
+    }
+
+    private static void shiftLeft1(long[] a) {
+        for (int w = a.length - 1; w > 0; --w) {
+            a[w] = (a[w] << 1) | (a[w - 1] >>> 63);
+        }
+        a[0] <<= 1;
+    }
+
+    /**
+     * Reduce a polynomial modulo φ in place, by cancelling its leading terms one by one.
+     */
+    private static void mod(long[] a, long[] phi) {
+        for (int i = a.length * 64 - 1; i >= DEGREE; --i) {
+            if ((a[i >>> 6] >>> (i & 63) & 1L) != 0) {
+                xorShifted(a, phi, i - DEGREE);
+            }
+        }
+    }
+
+    /**
+     * {@code a ^= b << shift}
+     */
+    private static void xorShifted(long[] a, long[] b, int shift) {
+        final int words = shift >>> 6;
+        final int bits = shift & 63;
+        if (bits == 0) {
+            for (int w = 0; w < b.length && w + words < a.length; ++w) {
+                a[w + words] ^= b[w];
+            }
+        } else {
+            long carry = 0;
+            for (int w = 0; w < b.length && w + words < a.length; ++w) {
+                a[w + words] ^= (b[w] << bits) | carry;
+                carry = b[w] >>> (64 - bits);
+            }
+            if (b.length + words < a.length) {
+                a[b.length + words] ^= carry;
+            }
+        }
+    }
+
+    /**
+     * Compute the characteristic polynomial of the Mersenne Twister recurrence by the Berlekamp-Massey algorithm
+     * on the lowest bit of <i>2 * 19937</i> words of a sequence.
+     *
+     * @return <i>φ</i>, of degree {@value #DEGREE}
+     */
+    private static long[] characteristicPolynomial() {
+        final int N = 2 * DEGREE;
+        final int[] s = new MersenneTwister(5489L).state();
+        int head = step(s, 0);
+        final long[] bits = new long[(N + 63) / 64 + 1];//in reverse order: bit N-1-k is the k-th bit of the sequence
+        for (int k = 0; k < N; ++k) {
+            final int r = N - 1 - k;
+            bits[r >>> 6] |= ((long) (s[head] & 1)) << (r & 63);
+            head = step(s, head);
+        }
+
+        //the connection polynomial C(x) = 1 + c_1 x + ... + c_L x^L, such that s_k = Σ c_i s_{k-i}
+        final int size = (N + 63) / 64 + 1;
+        long[] C = new long[size], B = new long[size], T = new long[size];
+        C[0] = B[0] = 1L;
+        int L = 0, m = 1;
+        for (int k = 0; k < N; ++k) {
+            //d = s_k + Σ_{i=1..L} c_i s_{k-i}; s_{k-i} is bit N-1-k+i of bits, so this is the parity of C & (bits >> (N-1-k))
+            final int from = N - 1 - k;
+            long d = 0;
+            for (int w = 0; w <= L >>> 6; ++w) {
+                d ^= C[w] & bitsAt(bits, from + 64 * w);
+            }
+            if ((Long.bitCount(d) & 1) == 0) {
+                ++m;
+            } else if (2 * L <= k) {
+                System.arraycopy(C, 0, T, 0, size);
+                xorShifted(C, B, m);
+                L = k + 1 - L;
+                long[] tmp = B;
+                B = T;
+                T = tmp;
+                m = 1;
+            } else {
+                xorShifted(C, B, m);
+                ++m;
+            }
+        }
+        if (L != DEGREE) {
+            throw new RuntimeException("the characteristic polynomial has a wrong degree " + L);
+        }
+
+        //φ(x) = x^L C(1/x)
+        final long[] phi = new long[WORDS + 1];
+        for (int i = 0; i <= L; ++i) {
+            if ((C[i >>> 6] >>> (i & 63) & 1L) != 0) {
+                final int j = L - i;
+                phi[j >>> 6] |= 1L << (j & 63);
+            }
+        }
+        return phi;
+    }
+
+    /**
+     * Get the 64 bits starting from a bit position, with zeros beyond the end.
+     */
+    private static long bitsAt(long[] bits, int from) {
+        final int w = from >>> 6;
+        final int b = from & 63;
+        if (w >= bits.length) {
+            return 0;
+        }
+        long x = bits[w] >>> b;
+        if (b != 0 && w + 1 < bits.length) {
+            x |= bits[w + 1] << (64 - b);
+        }
+        return x;
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT, 
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.random.univariate.uniform;
+
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import com.numericalmethod.suanshu.stats.random.univariate.SplittableRandomLongGenerator;
+
+/**
+ * Philox4x32-10 is a counter-based random number generator.
+ * The <i>i</i>-th block of four 32-bit random numbers is a keyed bijection, ten rounds of multiplications and XORs,
+ * of the 128-bit counter <i>i</i>.
+ * There is no state other than the key and the counter.
+ * Skipping ahead is therefore just adding to the counter,
+ * and independent streams are just different ranges of the counter.
+ * <p/>
+ * The key is the seed.
+ * The high 64 bits of the counter are the index of the stream, and the low 64 bits count the blocks in the stream.
+ * A stream has 2<sup>66</sup> numbers, and there are 2<sup>64</sup> streams for each seed.
+ * The generator passes the BigCrush tests of TestU01.
+ * <p/>
+ * Like {@link MersenneTwister}, {@link #nextLong()} returns a uniform 32-bit unsigned integer.
+ * @see "J. K. Salmon, M. A. Moraes, R. O. Dror, and D. E. Shaw, "Parallel random numbers: as easy as 1, 2, 3," Proceedings of the International Conference for High Performance Computing, Networking, Storage and Analysis, 2011."
+ */
+public class Philox implements SplittableRandomLongGenerator {
+
+    /** the multipliers */
+    private static final int M0 = 0xD2511F53, M1 = 0xCD9E8D57;
+    /** the Weyl sequence increments of the key */
+    private static final int W0 = 0x9E3779B9, W1 = 0xBB67AE85;
+    private static final int ROUNDS = 10;
+    /** the key */
+    private int k0, k1;
+    /** the index of the stream, the high 64 bits of the counter */
+    private long stream;
+    /** the index of the current block in the stream, the low 64 bits of the counter */
+    private long counter;
+    /** the index of the next number in the current block */
+    private int next;
+    /** {@code true} if {@link #block} is the current block */
+    private boolean valid;
+    private final int[] block = new int[4];
+
+    /**
+     * Construct a Philox random number generator.
+     */
+    public Philox() {
+        this(8682522807148012L + System.nanoTime());
+    }
+
+    /**
+     * Construct a Philox random number generator and then seed.
+     *
+     * @param seeds the seeds
+     * @see #seed(long...)
+     */
+    public Philox(long... seeds) {
+        seed(seeds);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The first seed is the key.
+     * The second seed, if any, is the index of the stream; it is 0 otherwise.
+     * The generator starts at the beginning of the stream.
+     *
+     * @param seeds the key, and optionally the index of the stream
+     */
+    @Override
+    public void seed(long... seeds) {
+        SuanShuUtils.assertArgument(seeds.length > 0, "there must be at least one seed");
+
+        this.k0 = (int) seeds[0];
+        this.k1 = (int) (seeds[0] >>> 32);
+        this.stream = seeds.length > 1 ? seeds[1] : 0;
+        this.counter = 0;
+        this.next = 0;
+        this.valid = false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The substream has the same key, and starts at the beginning of the stream {@code index}.
+     * In particular, {@code substream(0)} repeats the numbers of this generator since the seed.
+     */
+    @Override
+    public Philox substream(long index) {
+        SuanShuUtils.assertArgument(index >= 0, "the index must be non-negative");
+
+        Philox result = new Philox(0);
+        result.k0 = k0;
+        result.k1 = k1;
+        result.stream = index;
+        return result;
+    }
+
+    /**
+     * Skip the next {@code n} numbers, as if {@link #nextLong()} is called {@code n} times.
+     * This takes constant time.
+     *
+     * @param n the number of random numbers to skip
+     */
+    public void jump(long n) {
+        SuanShuUtils.assertArgument(n >= 0, "n must be non-negative");
+
+        counter += n >>> 2;
+        next += (int) (n & 3);
+        if (next >= 4) {
+            next -= 4;
+            ++counter;
+        }
+        valid = false;
+    }
+
+    @Override
+    public long nextLong() {
+        if (!valid) {
+            generate(counter, stream, k0, k1, block);
+            valid = true;
+        }
+        final int x = block[next++];
+        if (next == 4) {
+            next = 0;
+            ++counter;
+            valid = false;
+        }
+        return x & 0xffffffffL;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return a random number in (0, 1)
+     */
+    @Override
+    public double nextDouble() {
+        return toDouble(nextLong());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * This implementation generates the blocks straight into the output.
+     */
+    @Override
+    public void nextLongs(long[] out, int off, int len) {
+        int i = off;
+        final int end = off + len;
+        while (i < end && next != 0) {//finish the current block
+            out[i++] = nextLong();
+        }
+        for (; i + 4 <= end; i += 4) {
+            generate(counter++, stream, k0, k1, block);
+            out[i] = block[0] & 0xffffffffL;
+            out[i + 1] = block[1] & 0xffffffffL;
+            out[i + 2] = block[2] & 0xffffffffL;
+            out[i + 3] = block[3] & 0xffffffffL;
+        }
+        valid = false;
+        while (i < end) {
+            out[i++] = nextLong();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * This implementation generates the blocks straight into the output.
+     */
+    @Override
+    public void nextDoubles(double[] out, int off, int len) {
+        int i = off;
+        final int end = off + len;
+        while (i < end && next != 0) {//finish the current block
+            out[i++] = nextDouble();
+        }
+        for (; i + 4 <= end; i += 4) {
+            generate(counter++, stream, k0, k1, block);
+            out[i] = toDouble(block[0] & 0xffffffffL);
+            out[i + 1] = toDouble(block[1] & 0xffffffffL);
+            out[i + 2] = toDouble(block[2] & 0xffffffffL);
+            out[i + 3] = toDouble(block[3] & 0xffffffffL);
+        }
+        valid = false;
+        while (i < end) {
+            out[i++] = nextDouble();
+        }
+    }
+
+    private static double toDouble(long x) {
+        return (x + 0.5) / 4294967296.0;//(x + 1/2) / 2^32
+    }
+
+    /**
+     * Compute a block of Philox4x32-10.
+     *
+     * @param lo  the low 64 bits of the counter
+     * @param hi  the high 64 bits of the counter
+     * @param k0  the low 32 bits of the key
+     * @param k1  the high 32 bits of the key
+     * @param out the four 32-bit random numbers
+     */
+    static void generate(long lo, long hi, int k0, int k1, int[] out) {
+        int c0 = (int) lo, c1 = (int) (lo >>> 32), c2 = (int) hi, c3 = (int) (hi >>> 32);
+        for (int r = 0; r < ROUNDS; ++r) {
+            if (r > 0) {
+                k0 += W0;
+                k1 += W1;
+            }
+            final long p0 = (M0 & 0xffffffffL) * (c0 & 0xffffffffL);
+            final long p1 = (M1 & 0xffffffffL) * (c2 & 0xffffffffL);
+            final int d0 = (int) (p1 >>> 32) ^ c1 ^ k0;
+            final int d2 = (int) (p0 >>> 32) ^ c3 ^ k1;
+            c1 = (int) p1;
+            c3 = (int) p0;
+            c0 = d0;
+            c2 = d2;
+        }
+        out[0] = c0;
+        out[1] = c1;
+        out[2] = c2;
+        out[3] = c3;
+    }
+}
@@ -57,6 +57,38 @@ public class SHR3 implements RandomLongGenerator {
         return 0.5 * (1. + (double) nextLong() * 0.2328306e-9);//add 1 to the original code to make it "unsigned"
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * This implementation keeps the state in a local variable during the loop.
+     */
+    @Override
+    public void nextLongs(long[] out, int off, int len) {
+        int jz = jsr;
+        for (int k = off, end = off + len; k < end; ++k) {
+            final int next = shr0.nextInt();
+            out[k] = jz + next;
+            jz = next;
+        }
+        jsr = jz;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * This implementation keeps the state in a local variable during the loop.
+     */
+    @Override
+    public void nextDoubles(double[] out, int off, int len) {
+        int jz = jsr;
+        for (int k = off, end = off + len; k < end; ++k) {
+            final int next = shr0.nextInt();
+            out[k] = 0.5 * (1. + (double) (jz + next) * 0.2328306e-9);
+            jz = next;
+        }
+        jsr = jz;
+    }
+
     public int nextInt() {
         int jz = jsr;
         jsr = shr0.nextInt();
@@ -94,4 +94,14 @@ public class UniformRng implements RandomLongGenerator {
     public long nextLong() {
         return uniform.nextLong();
     }
+
+    @Override
+    public void nextDoubles(double[] out, int off, int len) {
+        uniform.nextDoubles(out, off, len);
+    }
+
+    @Override
+    public void nextLongs(long[] out, int off, int len) {
+        uniform.nextLongs(out, off, len);
+    }
 }
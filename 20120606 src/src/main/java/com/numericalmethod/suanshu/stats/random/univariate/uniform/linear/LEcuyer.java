@@ -22,6 +22,9 @@
  */
 package com.numericalmethod.suanshu.stats.random.univariate.uniform.linear;
 
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import com.numericalmethod.suanshu.stats.random.univariate.SplittableRandomLongGenerator;
+import java.math.BigInteger;
 import java.util.Random;
 
 /**
@@ -32,15 +35,21 @@ import java.util.Random;
  * {@code a[] = {0, 63308, -183326}}.
  * The second has a modulus {@code m = 2145483479}, and
  * {@code a[] = {86098, 0, -539608}}.
+ * <p/>
+ * The two MRGs jump ahead by matrix powers, so the substreams are cheap.
+ * The {@code index}-th substream starts 2<sup>76</sup> * {@code index} numbers after the seed.
  *
  * @author Haksun Li
  * @see "P. L'Ecuyer, "Combined multiple recursive random number generators," Operations Research 44:816-822, 1996."
  */
-public class LEcuyer implements LinearCongruentialGenerator {
+public class LEcuyer implements LinearCongruentialGenerator, SplittableRandomLongGenerator {
 
+    /** the number of random numbers in a substream */
+    private static final BigInteger STRIDE = BigInteger.ONE.shiftLeft(76);
     private final CompositeLinearCongruentialGenerator rng;
     private final MRG mrg1, mrg2;
     private final long m;//the modulus
+    private final long[] origin = new long[6];//the seeds, from which the substreams start
 
     /**
      * Construct a LEcuyer pseudo uniform random generator.
@@ -94,6 +103,40 @@ public class LEcuyer implements LinearCongruentialGenerator {
         }
 
         rng.seed(copy);
+        System.arraycopy(copy, 0, origin, 0, 6);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * In particular, {@code substream(0)} repeats the numbers of this generator since the seed.
+     */
+    @Override
+    public LEcuyer substream(long index) {
+        SuanShuUtils.assertArgument(index >= 0, "the index must be non-negative");
+
+        LEcuyer result = new LEcuyer(origin[0], origin[1], origin[2], origin[3], origin[4], origin[5]);
+        result.jump(STRIDE.multiply(BigInteger.valueOf(index)));
+        //the substreams of the result start from where it starts
+        System.arraycopy(result.mrg1.state(), 0, result.origin, 0, 3);
+        System.arraycopy(result.mrg2.state(), 0, result.origin, 3, 3);
+        return result;
+    }
+
+    /**
+     * Skip the next {@code n} numbers, as if {@link #nextLong()} is called {@code n} times.
+     * This takes <i>O(log n)</i> time.
+     *
+     * @param n the number of random numbers to skip
+     */
+    public void jump(long n) {
+        SuanShuUtils.assertArgument(n >= 0, "n must be non-negative");
+        jump(BigInteger.valueOf(n));
+    }
+
+    private void jump(BigInteger n) {
+        mrg1.jump(n);
+        mrg2.jump(n);
     }
 
     @Override
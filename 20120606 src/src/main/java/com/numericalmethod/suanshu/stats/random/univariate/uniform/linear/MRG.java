@@ -23,6 +23,7 @@
 package com.numericalmethod.suanshu.stats.random.univariate.uniform.linear;
 
 import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import java.math.BigInteger;
 
 /**
  * A Multiple Recursive Generator (MRG) is a linear congruential generator which takes this form:
@@ -30,6 +31,8 @@ import com.numericalmethod.suanshu.misc.SuanShuUtils;
  * x<sub>i</sub> = (a<sub>1</sub> * x<sub>i-1</sub> + a<sub>2</sub> * x<sub>i-2</sub> + ... + a<sub>k</sub> * x<sub>i-k</sub>) mod m
  * u<sub>i</sub> = x<sub>i</sub> / m
  * </i></pre></blockquote>
+ * The recursion is linear in the state <i>(x<sub>i-1</sub>, ..., x<sub>i-k</sub>)</i>,
+ * so jumping <i>n</i> steps ahead is multiplying the state by the <i>n</i>-th power of a <i>k x k</i> matrix modulo <i>m</i>.
  *
  * @author Haksun Li
  * @see "Paul Glasserman, "p. 44," Monte Carlo Methods in Financial Engineering, 2004."
@@ -40,6 +43,7 @@ public class MRG implements LinearCongruentialGenerator {
     private boolean[] sign;
     private long[] x = null;//past values of the rngs
     private final long m;//the modulus
+    private final long[][] A;//the transition matrix of the state
 
     /**
      * Construct a Multiple Recursive Generator.
@@ -52,6 +56,15 @@ public class MRG implements LinearCongruentialGenerator {
         this.rng = new Lehmer[a.length];
         this.sign = new boolean[a.length];
 
+        //x_i = a_1 * x_{i-1} + ... + a_k * x_{i-k}; the other entries shift the state
+        this.A = new long[a.length][a.length];
+        for (int i = 0; i < a.length; ++i) {
+            A[0][i] = ((a[i] % m) + m) % m;
+            if (i > 0) {
+                A[i][i - 1] = 1;
+            }
+        }
+
         long[] seeds = new long[a.length];
         for (int i = 0; i < a.length; ++i) {
             if (a[i] != 0) {
@@ -128,4 +141,86 @@ public class MRG implements LinearCongruentialGenerator {
     public double nextDouble() {
         return ((double) nextLong()) / ((double) m);
     }
+
+    /**
+     * Skip the next {@code n} numbers, as if {@link #nextLong()} is called {@code n} times.
+     * This takes <i>O(k<sup>3</sup> log n)</i> time.
+     *
+     * @param n the number of random numbers to skip
+     */
+    public void jump(long n) {
+        SuanShuUtils.assertArgument(n >= 0, "n must be non-negative");
+        jump(BigInteger.valueOf(n));
+    }
+
+    /**
+     * Skip the next {@code n} numbers, as if {@link #nextLong()} is called {@code n} times.
+     *
+     * @param n the number of random numbers to skip
+     */
+    void jump(BigInteger n) {
+        SuanShuUtils.assertOrThrow(x != null ? null : new RuntimeException("the generator has not been seeded"));
+
+        final int k = x.length;
+        long[][] An = new long[k][k];//A^n, by squaring
+        for (int i = 0; i < k; ++i) {
+            An[i][i] = 1 % m;
+        }
+        for (int b = n.bitLength() - 1; b >= 0; --b) {
+            An = multiply(An, An);
+            if (n.testBit(b)) {
+                An = multiply(A, An);
+            }
+        }
+
+        long[] y = new long[k];
+        for (int i = 0; i < k; ++i) {
+            for (int j = 0; j < k; ++j) {
+                y[i] = addMod(y[i], mulMod(An[i][j], ((x[j] % m) + m) % m));
+            }
+        }
+        seed(y);
+    }
+
+    /**
+     * Get the state, the past values <i>(x<sub>i-1</sub>, ..., x<sub>i-k</sub>)</i>.
+     *
+     * @return the state
+     */
+    long[] state() {
+        return x.clone();
+    }
+
+    private long[][] multiply(long[][] P, long[][] Q) {
+        final int k = P.length;
+        long[][] R = new long[k][k];
+        for (int i = 0; i < k; ++i) {
+            for (int l = 0; l < k; ++l) {
+                if (P[i][l] != 0) {
+                    for (int j = 0; j < k; ++j) {
+                        R[i][j] = addMod(R[i][j], mulMod(P[i][l], Q[l][j]));
+                    }
+                }
+            }
+        }
+        return R;
+    }
+
+    /**
+     * Compute <i>(a + b) mod m</i> without overflow, for <i>0 ≤ a, b < m</i>.
+     */
+    private long addMod(long a, long b) {
+        final long c = a - m + b;
+        return c < 0 ? c + m : c;
+    }
+
+    /**
+     * Compute <i>(a * b) mod m</i> without overflow, for <i>0 ≤ a, b < m</i>.
+     */
+    private long mulMod(long a, long b) {
+        if ((a | b) >>> 31 == 0) {
+            return a * b % m;
+        }
+        return BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)).mod(BigInteger.valueOf(m)).longValue();
+    }
 }
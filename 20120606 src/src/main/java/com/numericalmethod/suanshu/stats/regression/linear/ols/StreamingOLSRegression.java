@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.regression.linear.ols;
+
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.factorization.qr.TSQR;
+import com.numericalmethod.suanshu.matrix.doubles.linearsystem.BackwardSubstitution;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.triangle.UpperTriangularMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.operation.CreateMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.operation.Inverse;
+import static com.numericalmethod.suanshu.misc.SuanShuUtils.assertArgument;
+import com.numericalmethod.suanshu.stats.regression.linear.LMProblem;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.operation.CreateVector;
+import java.util.Iterator;
+import static java.lang.Math.sqrt;
+
+/**
+ * This is an OLS regression on so many observations that the design matrix does not fit in memory.
+ * The observations are given as a sequence of chunks, each of which is a small {@link LMProblem}
+ * with the same factors, intercept setting and weighting.
+ * Each chunk is read once.
+ * The weighted design matrix, with the weighted response appended as the last column, is factored by {@link TSQR}.
+ * If <i>(wA wy) = Q * (R z; 0 r)</i>, then
+ * <i>β^ = R<sup>-1</sup> * z</i>, <i>RSS = r<sup>2</sup></i>, and <i>(wA' %*% wA)<sup>-1</sup> = R<sup>-1</sup> * R<sup>-1</sup>'</i>.
+ * The total sum of squares is accumulated by the chunks.
+ * <p/>
+ * The estimates and the summary statistics are the same as those of {@link OLSRegression}.
+ * The per-observation quantities in {@link Residuals}, e.g., the fitted values and the leverages, are not available,
+ * as they are as big as the data.
+ * @see OLSRegression
+ */
+public class StreamingOLSRegression {
+
+    /**
+     * the \(\hat{\beta}\) statistics
+     */
+    public final Beta beta;
+    /**
+     * the number of observations
+     */
+    public final long nObs;
+    /**
+     * the number of factors, including the intercept if any
+     */
+    public final int nFactors;
+    /**
+     * {@code true} iff an intercept term is added to the linear regression
+     */
+    public final boolean addIntercept;
+    /**
+     * the standard error of the residuals
+     */
+    public final double stderr;
+    /**
+     * diagnostic measure: the sum of squared residuals, Σ(ε^2)
+     */
+    public final double RSS;
+    /**
+     * diagnostic measure: the total sum of squares, Σ((y-y_mean)^2)
+     */
+    public final double TSS;
+    /**
+     * diagnostic measure: the R-squared
+     */
+    public final double R2;
+    /**
+     * diagnostic measure: the adjusted R-squared
+     */
+    public final double AR2;
+    /**
+     * diagnostic measure: F statistics
+     *
+     * @see Residuals#f
+     */
+    public final double f;
+    /**
+     * the sum of weights, the weighted mean of <i>y</i>, and Σ(w * (y-y_mean)^2), or Σ(w * y^2) without an intercept
+     */
+    private double sumW = 0, yMean = 0, ss = 0;
+
+    /**
+     * Construct an OLS regression on the observations in chunks.
+     *
+     * @param chunks the chunks of observations, e.g., read from a file
+     * @throws IllegalArgumentException if there is no chunk, or if the chunks do not have the same factors and intercept setting
+     */
+    public StreamingOLSRegression(final Iterator<LMProblem> chunks) {
+        assertArgument(chunks.hasNext(), "there must be at least one chunk");
+
+        final LMProblem first = chunks.next();
+        this.nFactors = first.nFactors();
+        this.addIntercept = first.addIntercept;
+
+        TSQR tsqr = new TSQR(nFactors + 1, 0);
+        tsqr.add(read(first));
+        tsqr.addAll(new Iterator<Matrix>() {
+
+            @Override
+            public boolean hasNext() {
+                return chunks.hasNext();
+            }
+
+            @Override
+            public Matrix next() {
+                return read(chunks.next());
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        });
+
+        nObs = tsqr.nRows();
+        final int m = nFactors;
+
+        UpperTriangularMatrix Rz = tsqr.R();//(R z; 0 r)
+        UpperTriangularMatrix R = new UpperTriangularMatrix(CreateMatrix.subMatrix(Rz, 1, m, 1, m));
+        Vector z = CreateVector.subVector(Rz.getColumn(m + 1), 1, m);
+        Vector betaHat = new BackwardSubstitution().solve(R, z);
+
+        //the summary statistics, as in Residuals
+        RSS = Rz.get(m + 1, m + 1) * Rz.get(m + 1, m + 1);
+        TSS = ss;
+        R2 = 1 - (RSS / TSS);
+        AR2 = 1 - (double) (nObs - (addIntercept ? 1 : 0)) / (nObs - m) * (1 - R2);
+        stderr = sqrt(RSS / (nObs - m));
+        f = (TSS - RSS) / (m - (addIntercept ? 1 : 0)) / (RSS / (nObs - m));
+
+        //cov(β^) = (residuals.stderr)^2 * (wA' %*% wA)^-1
+        Matrix Rinv = new Inverse(R, 0);
+        Matrix covariance = Rinv.multiply(Rinv.t()).scaled(stderr * stderr);
+        beta = new Beta(betaHat, covariance);
+    }
+
+    /**
+     * Accumulate the total sum of squares of a chunk, and return the weighted design matrix with the weighted response appended.
+     *
+     * @param chunk a chunk of observations
+     * @return {@code (wA wy)}
+     */
+    private Matrix read(LMProblem chunk) {
+        assertArgument(chunk.nFactors() == nFactors && chunk.addIntercept == addIntercept,
+                       "all chunks must have the same factors and intercept setting");
+
+        //combine the weighted mean and sum of squares of the chunk with those so far
+        double w = 0, mean = 0, s = 0;
+        for (int i = 1; i <= chunk.nObs(); ++i) {
+            final double wi = chunk.weights != null ? chunk.weights.get(i) : 1;
+            final double yi = chunk.y.get(i);
+            if (addIntercept) {
+                if (wi == 0) {
+                    continue;
+                }
+                w += wi;
+                final double delta = yi - mean;
+                mean += delta * wi / w;
+                s += wi * delta * (yi - mean);
+            } else {
+                s += wi * yi * yi;
+            }
+        }
+        if (addIntercept && w > 0) {
+            final double total = sumW + w;
+            final double delta = mean - yMean;
+            ss += s + delta * delta * sumW * w / total;
+            yMean += delta * w / total;
+            sumW = total;
+        } else {
+            ss += s;
+        }
+
+        return CreateMatrix.cbind(chunk.wA, new DenseMatrix(chunk.wy));
+    }
+}
@@ -36,6 +36,23 @@ public interface Resampling {
      */
     public double[] getResample();
 
+    /**
+     * Get the {@code index}-th resample from the original sample.
+     * An implementation should make the resample depend only on the seed and {@code index},
+     * and be safe to call from multiple threads without locking,
+     * so that resamples can be drawn in parallel and reproducibly.
+     * This default implementation just calls {@link #getResample()} while holding the lock of this object,
+     * so it is thread-safe but neither parallel nor reproducible.
+     *
+     * @param index the index of the resample
+     * @return a resample, e.g., a bootstrap sample
+     */
+    public default double[] getResample(long index) {
+        synchronized (this) {
+            return getResample();
+        }
+    }
+
     /**
      * Seed the random generator to produce repeatable sequences.
      *
@@ -33,6 +33,9 @@ import com.numericalmethod.suanshu.stats.sampling.resampling.Resampling;
 
 /**
  * This class estimates the statistic for a sample using a bootstrap method.
+ * The <i>i</i>-th replica is computed from the <i>i</i>-th resample, {@link Resampling#getResample(long)}.
+ * For a {@link NonParametricBootstrap}, the estimate is therefore the same whether or not it is computed in parallel,
+ * and the replicas do not wait for one another for their resamples.
  *
  * @author Haksun Li
  */
@@ -99,15 +102,13 @@ public class BootstrapEstimator {
     }
 
     private void sim() throws MultipleExecutionException {
-        final Object lock = new Object();
         new ParallelExecutor().conditionalForLoop(isParallel, 0, B,
                                                   new LoopBody() {
 
             public void run(int i) throws Exception {
-                double[] resample;
+                double[] resample = bootstrap.getResample(i);
                 Statistic stat;
-                synchronized (lock) { // synchronized on shared objects
-                    resample = bootstrap.getResample();
+                synchronized (factory) { // a factory need not be thread-safe
                     stat = factory.getStatistic();
                 }
                 stat.addData(resample);// TODO: this is an unnecessary copying
@@ -23,6 +23,7 @@
 package com.numericalmethod.suanshu.stats.sampling.resampling.bootstrap;
 
 import com.numericalmethod.suanshu.stats.random.univariate.RandomLongGenerator;
+import com.numericalmethod.suanshu.stats.random.univariate.uniform.Philox;
 import com.numericalmethod.suanshu.stats.random.univariate.uniform.UniformRng;
 import com.numericalmethod.suanshu.stats.sampling.resampling.Resampling;
 import java.util.Arrays;
@@ -30,6 +31,9 @@ import java.util.Arrays;
 /**
  * This is the classical bootstrap method described in the reference.
  * It draws from the original sample with replacement.
+ * <p/>
+ * {@link #getResample(long)} draws the {@code index}-th resample from the {@code index}-th substream of a {@link Philox},
+ * so resamples can be drawn in parallel without locking.
  *
  * @author Haksun Li
  *
@@ -39,6 +43,10 @@ public class NonParametricBootstrap implements Resampling {
 
     private double[] sample;// make a copy to make sure the sample never changes
     private RandomLongGenerator uniform = new UniformRng();
+    /** the random numbers to draw the indices of a resample */
+    private final long[] indices;
+    /** the substreams of the indexed resamples */
+    private final Philox streams = new Philox();
 
     /**
      * Construct a bootstrap sample generator.
@@ -48,16 +56,34 @@ public class NonParametricBootstrap implements Resampling {
      */
     public NonParametricBootstrap(double[] sample) {
         this.sample = Arrays.copyOfRange(sample, 0, sample.length);
+        this.indices = new long[sample.length];
     }
 
     public void seed(long... seeds) {
         uniform.seed(seeds);
+        streams.seed(seeds);
     }
 
     public double[] getResample() {
+        return resample(uniform, indices);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * This implementation is thread-safe and lock-free.
+     */
+    @Override
+    public double[] getResample(long index) {
+        return resample(streams.substream(index), new long[sample.length]);
+    }
+
+    private double[] resample(RandomLongGenerator uniform, long[] indices) {
+        uniform.nextLongs(indices, 0, indices.length);
+
         double[] resample = new double[sample.length];
         for (int i = 0; i < sample.length; ++i) {
-            int j = (int) (uniform.nextLong() % sample.length);
+            int j = (int) (indices[i] % sample.length);
             resample[i] = sample[j];
         }
 
@@ -112,14 +112,7 @@ public interface MultiVariateRealization extends com.numericalmethod.suanshu.sta
          * @return a Gaussian innovation
          */
         protected Vector Zt() {
-            Vector Zt = new DenseVector(d);
-
-            for (int i = 1; i <= d; ++i) {
-                double zt = rnorm.nextDouble();
-                Zt.set(i, zt);
-            }
-
-            return Zt;
+            return new DenseVector(rnorm.nextDoubles(d));
         }
 
         //TODO: extend to the Lévy triplet
@@ -48,9 +48,15 @@ public interface Realization extends com.numericalmethod.suanshu.stats.timeserie
      */
     public abstract class Iterator implements java.util.Iterator<Realization.Entry> {
 
+        /** the number of Gaussian innovations drawn at a time */
+        private static final int BLOCK = 256;
+
         private int index = 0;// count from 1
         private final int size;
         private final StandardNormalRng rnorm;
+        /** the Gaussian innovations drawn but not yet used, in the order they are drawn */
+        private final double[] innovations;
+        private int next;
 
         /**
          * Get the current timestamp of the realization.
@@ -78,6 +84,8 @@ public interface Realization extends com.numericalmethod.suanshu.stats.timeserie
             this.size = size;
             this.rnorm = new StandardNormalRng();
             this.rnorm.seed(seed);
+            this.innovations = new double[Math.max(1, Math.min(size, BLOCK))];
+            this.next = innovations.length;
         }
 
         public boolean hasNext() {
@@ -101,8 +109,11 @@ public interface Realization extends com.numericalmethod.suanshu.stats.timeserie
          * @return a Gaussian innovation
          */
         protected double Zt() {
-            double zt = rnorm.nextDouble();
-            return zt;
+            if (next == innovations.length) {
+                rnorm.nextDoubles(innovations, 0, innovations.length);
+                next = 0;
+            }
+            return innovations[next++];
         }
 
         //TODO: extend to the Lévy triplet
@@ -66,13 +66,7 @@ public class ARIMASim extends SimpleTimeSeries {
 
     public static double[] getWhiteNoise(int size) {//TODO: other distributions? seed?
         StandardNormalRng rnorm = new StandardNormalRng();
-
-        double[] wn = new double[size];
-        for (int i = 0; i < size; ++i) {
-            wn[i] = rnorm.nextDouble();
-        }
-        
-        return wn;
+        return rnorm.nextDoubles(size);
     }
 
     /**
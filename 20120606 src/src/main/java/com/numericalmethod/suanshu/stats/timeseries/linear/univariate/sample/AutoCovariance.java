@@ -47,7 +47,7 @@ public class AutoCovariance extends AutoCovarianceFunction {
          */
         TYPE_II
     };
-    private final TimeSeries xt;
+    private final double[] xt;
     private final Type type;
     /**
      * mean of the time series
@@ -55,10 +55,10 @@ public class AutoCovariance extends AutoCovarianceFunction {
     private final double mu;
 
     public AutoCovariance(TimeSeries xt, Type type) {
-        this.xt = xt;
+        this.xt = xt.toArray();//read the values once, not through the interface in the inner loop
         this.type = type;
 
-        Mean mean = new Mean(xt.toArray());
+        Mean mean = new Mean(this.xt);
         this.mu = mean.value();
     }
 
@@ -73,13 +73,13 @@ public class AutoCovariance extends AutoCovarianceFunction {
      * @return γ(k)
      */
     public double evaluate(int k) {//eq. 2.5.8
-        SuanShuUtils.assertArgument(k < xt.size(), "lag must be < lenght of the time series");
+        SuanShuUtils.assertArgument(k < xt.length, "lag must be < lenght of the time series");
 
-        final int n = xt.size();
+        final int n = xt.length;
 
         double sum = 0;
-        for (int t = 1; t <= n - k; ++t) {
-            sum += (xt.get(t) - mu) * (xt.get(t + k) - mu);
+        for (int t = 0; t < n - k; ++t) {
+            sum += (xt[t] - mu) * (xt[t + k] - mu);
         }
 
         double gamma = sum;
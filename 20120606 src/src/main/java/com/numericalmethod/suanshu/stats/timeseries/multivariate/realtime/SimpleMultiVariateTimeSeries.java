@@ -24,7 +24,6 @@ package com.numericalmethod.suanshu.stats.timeseries.multivariate.realtime;
 
 import com.numericalmethod.suanshu.matrix.doubles.Matrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
-import com.numericalmethod.suanshu.matrix.doubles.operation.CreateMatrix;
 import static com.numericalmethod.suanshu.matrix.doubles.operation.CreateMatrix.rbind;
 import com.numericalmethod.suanshu.matrix.doubles.operation.MatrixUtils;
 import com.numericalmethod.suanshu.misc.R;
@@ -32,17 +31,27 @@ import com.numericalmethod.suanshu.misc.SuanShuUtils;
 import com.numericalmethod.suanshu.stats.timeseries.univariate.realtime.TimeSeries;
 import com.numericalmethod.suanshu.vector.doubles.ImmutableVector;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
-import java.util.ArrayList;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * This simple multivariate time series has its vectored values indexed by integers.
+ * <p/>
+ * The values are stored by rows in a primitive array.
+ * As the time series is immutable,
+ * {@link #drop(int)} and {@link #lag(int, int)} return views that share the array with this time series,
+ * without copying.
  *
  * @author Haksun Li
  */
 public class SimpleMultiVariateTimeSeries implements MultiVariateTimeSeries {
 
-    private final ArrayList<Vector> ts = new ArrayList<Vector>();//by rows
+    private final double[] values;//by rows
+    private final int dimension;
+    private final int offset;//the index of the first row in the array
+    private final int length;//the number of rows
 
     /**
      * Construct an instance of {@code SimpleMultiVariateTimeSeries}.
@@ -50,9 +59,7 @@ public class SimpleMultiVariateTimeSeries implements MultiVariateTimeSeries {
      * @param values a matrix representation of the time series
      */
     public SimpleMultiVariateTimeSeries(Matrix values) {
-        for (int i = 1; i <= values.nRows(); ++i) {
-            ts.add(values.getRow(i));
-        }
+        this(MatrixUtils.to1DArray(values), values.nCols(), 0, values.nRows());
     }
 
     /**
@@ -70,7 +77,7 @@ public class SimpleMultiVariateTimeSeries implements MultiVariateTimeSeries {
      * @param values a vector representation of the time series
      */
     public SimpleMultiVariateTimeSeries(Vector... values) {
-        this(new DenseMatrix(rbind(values)));
+        this(rbind(values));
     }
 
     /**
@@ -79,47 +86,59 @@ public class SimpleMultiVariateTimeSeries implements MultiVariateTimeSeries {
      * @param ts a univariate time series
      */
     public SimpleMultiVariateTimeSeries(TimeSeries ts) {
-        this(new DenseMatrix(ts.toArray(), ts.size(), 1));
+        this(ts.toArray(), 1, 0, ts.size());
+    }
+
+    /**
+     * Construct a view of some rows of an array, without copying.
+     *
+     * @param values    the values by rows, which must not be modified
+     * @param dimension the dimension of the time series
+     * @param offset    the index of the first row
+     * @param length    the number of rows
+     */
+    private SimpleMultiVariateTimeSeries(double[] values, int dimension, int offset, int length) {
+        this.values = values;
+        this.dimension = dimension;
+        this.offset = offset;
+        this.length = length;
     }
 
     @Override
     public Matrix toMatrix() {
-        Vector[] rows = new Vector[ts.size()];
-
-        int i = 0;
-        for (Vector v : ts) {
-            rows[i++] = v;
-        }
-
-        return CreateMatrix.rbind(rows);
+        return new DenseMatrix(Arrays.copyOfRange(values, offset * dimension, (offset + length) * dimension), length, dimension);
     }
 
     @Override
     public int size() {
-        return ts.size();
+        return length;
     }
 
     @Override
     public int dimension() {
-        return ts.get(0).size();
+        return dimension;
     }
 
     @Override
     public Iterator<Entry> iterator() {
         return new Iterator<Entry>() {
 
-            private final Iterator<Vector> it = ts.iterator();
             private int time = 1;
 
             @Override
             public boolean hasNext() {
-                return it.hasNext();
+                return time <= length;
             }
 
             @Override
             public Entry next() {
-                Vector d = it.next();
-                return new MultiVariateTimeSeries.Entry(time++, d);
+                if (time > length) {
+                    throw new NoSuchElementException();
+                }
+
+                Entry entry = new MultiVariateTimeSeries.Entry(time, row(time));
+                ++time;
+                return entry;
             }
 
             @Override
@@ -131,7 +150,16 @@ public class SimpleMultiVariateTimeSeries implements MultiVariateTimeSeries {
 
     @Override
     public Vector get(int t) {
-        return new ImmutableVector(ts.get(t - 1));
+        return new ImmutableVector(row(t));
+    }
+
+    private DenseVector row(int t) {
+        if (t < 1 || t > length) {
+            throw new IndexOutOfBoundsException(String.format("t = %d is not in [1, %d]", t, length));
+        }
+
+        int begin = (offset + t - 1) * dimension;
+        return new DenseVector(Arrays.copyOfRange(values, begin, begin + dimension));
     }
 
     /**
@@ -168,12 +196,7 @@ public class SimpleMultiVariateTimeSeries implements MultiVariateTimeSeries {
         int begin = size() - nLags - length + 1;
         SuanShuUtils.assertArgument(begin >= 1, "lagged series length is too long");
 
-        Vector[] lagged = new Vector[length];
-        for (int i = begin; i <= size() - nLags; ++i) {
-            lagged[i - begin] = ts.get(i - 1);
-        }
-
-        return new SimpleMultiVariateTimeSeries(rbind(lagged));
+        return new SimpleMultiVariateTimeSeries(values, dimension, offset + begin - 1, length);
     }
 
     /**
@@ -189,7 +212,11 @@ public class SimpleMultiVariateTimeSeries implements MultiVariateTimeSeries {
 
     @Override
     public String toString() {
-        return ts.toString();
+        Vector[] rows = new Vector[length];
+        for (int t = 1; t <= length; ++t) {
+            rows[t - 1] = row(t);
+        }
+        return Arrays.toString(rows);
     }
 
     @Override
@@ -201,16 +228,24 @@ public class SimpleMultiVariateTimeSeries implements MultiVariateTimeSeries {
             return false;
         }
         final SimpleMultiVariateTimeSeries other = (SimpleMultiVariateTimeSeries) obj;
-        if (this.ts != other.ts && (this.ts == null || !this.ts.equals(other.ts))) {
+        if (this.length != other.length || this.dimension != other.dimension) {
             return false;
         }
+        for (int i = 0, j = this.offset * dimension, k = other.offset * dimension; i < length * dimension; ++i, ++j, ++k) {
+            if (Double.doubleToLongBits(this.values[j]) != Double.doubleToLongBits(other.values[k])) {
+                return false;
+            }
+        }
         return true;
     }
 
     @Override
     public int hashCode() {
         int hash = 7;
-        hash = 97 * hash + (this.ts != null ? this.ts.hashCode() : 0);
+        for (int i = offset * dimension; i < (offset + length) * dimension; ++i) {
+            long bits = Double.doubleToLongBits(values[i]);
+            hash = 97 * hash + (int) (bits ^ (bits >>> 32));
+        }
         return hash;
     }
 }
@@ -28,6 +28,12 @@ import org.joda.time.DateTime;
 
 /**
  * This is a time series has its {@code double} values indexed by {@code DateTime}.
+ * <p/>
+ * The timestamps are kept as the given {@code DateTime} objects, in an array shared by the views of this time series,
+ * rather than as their {@code long} milliseconds.
+ * A {@code DateTime} also carries its time zone and chronology, which {@code DateTime.equals} compares,
+ * and which would be lost in the milliseconds;
+ * {@link #time(int)} and {@link #timestamps()} would also have to construct a new {@code DateTime} for every call.
  *
  * @author Haksun Li
  */
@@ -25,14 +25,20 @@ package com.numericalmethod.suanshu.stats.timeseries.univariate;
 import com.numericalmethod.suanshu.misc.R;
 import com.numericalmethod.suanshu.misc.SuanShuUtils;
 import com.numericalmethod.suanshu.stats.timeseries.univariate.TimeSeries.Entry;
-import java.lang.reflect.Array;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * This is a univariate time series indexed by some notion of time.
- * This implementation explicitly remembers all data in memory. It is appropriate for a short time series.
+ * This implementation explicitly remembers all data in memory.
+ * <p/>
+ * The timestamps and the values are stored in two columns, an array of timestamps and a primitive array of values,
+ * rather than as an entry object per observation.
+ * When the timestamps are in ascending order, which is checked on construction,
+ * {@link #get(Comparable)} finds a time by binary search.
+ * As the time series is immutable,
+ * {@link #drop(int)} returns a view that shares the columns with this time series, without copying.
  *
  * @param <T> the timestamp type
  * @author Haksun Li
@@ -40,7 +46,12 @@ import java.util.Iterator;
  */
 public class GenericTimeTimeSeries<T extends Comparable<? super T>> implements TimeSeries<T, TimeSeries.Entry<T>> {
 
-    private final ArrayList<TimeSeries.Entry<T>> ts = new ArrayList<TimeSeries.Entry<T>>();
+    private final T[] times;
+    private final double[] values;
+    private final int timeOffset;//the index of the first timestamp in the timestamps column
+    private final int offset;//the index of the first value in the values column
+    private final int length;
+    private final boolean ascending;
 
     /**
      * Construct a univariate time series from timestamps and values.
@@ -49,34 +60,68 @@ public class GenericTimeTimeSeries<T extends Comparable<? super T>> implements T
      * @param values     the values
      */
     public GenericTimeTimeSeries(T[] timestamps, double[] values) {
+        this(timestamps.clone(), 0, values.clone(), 0, checkLengths(timestamps, values), isAscending(timestamps));
+    }
+
+    /**
+     * Construct a view of parts of the columns, without copying.
+     *
+     * @param times      the timestamps, which must not be modified
+     * @param timeOffset the index of the first timestamp
+     * @param values     the values, which must not be modified
+     * @param offset     the index of the first value
+     * @param length     the length of the time series
+     * @param ascending  {@code true} if the timestamps are in ascending order
+     */
+    private GenericTimeTimeSeries(T[] times, int timeOffset, double[] values, int offset, int length, boolean ascending) {
+        this.times = times;
+        this.timeOffset = timeOffset;
+        this.values = values;
+        this.offset = offset;
+        this.length = length;
+        this.ascending = ascending;
+    }
+
+    private static int checkLengths(Object[] timestamps, double[] values) {
         SuanShuUtils.assertArgument(timestamps.length == values.length,
                                     "number of values and numbers of timestamps do not match");
+        return values.length;
+    }
 
-        for (int i = 0; i < timestamps.length; ++i) {
-            ts.add(new TimeSeries.Entry<T>(timestamps[i], values[i]));
+    private static <T extends Comparable<? super T>> boolean isAscending(T[] timestamps) {
+        for (int i = 1; i < timestamps.length; ++i) {
+            if (timestamps[i - 1] == null || timestamps[i] == null || timestamps[i - 1].compareTo(timestamps[i]) >= 0) {
+                return false;
+            }
         }
+        return true;
     }
 
     @Override
     public int size() {
-        return ts.size();
+        return length;
     }
 
     @Override
     public Iterator<Entry<T>> iterator() {
         return new Iterator<Entry<T>>() {
 
-            private final Iterator<TimeSeries.Entry<T>> it = ts.iterator();
+            private int i = 0;
 
             @Override
             public boolean hasNext() {
-                return it.hasNext();
+                return i < length;
             }
 
             @Override
             public Entry<T> next() {
-                TimeSeries.Entry<T> pair = it.next();
-                return new Entry<T>(pair.getTime(), pair.getValue());
+                if (i >= length) {
+                    throw new NoSuchElementException();
+                }
+
+                Entry<T> entry = new Entry<T>(times[timeOffset + i], values[offset + i]);
+                ++i;
+                return entry;
             }
 
             @Override
@@ -88,14 +133,7 @@ public class GenericTimeTimeSeries<T extends Comparable<? super T>> implements T
 
     @Override
     public double[] toArray() {
-        double[] arr = new double[ts.size()];
-
-        int i = 0;
-        for (TimeSeries.Entry<T> pair : ts) {
-            arr[i++] = pair.getValue();
-        }
-
-        return arr;
+        return Arrays.copyOfRange(values, offset, offset + length);
     }
 
     /**
@@ -105,19 +143,28 @@ public class GenericTimeTimeSeries<T extends Comparable<? super T>> implements T
      * @return the <i>i</i>-th value
      */
     public double get(int i) {
-        return ts.get(i - 1).getValue();
+        return values[offset + index(i)];
     }
 
     /**
      * Get the value at time {@code t}.
+     * The time is found by binary search if the timestamps are in ascending order,
+     * or by linear search otherwise.
      *
      * @param t a timestamp
      * @return the value at time {@code t}
      */
-    public double get(T t) {// TODO: improve efficiency
-        for (TimeSeries.Entry<T> entry : ts) {
-            if (entry.getTime().compareTo(t) == 0) {
-                return entry.getValue().doubleValue();
+    public double get(T t) {
+        if (ascending) {
+            int i = Arrays.binarySearch(times, timeOffset, timeOffset + length, t);
+            if (i >= 0) {
+                return values[offset + i - timeOffset];
+            }
+        } else {
+            for (int i = 0; i < length; ++i) {
+                if (times[timeOffset + i] != null && times[timeOffset + i].compareTo(t) == 0) {
+                    return values[offset + i];
+                }
             }
         }
 
@@ -131,7 +178,7 @@ public class GenericTimeTimeSeries<T extends Comparable<? super T>> implements T
      * @return the <i>i</i>-th timestamp
      */
     public T time(int index) {
-        return ts.get(index - 1).getTime();
+        return times[timeOffset + index(index)];
     }
 
     /**
@@ -140,15 +187,27 @@ public class GenericTimeTimeSeries<T extends Comparable<? super T>> implements T
      * @return the timestamps
      */
     public T[] timestamps() {
-        int size = ts.size();
-        @SuppressWarnings("unchecked")
-        T[] times = (T[]) Array.newInstance(ts.get(0).getTime().getClass(), size);
+        return Arrays.copyOfRange(times, timeOffset, timeOffset + length);
+    }
 
-        for (int i = 0; i < size; ++i) {
-            times[i] = ts.get(i).getTime();
-        }
+    /**
+     * Construct an instance of {@code GenericTimeTimeSeries} by appending entries to this time series.
+     *
+     * @param timestamps the timestamps to append
+     * @param values     the values to append
+     * @return a time series of this time series followed by the new entries
+     */
+    public GenericTimeTimeSeries<T> append(T[] timestamps, double[] values) {
+        checkLengths(timestamps, values);
+
+        T[] allTimes = Arrays.copyOfRange(this.times, timeOffset, timeOffset + length + timestamps.length);
+        System.arraycopy(timestamps, 0, allTimes, length, timestamps.length);
+        double[] allValues = Arrays.copyOfRange(this.values, offset, offset + length + values.length);
+        System.arraycopy(values, 0, allValues, length, values.length);
 
-        return times;
+        boolean isAscending = ascending && isAscending(timestamps)
+                && (length == 0 || timestamps.length == 0 || allTimes[length - 1].compareTo(timestamps[0]) < 0);
+        return new GenericTimeTimeSeries<T>(allTimes, 0, allValues, 0, allValues.length, isAscending);
     }
 
     /**
@@ -158,29 +217,31 @@ public class GenericTimeTimeSeries<T extends Comparable<? super T>> implements T
      * @return a {@code GenericTimeTimeSeries}
      */
     public GenericTimeTimeSeries<T> drop(int nItems) {
-        T[] timestamps = this.timestamps();
-        double[] values = this.toArray();
-
-        T[] times = Arrays.copyOfRange(timestamps, nItems, this.size());
-        double[] data = Arrays.copyOfRange(values, nItems, this.size());
-
-        return new GenericTimeTimeSeries<T>(times, data);
+        SuanShuUtils.assertArgument(nItems >= 0 && nItems <= length, "0 <= nItems <= size");
+        return new GenericTimeTimeSeries<T>(times, timeOffset + nItems, values, offset + nItems, length - nItems, ascending);
     }
 
     /**
      * Construct an instance of {@code GenericTimeTimeSeries} by taking the first difference {@code d} times.
+     * The timestamps are shared with this time series, without copying.
      *
      * @param d the number of differences
      * @return {@code diff(x, lag = 1, differences = d)} as in R
      */
-    public GenericTimeTimeSeries<T> diff(int d) {//TODO: improve efficiency
-        T[] timestamps = this.timestamps();
-        double[] values = this.toArray();
+    public GenericTimeTimeSeries<T> diff(int d) {
+        double[] diff = R.diff(toArray(), 1, d);
+        return new GenericTimeTimeSeries<T>(times, timeOffset + d, diff, 0, diff.length, ascending);
+    }
 
-        T[] times = Arrays.copyOfRange(timestamps, d, timestamps.length);
-        double[] diff = R.diff(values, 1, d);
+    /**
+     * Get the 0-based position of the <i>i</i>-th entry in the time series.
+     */
+    private int index(int i) {
+        if (i < 1 || i > length) {
+            throw new IndexOutOfBoundsException(String.format("i = %d is not in [1, %d]", i, length));
+        }
 
-        return new GenericTimeTimeSeries<T>(times, diff);
+        return i - 1;
     }
 
     @Override
@@ -191,10 +252,9 @@ public class GenericTimeTimeSeries<T extends Comparable<? super T>> implements T
         result.append("[");
 
         for (int i = 0; i < size; ++i) {
-            TimeSeries.Entry<T> pair = ts.get(i);
             result.append(String.format("%s: %f; ",
-                                        pair.getTime().toString(),
-                                        pair.getValue()));
+                                        times[timeOffset + i].toString(),
+                                        values[offset + i]));
         }
 
         result.append("]");
@@ -212,16 +272,30 @@ public class GenericTimeTimeSeries<T extends Comparable<? super T>> implements T
         }
         @SuppressWarnings("unchecked")
         final GenericTimeTimeSeries<T> other = (GenericTimeTimeSeries<T>) obj;
-        if (this.ts != other.ts && (this.ts == null || !this.ts.equals(other.ts))) {
+        if (this.length != other.length) {
             return false;
         }
+        for (int i = 0; i < length; ++i) {
+            T time1 = this.times[this.timeOffset + i];
+            T time2 = other.times[other.timeOffset + i];
+            if (time1 != time2 && (time1 == null || !time1.equals(time2))) {
+                return false;
+            }
+            if (Double.doubleToLongBits(this.values[this.offset + i]) != Double.doubleToLongBits(other.values[other.offset + i])) {
+                return false;
+            }
+        }
         return true;
     }
 
     @Override
     public int hashCode() {
         int hash = 7;
-        hash = 97 * hash + (this.ts != null ? this.ts.hashCode() : 0);
+        for (int i = 0; i < length; ++i) {
+            long bits = Double.doubleToLongBits(values[offset + i]);
+            hash = 97 * hash + (times[timeOffset + i] != null ? times[timeOffset + i].hashCode() : 0);
+            hash = 97 * hash + (int) (bits ^ (bits >>> 32));
+        }
         return hash;
     }
 }
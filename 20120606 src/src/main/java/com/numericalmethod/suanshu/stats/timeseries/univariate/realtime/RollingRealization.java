@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.timeseries.univariate.realtime;
+
+import com.numericalmethod.suanshu.misc.SuanShuUtils;
+import com.numericalmethod.suanshu.stats.descriptive.RollingStatistic;
+import com.numericalmethod.suanshu.stats.descriptive.RollingStatisticFactory;
+import com.numericalmethod.suanshu.stats.descriptive.TimeWindow;
+import java.util.Iterator;
+
+/**
+ * This time series is a statistic of another time series over a sliding window of time.
+ * The value at time <i>t</i> is the statistic of the observations whose times are in <i>(t - length, t]</i>.
+ * The observations need not be equally spaced.
+ * The values are computed lazily, as the time series is iterated,
+ * so that a long or an unbounded time series is never held in memory.
+ * @see TimeWindow
+ */
+public class RollingRealization implements Realization {
+
+    private final Realization ts;
+    private final double length;
+    private final RollingStatisticFactory factory;
+
+    /**
+     * Construct the time series of a rolling statistic.
+     *
+     * @param ts      a time series
+     * @param length  the time span of the window
+     * @param factory construct the statistic to compute over the window
+     */
+    public RollingRealization(Realization ts, double length, RollingStatisticFactory factory) {
+        SuanShuUtils.assertArgument(length > 0, "length > 0");
+        this.ts = ts;
+        this.length = length;
+        this.factory = factory;
+    }
+
+    @Override
+    public int size() {
+        return ts.size();
+    }
+
+    @Override
+    public Iterator<Entry> iterator() {
+        final Iterator<Entry> it = ts.iterator();
+        final RollingStatistic stat = factory.getStatistic();
+        final TimeWindow window = new TimeWindow(length, stat);
+
+        return new Iterator<Entry>() {
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public Entry next() {
+                Entry entry = it.next();
+                window.push(entry.getTime(), entry.getValue());
+                return new Entry(entry.getTime(), stat.value());
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("time series is immutable");
+            }
+        };
+    }
+
+    @Override
+    public double[] toArray() {
+        double[] result = new double[size()];
+
+        Iterator<Entry> it = iterator();
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = it.next().getValue();
+        }
+
+        return result;
+    }
+}
@@ -24,18 +24,25 @@ package com.numericalmethod.suanshu.stats.timeseries.univariate.realtime;
 
 import com.numericalmethod.suanshu.misc.R;
 import com.numericalmethod.suanshu.misc.SuanShuUtils;
-import com.numericalmethod.suanshu.number.DoubleUtils;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * This simple univariate time series has its {@code double} values indexed by integers.
+ * <p/>
+ * The values are stored in a primitive array.
+ * As the time series is immutable,
+ * {@link #drop(int)} and {@link #lag(int, int)} return views that share the array with this time series,
+ * without copying.
  *
  * @author Haksun Li
  */
 public class SimpleTimeSeries implements TimeSeries {
 
-    private final ArrayList<Double> ts = new ArrayList<Double>();
+    private final double[] values;
+    private final int offset;//the index of the first value in the array
+    private final int length;
 
     /**
      * Construct an instance of {@code SimpleTimeSeries}.
@@ -43,32 +50,45 @@ public class SimpleTimeSeries implements TimeSeries {
      * @param values an array of values
      */
     public SimpleTimeSeries(double[] values) {
-        for (double d : values) {
-            ts.add(d);
-        }
+        this(values.clone(), 0, values.length);
+    }
+
+    /**
+     * Construct a view of a part of an array, without copying.
+     *
+     * @param values an array of values, which must not be modified
+     * @param offset the index of the first value
+     * @param length the length of the time series
+     */
+    private SimpleTimeSeries(double[] values, int offset, int length) {
+        this.values = values;
+        this.offset = offset;
+        this.length = length;
     }
 
     @Override
     public int size() {
-        return ts.size();
+        return length;
     }
 
     @Override
     public Iterator<Entry> iterator() {
         return new Iterator<Entry>() {
 
-            private final Iterator<Double> it = ts.iterator();
             private int time = 1;
 
             @Override
             public boolean hasNext() {
-                return it.hasNext();
+                return time <= length;
             }
 
             @Override
             public Entry next() {
-                Double d = it.next();
-                return new TimeSeries.Entry(time++, d);
+                if (time > length) {
+                    throw new NoSuchElementException();
+                }
+
+                return new TimeSeries.Entry(time, values[offset + time++ - 1]);
             }
 
             @Override
@@ -80,12 +100,28 @@ public class SimpleTimeSeries implements TimeSeries {
 
     @Override
     public double[] toArray() {
-        return DoubleUtils.collection2DoubleArray(ts);
+        return Arrays.copyOfRange(values, offset, offset + length);
     }
 
     @Override
     public double get(int t) {
-        return ts.get(t - 1);
+        if (t < 1 || t > length) {
+            throw new IndexOutOfBoundsException(String.format("t = %d is not in [1, %d]", t, length));
+        }
+
+        return values[offset + t - 1];
+    }
+
+    /**
+     * Construct an instance of {@code SimpleTimeSeries} by appending values to this time series.
+     *
+     * @param values the values to append
+     * @return a time series of this time series followed by {@code values}
+     */
+    public SimpleTimeSeries append(double... values) {
+        double[] result = Arrays.copyOfRange(this.values, offset, offset + length + values.length);
+        System.arraycopy(values, 0, result, length, values.length);
+        return new SimpleTimeSeries(result, 0, result.length);
     }
 
     /**
@@ -105,12 +141,11 @@ public class SimpleTimeSeries implements TimeSeries {
      * @return {@code diff(x, lag = 1, differences = d)} as in R
      */
     public SimpleTimeSeries diff(int d) {
-        double[] values = toArray();
-        return new SimpleTimeSeries(R.diff(values, 1, d));
+        double[] diff = R.diff(toArray(), 1, d);
+        return new SimpleTimeSeries(diff, 0, diff.length);
     }
 
     /**
-     * /**
      * Construct an instance of {@code SimpleTimeSeries} by lagging the time series.
      * This operation makes sense only for equi-distant data points.
      *
@@ -124,12 +159,7 @@ public class SimpleTimeSeries implements TimeSeries {
         int begin = size() - nLags - length + 1;
         SuanShuUtils.assertArgument(begin >= 1, "lagged series length is too long");
 
-        double[] lagged = new double[length];
-        for (int i = begin; i <= size() - nLags; ++i) {
-            lagged[i - begin] = ts.get(i - 1);
-        }
-
-        return new SimpleTimeSeries(lagged);
+        return new SimpleTimeSeries(values, offset + begin - 1, length);
     }
 
     /**
@@ -148,11 +178,11 @@ public class SimpleTimeSeries implements TimeSeries {
         final int lineBreak = 20;
 
         StringBuilder result = new StringBuilder();
-        result.append(String.format("length = %d\n", ts.size()));
+        result.append(String.format("length = %d\n", length));
 
-        for (int i = 1; i <= ts.size(); ++i) {
+        for (int i = 1; i <= length; ++i) {
             result.append(String.format("[%d,] ", i));
-            result.append(String.format("%f, ", ts.get(i - 1)));
+            result.append(String.format("%f, ", get(i)));
 
             if (i % lineBreak == 0) {
                 result.append("\n");
@@ -171,16 +201,24 @@ public class SimpleTimeSeries implements TimeSeries {
             return false;
         }
         final SimpleTimeSeries other = (SimpleTimeSeries) obj;
-        if (this.ts != other.ts && (this.ts == null || !this.ts.equals(other.ts))) {
+        if (this.length != other.length) {
             return false;
         }
+        for (int i = 0; i < length; ++i) {
+            if (Double.doubleToLongBits(this.values[this.offset + i]) != Double.doubleToLongBits(other.values[other.offset + i])) {
+                return false;
+            }
+        }
         return true;
     }
 
     @Override
     public int hashCode() {
         int hash = 7;
-        hash = 41 * hash + (this.ts != null ? this.ts.hashCode() : 0);
+        for (int i = offset; i < offset + length; ++i) {
+            long bits = Double.doubleToLongBits(values[i]);
+            hash = 41 * hash + (int) (bits ^ (bits >>> 32));
+        }
         return hash;
     }
 }
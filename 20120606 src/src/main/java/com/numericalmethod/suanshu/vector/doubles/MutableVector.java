@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.vector.doubles;
+
+/**
+ * This interface defines the in-place arithmetic operations of a vector.
+ * The arithmetic operations in {@link Vector} always return a new instance, which is clean but allocates an array on every call.
+ * In a tight loop, e.g., an iteration of a Krylov subspace solver, the allocations dominate the running time.
+ * The operations here overwrite {@code this} instead and allocate nothing.
+ * <p/>
+ * Note that a caller who keeps a reference to a mutable vector sees the changes.
+ * Make a {@link #deepCopy()} first if the original values are needed.
+ * @see <a href="http://www.netlib.org/blas/">Netlib: BLAS</a>
+ */
+public interface MutableVector extends Vector {
+
+    /**
+     * \(this = this + that\)
+     *
+     * @param that a vector
+     */
+    public void addInPlace(Vector that);
+
+    /**
+     * \(this = this + \alpha x\). This is the BLAS {@code daxpy}.
+     *
+     * @param alpha a scaling constant
+     * @param x     a vector
+     */
+    public void axpy(double alpha, Vector x);
+
+    /**
+     * \(this = c \times this\)
+     *
+     * @param c a scaling constant
+     */
+    public void scaleInPlace(double c);
+}
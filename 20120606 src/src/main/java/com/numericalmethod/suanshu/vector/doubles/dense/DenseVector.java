@@ -30,6 +30,7 @@ import static com.numericalmethod.suanshu.number.DoubleUtils.foreach;
 import com.numericalmethod.suanshu.number.Real;
 import static com.numericalmethod.suanshu.number.doublearray.DoubleArrayMath.*;
 import com.numericalmethod.suanshu.vector.doubles.IsVector;
+import com.numericalmethod.suanshu.vector.doubles.MutableVector;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
 import java.util.Arrays;
 
@@ -39,7 +40,7 @@ import java.util.Arrays;
  * @author Haksun Li
  * @see <a href="http://en.wikipedia.org/wiki/Euclidean_vector">Wikipedia: Euclidean vector</a>
  */
-public class DenseVector implements Vector {//TODO: java.io.Serializable {
+public class DenseVector implements MutableVector {//TODO: java.io.Serializable {
 
     /** data storage */
     private double[] data;
@@ -157,8 +158,25 @@ public class DenseVector implements Vector {//TODO: java.io.Serializable {
         if (from + replacement.length - 1 > this.length) {
             throw new IllegalArgumentException("the replacement vector length starting from 'from' exceeds the original vector length");
         }
-        for (int pos = from, i = 1; i <= replacement.length; ++pos, ++i) {
-            this.set(pos, replacement.get(i));
+        IsVector.throwIfInvalidIndex(this, from);
+        System.arraycopy(replacement.data, 0, this.data, from - 1, replacement.length);
+    }
+
+    /**
+     * Overwrite all entries by those of another vector of the same size.
+     *
+     * @param that a vector
+     */
+    public void set(Vector that) {
+        IsVector.throwIfNotEqualSize(this, that);
+
+        if (that instanceof DenseVector) {
+            System.arraycopy(((DenseVector) that).data, 0, this.data, 0, length);
+            return;
+        }
+
+        for (int i = 0; i < length; ++i) {
+            data[i] = that.get(i + 1);
         }
     }
 
@@ -257,6 +275,34 @@ public class DenseVector implements Vector {//TODO: java.io.Serializable {
         return math.divide(this, that);
     }
 
+    @Override
+    public void addInPlace(Vector that) {
+        axpy(1., that);
+    }
+
+    @Override
+    public void axpy(double alpha, Vector x) {
+        IsVector.throwIfNotEqualSize(this, x);
+
+        if (x instanceof DenseVector) {
+            double[] other = ((DenseVector) x).data;
+            for (int i = 0; i < length; ++i) {
+                data[i] += alpha * other[i];
+            }
+        } else {
+            for (int i = 0; i < length; ++i) {
+                data[i] += alpha * x.get(i + 1);
+            }
+        }
+    }
+
+    @Override
+    public void scaleInPlace(double c) {
+        for (int i = 0; i < length; ++i) {
+            data[i] *= c;
+        }
+    }
+
     @Override
     public DenseVector add(final double scalar) {
         double[] result = foreach(data, new UnivariateRealFunction() {
@@ -344,6 +390,17 @@ public class DenseVector implements Vector {//TODO: java.io.Serializable {
         return new DenseVector(length);
     }
 
+    /**
+     * Cast this vector as a {@code double[]}.
+     * Unlike {@link #toArray()}, there is no copying.
+     * Modifying the returned value modifies the internal data.
+     *
+     * @return itself as a {@code double[]}
+     */
+    public double[] asArray() {
+        return data;
+    }
+
     @Override
     public double[] toArray() {
         double[] result = Arrays.copyOf(data, data.length);
@@ -24,6 +24,7 @@ package com.numericalmethod.suanshu.dsp.univariate.operation.system.doubles;
 
 import com.numericalmethod.suanshu.dsp.univariate.operation.system.doubles.MovingAverage.Side;
 import com.numericalmethod.suanshu.misc.R;
+import com.numericalmethod.suanshu.stats.random.univariate.uniform.MersenneTwister;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -186,4 +187,33 @@ public class MovingAverageTest {
         double[] expResult = new double[]{Double.NaN, Double.NaN, 125, 110, 95, 80, 65, 50, 35, Double.NaN, Double.NaN};
         assertArrayEquals(expResult, result, 1e-15);
     }
+
+    /**
+     * A simple moving average slides the window sum; compare it with summing each window.
+     */
+    @Test
+    public void test_0110() {
+        MersenneTwister rng = new MersenneTwister();
+        rng.seed(1234567890L);
+        double[] Xt = rng.nextDoubles(10000);
+        double[] MAFilter = new double[]{0.1, 0.1, 0.1, 0.1, 0.1, 0.1, 0.1};
+
+        for (Side side : Side.values()) {
+            double[] result = new MovingAverage(MAFilter, side).transform(Xt);
+
+            int offset = side == Side.PAST ? 6 : 3;
+            for (int i = 0; i < Xt.length; ++i) {
+                if (i - offset < 0 || i - offset + 7 > Xt.length) {
+                    assertTrue(Double.isNaN(result[i]));
+                    continue;
+                }
+
+                double sum = 0.;
+                for (int j = 0; j < 7; ++j) {
+                    sum += 0.1 * Xt[i - offset + j];
+                }
+                assertEquals(sum, result[i], 1e-14);
+            }
+        }
+    }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.dsp.univariate.operation.system.doubles;
+
+import com.numericalmethod.suanshu.dsp.univariate.operation.system.doubles.MovingAverage.Side;
+import com.numericalmethod.suanshu.misc.R;
+import com.numericalmethod.suanshu.stats.descriptive.RollingStatistic;
+import com.numericalmethod.suanshu.stats.descriptive.RollingStatisticFactory;
+import com.numericalmethod.suanshu.stats.descriptive.moment.RollingMean;
+import com.numericalmethod.suanshu.stats.descriptive.rank.RollingQuantile;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class RollingFilterTest {
+
+    /**
+     * A rolling mean is a moving average filter with equal weights.
+     */
+    @Test
+    public void test_0010() {
+        double[] x = R.seq(1.0, 10, 1);
+
+        RollingFilter filter = new RollingFilter(new RollingStatisticFactory() {
+
+            @Override
+            public RollingStatistic getStatistic() {
+                return new RollingMean();
+            }
+        }, 3);
+
+        double[] expected = new MovingAverage(new double[]{1. / 3, 1. / 3, 1. / 3}, Side.PAST).transform(x);
+        assertArrayEquals(expected, filter.transform(x), 1e-14);
+        assertArrayEquals(expected, filter.transform(x), 1e-14);//a new statistic each time
+    }
+
+    /**
+    library(zoo)
+    rollapply(c(5, 1, 4, 2, 3, 9, 8), 3, median, align = "right", fill = NA)
+     */
+    @Test
+    public void test_0020() {
+        RollingFilter filter = new RollingFilter(new RollingStatisticFactory() {
+
+            @Override
+            public RollingStatistic getStatistic() {
+                return new RollingQuantile(0.5);
+            }
+        }, 3);
+
+        double[] result = filter.transform(new double[]{5, 1, 4, 2, 3, 9, 8});
+        assertArrayEquals(new double[]{Double.NaN, Double.NaN, 4, 2, 3, 3, 8}, result, 0);
+    }
+}
@@ -27,6 +27,7 @@ import com.numericalmethod.suanshu.matrix.doubles.IsMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.operation.CreateMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.diagonal.BidiagonalMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.stats.random.univariate.uniform.UniformRng;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -274,4 +275,34 @@ public class BiDiagonalizationTest {
         Matrix Bexpected = U.t().multiply(A).multiply(V);
         assertTrue(AreMatrices.equal(Bexpected, B, 1e-114));
     }
+
+    /**
+     * a tall matrix, QR decomposed first, wider than the block size
+     */
+    @Test
+    public void test_0120() {
+        UniformRng rng = new UniformRng();
+        rng.seed(1234567890L);
+        DenseMatrix A = new DenseMatrix(200, 70);
+        for (int i = 1; i <= A.nRows(); ++i) {
+            for (int j = 1; j <= A.nCols(); ++j) {
+                A.set(i, j, rng.nextDouble() - 0.5);
+            }
+        }
+        BiDiagonalization instance = new BiDiagonalization(A);
+
+        BidiagonalMatrix B = instance.B();
+        assertTrue(IsMatrix.upperBidiagonal(B, 0));
+
+        Matrix U = instance.U();
+        assertTrue(IsMatrix.orthogonal(U, 1e-12));
+
+        Matrix V = instance.V();
+        assertTrue(IsMatrix.orthogonal(V, 1e-12));
+
+        Matrix Bexpected = U.t().multiply(A).multiply(V);
+        assertTrue(AreMatrices.equal(CreateMatrix.subMatrix(Bexpected, 1, A.nCols(), 1, A.nCols()), B, 1e-12));
+        assertTrue(AreMatrices.equal(CreateMatrix.subMatrix(Bexpected, A.nCols() + 1, A.nRows(), 1, A.nCols()),
+                                     new DenseMatrix(A.nRows() - A.nCols(), A.nCols()).ZERO(), 1e-12));
+    }
 }
@@ -623,4 +623,53 @@ public class EigenTest {
                 new DenseVector(new double[]{0, 0, 1})));//from debugger
     }
     //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="tests for SYMMETRY">
+    @Test
+    public void test_SYMMETRY_0010() {
+        Matrix A = new DenseMatrix(new double[][]{
+                    {4, 1, -2, 2},
+                    {1, 2, 0, 1},
+                    {-2, 0, 3, -2},
+                    {2, 1, -2, -1}
+                });
+        Eigen qr = new Eigen(A, Eigen.Method.QR, 1e-12);
+        Eigen instance = new Eigen(A, Eigen.Method.SYMMETRY, 1e-12);
+        NumberAssert.assertSameList(qr.getEigenvalues(), instance.getEigenvalues(), 1e-12);
+
+        for (int i = 0; i < instance.size(); ++i) {
+            EigenProperty prop = instance.getProperty(i);
+            assertEquals(1, prop.algebraicMultiplicity());
+            assertEquals(1, prop.geometricMultiplicity());
+
+            Vector v = prop.eigenVector();
+            assertEquals(1, v.norm(), 1e-14);
+            assertTrue(v.get(4) > 0);
+            assertEquals(0, A.multiply(v).minus(v.scaled(prop.eigenvalue().doubleValue())).norm(), 1e-12);
+        }
+    }
+
+    @Test
+    public void test_SYMMETRY_0020() {
+        Matrix A = new DenseMatrix(new double[][]{
+                    {2, 1, 1},
+                    {1, 2, 1},
+                    {1, 1, 2}
+                });
+        Eigen instance = new Eigen(A, Eigen.Method.SYMMETRY, 1e-12);
+        NumberAssert.assertSameList(
+                Arrays.asList(4., 1.),
+                instance.getEigenvalues(),
+                1e-14);
+
+        EigenProperty prop = instance.getProperty(1);
+        assertEquals(2, prop.algebraicMultiplicity());
+        assertEquals(2, prop.geometricMultiplicity());
+        List<Vector> basis = prop.eigenbasis();
+        assertEquals(0, basis.get(0).innerProduct(basis.get(1)), 1e-14);
+        for (Vector v : basis) {
+            assertEquals(0, A.multiply(v).minus(v).norm(), 1e-14);
+        }
+    }
+    //</editor-fold>
 }
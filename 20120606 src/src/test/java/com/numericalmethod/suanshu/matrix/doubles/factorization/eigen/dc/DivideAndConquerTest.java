@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.factorization.eigen.dc;
+
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.operation.MatrixMeasure;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class DivideAndConquerTest {
+
+    @Test
+    public void test_0010() {
+        Matrix A = new DenseMatrix(new double[][]{
+                    {2, -1, 0, 0},
+                    {-1, 2, -1, 0},
+                    {0, -1, 2, -1},
+                    {0, 0, -1, 2}
+                });
+        DivideAndConquer instance = new DivideAndConquer(A);
+
+        double[] eigenvalues = instance.eigenvalues();
+        for (int k = 1; k <= 4; ++k) {// 2 - 2cos(kπ/5)
+            assertEquals(2 - 2 * Math.cos((5 - k) * Math.PI / 5), eigenvalues[k - 1], 1e-14);
+        }
+
+        assertDecomposition(A, instance, 1e-14);
+    }
+
+    @Test
+    public void test_0020() {
+        final int n = 300;
+        Random rng = new Random(1234567890L);
+        double[][] a = new double[n][n];
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j <= i; ++j) {
+                a[i][j] = a[j][i] = rng.nextGaussian();
+            }
+        }
+        Matrix A = new DenseMatrix(a);
+
+        DivideAndConquer instance = new DivideAndConquer(A);
+        double[] eigenvalues = instance.eigenvalues();
+        for (int i = 1; i < n; ++i) {
+            assertTrue(eigenvalues[i - 1] >= eigenvalues[i]);
+        }
+
+        assertDecomposition(A, instance, 1e-11);
+    }
+
+    /**
+     * many repeated eigenvalues that are deflated
+     */
+    @Test
+    public void test_0030() {
+        final int n = 100;
+        double[][] a = new double[n][n];
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < n; ++j) {
+                a[i][j] = i == j ? 4 : 1;
+            }
+        }
+        Matrix A = new DenseMatrix(a);
+
+        DivideAndConquer instance = new DivideAndConquer(A);
+        double[] eigenvalues = instance.eigenvalues();
+        assertEquals(n + 3, eigenvalues[0], 1e-12);
+        for (int i = 1; i < n; ++i) {
+            assertEquals(3, eigenvalues[i], 1e-12);
+        }
+
+        assertDecomposition(A, instance, 1e-12);
+    }
+
+    private static void assertDecomposition(Matrix A, DivideAndConquer instance, double epsilon) {
+        final int n = A.nRows();
+        Matrix Q = instance.Q();
+        double[] eigenvalues = instance.eigenvalues();
+
+        Matrix D = new DenseMatrix(n, n);
+        for (int i = 1; i <= n; ++i) {
+            D.set(i, i, eigenvalues[i - 1]);
+        }
+        assertEquals(0, MatrixMeasure.Frobenius(A.minus(Q.multiply(D).multiply(Q.t()))), epsilon * n);
+        assertEquals(0, MatrixMeasure.Frobenius(Q.t().multiply(Q).minus(Q.ONE())), epsilon * n);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.factorization.eigen.krylov;
+
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.number.complex.Complex;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ArnoldiTest {
+
+    /**
+     * A non-symmetric block upper triangular matrix, whose eigenvalues are those of the diagonal blocks:
+     * 1, 2, ..., n - 2 and a complex pair 10 &plusmn; 60i.
+     */
+    private static Matrix blockUpperTriangular(int n) {
+        Random random = new Random(1234567890L);
+        double[][] data = new double[n][n];
+        for (int i = 0; i < n; ++i) {
+            for (int j = i + 1; j < n; ++j) {
+                data[i][j] = random.nextGaussian();
+            }
+        }
+        for (int i = 0; i < n - 2; ++i) {
+            data[i][i] = i + 1;
+        }
+        data[n - 2][n - 2] = 10.;
+        data[n - 2][n - 1] = -60.;
+        data[n - 1][n - 2] = 60.;
+        data[n - 1][n - 1] = 10.;
+        return new DenseMatrix(data);
+    }
+
+    @Test
+    public void test_0010() {
+        int n = 60;
+        Matrix A = blockUpperTriangular(n);
+        Arnoldi arnoldi = new Arnoldi(A, 3);
+
+        List<Number> eigenvalues = arnoldi.getEigenvalues();
+        assertEquals(3, eigenvalues.size());
+
+        Complex c1 = (Complex) eigenvalues.get(0);
+        Complex c2 = (Complex) eigenvalues.get(1);
+        assertEquals(10., c1.real(), 1e-8);
+        assertEquals(60., Math.abs(c1.imaginary()), 1e-8);
+        assertEquals(c1.real(), c2.real(), 1e-8);
+        assertEquals(-c1.imaginary(), c2.imaginary(), 1e-8);
+
+        assertEquals(n - 2, eigenvalues.get(2).doubleValue(), 1e-8);
+        Vector v = arnoldi.eigenVector(3);
+        assertEquals(1., v.norm(), 1e-10);
+        assertEquals(0., A.multiply(v).minus(v.scaled(n - 2)).norm(), 1e-8);
+    }
+
+    @Test
+    public void test_0020() {
+        int n = 60;
+        Matrix A = blockUpperTriangular(n);
+        Arnoldi arnoldi = new Arnoldi(A, 4, Arnoldi.Target.SMALLEST_REAL);
+
+        List<Number> eigenvalues = arnoldi.getEigenvalues();
+        assertEquals(4, eigenvalues.size());
+        for (int i = 1; i <= 4; ++i) {
+            assertEquals(i, eigenvalues.get(i - 1).doubleValue(), 1e-8);
+            Vector v = arnoldi.eigenVector(i);
+            assertEquals(0., A.multiply(v).minus(v.scaled(i)).norm(), 1e-8);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_0030() {
+        Arnoldi arnoldi = new Arnoldi(blockUpperTriangular(30), 1);
+        arnoldi.eigenVector(1);//complex
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.factorization.eigen.krylov;
+
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.CSRSparseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.operation.MatrixMeasure;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class LanczosTest {
+
+    /**
+     * the 1D Laplacian, tridiagonal (-1, 2, -1), whose eigenvalues are 2 - 2cos(j * pi / (n + 1))
+     */
+    private static Matrix laplacian(int n) {
+        int nnz = 3 * n - 2;
+        int[] rows = new int[nnz];
+        int[] cols = new int[nnz];
+        double[] values = new double[nnz];
+        int k = 0;
+        for (int i = 1; i <= n; ++i) {
+            if (i > 1) {
+                rows[k] = i;
+                cols[k] = i - 1;
+                values[k++] = -1.;
+            }
+            rows[k] = i;
+            cols[k] = i;
+            values[k++] = 2.;
+            if (i < n) {
+                rows[k] = i;
+                cols[k] = i + 1;
+                values[k++] = -1.;
+            }
+        }
+        return new CSRSparseMatrix(n, n, rows, cols, values);
+    }
+
+    private static double laplacianEigenvalue(int n, int j) {
+        return 2. - 2. * Math.cos(j * Math.PI / (n + 1));
+    }
+
+    private static void assertEigenpairs(Matrix A, Lanczos lanczos, double epsilon) {
+        double[] eigenvalues = lanczos.eigenvalues();
+        Matrix Q = lanczos.Q();
+        for (int j = 1; j <= eigenvalues.length; ++j) {
+            Vector q = Q.getColumn(j);
+            assertEquals(1., q.norm(), epsilon);
+            Vector r = A.multiply(q).minus(q.scaled(eigenvalues[j - 1]));
+            assertEquals(0., r.norm(), epsilon);
+        }
+
+        Matrix QtQ = Q.t().multiply(Q);
+        for (int i = 1; i <= QtQ.nRows(); ++i) {
+            for (int j = 1; j <= QtQ.nCols(); ++j) {
+                assertEquals(i == j ? 1. : 0., QtQ.get(i, j), epsilon);
+            }
+        }
+    }
+
+    @Test
+    public void test_0010() {
+        int n = 400;
+        Matrix A = laplacian(n);
+        Lanczos lanczos = new Lanczos(A, 5, Lanczos.Target.LARGEST);
+
+        double[] eigenvalues = lanczos.eigenvalues();
+        assertEquals(5, eigenvalues.length);
+        for (int j = 1; j <= 5; ++j) {
+            assertEquals(laplacianEigenvalue(n, n + 1 - j), eigenvalues[j - 1], 1e-10);
+        }
+        assertEigenpairs(A, lanczos, 1e-9);
+    }
+
+    @Test
+    public void test_0020() {
+        int n = 100;
+        Matrix A = laplacian(n);
+        Lanczos lanczos = new Lanczos(A, 3, Lanczos.Target.SMALLEST);
+
+        double[] eigenvalues = lanczos.eigenvalues();
+        assertEquals(3, eigenvalues.length);
+        for (int j = 1; j <= 3; ++j) {
+            assertEquals(laplacianEigenvalue(n, j), eigenvalues[j - 1], 1e-10);
+        }
+        assertEigenpairs(A, lanczos, 1e-9);
+    }
+
+    /**
+     * a dense random symmetric matrix; compare with the full decomposition
+     */
+    @Test
+    public void test_0030() {
+        int n = 150;
+        Random random = new Random(1234567890L);
+        double[][] data = new double[n][n];
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j <= i; ++j) {
+                data[i][j] = data[j][i] = random.nextGaussian();
+            }
+        }
+        Matrix A = new DenseMatrix(data);
+
+        Lanczos lanczos = new Lanczos(A, 4, Lanczos.Target.LARGEST_MAGNITUDE);
+        double[] eigenvalues = lanczos.eigenvalues();
+        for (int j = 1; j < eigenvalues.length; ++j) {
+            assertTrue(Math.abs(eigenvalues[j - 1]) >= Math.abs(eigenvalues[j]));
+        }
+        assertEigenpairs(A, lanczos, 1e-8);
+
+        //the sum of all eigenvalues is the trace
+        Lanczos all = new Lanczos(A, n - 1, Lanczos.Target.LARGEST);
+        double sum = 0;
+        for (double eigenvalue : all.eigenvalues()) {
+            sum += eigenvalue;
+        }
+        Lanczos smallest = new Lanczos(A, 1, Lanczos.Target.SMALLEST);
+        sum += smallest.eigenvalues()[0];
+        assertEquals(MatrixMeasure.tr(A), sum, 1e-8);
+    }
+}
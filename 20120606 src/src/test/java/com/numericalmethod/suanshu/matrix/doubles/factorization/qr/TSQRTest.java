@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.factorization.qr;
+
+import com.numericalmethod.suanshu.matrix.doubles.AreMatrices;
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.triangle.UpperTriangularMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.operation.CreateMatrix;
+import com.numericalmethod.suanshu.stats.random.univariate.uniform.UniformRng;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TSQRTest {
+
+    private static DenseMatrix random(int nRows, int nCols) {
+        UniformRng rng = new UniformRng();
+        rng.seed(1234567890L);
+        DenseMatrix A = new DenseMatrix(nRows, nCols);
+        for (int i = 1; i <= nRows; ++i) {
+            for (int j = 1; j <= nCols; ++j) {
+                A.set(i, j, rng.nextDouble() - 0.5);
+            }
+        }
+        return A;
+    }
+
+    /**
+     * Split the rows of a matrix into blocks of the given sizes.
+     */
+    private static List<Matrix> split(Matrix A, int... sizes) {
+        List<Matrix> blocks = new ArrayList<Matrix>();
+        int from = 1;
+        for (int size : sizes) {
+            blocks.add(CreateMatrix.subMatrix(A, from, from + size - 1, 1, A.nCols()));
+            from += size;
+        }
+        assertEquals(A.nRows() + 1, from);
+        return blocks;
+    }
+
+    @Test
+    public void test_0010() {
+        Matrix A = new DenseMatrix(new double[][]{
+                    {3, 2},
+                    {4, 1},
+                    {0, 5}
+                });
+
+        TSQR instance = new TSQR(2, split(A, 1, 2).iterator(), 0);
+        UpperTriangularMatrix R = instance.R();
+        assertEquals(3, instance.nRows());
+        assertEquals(2, instance.rank());
+        assertEquals(5, Math.abs(R.get(1, 1)), 1e-15);
+        assertTrue(AreMatrices.equal(A.t().multiply(A), R.t().multiply(R), 1e-14));
+    }
+
+    /**
+     * blocks of different sizes, some with fewer rows than columns, and one taller than the cached rows
+     */
+    @Test
+    public void test_0020() {
+        Matrix A = random(1000, 7);
+
+        TSQR instance = new TSQR(7, split(A, 3, 300, 1, 10, 600, 50, 2, 34).iterator(), 0);
+        UpperTriangularMatrix R = instance.R();
+        assertEquals(1000, instance.nRows());
+        assertEquals(7, instance.rank());
+        assertTrue(AreMatrices.equal(A.t().multiply(A), R.t().multiply(R), 1e-12));
+
+        //the same R, up to the signs of the rows, as HouseholderReflection
+        UpperTriangularMatrix R0 = new HouseholderReflection(A, 0).R();
+        for (int i = 1; i <= 7; ++i) {
+            final double sign = Math.signum(R.get(i, i)) * Math.signum(R0.get(i, i));
+            for (int j = i; j <= 7; ++j) {
+                assertEquals(R0.get(i, j), sign * R.get(i, j), 1e-12);
+            }
+        }
+    }
+
+    /**
+     * adding the blocks one by one
+     */
+    @Test
+    public void test_0030() {
+        Matrix A = random(500, 5);
+
+        TSQR instance = new TSQR(5, 0);
+        for (Matrix block : split(A, 100, 100, 100, 100, 100)) {
+            instance.add(block);
+        }
+        UpperTriangularMatrix R = instance.R();
+        assertEquals(500, instance.nRows());
+        assertTrue(AreMatrices.equal(A.t().multiply(A), R.t().multiply(R), 1e-12));
+    }
+
+    /**
+     * linearly dependent columns
+     */
+    @Test
+    public void test_0040() {
+        Matrix A = new DenseMatrix(new double[][]{
+                    {1, 2, 3},
+                    {2, 4, 1},
+                    {3, 6, 2},
+                    {4, 8, 5}
+                });
+
+        TSQR instance = new TSQR(3, split(A, 2, 2).iterator(), 1e-12);
+        assertEquals(2, instance.rank());
+    }
+}
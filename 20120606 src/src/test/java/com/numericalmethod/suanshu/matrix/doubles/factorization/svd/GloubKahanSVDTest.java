@@ -25,6 +25,7 @@ import com.numericalmethod.suanshu.matrix.doubles.Matrix;
 import com.numericalmethod.suanshu.matrix.doubles.AreMatrices;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.diagonal.DiagonalMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.stats.random.univariate.uniform.UniformRng;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -605,4 +606,32 @@ public class GloubKahanSVDTest {
         GloubKahanSVD instance = new GloubKahanSVD(A, true, true, 1e-15);
         assertEquals(true, true);
     }
+
+    /**
+     * a tall matrix, with and without computing U and V
+     */
+    @Test
+    public void test_0190() {
+        UniformRng rng = new UniformRng();
+        rng.seed(1234567890L);
+        DenseMatrix A = new DenseMatrix(300, 80);
+        for (int i = 1; i <= A.nRows(); ++i) {
+            for (int j = 1; j <= A.nCols(); ++j) {
+                A.set(i, j, rng.nextDouble() - 0.5);
+            }
+        }
+
+        GloubKahanSVD instance = new GloubKahanSVD(A, true, true, 1e-15);
+        DiagonalMatrix D = instance.D();
+        Matrix U = instance.U();
+        Matrix V = instance.V();
+        assertTrue(AreMatrices.equal(A, U.multiply(D).multiply(V.t()), 1e-11));
+
+        double[] sv = new GloubKahanSVD(A, false, true, 1e-15).getSingularValues();
+        double[] expected = instance.getSingularValues();
+        assertArrayEquals(expected, sv, 1e-12);
+        for (int i = 1; i < sv.length; ++i) {
+            assertTrue(sv[i - 1] >= sv[i]);
+        }
+    }
 }
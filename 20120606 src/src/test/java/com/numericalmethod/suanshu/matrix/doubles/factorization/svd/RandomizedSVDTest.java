@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.factorization.svd;
+
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.diagonal.DiagonalMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.operation.MatrixMeasure;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class RandomizedSVDTest {
+
+    /**
+     * a 200 x 80 matrix with singular values 2^0, 2^-1, 2^-2, ...
+     */
+    private static Matrix decaying() {
+        Random random = new Random(1234567890L);
+        int m = 200, n = 80;
+        Matrix U = new SVD(gaussian(m, n, random), true).U();
+        Matrix V = new SVD(gaussian(n, n, random), true).V();
+        double[] d = new double[n];
+        for (int j = 0; j < n; ++j) {
+            d[j] = Math.pow(2., -j);
+        }
+        return U.multiply(new DiagonalMatrix(d)).multiply(V.t());
+    }
+
+    private static Matrix gaussian(int m, int n, Random random) {
+        double[][] data = new double[m][n];
+        for (int i = 0; i < m; ++i) {
+            for (int j = 0; j < n; ++j) {
+                data[i][j] = random.nextGaussian();
+            }
+        }
+        return new DenseMatrix(data);
+    }
+
+    @Test
+    public void test_0010() {
+        Matrix A = decaying();
+        RandomizedSVD rsvd = new RandomizedSVD(A, 5);
+
+        double[] s = rsvd.getSingularValues();
+        assertEquals(5, s.length);
+        for (int j = 0; j < 5; ++j) {
+            assertEquals(Math.pow(2., -j), s[j], 1e-12);
+        }
+
+        Matrix U = rsvd.U();
+        Matrix V = rsvd.V();
+        assertEquals(200, U.nRows());
+        assertEquals(5, U.nCols());
+        assertEquals(80, V.nRows());
+        assertEquals(5, V.nCols());
+
+        //A ~ U * D * V'
+        Matrix residual = A.minus(U.multiply(rsvd.D()).multiply(rsvd.V().t()));
+        assertEquals(Math.pow(2., -5), MatrixMeasure.Frobenius(residual), 1e-2);
+    }
+
+    /**
+     * an exactly low rank matrix is recovered
+     */
+    @Test
+    public void test_0020() {
+        Random random = new Random(1234567890L);
+        Matrix A = gaussian(100, 3, random).multiply(gaussian(3, 40, random));
+
+        RandomizedSVD rsvd = new RandomizedSVD(A, 3);
+        SVD svd = new SVD(A, true);
+        for (int j = 0; j < 3; ++j) {
+            assertEquals(svd.getSingularValues()[j], rsvd.getSingularValues()[j], 1e-10);
+        }
+        Matrix residual = A.minus(rsvd.U().multiply(rsvd.D()).multiply(rsvd.V().t()));
+        assertEquals(0., MatrixMeasure.Frobenius(residual), 1e-10);
+    }
+}
@@ -26,6 +26,7 @@ import com.numericalmethod.suanshu.matrix.doubles.AreMatrices;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.triangle.LowerTriangularMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.triangle.UpperTriangularMatrix;
+import com.numericalmethod.suanshu.stats.random.univariate.uniform.UniformRng;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -160,4 +161,26 @@ public class CholeskyTest {
         UpperTriangularMatrix Lt = instance.Lt();
         assertTrue(AreMatrices.equal(A, L.multiply(Lt), 1e-15));
     }
+
+    /**
+     * a matrix bigger than the block size
+     */
+    @Test
+    public void testCholesky_0150() {
+        int dim = 150;
+        UniformRng rng = new UniformRng();
+        rng.seed(1234567890L);
+        DenseMatrix X = new DenseMatrix(dim, dim);
+        for (int i = 1; i <= dim; ++i) {
+            for (int j = 1; j <= dim; ++j) {
+                X.set(i, j, rng.nextDouble() - 0.5);
+            }
+        }
+        Matrix A = X.multiply(X.t()).add(X.ONE().scaled(dim));//positive definite
+
+        Cholesky instance = new Cholesky(A, 1e-12);
+        LowerTriangularMatrix L = instance.L();
+        UpperTriangularMatrix Lt = instance.Lt();
+        assertTrue(AreMatrices.equal(A, L.multiply(Lt), 1e-10));
+    }
 }
@@ -28,6 +28,7 @@ import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.triangle.Lowe
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.PermutationMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.triangle.UpperTriangularMatrix;
+import com.numericalmethod.suanshu.stats.random.univariate.uniform.UniformRng;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -704,4 +705,33 @@ public class DoolittleTest {
 
         Doolittle instance = new Doolittle(A1);
     }
+
+    /**
+     * a matrix bigger than the block size
+     */
+    @Test
+    public void test_0350() {
+        int dim = 150;
+        UniformRng rng = new UniformRng();
+        rng.seed(1234567890L);
+        Matrix A = new DenseMatrix(dim, dim);
+        for (int i = 1; i <= dim; ++i) {
+            for (int j = 1; j <= dim; ++j) {
+                A.set(i, j, rng.nextDouble() - 0.5);
+            }
+        }
+
+        Doolittle instance = new Doolittle(A);
+        LowerTriangularMatrix L = instance.L();
+        UpperTriangularMatrix U = instance.U();
+        PermutationMatrix P = instance.P();
+
+        assertTrue(AreMatrices.equal(P.multiply(A), L.multiply(U), 1e-12));
+        for (int i = 1; i <= dim; ++i) {
+            assertEquals(1., L.get(i, i), 0);
+            for (int j = 1; j < i; ++j) {
+                assertTrue(Math.abs(L.get(i, j)) <= 1.);//partial pivoting
+            }
+        }
+    }
 }
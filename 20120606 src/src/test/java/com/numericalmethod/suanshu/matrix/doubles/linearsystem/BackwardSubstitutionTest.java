@@ -24,6 +24,9 @@ package com.numericalmethod.suanshu.matrix.doubles.linearsystem;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.triangle.UpperTriangularMatrix;
 import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+import com.numericalmethod.suanshu.matrix.doubles.AreMatrices;
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -180,4 +183,54 @@ public class BackwardSubstitutionTest {
         assertEquals(new DenseVector(new double[]{10, 0, 0}), x);
         assertEquals(b, U.multiply(x));
     }
+
+    /**
+     * Test of solving multiple right-hand sides; each column must match the single-vector solution exactly.
+     */
+    @Test
+    public void testBackwardSubstitution_multipleRHS_0010() {
+        UpperTriangularMatrix U = new UpperTriangularMatrix(new double[][]{
+                    {1, 2, 3},
+                    {5, 6},
+                    {7}
+                });
+        Matrix B = new DenseMatrix(new double[][]{
+                    {10, 1, 0},
+                    {20, -2, 0},
+                    {30, 3.5, 0}
+                });
+
+        BackwardSubstitution instance = new BackwardSubstitution();
+        Matrix X = instance.solve(U, B);
+        for (int j = 1; j <= B.nCols(); ++j) {
+            assertEquals(instance.solve(U, B.getColumn(j)), X.getColumn(j));
+        }
+    }
+
+    /**
+     * Test of solving many right-hand sides, which are solved in blocks.
+     */
+    @Test
+    public void testBackwardSubstitution_multipleRHS_0020() {
+        int n = 50;
+        int m = 150;
+        DenseMatrix T = new DenseMatrix(n, n);
+        for (int i = 1; i <= n; ++i) {
+            for (int j = 1; j <= n; ++j) {
+                T.set(i, j, i == j ? n : 1. / (i + j));
+            }
+        }
+        UpperTriangularMatrix U = new UpperTriangularMatrix(T);
+        DenseMatrix B = new DenseMatrix(n, m);
+        for (int i = 1; i <= n; ++i) {
+            for (int j = 1; j <= m; ++j) {
+                B.set(i, j, Math.sin(i * j));
+            }
+        }
+
+        BackwardSubstitution instance = new BackwardSubstitution();
+        Matrix X = instance.solve(U, B);
+        assertTrue(AreMatrices.equal(B, U.toDense().multiply(X), 1e-12));
+        assertEquals(instance.solve(U, B.getColumn(m)), X.getColumn(m));
+    }
 }
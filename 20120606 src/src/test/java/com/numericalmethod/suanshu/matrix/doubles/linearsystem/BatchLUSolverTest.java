@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.linearsystem;
+
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class BatchLUSolverTest {
+
+    @Test
+    public void test_0010() {
+        Matrix[] A = new Matrix[]{
+            new DenseMatrix(new double[][]{
+                {1, 2, 3},
+                {4, 5, 6},
+                {7, 8, 10}
+            }),
+            new DenseMatrix(new double[][]{
+                {0, 1, 0},
+                {1, 0, 0},
+                {0, 0, 2}
+            })
+        };
+        Vector[] b = new Vector[]{
+            new DenseVector(1., 2., 3.),
+            new DenseVector(1., 2., 3.)
+        };
+
+        Vector[] x = new BatchLUSolver(3).solve(A, b);
+        for (int k = 0; k < A.length; ++k) {
+            assertArrayEquals(b[k].toArray(), A[k].multiply(x[k]).toArray(), 1e-14);
+        }
+        assertArrayEquals(new double[]{2, 1, 1.5}, x[1].toArray(), 0);
+    }
+
+    /**
+     * a batch bigger than a chunk
+     */
+    @Test
+    public void test_0020() {
+        int dim = 4;
+        int size = 1000;
+        Matrix[] A = new Matrix[size];
+        Vector[] b = new Vector[size];
+        for (int k = 0; k < size; ++k) {
+            A[k] = new DenseMatrix(dim, dim);
+            for (int i = 1; i <= dim; ++i) {
+                for (int j = 1; j <= dim; ++j) {
+                    A[k].set(i, j, Math.cos(k + i * dim + j) + (i == j ? 3 : 0));
+                }
+            }
+            b[k] = new DenseVector(dim, k);
+        }
+
+        Vector[] x = new BatchLUSolver(dim).solve(A, b);
+        LUSolver solver = new LUSolver();
+        for (int k = 0; k < size; ++k) {
+            assertArrayEquals(solver.solve(new LSProblem(A[k], b[k])).toArray(), x[k].toArray(), 1e-10);
+        }
+    }
+
+    @Test(expected = LinearSystemSolver.NoSolution.class)
+    public void test_0030() {
+        Matrix[] A = new Matrix[]{
+            new DenseMatrix(new double[][]{
+                {1, 2},
+                {2, 4}
+            })
+        };
+        Vector[] b = new Vector[]{new DenseVector(1., 2.)};
+
+        new BatchLUSolver(2).solve(A, b);
+    }
+}
@@ -28,6 +28,8 @@ import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.triangle.Lowe
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.triangle.UpperTriangularMatrix;
 import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+import com.numericalmethod.suanshu.matrix.doubles.AreMatrices;
+import com.numericalmethod.suanshu.matrix.doubles.factorization.triangle.LU;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -336,4 +338,60 @@ public class LUSolverTest {
         Vector x = instance.solve(new LSProblem(M, b));
         assertArrayEquals(b.toArray(), M.multiply(x).toArray(), 1e-11);
     }
+
+    /**
+     * Test of solving multiple right-hand sides against one LU decomposition.
+     */
+    @Test
+    public void testLU_0190() {
+        Matrix M = new DenseMatrix(new double[][]{
+                    {1, 2, 3, 4},
+                    {11, 25, 34, 41},
+                    {-61, 12, -33, 4.4},
+                    {-0.31, -12, -3, -34}
+                });
+        Matrix B = new DenseMatrix(new double[][]{
+                    {10, 1},
+                    {20, 2},
+                    {30, 3},
+                    {40, 4}
+                });
+
+        LU lu = new LU(M);
+        LUSolver instance = new LUSolver();
+        Matrix X = instance.solve(lu, B);
+        assertTrue(AreMatrices.equal(B, M.multiply(X), 1e-12));
+
+        Vector x = instance.solve(lu, B.getColumn(2));
+        assertArrayEquals(X.getColumn(2).toArray(), x.toArray(), 0);
+    }
+
+    /**
+     * A singular matrix whose LU decomposition succeeds with a 0 pivot.
+     */
+    @Test(expected = LinearSystemSolver.NoSolution.class)
+    public void testLU_0200() {
+        LU lu = new LU(new DenseMatrix(new double[][]{
+                    {1, 2},
+                    {2, 4}
+                }));
+        assertEquals(0., lu.U().get(2, 2), 0);
+
+        LUSolver instance = new LUSolver();
+        instance.solve(lu, new DenseVector(new double[]{1, 2}));
+    }
+
+    @Test(expected = LinearSystemSolver.NoSolution.class)
+    public void testLU_0210() {
+        LU lu = new LU(new DenseMatrix(new double[][]{
+                    {1, 2},
+                    {2, 4}
+                }));
+
+        LUSolver instance = new LUSolver();
+        instance.solve(lu, new DenseMatrix(new double[][]{
+                    {1, 0},
+                    {2, 1}
+                }));
+    }
 }
@@ -25,6 +25,7 @@ package com.numericalmethod.suanshu.matrix.doubles.linearsystem;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
 import com.numericalmethod.suanshu.matrix.doubles.Matrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.CSRSparseMatrix;
 import com.numericalmethod.suanshu.matrix.doubles.linearsystem.LinearSystemSolver.NoSolution;
 import com.numericalmethod.suanshu.misc.SuanShuUtils;
 import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
@@ -151,6 +152,63 @@ public class LinearSystemSolverTest {
         assertEquals(b, A.multiply(x));
         assertEquals(0, soln.getHomogeneousSoln().size());
     }
+
+    /**
+     * A non-singular sparse matrix is solved by the sparse LU decomposition.
+     */
+    @Test
+    public void test_Solve_0110() {
+        CSRSparseMatrix A = new CSRSparseMatrix(4, 4,
+                                                new int[]{1, 1, 2, 3, 3, 4, 4, 4},
+                                                new int[]{2, 4, 1, 2, 3, 1, 3, 4},
+                                                new double[]{2, 1, 3, 1, 4, 1, 2, 5});
+        Vector b = new DenseVector(new double[]{1, 2, 3, 4});
+
+        LinearSystemSolver instance = new LinearSystemSolver(1e-15);
+        LinearSystemSolver.Solution soln = instance.solve(A);
+        Vector x = soln.getParticularSolution(b);
+
+        assertArrayEquals(b.toArray(), A.multiply(x).toArray(), 1e-14);
+        assertEquals(0, soln.getHomogeneousSoln().size());
+    }
+
+    /**
+     * A singular sparse matrix falls back to the kernel.
+     */
+    @Test
+    public void test_Solve_0120() {
+        CSRSparseMatrix A = new CSRSparseMatrix(4, 4,
+                                                new int[]{1, 1, 1, 2, 2, 2, 3, 3, 3, 4, 4, 4},
+                                                new int[]{2, 3, 4, 1, 3, 4, 1, 2, 4, 2, 3, 4},
+                                                new double[]{1, 2, -1, 1, 1, 1, -1, 1, -1, 2, 3, -1});
+        Vector b = new DenseVector(new double[]{1, 4, 2, 7});
+
+        LinearSystemSolver instance = new LinearSystemSolver(1e-15);
+        LinearSystemSolver.Solution soln = instance.solve(A);
+        Vector x = soln.getParticularSolution(b);
+
+        assertArrayEquals(b.toArray(), A.multiply(x).toArray(), 1e-14);
+        assertEquals(1, soln.getHomogeneousSoln().size());
+    }
+
+    /**
+     * The sparse LU pivots all exceed ε but the kernel finds a null space;
+     * the rank must not depend on the storage of A.
+     */
+    @Test
+    public void test_Solve_0130() {
+        CSRSparseMatrix A = new CSRSparseMatrix(2, 2,
+                                                new int[]{1, 1, 2, 2},
+                                                new int[]{1, 2, 1, 2},
+                                                new double[]{1, 1, 1, 1 + 1.2e-10});
+
+        LinearSystemSolver instance = new LinearSystemSolver(1e-10);
+        LinearSystemSolver.Solution sparse = instance.solve(A);
+        LinearSystemSolver.Solution dense = instance.solve(new DenseMatrix(A));
+
+        assertEquals(1, dense.getHomogeneousSoln().size());
+        assertEquals(dense.getHomogeneousSoln().size(), sparse.getHomogeneousSoln().size());
+    }
     //</editor-fold>
 
     //<editor-fold defaultstate="collapsed" desc="homogeneous solution">    
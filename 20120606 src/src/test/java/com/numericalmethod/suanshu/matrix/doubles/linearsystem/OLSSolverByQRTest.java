@@ -26,6 +26,7 @@ import com.numericalmethod.suanshu.matrix.doubles.Matrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
 import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
+import java.util.Arrays;
 
 import org.junit.Test;
 import static org.junit.Assert.*;
@@ -84,4 +85,27 @@ public class OLSSolverByQRTest {
         Vector b1 = instance.solve(new LSProblem(A, y));
         assertArrayEquals(new double[]{3.5, 1.4}, b1.toArray(), 1e-14);
     }
+
+    /**
+     * the equations in blocks of rows
+     */
+    @Test
+    public void test_0040() {
+        LSProblem block1 = new LSProblem(
+                new DenseMatrix(new double[][]{
+                    {1, 1}
+                }),
+                new DenseVector(new double[]{6}));
+        LSProblem block2 = new LSProblem(
+                new DenseMatrix(new double[][]{
+                    {1, 2},
+                    {1, 3},
+                    {1, 4}
+                }),
+                new DenseVector(new double[]{5, 7, 10}));
+
+        OLSSolverByQR instance = new OLSSolverByQR(0);
+        Vector b1 = instance.solve(Arrays.asList(block1, block2).iterator());
+        assertArrayEquals(new double[]{3.5, 1.4}, b1.toArray(), 1e-14);
+    }
 }
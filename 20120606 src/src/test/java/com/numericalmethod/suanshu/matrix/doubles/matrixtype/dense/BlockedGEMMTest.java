@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense;
+
+import com.numericalmethod.suanshu.stats.random.univariate.uniform.UniformRng;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class BlockedGEMMTest {
+
+    private static double[] random(int length, long seed) {
+        UniformRng rng = new UniformRng();
+        rng.seed(seed);
+        double[] result = new double[length];
+        for (int i = 0; i < length; ++i) {
+            result[i] = rng.nextDouble() - 0.5;
+        }
+        return result;
+    }
+
+    /**
+     * the textbook triple loop as the reference
+     */
+    private static double[] reference(boolean transA, boolean transB, int m, int n, int k, double alpha, double[] A, double[] B, double beta, double[] C) {
+        double[] result = C.clone();
+        for (int i = 0; i < m; ++i) {
+            for (int j = 0; j < n; ++j) {
+                double sum = 0;
+                for (int p = 0; p < k; ++p) {
+                    double a = transA ? A[p * m + i] : A[i * k + p];
+                    double b = transB ? B[j * k + p] : B[p * n + j];
+                    sum += a * b;
+                }
+                result[i * n + j] = alpha * sum + beta * C[i * n + j];
+            }
+        }
+        return result;
+    }
+
+    private static void check(boolean transA, boolean transB, int m, int n, int k, double alpha, double beta) {
+        double[] A = random(m * k, 1);
+        double[] B = random(k * n, 2);
+        double[] C = random(m * n, 3);
+        double[] expected = reference(transA, transB, m, n, k, alpha, A, B, beta, C);
+
+        BlockedGEMM.gemm(transA, transB, m, n, k, alpha, A, 0, transA ? m : k, B, 0, transB ? k : n, beta, C, 0, n);
+        assertArrayEquals(expected, C, 1e-11);
+    }
+
+    @Test
+    public void test_smallMatrices_0010() {
+        check(false, false, 3, 5, 7, 1., 0.);
+        check(true, false, 3, 5, 7, 1., 0.);
+        check(false, true, 3, 5, 7, 2., 1.);
+        check(true, true, 3, 5, 7, -1., 0.5);
+    }
+
+    /**
+     * These sizes are not multiples of the tile or panel sizes, and the depth spans two panels.
+     */
+    @Test
+    public void test_edgeTiles_0010() {
+        check(false, false, 131, 67, 301, 1., 0.);
+        check(true, false, 67, 131, 301, 1.5, 1.);
+        check(false, true, 131, 259, 13, 1., -2.);
+        check(true, true, 5, 258, 257, 0.5, 0.);
+    }
+
+    @Test
+    public void test_betaZeroIgnoresNaN_0010() {
+        double[] A = new double[]{1, 2, 3, 4};
+        double[] B = new double[]{5, 6, 7, 8};
+        double[] C = new double[]{Double.NaN, Double.NaN, Double.NaN, Double.NaN};
+        BlockedGEMM.multiply(2, 2, 2, A, B, C);
+        assertArrayEquals(new double[]{19, 22, 43, 50}, C, 0);
+    }
+
+    @Test
+    public void test_accumulate_0010() {
+        double[] A = new double[]{1, 2, 3, 4};
+        double[] B = new double[]{5, 6, 7, 8};
+        double[] C = new double[]{1, 1, 1, 1};
+        BlockedGEMM.multiplyAndAdd(2, 2, 2, 2., A, B, C);
+        assertArrayEquals(new double[]{39, 45, 87, 101}, C, 0);
+    }
+
+    /**
+     * Multiply a sub-block of a bigger matrix, addressed by offset and leading dimension.
+     */
+    @Test
+    public void test_subMatrix_0010() {
+        double[] A = new double[]{
+            0, 0, 0, 0,
+            0, 1, 2, 0,
+            0, 3, 4, 0
+        };
+        double[] B = new double[]{
+            5, 6,
+            7, 8
+        };
+        double[] C = new double[]{
+            9, 9, 9,
+            9, 0, 0,
+            9, 0, 0
+        };
+        BlockedGEMM.gemm(false, false, 2, 2, 2, 1., A, 5, 4, B, 0, 2, 0., C, 4, 3);
+        assertArrayEquals(new double[]{9, 9, 9, 9, 19, 22, 9, 43, 50}, C, 0);
+    }
+
+    private static void checkSyrk(boolean trans, int n, int k, double alpha, double beta) {
+        double[] A = random(n * k, 1);
+        double[] C = random(n * n, 3);
+        for (int i = 0; i < n; ++i) {//a symmetric input
+            for (int j = 0; j < i; ++j) {
+                C[i * n + j] = C[j * n + i];
+            }
+        }
+        double[] expected = reference(trans, !trans, n, n, k, alpha, A, A, beta, C);
+
+        BlockedGEMM.syrk(trans, n, k, alpha, A, 0, trans ? n : k, beta, C, 0, n);
+        assertArrayEquals(expected, C, 1e-11);
+        for (int i = 0; i < n; ++i) {//exactly symmetric
+            for (int j = 0; j < i; ++j) {
+                assertEquals(C[j * n + i], C[i * n + j], 0);
+            }
+        }
+    }
+
+    @Test
+    public void test_syrk_0010() {
+        checkSyrk(true, 5, 3, 1., 0.);
+        checkSyrk(false, 5, 3, 2., 1.);
+    }
+
+    /**
+     * The tiles on, above and below the diagonal.
+     */
+    @Test
+    public void test_syrk_0020() {
+        checkSyrk(true, 259, 301, 1., 0.);
+        checkSyrk(false, 131, 67, 0.5, -1.);
+    }
+}
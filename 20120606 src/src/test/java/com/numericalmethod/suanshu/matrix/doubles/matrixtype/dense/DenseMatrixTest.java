@@ -684,6 +684,36 @@ public class DenseMatrixTest {
     }
     //</editor-fold>
 
+    @Test
+    public void test_rank1Update_0010() {
+        DenseMatrix A1 = new DenseMatrix(new double[][]{
+                    {1, 2, 3},
+                    {4, 5, 6}
+                });
+        A1.rank1Update(2, new DenseVector(new double[]{1, -1}), new DenseVector(new double[]{1, 0, 0.5}));
+        DenseMatrix expected = new DenseMatrix(new double[][]{
+                    {3, 2, 4},
+                    {2, 5, 5}
+                });
+
+        assertEquals(expected, A1);
+    }
+
+    @Test
+    public void test_rank2Update_0010() {
+        DenseMatrix A1 = new DenseMatrix(new double[][]{
+                    {1, 2},
+                    {2, 3}
+                });
+        A1.rank2Update(0.5, new DenseVector(new double[]{1, 2}), new DenseVector(new double[]{3, -1}));
+        DenseMatrix expected = new DenseMatrix(new double[][]{
+                    {4, 4.5},
+                    {4.5, 1}
+                });
+
+        assertEquals(expected, A1);
+    }
+
     /**
      * This test makes sure the returned value of {@code toDense} is a new independent copy.
      */
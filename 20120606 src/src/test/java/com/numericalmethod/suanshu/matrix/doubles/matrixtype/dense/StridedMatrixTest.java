@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense;
+
+import com.numericalmethod.suanshu.matrix.doubles.AreMatrices;
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.StridedMatrix.Order;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class StridedMatrixTest {
+
+    private static DenseMatrix A() {
+        return new DenseMatrix(new double[][]{
+                    {1, 2, 3, 4},
+                    {5, 6, 7, 8},
+                    {9, 10, 11, 12}
+                });
+    }
+
+    @Test
+    public void test_view_0010() {
+        DenseMatrix A = A();
+        StridedMatrix view = A.view();
+
+        assertTrue(AreMatrices.equal(A, view, 0));
+
+        view.set(2, 3, 70);
+        assertEquals(70, A.get(2, 3), 0);//the view shares the storage
+    }
+
+    @Test
+    public void test_transpose_0010() {
+        DenseMatrix A = A();
+        StridedMatrix At = A.view().t();
+
+        assertEquals(4, At.nRows());
+        assertEquals(3, At.nCols());
+        assertTrue(AreMatrices.equal(A.t(), At, 0));
+        assertTrue(At.isColumnMajor());
+        assertSame(A.view().data(), At.data());
+    }
+
+    @Test
+    public void test_subMatrix_0010() {
+        DenseMatrix A = A();
+        StridedMatrix sub = A.view().subMatrix(2, 3, 2, 4);
+
+        assertTrue(AreMatrices.equal(
+                new DenseMatrix(new double[][]{
+                    {6, 7, 8},
+                    {10, 11, 12}
+                }),
+                sub, 0));
+
+        sub.scaleInPlace(-1);
+        assertEquals(-11, A.get(3, 3), 0);
+        assertEquals(1, A.get(1, 1), 0);
+        assertEquals(9, A.get(3, 1), 0);
+    }
+
+    @Test
+    public void test_rowColumn_0010() {
+        StridedMatrix A = new StridedMatrix(A(), Order.COLUMN_MAJOR);
+
+        assertArrayEquals(new double[]{5, 6, 7, 8}, A.row(2).getRow(1).toArray(), 0);
+        assertArrayEquals(new double[]{3, 7, 11}, A.column(3).getColumn(1).toArray(), 0);
+        assertArrayEquals(new double[]{3, 7, 11}, A.getColumn(3).toArray(), 0);
+        assertArrayEquals(new double[]{1, 5, 9, 2, 6, 10, 3, 7, 11, 4, 8, 12}, A.data(), 0);
+    }
+
+    @Test
+    public void test_multiply_0010() {
+        DenseMatrix A = A();
+        Matrix expected = A.multiply(A.t());
+
+        StridedMatrix rowMajor = A.view();
+        StridedMatrix colMajor = new StridedMatrix(A, Order.COLUMN_MAJOR);
+
+        assertTrue(AreMatrices.equal(expected, rowMajor.multiply(rowMajor.t()), 1e-14));
+        assertTrue(AreMatrices.equal(expected, colMajor.multiply(rowMajor.t()), 1e-14));
+        assertTrue(AreMatrices.equal(expected, rowMajor.multiply(colMajor.t()), 1e-14));
+        assertTrue(AreMatrices.equal(expected, A.multiply(colMajor.t()), 1e-14));
+    }
+
+    @Test
+    public void test_multiply_0020() {
+        DenseMatrix A = A();
+        StridedMatrix sub = A.view().subMatrix(1, 2, 2, 3);//[2, 3; 6, 7]
+        Matrix expected = new DenseMatrix(new double[][]{
+                    {22, 27},
+                    {54, 67}
+                });
+
+        assertTrue(AreMatrices.equal(expected, sub.multiply(sub), 1e-14));
+    }
+
+    @Test
+    public void test_deepCopy_0010() {
+        DenseMatrix A = A();
+        StridedMatrix copy = A.view().t().deepCopy();
+        copy.set(1, 1, 100);
+
+        assertEquals(1, A.get(1, 1), 0);
+        assertEquals(100, copy.get(1, 1), 0);
+        assertEquals(5, copy.get(1, 2), 0);
+        assertTrue(copy.isColumnMajor());
+    }
+
+    @Test
+    public void test_rank1Update_0010() {
+        DenseMatrix A = A();
+        StridedMatrix t = A.view().t();//4x3
+        t.rank1Update(-1, new DenseVector(1., 0., 0., 1.), new DenseVector(1., 2., 3.));
+
+        Matrix expected = new DenseMatrix(new double[][]{
+                    {0, 2, 3, 3},
+                    {3, 6, 7, 6},
+                    {6, 10, 11, 9}
+                });
+        assertTrue(AreMatrices.equal(expected, A, 0));//the update goes through the view
+    }
+}
@@ -107,7 +107,12 @@ public class ParallelMatrixMathOperationTest extends MatrixMathOperationTest {
         System.out.println("time taken (Dense Parallel): " + timeDenseParallel);
 
         assertTrue(AreMatrices.equal(M1, M2, 1e-5));
-        assertTrue(AreMatrices.equal(M1, M3, 1e-5));
+        // the entries of A1^100 are huge; the blocked kernel sums in a different order, so compare relatively
+        for (int i = 1; i <= matrixSize; ++i) {
+            for (int j = 1; j <= matrixSize; ++j) {
+                assertEquals(1, M3.get(i, j) / M1.get(i, j), 1e-10);
+            }
+        }
 
         assertTrue("Dense Parallel should be the fastest",
                 timeDenseParallel < timeParallel && timeParallel < timeSimple);
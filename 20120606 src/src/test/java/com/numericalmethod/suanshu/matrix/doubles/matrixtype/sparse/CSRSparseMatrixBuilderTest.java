@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse;
+
+import com.numericalmethod.suanshu.matrix.doubles.AreMatrices;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class CSRSparseMatrixBuilderTest {
+
+    @Test
+    public void test_build_0010() {
+        CSRSparseMatrixBuilder builder = new CSRSparseMatrixBuilder(3, 4);
+        builder.add(2, 3, 9.);
+        builder.add(1, 2, 2.);
+        builder.add(3, 2, 1.);
+        builder.add(1, 1, 1.);
+        builder.add(2, 2, 3.);
+        builder.add(3, 3, 4.);
+        builder.add(2, 4, 5.); // cancelled out below
+        builder.add(2, 4, -5.);
+        builder.add(1, 2, 0.5); // duplicate
+        builder.add(1, 2, -0.5); // duplicate
+
+        CSRSparseMatrix A = builder.build();
+        DenseMatrix expected = new DenseMatrix(new double[][]{
+                    {1, 2, 0, 0},
+                    {0, 3, 9, 0},
+                    {0, 1, 4, 0}
+                });
+        assertTrue(AreMatrices.equal(expected, A, 0));
+        assertEquals(6, A.nNonZeros());
+        assertEquals(10, builder.size());
+        assertEquals(A, new CSRSparseMatrix(3, 4,
+                                            new int[]{1, 1, 2, 2, 3, 3},
+                                            new int[]{1, 2, 2, 3, 2, 3},
+                                            new double[]{1, 2, 3, 9, 1, 4}));
+    }
+
+    @Test
+    public void test_build_0020() {
+        CSRSparseMatrix A = new CSRSparseMatrixBuilder(2, 3).build();
+        assertEquals(0, A.nNonZeros());
+        assertTrue(AreMatrices.equal(new DenseMatrix(2, 3).ZERO(), A, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_add_0010() {
+        new CSRSparseMatrixBuilder(2, 3).add(3, 1, 1.);
+    }
+
+    /**
+     * Assemble a big matrix with many duplicates, in random order, so that the rows are sorted in parallel.
+     */
+    @Test
+    public void test_build_0030() {
+        final int n = 2000;
+        final int N = 200000;
+        Random rng = new Random(12345);
+
+        CSRSparseMatrixBuilder builder = new CSRSparseMatrixBuilder(n, n);
+        DOKSparseMatrix expected = new DOKSparseMatrix(n, n);
+        for (int k = 0; k < N; ++k) {
+            int i = 1 + rng.nextInt(n);
+            int j = 1 + (i - 1 + rng.nextInt(200)) % n; // 200 possible columns per row; many duplicates
+            double v = rng.nextInt(10) - 4.5; // exact in floating point so that the order of summation does not matter
+            builder.add(i, j, v);
+            expected.set(i, j, expected.get(i, j) + v);
+        }
+
+        CSRSparseMatrix A = builder.build();
+        assertEquals(expected.nNonZeros(), A.nNonZeros());
+        assertEquals(expected.toCSR(), A);
+        for (int i = 1; i <= n; i += 97) {
+            for (int j = 1; j <= n; ++j) {
+                assertEquals(expected.get(i, j), A.get(i, j), 0);
+            }
+        }
+    }
+}
@@ -21,7 +21,14 @@
  */
 package com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse;
 
+import com.numericalmethod.suanshu.matrix.doubles.AreMatrices;
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
 import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
 
 /**
  *
@@ -48,4 +55,137 @@ public class CSRSparseMatrixTest extends SparseMatrixTestCase<CSRSparseMatrix> {
     public CSRSparseMatrix newInstance(int nRows, int nCols, List<SparseEntry> elementList) {
         return new CSRSparseMatrix(nRows, nCols, elementList);
     }
+
+    @Test
+    public void test_addInPlace_0010() {
+        CSRSparseMatrix A = new CSRSparseMatrix(3, 3,
+                new int[]{1, 2, 3},
+                new int[]{1, 3, 2},
+                new double[]{1, 2, 3});
+        CSRSparseMatrix B = new CSRSparseMatrix(3, 3,
+                new int[]{1, 2, 3},
+                new int[]{1, 2, 2},
+                new double[]{-1, 4, 5});
+        Matrix expected = A.add(B);
+        A.addInPlace(B);
+
+        assertTrue(AreMatrices.equal(expected, A, 1e-15));
+        assertEquals(3, A.nNonZeros());
+    }
+
+    @Test
+    public void test_multiplyInto_0010() {
+        CSRSparseMatrix A = new CSRSparseMatrix(3, 3,
+                new int[]{1, 2, 2, 3},
+                new int[]{1, 1, 3, 2},
+                new double[]{1, 2, 3, 4});
+        Vector v = new DenseVector(1., 2., 3.);
+        DenseVector out = new DenseVector(3);
+        A.multiplyInto(v, out);
+
+        assertArrayEquals(A.multiply(v).toArray(), out.toArray(), 1e-15);
+    }
+
+    @Test
+    public void test_multiplyInto_0020() {
+        int n = 50000; // big enough to partition the rows among threads
+        int nnz = 3 * n - 2;
+        int[] rows = new int[nnz];
+        int[] cols = new int[nnz];
+        double[] values = new double[nnz];
+        int k = 0;
+        for (int i = 1; i <= n; ++i) {
+            for (int j = Math.max(1, i - 1); j <= Math.min(n, i + 1); ++j) {
+                rows[k] = i;
+                cols[k] = j;
+                values[k] = i + 0.5 * j;
+                ++k;
+            }
+        }
+        CSRSparseMatrix A = new CSRSparseMatrix(n, n, rows, cols, values);
+
+        double[] x = new double[n];
+        for (int i = 0; i < n; ++i) {
+            x[i] = Math.sin(i);
+        }
+        double[] expected = new double[n];
+        for (k = 0; k < nnz; ++k) {
+            expected[rows[k] - 1] += values[k] * x[cols[k] - 1];
+        }
+
+        DenseVector out = new DenseVector(n);
+        A.multiplyInto(new DenseVector(x), out);
+        assertArrayEquals(expected, out.toArray(), 1e-10);
+    }
+
+    @Test
+    public void test_rank1Update_0010() {
+        CSRSparseMatrix A = new CSRSparseMatrix(3, 3,
+                new int[]{1, 2, 2, 3},
+                new int[]{1, 1, 3, 2},
+                new double[]{1, 2, 3, 4});
+        Vector x = new DenseVector(1., 0., 2.);
+        Vector y = new DenseVector(0., 1., 1.);
+        Matrix expected = A.add(new DenseMatrix(new double[][]{
+                    {0, 3, 3},
+                    {0, 0, 0},
+                    {0, 6, 6}
+                }));
+        A.rank1Update(3, x, y);
+
+        assertTrue(AreMatrices.equal(expected, A, 1e-15));
+        assertEquals(7, A.nNonZeros());
+        assertArrayEquals(new double[]{3, 0, 10}, A.getColumn(2).toArray(), 0);
+    }
+
+    @Test
+    public void test_rank2Update_0010() {
+        CSRSparseMatrix A = new CSRSparseMatrix(3, 3,
+                new int[]{1, 2, 3},
+                new int[]{1, 2, 3},
+                new double[]{1, 1, 1});
+        Vector x = new DenseVector(1., 0., 0.);
+        Vector y = new DenseVector(0., 0., 2.);
+        A.rank2Update(-1, x, y);
+
+        Matrix expected = new DenseMatrix(new double[][]{
+                    {1, 0, -2},
+                    {0, 1, 0},
+                    {-2, 0, 1}
+                });
+        assertTrue(AreMatrices.equal(expected, A, 0));
+        assertEquals(5, A.nNonZeros());
+    }
+
+    @Test
+    public void test_getColumn_0010() {
+        CSRSparseMatrix A = new CSRSparseMatrix(3, 3,
+                new int[]{1, 2, 2, 3},
+                new int[]{1, 1, 3, 2},
+                new double[]{1, 2, 3, 4});
+        assertArrayEquals(new double[]{1, 2, 0}, A.getColumn(1).toArray(), 0);
+
+        A.set(3, 1, 5); // the cached transpose must be discarded
+        assertArrayEquals(new double[]{1, 2, 5}, A.getColumn(1).toArray(), 0);
+        assertEquals(5, A.get(3, 1), 0);
+        assertEquals(0, A.get(3, 3), 0);
+
+        A.scaleInPlace(2);
+        assertArrayEquals(new double[]{2, 4, 10}, A.getColumn(1).toArray(), 0);
+    }
+
+    @Test
+    public void test_transposeMultiplyInto_0010() {
+        CSRSparseMatrix A = new CSRSparseMatrix(3, 2,
+                new int[]{1, 2, 2, 3},
+                new int[]{1, 1, 2, 2},
+                new double[]{1, 2, 3, 4});
+        assertEquals(4, A.t().nNonZeros());
+
+        Vector v = new DenseVector(1., 2., 3.);
+        DenseVector out = new DenseVector(2);
+        A.transposeMultiplyInto(v, out);
+        assertArrayEquals(A.t().multiply(v).toArray(), out.toArray(), 1e-15);
+        assertArrayEquals(new double[]{5, 18}, out.toArray(), 1e-15);
+    }
 }
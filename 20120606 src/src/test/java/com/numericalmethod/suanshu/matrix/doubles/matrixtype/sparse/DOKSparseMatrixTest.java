@@ -21,7 +21,10 @@
  */
 package com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse;
 
+import com.numericalmethod.suanshu.matrix.doubles.AreMatrices;
 import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
 
 /**
  *
@@ -48,4 +51,17 @@ public class DOKSparseMatrixTest extends SparseMatrixTestCase<DOKSparseMatrix> {
     public DOKSparseMatrix newInstance(int nRows, int nCols, List<SparseEntry> elementList) {
         return new DOKSparseMatrix(nRows, nCols, elementList);
     }
+
+    @Test
+    public void test_toCSR_0010() {
+        DOKSparseMatrix A = new DOKSparseMatrix(3, 4,
+                                                new int[]{3, 1, 2, 1, 3, 2},
+                                                new int[]{3, 2, 3, 1, 2, 2},
+                                                new double[]{4, 2, 9, 1, 1, 3});
+        CSRSparseMatrix csr = A.toCSR();
+
+        assertEquals(6, csr.nNonZeros());
+        assertTrue(AreMatrices.equal(A, csr, 0));
+        assertEquals(new CSRSparseMatrix(3, 4, A.getEntrytList()), csr);
+    }
 }
@@ -831,4 +831,40 @@ public class SparseVectorTest {
 
         assertArrayEquals(expected, v.toArray(), 1e-15);
     }
+
+    @Test
+    public void test_axpy_0010() {
+        SparseVector v1 = new SparseVector(
+                10,
+                new int[]{1, 3, 5},
+                new double[]{11, 33, 55});
+        SparseVector v2 = new SparseVector(
+                10,
+                new int[]{3, 4, 10},
+                new double[]{33, 44, 100});
+        v1.axpy(-1., v2);
+        double[] expected = new double[]{
+            11, 0, 0, -44, 55, 0, 0, 0, 0, -100
+        };
+
+        assertEquals(4, v1.nNonZeros());
+        assertArrayEquals(expected, v1.toArray(), 1e-15);
+    }
+
+    @Test
+    public void test_scaleInPlace_0010() {
+        SparseVector v = new SparseVector(
+                10,
+                new int[]{3, 5, 9},
+                new double[]{33, 55, 99});
+        v.scaleInPlace(2.);
+        double[] expected = new double[]{
+            0, 0, 66, 0, 110, 0, 0, 0, 198, 0
+        };
+
+        assertArrayEquals(expected, v.toArray(), 1e-15);
+
+        v.scaleInPlace(0.);
+        assertEquals(0, v.nNonZeros());
+    }
 }
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.direct;
+
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.CSRSparseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.CSRSparseMatrixBuilder;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class SparseCholeskyTest {
+
+    @Test
+    public void test_solve_0010() {
+        DenseMatrix A = new DenseMatrix(new double[][]{
+                    {4, 1, 0, 0, 2},
+                    {1, 5, 1, 0, 0},
+                    {0, 1, 6, 1, 0},
+                    {0, 0, 1, 7, 1},
+                    {2, 0, 0, 1, 8}
+                });
+        Vector b = new DenseVector(1., 2., 3., 4., 5.);
+
+        SparseCholesky cholesky = new SparseCholesky(A);
+        Vector x = cholesky.solve(b);
+
+        assertArrayEquals(b.toArray(), A.multiply(x).toArray(), 1e-14);
+    }
+
+    @Test
+    public void test_solve_0020() {
+        CSRSparseMatrix A = poisson(40);
+        Vector b = new DenseVector(A.nRows(), 1.);
+
+        SparseCholesky cholesky = new SparseCholesky(A);
+        Vector x = cholesky.solve(b);
+
+        assertArrayEquals(b.toArray(), A.multiply(x).toArray(), 1e-10);
+        assertTrue(cholesky.symbolic().nSupernodes() < A.nRows());
+    }
+
+    /**
+     * The ordering reduces the fill-in of a 2D grid far below that of the banded natural ordering, which is about
+     * <i>m<sup>3</sup></i>.
+     */
+    @Test
+    public void test_fill_0010() {
+        final int m = 40;
+        SparseCholesky.Symbolic symbolic = new SparseCholesky.Symbolic(poisson(m));
+        assertTrue(symbolic.nNonZeros() < m * m * m / 2);
+    }
+
+    /**
+     * Reuse the symbolic analysis for a matrix with the same pattern.
+     */
+    @Test
+    public void test_symbolic_0010() {
+        CSRSparseMatrix A1 = poisson(20);
+        CSRSparseMatrix A2 = poisson(20).scaled(2.);
+        Vector b = new DenseVector(A1.nRows(), 1.);
+
+        SparseCholesky.Symbolic symbolic = new SparseCholesky(A1).symbolic();
+        Vector x = new SparseCholesky(symbolic, A2).solve(b);
+
+        assertArrayEquals(b.toArray(), A2.multiply(x).toArray(), 1e-10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_symbolic_0020() {
+        SparseCholesky.Symbolic symbolic = new SparseCholesky.Symbolic(poisson(5));
+        CSRSparseMatrix B = poisson(5);
+        B.set(25, 1, 0.1);// a non-zero outside the analyzed pattern
+        new SparseCholesky(symbolic, B);
+    }
+
+    @Test
+    public void test_solve_matrix_0010() {
+        CSRSparseMatrix A = poisson(10);
+        DenseMatrix B = new DenseMatrix(A.nRows(), 3);
+        for (int i = 1; i <= A.nRows(); ++i) {
+            B.set(i, 1, 1.);
+            B.set(i, 2, i);
+            B.set(i, 3, -i * i);
+        }
+
+        Matrix X = new SparseCholesky(A).solve(B);
+        Matrix AX = A.multiply(X);
+        for (int i = 1; i <= A.nRows(); ++i) {
+            for (int j = 1; j <= 3; ++j) {
+                assertEquals(B.get(i, j), AX.get(i, j), 1e-8);
+            }
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void test_not_positive_definite_0010() {
+        DenseMatrix A = new DenseMatrix(new double[][]{
+                    {1, 2},
+                    {2, 1}
+                });
+        new SparseCholesky(A);
+    }
+
+    /**
+     * The 5-point finite difference discretization of the Poisson equation on an {@code m x m} grid.
+     */
+    static CSRSparseMatrix poisson(int m) {
+        CSRSparseMatrixBuilder builder = new CSRSparseMatrixBuilder(m * m, m * m);
+        for (int x = 0; x < m; ++x) {
+            for (int y = 0; y < m; ++y) {
+                int i = x * m + y + 1;
+                builder.add(i, i, 4.);
+                if (x > 0) {
+                    builder.add(i, i - m, -1.);
+                }
+                if (x < m - 1) {
+                    builder.add(i, i + m, -1.);
+                }
+                if (y > 0) {
+                    builder.add(i, i - 1, -1.);
+                }
+                if (y < m - 1) {
+                    builder.add(i, i + 1, -1.);
+                }
+            }
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.direct;
+
+import com.numericalmethod.suanshu.matrix.MatrixSingularityException;
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.CSRSparseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.CSRSparseMatrixBuilder;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class SparseLUTest {
+
+    /**
+     * A zero diagonal needs row pivoting.
+     */
+    @Test
+    public void test_solve_0010() {
+        DenseMatrix A = new DenseMatrix(new double[][]{
+                    {0, 2, 0, 1},
+                    {3, 0, 0, 0},
+                    {0, 1, 4, 0},
+                    {1, 0, 2, 5}
+                });
+        Vector b = new DenseVector(1., 2., 3., 4.);
+
+        Vector x = new SparseLU(A).solve(b);
+
+        assertArrayEquals(b.toArray(), A.multiply(x).toArray(), 1e-14);
+    }
+
+    @Test
+    public void test_solve_0020() {
+        CSRSparseMatrix A = convectionDiffusion(30, 200.);
+        Vector b = new DenseVector(A.nRows(), 1.);
+
+        Vector x = new SparseLU(A).solve(b);
+
+        assertArrayEquals(b.toArray(), A.multiply(x).toArray(), 1e-10);
+    }
+
+    /**
+     * Reuse the column ordering for a matrix with the same pattern.
+     */
+    @Test
+    public void test_symbolic_0010() {
+        SparseLU.Symbolic symbolic = new SparseLU(convectionDiffusion(20, 10.)).symbolic();
+
+        CSRSparseMatrix A = convectionDiffusion(20, 50.);
+        Vector b = new DenseVector(A.nRows(), 1.);
+        Vector x = new SparseLU(symbolic, A, 1., 0.).solve(b);
+
+        assertArrayEquals(b.toArray(), A.multiply(x).toArray(), 1e-10);
+    }
+
+    @Test
+    public void test_solve_matrix_0010() {
+        CSRSparseMatrix A = convectionDiffusion(8, 30.);
+        DenseMatrix B = new DenseMatrix(A.nRows(), 2);
+        for (int i = 1; i <= A.nRows(); ++i) {
+            B.set(i, 1, 1.);
+            B.set(i, 2, i);
+        }
+
+        Matrix AX = A.multiply(new SparseLU(A).solve(B));
+        for (int i = 1; i <= A.nRows(); ++i) {
+            assertEquals(B.get(i, 1), AX.get(i, 1), 1e-10);
+            assertEquals(B.get(i, 2), AX.get(i, 2), 1e-10);
+        }
+    }
+
+    @Test(expected = MatrixSingularityException.class)
+    public void test_singular_0010() {
+        DenseMatrix A = new DenseMatrix(new double[][]{
+                    {1, 2, 0},
+                    {2, 4, 0},
+                    {0, 0, 1}
+                });
+        new SparseLU(A);
+    }
+
+    /**
+     * The 5-point finite difference discretization of <i>-&Delta;u + c u<sub>x</sub></i> on an {@code m x m} grid.
+     */
+    static CSRSparseMatrix convectionDiffusion(int m, double c) {
+        final double h = 1. / (m + 1);
+        CSRSparseMatrixBuilder builder = new CSRSparseMatrixBuilder(m * m, m * m);
+        for (int x = 0; x < m; ++x) {
+            for (int y = 0; y < m; ++y) {
+                int i = x * m + y + 1;
+                builder.add(i, i, 4.);
+                if (x > 0) {
+                    builder.add(i, i - m, -1. - c * h / 2);
+                }
+                if (x < m - 1) {
+                    builder.add(i, i + m, -1. + c * h / 2);
+                }
+                if (y > 0) {
+                    builder.add(i, i - 1, -1.);
+                }
+                if (y < m - 1) {
+                    builder.add(i, i + 1, -1.);
+                }
+            }
+        }
+        return builder.build();
+    }
+}
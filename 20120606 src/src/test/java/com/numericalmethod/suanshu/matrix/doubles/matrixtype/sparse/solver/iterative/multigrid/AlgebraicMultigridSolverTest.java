@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.multigrid;
+
+import com.numericalmethod.suanshu.algorithm.iterative.monitor.CountMonitor;
+import com.numericalmethod.suanshu.algorithm.iterative.tolerance.AbsoluteTolerance;
+import com.numericalmethod.suanshu.matrix.doubles.linearsystem.LSProblem;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.CSRSparseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.CSRSparseMatrixBuilder;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.ConvergenceFailure;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class AlgebraicMultigridSolverTest {
+
+    @Test
+    public void test_hierarchy_0010() {
+        CSRSparseMatrix A = poisson(40);
+        AlgebraicMultigrid amg = new AlgebraicMultigrid(A);
+
+        assertTrue(amg.nLevels() >= 3);
+        for (int l = 2; l <= amg.nLevels(); ++l) {
+            CSRSparseMatrix Ac = amg.getMatrix(l);
+            assertTrue(Ac.nRows() < amg.getMatrix(l - 1).nRows() / 3); // aggregates of a 5-point stencil
+            assertTrue(AreSymmetric(Ac));
+        }
+        assertTrue(amg.getMatrix(amg.nLevels()).nRows() <= AlgebraicMultigrid.DEFAULT_MAX_COARSE_SIZE);
+    }
+
+    @Test
+    public void test_solve_0010() throws ConvergenceFailure {
+        CSRSparseMatrix A = poisson(50);
+        Vector b = new DenseVector(A.nRows(), 1.);
+
+        CountMonitor<Vector> monitor = new CountMonitor<Vector>();
+        AlgebraicMultigridSolver solver = new AlgebraicMultigridSolver(100, new AbsoluteTolerance(1e-8));
+        Vector x = solver.solve(new LSProblem(A, b), monitor).search(new DenseVector(A.nRows()));
+
+        assertArrayEquals(b.toArray(), A.multiply(x).toArray(), 1e-8);
+        assertTrue(monitor.getCount() < 30);
+    }
+
+    /**
+     * The coarsest level is solved directly for a small system.
+     */
+    @Test
+    public void test_solve_0020() throws ConvergenceFailure {
+        DenseMatrix A = new DenseMatrix(new double[][]{
+                    {4, -1, 0},
+                    {-1, 4, -1},
+                    {0, -1, 4}
+                });
+        Vector b = new DenseVector(1., 2., 3.);
+
+        AlgebraicMultigridSolver solver = new AlgebraicMultigridSolver(10, new AbsoluteTolerance(1e-12));
+        Vector x = solver.solve(new LSProblem(A, b)).search(new DenseVector(3));
+
+        assertArrayEquals(b.toArray(), A.multiply(x).toArray(), 1e-12);
+    }
+
+    private static boolean AreSymmetric(CSRSparseMatrix A) {
+        CSRSparseMatrix At = A.t();
+        for (int i = 1; i <= A.nRows(); ++i) {
+            for (int j = 1; j <= A.nCols(); ++j) {
+                if (Math.abs(A.get(i, j) - At.get(i, j)) > 1e-12) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The 5-point finite difference discretization of the Poisson equation on an {@code m x m} grid.
+     */
+    static CSRSparseMatrix poisson(int m) {
+        CSRSparseMatrixBuilder builder = new CSRSparseMatrixBuilder(m * m, m * m);
+        for (int x = 0; x < m; ++x) {
+            for (int y = 0; y < m; ++y) {
+                int i = x * m + y + 1;
+                builder.add(i, i, 4.);
+                if (x > 0) {
+                    builder.add(i, i - m, -1.);
+                }
+                if (x < m - 1) {
+                    builder.add(i, i + m, -1.);
+                }
+                if (y > 0) {
+                    builder.add(i, i - 1, -1.);
+                }
+                if (y < m - 1) {
+                    builder.add(i, i + 1, -1.);
+                }
+            }
+        }
+        return builder.build();
+    }
+}
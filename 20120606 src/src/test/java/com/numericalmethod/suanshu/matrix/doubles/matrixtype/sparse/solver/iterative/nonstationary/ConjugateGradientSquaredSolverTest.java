@@ -31,6 +31,9 @@ import com.numericalmethod.suanshu.matrix.doubles.linearsystem.LSProblem;
 import com.numericalmethod.suanshu.algorithm.iterative.tolerance.AbsoluteTolerance;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.SparseVector;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.IterativeLinearSystemSolver;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.IdentityPreconditioner;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.Preconditioner;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner.PreconditionerFactory;
 import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
 import org.junit.Test;
@@ -57,7 +60,7 @@ public class ConjugateGradientSquaredSolverTest {
 
         double tolerance = 1e-4;
 
-        ConjugateGradientNormalResidualSolver solver = new ConjugateGradientNormalResidualSolver(Integer.MAX_VALUE, new AbsoluteTolerance(tolerance));
+        ConjugateGradientSquaredSolver solver = new ConjugateGradientSquaredSolver(Integer.MAX_VALUE, new AbsoluteTolerance(tolerance));
         IterativeLinearSystemSolver.Solution soln = solver.solve(problem);
         Vector x = soln.search(new SparseVector(A.nCols()));
 
@@ -83,7 +86,7 @@ public class ConjugateGradientSquaredSolverTest {
 
         double tolerance = 1e-4;
 
-        ConjugateGradientNormalResidualSolver solver = new ConjugateGradientNormalResidualSolver(Integer.MAX_VALUE, new AbsoluteTolerance(tolerance));
+        ConjugateGradientSquaredSolver solver = new ConjugateGradientSquaredSolver(Integer.MAX_VALUE, new AbsoluteTolerance(tolerance));
         CountMonitor<Vector> monitor = new CountMonitor<Vector>();
         IterativeLinearSystemSolver.Solution soln = solver.solve(problem, monitor);
 
@@ -123,7 +126,7 @@ public class ConjugateGradientSquaredSolverTest {
 
         double tolerance = 1e-8;
 
-        ConjugateGradientNormalResidualSolver solver = new ConjugateGradientNormalResidualSolver(Integer.MAX_VALUE, new AbsoluteTolerance(tolerance));
+        ConjugateGradientSquaredSolver solver = new ConjugateGradientSquaredSolver(Integer.MAX_VALUE, new AbsoluteTolerance(tolerance));
         IterativeLinearSystemSolver.Solution soln = solver.solve(problem);
         Vector x = soln.search(new SparseVector(A.nCols()));
 
@@ -164,7 +167,7 @@ public class ConjugateGradientSquaredSolverTest {
 
         double tolerance = 1e-8;
 
-        ConjugateGradientNormalResidualSolver solver = new ConjugateGradientNormalResidualSolver(Integer.MAX_VALUE, new AbsoluteTolerance(tolerance));
+        ConjugateGradientSquaredSolver solver = new ConjugateGradientSquaredSolver(Integer.MAX_VALUE, new AbsoluteTolerance(tolerance));
         IterativeLinearSystemSolver.Solution soln = solver.solve(problem);
         Vector x = soln.search(new SparseVector(A.nCols()));
 
@@ -180,6 +183,91 @@ public class ConjugateGradientSquaredSolverTest {
         assertArrayEquals(expResult.toArray(), x.toArray(), tolerance);
     }
 
+    /**
+     * A non-symmetric, diagonally dominant tridiagonal system, large enough
+     * that CGS has to iterate many times.
+     */
+    @Test
+    public void test_solve_0050() throws ConvergenceFailure {
+        final int n = 100;
+        int[] rows = new int[3 * n - 2];
+        int[] cols = new int[3 * n - 2];
+        double[] values = new double[3 * n - 2];
+        for (int i = 1, k = 0; i <= n; ++i) {
+            if (i > 1) {
+                rows[k] = i;
+                cols[k] = i - 1;
+                values[k++] = -1.5;
+            }
+            rows[k] = i;
+            cols[k] = i;
+            values[k++] = 4;
+            if (i < n) {
+                rows[k] = i;
+                cols[k] = i + 1;
+                values[k++] = -0.5;
+            }
+        }
+        Matrix A = new CSRSparseMatrix(n, n, rows, cols, values);
+        Vector b = new DenseVector(n, 1.);
+        LSProblem problem = new LSProblem(A, b);
+
+        double tolerance = 1e-10;
+
+        ConjugateGradientSquaredSolver solver = new ConjugateGradientSquaredSolver(Integer.MAX_VALUE, new AbsoluteTolerance(tolerance));
+        CountMonitor<Vector> monitor = new CountMonitor<Vector>();
+        IterativeLinearSystemSolver.Solution soln = solver.solve(problem, monitor);
+        Vector x = soln.search(new SparseVector(A.nCols()));
+
+        assertEquals(0., b.minus(A.multiply(x)).norm(), tolerance);
+        assertTrue(monitor.getCount() > 2);
+        assertTrue(monitor.getCount() < n);
+    }
+
+    /**
+     * The residual is updated in place; refreshing it as <i>b - Ax</i> at every step must give the same solution.
+     * The initial guess must not be modified by the in-place updates.
+     */
+    @Test
+    public void test_solve_0060() throws ConvergenceFailure {
+        Matrix A = new CSRSparseMatrix(5, 5,
+                                       new int[]{1, 1, 1, 2, 2, 3, 3, 3, 4, 4, 4, 5, 5},
+                                       new int[]{1, 2, 4, 1, 2, 3, 4, 5, 1, 3, 4, 2, 5},
+                                       new double[]{1, -1, -3, -2, 5, 4, 6, 4, -4, 2, 7, 8, -5});
+        Vector b = new DenseVector(
+                new double[]{
+                    1, 1, 1, 1, 1
+                });
+        LSProblem problem = new LSProblem(A, b);
+
+        double tolerance = 1e-8;
+        PreconditionerFactory identity = new PreconditionerFactory() {
+
+            @Override
+            public Preconditioner newInstance(Matrix A) {
+                return new IdentityPreconditioner();
+            }
+        };
+
+        Vector x0 = new DenseVector(new double[]{1, 2, 3, 4, 5});
+        ConjugateGradientSquaredSolver solver1 = new ConjugateGradientSquaredSolver(identity, 1, Integer.MAX_VALUE, new AbsoluteTolerance(tolerance));
+        Vector x1 = solver1.solve(problem).search(x0);
+        ConjugateGradientSquaredSolver solver2 = new ConjugateGradientSquaredSolver(identity, ConjugateGradientSquaredSolver.DEFAULT_RESIDUAL_REFRESH_RATE, Integer.MAX_VALUE, new AbsoluteTolerance(tolerance));
+        Vector x2 = solver2.solve(problem).search(x0);
+
+        Vector expResult = new DenseVector(
+                new double[]{
+                    -0.522321429,
+                    -0.00892857143,
+                    1.22098214,
+                    -0.504464286,
+                    -0.214285714
+                });
+        assertArrayEquals(expResult.toArray(), x1.toArray(), tolerance);
+        assertArrayEquals(expResult.toArray(), x2.toArray(), tolerance);
+        assertArrayEquals(new double[]{1, 2, 3, 4, 5}, x0.toArray(), 0);
+    }
+
     @Test(expected = ConvergenceFailure.class)
     public void test_solve_0100() throws ConvergenceFailure {
         Matrix A = new DenseMatrix(
@@ -195,7 +283,7 @@ public class ConjugateGradientSquaredSolverTest {
 
         double tolerance = 1e-4;
 
-        ConjugateGradientNormalResidualSolver solver = new ConjugateGradientNormalResidualSolver(Integer.MAX_VALUE, new AbsoluteTolerance(tolerance));
+        ConjugateGradientSquaredSolver solver = new ConjugateGradientSquaredSolver(Integer.MAX_VALUE, new AbsoluteTolerance(tolerance));
         IterativeLinearSystemSolver.Solution soln = solver.solve(problem);
         Vector x = soln.search(new SparseVector(A.nCols()));
     }
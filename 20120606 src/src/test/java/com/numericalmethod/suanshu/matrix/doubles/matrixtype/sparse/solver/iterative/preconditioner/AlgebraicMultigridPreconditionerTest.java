@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner;
+
+import com.numericalmethod.suanshu.algorithm.iterative.monitor.CountMonitor;
+import com.numericalmethod.suanshu.algorithm.iterative.tolerance.AbsoluteTolerance;
+import com.numericalmethod.suanshu.matrix.doubles.linearsystem.LSProblem;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.CSRSparseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.ConvergenceFailure;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.nonstationary.ConjugateGradientSolver;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class AlgebraicMultigridPreconditionerTest {
+
+    /**
+     * The number of AMG preconditioned CG iterations does not grow with the mesh size,
+     * while that of unpreconditioned CG doubles when the mesh size halves.
+     */
+    @Test
+    public void test_cg_0010() throws ConvergenceFailure {
+        int[] counts = new int[3];
+        int m = 16;
+        for (int k = 0; k < counts.length; ++k, m *= 2) {
+            CSRSparseMatrix A = ILU0PreconditionerTest.convectionDiffusion(m, 0.);
+            Vector b = new DenseVector(A.nRows(), 1.);
+
+            CountMonitor<Vector> monitor = new CountMonitor<Vector>();
+            ConjugateGradientSolver solver = new ConjugateGradientSolver(new AlgebraicMultigridPreconditioner.Factory(), 50, 1000, new AbsoluteTolerance(1e-8));
+            Vector x = solver.solve(new LSProblem(A, b), monitor).search(new DenseVector(A.nRows()));
+
+            assertArrayEquals(b.toArray(), A.multiply(x).toArray(), 1e-7);
+            counts[k] = monitor.getCount();
+        }
+
+        assertTrue(counts[2] <= counts[0] + 4);
+        assertTrue(counts[2] < 25);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner;
+
+import com.numericalmethod.suanshu.algorithm.iterative.monitor.CountMonitor;
+import com.numericalmethod.suanshu.algorithm.iterative.tolerance.AbsoluteTolerance;
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.linearsystem.LSProblem;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.CSRSparseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.ConvergenceFailure;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.nonstationary.ConjugateGradientSolver;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class IC0PreconditionerTest {
+
+    /**
+     * IC(0) is the exact Cholesky decomposition for a tridiagonal matrix.
+     */
+    @Test
+    public void test_solve_0010() {
+        Matrix A = new DenseMatrix(new double[][]{
+                    {4, -1, 0, 0},
+                    {-1, 4, -1, 0},
+                    {0, -1, 4, -1},
+                    {0, 0, -1, 4}
+                });
+        Vector x = new DenseVector(1., 2., 3., 4.);
+
+        Preconditioner M = new IC0Preconditioner(A);
+        assertArrayEquals(x.toArray(), M.solve(A.multiply(x)).toArray(), 1e-14);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_notPositiveDefinite_0010() {
+        new IC0Preconditioner(new DenseMatrix(new double[][]{
+                    {1, 2},
+                    {2, 1}
+                }));
+    }
+
+    /**
+     * IC(0) reduces the number of CG iterations for the Poisson problem.
+     */
+    @Test
+    public void test_cg_0010() throws ConvergenceFailure {
+        CSRSparseMatrix A = ILU0PreconditionerTest.convectionDiffusion(40, 0.);
+        Vector b = new DenseVector(A.nRows(), 1.);
+        LSProblem problem = new LSProblem(A, b);
+
+        CountMonitor<Vector> plain = new CountMonitor<Vector>();
+        new ConjugateGradientSolver(10000, new AbsoluteTolerance(1e-8))
+                .solve(problem, plain).search(new DenseVector(A.nRows()));
+
+        CountMonitor<Vector> ic0 = new CountMonitor<Vector>();
+        Vector x = new ConjugateGradientSolver(new IC0Preconditioner.Factory(), 50, 10000, new AbsoluteTolerance(1e-8))
+                .solve(problem, ic0).search(new DenseVector(A.nRows()));
+
+        assertArrayEquals(b.toArray(), A.multiply(x).toArray(), 1e-6);
+        assertTrue(ic0.getCount() < plain.getCount() * 2 / 3);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner;
+
+import com.numericalmethod.suanshu.algorithm.iterative.monitor.CountMonitor;
+import com.numericalmethod.suanshu.algorithm.iterative.tolerance.AbsoluteTolerance;
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.linearsystem.LSProblem;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.CSRSparseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.CSRSparseMatrixBuilder;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.ConvergenceFailure;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.nonstationary.GeneralizedMinimalResidualSolver;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ILU0PreconditionerTest {
+
+    /**
+     * ILU(0) is the exact LU decomposition when there is no fill-in, e.g., for a tridiagonal matrix.
+     */
+    @Test
+    public void test_solve_0010() {
+        Matrix A = new DenseMatrix(new double[][]{
+                    {4, -1, 0, 0},
+                    {2, 5, -2, 0},
+                    {0, 1, 6, 3},
+                    {0, 0, -1, 7}
+                });
+        Vector x = new DenseVector(1., 2., 3., 4.);
+        Vector b = A.multiply(x);
+
+        Preconditioner M = new ILU0Preconditioner(A);
+        assertArrayEquals(x.toArray(), M.solve(b).toArray(), 1e-14);
+        assertArrayEquals(x.toArray(), M.transposeSolve(A.t().multiply(x)).toArray(), 1e-14);
+    }
+
+    /**
+     * The pattern of row <i>i</i> is <i>{i - n/2, i, i + n/2}</i>, so there is no fill-in,
+     * and the triangular factors have two big levels, which are solved in parallel.
+     */
+    @Test
+    public void test_solve_0020() {
+        final int n = 6000;
+        final int h = n / 2;
+        CSRSparseMatrixBuilder builder = new CSRSparseMatrixBuilder(n, n);
+        for (int i = 1; i <= n; ++i) {
+            builder.add(i, i, 4. + i % 3);
+            if (i > h) {
+                builder.add(i, i - h, -1.);
+                builder.add(i - h, i, 2.);
+            }
+        }
+        CSRSparseMatrix A = builder.build();
+
+        double[] expected = new double[n];
+        for (int i = 0; i < n; ++i) {
+            expected[i] = Math.cos(i);
+        }
+        Vector x = new DenseVector(expected);
+
+        Preconditioner M = new ILU0Preconditioner(A);
+        assertArrayEquals(expected, M.solve(A.multiply(x)).toArray(), 1e-12);
+        assertArrayEquals(expected, M.transposeSolve(A.t().multiply(x)).toArray(), 1e-12);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_zeroDiagonal_0010() {
+        new ILU0Preconditioner(new DenseMatrix(new double[][]{
+                    {0, 1},
+                    {1, 0}
+                }));
+    }
+
+    /**
+     * ILU(0) reduces the number of GMRES iterations for a convection-diffusion problem.
+     */
+    @Test
+    public void test_gmres_0010() throws ConvergenceFailure {
+        CSRSparseMatrix A = convectionDiffusion(30, 20.);
+        Vector b = new DenseVector(A.nRows(), 1.);
+        LSProblem problem = new LSProblem(A, b);
+
+        CountMonitor<Vector> plain = new CountMonitor<Vector>();
+        new GeneralizedMinimalResidualSolver(30, 10000, new AbsoluteTolerance(1e-8))
+                .solve(problem, plain).search(new DenseVector(A.nRows()));
+
+        CountMonitor<Vector> ilu0 = new CountMonitor<Vector>();
+        Vector x = new GeneralizedMinimalResidualSolver(new ILU0Preconditioner.Factory(), 30, 10000, new AbsoluteTolerance(1e-8))
+                .solve(problem, ilu0).search(new DenseVector(A.nRows()));
+
+        assertArrayEquals(b.toArray(), A.multiply(x).toArray(), 1e-6);
+        assertTrue(3 * ilu0.getCount() < plain.getCount());
+    }
+
+    /**
+     * The 5-point finite difference discretization of <i>-&Delta;u + c u<sub>x</sub></i> on an {@code m x m} grid.
+     */
+    static CSRSparseMatrix convectionDiffusion(int m, double c) {
+        final double h = 1. / (m + 1);
+        CSRSparseMatrixBuilder builder = new CSRSparseMatrixBuilder(m * m, m * m);
+        for (int x = 0; x < m; ++x) {
+            for (int y = 0; y < m; ++y) {
+                int i = x * m + y + 1;
+                builder.add(i, i, 4.);
+                if (x > 0) {
+                    builder.add(i, i - m, -1. - c * h / 2);
+                }
+                if (x < m - 1) {
+                    builder.add(i, i + m, -1. + c * h / 2);
+                }
+                if (y > 0) {
+                    builder.add(i, i - 1, -1.);
+                }
+                if (y < m - 1) {
+                    builder.add(i, i + 1, -1.);
+                }
+            }
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.preconditioner;
+
+import com.numericalmethod.suanshu.algorithm.iterative.monitor.CountMonitor;
+import com.numericalmethod.suanshu.algorithm.iterative.tolerance.AbsoluteTolerance;
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.linearsystem.LSProblem;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.CSRSparseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.ConvergenceFailure;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.solver.iterative.nonstationary.BiconjugateGradientStabilizedSolver;
+import com.numericalmethod.suanshu.vector.doubles.Vector;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ILUTPreconditionerTest {
+
+    /**
+     * ILUT without dropping is the exact LU decomposition.
+     */
+    @Test
+    public void test_solve_0010() {
+        Matrix A = new DenseMatrix(new double[][]{
+                    {5, 1, 0, 2, 0},
+                    {1, 6, 2, 0, 1},
+                    {0, -3, 7, 1, 0},
+                    {2, 0, 1, 8, -1},
+                    {1, 1, 0, 2, 9}
+                });
+        Vector x = new DenseVector(1., -2., 3., -4., 5.);
+
+        Preconditioner M = new ILUTPreconditioner(A, 0., Integer.MAX_VALUE);
+        assertArrayEquals(x.toArray(), M.solve(A.multiply(x)).toArray(), 1e-14);
+        assertArrayEquals(x.toArray(), M.transposeSolve(A.t().multiply(x)).toArray(), 1e-14);
+    }
+
+    /**
+     * A zero pivot is replaced instead of breaking down.
+     */
+    @Test
+    public void test_solve_0020() {
+        Matrix A = new DenseMatrix(new double[][]{
+                    {0, 1},
+                    {1, 0}
+                });
+        Vector v = new ILUTPreconditioner(A, 1e-3, 5).solve(new DenseVector(1., 1.));
+        assertFalse(Double.isNaN(v.get(1)) || Double.isInfinite(v.get(1)));
+    }
+
+    /**
+     * Compare the numbers of BiCGSTAB iterations for a convection-diffusion problem with different preconditioners.
+     * ILUT with little dropping is better than ILU(0), which is better than Jacobi.
+     */
+    @Test
+    public void test_bicgstab_0010() throws ConvergenceFailure {
+        final CSRSparseMatrix A = ILU0PreconditionerTest.convectionDiffusion(40, 50.);
+        Vector b = new DenseVector(A.nRows(), 1.);
+        LSProblem problem = new LSProblem(A, b);
+
+        PreconditionerFactory jacobi = new PreconditionerFactory() {
+
+            @Override
+            public Preconditioner newInstance(Matrix A) {
+                return new JacobiPreconditioner(A);
+            }
+        };
+        int nJacobi = countIterations(problem, jacobi);
+        int nILU0 = countIterations(problem, new ILU0Preconditioner.Factory());
+        int nILUT = countIterations(problem, new ILUTPreconditioner.Factory(1e-4, 20));
+
+        assertTrue(nILU0 < nJacobi);
+        assertTrue(nILUT < nILU0);
+    }
+
+    private static int countIterations(LSProblem problem, PreconditionerFactory factory) throws ConvergenceFailure {
+        CountMonitor<Vector> monitor = new CountMonitor<Vector>();
+        Vector x = new BiconjugateGradientStabilizedSolver(factory, 50, 10000, new AbsoluteTolerance(1e-8))
+                .solve(problem, monitor).search(new DenseVector(problem.A().nRows()));
+        assertArrayEquals(problem.b().toArray(), problem.A().multiply(x).toArray(), 1e-6);
+        return monitor.getCount();
+    }
+}
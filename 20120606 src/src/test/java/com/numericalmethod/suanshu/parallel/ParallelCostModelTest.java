@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT, 
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.parallel;
+
+import com.numericalmethod.suanshu.matrix.doubles.AreMatrices;
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.parallel.ParallelCostModel.Operation;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Test;
+
+public class ParallelCostModelTest {
+
+    @After
+    public void tearDown() {
+        ParallelCostModel.setListener(null);
+        ParallelCostModel.reset();
+    }
+
+    @Test
+    public void test_decisions_0010() {
+        ParallelCostModel.setThreshold(Operation.ADD, 100);
+        assertFalse(ParallelCostModel.parallelize(Operation.ADD, 99));
+        assertTrue(ParallelCostModel.parallelize(Operation.ADD, 100));
+
+        ParallelCostModel.setThreshold(Operation.ADD, Long.MAX_VALUE);
+        assertFalse(ParallelCostModel.parallelize(Operation.ADD, Long.MAX_VALUE - 1));
+
+        ParallelCostModel.reset();
+        assertEquals(1L << 15, ParallelCostModel.threshold(Operation.ADD));
+    }
+
+    /**
+     * The listener sees the decisions made in a matrix operation, and the result is the same either way.
+     */
+    @Test
+    public void test_listener_0010() {
+        final List<Operation> ops = new ArrayList<Operation>();
+        final List<Boolean> decisions = new ArrayList<Boolean>();
+        ParallelCostModel.setListener(new ParallelCostModel.Listener() {
+
+            @Override
+            public void decided(Operation op, long work, boolean parallel) {
+                synchronized (ops) {
+                    ops.add(op);
+                    decisions.add(parallel);
+                }
+            }
+        });
+
+        Matrix A = new DenseMatrix(new double[][]{
+                    {1, 2, 3},
+                    {4, 5, 6}
+                });
+
+        ParallelCostModel.setThreshold(Operation.TRANSPOSE, 0);
+        Matrix At1 = A.t();
+        ParallelCostModel.setThreshold(Operation.TRANSPOSE, Long.MAX_VALUE);
+        Matrix At2 = A.t();
+
+        assertEquals(2, ops.size());
+        assertEquals(Operation.TRANSPOSE, ops.get(0));
+        assertTrue(decisions.get(0));
+        assertFalse(decisions.get(1));
+        assertTrue(AreMatrices.equal(At1, At2, 0));
+
+        ParallelCostModel.setThreshold(Operation.ADD, 0);
+        long nParallel = ParallelCostModel.count(Operation.ADD, true);
+        Matrix B = A.add(A);
+        assertEquals(nParallel + 1, ParallelCostModel.count(Operation.ADD, true));
+        assertTrue(AreMatrices.equal(B, A.scaled(2), 0));
+    }
+
+    /**
+     * An unreadable or invalid file leaves the default thresholds.
+     */
+    @Test
+    public void test_file_0010() throws IOException {
+        ParallelCostModel.setThreshold(Operation.GEMV, 7);
+        assertFalse(ParallelCostModel.load(new File("no-such-dir", "costmodel.properties").getPath()));
+        assertEquals(1L << 16, ParallelCostModel.threshold(Operation.GEMV));
+
+        File file = File.createTempFile("costmodel", ".properties");
+        file.deleteOnExit();
+        Writer out = new FileWriter(file);
+        try {
+            out.write("SPMV=12345\nMULTIPLY=100\n");// MULTIPLY is not an operation
+        } finally {
+            out.close();
+        }
+        assertFalse(ParallelCostModel.load(file.getPath()));
+        assertEquals(1L << 16, ParallelCostModel.threshold(Operation.SPMV));
+
+        out = new FileWriter(file);
+        try {
+            out.write("GEMV=100\nGEMM=200\n");
+        } finally {
+            out.close();
+        }
+        assertTrue(ParallelCostModel.load(file.getPath()));
+        assertEquals(100, ParallelCostModel.threshold(Operation.GEMV));
+        assertEquals(200, ParallelCostModel.threshold(Operation.GEMM));
+    }
+
+    @Test
+    public void test_properties_0010() {
+        Properties properties = new Properties();
+        properties.setProperty("SPMV", "12345");
+        ParallelCostModel.load(properties);
+        assertEquals(12345, ParallelCostModel.threshold(Operation.SPMV));
+        assertEquals(1L << 18, ParallelCostModel.threshold(Operation.GEMM));//unchanged
+
+        Properties saved = ParallelCostModel.toProperties();
+        ParallelCostModel.reset();
+        ParallelCostModel.load(saved);
+        assertEquals(12345, ParallelCostModel.threshold(Operation.SPMV));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_properties_0020() {
+        Properties properties = new Properties();
+        properties.setProperty("FFT", "12345");
+        ParallelCostModel.load(properties);
+    }
+
+    @Test
+    public void test_calibrate_0010() {
+        ParallelCostModel.calibrate();
+        for (Operation op : Operation.values()) {
+            assertTrue(ParallelCostModel.threshold(op) > 0);
+        }
+    }
+}
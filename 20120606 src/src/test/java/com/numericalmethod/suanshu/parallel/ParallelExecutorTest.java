@@ -34,6 +34,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 import static org.junit.Assert.*;
 import org.junit.Test;
@@ -289,4 +290,195 @@ public class ParallelExecutorTest {
 
         assertEquals(Arrays.asList(2), results2);
     }
+
+    /**
+     * the number of iterations is not a multiple of the increment, nor of the concurrency
+     */
+    @Test
+    public void test_forLoop_blockIncrement_0020() throws MultipleExecutionException {
+        final int[] count = new int[5];
+        new ParallelExecutor(2).forLoop(0, 5, 2, new LoopBody() {
+
+            @Override
+            public void run(int i) throws Exception {
+                count[i]++;
+            }
+        });
+
+        assertArrayEquals(new int[]{1, 0, 1, 0, 1}, count);
+    }
+
+    @Test
+    public void test_forLoop_nestedParallelLoops() throws MultipleExecutionException {
+        final ParallelExecutor executor = new ParallelExecutor();
+        final double[][] array2d = new double[64][1000];
+
+        executor.forLoop(0, array2d.length, new LoopBody() {
+
+            @Override
+            public void run(final int i) throws Exception {
+                executor.forLoop(0, array2d[i].length, new LoopBody() {
+
+                    @Override
+                    public void run(int j) throws Exception {
+                        array2d[i][j]++;
+                    }
+                });
+            }
+        });
+
+        for (int i = 0; i < array2d.length; ++i) {
+            for (int j = 0; j < array2d[i].length; ++j) {
+                assertEquals("all 1's", 1., array2d[i][j], 1e-15);
+            }
+        }
+    }
+
+    @Test
+    public void test_forLoop_exceptions() {
+        try {
+            new ParallelExecutor().forLoop(0, 100, new LoopBody() {
+
+                @Override
+                public void run(int i) throws Exception {
+                    if (i == 13) {
+                        throw new IllegalStateException("13");
+                    }
+                }
+            });
+            fail("an exception must be thrown");
+        } catch (MultipleExecutionException ex) {// one entry per piece, null for the pieces that complete
+            assertEquals(ex.getResults().size(), ex.getExceptions().size());
+            int nExceptions = 0;
+            for (ExecutionException exception : ex.getExceptions()) {
+                if (exception != null) {
+                    ++nExceptions;
+                    assertTrue(exception.getCause() instanceof IllegalStateException);
+                }
+            }
+            assertEquals(1, nExceptions);
+        }
+    }
+
+    @Test
+    public void test_parallelReduce_exceptions() {
+        ParallelExecutor executor = new ParallelExecutor(4);
+        try {
+            executor.parallelSum(0, 1000, new DoubleLoopBody() {
+
+                @Override
+                public double run(int i) throws Exception {
+                    if (i == 0 || i == 999) {
+                        throw new IllegalStateException(String.valueOf(i));
+                    }
+                    return i;
+                }
+            });
+            fail("an exception must be thrown");
+        } catch (MultipleExecutionException ex) {// one entry per piece, in the loop order
+            List<ExecutionException> exceptions = ex.getExceptions();
+            assertTrue(exceptions.size() > 2);
+            assertEquals(ex.getResults().size(), exceptions.size());
+            assertEquals("0", exceptions.get(0).getCause().getMessage());
+            assertEquals("999", exceptions.get(exceptions.size() - 1).getCause().getMessage());
+            for (int i = 1; i < exceptions.size() - 1; ++i) {
+                assertNull(exceptions.get(i));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Changing the default concurrency while a call is running neither rejects nor blocks the calls nested in it.
+     */
+    @Test
+    public void test_setDefaultConcurrency_0010() throws MultipleExecutionException {
+        final int concurrency = ParallelExecutor.getDefaultConcurrency();
+        final ParallelExecutor executor = new ParallelExecutor();
+        final AtomicInteger count = new AtomicInteger(0);
+        try {
+            executor.forLoop(0, 4, new LoopBody() {
+
+                @Override
+                public void run(int i) throws Exception {
+                    if (i == 0) {
+                        ParallelExecutor.setDefaultConcurrency(2);
+                    }
+                    executor.forLoop(0, 100, new LoopBody() {
+
+                        @Override
+                        public void run(int j) throws Exception {
+                            count.incrementAndGet();
+                        }
+                    });
+                }
+            });
+            assertEquals(400, count.get());
+            assertEquals(2, ParallelExecutor.getDefaultConcurrency());
+            assertEquals(2, executor.concurrency());
+        } finally {
+            ParallelExecutor.setDefaultConcurrency(concurrency);
+        }
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void test_shutdown_0010() throws MultipleExecutionException {
+        ParallelExecutor executor = new ParallelExecutor(2);
+        assertEquals(4950., executor.parallelSum(R.seq(0., 99., 1.)), 0);
+        executor.shutdown();
+        executor.parallelSum(R.seq(0., 99., 1.));
+    }
+
+    /**
+     * The shutdown of an instance using the shared pool has no effect.
+     */
+    @Test
+    public void test_shutdown_0020() throws MultipleExecutionException {
+        new ParallelExecutor().shutdown();
+        assertEquals(4950., new ParallelExecutor().parallelSum(R.seq(0., 99., 1.)), 0);
+    }
+
+    @Test
+    public void test_parallelSum_0010() throws MultipleExecutionException {
+        double sum = new ParallelExecutor().parallelSum(1, 10001, new DoubleLoopBody() {
+
+            @Override
+            public double run(int i) throws Exception {
+                return i;
+            }
+        });
+
+        assertEquals(50005000., sum, 0);
+    }
+
+    @Test
+    public void test_parallelSum_0020() {
+        double[] values = R.seq(0.5, 1000., 0.5);
+        double sum = new ParallelExecutor().parallelSum(values);
+        assertEquals(1000. * 2001. / 2., sum, 1e-9);
+        assertEquals(0., new ParallelExecutor().parallelSum(new double[0]), 0);
+    }
+
+    @Test
+    public void test_parallelReduce_0010() throws MultipleExecutionException {
+        final double[] values = new double[]{3, -1, 4, 1, -5, 9, 2, -6, 5, 3};
+        double max = new ParallelExecutor(3).parallelReduce(0, values.length, Double.NEGATIVE_INFINITY,
+                                                            new DoubleLoopBody() {
+
+            @Override
+            public double run(int i) throws Exception {
+                return values[i];
+            }
+        },
+                                                            new DoubleReduction() {
+
+            @Override
+            public double combine(double x, double y) {
+                return Math.max(x, y);
+            }
+        });
+
+        assertEquals(9., max, 0);
+    }
 }
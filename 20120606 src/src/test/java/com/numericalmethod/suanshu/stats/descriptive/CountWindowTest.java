@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.descriptive;
+
+import com.numericalmethod.suanshu.stats.descriptive.moment.Mean;
+import com.numericalmethod.suanshu.stats.descriptive.moment.RollingMean;
+import com.numericalmethod.suanshu.stats.descriptive.moment.RollingVariance;
+import com.numericalmethod.suanshu.stats.descriptive.moment.Variance;
+import com.numericalmethod.suanshu.stats.descriptive.rank.Max;
+import com.numericalmethod.suanshu.stats.descriptive.rank.Min;
+import com.numericalmethod.suanshu.stats.descriptive.rank.Quantile;
+import com.numericalmethod.suanshu.stats.descriptive.rank.RollingMax;
+import com.numericalmethod.suanshu.stats.descriptive.rank.RollingMin;
+import com.numericalmethod.suanshu.stats.descriptive.rank.RollingQuantile;
+import com.numericalmethod.suanshu.stats.random.univariate.uniform.MersenneTwister;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class CountWindowTest {
+
+    private static double[] uniform(int size) {
+        MersenneTwister rng = new MersenneTwister();
+        rng.seed(1234567890L);
+        return rng.nextDoubles(size);
+    }
+
+    /**
+     * Compare the rolling statistics with those recomputed from each window.
+     */
+    @Test
+    public void test_CountWindow_0010() {
+        final int n = 20;
+        double[] x = uniform(1000);
+        for (int i = 0; i < x.length; i += 7) {
+            x[i] = Math.floor(10 * x[i]);//repeated values
+        }
+
+        RollingMean mean = new RollingMean();
+        RollingVariance var = new RollingVariance();
+        RollingMin min = new RollingMin();
+        RollingMax max = new RollingMax();
+        RollingQuantile median = new RollingQuantile(0.5);
+        CountWindow window = new CountWindow(n, mean, var, min, max, median);
+
+        for (int i = 0; i < x.length; ++i) {
+            window.push(x[i]);
+            assertEquals(Math.min(i + 1, n), window.size());
+            assertEquals(window.size(), mean.N());
+            assertEquals(window.size(), max.N());
+            assertEquals(window.size(), median.N());
+
+            double[] w = Arrays.copyOfRange(x, Math.max(0, i - n + 1), i + 1);
+            assertArrayEquals(w, window.values(), 0);
+            assertEquals(new Mean(w).value(), mean.value(), 1e-14);
+            assertEquals(new Variance(w).value(), var.value(), 1e-14);
+            assertEquals(new Min(w).value(), min.value(), 0);
+            assertEquals(new Max(w).value(), max.value(), 0);
+            assertEquals(new Quantile(w).value(0.5), median.value(), 1e-15);
+        }
+        assertTrue(window.isFull());
+        assertEquals(x.length - n + 1, window.oldestTime(), 0);
+        assertEquals(x.length, window.newestTime(), 0);
+    }
+
+    @Test
+    public void test_CountWindow_0020() {
+        RollingMean mean = new RollingMean();
+        RollingMin min = new RollingMin();
+        CountWindow window = new CountWindow(3, mean, min);
+        window.push(1);
+        window.push(2);
+        assertEquals(1., window.pop(), 0);
+        assertEquals(2., mean.value(), 0);
+        assertEquals(2., min.value(), 0);
+        assertEquals(2., window.pop(), 0);
+        assertEquals(0, window.size());
+        assertEquals(Double.NaN, mean.value(), 0);
+        assertEquals(Double.NaN, min.value(), 0);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void test_CountWindow_0030() {
+        CountWindow window = new CountWindow(3);
+        window.push(1);
+        window.pop();
+        window.pop();
+    }
+}
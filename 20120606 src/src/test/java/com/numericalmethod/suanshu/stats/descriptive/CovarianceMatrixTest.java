@@ -24,6 +24,7 @@ package com.numericalmethod.suanshu.stats.descriptive;
 
 import com.numericalmethod.suanshu.matrix.doubles.AreMatrices;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import static org.junit.Assert.*;
 import org.junit.Test;
 
 /**
@@ -55,4 +56,46 @@ public class CovarianceMatrixTest {
 
         AreMatrices.equal(covExpected, cov, 1e-14);
     }
+
+    @Test
+    public void test_weights_0010() {
+        DenseMatrix A = new DenseMatrix(new double[][]{
+                    {1.4022225, -0.04625344, 1.26176112, -1.8394428, 0.7182637},
+                    {-0.2230975, 0.91561987, 1.17086252, 0.2282348, 0.0690674},
+                    {0.6939930, 1.94611387, -0.82939259, 1.0905923, 0.1458883},
+                    {-0.4050039, 0.18818663, -0.29040783, 0.6937185, 0.4664052},
+                    {0.6587918, -0.10749210, 3.27376532, 0.5141217, 0.7691778},
+                    {-2.5275280, 0.64942255, 0.07506224, -1.0787524, 1.6217606}
+                });
+
+        CovarianceMatrix cov = new CovarianceMatrix(A, new double[]{2, 2, 2, 2, 2, 2});
+        assertTrue(AreMatrices.equal(new CovarianceMatrix(A), cov, 1e-14));
+    }
+
+    /**
+     * The exponentially weighted covariance matrix is the one updated row by row.
+     */
+    @Test
+    public void test_weights_0020() {
+        DenseMatrix A = new DenseMatrix(new double[][]{
+                    {1.4022225, -0.04625344, 1.26176112, -1.8394428, 0.7182637},
+                    {-0.2230975, 0.91561987, 1.17086252, 0.2282348, 0.0690674},
+                    {0.6939930, 1.94611387, -0.82939259, 1.0905923, 0.1458883},
+                    {-0.4050039, 0.18818663, -0.29040783, 0.6937185, 0.4664052},
+                    {0.6587918, -0.10749210, 3.27376532, 0.5141217, 0.7691778},
+                    {-2.5275280, 0.64942255, 0.07506224, -1.0787524, 1.6217606}
+                });
+
+        double[] weights = CovarianceMatrix.exponentialWeights(6, 0.9);
+        assertEquals(1., weights[5], 0);
+        assertEquals(0.9 * 0.9, weights[3], 1e-15);
+
+        CovarianceMatrix cov = new CovarianceMatrix(A, weights);
+
+        IncrementalCovariance ewma = new IncrementalCovariance(5, 0.9);
+        for (int i = 1; i <= 6; ++i) {
+            ewma.addRow(A.getRow(i).toArray());
+        }
+        assertTrue(AreMatrices.equal(cov, ewma.covariance(), 1e-13));
+    }
 }
@@ -100,4 +100,45 @@ public class CovarianceTest {
         assertEquals(Double.NaN, stat.value(), 0);
         assertEquals(1, stat.N());
     }
+
+    /**
+     * Test of merging Covariance calculators.
+     */
+    @Test
+    public void testCovariance_0040() {
+        Covariance stat = new Covariance();
+        stat.merge(new Covariance());
+        assertEquals(0, stat.N());
+
+        stat.merge(new Covariance(new double[][]{
+                    {1, 3, 5},
+                    {2, 4, 6}
+                }));
+        Covariance copy = new Covariance(stat);
+        stat.merge(new Covariance(new double[][]{
+                    {5.5, 1.1, 3.3, 5.5},
+                    {-6.6, 2.2, 4.4, 6.6}
+                }));
+
+        assertEquals(-0.649047619047619, stat.value(), 1e-15);
+        assertEquals(-0.07552950790261773, stat.correlation(), 1e-15);
+        assertEquals(7, stat.N());
+
+        //the copy is not affected
+        assertEquals(4, copy.value(), 0);
+        assertEquals(3, copy.N());
+    }
+
+    /**
+     * Test of the correlation after incremental computation.
+     */
+    @Test
+    public void testCovariance_0050() {
+        Covariance stat = new Covariance();
+        stat.addData(1, 3, 5, 2, 4, 6);
+        stat.addData(5.5, -6.6);
+        stat.addData(1.1, 3.3, 5.5, 2.2, 4.4, 6.6);
+
+        assertEquals(-0.07552950790261773, stat.correlation(), 1e-15);
+    }
 }
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT, 
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.descriptive;
+
+import com.numericalmethod.suanshu.matrix.doubles.AreMatrices;
+import com.numericalmethod.suanshu.matrix.doubles.Matrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.operation.CreateMatrix;
+import com.numericalmethod.suanshu.stats.descriptive.moment.Mean;
+import com.numericalmethod.suanshu.stats.random.univariate.normal.StandardNormalRng;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class IncrementalCovarianceTest {
+
+    private static DenseMatrix random(int nRows, int nCols) {
+        StandardNormalRng rng = new StandardNormalRng();
+        rng.seed(1234567890L);
+
+        DenseMatrix A = new DenseMatrix(nRows, nCols);
+        for (int i = 1; i <= nRows; ++i) {
+            for (int j = 1; j <= nCols; ++j) {
+                A.set(i, j, rng.nextDouble() + j);//non-zero means
+            }
+        }
+        return A;
+    }
+
+    private static Matrix rows(Matrix A, int from, int to) {
+        return CreateMatrix.subMatrix(A, from, to, 1, A.nCols());
+    }
+
+    @Test
+    public void test_addRow_0010() {
+        DenseMatrix A = random(50, 4);
+
+        IncrementalCovariance cov = new IncrementalCovariance(4);
+        for (int i = 1; i <= A.nRows(); ++i) {
+            cov.addRow(A.getRow(i).toArray());
+        }
+
+        assertEquals(50, cov.N());
+        assertTrue(AreMatrices.equal(new CovarianceMatrix(A), cov.covariance(), 1e-13));
+        assertTrue(AreMatrices.equal(new CorrelationMatrix(new CovarianceMatrix(A)), cov.correlation(), 1e-13));
+        for (int j = 1; j <= 4; ++j) {
+            assertEquals(new Mean(A.getColumn(j).toArray()).value(), cov.mean().get(j), 1e-13);
+        }
+    }
+
+    /**
+     * a rolling window of 20 rows
+     */
+    @Test
+    public void test_removeRow_0010() {
+        DenseMatrix A = random(100, 3);
+
+        IncrementalCovariance cov = new IncrementalCovariance(3);
+        for (int i = 1; i <= A.nRows(); ++i) {
+            cov.addRow(A.getRow(i).toArray());
+            if (i > 20) {
+                cov.removeRow(A.getRow(i - 20).toArray());
+            }
+            if (i >= 20) {
+                assertEquals(20, cov.N());
+                assertTrue(AreMatrices.equal(new CovarianceMatrix(rows(A, i - 19, i)), cov.covariance(), 1e-12));
+            }
+        }
+    }
+
+    @Test
+    public void test_addRows_0010() {
+        DenseMatrix A = random(300, 5);
+
+        IncrementalCovariance cov = new IncrementalCovariance(5);
+        cov.addRow(A.getRow(1).toArray());
+        cov.addRows(rows(A, 2, 200));
+        cov.addRows(rows(A, 201, 300));
+
+        assertEquals(300, cov.N());
+        assertTrue(AreMatrices.equal(new CovarianceMatrix(A), cov.covariance(), 1e-12));
+    }
+
+    @Test
+    public void test_merge_0010() {
+        DenseMatrix A = random(60, 3);
+
+        IncrementalCovariance cov1 = new IncrementalCovariance(3);
+        IncrementalCovariance cov2 = new IncrementalCovariance(3);
+        for (int i = 1; i <= A.nRows(); ++i) {
+            (i <= 17 ? cov1 : cov2).addRow(A.getRow(i).toArray());
+        }
+        cov1.merge(cov2);
+
+        assertEquals(60, cov1.N());
+        assertTrue(AreMatrices.equal(new CovarianceMatrix(A), cov1.covariance(), 1e-13));
+    }
+
+    @Test
+    public void test_weights_0010() {
+        DenseMatrix A = random(30, 3);
+        double[] weights = CovarianceMatrix.exponentialWeights(30, 0.94);
+
+        IncrementalCovariance ewma = new IncrementalCovariance(3, 0.94);
+        IncrementalCovariance weighted = new IncrementalCovariance(3);
+        for (int i = 1; i <= A.nRows(); ++i) {
+            ewma.addRow(A.getRow(i).toArray());
+            weighted.addRow(A.getRow(i).toArray(), weights[i - 1]);
+        }
+
+        CovarianceMatrix expected = new CovarianceMatrix(A, weights);
+        assertTrue(AreMatrices.equal(expected, ewma.covariance(), 1e-12));
+        assertTrue(AreMatrices.equal(expected, weighted.covariance(), 1e-12));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void test_removeRow_0020() {
+        IncrementalCovariance ewma = new IncrementalCovariance(2, 0.94);
+        ewma.addRow(1, 2);
+        ewma.addRow(3, 5);
+        ewma.removeRow(1, 2);
+    }
+
+    /**
+     * the only remaining row has weight 0
+     */
+    @Test
+    public void test_removeRow_0030() {
+        IncrementalCovariance cov = new IncrementalCovariance(2);
+        cov.addRow(new double[]{1, 2}, 1);
+        cov.addRow(new double[]{3, 5}, 0);
+        cov.removeRow(new double[]{1, 2}, 1);
+        assertEquals(1, cov.N());
+        assertTrue(Double.isNaN(cov.covariance().get(1, 1)));
+
+        cov.addRow(2, 3);
+        cov.addRow(4, 7);
+        assertEquals(3, cov.N());
+        assertEquals(2., cov.covariance().get(1, 1), 1e-15);
+        assertEquals(4., cov.covariance().get(1, 2), 1e-15);
+        assertEquals(8., cov.covariance().get(2, 2), 1e-15);
+        assertEquals(3., cov.mean().get(1), 1e-15);
+        assertEquals(5., cov.mean().get(2), 1e-15);
+    }
+
+    /**
+     * the remaining weight is not exactly 0 after rounding
+     */
+    @Test
+    public void test_removeRow_0040() {
+        IncrementalCovariance cov = new IncrementalCovariance(1);
+        cov.addRow(new double[]{1}, 0.1);
+        cov.addRow(new double[]{2}, 0.2);
+        cov.addRow(new double[]{5}, 0);
+        cov.removeRow(new double[]{1}, 0.1);
+        cov.removeRow(new double[]{2}, 0.2);
+        assertEquals(1, cov.N());
+        assertTrue(Double.isNaN(cov.covariance().get(1, 1)));
+
+        cov.addRow(3);
+        cov.addRow(5);
+        assertEquals(2., cov.covariance().get(1, 1), 1e-15);
+        assertEquals(4., cov.mean().get(1), 1e-15);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_removeRow_0050() {
+        IncrementalCovariance cov = new IncrementalCovariance(2);
+        cov.addRow(1, 2);
+        cov.addRow(3, 5);
+        cov.removeRow(new double[]{1, 2}, 3);
+    }
+
+    @Test
+    public void test_0010() {
+        IncrementalCovariance cov = new IncrementalCovariance(2);
+        cov.addRow(1, 2);
+        assertTrue(Double.isNaN(cov.covariance().get(1, 1)));
+
+        IncrementalCovariance copy = new IncrementalCovariance(cov);
+        copy.addRow(3, 6);
+        assertEquals(1, cov.N());
+        assertEquals(2., copy.covariance().get(1, 1), 1e-15);
+        assertEquals(4., copy.covariance().get(1, 2), 1e-15);
+        assertEquals(8., copy.covariance().get(2, 2), 1e-15);
+    }
+}
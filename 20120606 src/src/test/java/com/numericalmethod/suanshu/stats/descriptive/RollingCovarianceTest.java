@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.descriptive;
+
+import com.numericalmethod.suanshu.stats.random.univariate.uniform.MersenneTwister;
+import java.util.Arrays;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class RollingCovarianceTest {
+
+    @Test
+    public void test_RollingCovariance_0010() {
+        final int n = 30;
+        MersenneTwister rng = new MersenneTwister();
+        rng.seed(1234567890L);
+        double[] x = rng.nextDoubles(500);
+        double[] y = new double[x.length];
+        for (int i = 0; i < x.length; ++i) {
+            y[i] = 1000 + x[i] + rng.nextDouble();//correlated, with a large mean
+        }
+
+        RollingCovariance cov = new RollingCovariance();
+        assertEquals(Double.NaN, cov.value(), 0);
+        for (int i = 0; i < x.length; ++i) {
+            cov.push(x[i], y[i]);
+            if (i >= n) {
+                cov.pop(x[i - n], y[i - n]);
+            }
+
+            int from = Math.max(0, i - n + 1);
+            Covariance expected = new Covariance(new double[][]{
+                        Arrays.copyOfRange(x, from, i + 1),
+                        Arrays.copyOfRange(y, from, i + 1)
+                    });
+            assertEquals(i + 1 - from, cov.N());
+            if (i > 0) {
+                assertEquals(expected.value(), cov.value(), 1e-12);
+                assertEquals(expected.correlation(), cov.correlation(), 1e-11);
+            }
+        }
+    }
+}
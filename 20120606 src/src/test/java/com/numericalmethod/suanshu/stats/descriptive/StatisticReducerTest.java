@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.descriptive;
+
+import com.numericalmethod.suanshu.parallel.ParallelExecutor;
+import com.numericalmethod.suanshu.stats.descriptive.moment.Kurtosis;
+import com.numericalmethod.suanshu.stats.descriptive.moment.Mean;
+import com.numericalmethod.suanshu.stats.descriptive.moment.Variance;
+import com.numericalmethod.suanshu.stats.descriptive.rank.Max;
+import com.numericalmethod.suanshu.stats.descriptive.rank.P2Quantile;
+import com.numericalmethod.suanshu.stats.random.univariate.uniform.MersenneTwister;
+import java.util.Arrays;
+import java.util.Iterator;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class StatisticReducerTest {
+
+    private static double[] sample(int size) {
+        MersenneTwister rng = new MersenneTwister();
+        rng.seed(1234567890L);
+        double[] x = new double[size];
+        rng.nextDoubles(x, 0, size);
+        return x;
+    }
+
+    /**
+     * Test of reduce an array; the result must match the serial computation.
+     */
+    @Test
+    public void test_reduce_0010() {
+        double[] x = sample(1000003);
+        StatisticReducer reducer = new StatisticReducer(
+                new StatisticFactory() {
+
+                    @Override
+                    public Statistic getStatistic() {
+                        return new Variance();
+                    }
+                },
+                new ParallelExecutor(4));
+
+        Statistic var = reducer.reduce(x);
+        assertEquals(new Variance(x).value(), var.value(), 1e-14);
+        assertEquals(x.length, var.N());
+
+        Statistic kurtosis = new StatisticReducer(
+                new StatisticFactory() {
+
+                    @Override
+                    public Statistic getStatistic() {
+                        return new Kurtosis();
+                    }
+                },
+                new ParallelExecutor(4)).reduce(x);
+        assertEquals(new Kurtosis(x).value(), kurtosis.value(), 1e-12);
+    }
+
+    /**
+     * Test of reduce a small array, which is done serially.
+     */
+    @Test
+    public void test_reduce_0020() {
+        StatisticReducer reducer = new StatisticReducer(
+                new StatisticFactory() {
+
+                    @Override
+                    public Statistic getStatistic() {
+                        return new Max();
+                    }
+                });
+
+        assertEquals(Double.NaN, reducer.reduce(new double[0]).value(), 0);
+        assertEquals(5, reducer.reduce(new double[]{1, 5, 3}).value(), 0);
+    }
+
+    /**
+     * Test of reduce a pair of arrays.
+     */
+    @Test
+    public void test_reduce_0030() {
+        double[] x = sample(200000);
+        double[] y = Arrays.copyOf(x, x.length);
+        for (int i = 0; i < y.length; ++i) {
+            y[i] = 2 * x[(i + 1) % x.length] + x[i];
+        }
+
+        Covariance cov = (Covariance) new StatisticReducer(
+                new StatisticFactory() {
+
+                    @Override
+                    public Statistic getStatistic() {
+                        return new Covariance();
+                    }
+                },
+                new ParallelExecutor(4)).reduce(x, y);
+
+        Covariance expected = new Covariance(new double[][]{x, y});
+        assertEquals(expected.value(), cov.value(), 1e-15);
+        assertEquals(expected.correlation(), cov.correlation(), 1e-14);
+        assertEquals(x.length, cov.N());
+    }
+
+    /**
+     * Test of reduce a stream of blocks.
+     */
+    @Test
+    public void test_reduce_0040() {
+        final double[] x = sample(100000);
+        Iterator<double[]> blocks = new Iterator<double[]>() {
+
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < x.length;
+            }
+
+            @Override
+            public double[] next() {
+                int to = Math.min(next + 999, x.length);
+                double[] block = Arrays.copyOfRange(x, next, to);
+                next = to;
+                return block;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        Statistic mean = new StatisticReducer(
+                new StatisticFactory() {
+
+                    @Override
+                    public Statistic getStatistic() {
+                        return new Mean();
+                    }
+                },
+                new ParallelExecutor(4)).reduce(blocks);
+        assertEquals(new Mean(x).value(), mean.value(), 1e-14);
+        assertEquals(x.length, mean.N());
+    }
+
+    /**
+     * Test of reduce a statistic that cannot be merged.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void test_reduce_0050() {
+        new StatisticReducer(
+                new StatisticFactory() {
+
+                    @Override
+                    public Statistic getStatistic() {
+                        return new P2Quantile(0.5);
+                    }
+                }).reduce(new double[]{1, 2, 3});
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.descriptive;
+
+import com.numericalmethod.suanshu.stats.descriptive.moment.RollingMean;
+import com.numericalmethod.suanshu.stats.descriptive.rank.RollingMax;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TimeWindowTest {
+
+    /**
+     * The window is (t - 1, t].
+     */
+    @Test
+    public void test_TimeWindow_0010() {
+        RollingMean mean = new RollingMean();
+        RollingMax max = new RollingMax();
+        TimeWindow window = new TimeWindow(1., mean, max);
+
+        window.push(0.1, 5);
+        window.push(0.5, 1);
+        window.push(0.9, 3);
+        assertEquals(3, window.size());
+        assertEquals(3., mean.value(), 1e-15);
+        assertEquals(5., max.value(), 0);
+
+        window.push(1.1, 2);//0.1 expires
+        assertEquals(3, window.size());
+        assertEquals(2., mean.value(), 1e-15);
+        assertEquals(3., max.value(), 0);
+
+        window.push(1.5, 4);//0.5 expires exactly
+        assertEquals(3, window.size());
+        assertEquals(3., mean.value(), 1e-15);
+        assertEquals(4., max.value(), 0);
+
+        window.advance(2.45);//0.9 and 1.1 expire
+        assertEquals(1, window.size());
+        assertEquals(1.5, window.oldestTime(), 0);
+        assertEquals(4., mean.value(), 0);
+
+        window.advance(10);
+        assertEquals(0, window.size());
+        assertEquals(Double.NaN, max.value(), 0);
+    }
+
+    /**
+     * more observations than the initial capacity
+     */
+    @Test
+    public void test_TimeWindow_0020() {
+        RollingMean mean = new RollingMean();
+        TimeWindow window = new TimeWindow(100., mean);
+        for (int t = 1; t <= 1000; ++t) {
+            window.push(t, t);
+            int from = Math.max(1, t - 99);
+            assertEquals(t - from + 1, window.size());
+            assertEquals((from + t) / 2., mean.value(), 1e-10);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_TimeWindow_0030() {
+        TimeWindow window = new TimeWindow(1.);
+        window.push(2, 0);
+        window.push(1, 0);
+    }
+}
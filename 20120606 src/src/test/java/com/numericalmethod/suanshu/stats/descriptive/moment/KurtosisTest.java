@@ -23,6 +23,7 @@
 package com.numericalmethod.suanshu.stats.descriptive.moment;
 
 import com.numericalmethod.suanshu.stats.random.univariate.exp.InverseTransformSamplingExpRng;
+import java.util.Arrays;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -100,4 +101,42 @@ public class KurtosisTest {
         Kurtosis kurtosis2 = new Kurtosis(x);
         assertEquals(kurtosis1.value(), kurtosis2.value(), 1e-11);
     }
+
+    /**
+     * Merging a small far away cluster into a big sample of exponential data.
+     * The fourth moment update has cross terms in the mean difference up to the fourth power.
+     */
+    @Test
+    public void testKurtosis_merge_0030() {
+        InverseTransformSamplingExpRng rng = new InverseTransformSamplingExpRng();
+        rng.seed(1234567890L);
+        double[] x = new double[10010];
+        for (int i = 0; i < 10000; ++i) {
+            x[i] = rng.nextDouble();
+        }
+        for (int i = 10000; i < 10010; ++i) {
+            x[i] = -30 - 0.1 * (i - 10000);
+        }
+
+        Kurtosis small = new Kurtosis(Arrays.copyOfRange(x, 10000, 10010));
+        small.merge(new Kurtosis(Arrays.copyOfRange(x, 0, 10000)));//the big one into the small one
+
+        Kurtosis single = new Kurtosis(x);
+        assertEquals(10010, small.N());
+        assertTrue(single.value() > 10);
+        assertEquals(single.value(), small.value(), 1e-11 * single.value());
+    }
+
+    /**
+     * Merging a calculator into itself.
+     */
+    @Test
+    public void testKurtosis_merge_0040() {
+        Kurtosis stat = new Kurtosis(new double[]{1.5, -2, 3, 7.25, 0, 11});
+        stat.merge(stat);
+
+        Kurtosis single = new Kurtosis(new double[]{1.5, -2, 3, 7.25, 0, 11, 1.5, -2, 3, 7.25, 0, 11});
+        assertEquals(12, stat.N());
+        assertEquals(single.value(), stat.value(), 1e-13);
+    }
 }
@@ -24,6 +24,8 @@ package com.numericalmethod.suanshu.stats.descriptive.moment;
 
 import com.numericalmethod.suanshu.misc.R;
 import com.numericalmethod.suanshu.stats.random.univariate.exp.InverseTransformSamplingExpRng;
+import com.numericalmethod.suanshu.stats.random.univariate.normal.Zignor2005;
+import java.util.Arrays;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -161,4 +163,46 @@ public class MeanTest {
         Mean mean2 = new Mean(x);
         assertEquals(mean1.value(), mean2.value(), 1e-11);
     }
+
+    /**
+     * Merging a single large observation into many small ones.
+     * The weight of the single observation is tiny, so the update must not lose it.
+     */
+    @Test
+    public void testMean_merge_0050() {
+        double[] x = new double[100001];
+        Zignor2005 rng = new Zignor2005();
+        rng.seed(1234567890L);
+        for (int i = 0; i < 100000; ++i) {
+            x[i] = rng.nextDouble();
+        }
+        x[100000] = 1e8;
+
+        Mean stat = new Mean();
+        stat.merge(new Mean());//merging empty calculators gives an empty calculator
+        assertEquals(0, stat.N());
+
+        stat.merge(new Mean(Arrays.copyOfRange(x, 0, 100000)));
+        stat.merge(new Mean(new double[]{x[100000]}));
+
+        Mean single = new Mean(x);
+        assertEquals(100001, stat.N());
+        assertEquals(single.value(), stat.value(), 1e-12 * Math.abs(single.value()));
+    }
+
+    /**
+     * Merging a calculator into itself gives the mean of the sample repeated twice.
+     */
+    @Test
+    public void testMean_merge_0060() {
+        Mean stat = new Mean(new double[]{1, 2, 3, 4, 10});
+        stat.merge(stat);
+        assertEquals(10, stat.N());
+        assertEquals(4., stat.value(), 1e-15);
+
+        Mean empty = new Mean();
+        empty.merge(stat);//merging into an empty calculator copies it
+        assertEquals(10, empty.N());
+        assertEquals(4., empty.value(), 0);
+    }
 }
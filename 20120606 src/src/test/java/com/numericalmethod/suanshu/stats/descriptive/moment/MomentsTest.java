@@ -23,6 +23,8 @@
 package com.numericalmethod.suanshu.stats.descriptive.moment;
 
 import com.numericalmethod.suanshu.stats.random.univariate.exp.InverseTransformSamplingExpRng;
+import com.numericalmethod.suanshu.stats.random.univariate.normal.Zignor2005;
+import java.util.Arrays;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -142,4 +144,56 @@ public class MomentsTest {
         assertEquals(skew2.value(),
                 skew1.value(), 1e-11);
     }
+
+    /**
+     * Merging 2 far away observations into many.
+     * The cross terms of Pébay's formula, which involve the mean difference to the power of up to 6,
+     * dominate the higher moments.
+     */
+    @Test
+    public void testMoments_merge_0040() {
+        double[] x = new double[5002];
+        Zignor2005 rng = new Zignor2005();
+        rng.seed(1234567890L);
+        for (int i = 0; i < 5000; ++i) {
+            x[i] = rng.nextDouble();
+        }
+        x[5000] = 40;
+        x[5001] = 45;
+
+        Moments stat = new Moments(6);
+        stat.merge(new Moments(6));//merging empty calculators gives an empty calculator
+        assertEquals(0, stat.N());
+
+        stat.merge(new Moments(6, Arrays.copyOfRange(x, 5000, 5002)));
+        stat.merge(new Moments(6, Arrays.copyOfRange(x, 0, 5000)));
+
+        Moments single = new Moments(6, x);
+        assertEquals(5002, stat.N());
+        for (int k = 1; k <= 6; ++k) {
+            assertEquals(single.centralMoment(k), stat.centralMoment(k), 1e-11 * Math.abs(single.centralMoment(k)));
+        }
+    }
+
+    /**
+     * Merging a calculator into itself ({@code B == this}) gives the moments of the sample repeated twice,
+     * which are the same as those of the sample.
+     */
+    @Test
+    public void testMoments_merge_0050() {
+        double[] x = new double[]{1.5, -2, 3, 7.25, 0, 11};
+        Moments stat = new Moments(5, x);
+        stat.merge(stat);
+
+        Moments single = new Moments(5, x);
+        assertEquals(12, stat.N());
+        for (int k = 1; k <= 5; ++k) {
+            assertEquals(single.centralMoment(k), stat.centralMoment(k), 1e-13 * Math.abs(single.centralMoment(k)));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMoments_merge_0060() {
+        new Moments(4, 1., 2.).merge(new Moments(3, 1., 2.));//the orders differ
+    }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.descriptive.moment;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class RollingVarianceTest {
+
+    /**
+     * Sliding a window over a series with a large mean loses no precision.
+     */
+    @Test
+    public void test_RollingVariance_0010() {
+        RollingVariance var = new RollingVariance();
+        RollingVariance biased = new RollingVariance(false);
+        final double offset = 1e9;
+        for (int i = 0; i < 100000; ++i) {
+            double x = offset + (i % 4);//0, 1, 2, 3, 0, 1, ...
+            var.push(x);
+            biased.push(x);
+            if (i >= 4) {
+                double old = offset + ((i - 4) % 4);
+                var.pop(old);
+                biased.pop(old);
+            }
+        }
+
+        assertEquals(4, var.N());
+        assertEquals(offset + 1.5, var.mean(), 1e-6);
+        assertEquals(5. / 3., var.value(), 1e-6);
+        assertEquals(1.25, biased.value(), 1e-6);
+        assertEquals(Math.sqrt(5. / 3.), var.standardDeviation(), 1e-6);
+    }
+
+    @Test
+    public void test_RollingVariance_0020() {
+        RollingVariance var = new RollingVariance();
+        var.addData(1, 2, 4);
+        assertEquals(new Variance(new double[]{1, 2, 4}).value(), var.value(), 1e-15);
+
+        RollingVariance copy = new RollingVariance(var);
+        copy.pop(1);
+        assertEquals(2., copy.value(), 1e-15);
+        assertEquals(3, var.N());
+
+        copy.pop(2);
+        copy.pop(4);
+        assertEquals(0, copy.N());
+        assertEquals(0., copy.value(), 0);
+        assertEquals(Double.NaN, copy.mean(), 0);
+    }
+}
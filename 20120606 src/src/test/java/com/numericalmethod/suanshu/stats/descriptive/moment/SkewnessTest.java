@@ -24,6 +24,8 @@ package com.numericalmethod.suanshu.stats.descriptive.moment;
 
 import com.numericalmethod.suanshu.misc.R;
 import com.numericalmethod.suanshu.stats.random.univariate.exp.InverseTransformSamplingExpRng;
+import com.numericalmethod.suanshu.stats.random.univariate.normal.Zignor2005;
+import java.util.Arrays;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -204,4 +206,44 @@ public class SkewnessTest {
         Skewness skew2 = new Skewness(x);//better accuracy
         assertEquals(skew2.value(), skew1.value(), 1e-12);
     }
+
+    /**
+     * Merging partitions of very different sizes and means, one at a time,
+     * so that the cross terms in the third moment update dominate.
+     */
+    @Test
+    public void testSkewness_merge_0080() {
+        double[] x = new double[2005];
+        Zignor2005 rng = new Zignor2005();
+        rng.seed(1234567890L);
+        for (int i = 0; i < 2000; ++i) {
+            x[i] = rng.nextDouble();
+        }
+        for (int i = 2000; i < 2005; ++i) {
+            x[i] = 20 + i - 2000;
+        }
+
+        Skewness stat = new Skewness(Arrays.copyOfRange(x, 0, 2000));
+        for (int i = 2000; i < 2005; ++i) {
+            stat.merge(new Skewness(new double[]{x[i]}));//a singleton has no skewness of its own
+        }
+
+        Skewness single = new Skewness(x);
+        assertEquals(2005, stat.N());
+        assertTrue(single.value() > 5);
+        assertEquals(single.value(), stat.value(), 1e-12 * single.value());
+    }
+
+    /**
+     * Merging a calculator into itself keeps the skewness up to the change in the unbiased variance.
+     */
+    @Test
+    public void testSkewness_merge_0090() {
+        Skewness stat = new Skewness(new double[]{1.5, -2, 3, 7.25, 0, 11});
+        stat.merge(stat);
+
+        Skewness single = new Skewness(new double[]{1.5, -2, 3, 7.25, 0, 11, 1.5, -2, 3, 7.25, 0, 11});
+        assertEquals(12, stat.N());
+        assertEquals(single.value(), stat.value(), 1e-14);
+    }
 }
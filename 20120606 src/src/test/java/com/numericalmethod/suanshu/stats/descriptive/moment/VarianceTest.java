@@ -24,6 +24,8 @@ package com.numericalmethod.suanshu.stats.descriptive.moment;
 
 import com.numericalmethod.suanshu.misc.R;
 import com.numericalmethod.suanshu.stats.random.univariate.exp.InverseTransformSamplingExpRng;
+import com.numericalmethod.suanshu.stats.random.univariate.normal.Zignor2005;
+import java.util.Arrays;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -155,4 +157,46 @@ public class VarianceTest {
         Variance var2 = new Variance(x);
         assertEquals(var1.value(), var2.value(), 1e-12);
     }
+
+    /**
+     * Merging partitions of very different sizes of data with a big common offset,
+     * where the naive sum of squares formula loses all digits.
+     */
+    @Test
+    public void testVariance_merge_0060() {
+        double[] x = new double[10003];
+        Zignor2005 rng = new Zignor2005();
+        rng.seed(1234567890L);
+        for (int i = 0; i < x.length; ++i) {
+            x[i] = 1e9 + rng.nextDouble();
+        }
+
+        Variance stat = new Variance();
+        stat.merge(new Variance(Arrays.copyOfRange(x, 0, 3)));
+        stat.merge(new Variance());
+        stat.merge(new Variance(Arrays.copyOfRange(x, 3, 10003)));
+
+        Variance single = new Variance(x);
+        assertEquals(10003, stat.N());
+        assertEquals(single.value(), stat.value(), 1e-6 * single.value());
+        assertEquals(1., stat.value(), 0.05);
+    }
+
+    /**
+     * Merging a calculator into itself gives the variance of the sample repeated twice.
+     * The biased variance is unchanged by the repetition.
+     */
+    @Test
+    public void testVariance_merge_0070() {
+        double[] x = new double[]{1.5, -2, 3, 7.25, 0};
+        Variance unbiased = new Variance(x);
+        unbiased.merge(unbiased);
+        assertEquals(10, unbiased.N());
+        assertEquals(new Variance(new double[]{1.5, -2, 3, 7.25, 0, 1.5, -2, 3, 7.25, 0}).value(), unbiased.value(), 1e-14);
+
+        Variance biased = new Variance(x, false);
+        double value = biased.value();
+        biased.merge(biased);
+        assertEquals(value, biased.value(), 1e-14);
+    }
 }
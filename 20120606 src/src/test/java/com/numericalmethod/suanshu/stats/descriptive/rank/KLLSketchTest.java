@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.descriptive.rank;
+
+import com.numericalmethod.suanshu.stats.random.univariate.uniform.MersenneTwister;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class KLLSketchTest {
+
+    private static double[] uniform(int size) {
+        MersenneTwister rng = new MersenneTwister();
+        rng.seed(1234567890L);
+        return rng.nextDoubles(size);
+    }
+
+    /**
+     * For uniform data, the q quantile is q, so the error in value is the error in rank.
+     */
+    @Test
+    public void test_KLLSketch_0010() {
+        KLLSketch sketch = new KLLSketch(200);
+        assertEquals(Double.NaN, sketch.value(0.5), 0);
+        assertEquals(0, sketch.N());
+
+        double[] x = uniform(1000000);
+        for (int i = 0; i < x.length; i += 1000) {
+            sketch.addData(Arrays.copyOfRange(x, i, i + 1000));
+        }
+        assertEquals(x.length, sketch.N());
+
+        for (double q = 0.05; q < 1; q += 0.05) {
+            assertEquals(q, sketch.value(q), 0.02);
+        }
+        assertEquals(0.001, sketch.value(0.001), 0.02);
+        assertEquals(0.999, sketch.value(0.999), 0.02);
+
+        //the extremes are exact
+        Min min = new Min(x);
+        Max max = new Max(x);
+        assertEquals(min.value(), sketch.value(0), 0);
+        assertEquals(max.value(), sketch.value(1), 0);
+    }
+
+    /**
+     * Test of merging the sketches of the pieces of a sample.
+     */
+    @Test
+    public void test_KLLSketch_0020() {
+        double[] x = uniform(400000);
+        KLLSketch whole = new KLLSketch(200);
+        whole.addData(x);
+
+        KLLSketch merged = new KLLSketch(200);
+        for (int t = 0; t < 4; ++t) {
+            KLLSketch piece = new KLLSketch(200);
+            piece.addData(Arrays.copyOfRange(x, t * 100000, (t + 1) * 100000));
+            merged.merge(piece);
+        }
+        assertEquals(x.length, merged.N());
+
+        for (double q = 0.05; q < 1; q += 0.05) {
+            assertEquals(q, merged.value(q), 0.02);
+            assertEquals(whole.value(q), merged.value(q), 2 * 0.02);
+        }
+    }
+
+    /**
+     * Test of serialization.
+     */
+    @Test
+    public void test_KLLSketch_0030() throws Exception {
+        KLLSketch sketch = new KLLSketch(200);
+        sketch.addData(uniform(10000));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(sketch);
+        out.close();
+        KLLSketch copy = (KLLSketch) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+        assertEquals(sketch.N(), copy.N());
+        for (double q = 0; q <= 1; q += 0.1) {
+            assertEquals(sketch.value(q), copy.value(q), 0);
+        }
+    }
+
+    /**
+     * Test of a small sample.
+     */
+    @Test
+    public void test_KLLSketch_0040() {
+        KLLSketch sketch = new KLLSketch(200);
+        sketch.addData(3, 1, 2);
+        assertEquals(1, sketch.value(0), 0);
+        assertEquals(3, sketch.value(1), 0);
+        assertEquals(2, sketch.value(0.5), 1e-15);
+    }
+}
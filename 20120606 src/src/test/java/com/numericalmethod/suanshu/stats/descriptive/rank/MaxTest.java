@@ -126,4 +126,32 @@ public class MaxTest {
         assertEquals(11d, single.value(), 0);
         assertEquals(21, single.N());
     }
+
+    /**
+     * The maximum comes from a one-observation partition, or from the other side;
+     * an empty calculator does not change the maximum, even when all the values are negative.
+     */
+    @Test
+    public void testMax_merge_0040() {
+        Max stat = new Max(new double[]{-5, -1, -3});
+        stat.merge(new Max());
+        assertEquals(-1., stat.value(), 0);
+        assertEquals(3, stat.N());
+
+        stat.merge(new Max(new double[]{-0.5}));
+        assertEquals(-0.5, stat.value(), 0);
+
+        stat.merge(new Max(new double[]{-100, -2}));
+        assertEquals(-0.5, stat.value(), 0);
+        assertEquals(6, stat.N());
+
+        Max empty = new Max();
+        empty.merge(stat);
+        assertEquals(-0.5, empty.value(), 0);
+        assertEquals(6, empty.N());
+
+        stat.merge(stat);
+        assertEquals(-0.5, stat.value(), 0);
+        assertEquals(12, stat.N());
+    }
 }
@@ -127,4 +127,32 @@ public class MinTest {
         assertEquals(0.109701163135469, single.value(), 0);
         assertEquals(21, single.N());
     }
+
+    /**
+     * The minimum comes from a one-observation partition, or from the other side;
+     * an empty calculator does not change the minimum.
+     */
+    @Test
+    public void testMin_merge_0040() {
+        Min stat = new Min(new double[]{-1, 5, 3});
+        stat.merge(new Min());
+        assertEquals(-1., stat.value(), 0);
+        assertEquals(3, stat.N());
+
+        stat.merge(new Min(new double[]{-7}));
+        assertEquals(-7., stat.value(), 0);
+
+        stat.merge(new Min(new double[]{0, 100}));
+        assertEquals(-7., stat.value(), 0);
+        assertEquals(6, stat.N());
+
+        Min empty = new Min();
+        empty.merge(stat);
+        assertEquals(-7., empty.value(), 0);
+        assertEquals(6, empty.N());
+
+        stat.merge(stat);
+        assertEquals(-7., stat.value(), 0);
+        assertEquals(12, stat.N());
+    }
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.descriptive.rank;
+
+import com.numericalmethod.suanshu.stats.random.univariate.uniform.MersenneTwister;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class P2QuantileTest {
+
+    /**
+     * Test of a small sample, for which the quantile is exact.
+     */
+    @Test
+    public void test_P2Quantile_0010() {
+        P2Quantile median = new P2Quantile(0.5);
+        assertEquals(Double.NaN, median.value(), 0);
+
+        median.addData(3, 1, 2);
+        assertEquals(2, median.value(), 0);
+        assertEquals(3, median.N());
+    }
+
+    /**
+     * Test of the data in the example in Jain and Chlamtac 1985.
+     */
+    @Test
+    public void test_P2Quantile_0020() {
+        P2Quantile median = new P2Quantile(0.5);
+        median.addData(0.02, 0.5, 0.74, 3.39, 0.83, 22.37, 10.15, 15.43);
+        assertEquals(2.06, median.value(), 0.005);
+
+        median.addData(38.62, 15.92, 34.6, 10.28, 1.47, 0.4, 0.05, 11.39, 0.27, 0.42, 0.09, 11.37);
+        assertEquals(4.2462394088036435, median.value(), 1e-14);
+        assertEquals(20, median.N());
+    }
+
+    /**
+     * For uniform data, the q quantile is q.
+     */
+    @Test
+    public void test_P2Quantile_0030() {
+        MersenneTwister rng = new MersenneTwister();
+        rng.seed(1234567890L);
+
+        P2Quantile p99 = new P2Quantile(0.99);
+        P2Quantile median = new P2Quantile(0.5);
+        for (int i = 0; i < 100000; ++i) {
+            double x = rng.nextDouble();
+            p99.addData(x);
+            median.addData(x);
+        }
+
+        assertEquals(0.99, p99.value(), 1e-3);
+        assertEquals(0.5, median.value(), 1e-2);
+    }
+}
@@ -350,4 +350,49 @@ public class QuantileTest {
         assertEquals(9, stat.value(0.95), 1e-14);
         assertEquals(9, stat.value(1.0), 1e-14);
     }
+
+    /**
+     * Test of merging exact quantiles.
+     */
+    @Test
+    public void testQuantile_merge_0010() {
+        Quantile stat = new Quantile(new double[]{5, 3, 1},
+                Quantile.QuantileType.INVERSE_OF_EMPIRICAL_CDF);
+        stat.merge(new Quantile(new double[]{10, 2, 4, 9, 8, 7, 6},
+                Quantile.QuantileType.INVERSE_OF_EMPIRICAL_CDF));
+        assertEquals(10, stat.N());
+
+        assertEquals(1, stat.value(0.1), 0);
+        assertEquals(5, stat.value(0.5), 0);
+        assertEquals(10, stat.value(0.99), 0);
+    }
+
+    /**
+     * Test of a quantile backed by a sketch.
+     */
+    @Test
+    public void testQuantile_sketch_0010() {
+        Quantile stat = new Quantile(new TDigest());
+        stat.addData(new double[]{5, 4, 3, 2, 1});
+        stat.addData(new double[]{10, 9, 8, 7, 6});
+        assertEquals(10, stat.N());
+        assertEquals(1, stat.value(0), 0);
+        assertEquals(5.5, stat.value(0.5), 1e-15);
+        assertEquals(10, stat.value(1), 0);
+
+        Quantile other = new Quantile(new TDigest());
+        other.addData(11);
+        stat.merge(other);
+        assertEquals(11, stat.N());
+        assertEquals(11, stat.value(1), 0);
+    }
+
+    /**
+     * An exact quantile cannot be merged with a sketch.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testQuantile_sketch_0020() {
+        Quantile stat = new Quantile(new double[]{1, 2, 3});
+        stat.merge(new Quantile(new KLLSketch()));
+    }
 }
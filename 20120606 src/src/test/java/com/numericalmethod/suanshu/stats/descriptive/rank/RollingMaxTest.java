@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.descriptive.rank;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class RollingMaxTest {
+
+    @Test
+    public void test_RollingMax_0010() {
+        double[] x = new double[]{1, 3, 3, 2, 5, 4, 1, 1, 0};
+        double[] expected = new double[]{1, 3, 3, 3, 5, 5, 5, 4, 1};//a window of 3
+
+        RollingMax max = new RollingMax();
+        RollingMin min = new RollingMin();
+        for (int i = 0; i < x.length; ++i) {
+            max.push(x[i]);
+            min.push(x[i]);
+            if (i >= 3) {
+                max.pop(x[i - 3]);
+                min.pop(x[i - 3]);
+            }
+            assertEquals(expected[i], max.value(), 0);
+        }
+        assertEquals(0., min.value(), 0);
+        assertEquals(3, min.N());
+    }
+
+    /**
+     * a decreasing series keeps the whole window in the deque
+     */
+    @Test
+    public void test_RollingMax_0020() {
+        RollingMax max = new RollingMax();
+        for (int i = 0; i < 1000; ++i) {
+            max.push(-i);
+        }
+        RollingMax copy = new RollingMax(max);
+        for (int i = 0; i < 999; ++i) {
+            max.pop(-i);
+            assertEquals(-i - 1, max.value(), 0);
+        }
+        assertEquals(0., copy.value(), 0);
+        assertEquals(1000, copy.N());
+    }
+}
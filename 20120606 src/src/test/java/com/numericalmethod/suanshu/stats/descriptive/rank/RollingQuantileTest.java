@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.descriptive.rank;
+
+import com.numericalmethod.suanshu.stats.descriptive.rank.Quantile.QuantileType;
+import com.numericalmethod.suanshu.stats.random.univariate.uniform.MersenneTwister;
+import java.util.Arrays;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class RollingQuantileTest {
+
+    /**
+     * Compare all the quantile definitions with those of {@link Quantile} on each window.
+     */
+    @Test
+    public void test_RollingQuantile_0010() {
+        final int n = 25;
+        MersenneTwister rng = new MersenneTwister();
+        rng.seed(1234567890L);
+        double[] x = new double[2000];
+        for (int i = 0; i < x.length; ++i) {
+            x[i] = Math.floor(50 * rng.nextDouble());//many repeated values
+        }
+
+        for (QuantileType type : QuantileType.values()) {
+            RollingQuantile quantile = new RollingQuantile(0.25, type);
+            for (int i = 0; i < x.length; ++i) {
+                quantile.push(x[i]);
+                if (i >= n) {
+                    quantile.pop(x[i - n]);
+                }
+
+                Quantile expected = new Quantile(Arrays.copyOfRange(x, Math.max(0, i - n + 1), i + 1), type);
+                assertEquals(expected.N(), quantile.N());
+                assertEquals(expected.value(0.25), quantile.value(), 1e-15);
+                assertEquals(expected.value(0.), quantile.value(0.), 0);
+                assertEquals(expected.value(0.9), quantile.value(0.9), 1e-15);
+                assertEquals(expected.value(1.), quantile.value(1.), 0);
+            }
+        }
+    }
+
+    @Test
+    public void test_RollingQuantile_0020() {
+        RollingQuantile median = new RollingQuantile(0.5);
+        assertEquals(Double.NaN, median.value(), 0);
+
+        median.addData(3, 1, 2);
+        assertEquals(2., median.value(), 0);
+
+        RollingQuantile copy = new RollingQuantile(median);
+        copy.pop(3);
+        copy.pop(1);
+        assertEquals(1, copy.N());
+        assertEquals(2., copy.value(), 0);
+        assertEquals(3, median.N());
+        assertEquals(2., median.value(), 0);
+    }
+
+    /**
+     * Sliding a window many times reuses the tree nodes.
+     */
+    @Test
+    public void test_OrderStatisticTree_0010() {
+        OrderStatisticTree tree = new OrderStatisticTree();
+        for (int i = 0; i < 100000; ++i) {
+            tree.add(i);
+            if (i >= 10) {
+                tree.remove(i - 10);
+            }
+        }
+
+        assertEquals(10, tree.size());
+        for (int i = 0; i < 10; ++i) {
+            assertEquals(99990 + i, tree.get(i), 0);
+        }
+    }
+}
@@ -156,4 +156,41 @@ public class PCAbyEigenTest {
                 scores_cor.getRow(2).toArray(),
                 1e-5);
     }
+
+    /**
+     * Only the first 2 principal components are computed.
+     */
+    @Test
+    public void test_0030() {
+        PCAbyEigen pca_cor = new PCAbyEigen(PCAbySVDTest.USArrests, true, null, 2);
+
+        assertArrayEquals(
+                new double[]{1.5748783, 0.9948694},
+                pca_cor.sdPrincipalComponent().toArray(),
+                1e-5);
+        assertArrayEquals(
+                new double[]{0.62006039, 0.24744129},
+                pca_cor.proportionVar().toArray(),
+                1e-5);
+
+        Matrix loadings_cor = pca_cor.loadings();
+        assertEquals(4, loadings_cor.nRows());
+        assertEquals(2, loadings_cor.nCols());
+        double[][] expected = new double[][]{//The signs of the columns of the loading are arbitrary.
+            {0.536, 0.418},
+            {0.583, 0.188},
+            {0.278, 0.873},
+            {0.543, 0.167}};
+        for (int i = 1; i <= 4; ++i) {
+            for (int j = 1; j <= 2; ++j) {
+                assertEquals(expected[i - 1][j - 1], Math.abs(loadings_cor.get(i, j)), 1e-3);
+            }
+        }
+
+        Matrix scores_cor = pca_cor.scores();
+        assertEquals(50, scores_cor.nRows());
+        assertEquals(2, scores_cor.nCols());
+        assertEquals(0.97566045, Math.abs(scores_cor.get(1, 1)), 1e-5);
+        assertEquals(1.12200121, Math.abs(scores_cor.get(1, 2)), 1e-5);
+    }
 }
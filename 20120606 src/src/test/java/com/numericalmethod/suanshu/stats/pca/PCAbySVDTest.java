@@ -26,6 +26,7 @@ import com.numericalmethod.suanshu.matrix.doubles.Matrix;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
 import com.numericalmethod.suanshu.matrix.doubles.AreMatrices;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import java.util.Random;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -224,4 +225,86 @@ public class PCAbySVDTest {
                 scores_2.getRow(2).toArray(),
                 1e-5);
     }
+
+    /**
+     * Only the first 2 principal components are computed.
+     */
+    @Test
+    public void test_0030() {
+        PCAbySVD pca_3 = new PCAbySVD(USArrests, true, true, null, null, 2);
+        PCAbySVD pca_2 = new PCAbySVD(USArrests, true, true);
+
+        assertArrayEquals(
+                new double[]{1.5748783, 0.9948694},
+                pca_3.sdPrincipalComponent().toArray(),
+                1e-5);
+        assertArrayEquals(
+                new double[]{0.62006039, 0.24744129},
+                pca_3.proportionVar().toArray(),
+                1e-5);
+        assertArrayEquals(
+                new double[]{0.6200604, 0.8675017},
+                pca_3.cumulativeProportionVar().toArray(),
+                1e-5);
+
+        Matrix loadings_3 = pca_3.loadings();
+        Matrix loadings_2 = pca_2.loadings();
+        assertEquals(4, loadings_3.nRows());
+        assertEquals(2, loadings_3.nCols());
+        for (int i = 1; i <= 4; ++i) {
+            for (int j = 1; j <= 2; ++j) {//The signs of the columns of the loading are arbitrary.
+                assertEquals(Math.abs(loadings_2.get(i, j)), Math.abs(loadings_3.get(i, j)), 1e-8);
+            }
+        }
+    }
+
+    /**
+     * Only the first 3 of 60 principal components are computed.
+     * The data are 3 strong factors plus noise, so the top 3 components are well separated from the rest.
+     * They are compared with the top 3 of the full decomposition.
+     */
+    @Test
+    public void test_0040() {
+        final int n = 300, p = 60, k = 3;
+        Random random = new Random(1234567890L);
+        double[][] factors = new double[n][k];
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < k; ++j) {
+                factors[i][j] = (10. / (j + 1)) * random.nextGaussian();
+            }
+        }
+        double[][] weights = new double[k][p];
+        for (int i = 0; i < k; ++i) {
+            for (int j = 0; j < p; ++j) {
+                weights[i][j] = random.nextGaussian();
+            }
+        }
+        Matrix data = new DenseMatrix(factors).multiply(new DenseMatrix(weights));
+        for (int i = 1; i <= n; ++i) {
+            for (int j = 1; j <= p; ++j) {
+                data.set(i, j, data.get(i, j) + 0.1 * random.nextGaussian());
+            }
+        }
+
+        PCAbySVD topK = new PCAbySVD(data, true, false, null, null, k);
+        PCAbySVD full = new PCAbySVD(data, true, false);
+
+        double[] sdevTopK = topK.sdPrincipalComponent().toArray();
+        double[] sdevFull = full.sdPrincipalComponent().toArray();
+        assertEquals(k, sdevTopK.length);
+        for (int j = 0; j < k; ++j) {
+            assertEquals(sdevFull[j], sdevTopK[j], 1e-8 * sdevFull[j]);
+        }
+
+        Matrix loadingsTopK = topK.loadings();
+        Matrix loadingsFull = full.loadings();
+        assertEquals(p, loadingsTopK.nRows());
+        assertEquals(k, loadingsTopK.nCols());
+        for (int j = 1; j <= k; ++j) {
+            double sign = Math.signum(loadingsTopK.get(1, j) * loadingsFull.get(1, j));//The signs of the columns of the loading are arbitrary.
+            for (int i = 1; i <= p; ++i) {
+                assertEquals(loadingsFull.get(i, j), sign * loadingsTopK.get(i, j), 1e-6);
+            }
+        }
+    }
 }
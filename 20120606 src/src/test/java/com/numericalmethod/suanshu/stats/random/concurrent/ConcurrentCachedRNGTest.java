@@ -26,8 +26,11 @@ import com.numericalmethod.suanshu.parallel.LoopBody;
 import com.numericalmethod.suanshu.parallel.MultipleExecutionException;
 import com.numericalmethod.suanshu.parallel.ParallelExecutor;
 import com.numericalmethod.suanshu.stats.random.RngUtils;
+import com.numericalmethod.suanshu.stats.random.univariate.RandomLongGenerator;
 import com.numericalmethod.suanshu.stats.random.univariate.RandomNumberGenerator;
+import com.numericalmethod.suanshu.stats.random.univariate.uniform.MersenneTwister;
 import com.numericalmethod.suanshu.stats.random.univariate.uniform.UniformRng;
+import java.util.Arrays;
 import static org.junit.Assert.*;
 import org.junit.Test;
 
@@ -74,4 +77,64 @@ public class ConcurrentCachedRNGTest {
         System.out.printf("Benchmark results: Synchronized took %dms, ConcurrentCachedRNG took %dms%n", synchTotal, cachedTotal);
         assertTrue("ConcurrentCachedRNG is faster", cachedTotal < synchTotal);
     }
+
+    /**
+     * Mocks a non-thread-safe RNG by generating sequential numbers.
+     */
+    private static class SequentialGenerator implements RandomLongGenerator {
+
+        private long nextNumber = 1;
+
+        @Override
+        public long nextLong() {
+            return nextNumber++;
+        }
+
+        @Override
+        public double nextDouble() {
+            return nextLong();
+        }
+
+        @Override
+        public void seed(long... seeds) {
+            nextNumber = seeds[0];
+        }
+    }
+
+    @Test
+    public void test_noDuplicates_0010() throws MultipleExecutionException {
+        final ConcurrentCachedRLG rlg = new ConcurrentCachedRLG(new SequentialGenerator(), 100);
+        final int nLoops = 100;
+        final int nGenPerLoop = 10000;
+        final long[] numbers = new long[nLoops * nGenPerLoop];
+
+        new ParallelExecutor().forLoop(0, nLoops, new LoopBody() {
+
+            @Override
+            public void run(int i) throws Exception {
+                for (int j = 0; j < nGenPerLoop / 2; j++) {
+                    numbers[i * nGenPerLoop + j] = rlg.nextLong();
+                }
+                rlg.nextLongs(numbers, i * nGenPerLoop + nGenPerLoop / 2, nGenPerLoop / 2);
+            }
+        });
+
+        Arrays.sort(numbers);
+        assertTrue(numbers[0] > 0);
+        for (int i = 1; i < numbers.length; i++) {
+            assertTrue(numbers[i - 1] < numbers[i]);
+        }
+    }
+
+    @Test
+    public void test_seed_0010() {
+        ConcurrentCachedRNG rng = new ConcurrentCachedRNG(new MersenneTwister(), 100);
+        rng.nextDouble();
+        rng.seed(1234567890L);
+
+        MersenneTwister expected = new MersenneTwister(1234567890L);
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(expected.nextDouble(), rng.nextDouble(), 0);
+        }
+    }
 }
@@ -60,4 +60,33 @@ public class Ziggurat2000Test {
         assertEquals(new NormalDistribution(mu, sigma).skew(), skew.value(), 0.01);
         assertEquals(new NormalDistribution(mu, sigma).kurtosis(), kurtosis.value(), 0.04);
     }
+
+    /**
+     * The bulk method returns the same numbers as the scalar method, however the calls are split.
+     */
+    @Test
+    public void test_nextDoubles_0010() {
+        Ziggurat2000 rng1 = new Ziggurat2000();
+        rng1.seed(1234567890L);
+        Ziggurat2000 rng2 = new Ziggurat2000();
+        rng2.seed(1234567890L);
+
+        final int size = 100000;
+        double[] expected = new double[size];
+        for (int i = 0; i < size; ++i) {
+            expected[i] = rng1.nextDouble();
+        }
+
+        double[] x = new double[size];
+        int[] chunks = new int[]{1, 7, 1000, 623, 625, 3, 50000};
+        int off = 0;
+        for (int len : chunks) {
+            rng2.nextDoubles(x, off, len);
+            off += len;
+        }
+        rng2.nextDoubles(x, off, size - off);
+
+        assertArrayEquals(expected, x, 0);
+        assertEquals(rng1.nextDouble(), rng2.nextDouble(), 0);
+    }
 }
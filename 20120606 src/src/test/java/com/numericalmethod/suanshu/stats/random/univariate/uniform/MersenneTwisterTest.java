@@ -263,4 +263,97 @@ public class MersenneTwisterTest {
 
         assertEquals(v1, v2);
     }
+
+    /**
+     * The bulk method returns the same numbers as the scalar method, however the calls are split.
+     */
+    @Test
+    public void test_nextDoubles_0010() {
+        MersenneTwister rng1 = new MersenneTwister(1234567890L);
+        MersenneTwister rng2 = new MersenneTwister(1234567890L);
+
+        final int size = 100000;
+        double[] expected = new double[size];
+        for (int i = 0; i < size; ++i) {
+            expected[i] = rng1.nextDouble();
+        }
+
+        double[] x = new double[size];
+        int[] chunks = new int[]{1, 7, 1000, 623, 625, 3, 50000};
+        int off = 0;
+        for (int len : chunks) {
+            rng2.nextDoubles(x, off, len);
+            off += len;
+        }
+        rng2.nextDoubles(x, off, size - off);
+
+        assertArrayEquals(expected, x, 0);
+        assertEquals(rng1.nextDouble(), rng2.nextDouble(), 0);
+    }
+
+    @Test
+    public void test_nextLongs_0010() {
+        MersenneTwister rng1 = new MersenneTwister(1234567890L);
+        MersenneTwister rng2 = new MersenneTwister(1234567890L);
+
+        long[] x = new long[2000];
+        rng2.nextLongs(x, 0, 1);
+        rng2.nextLongs(x, 1, 1999);
+        for (int i = 0; i < x.length; ++i) {
+            assertEquals(rng1.nextLong(), x[i]);
+        }
+    }
+
+    @Test
+    public void test_jump_0010() {
+        final int n = (1 << 24) + 12345;//long enough to jump by polynomials
+        MersenneTwister rng1 = new MersenneTwister(1234567890L);
+        MersenneTwister rng2 = new MersenneTwister(1234567890L);
+
+        for (int i = 0; i < 100; ++i) {
+            rng1.nextLong();
+            rng2.nextLong();
+        }
+        for (int i = 0; i < n; ++i) {
+            rng1.nextLong();
+        }
+        rng2.jump(n);
+
+        for (int i = 0; i < 2000; ++i) {
+            assertEquals(rng1.nextLong(), rng2.nextLong());
+        }
+    }
+
+    @Test
+    public void test_jump_0020() {
+        MersenneTwister rng1 = new MersenneTwister(1234567890L);
+        MersenneTwister rng2 = new MersenneTwister(1234567890L);
+
+        for (int i = 0; i < 1000; ++i) {
+            rng1.nextLong();
+        }
+        rng2.jump(1000);
+
+        for (int i = 0; i < 2000; ++i) {
+            assertEquals(rng1.nextLong(), rng2.nextLong());
+        }
+    }
+
+    @Test
+    public void test_substream_0010() {
+        MersenneTwister rng = new MersenneTwister(1234567890L);
+        MersenneTwister stream0 = rng.substream(0);
+        MersenneTwister stream2 = rng.substream(2);
+        for (int i = 0; i < 1000; ++i) {//the substreams do not depend on the state of rng
+            rng.nextLong();
+        }
+        MersenneTwister stream11 = rng.substream(1).substream(1);
+
+        MersenneTwister rng0 = new MersenneTwister(1234567890L);
+        for (int i = 0; i < 2000; ++i) {
+            assertEquals(rng0.nextLong(), stream0.nextLong());
+            long x = stream2.nextLong();
+            assertEquals(x, stream11.nextLong());
+        }
+    }
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT, 
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.random.univariate.uniform;
+
+import com.numericalmethod.suanshu.stats.descriptive.moment.Mean;
+import com.numericalmethod.suanshu.stats.descriptive.moment.Variance;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class PhiloxTest {
+
+    /**
+     * The known answers are from Random123.
+     */
+    @Test
+    public void test_generate_0010() {
+        int[] x = new int[4];
+
+        Philox.generate(0L, 0L, 0, 0, x);
+        assertArrayEquals(new int[]{0x6627e8d5, 0xe169c58d, 0xbc57ac4c, 0x9b00dbd8}, x);
+
+        Philox.generate(-1L, -1L, -1, -1, x);
+        assertArrayEquals(new int[]{0x408f276d, 0x41c83b0e, 0xa20bc7c6, 0x6d5451fd}, x);
+
+        Philox.generate(0x85a308d3243f6a88L, 0x0370734413198a2eL, 0xa4093822, 0x299f31d0, x);
+        assertArrayEquals(new int[]{0xd16cfe09, 0x94fdcceb, 0x5001e420, 0x24126ea1}, x);
+    }
+
+    @Test
+    public void test_Philox_0010() {
+        Philox rng = new Philox(1234567890L);
+
+        final int N = 1000000;
+        double[] x = new double[N];
+        for (int i = 0; i < N; ++i) {
+            x[i] = rng.nextDouble();
+            assertTrue(x[i] > 0 && x[i] < 1);
+        }
+
+        assertEquals(0.5, new Mean(x).value(), 1e-3);
+        assertEquals(1. / 12, new Variance(x).value(), 1e-3);
+    }
+
+    @Test
+    public void test_nextLongs_0010() {
+        Philox rng1 = new Philox(1234567890L);
+        Philox rng2 = new Philox(1234567890L);
+
+        long[] x = new long[2000];
+        rng2.nextLongs(x, 0, 3);
+        rng2.nextLongs(x, 3, 1001);
+        rng2.nextLongs(x, 1004, 996);
+        for (int i = 0; i < x.length; ++i) {
+            assertEquals(rng1.nextLong(), x[i]);
+        }
+        assertEquals(rng1.nextLong(), rng2.nextLong());
+
+        double[] u = new double[1001];
+        rng2.nextDoubles(u, 0, 2);
+        rng2.nextDoubles(u, 2, 999);
+        for (int i = 0; i < u.length; ++i) {
+            assertEquals(rng1.nextDouble(), u[i], 0);
+        }
+    }
+
+    @Test
+    public void test_jump_0010() {
+        Philox rng1 = new Philox(1234567890L);
+        Philox rng2 = new Philox(1234567890L);
+
+        for (int n : new int[]{0, 1, 2, 3, 4, 5, 1001}) {
+            for (int i = 0; i < n; ++i) {
+                rng1.nextLong();
+            }
+            rng2.jump(n);
+            assertEquals(rng1.nextLong(), rng2.nextLong());
+        }
+    }
+
+    @Test
+    public void test_substream_0010() {
+        Philox rng = new Philox(1234567890L);
+        Philox stream0 = rng.substream(0);
+        Philox stream1 = rng.substream(1);
+        for (int i = 0; i < 1000; ++i) {//the substreams do not depend on the state of rng
+            rng.nextLong();
+        }
+
+        Philox rng0 = new Philox(1234567890L);
+        Philox rng1 = new Philox(1234567890L, 1L);
+        Philox stream1Again = rng.substream(1);
+        boolean different = false;
+        for (int i = 0; i < 1000; ++i) {
+            assertEquals(rng0.nextLong(), stream0.nextLong());
+            long x = rng1.nextLong();
+            assertEquals(x, stream1.nextLong());
+            long y = stream1Again.nextLong();
+            assertEquals(x, y);
+            different |= x != rng.nextLong();
+        }
+        assertTrue(different);
+    }
+}
@@ -80,4 +80,35 @@ public class LEcuyerTest {
             assertEquals(r, instance.nextLong());
         }
     }
+
+    @Test
+    public void test_jump_0010() {
+        LEcuyer rng1 = new LEcuyer(1, 2, 3, 4, 5, 6);
+        LEcuyer rng2 = new LEcuyer(1, 2, 3, 4, 5, 6);
+
+        for (int n : new int[]{0, 1, 2, 3, 100, 123456}) {
+            for (int i = 0; i < n; ++i) {
+                rng1.nextLong();
+            }
+            rng2.jump(n);
+            assertEquals(rng1.nextLong(), rng2.nextLong());
+        }
+    }
+
+    @Test
+    public void test_substream_0010() {
+        LEcuyer rng = new LEcuyer(1, 2, 3, 4, 5, 6);
+        LEcuyer stream0 = rng.substream(0);
+        LEcuyer stream3 = rng.substream(3);
+        for (int i = 0; i < 1000; ++i) {//the substreams do not depend on the state of rng
+            rng.nextLong();
+        }
+        LEcuyer stream21 = rng.substream(2).substream(1);
+
+        LEcuyer rng0 = new LEcuyer(1, 2, 3, 4, 5, 6);
+        for (int i = 0; i < 1000; ++i) {
+            assertEquals(rng0.nextLong(), stream0.nextLong());
+            assertEquals(stream3.nextLong(), stream21.nextLong());
+        }
+    }
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ *
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ *
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ *
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.regression.linear.ols;
+
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.stats.regression.linear.LMProblem;
+import com.numericalmethod.suanshu.vector.doubles.dense.DenseVector;
+import java.util.Arrays;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class StreamingOLSRegressionTest {
+
+    /**
+     * the data in OLSRegressionTest.test_OLSRegression_0010, in two chunks
+     */
+    @Test
+    public void test_0010() {
+        LMProblem chunk1 = new LMProblem(
+                new DenseVector(new double[]{2.32, 0.452}),
+                new DenseMatrix(new double[][]{
+                    {1.52, 2.23, 4.31},
+                    {3.22, 6.34, 3.46}
+                }),
+                true);
+        LMProblem chunk2 = new LMProblem(
+                new DenseVector(new double[]{4.53, 12.34, 32.2}),
+                new DenseMatrix(new double[][]{
+                    {4.32, 12.2, 23.1},
+                    {10.1034, 43.2, 22.3},
+                    {12.1, 2.12, 3.27}
+                }),
+                true);
+
+        StreamingOLSRegression instance = new StreamingOLSRegression(Arrays.asList(chunk1, chunk2).iterator());
+
+        assertEquals(5, instance.nObs);
+        assertArrayEquals(
+                new double[]{3.05526367241960983, -0.34757163218629139, 0.01921862042814120, -4.35792401241910454},
+                instance.beta.betaHat.toArray(), 1e-13);//summary(fitted)
+        assertArrayEquals(
+                new double[]{0.49199823389061365, 0.1945400045869793, 0.29920689101703202, 3.95885424688395782},
+                instance.beta.stderr.toArray(), 1e-13);//summary(fitted)
+        assertArrayEquals(
+                new double[]{6.20991, -1.78663, 0.06423, -1.10080},
+                instance.beta.t.toArray(), 1e-5);//summary(fitted)
+        assertEquals(0.9759536870161641398, instance.R2, 1e-14);//summary(fitted)
+        assertEquals(0.903814748064656559, instance.AR2, 1e-14);//summary(fitted)
+        assertEquals(4.036867249675673, instance.stderr, 1e-13);//summary(fitted)
+        assertEquals(13.52880567972044368, instance.f, 1e-12);//summary(fitted)
+        assertEquals(16.2962971915040313, instance.RSS, 1e-12);//anova(fitted)
+        assertEquals(677.7046112, instance.TSS, 1e-12);//sum(anova(fitted)$"Sum Sq")
+    }
+
+    /**
+     * weighted, and without an intercept, compared to {@link OLSRegression}
+     */
+    @Test
+    public void test_0020() {
+        double[] y = new double[]{6, 5, 7, 10, 3, 8};
+        double[][] x = new double[][]{{1, 0.5}, {2, 0.1}, {3, 0.7}, {4, 0.2}, {5, 0.9}, {6, 0.4}};
+        double[] w = new double[]{1, 2, 0.5, 1, 3, 1};
+
+        for (boolean intercept : new boolean[]{true, false}) {
+            OLSRegression expected = new OLSRegression(
+                    new LMProblem(new DenseVector(y), new DenseMatrix(x), intercept, new DenseVector(w)));
+
+            LMProblem chunk1 = new LMProblem(
+                    new DenseVector(Arrays.copyOfRange(y, 0, 4)),
+                    new DenseMatrix(Arrays.copyOfRange(x, 0, 4)),
+                    intercept,
+                    new DenseVector(Arrays.copyOfRange(w, 0, 4)));
+            LMProblem chunk2 = new LMProblem(
+                    new DenseVector(Arrays.copyOfRange(y, 4, 6)),
+                    new DenseMatrix(Arrays.copyOfRange(x, 4, 6)),
+                    intercept,
+                    new DenseVector(Arrays.copyOfRange(w, 4, 6)));
+            StreamingOLSRegression instance = new StreamingOLSRegression(Arrays.asList(chunk1, chunk2).iterator());
+
+            assertArrayEquals(expected.beta.betaHat.toArray(), instance.beta.betaHat.toArray(), 1e-12);
+            assertArrayEquals(expected.beta.stderr.toArray(), instance.beta.stderr.toArray(), 1e-12);
+            assertEquals(expected.residuals.RSS, instance.RSS, 1e-12);
+            assertEquals(expected.residuals.TSS, instance.TSS, 1e-12);
+            assertEquals(expected.residuals.R2, instance.R2, 1e-12);
+            assertEquals(expected.residuals.f, instance.f, 1e-11);
+        }
+    }
+}
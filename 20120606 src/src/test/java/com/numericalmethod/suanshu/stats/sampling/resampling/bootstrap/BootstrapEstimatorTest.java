@@ -75,4 +75,27 @@ public class BootstrapEstimatorTest {
         assertEquals(new Mean(sample).value(), instance.value(), 1e-2);
         assertEquals(0.4, instance.variance(), 1e-2);
     }
+
+    @Test
+    public void test_parallel_0010() throws MultipleExecutionException {
+        double[] sample = new double[]{1., 2., 3., 4., 5.,};
+        StatisticFactory factory = new StatisticFactory() {
+
+            public Statistic getStatistic() {
+                return new Mean();
+            }
+        };
+        int B = 100000;
+
+        NonParametricBootstrap bootstrap1 = new NonParametricBootstrap(sample);
+        bootstrap1.seed(1234567890L);
+        BootstrapEstimator serial = new BootstrapEstimator(bootstrap1, factory, B, false);
+
+        NonParametricBootstrap bootstrap2 = new NonParametricBootstrap(sample);
+        bootstrap2.seed(1234567890L);
+        BootstrapEstimator parallel = new BootstrapEstimator(bootstrap2, factory, B, true);
+
+        assertEquals(serial.value(), parallel.value(), 0);
+        assertEquals(serial.variance(), parallel.variance(), 0);
+    }
 }
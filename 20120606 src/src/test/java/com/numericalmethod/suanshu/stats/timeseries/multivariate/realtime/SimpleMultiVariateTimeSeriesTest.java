@@ -173,6 +173,20 @@ public class SimpleMultiVariateTimeSeriesTest {
         assertEquals(4, t1.size());
     }
 
+    /**
+     * equals is consistent with hashCode for NaN and signed zeros
+     */
+    @Test
+    public void test_0080() {
+        SimpleMultiVariateTimeSeries t1 = new SimpleMultiVariateTimeSeries(new double[][]{{1, Double.NaN}, {2, 0.}});
+        SimpleMultiVariateTimeSeries t2 = new SimpleMultiVariateTimeSeries(new double[][]{{1, Double.NaN}, {2, 0.}});
+        assertEquals(t1, t2);
+        assertEquals(t1.hashCode(), t2.hashCode());
+
+        SimpleMultiVariateTimeSeries t3 = new SimpleMultiVariateTimeSeries(new double[][]{{1, Double.NaN}, {2, -0.}});
+        assertFalse(t1.equals(t3));
+    }
+
     @Test
     public void test_0110() {
         Matrix A1 = new DenseMatrix(new double[][]{
@@ -189,4 +203,36 @@ public class SimpleMultiVariateTimeSeriesTest {
         assertArrayEquals(new double[]{1, 1.1}, t1.get(1).toArray(), 0.0);
         assertArrayEquals(new double[]{8, 8.8}, t1.get(8).toArray(), 0.0);
     }
+
+    /**
+     * lagged views of views
+     */
+    @Test
+    public void test_0710() {
+        SimpleMultiVariateTimeSeries t1 = new SimpleMultiVariateTimeSeries(new double[][]{
+                    {1, 2},
+                    {3, 4},
+                    {5, 6},
+                    {7, 8},
+                    {9, 10}
+                });
+
+        SimpleMultiVariateTimeSeries t2 = t1.drop(1).lag(1);
+        assertEquals(new SimpleMultiVariateTimeSeries(new double[][]{
+                    {3, 4},
+                    {5, 6},
+                    {7, 8}
+                }), t2);
+        assertEquals(2, t2.dimension());
+        assertEquals(new DenseVector(new double[]{5, 6}), t2.get(2));
+        assertEquals(new DenseMatrix(new double[][]{{3, 4}, {5, 6}, {7, 8}}), t2.toMatrix());
+        assertEquals(new SimpleMultiVariateTimeSeries(new double[][]{
+                    {2, 2},
+                    {2, 2}
+                }), t2.diff(1));
+
+        Iterator<MultiVariateTimeSeries.Entry> it = t2.iterator();
+        it.next();
+        assertEquals(new DenseVector(new double[]{5, 6}), it.next().getValue());
+    }
 }
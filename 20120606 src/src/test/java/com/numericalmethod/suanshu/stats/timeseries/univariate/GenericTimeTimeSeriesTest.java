@@ -142,4 +142,92 @@ public class GenericTimeTimeSeriesTest {
             assertEquals(i, it.next().getValue(), 0);
         }
     }
+
+    @Test
+    public void test_0510() {
+        GenericTimeTimeSeries<Integer> t1 = new GenericTimeTimeSeries<Integer>(
+                new Integer[]{2, 4, 6, 8, 10, 12, 14, 16, 18, 20},
+                new double[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10});
+
+        for (int i = 1; i <= 10; ++i) {
+            assertEquals(i, t1.get(Integer.valueOf(2 * i)), 0);
+        }
+
+        GenericTimeTimeSeries<Integer> t2 = t1.drop(4);
+        assertEquals(5, t2.get(Integer.valueOf(10)), 0);
+        assertEquals(10, t2.time(1).intValue());
+        assertArrayEquals(new Integer[]{10, 12, 14, 16, 18, 20}, t2.timestamps());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void test_0520() {
+        GenericTimeTimeSeries<Integer> t1 = new GenericTimeTimeSeries<Integer>(
+                new Integer[]{2, 4, 6, 8, 10, 12, 14, 16, 18, 20},
+                new double[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10});
+        t1.drop(4).get(Integer.valueOf(8));//dropped
+    }
+
+    /**
+     * The timestamps not in order are searched linearly.
+     */
+    @Test
+    public void test_0530() {
+        GenericTimeTimeSeries<Integer> t1 = new GenericTimeTimeSeries<Integer>(
+                new Integer[]{5, 3, 9, 1},
+                new double[]{1, 2, 3, 4});
+
+        assertEquals(1, t1.get(Integer.valueOf(5)), 0);
+        assertEquals(2, t1.get(Integer.valueOf(3)), 0);
+        assertEquals(3, t1.get(Integer.valueOf(9)), 0);
+        assertEquals(4, t1.get(Integer.valueOf(1)), 0);
+    }
+
+    @Test
+    public void test_0540() {
+        GenericTimeTimeSeries<Integer> t1 = new GenericTimeTimeSeries<Integer>(
+                new Integer[]{1, 2, 3},
+                new double[]{1, 2, 4});
+
+        GenericTimeTimeSeries<Integer> t2 = t1.drop(1).append(new Integer[]{4, 5}, new double[]{8, 16});
+        assertEquals(new GenericTimeTimeSeries<Integer>(
+                new Integer[]{2, 3, 4, 5},
+                new double[]{2, 4, 8, 16}), t2);
+        assertEquals(8, t2.get(Integer.valueOf(4)), 0);
+
+        GenericTimeTimeSeries<Integer> t3 = t2.diff(1);
+        assertArrayEquals(new Integer[]{3, 4, 5}, t3.timestamps());
+        assertArrayEquals(new double[]{2, 4, 8}, t3.toArray(), 0);
+        assertEquals(4, t3.get(Integer.valueOf(4)), 0);
+
+        GenericTimeTimeSeries<Integer> t4 = t2.append(new Integer[]{1}, new double[]{0});//out of order
+        assertEquals(0, t4.get(Integer.valueOf(1)), 0);
+        assertEquals(16, t4.get(Integer.valueOf(5)), 0);
+    }
+
+    /**
+     * differences of a view, and views of the differences
+     */
+    @Test
+    public void test_0550() {
+        GenericTimeTimeSeries<Integer> t1 = new GenericTimeTimeSeries<Integer>(
+                new Integer[]{1, 2, 3, 4, 5, 6, 7},
+                new double[]{1, 2, 4, 8, 16, 32, 64});
+
+        GenericTimeTimeSeries<Integer> t2 = t1.drop(3).diff(1);
+        assertEquals(new GenericTimeTimeSeries<Integer>(
+                new Integer[]{5, 6, 7},
+                new double[]{8, 16, 32}), t2);
+        assertEquals(16, t2.get(Integer.valueOf(6)), 0);
+        assertEquals(16, t2.get(2), 0);
+        assertEquals(6, t2.time(2).intValue());
+
+        GenericTimeTimeSeries<Integer> t3 = t2.drop(1);
+        assertArrayEquals(new Integer[]{6, 7}, t3.timestamps());
+        assertArrayEquals(new double[]{16, 32}, t3.toArray(), 0);
+        assertEquals(32, t3.get(Integer.valueOf(7)), 0);
+
+        assertEquals(new GenericTimeTimeSeries<Integer>(
+                new Integer[]{7},
+                new double[]{16}), t3.diff(1));
+    }
 }
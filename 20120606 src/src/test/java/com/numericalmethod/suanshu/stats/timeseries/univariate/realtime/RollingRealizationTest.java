@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) Numerical Method Inc.
+ * http://www.numericalmethod.com/
+ * 
+ * THIS SOFTWARE IS LICENSED, NOT SOLD.
+ * 
+ * YOU MAY USE THIS SOFTWARE ONLY AS DESCRIBED IN THE LICENSE.
+ * IF YOU ARE NOT AWARE OF AND/OR DO NOT AGREE TO THE TERMS OF THE LICENSE,
+ * DO NOT USE THIS SOFTWARE.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITH NO WARRANTY WHATSOEVER,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING, WITHOUT LIMITATION,
+ * ANY WARRANTIES OF ACCURACY, ACCESSIBILITY, COMPLETENESS,
+ * FITNESS FOR A PARTICULAR PURPOSE, MERCHANTABILITY, NON-INFRINGEMENT,
+ * TITLE AND USEFULNESS.
+ * 
+ * IN NO EVENT AND UNDER NO LEGAL THEORY,
+ * WHETHER IN ACTION, CONTRACT, NEGLIGENCE, TORT, OR OTHERWISE,
+ * SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR
+ * ANY CLAIMS, DAMAGES OR OTHER LIABILITIES,
+ * ARISING AS A RESULT OF USING OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.numericalmethod.suanshu.stats.timeseries.univariate.realtime;
+
+import com.numericalmethod.suanshu.stats.descriptive.RollingStatistic;
+import com.numericalmethod.suanshu.stats.descriptive.RollingStatisticFactory;
+import com.numericalmethod.suanshu.stats.descriptive.rank.RollingMax;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class RollingRealizationTest {
+
+    @Test
+    public void test_0010() {
+        final List<Realization.Entry> entries = Arrays.asList(
+                new Realization.Entry(0.0, 1),
+                new Realization.Entry(0.3, 7),
+                new Realization.Entry(0.4, 2),
+                new Realization.Entry(1.35, 3),
+                new Realization.Entry(2.0, 0));
+
+        Realization ts = new Realization() {
+
+            @Override
+            public int size() {
+                return entries.size();
+            }
+
+            @Override
+            public Iterator<Entry> iterator() {
+                return entries.iterator();
+            }
+
+            @Override
+            public double[] toArray() {
+                throw new UnsupportedOperationException("not used");
+            }
+        };
+
+        RollingRealization max = new RollingRealization(ts, 1., new RollingStatisticFactory() {
+
+            @Override
+            public RollingStatistic getStatistic() {
+                return new RollingMax();
+            }
+        });
+
+        assertEquals(5, max.size());
+        assertArrayEquals(new double[]{1, 7, 7, 3, 3}, max.toArray(), 0);
+
+        Iterator<Realization.Entry> it = max.iterator();
+        it.next();
+        assertEquals(0.3, it.next().getTime(), 0);
+    }
+}
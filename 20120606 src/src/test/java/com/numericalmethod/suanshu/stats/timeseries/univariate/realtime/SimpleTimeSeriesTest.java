@@ -218,4 +218,40 @@ public class SimpleTimeSeriesTest {
         assertEquals(1, t1.get(1), 0.0);
         assertEquals(10, t1.get(10), 0.0);
     }
+
+    /**
+     * lagged views of views
+     */
+    @Test
+    public void test_0710() {
+        double[] values = new double[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+        SimpleTimeSeries t1 = new SimpleTimeSeries(values);
+        values[0] = 100;//the time series is independent of the input
+        assertEquals(1, t1.get(1), 0);
+
+        SimpleTimeSeries t2 = t1.drop(2).lag(3);
+        assertEquals(new SimpleTimeSeries(new double[]{3, 4, 5, 6, 7}), t2);
+        assertEquals(t2.hashCode(), new SimpleTimeSeries(new double[]{3, 4, 5, 6, 7}).hashCode());
+        assertArrayEquals(new double[]{3, 4, 5, 6, 7}, t2.toArray(), 0);
+        assertEquals(new SimpleTimeSeries(new double[]{1, 1, 1, 1}), t2.diff(1));
+
+        Iterator<TimeSeries.Entry> it = t2.iterator();
+        TimeSeries.Entry entry = it.next();
+        assertEquals(1, entry.getTime().intValue());
+        assertEquals(3, entry.getValue(), 0);
+    }
+
+    @Test
+    public void test_0720() {
+        SimpleTimeSeries t1 = new SimpleTimeSeries(new double[]{1, 2, 3, 4, 5});
+        SimpleTimeSeries t2 = t1.drop(3).append(6, 7);
+        assertEquals(new SimpleTimeSeries(new double[]{4, 5, 6, 7}), t2);
+        assertEquals(5, t1.size());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void test_0730() {
+        SimpleTimeSeries t1 = new SimpleTimeSeries(new double[]{1, 2, 3, 4, 5});
+        t1.lag(1, 3).get(4);//the view does not see beyond its end
+    }
 }
@@ -24,6 +24,7 @@ package com.numericalmethod.suanshu.vector.doubles.dense;
 import com.numericalmethod.suanshu.vector.doubles.IsVector.VectorAccessException;
 import com.numericalmethod.suanshu.matrix.doubles.Matrix;
 import com.numericalmethod.suanshu.matrix.doubles.matrixtype.dense.DenseMatrix;
+import com.numericalmethod.suanshu.matrix.doubles.matrixtype.sparse.SparseVector;
 import com.numericalmethod.suanshu.vector.doubles.Vector;
 import org.junit.Test;
 import static org.junit.Assert.*;
@@ -184,5 +185,15 @@ public class DenseVectorTest {
         Vector v3 = new DenseVector(new double[]{1, 4, 9, 16, 25, 36, 49, 64, 81, 100});
         assertEquals(v3, v2);
     }
+
+    @Test
+    public void test_set_0010() {
+        DenseVector v1 = new DenseVector(new double[]{1, 2, 3});
+        v1.set(new DenseVector(new double[]{4, 5, 6}));
+        assertEquals(new DenseVector(new double[]{4, 5, 6}), v1);
+
+        v1.set(new SparseVector(3, new int[]{2}, new double[]{7}));
+        assertEquals(new DenseVector(new double[]{0, 7, 0}), v1);
+    }
     //</editor-fold>
 }